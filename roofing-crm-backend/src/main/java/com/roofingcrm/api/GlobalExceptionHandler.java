@@ -9,11 +9,15 @@ import com.roofingcrm.service.exception.LeadConversionNotAllowedException;
 import com.roofingcrm.service.exception.MailConfigurationException;
 import com.roofingcrm.service.exception.MailDeliveryException;
 import com.roofingcrm.service.exception.NoPaidInvoicesForYearException;
+import com.roofingcrm.service.exception.PasswordHashingCapacityException;
+import com.roofingcrm.service.exception.ReportJobExpiredException;
+import com.roofingcrm.service.exception.ReportJobNotReadyException;
 import com.roofingcrm.service.exception.ResourceNotFoundException;
 import com.roofingcrm.service.auth.AuthSessionException;
 import com.roofingcrm.service.attachment.AttachmentUploadProperties;
 import com.roofingcrm.service.tenant.TenantAccessDeniedException;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -182,6 +186,21 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(body);
     }
 
+    @ExceptionHandler(PasswordHashingCapacityException.class)
+    public ResponseEntity<ApiErrorResponse> handlePasswordHashingCapacity(PasswordHashingCapacityException ex,
+                                                                          HttpServletRequest request) {
+        ApiErrorResponse body = new ApiErrorResponse(
+                Instant.now(),
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase(),
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(body);
+    }
+
     @ExceptionHandler(EstimateLinkExpiredException.class)
     public ResponseEntity<ApiErrorResponse> handleEstimateLinkExpired(EstimateLinkExpiredException ex,
                                                                       HttpServletRequest request) {
@@ -221,6 +240,32 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(body);
     }
 
+    @ExceptionHandler(ReportJobNotReadyException.class)
+    public ResponseEntity<ApiErrorResponse> handleReportJobNotReady(ReportJobNotReadyException ex,
+                                                                    HttpServletRequest request) {
+        ApiErrorResponse body = new ApiErrorResponse(
+                Instant.now(),
+                HttpStatus.CONFLICT.value(),
+                HttpStatus.CONFLICT.getReasonPhrase(),
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+    }
+
+    @ExceptionHandler(ReportJobExpiredException.class)
+    public ResponseEntity<ApiErrorResponse> handleReportJobExpired(ReportJobExpiredException ex,
+                                                                   HttpServletRequest request) {
+        ApiErrorResponse body = new ApiErrorResponse(
+                Instant.now(),
+                HttpStatus.GONE.value(),
+                HttpStatus.GONE.getReasonPhrase(),
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+        return ResponseEntity.status(HttpStatus.GONE).body(body);
+    }
+
     @ExceptionHandler(MaxUploadSizeExceededException.class)
     public ResponseEntity<ApiErrorResponse> handleMaxUploadSizeExceeded(MaxUploadSizeExceededException ex,
                                                                         HttpServletRequest request) {
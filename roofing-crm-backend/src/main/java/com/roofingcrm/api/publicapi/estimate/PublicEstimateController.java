@@ -1,6 +1,7 @@
 package com.roofingcrm.api.publicapi.estimate;
 
 import com.roofingcrm.service.estimate.PublicEstimateService;
+import com.roofingcrm.service.publicview.PublicView;
 import jakarta.validation.Valid;
 
 import java.util.Objects;
@@ -21,10 +22,14 @@ public class PublicEstimateController {
         this.publicEstimateService = publicEstimateService;
     }
 
+    /** Conditional: a matching {@code If-None-Match} gets 304 (Spring compares it to the ETag set here). */
     @GetMapping("/{token}")
     public ResponseEntity<PublicEstimateDto> getByToken(@PathVariable("token") @NonNull String token) {
-        PublicEstimateDto dto = publicEstimateService.getByToken(token);
-        return ResponseEntity.ok(dto);
+        PublicView<PublicEstimateDto> view = publicEstimateService.getViewByToken(token);
+        return ResponseEntity.ok()
+                .eTag(view.etag())
+                .cacheControl(PublicView.CACHE_CONTROL)
+                .body(view.body());
     }
 
     @PostMapping("/{token}/decision")
@@ -1,6 +1,7 @@
 package com.roofingcrm.api.publicapi.invoice;
 
 import com.roofingcrm.service.invoice.PublicInvoiceService;
+import com.roofingcrm.service.publicview.PublicView;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.NonNull;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -18,9 +19,13 @@ public class PublicInvoiceController {
         this.publicInvoiceService = publicInvoiceService;
     }
 
+    /** Conditional: a matching {@code If-None-Match} gets 304 (Spring compares it to the ETag set here). */
     @GetMapping("/{token}")
     public ResponseEntity<PublicInvoiceDto> getByToken(@PathVariable("token") @NonNull String token) {
-        PublicInvoiceDto dto = publicInvoiceService.getByToken(token);
-        return ResponseEntity.ok(dto);
+        PublicView<PublicInvoiceDto> view = publicInvoiceService.getViewByToken(token);
+        return ResponseEntity.ok()
+                .eTag(view.etag())
+                .cacheControl(PublicView.CACHE_CONTROL)
+                .body(view.body());
     }
 }
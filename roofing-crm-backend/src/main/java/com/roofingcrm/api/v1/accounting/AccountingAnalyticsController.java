@@ -0,0 +1,58 @@
+package com.roofingcrm.api.v1.accounting;
+
+import com.roofingcrm.domain.enums.CostTrendInterval;
+import com.roofingcrm.domain.enums.MarginBasis;
+import com.roofingcrm.security.SecurityUtils;
+import com.roofingcrm.service.accounting.AccountingAnalyticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.NonNull;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/accounting/analytics")
+@Validated
+public class AccountingAnalyticsController {
+
+    private final AccountingAnalyticsService accountingAnalyticsService;
+
+    @Autowired
+    public AccountingAnalyticsController(AccountingAnalyticsService accountingAnalyticsService) {
+        this.accountingAnalyticsService = accountingAnalyticsService;
+    }
+
+    @GetMapping("/profitability")
+    public ResponseEntity<ProfitabilityOverviewDto> getProfitabilityOverview(
+            @RequestHeader("X-Tenant-Id") @NonNull UUID tenantId,
+            @RequestParam(value = "basis", defaultValue = "ACTUAL") MarginBasis basis,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        UUID userId = SecurityUtils.getCurrentUserIdOrThrow();
+        return ResponseEntity.ok(accountingAnalyticsService.getProfitabilityOverview(tenantId, userId, basis, limit));
+    }
+
+    @GetMapping("/cost-categories")
+    public ResponseEntity<CostCategoryTrendDto> getCostCategoryTrend(
+            @RequestHeader("X-Tenant-Id") @NonNull UUID tenantId,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "interval", defaultValue = "MONTH") CostTrendInterval interval) {
+        UUID userId = SecurityUtils.getCurrentUserIdOrThrow();
+        return ResponseEntity.ok(accountingAnalyticsService.getCostCategoryTrend(tenantId, userId, from, to, interval));
+    }
+
+    @GetMapping("/receivables-aging")
+    public ResponseEntity<ReceivablesAgingDto> getReceivablesAging(
+            @RequestHeader("X-Tenant-Id") @NonNull UUID tenantId) {
+        UUID userId = SecurityUtils.getCurrentUserIdOrThrow();
+        return ResponseEntity.ok(accountingAnalyticsService.getReceivablesAging(tenantId, userId));
+    }
+}
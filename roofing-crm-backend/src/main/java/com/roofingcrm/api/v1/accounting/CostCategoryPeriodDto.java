@@ -0,0 +1,20 @@
+package com.roofingcrm.api.v1.accounting;
+
+import com.roofingcrm.domain.enums.JobCostCategory;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+public class CostCategoryPeriodDto {
+
+    private LocalDate periodStart;
+    private Map<JobCostCategory, BigDecimal> categoryTotals = new LinkedHashMap<>();
+    private BigDecimal totalCosts;
+    private long entryCount;
+}
@@ -0,0 +1,25 @@
+package com.roofingcrm.api.v1.accounting;
+
+import com.roofingcrm.domain.enums.CostTrendInterval;
+import com.roofingcrm.domain.enums.JobCostCategory;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+public class CostCategoryTrendDto {
+
+    private LocalDate from;
+    private LocalDate to;
+    private CostTrendInterval interval;
+    private Map<JobCostCategory, BigDecimal> categoryTotals = new LinkedHashMap<>();
+    private BigDecimal totalCosts;
+    private List<CostCategoryPeriodDto> periods = new ArrayList<>();
+}
@@ -1,10 +1,15 @@
 package com.roofingcrm.api.v1.accounting;
 
+import com.roofingcrm.domain.enums.MarginBasis;
 import com.roofingcrm.security.SecurityUtils;
 import com.roofingcrm.service.accounting.JobAccountingService;
 import com.roofingcrm.service.accounting.JobAccountingReceiptService;
+import com.roofingcrm.service.accounting.ReceiptImportService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.NonNull;
@@ -21,6 +26,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 
 @RestController
@@ -29,12 +35,15 @@ public class JobAccountingController {
 
     private final JobAccountingService jobAccountingService;
     private final JobAccountingReceiptService jobAccountingReceiptService;
+    private final ReceiptImportService receiptImportService;
 
     @Autowired
     public JobAccountingController(JobAccountingService jobAccountingService,
-                                   JobAccountingReceiptService jobAccountingReceiptService) {
+                                   JobAccountingReceiptService jobAccountingReceiptService,
+                                   ReceiptImportService receiptImportService) {
         this.jobAccountingService = jobAccountingService;
         this.jobAccountingReceiptService = jobAccountingReceiptService;
+        this.receiptImportService = receiptImportService;
     }
 
     @GetMapping("/api/v1/jobs/{jobId}/accounting/summary")
@@ -45,6 +54,16 @@ public class JobAccountingController {
         return ResponseEntity.ok(jobAccountingService.getJobAccountingSummary(tenantId, userId, jobId));
     }
 
+    @GetMapping("/api/v1/accounting/job-profitability")
+    public ResponseEntity<Page<JobProfitabilityDto>> listJobProfitability(
+            @RequestHeader("X-Tenant-Id") @NonNull UUID tenantId,
+            @RequestParam(value = "basis", defaultValue = "ACTUAL") MarginBasis basis,
+            @PageableDefault(size = 20) Pageable pageable) {
+        UUID userId = SecurityUtils.getCurrentUserIdOrThrow();
+        return ResponseEntity.ok(jobAccountingService.listJobProfitability(tenantId, userId, basis,
+                Objects.requireNonNull(pageable)));
+    }
+
     @GetMapping("/api/v1/jobs/{jobId}/costs")
     public ResponseEntity<List<JobCostEntryDto>> listJobCostEntries(
             @RequestHeader("X-Tenant-Id") @NonNull UUID tenantId,
@@ -102,6 +121,30 @@ public class JobAccountingController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    /**
+     * Bulk import: any number of {@code files} parts, each a receipt or a ZIP of receipts. Files are stored before this
+     * returns; extraction runs in the background and is followed through the returned batch.
+     */
+    @PostMapping("/api/v1/jobs/{jobId}/receipts/batches")
+    public ResponseEntity<ReceiptImportBatchDto> importReceipts(
+            @RequestHeader("X-Tenant-Id") @NonNull UUID tenantId,
+            @PathVariable("jobId") UUID jobId,
+            @RequestParam("files") List<MultipartFile> files,
+            @RequestParam(value = "extract", defaultValue = "true") boolean extract) {
+        UUID userId = SecurityUtils.getCurrentUserIdOrThrow();
+        ReceiptImportBatchDto batch = receiptImportService.importReceipts(tenantId, userId, jobId, files, extract);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(batch);
+    }
+
+    @GetMapping("/api/v1/jobs/{jobId}/receipts/batches/{batchId}")
+    public ResponseEntity<ReceiptImportBatchDto> getReceiptImport(
+            @RequestHeader("X-Tenant-Id") @NonNull UUID tenantId,
+            @PathVariable("jobId") UUID jobId,
+            @PathVariable("batchId") UUID batchId) {
+        UUID userId = SecurityUtils.getCurrentUserIdOrThrow();
+        return ResponseEntity.ok(receiptImportService.getImportBatch(tenantId, userId, jobId, batchId));
+    }
+
     @PostMapping("/api/v1/jobs/{jobId}/receipts/{receiptId}/create-cost")
     public ResponseEntity<JobCostEntryDto> createCostFromReceipt(
             @RequestHeader("X-Tenant-Id") @NonNull UUID tenantId,
@@ -0,0 +1,27 @@
+package com.roofingcrm.api.v1.accounting;
+
+import com.roofingcrm.domain.enums.JobType;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Getter
+@Setter
+public class JobProfitabilityDto {
+
+    private UUID jobId;
+    private JobType jobType;
+    private String propertyAddressLine1;
+    private String propertyCity;
+    private BigDecimal agreedAmount;
+    private BigDecimal invoicedAmount;
+    private BigDecimal paidAmount;
+    private BigDecimal totalCosts;
+    private BigDecimal actualProfit;
+    private BigDecimal actualMarginPercent;
+    private BigDecimal projectedProfit;
+    private BigDecimal projectedMarginPercent;
+    private boolean hasAcceptedEstimate;
+}
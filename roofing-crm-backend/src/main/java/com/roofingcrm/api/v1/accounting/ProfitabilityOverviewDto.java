@@ -0,0 +1,27 @@
+package com.roofingcrm.api.v1.accounting;
+
+import com.roofingcrm.domain.enums.MarginBasis;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+public class ProfitabilityOverviewDto {
+
+    private MarginBasis basis;
+    private long jobCount;
+    private BigDecimal agreedAmount;
+    private BigDecimal invoicedAmount;
+    private BigDecimal paidAmount;
+    private BigDecimal totalCosts;
+    private BigDecimal actualProfit;
+    private BigDecimal actualMarginPercent;
+    private BigDecimal projectedProfit;
+    private BigDecimal projectedMarginPercent;
+    private List<JobProfitabilityDto> mostProfitableJobs = new ArrayList<>();
+    private List<JobProfitabilityDto> leastProfitableJobs = new ArrayList<>();
+}
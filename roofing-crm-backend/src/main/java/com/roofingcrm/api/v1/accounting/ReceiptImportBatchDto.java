@@ -0,0 +1,29 @@
+package com.roofingcrm.api.v1.accounting;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Getter
+@Setter
+public class ReceiptImportBatchDto {
+
+    private UUID id;
+    private UUID jobId;
+    private Instant createdAt;
+    private boolean extractionRequested;
+    private int fileCount;
+    private int storedCount;
+    private int duplicateCount;
+    private int rejectedCount;
+    /** Extraction progress of the receipts this batch stored. */
+    private int extractionPendingCount;
+    private int extractionCompletedCount;
+    private int extractionFailedCount;
+    /** True once nothing in the batch is still waiting for extraction. */
+    private boolean complete;
+    private List<ReceiptImportItemDto> items;
+}
@@ -0,0 +1,20 @@
+package com.roofingcrm.api.v1.accounting;
+
+import com.roofingcrm.domain.enums.ReceiptExtractionStatus;
+import com.roofingcrm.domain.enums.ReceiptImportItemStatus;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.UUID;
+
+@Getter
+@Setter
+public class ReceiptImportItemDto {
+
+    private String fileName;
+    private ReceiptImportItemStatus status;
+    /** The stored receipt, or for duplicates the receipt that already holds the same file. */
+    private UUID receiptId;
+    private ReceiptExtractionStatus extractionStatus;
+    private String error;
+}
@@ -0,0 +1,18 @@
+package com.roofingcrm.api.v1.accounting;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+public class ReceivablesAgingBucketDto {
+
+    private String label;
+    private int minDaysPastDue;
+    /** Null for the open-ended oldest bucket. */
+    private Integer maxDaysPastDue;
+    private BigDecimal amount;
+    private long invoiceCount;
+}
@@ -0,0 +1,19 @@
+package com.roofingcrm.api.v1.accounting;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+public class ReceivablesAgingDto {
+
+    private LocalDate asOf;
+    private BigDecimal totalOpen;
+    private long openInvoiceCount;
+    private List<ReceivablesAgingBucketDto> buckets = new ArrayList<>();
+}
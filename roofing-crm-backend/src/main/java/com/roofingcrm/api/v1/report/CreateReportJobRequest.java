@@ -0,0 +1,27 @@
+package com.roofingcrm.api.v1.report;
+
+import com.roofingcrm.domain.enums.LeadSource;
+import com.roofingcrm.domain.enums.ReportType;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.UUID;
+
+/**
+ * A background report request. Each type reads the parameters of its synchronous endpoint: statusDefinitionId,
+ * source and limit (LEADS_CSV), statusDefinitionId and limit (JOBS_CSV), year (PAID_INVOICES_PDF) and reportId
+ * (CUSTOMER_PHOTO_REPORT_PDF); the rest are ignored.
+ */
+@Getter
+@Setter
+public class CreateReportJobRequest {
+
+    @NotNull
+    private ReportType type;
+    private UUID statusDefinitionId;
+    private LeadSource source;
+    private Integer limit;
+    private Integer year;
+    private UUID reportId;
+}
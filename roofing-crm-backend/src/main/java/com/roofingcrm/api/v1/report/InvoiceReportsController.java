@@ -1,7 +1,9 @@
 package com.roofingcrm.api.v1.report;
 
 import com.roofingcrm.security.SecurityUtils;
+import com.roofingcrm.service.report.PaidInvoicesPdfCache;
 import com.roofingcrm.service.report.PaidInvoicesReportService;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -36,16 +38,17 @@ public class InvoiceReportsController {
     }
 
     @GetMapping(value = "/paid", produces = MediaType.APPLICATION_PDF_VALUE)
-    public ResponseEntity<byte[]> getPaidInvoicesPdf(
+    public ResponseEntity<InputStreamResource> getPaidInvoicesPdf(
             @RequestHeader("X-Tenant-Id") @NonNull UUID tenantId,
             @RequestParam("year") int year) {
 
         UUID userId = SecurityUtils.getCurrentUserIdOrThrow();
-        byte[] pdf = paidInvoicesReportService.generatePaidInvoicesYearPdf(tenantId, userId, year);
+        PaidInvoicesPdfCache.CachedPdf pdf = paidInvoicesReportService.openPaidInvoicesYearPdf(tenantId, userId, year);
         String filename = "paid-invoices-" + year + ".pdf";
         return ResponseEntity.ok()
                 .contentType(Objects.requireNonNull(MediaType.APPLICATION_PDF))
+                .contentLength(pdf.size())
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                .body(pdf);
+                .body(new InputStreamResource(pdf.content()));
     }
 }
@@ -0,0 +1,70 @@
+package com.roofingcrm.api.v1.report;
+
+import com.roofingcrm.security.SecurityUtils;
+import com.roofingcrm.service.report.ReportJobService;
+import jakarta.validation.Valid;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.NonNull;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+/**
+ * Background report generation: queue a report, poll it (or listen on {@code /topic/tenants/{tenantId}/report-jobs}),
+ * then download the stored file until it expires.
+ */
+@RestController
+@RequestMapping("/api/v1/reports/jobs")
+public class ReportJobController {
+
+    private final ReportJobService reportJobService;
+
+    public ReportJobController(ReportJobService reportJobService) {
+        this.reportJobService = reportJobService;
+    }
+
+    @PostMapping
+    public ResponseEntity<ReportJobDto> requestReport(
+            @RequestHeader("X-Tenant-Id") @NonNull UUID tenantId,
+            @Valid @RequestBody @NonNull CreateReportJobRequest request) {
+
+        UUID userId = SecurityUtils.getCurrentUserIdOrThrow();
+        ReportJobDto job = reportJobService.requestReport(tenantId, userId, request);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ReportJobDto> getReportJob(
+            @RequestHeader("X-Tenant-Id") @NonNull UUID tenantId,
+            @PathVariable("jobId") @NonNull UUID jobId) {
+
+        UUID userId = SecurityUtils.getCurrentUserIdOrThrow();
+        return ResponseEntity.ok(reportJobService.getReportJob(tenantId, userId, jobId));
+    }
+
+    @GetMapping("/{jobId}/download")
+    public ResponseEntity<InputStreamResource> downloadReportJobFile(
+            @RequestHeader("X-Tenant-Id") @NonNull UUID tenantId,
+            @PathVariable("jobId") @NonNull UUID jobId) {
+
+        UUID userId = SecurityUtils.getCurrentUserIdOrThrow();
+        ReportJobService.ReportJobFile file = reportJobService.openReportJobFile(tenantId, userId, jobId);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(file.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.fileName() + "\"");
+        if (file.size() >= 0) {
+            response.contentLength(file.size());
+        }
+        return response.body(new InputStreamResource(file.content()));
+    }
+}
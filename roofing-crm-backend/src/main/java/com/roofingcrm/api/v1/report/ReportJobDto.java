@@ -0,0 +1,29 @@
+package com.roofingcrm.api.v1.report;
+
+import com.roofingcrm.domain.enums.ReportJobStatus;
+import com.roofingcrm.domain.enums.ReportType;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Getter
+@Setter
+public class ReportJobDto {
+
+    private UUID id;
+    private ReportType type;
+    private ReportJobStatus status;
+    /** Set once the job SUCCEEDED. */
+    private String fileName;
+    private String contentType;
+    private Long sizeBytes;
+    /** Why a FAILED job failed. */
+    private String error;
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant completedAt;
+    /** When the file is deleted; until then identical requests for unchanged data get this job. */
+    private Instant expiresAt;
+}
@@ -4,10 +4,14 @@ import com.roofingcrm.security.JwtAuthenticationFilter;
 import com.roofingcrm.security.RefreshTokenProperties;
 import com.roofingcrm.security.ratelimit.HighRiskEndpointRateLimitFilter;
 import com.roofingcrm.security.ratelimit.MinuteWindowRateLimiter;
+import com.roofingcrm.security.ratelimit.PostgresRateLimiter;
 import com.roofingcrm.security.ratelimit.RateLimitProperties;
+import com.roofingcrm.security.ratelimit.RateLimiter;
+import com.roofingcrm.security.ratelimit.SlidingWindowRateLimiter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.roofingcrm.security.JwtService;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -20,6 +24,9 @@ import org.springframework.http.HttpMethod;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
+
+import java.util.Locale;
 
 @Configuration
 public class SecurityConfig {
@@ -27,17 +34,28 @@ public class SecurityConfig {
         private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
 
         @Bean
-        public MinuteWindowRateLimiter minuteWindowRateLimiter() {
-                return new MinuteWindowRateLimiter();
+        public RateLimiter rateLimiter(
+                RateLimitProperties rateLimitProperties,
+                ObjectProvider<NamedParameterJdbcOperations> jdbcOperations) {
+                String backend = rateLimitProperties.getBackend() == null
+                        ? "" : rateLimitProperties.getBackend().trim().toLowerCase(Locale.ROOT);
+                return switch (backend) {
+                        case "postgres" -> new PostgresRateLimiter(jdbcOperations.getObject());
+                        case "fixed-window" -> new MinuteWindowRateLimiter();
+                        case "memory", "" -> new SlidingWindowRateLimiter();
+                        default -> throw new IllegalStateException(
+                                "Unsupported app.rate-limit.backend '" + rateLimitProperties.getBackend()
+                                        + "'. Use memory, postgres or fixed-window.");
+                };
         }
 
         @Bean
         public HighRiskEndpointRateLimitFilter highRiskEndpointRateLimitFilter(
                 RateLimitProperties rateLimitProperties,
-                MinuteWindowRateLimiter minuteWindowRateLimiter,
+                RateLimiter rateLimiter,
                 RefreshTokenProperties refreshTokenProperties) {
                 return new HighRiskEndpointRateLimitFilter(
-                        rateLimitProperties, minuteWindowRateLimiter, refreshTokenProperties);
+                        rateLimitProperties, rateLimiter, refreshTokenProperties);
         }
 
         @Bean
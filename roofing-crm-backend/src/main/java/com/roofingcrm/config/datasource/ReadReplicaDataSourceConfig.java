@@ -0,0 +1,82 @@
+package com.roofingcrm.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replaces the auto-configured DataSource with primary and replica Hikari pools behind a read/write router when
+ * {@code app.datasource.replica.enabled=true}. The primary keeps its {@code spring.datasource.hikari.*} tuning and runs
+ * Flyway; both pools are beans so their Hikari metrics are published (tag {@code pool=primary|replica}).
+ * {@link ReplicaLagMonitor#refresh()} runs on the scheduler of {@link com.roofingcrm.config.SchedulingConfig}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "enabled", havingValue = "true")
+public class ReadReplicaDataSourceConfig {
+
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    HikariDataSource replicaDataSource(ReadReplicaProperties replica, DataSourceProperties primary) {
+        if (isBlank(replica.getUrl())) {
+            throw new IllegalStateException(
+                    "app.datasource.replica.enabled is true but APP_DB_REPLICA_URL is missing.");
+        }
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setJdbcUrl(replica.getUrl());
+        dataSource.setUsername(isBlank(replica.getUsername()) ? primary.determineUsername() : replica.getUsername());
+        dataSource.setPassword(isBlank(replica.getPassword()) ? primary.determinePassword() : replica.getPassword());
+        dataSource.setDriverClassName(primary.determineDriverClassName());
+        dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+        dataSource.setMinimumIdle(replica.getMinimumIdle());
+        dataSource.setConnectionTimeout(TimeUnit.SECONDS.toMillis(replica.getConnectionTimeoutSeconds()));
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    ReplicaLagMonitor replicaLagMonitor(
+            HikariDataSource replicaDataSource, ReadReplicaProperties replica, MeterRegistry meterRegistry) {
+        JdbcTemplate replicaJdbc = new JdbcTemplate(replicaDataSource);
+        replicaJdbc.setQueryTimeout(Math.max(1, replica.getConnectionTimeoutSeconds()));
+        return new ReplicaLagMonitor(replicaJdbc, replica, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(
+            HikariDataSource primaryDataSource,
+            HikariDataSource replicaDataSource,
+            ReplicaLagMonitor replicaLagMonitor,
+            MeterRegistry meterRegistry) {
+        ReadReplicaRoutingDataSource routing =
+                new ReadReplicaRoutingDataSource(primaryDataSource, replicaDataSource, replicaLagMonitor, meterRegistry);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+}
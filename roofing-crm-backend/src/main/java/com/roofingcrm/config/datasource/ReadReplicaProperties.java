@@ -0,0 +1,101 @@
+package com.roofingcrm.config.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Optional Postgres read replica for {@code @Transactional(readOnly = true)} work. When disabled (the default) the
+ * application uses the single auto-configured primary pool. Username, password and driver default to the primary's
+ * ({@code spring.datasource.*}) when left blank.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.datasource.replica")
+public class ReadReplicaProperties {
+
+    private boolean enabled = false;
+    /** JDBC URL of the replica, e.g. jdbc:postgresql://replica-host:5432/roofing_crm. */
+    private String url;
+    private String username;
+    private String password;
+    /** Replica pool size; size it separately from the primary (spring.datasource.hikari.maximum-pool-size). */
+    private int maximumPoolSize = 10;
+    private int minimumIdle = 2;
+    /** How long a request waits for a replica connection before failing. */
+    private int connectionTimeoutSeconds = 5;
+    /** Replay lag above which read-only transactions fall back to the primary. */
+    private int maxLagSeconds = 10;
+    /** How often the replica's replay lag is sampled. */
+    private int lagCheckIntervalSeconds = 5;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+
+    public void setMaximumPoolSize(int maximumPoolSize) {
+        this.maximumPoolSize = maximumPoolSize;
+    }
+
+    public int getMinimumIdle() {
+        return minimumIdle;
+    }
+
+    public void setMinimumIdle(int minimumIdle) {
+        this.minimumIdle = minimumIdle;
+    }
+
+    public int getConnectionTimeoutSeconds() {
+        return connectionTimeoutSeconds;
+    }
+
+    public void setConnectionTimeoutSeconds(int connectionTimeoutSeconds) {
+        this.connectionTimeoutSeconds = connectionTimeoutSeconds;
+    }
+
+    public int getMaxLagSeconds() {
+        return maxLagSeconds;
+    }
+
+    public void setMaxLagSeconds(int maxLagSeconds) {
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    public int getLagCheckIntervalSeconds() {
+        return lagCheckIntervalSeconds;
+    }
+
+    public void setLagCheckIntervalSeconds(int lagCheckIntervalSeconds) {
+        this.lagCheckIntervalSeconds = lagCheckIntervalSeconds;
+    }
+}
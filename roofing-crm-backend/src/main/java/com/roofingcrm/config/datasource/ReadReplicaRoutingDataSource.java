@@ -0,0 +1,69 @@
+package com.roofingcrm.config.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.lang.NonNull;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Routes connections for read-only transactions to the replica while {@link ReplicaLagMonitor} considers it usable,
+ * and everything else to the primary. Must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction manager opens the
+ * connection before the read-only flag is bound, so routing has to wait for the first statement.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final Counter primaryWrites;
+    private final Counter primaryReads;
+    private final Counter replicaReads;
+    private final Counter fallbacks;
+
+    public ReadReplicaRoutingDataSource(
+            DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor, MeterRegistry meterRegistry) {
+        this.lagMonitor = Objects.requireNonNull(lagMonitor);
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        this.primaryWrites = routingCounter(meterRegistry, "primary", "read-write");
+        this.primaryReads = routingCounter(meterRegistry, "primary", "read-only");
+        this.replicaReads = routingCounter(meterRegistry, "replica", "read-only");
+        this.fallbacks = Counter.builder("db.routing.replica.fallbacks")
+                .description("Read-only connections sent to the primary because the replica was lagging or down")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @NonNull
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            primaryWrites.increment();
+            return Target.PRIMARY;
+        }
+        if (!lagMonitor.isReplicaUsable()) {
+            fallbacks.increment();
+            primaryReads.increment();
+            return Target.PRIMARY;
+        }
+        replicaReads.increment();
+        return Target.REPLICA;
+    }
+
+    private static Counter routingCounter(MeterRegistry meterRegistry, String target, String mode) {
+        return Counter.builder("db.routing.connections")
+                .description("Connections handed out by the read/write routing DataSource")
+                .tag("target", target)
+                .tag("mode", mode)
+                .register(meterRegistry);
+    }
+}
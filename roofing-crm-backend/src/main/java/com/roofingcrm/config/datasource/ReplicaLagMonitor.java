@@ -0,0 +1,81 @@
+package com.roofingcrm.config.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples the replica's WAL replay lag and decides whether read-only transactions may use it. The replica is treated
+ * as unusable until the first successful check, when lag exceeds {@link ReadReplicaProperties#getMaxLagSeconds()},
+ * or when it cannot be reached; {@link ReadReplicaRoutingDataSource} then routes to the primary.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    /**
+     * Seconds since the last replayed transaction, or 0 when the replica has replayed everything it received (an idle
+     * primary would otherwise look like growing lag) or is not in recovery at all.
+     */
+    static final String LAG_QUERY = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN 0
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+            END
+            """;
+
+    private final JdbcOperations replicaJdbc;
+    private final ReadReplicaProperties properties;
+
+    private volatile boolean replicaUsable;
+    private volatile double lagSeconds = Double.NaN;
+
+    public ReplicaLagMonitor(JdbcOperations replicaJdbc, ReadReplicaProperties properties, MeterRegistry meterRegistry) {
+        this.replicaJdbc = Objects.requireNonNull(replicaJdbc);
+        this.properties = Objects.requireNonNull(properties);
+        Gauge.builder("db.replica.lag", this, m -> m.lagSeconds)
+                .description("Last sampled replica replay lag (NaN when the replica is unreachable)")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("db.replica.usable", this, m -> m.replicaUsable ? 1 : 0)
+                .description("1 when read-only transactions are routed to the replica")
+                .register(meterRegistry);
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-seconds:5}", timeUnit = TimeUnit.SECONDS)
+    public void refresh() {
+        boolean wasUsable = replicaUsable;
+        try {
+            Double lag = replicaJdbc.queryForObject(LAG_QUERY, Double.class);
+            lagSeconds = lag != null ? lag : 0d;
+            replicaUsable = lagSeconds <= properties.getMaxLagSeconds();
+        } catch (DataAccessException ex) {
+            lagSeconds = Double.NaN;
+            replicaUsable = false;
+            if (wasUsable) {
+                log.warn("Read replica unreachable, routing read-only transactions to the primary: {}", ex.getMessage());
+            }
+            return;
+        }
+        if (wasUsable != replicaUsable) {
+            if (replicaUsable) {
+                log.info("Read replica available (lag {}s), routing read-only transactions to it", lagSeconds);
+            } else {
+                log.warn("Read replica lag {}s exceeds {}s, routing read-only transactions to the primary",
+                        lagSeconds, properties.getMaxLagSeconds());
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.roofingcrm.config.multipart;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.Part;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartException;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
+import org.springframework.web.multipart.support.StandardServletMultipartResolver;
+
+import java.io.IOException;
+
+/**
+ * Applies the global per-part and per-request limits to every multipart request except POSTs to the exempt path
+ * pattern, which are held only to the (larger) servlet container limits. Oversized requests are refused from
+ * {@code Content-Length} before parsing when it is known.
+ */
+class EndpointMultipartResolver extends StandardServletMultipartResolver {
+
+    private static final AntPathMatcher PATHS = new AntPathMatcher();
+
+    private final long maxFileBytes;
+    private final long maxRequestBytes;
+    private final String exemptPattern;
+
+    EndpointMultipartResolver(DataSize maxFileSize, DataSize maxRequestSize, String exemptPattern) {
+        this.maxFileBytes = maxFileSize != null ? maxFileSize.toBytes() : -1;
+        this.maxRequestBytes = maxRequestSize != null ? maxRequestSize.toBytes() : -1;
+        this.exemptPattern = exemptPattern;
+    }
+
+    @Override
+    public MultipartHttpServletRequest resolveMultipart(HttpServletRequest request) throws MultipartException {
+        if (isExempt(request)) {
+            return super.resolveMultipart(request);
+        }
+        if (maxRequestBytes >= 0 && request.getContentLengthLong() > maxRequestBytes) {
+            throw new MaxUploadSizeExceededException(maxRequestBytes);
+        }
+        MultipartHttpServletRequest resolved = super.resolveMultipart(request);
+        try {
+            long total = 0;
+            for (Part part : request.getParts()) {
+                if (maxFileBytes >= 0 && part.getSize() > maxFileBytes) {
+                    throw new MaxUploadSizeExceededException(maxFileBytes);
+                }
+                total += part.getSize();
+                if (maxRequestBytes >= 0 && total > maxRequestBytes) {
+                    throw new MaxUploadSizeExceededException(maxRequestBytes);
+                }
+            }
+        } catch (MaxUploadSizeExceededException ex) {
+            cleanupMultipart(resolved);
+            throw ex;
+        } catch (IOException | ServletException ex) {
+            cleanupMultipart(resolved);
+            throw new MultipartException("Failed to parse multipart servlet request", ex);
+        }
+        return resolved;
+    }
+
+    private boolean isExempt(HttpServletRequest request) {
+        if (!"POST".equalsIgnoreCase(request.getMethod())) {
+            return false;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return PATHS.match(exemptPattern, path);
+    }
+}
@@ -0,0 +1,50 @@
+package com.roofingcrm.config.multipart;
+
+import com.roofingcrm.service.accounting.ReceiptExtractionProperties;
+import jakarta.servlet.MultipartConfigElement;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.boot.web.servlet.MultipartConfigFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartResolver;
+import org.springframework.web.servlet.DispatcherServlet;
+
+/**
+ * Multipart limits per endpoint. The servlet container only has one limit, so it is set to the larger of
+ * {@code spring.servlet.multipart.*} and the bulk receipt import's
+ * {@code app.ai.receipt-extraction.batch.max-request-size}, and {@link EndpointMultipartResolver} holds every
+ * endpoint except the import to the {@code spring.servlet.multipart.*} limits.
+ */
+@Configuration
+public class MultipartConfig {
+
+    static final String BULK_RECEIPT_IMPORT_PATTERN = "/api/v1/jobs/*/receipts/batches";
+
+    @Bean
+    MultipartConfigElement multipartConfigElement(MultipartProperties multipart,
+                                                  ReceiptExtractionProperties receiptExtraction) {
+        DataSize bulk = receiptExtraction.getBatch().getMaxRequestSize();
+        MultipartConfigFactory factory = new MultipartConfigFactory();
+        factory.setLocation(multipart.getLocation());
+        factory.setFileSizeThreshold(multipart.getFileSizeThreshold());
+        factory.setMaxFileSize(larger(multipart.getMaxFileSize(), bulk));
+        factory.setMaxRequestSize(larger(multipart.getMaxRequestSize(), bulk));
+        return factory.createMultipartConfig();
+    }
+
+    @Bean(name = DispatcherServlet.MULTIPART_RESOLVER_BEAN_NAME)
+    MultipartResolver multipartResolver(MultipartProperties multipart) {
+        EndpointMultipartResolver resolver = new EndpointMultipartResolver(
+                multipart.getMaxFileSize(), multipart.getMaxRequestSize(), BULK_RECEIPT_IMPORT_PATTERN);
+        resolver.setResolveLazily(multipart.isResolveLazily());
+        return resolver;
+    }
+
+    private static DataSize larger(DataSize a, DataSize b) {
+        if (a == null || a.isNegative()) {
+            return a;
+        }
+        return b != null && b.compareTo(a) > 0 ? b : a;
+    }
+}
@@ -0,0 +1,102 @@
+package com.roofingcrm.config.threads;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.roofingcrm.api.ApiErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for virtual-thread mode: at most {@code max-concurrent-requests} requests (by default a small
+ * multiple of the primary pool size) run at once, later ones
+ * wait up to {@code acquire-timeout-millis} for a permit (FIFO) and are then answered 503 with {@code Retry-After}.
+ * <p>
+ * On platform threads Tomcat's worker pool provided this bound. Virtual threads make blocking cheap but unbounded, and
+ * the Hikari pool then becomes the only limit: thousands of requests would queue inside {@code getConnection()}
+ * holding request memory until {@code connection-timeout}, and fail together. Bounding admission keeps at most
+ * {@code max-concurrent-requests - maximum-pool-size} requests waiting on the pool.
+ */
+public class RequestConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    static final String OVERLOADED_MESSAGE = "Server is busy. Please try again shortly.";
+
+    private static final ObjectMapper JSON = Jackson2ObjectMapperBuilder.json()
+            .modulesToInstall(new JavaTimeModule())
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private final Semaphore permits;
+    private final long acquireTimeoutMillis;
+    private final Counter rejected;
+
+    public RequestConcurrencyLimitFilter(VirtualThreadProperties properties, int connectionPoolSize,
+                                         MeterRegistry meterRegistry) {
+        int maxConcurrent = properties.resolveMaxConcurrentRequests(connectionPoolSize);
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.acquireTimeoutMillis = Math.max(0, properties.getAcquireTimeoutMillis());
+        this.rejected = Counter.builder("http.server.requests.admission.rejected")
+                .description("Requests answered 503 because max-concurrent-requests were already in flight")
+                .register(meterRegistry);
+        Gauge.builder("http.server.requests.admission.active", permits, p -> maxConcurrent - p.availablePermits())
+                .description("Requests currently holding an admission permit")
+                .register(meterRegistry);
+        Gauge.builder("http.server.requests.admission.waiting", permits, Semaphore::getQueueLength)
+                .description("Requests waiting for an admission permit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            writeServiceUnavailable(request, response);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void writeServiceUnavailable(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(503);
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("utf-8");
+        ApiErrorResponse body = new ApiErrorResponse(
+                Instant.now(),
+                503,
+                "Service Unavailable",
+                OVERLOADED_MESSAGE,
+                request.getRequestURI());
+        JSON.writeValue(response.getWriter(), body);
+        response.getWriter().flush();
+    }
+}
@@ -0,0 +1,54 @@
+package com.roofingcrm.config.threads;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * Execution mode. With {@code spring.threads.virtual.enabled=true} (APP_VIRTUAL_THREADS_ENABLED) Spring Boot runs
+ * Tomcat requests and the scheduling executors on virtual threads, and {@code WebSocketConfig} switches
+ * the STOMP channel executors over. Blocking on JDBC, OpenAI, Resend and file I/O then no longer holds a platform
+ * thread. This class adds the guards that mode needs:
+ * <ul>
+ *   <li>{@link RequestConcurrencyLimitFilter}: bounded admission so the Hikari pool stays the concurrency limit
+ *       instead of a queue of unbounded waiters.</li>
+ *   <li>{@link VirtualThreadPinningMonitor}: reports code that pins carriers (blocking inside {@code synchronized}).
+ *   </li>
+ * </ul>
+ * CPU-bound pools (password hashing) deliberately stay on platform threads.
+ */
+@Configuration
+public class VirtualThreadConfig {
+
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    FilterRegistrationBean<RequestConcurrencyLimitFilter> requestConcurrencyLimitFilter(
+            VirtualThreadProperties properties,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize,
+            MeterRegistry meterRegistry) {
+        FilterRegistrationBean<RequestConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new RequestConcurrencyLimitFilter(properties, connectionPoolSize, meterRegistry));
+        // Before everything else (including security and SQL metrics) so rejected requests cost nothing. Only /api:
+        // SockJS streaming under /ws and actuator health checks must not hold or wait for permits.
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    @ConditionalOnProperty(prefix = "app.virtual-threads", name = "pinning-diagnostics", havingValue = "true",
+            matchIfMissing = true)
+    VirtualThreadPinningMonitor virtualThreadPinningMonitor(VirtualThreadProperties properties,
+                                                            MeterRegistry meterRegistry) {
+        return new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(properties.getPinnedThresholdMillis()));
+    }
+}
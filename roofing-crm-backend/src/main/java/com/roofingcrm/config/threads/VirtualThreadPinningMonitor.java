@@ -0,0 +1,95 @@
+package com.roofingcrm.config.threads;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams JFR {@code jdk.VirtualThreadPinned} events in-process. A virtual thread is pinned when it blocks inside a
+ * {@code synchronized} block or a native frame, which holds its carrier (one of roughly one per CPU) for the duration;
+ * a few pinned JDBC or HTTP waits are enough to stall every request.
+ * <p>
+ * Each event is recorded on {@code jvm.threads.virtual.pinned}, tagged with the innermost application frame (or the
+ * innermost frame when no application code is on the stack). The first event per site is logged at WARN with the top
+ * of the stack; repeats are logged at DEBUG.
+ */
+public class VirtualThreadPinningMonitor implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String APPLICATION_PACKAGE = "com.roofingcrm.";
+    private static final int LOGGED_FRAMES = 8;
+
+    private final MeterRegistry meterRegistry;
+    private final Duration threshold;
+    private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry, Duration threshold) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = threshold;
+    }
+
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, event -> {
+            List<String> frames = frames(event.getStackTrace());
+            onPinned(event.getDuration(), frames);
+        });
+        stream.startAsync();
+        log.info("Virtual thread pinning diagnostics enabled (threshold {} ms)", threshold.toMillis());
+    }
+
+    @Override
+    public void close() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    void onPinned(Duration duration, List<String> frames) {
+        String site = site(frames);
+        Timer.builder("jvm.threads.virtual.pinned")
+                .description("Time virtual threads spent pinned to their carrier thread, by blocking site")
+                .tag("site", site)
+                .register(meterRegistry)
+                .record(duration.toNanos(), TimeUnit.NANOSECONDS);
+        if (reportedSites.add(site)) {
+            log.warn("Virtual thread pinned for {} ms at {}; stack:\n\t{}", duration.toMillis(), site,
+                    String.join("\n\t", frames.subList(0, Math.min(LOGGED_FRAMES, frames.size()))));
+        } else if (log.isDebugEnabled()) {
+            log.debug("Virtual thread pinned for {} ms at {}", duration.toMillis(), site);
+        }
+    }
+
+    static String site(List<String> frames) {
+        for (String frame : frames) {
+            if (frame.startsWith(APPLICATION_PACKAGE)) {
+                return frame;
+            }
+        }
+        return frames.isEmpty() ? "unknown" : frames.get(0);
+    }
+
+    private static List<String> frames(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return List.of();
+        }
+        return stackTrace.getFrames().stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName())
+                .toList();
+    }
+}
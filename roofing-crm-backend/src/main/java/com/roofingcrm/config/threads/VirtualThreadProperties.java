@@ -0,0 +1,79 @@
+package com.roofingcrm.config.threads;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Guards for {@code spring.threads.virtual.enabled=true}. Ignored on platform threads, where Tomcat's worker pool
+ * already bounds concurrency.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.virtual-threads")
+public class VirtualThreadProperties {
+
+    /**
+     * Maximum /api requests in flight. Virtual threads remove Tomcat's thread cap, so without this every queued
+     * request would wait on the Hikari pool until connection-timeout; with it, excess requests wait here briefly and
+     * then get 503. 0 derives it from the primary pool: maximum-pool-size * requests-per-connection.
+     */
+    private int maxConcurrentRequests = 0;
+    /**
+     * Admitted requests per pooled connection when max-concurrent-requests is derived. Above 1 so requests that are
+     * between statements (or never touch the database) don't leave connections idle.
+     */
+    private int requestsPerConnection = 2;
+    /** How long a request waits for an admission permit before 503. */
+    private long acquireTimeoutMillis = 2_000;
+    /** Log and count virtual threads pinned to their carrier (JFR jdk.VirtualThreadPinned). */
+    private boolean pinningDiagnostics = true;
+    /** Pinned durations below this are ignored. */
+    private long pinnedThresholdMillis = 20;
+
+    public int getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+        this.maxConcurrentRequests = maxConcurrentRequests;
+    }
+
+    public int getRequestsPerConnection() {
+        return requestsPerConnection;
+    }
+
+    public void setRequestsPerConnection(int requestsPerConnection) {
+        this.requestsPerConnection = requestsPerConnection;
+    }
+
+    /** {@code max-concurrent-requests}, or the pool-derived limit when it is 0. */
+    public int resolveMaxConcurrentRequests(int connectionPoolSize) {
+        if (maxConcurrentRequests > 0) {
+            return maxConcurrentRequests;
+        }
+        return Math.max(1, connectionPoolSize) * Math.max(1, requestsPerConnection);
+    }
+
+    public long getAcquireTimeoutMillis() {
+        return acquireTimeoutMillis;
+    }
+
+    public void setAcquireTimeoutMillis(long acquireTimeoutMillis) {
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+    }
+
+    public boolean isPinningDiagnostics() {
+        return pinningDiagnostics;
+    }
+
+    public void setPinningDiagnostics(boolean pinningDiagnostics) {
+        this.pinningDiagnostics = pinningDiagnostics;
+    }
+
+    public long getPinnedThresholdMillis() {
+        return pinnedThresholdMillis;
+    }
+
+    public void setPinnedThresholdMillis(long pinnedThresholdMillis) {
+        this.pinnedThresholdMillis = pinnedThresholdMillis;
+    }
+}
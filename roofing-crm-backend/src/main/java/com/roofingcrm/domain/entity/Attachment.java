@@ -56,6 +56,9 @@ public class Attachment extends TenantAuditedEntity {
 
     private String storageKey;        // path or external key
 
+    @Column(length = 64)
+    private String contentHash;       // SHA-256 hex of the stored bytes; set for receipts
+
     // Optional link to an external provider (e.g., CompanyCam)
     private String externalProvider;   // e.g. "COMPANYCAM"
     private String externalAssetId;    // asset ID in external system
@@ -0,0 +1,15 @@
+package com.roofingcrm.domain.entity;
+
+/**
+ * Hibernate second-level cache region names. Sizing lives in {@code application.conf} (Caffeine JCache).
+ */
+public final class CacheRegions {
+
+    public static final String PIPELINE_STATUS_DEFINITIONS = "pipeline-status-definitions";
+    public static final String PIPELINE_STATUS_QUERIES = "pipeline-status-queries";
+    public static final String TENANT_APP_PREFERENCES = "tenant-app-preferences";
+    public static final String TENANT_APP_PREFERENCES_QUERIES = "tenant-app-preferences-queries";
+
+    private CacheRegions() {
+    }
+}
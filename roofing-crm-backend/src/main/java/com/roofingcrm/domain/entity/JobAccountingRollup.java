@@ -0,0 +1,79 @@
+package com.roofingcrm.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Materialized job accounting summary. Rows are written only by
+ * {@link com.roofingcrm.service.accounting.JobAccountingLedger}; the entity is read-only.
+ */
+@Entity
+@Immutable
+@Table(name = "job_accounting_rollups")
+@Getter
+@Setter
+@NoArgsConstructor
+public class JobAccountingRollup {
+
+    @Id
+    @Column(name = "job_id")
+    private UUID jobId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "job_id", insertable = false, updatable = false)
+    private Job job;
+
+    @Column(name = "tenant_id", nullable = false)
+    private UUID tenantId;
+
+    @Column(nullable = false)
+    private boolean hasAcceptedEstimate;
+
+    private BigDecimal agreedAmount;
+
+    @Column(nullable = false)
+    private BigDecimal invoicedAmount;
+
+    @Column(nullable = false)
+    private BigDecimal paidAmount;
+
+    @Column(nullable = false)
+    private BigDecimal totalCosts;
+
+    @Column(nullable = false)
+    private BigDecimal materialCosts;
+
+    @Column(nullable = false)
+    private BigDecimal transportationCosts;
+
+    @Column(nullable = false)
+    private BigDecimal laborCosts;
+
+    @Column(nullable = false)
+    private BigDecimal otherCosts;
+
+    @Column(nullable = false)
+    private BigDecimal actualProfit;
+
+    private BigDecimal actualMarginPercent;
+
+    private BigDecimal projectedProfit;
+
+    private BigDecimal projectedMarginPercent;
+
+    @Column(nullable = false)
+    private Instant refreshedAt;
+}
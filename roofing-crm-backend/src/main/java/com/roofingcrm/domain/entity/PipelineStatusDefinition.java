@@ -7,12 +7,17 @@ import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Tenant-owned label and ordering for a lead or job pipeline column.
  * {@code systemKey} is stable ({@code NEW}, {@code SCHEDULED}, or {@code C_<uuid>} for custom).
+ * Read on most lead/job calls and changed only through pipeline settings, so it is second-level cached.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.PIPELINE_STATUS_DEFINITIONS)
 @Table(name = "pipeline_status_definitions",
         uniqueConstraints = @UniqueConstraint(
                 name = "uk_pipeline_status_def_tenant_type_key",
@@ -0,0 +1,37 @@
+package com.roofingcrm.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One bulk receipt upload for a job. Items keep the outcome of every file in the upload; extraction progress is
+ * read from the receipts the items point at.
+ */
+@Entity
+@Table(
+    name = "receipt_import_batches",
+    indexes = {
+        @Index(name = "idx_receipt_import_batches_tenant_job", columnList = "tenant_id, job_id, created_at")
+    }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+public class ReceiptImportBatch extends TenantAuditedEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "job_id", nullable = false)
+    private Job job;
+
+    @Column(nullable = false)
+    private boolean extractionRequested;
+
+    @OneToMany(mappedBy = "batch", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("sortOrder ASC")
+    private List<ReceiptImportItem> items = new ArrayList<>();
+}
@@ -0,0 +1,40 @@
+package com.roofingcrm.domain.entity;
+
+import com.roofingcrm.domain.enums.ReceiptImportItemStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(name = "receipt_import_items")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ReceiptImportItem extends BaseEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "batch_id", nullable = false)
+    private ReceiptImportBatch batch;
+
+    @Column(name = "sort_order", nullable = false)
+    private int sortOrder;
+
+    @Column(nullable = false)
+    private String fileName;
+
+    @Column(length = 64)
+    private String contentHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ReceiptImportItemStatus status;
+
+    // STORED: the new receipt; DUPLICATE: the receipt already holding the same bytes
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "attachment_id")
+    private Attachment attachment;
+
+    @Column(length = 255)
+    private String error;
+}
@@ -0,0 +1,8 @@
+package com.roofingcrm.domain.enums;
+
+/** Period length of a cost trend; weeks start on Monday, all periods are UTC calendar dates. */
+public enum CostTrendInterval {
+    DAY,
+    WEEK,
+    MONTH
+}
@@ -0,0 +1,7 @@
+package com.roofingcrm.domain.enums;
+
+/** Which margin job profitability is ranked by: on payments received, or on the accepted estimate. */
+public enum MarginBasis {
+    ACTUAL,
+    PROJECTED
+}
@@ -0,0 +1,7 @@
+package com.roofingcrm.domain.enums;
+
+public enum ReceiptImportItemStatus {
+    STORED,
+    DUPLICATE,
+    REJECTED
+}
@@ -0,0 +1,12 @@
+package com.roofingcrm.domain.enums;
+
+/**
+ * Lifecycle of a background report job. SUCCEEDED jobs become EXPIRED when their file is deleted.
+ */
+public enum ReportJobStatus {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED,
+    EXPIRED
+}
@@ -0,0 +1,22 @@
+package com.roofingcrm.domain.enums;
+
+/**
+ * Reports that can be generated in the background, with the content type of the file each one produces.
+ */
+public enum ReportType {
+    LEADS_CSV("text/csv; charset=utf-8"),
+    JOBS_CSV("text/csv; charset=utf-8"),
+    ACCOUNTING_JOBS_XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+    PAID_INVOICES_PDF("application/pdf"),
+    CUSTOMER_PHOTO_REPORT_PDF("application/pdf");
+
+    private final String contentType;
+
+    ReportType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+}
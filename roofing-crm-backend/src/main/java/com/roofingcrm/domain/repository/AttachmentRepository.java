@@ -31,6 +31,19 @@ public interface AttachmentRepository extends JpaRepository<Attachment, UUID> {
 
     List<Attachment> findByTenantAndJobCostEntryAndArchivedFalse(Tenant tenant, JobCostEntry jobCostEntry);
 
+    @Query("""
+            select a.id as id, a.contentHash as contentHash
+            from Attachment a
+            where a.tenant = :tenant
+              and a.job = :job
+              and a.tag = :tag
+              and a.archived = false
+              and a.contentHash is not null
+            """)
+    List<ContentHashView> findContentHashesForJob(@Param("tenant") Tenant tenant,
+                                                  @Param("job") Job job,
+                                                  @Param("tag") AttachmentTag tag);
+
     @Query("""
             select a from Attachment a
             where a.tenant = :tenant and a.archived = false
@@ -55,4 +68,10 @@ public interface AttachmentRepository extends JpaRepository<Attachment, UUID> {
             order by a.createdAt desc
             """)
     List<Attachment> findReportableForCustomer(@Param("tenant") Tenant tenant, @Param("customerId") UUID customerId);
+
+    interface ContentHashView {
+        UUID getId();
+
+        String getContentHash();
+    }
 }
@@ -86,19 +86,80 @@ public interface InvoiceRepository extends JpaRepository<Invoice, UUID> {
             """, nativeQuery = true)
     List<Integer> findPaidInvoiceYears(@Param("tenantId") UUID tenantId);
 
+    /** First page of a year's paid invoices, as report rows (no managed entities), ordered for keyset paging. */
     @Query("""
-            select i from Invoice i
-            join fetch i.job j
-            join fetch j.customer c
+            select i.id as id, i.invoiceNumber as invoiceNumber, i.paidAt as paidAt, i.total as total,
+                   c.firstName as customerFirstName, c.lastName as customerLastName,
+                   j.propertyAddress.line1 as addressLine1, j.propertyAddress.line2 as addressLine2,
+                   j.propertyAddress.city as addressCity, j.propertyAddress.state as addressState,
+                   j.propertyAddress.zip as addressZip
+            from Invoice i
+            join i.job j
+            join j.customer c
+            where i.tenant = :tenant
+              and i.archived = false
+              and i.status = com.roofingcrm.domain.enums.InvoiceStatus.PAID
+              and i.paidAt >= :start
+              and i.paidAt < :end
+            order by i.paidAt asc, i.invoiceNumber asc, i.id asc
+            """)
+    List<PaidInvoiceRowView> findPaidInvoiceRowsForYear(
+            @Param("tenant") Tenant tenant,
+            @Param("start") Instant start,
+            @Param("end") Instant end,
+            Pageable pageable);
+
+    /** The page after the row {@code (afterPaidAt, afterInvoiceNumber, afterId)}, same order. */
+    @Query("""
+            select i.id as id, i.invoiceNumber as invoiceNumber, i.paidAt as paidAt, i.total as total,
+                   c.firstName as customerFirstName, c.lastName as customerLastName,
+                   j.propertyAddress.line1 as addressLine1, j.propertyAddress.line2 as addressLine2,
+                   j.propertyAddress.city as addressCity, j.propertyAddress.state as addressState,
+                   j.propertyAddress.zip as addressZip
+            from Invoice i
+            join i.job j
+            join j.customer c
             where i.tenant = :tenant
               and i.archived = false
               and i.status = com.roofingcrm.domain.enums.InvoiceStatus.PAID
               and i.paidAt >= :start
               and i.paidAt < :end
-            order by i.paidAt asc, i.invoiceNumber asc
+              and (i.paidAt > :afterPaidAt
+                   or (i.paidAt = :afterPaidAt
+                       and (i.invoiceNumber > :afterInvoiceNumber
+                            or (i.invoiceNumber = :afterInvoiceNumber and i.id > :afterId))))
+            order by i.paidAt asc, i.invoiceNumber asc, i.id asc
             """)
-    List<Invoice> findPaidInvoicesForYear(
+    List<PaidInvoiceRowView> findPaidInvoiceRowsForYearAfter(
             @Param("tenant") Tenant tenant,
             @Param("start") Instant start,
-            @Param("end") Instant end);
+            @Param("end") Instant end,
+            @Param("afterPaidAt") Instant afterPaidAt,
+            @Param("afterInvoiceNumber") String afterInvoiceNumber,
+            @Param("afterId") UUID afterId,
+            Pageable pageable);
+
+    interface PaidInvoiceRowView {
+        UUID getId();
+
+        String getInvoiceNumber();
+
+        Instant getPaidAt();
+
+        BigDecimal getTotal();
+
+        String getCustomerFirstName();
+
+        String getCustomerLastName();
+
+        String getAddressLine1();
+
+        String getAddressLine2();
+
+        String getAddressCity();
+
+        String getAddressState();
+
+        String getAddressZip();
+    }
 }
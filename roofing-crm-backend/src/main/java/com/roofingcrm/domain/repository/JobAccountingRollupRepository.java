@@ -0,0 +1,106 @@
+package com.roofingcrm.domain.repository;
+
+import com.roofingcrm.domain.entity.JobAccountingRollup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public interface JobAccountingRollupRepository extends JpaRepository<JobAccountingRollup, UUID> {
+
+    @Query(value = """
+            select r from JobAccountingRollup r
+            join fetch r.job j
+            where r.tenantId = :tenantId
+              and j.archived = false
+            order by r.actualMarginPercent desc nulls last, r.jobId
+            """,
+            countQuery = """
+            select count(r) from JobAccountingRollup r
+            join r.job j
+            where r.tenantId = :tenantId
+              and j.archived = false
+            """)
+    Page<JobAccountingRollup> findActiveByTenantOrderByActualMargin(@Param("tenantId") UUID tenantId, Pageable pageable);
+
+    @Query(value = """
+            select r from JobAccountingRollup r
+            join fetch r.job j
+            where r.tenantId = :tenantId
+              and j.archived = false
+            order by r.projectedMarginPercent desc nulls last, r.jobId
+            """,
+            countQuery = """
+            select count(r) from JobAccountingRollup r
+            join r.job j
+            where r.tenantId = :tenantId
+              and j.archived = false
+            """)
+    Page<JobAccountingRollup> findActiveByTenantOrderByProjectedMargin(@Param("tenantId") UUID tenantId, Pageable pageable);
+
+    @Query(value = """
+            select r from JobAccountingRollup r
+            join fetch r.job j
+            where r.tenantId = :tenantId
+              and j.archived = false
+            order by r.actualMarginPercent asc nulls last, r.jobId
+            """,
+            countQuery = """
+            select count(r) from JobAccountingRollup r
+            join r.job j
+            where r.tenantId = :tenantId
+              and j.archived = false
+            """)
+    Page<JobAccountingRollup> findActiveByTenantOrderByActualMarginAsc(@Param("tenantId") UUID tenantId, Pageable pageable);
+
+    @Query(value = """
+            select r from JobAccountingRollup r
+            join fetch r.job j
+            where r.tenantId = :tenantId
+              and j.archived = false
+            order by r.projectedMarginPercent asc nulls last, r.jobId
+            """,
+            countQuery = """
+            select count(r) from JobAccountingRollup r
+            join r.job j
+            where r.tenantId = :tenantId
+              and j.archived = false
+            """)
+    Page<JobAccountingRollup> findActiveByTenantOrderByProjectedMarginAsc(@Param("tenantId") UUID tenantId, Pageable pageable);
+
+    @Query("""
+            select count(r) as jobCount,
+                   sum(r.agreedAmount) as agreedAmount,
+                   sum(r.invoicedAmount) as invoicedAmount,
+                   sum(r.paidAmount) as paidAmount,
+                   sum(r.totalCosts) as totalCosts,
+                   sum(r.actualProfit) as actualProfit,
+                   sum(r.projectedProfit) as projectedProfit
+            from JobAccountingRollup r
+            join r.job j
+            where r.tenantId = :tenantId
+              and j.archived = false
+            """)
+    TenantTotalsView sumActiveByTenant(@Param("tenantId") UUID tenantId);
+
+    interface TenantTotalsView {
+        long getJobCount();
+
+        BigDecimal getAgreedAmount();
+
+        BigDecimal getInvoicedAmount();
+
+        BigDecimal getPaidAmount();
+
+        BigDecimal getTotalCosts();
+
+        BigDecimal getActualProfit();
+
+        /** Over jobs with an accepted estimate only, like {@link #getAgreedAmount()}. */
+        BigDecimal getProjectedProfit();
+    }
+}
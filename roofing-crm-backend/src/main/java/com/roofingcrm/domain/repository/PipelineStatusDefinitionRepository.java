@@ -1,26 +1,50 @@
 package com.roofingcrm.domain.repository;
 
+import com.roofingcrm.domain.entity.CacheRegions;
 import com.roofingcrm.domain.entity.PipelineStatusDefinition;
 import com.roofingcrm.domain.entity.Tenant;
 import com.roofingcrm.domain.enums.PipelineType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Lookups below use the Hibernate query cache ({@link CacheRegions#PIPELINE_STATUS_QUERIES}); writes go through
+ * {@code PipelineStatusAdminServiceImpl}, which evicts the regions after commit.
+ */
 public interface PipelineStatusDefinitionRepository extends JpaRepository<PipelineStatusDefinition, UUID> {
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.PIPELINE_STATUS_QUERIES)
+    })
     List<PipelineStatusDefinition> findByTenantAndPipelineTypeAndArchivedFalseOrderBySortOrderAsc(
             Tenant tenant, PipelineType pipelineType);
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.PIPELINE_STATUS_QUERIES)
+    })
     List<PipelineStatusDefinition> findByTenantAndPipelineTypeAndActiveTrueAndArchivedFalseOrderBySortOrderAsc(
             Tenant tenant, PipelineType pipelineType);
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.PIPELINE_STATUS_QUERIES)
+    })
     Optional<PipelineStatusDefinition> findByIdAndTenantAndArchivedFalse(UUID id, Tenant tenant);
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.PIPELINE_STATUS_QUERIES)
+    })
     Optional<PipelineStatusDefinition> findByTenantAndPipelineTypeAndSystemKeyAndArchivedFalse(
             Tenant tenant, PipelineType pipelineType, String systemKey);
 
@@ -0,0 +1,15 @@
+package com.roofingcrm.domain.repository;
+
+import com.roofingcrm.domain.entity.ReceiptImportBatch;
+import com.roofingcrm.domain.entity.Tenant;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface ReceiptImportBatchRepository extends JpaRepository<ReceiptImportBatch, UUID> {
+
+    @EntityGraph(attributePaths = {"items", "items.attachment"})
+    Optional<ReceiptImportBatch> findByIdAndJobIdAndTenantAndArchivedFalse(UUID id, UUID jobId, Tenant tenant);
+}
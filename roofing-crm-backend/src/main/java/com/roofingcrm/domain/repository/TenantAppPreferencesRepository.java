@@ -1,13 +1,21 @@
 package com.roofingcrm.domain.repository;
 
+import com.roofingcrm.domain.entity.CacheRegions;
 import com.roofingcrm.domain.entity.Tenant;
 import com.roofingcrm.domain.entity.TenantAppPreferences;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Optional;
 import java.util.UUID;
 
 public interface TenantAppPreferencesRepository extends JpaRepository<TenantAppPreferences, UUID> {
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.TENANT_APP_PREFERENCES_QUERIES)
+    })
     Optional<TenantAppPreferences> findByTenant(Tenant tenant);
 }
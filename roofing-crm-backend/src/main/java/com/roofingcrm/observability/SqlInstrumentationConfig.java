@@ -0,0 +1,72 @@
+package com.roofingcrm.observability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application DataSource with a datasource-proxy listener and registers the per-request SQL metrics filter
+ * and the route statement budgets. Disable with {@code app.observability.sql.enabled=false}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.observability.sql", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SqlInstrumentationConfig {
+
+    private static final String APPLICATION_DATA_SOURCE = "dataSource";
+
+    @Bean
+    static BeanPostProcessor sqlInstrumentationDataSourcePostProcessor(Environment environment) {
+        boolean countRows = environment.getProperty("app.observability.sql.count-rows", Boolean.class, true);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+                // Only the application-facing DataSource; the primary/replica pools behind the read/write router
+                // (ReadReplicaDataSourceConfig) would otherwise count every statement twice.
+                if (!(bean instanceof DataSource dataSource) || !APPLICATION_DATA_SOURCE.equals(beanName)) {
+                    return bean;
+                }
+                SqlStatsQueryListener listener = new SqlStatsQueryListener();
+                ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .listener(listener);
+                if (countRows) {
+                    builder.proxyResultSet().methodListener(listener);
+                }
+                return builder.build();
+            }
+        };
+    }
+
+    @Bean
+    FilterRegistrationBean<SqlRequestMetricsFilter> sqlRequestMetricsFilter(
+            MeterRegistry meterRegistry, SqlInstrumentationProperties properties) {
+        FilterRegistrationBean<SqlRequestMetricsFilter> registration =
+                new FilterRegistrationBean<>(new SqlRequestMetricsFilter(meterRegistry, properties));
+        // Outside Spring Security so authentication lookups are counted against the request too.
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    @Bean
+    WebMvcConfigurer sqlStatementBudgetConfigurer(SqlInstrumentationProperties properties) {
+        SqlStatementBudgetInterceptor interceptor = new SqlStatementBudgetInterceptor(properties);
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(@NonNull InterceptorRegistry registry) {
+                registry.addInterceptor(interceptor).addPathPatterns("/api/**");
+            }
+        };
+    }
+}
@@ -0,0 +1,76 @@
+package com.roofingcrm.observability;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "app.observability.sql")
+public class SqlInstrumentationProperties {
+
+    /** Wrap the DataSource and record per-request statement, row and DB-time metrics. */
+    private boolean enabled = true;
+    /**
+     * Count rows read through ResultSet.next(). Adds a proxy call per row; disable if large exports show overhead.
+     */
+    private boolean countRows = true;
+    /** Requests issuing more JDBC executions than this log a warning and get the budget response header. */
+    private int statementBudget = 50;
+    /**
+     * Per-route budgets overriding {@link #statementBudget}, keyed by method and route template
+     * ({@code "GET /api/v1/dashboard/summary"}).
+     */
+    private Map<String, Integer> routeBudgets = new LinkedHashMap<>();
+    /**
+     * Fail the statement that would exceed a request's budget instead of only reporting it. Meant for development and
+     * test environments, where an N+1 regression should break the request.
+     */
+    private boolean enforceBudget = false;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isCountRows() {
+        return countRows;
+    }
+
+    public void setCountRows(boolean countRows) {
+        this.countRows = countRows;
+    }
+
+    public int getStatementBudget() {
+        return statementBudget;
+    }
+
+    public void setStatementBudget(int statementBudget) {
+        this.statementBudget = statementBudget;
+    }
+
+    public Map<String, Integer> getRouteBudgets() {
+        return routeBudgets;
+    }
+
+    public void setRouteBudgets(Map<String, Integer> routeBudgets) {
+        this.routeBudgets = routeBudgets;
+    }
+
+    public boolean isEnforceBudget() {
+        return enforceBudget;
+    }
+
+    public void setEnforceBudget(boolean enforceBudget) {
+        this.enforceBudget = enforceBudget;
+    }
+
+    /** The statement budget of a route; 0 or less means none. */
+    public int budgetFor(String method, String routeTemplate) {
+        return routeBudgets.getOrDefault(method + " " + routeTemplate, statementBudget);
+    }
+}
@@ -0,0 +1,125 @@
+package com.roofingcrm.observability;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.NonNull;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opens a {@link SqlStatementStats} scope per HTTP request and records statements, rows and DB time as histograms
+ * tagged with the Spring MVC route template. Requests over their statement budget (see
+ * {@link SqlStatementBudgetInterceptor}) log a warning and get {@value #BUDGET_HEADER} (set just before the response
+ * commits, so it reaches the client).
+ */
+public class SqlRequestMetricsFilter extends OncePerRequestFilter {
+
+    public static final String BUDGET_HEADER = "X-Sql-Statement-Budget-Exceeded";
+
+    static final String STATEMENTS_METRIC = "http.server.requests.sql.statements";
+    static final String ROWS_METRIC = "http.server.requests.sql.rows";
+    static final String TIME_METRIC = "http.server.requests.sql.time";
+
+    private static final Logger log = LoggerFactory.getLogger(SqlRequestMetricsFilter.class);
+    private static final String UNKNOWN_ROUTE = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+    private final SqlInstrumentationProperties properties;
+
+    public SqlRequestMetricsFilter(MeterRegistry meterRegistry, SqlInstrumentationProperties properties) {
+        this.meterRegistry = Objects.requireNonNull(meterRegistry);
+        this.properties = Objects.requireNonNull(properties);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+        SqlStatementStats stats = SqlStatementStats.start();
+        // The default until SqlStatementBudgetInterceptor applies the matched route's budget.
+        stats.setBudget(properties.getStatementBudget(), properties.isEnforceBudget());
+        BudgetHeaderResponse wrapped = new BudgetHeaderResponse(response, stats);
+        try {
+            filterChain.doFilter(request, wrapped);
+        } finally {
+            SqlStatementStats.clear();
+            if (!response.isCommitted()) {
+                wrapped.addBudgetHeaderIfExceeded();
+            }
+            record(request, response, stats);
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, SqlStatementStats stats) {
+        String route = routeTemplate(request);
+        Tags tags = Tags.of("method", request.getMethod(), "uri", route);
+        DistributionSummary.builder(STATEMENTS_METRIC)
+                .description("JDBC executions per HTTP request (a batch counts once)")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        DistributionSummary.builder(ROWS_METRIC)
+                .description("Rows read or affected per HTTP request")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(stats.getRows());
+        Timer.builder(TIME_METRIC)
+                .description("Time spent in JDBC per HTTP request")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(stats.getDbNanos(), TimeUnit.NANOSECONDS);
+
+        if (stats.isOverBudget()) {
+            log.warn("SQL statement budget exceeded: method={} route={} status={} statements={} budget={} rows={} dbMs={}",
+                    request.getMethod(), route, response.getStatus(), stats.getStatements(),
+                    stats.getBudget(), stats.getRows(),
+                    TimeUnit.NANOSECONDS.toMillis(stats.getDbNanos()));
+        }
+    }
+
+    /**
+     * Route template ({@code /api/v1/leads/{leadId}}) rather than the raw URI, to keep tag cardinality bounded.
+     */
+    private static String routeTemplate(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : UNKNOWN_ROUTE;
+    }
+
+    private final class BudgetHeaderResponse extends OnCommittedResponseWrapper {
+
+        private final SqlStatementStats stats;
+
+        BudgetHeaderResponse(HttpServletResponse response, SqlStatementStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            addBudgetHeaderIfExceeded();
+        }
+
+        void addBudgetHeaderIfExceeded() {
+            if (stats.isOverBudget() && !containsHeader(BUDGET_HEADER)) {
+                setHeader(BUDGET_HEADER, "statements=" + stats.getStatements() + "; budget=" + stats.getBudget());
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.roofingcrm.observability;
+
+/**
+ * Thrown instead of running a statement that would take the current scope over its enforced budget
+ * ({@code app.observability.sql.enforce-budget}).
+ */
+public class SqlStatementBudgetExceededException extends RuntimeException {
+
+    public SqlStatementBudgetExceededException(long statement, int budget) {
+        super("SQL statement budget exceeded: statement " + statement + " of a budget of " + budget);
+    }
+}
@@ -0,0 +1,34 @@
+package com.roofingcrm.observability;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Objects;
+
+/**
+ * Applies the statement budget of the matched route to the request's {@link SqlStatementStats} scope (opened by
+ * {@link SqlRequestMetricsFilter}). Runs once the handler is resolved, since the route template is not known before.
+ */
+class SqlStatementBudgetInterceptor implements HandlerInterceptor {
+
+    private final SqlInstrumentationProperties properties;
+
+    SqlStatementBudgetInterceptor(SqlInstrumentationProperties properties) {
+        this.properties = Objects.requireNonNull(properties);
+    }
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                             @NonNull Object handler) {
+        SqlStatementStats stats = SqlStatementStats.current();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (stats != null && pattern != null) {
+            stats.setBudget(properties.budgetFor(request.getMethod(), pattern.toString()),
+                    properties.isEnforceBudget());
+        }
+        return true;
+    }
+}
@@ -0,0 +1,81 @@
+package com.roofingcrm.observability;
+
+/**
+ * SQL work done on the current thread since {@link #start()}: JDBC executions (a batch counts once), rows read or
+ * affected, and time spent inside the driver. Filled by {@link SqlStatsQueryListener}; one instance per HTTP
+ * request (see {@link SqlRequestMetricsFilter}) or per test scope.
+ */
+public final class SqlStatementStats {
+
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    private long statements;
+    private long rows;
+    private long dbNanos;
+    private int budget;
+    private boolean enforceBudget;
+
+    private SqlStatementStats() {
+    }
+
+    /** Starts collecting on this thread, replacing any previous scope. */
+    public static SqlStatementStats start() {
+        SqlStatementStats stats = new SqlStatementStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /** @return the active scope, or null when nothing is collecting on this thread. */
+    public static SqlStatementStats current() {
+        return CURRENT.get();
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Sets the statement budget of this scope (0 or less: none). When enforced, the statement that would exceed it
+     * fails with {@link SqlStatementBudgetExceededException} before reaching the database.
+     */
+    public void setBudget(int budget, boolean enforce) {
+        this.budget = budget;
+        this.enforceBudget = enforce;
+    }
+
+    public int getBudget() {
+        return budget;
+    }
+
+    public boolean isOverBudget() {
+        return budget > 0 && statements > budget;
+    }
+
+    void checkBudgetBeforeExecution() {
+        if (enforceBudget && budget > 0 && statements >= budget) {
+            throw new SqlStatementBudgetExceededException(statements + 1, budget);
+        }
+    }
+
+    void recordExecution(long elapsedNanos, long affectedRows) {
+        statements++;
+        dbNanos += elapsedNanos;
+        rows += affectedRows;
+    }
+
+    void recordRowRead() {
+        rows++;
+    }
+
+    public long getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getDbNanos() {
+        return dbNanos;
+    }
+}
@@ -0,0 +1,91 @@
+package com.roofingcrm.observability;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * datasource-proxy listener that feeds {@link SqlStatementStats} for the current thread. Does nothing when no scope
+ * is active (startup, schedulers, Flyway).
+ */
+class SqlStatsQueryListener implements QueryExecutionListener, MethodExecutionListener {
+
+    private static final String STARTED_NANOS = SqlStatsQueryListener.class.getName() + ".startedNanos";
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlStatementStats stats = SqlStatementStats.current();
+        if (stats == null) {
+            return;
+        }
+        stats.checkBudgetBeforeExecution();
+        // ExecutionInfo.getElapsedTime() is in whole milliseconds, which rounds most statements down to 0.
+        execInfo.addCustomValue(STARTED_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlStatementStats stats = SqlStatementStats.current();
+        if (stats == null) {
+            return;
+        }
+        Long startedNanos = execInfo.getCustomValue(STARTED_NANOS, Long.class);
+        long elapsedNanos = startedNanos != null ? System.nanoTime() - startedNanos : 0;
+        stats.recordExecution(elapsedNanos, affectedRows(execInfo.getResult()));
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (!(executionContext.getTarget() instanceof ResultSet)
+                || !"next".equals(executionContext.getMethod().getName())
+                || !Boolean.TRUE.equals(executionContext.getResult())) {
+            return;
+        }
+        SqlStatementStats stats = SqlStatementStats.current();
+        if (stats != null) {
+            stats.recordRowRead();
+        }
+    }
+
+    private static long affectedRows(Object result) {
+        if (result instanceof Integer count) {
+            return Math.max(count, 0);
+        }
+        if (result instanceof Long count) {
+            return Math.max(count, 0L);
+        }
+        if (result instanceof int[] counts) {
+            long sum = 0;
+            for (int c : counts) {
+                sum += batchedRows(c);
+            }
+            return sum;
+        }
+        if (result instanceof long[] counts) {
+            long sum = 0;
+            for (long c : counts) {
+                sum += batchedRows(c);
+            }
+            return sum;
+        }
+        return 0;
+    }
+
+    /**
+     * Rows of one batched statement. Drivers that rewrite batches (pgjdbc's reWriteBatchedInserts) report
+     * SUCCESS_NO_INFO; every Hibernate batched statement is a single-row insert, update or delete, so count one.
+     */
+    private static long batchedRows(long count) {
+        return count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+    }
+}
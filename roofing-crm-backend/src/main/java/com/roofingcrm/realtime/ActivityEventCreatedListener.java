@@ -5,7 +5,7 @@ import org.springframework.transaction.event.TransactionPhase;
 import org.springframework.transaction.event.TransactionalEventListener;
 
 /**
- * Listens for ActivityEventCreatedAppEvent and publishes to WebSocket.
+ * Listens for ActivityEventCreatedAppEvent (single or batched) and publishes to WebSocket.
  * Runs AFTER_COMMIT so clients never see events that roll back.
  */
 @Component
@@ -25,4 +25,11 @@ public class ActivityEventCreatedListener {
                 event.getEntityId(),
                 event.getActivityEventId());
     }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onActivityEventsCreated(ActivityEventsCreatedAppEvent batch) {
+        for (ActivityEventCreatedAppEvent event : batch.getEvents()) {
+            onActivityEventCreated(event);
+        }
+    }
 }
@@ -2,15 +2,19 @@ package com.roofingcrm.realtime;
 
 import com.roofingcrm.domain.enums.ActivityEntityType;
 
+import java.util.List;
 import java.util.UUID;
 
 /**
- * Message published to WebSocket subscribers when a new ActivityEvent is created.
+ * Message published to WebSocket subscribers when new ActivityEvents are created.
  * Scoped by tenant and entity so clients only receive relevant updates.
+ * Events created close together for the same entity are coalesced into one message: {@code activityEventIds} lists
+ * them in creation order and {@code activityEventId} is the latest.
  */
 public record ActivityEventCreatedMessage(
         UUID tenantId,
         ActivityEntityType entityType,
         UUID entityId,
-        UUID activityEventId
+        UUID activityEventId,
+        List<UUID> activityEventIds
 ) {}
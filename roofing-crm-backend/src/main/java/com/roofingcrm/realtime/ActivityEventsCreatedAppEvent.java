@@ -0,0 +1,23 @@
+package com.roofingcrm.realtime;
+
+import org.springframework.context.ApplicationEvent;
+
+import java.util.List;
+
+/**
+ * Application event fired once per transaction when buffered ActivityEvents are flushed together.
+ * Listeners fan out to the individual {@link ActivityEventCreatedAppEvent}s after commit.
+ */
+public class ActivityEventsCreatedAppEvent extends ApplicationEvent {
+
+    private final List<ActivityEventCreatedAppEvent> events;
+
+    public ActivityEventsCreatedAppEvent(Object source, List<ActivityEventCreatedAppEvent> events) {
+        super(source);
+        this.events = List.copyOf(events);
+    }
+
+    public List<ActivityEventCreatedAppEvent> getEvents() {
+        return events;
+    }
+}
@@ -1,24 +1,50 @@
 package com.roofingcrm.realtime;
 
 import com.roofingcrm.domain.enums.ActivityEntityType;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.UUID;
+import java.util.function.LongSupplier;
 
 /**
  * Publishes activity event notifications to WebSocket subscribers.
  * Topic: /topic/tenants/{tenantId}/activity/{entityType}/{entityId}
+ * Delivery is asynchronous and reaches subscribers on every instance (see {@link RealtimeBroadcaster}).
+ *
+ * <p>Events for the same topic within {@code app.realtime.coalesce-window-millis} go out as one message (see
+ * {@link TopicCoalescer}). Clients refetch once per message, so a lead drag that records a status change and a
+ * conversion, or a bulk edit, costs one refetch instead of several.
  */
 @Service
 public class ActivityRealtimePublisher {
 
     private static final String TOPIC_PREFIX = "/topic/tenants/";
 
-    private final SimpMessagingTemplate messagingTemplate;
+    private record ActivityRef(UUID tenantId, ActivityEntityType entityType, UUID entityId, UUID activityEventId) {
+    }
+
+    private final RealtimeBroadcaster broadcaster;
+    private final TopicCoalescer<ActivityRef> coalescer;
+
+    @Autowired
+    public ActivityRealtimePublisher(RealtimeBroadcaster broadcaster, RealtimeProperties properties,
+                                     MeterRegistry meterRegistry,
+                                     @Qualifier("messageBrokerTaskScheduler") TaskScheduler scheduler) {
+        this(broadcaster, properties, meterRegistry, scheduler, System::nanoTime);
+    }
 
-    public ActivityRealtimePublisher(SimpMessagingTemplate messagingTemplate) {
-        this.messagingTemplate = messagingTemplate;
+    ActivityRealtimePublisher(RealtimeBroadcaster broadcaster, RealtimeProperties properties,
+                              MeterRegistry meterRegistry, TaskScheduler scheduler, LongSupplier nanoClock) {
+        this.broadcaster = broadcaster;
+        this.coalescer = new TopicCoalescer<>("realtime.activity", "Activity events",
+                properties.getCoalesceWindowMillis(), properties.getCoalesceMaxEvents(),
+                scheduler, nanoClock, meterRegistry, this::send);
     }
 
     /**
@@ -27,8 +53,18 @@ public class ActivityRealtimePublisher {
      */
     public void publish(UUID tenantId, ActivityEntityType entityType, UUID entityId, UUID activityEventId) {
         String destination = TOPIC_PREFIX + tenantId + "/activity/" + entityType.name() + "/" + entityId;
-        ActivityEventCreatedMessage message = new ActivityEventCreatedMessage(
-                tenantId, entityType, entityId, activityEventId);
-        messagingTemplate.convertAndSend(destination, message);
+        coalescer.add(destination, new ActivityRef(tenantId, entityType, entityId, activityEventId));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        coalescer.shutdown();
+    }
+
+    private void send(String destination, List<ActivityRef> events) {
+        ActivityRef latest = events.get(events.size() - 1);
+        List<UUID> ids = events.stream().map(ActivityRef::activityEventId).toList();
+        broadcaster.broadcast(destination, new ActivityEventCreatedMessage(
+                latest.tenantId(), latest.entityType(), latest.entityId(), latest.activityEventId(), ids));
     }
 }
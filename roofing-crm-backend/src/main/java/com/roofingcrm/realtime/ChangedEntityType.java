@@ -0,0 +1,34 @@
+package com.roofingcrm.realtime;
+
+import com.roofingcrm.domain.entity.Estimate;
+import com.roofingcrm.domain.entity.Invoice;
+import com.roofingcrm.domain.entity.Job;
+import com.roofingcrm.domain.entity.Lead;
+import com.roofingcrm.domain.entity.Task;
+
+/**
+ * Entities published on the tenant change feed.
+ */
+public enum ChangedEntityType {
+    LEAD(Lead.class),
+    JOB(Job.class),
+    TASK(Task.class),
+    INVOICE(Invoice.class),
+    ESTIMATE(Estimate.class);
+
+    private final Class<?> entityClass;
+
+    ChangedEntityType(Class<?> entityClass) {
+        this.entityClass = entityClass;
+    }
+
+    /** The feed type for an entity class, or null when the class is not part of the feed. */
+    public static ChangedEntityType of(Class<?> entityClass) {
+        for (ChangedEntityType type : values()) {
+            if (type.entityClass == entityClass) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,21 @@
+package com.roofingcrm.realtime;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Message published on /topic/tenants/{tenantId}/changes: every change committed in the tenant during one coalesce
+ * window, at most one entry per entity.
+ */
+public record EntityChangeBatchMessage(
+        UUID tenantId,
+        List<EntityChangeMessage> changes
+) {
+
+    /** The batch as two messages with the first and second half of its changes, in order. */
+    List<EntityChangeBatchMessage> split() {
+        int middle = changes.size() / 2;
+        return List.of(new EntityChangeBatchMessage(tenantId, changes.subList(0, middle)),
+                new EntityChangeBatchMessage(tenantId, changes.subList(middle, changes.size())));
+    }
+}
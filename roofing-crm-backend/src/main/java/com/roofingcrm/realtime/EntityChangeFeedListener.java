@@ -0,0 +1,133 @@
+package com.roofingcrm.realtime;
+
+import com.roofingcrm.domain.entity.Tenant;
+import com.roofingcrm.domain.entity.TenantAuditedEntity;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Feeds {@link EntityChangeFeedPublisher} from Hibernate's post-commit insert/update/delete events for the entities
+ * in {@link ChangedEntityType}. Post-commit events fire only after the transaction commits, so subscribers never see
+ * a change that rolls back, and they carry Hibernate's dirty-property list, so the feed says which fields changed
+ * without diffing rows.
+ *
+ * <p>Bulk JPQL/SQL updates bypass entity events and are not on the feed; screens relying on the feed must still
+ * refetch after such operations (none of the tracked entities are currently written that way).
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.realtime", name = "change-feed-enabled", havingValue = "true", matchIfMissing = true)
+public class EntityChangeFeedListener
+        implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    /** Changes on every update and is already carried as the delta's version. */
+    private static final String UPDATED_AT = "updatedAt";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final EntityChangeFeedPublisher publisher;
+
+    public EntityChangeFeedListener(EntityManagerFactory entityManagerFactory, EntityChangeFeedPublisher publisher) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.publisher = publisher;
+    }
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return ChangedEntityType.of(persister.getMappedClass()) != null;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        publish(event.getEntity(), EntityChangeMessage.Change.CREATED, null);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        publish(event.getEntity(), EntityChangeMessage.Change.UPDATED,
+                changedFields(event.getDirtyProperties(), event.getPersister().getPropertyNames()));
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        publish(event.getEntity(), EntityChangeMessage.Change.DELETED, null);
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // Rolled back: nothing to publish.
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // Rolled back: nothing to publish.
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // Rolled back: nothing to publish.
+    }
+
+    private void publish(Object entity, EntityChangeMessage.Change change, List<String> changedFields) {
+        ChangedEntityType type = ChangedEntityType.of(entity.getClass());
+        if (type == null || !(entity instanceof TenantAuditedEntity tenantEntity)) {
+            return;
+        }
+        UUID tenantId = tenantId(tenantEntity);
+        if (tenantId == null) {
+            return;
+        }
+        Instant updatedAt = tenantEntity.getUpdatedAt();
+        long version = updatedAt != null ? updatedAt.toEpochMilli() : 0L;
+        publisher.publish(tenantId, new EntityChangeMessage(type, tenantEntity.getId(), version, change, changedFields));
+    }
+
+    /** Reads the tenant id without initializing a lazy tenant proxy (the session may already be closing). */
+    private static UUID tenantId(TenantAuditedEntity entity) {
+        Tenant tenant = entity.getTenant();
+        if (tenant instanceof HibernateProxy proxy) {
+            return (UUID) proxy.getHibernateLazyInitializer().getIdentifier();
+        }
+        return tenant != null ? tenant.getId() : null;
+    }
+
+    static List<String> changedFields(int[] dirtyProperties, String[] propertyNames) {
+        if (dirtyProperties == null) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>(dirtyProperties.length);
+        for (int index : dirtyProperties) {
+            String name = propertyNames[index];
+            if (!UPDATED_AT.equals(name)) {
+                fields.add(name);
+            }
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,94 @@
+package com.roofingcrm.realtime;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+/**
+ * Publishes committed entity changes on the tenant change feed.
+ * Topic: /topic/tenants/{tenantId}/changes
+ *
+ * <p>Changes are batched per tenant with {@code app.realtime.coalesce-window-millis} (see {@link TopicCoalescer}) and
+ * merged per entity within a batch, so a bulk edit of 200 leads is one message and an entity saved twice is one
+ * delta carrying the union of its changed fields.
+ */
+@Service
+public class EntityChangeFeedPublisher {
+
+    private static final String TOPIC_PREFIX = "/topic/tenants/";
+    private static final String TOPIC_SUFFIX = "/changes";
+
+    private record TenantChange(UUID tenantId, EntityChangeMessage change) {
+    }
+
+    private record EntityKey(ChangedEntityType entityType, UUID id) {
+    }
+
+    private final RealtimeBroadcaster broadcaster;
+    private final TopicCoalescer<TenantChange> coalescer;
+
+    @Autowired
+    public EntityChangeFeedPublisher(RealtimeBroadcaster broadcaster, RealtimeProperties properties,
+                                     MeterRegistry meterRegistry,
+                                     @Qualifier("messageBrokerTaskScheduler") TaskScheduler scheduler) {
+        this(broadcaster, properties, meterRegistry, scheduler, System::nanoTime);
+    }
+
+    EntityChangeFeedPublisher(RealtimeBroadcaster broadcaster, RealtimeProperties properties,
+                              MeterRegistry meterRegistry, TaskScheduler scheduler, LongSupplier nanoClock) {
+        this.broadcaster = broadcaster;
+        this.coalescer = new TopicCoalescer<>("realtime.changes", "Entity changes",
+                properties.getCoalesceWindowMillis(), properties.getCoalesceMaxEvents(),
+                scheduler, nanoClock, meterRegistry, this::send);
+    }
+
+    public void publish(UUID tenantId, EntityChangeMessage change) {
+        coalescer.add(TOPIC_PREFIX + tenantId + TOPIC_SUFFIX, new TenantChange(tenantId, change));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        coalescer.shutdown();
+    }
+
+    private void send(String destination, List<TenantChange> changes) {
+        Map<EntityKey, EntityChangeMessage> merged = new LinkedHashMap<>();
+        for (TenantChange tenantChange : changes) {
+            EntityChangeMessage change = tenantChange.change();
+            merged.merge(new EntityKey(change.entityType(), change.id()), change, EntityChangeFeedPublisher::merge);
+        }
+        broadcaster.broadcast(destination,
+                new EntityChangeBatchMessage(changes.get(0).tenantId(), new ArrayList<>(merged.values())));
+    }
+
+    /** Folds a later change to the same entity into an earlier one. */
+    static EntityChangeMessage merge(EntityChangeMessage earlier, EntityChangeMessage later) {
+        long version = Math.max(earlier.version(), later.version());
+        if (later.change() == EntityChangeMessage.Change.DELETED
+                || earlier.change() == EntityChangeMessage.Change.CREATED) {
+            EntityChangeMessage.Change change = later.change() == EntityChangeMessage.Change.DELETED
+                    ? EntityChangeMessage.Change.DELETED
+                    : EntityChangeMessage.Change.CREATED;
+            return new EntityChangeMessage(later.entityType(), later.id(), version, change, null);
+        }
+        List<String> fields = null;
+        if (earlier.changedFields() != null && later.changedFields() != null) {
+            Set<String> union = new LinkedHashSet<>(earlier.changedFields());
+            union.addAll(later.changedFields());
+            fields = List.copyOf(union);
+        }
+        return new EntityChangeMessage(later.entityType(), later.id(), version, later.change(), fields);
+    }
+}
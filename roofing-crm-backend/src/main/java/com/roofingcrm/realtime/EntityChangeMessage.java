@@ -0,0 +1,27 @@
+package com.roofingcrm.realtime;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One committed change on the tenant change feed.
+ *
+ * <p>{@code version} is the row's {@code updatedAt} in epoch milliseconds: clients holding a newer version ignore the
+ * delta. {@code changedFields} names the entity properties that changed (null for CREATED and DELETED, and for an
+ * UPDATED whose dirty properties Hibernate did not compute); a client that cannot patch those fields in place should
+ * refetch the row.
+ */
+public record EntityChangeMessage(
+        ChangedEntityType entityType,
+        UUID id,
+        long version,
+        Change change,
+        List<String> changedFields
+) {
+
+    public enum Change {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
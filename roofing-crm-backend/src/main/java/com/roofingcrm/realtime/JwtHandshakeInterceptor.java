@@ -1,5 +1,6 @@
 package com.roofingcrm.realtime;
 
+import com.roofingcrm.security.AuthenticatedUser;
 import com.roofingcrm.security.JwtService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,6 +36,9 @@ import java.util.Map;
  * which point the now-expired/rejected JWT will be denied here. Short access-token lifetime
  * keeps the worst-case window small (≈ access token expiration). If you need stricter
  * invalidation later, add a session registry that is closed on logout.
+ *
+ * <p>The authenticated user id is kept in the session attributes ({@link #USER_ID_ATTRIBUTE}) for
+ * {@link TenantSubscriptionInterceptor}.
  */
 public class JwtHandshakeInterceptor implements HandshakeInterceptor {
 
@@ -42,6 +46,9 @@ public class JwtHandshakeInterceptor implements HandshakeInterceptor {
 
     private static final String TOKEN_PARAM = "token";
 
+    /** WebSocket session attribute holding the handshake user's id. */
+    public static final String USER_ID_ATTRIBUTE = "roofingcrm.userId";
+
     private final JwtService jwtService;
 
     public JwtHandshakeInterceptor(JwtService jwtService) {
@@ -57,7 +64,8 @@ public class JwtHandshakeInterceptor implements HandshakeInterceptor {
             return false;
         }
         try {
-            jwtService.parseToken(token);
+            AuthenticatedUser user = jwtService.parseToken(token);
+            attributes.put(USER_ID_ATTRIBUTE, user.userId());
             return true;
         } catch (Exception e) {
             // Never include the URI/query here — it carries the (now-invalid) token.
@@ -0,0 +1,22 @@
+package com.roofingcrm.realtime;
+
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+
+/**
+ * Single-instance broadcaster: sends straight to this instance's simple broker through the dispatch partitions.
+ */
+public class LocalRealtimeBroadcaster implements RealtimeBroadcaster {
+
+    private final SimpMessageSendingOperations messagingTemplate;
+    private final RealtimeDispatcher dispatcher;
+
+    public LocalRealtimeBroadcaster(SimpMessageSendingOperations messagingTemplate, RealtimeDispatcher dispatcher) {
+        this.messagingTemplate = messagingTemplate;
+        this.dispatcher = dispatcher;
+    }
+
+    @Override
+    public void broadcast(String destination, Object payload) {
+        dispatcher.dispatch(destination, () -> messagingTemplate.convertAndSend(destination, payload));
+    }
+}
@@ -0,0 +1,219 @@
+package com.roofingcrm.realtime;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Multi-instance broadcaster: every message is published with {@code pg_notify} and each instance (the sender
+ * included) LISTENs on the same channel and hands what it receives to its own simple broker. Subscribers therefore
+ * get a message regardless of which instance they are connected to, with no broker process beyond the database we
+ * already run.
+ * <p>
+ * Notifications are sent after the originating transaction commits, from the dispatch partition owning the
+ * destination, so per-topic order is kept end to end. The NOTIFY wire format is {@code destination + '\n' + json};
+ * the JSON is forwarded to the broker as-is, without a decode/encode round trip.
+ * <p>
+ * Delivery is at most once, like the simple broker: a message sent while an instance is reconnecting its LISTEN
+ * connection is missed by that instance's subscribers. A change-feed batch over Postgres' 8000-byte NOTIFY limit is
+ * split into smaller batches that fit; any other oversized payload, and sends that fail, are delivered locally only.
+ */
+public class PostgresNotifyRealtimeBroadcaster implements RealtimeBroadcaster, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresNotifyRealtimeBroadcaster.class);
+
+    /** Postgres rejects NOTIFY payloads of 8000 bytes or more. */
+    static final int MAX_NOTIFY_PAYLOAD_BYTES = 7999;
+
+    private static final String NOTIFY_SQL = "SELECT pg_notify(?, ?)";
+    private static final int POLL_MILLIS = 500;
+    private static final long RECONNECT_BACKOFF_MILLIS = 2_000;
+
+    /** Opens the connection that holds the LISTEN registration. */
+    @FunctionalInterface
+    public interface ListenConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    private final SimpMessageSendingOperations messagingTemplate;
+    private final JdbcOperations jdbcOperations;
+    private final ListenConnectionFactory listenConnectionFactory;
+    private final RealtimeDispatcher dispatcher;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+    private final Counter notifyFailures;
+    private final Counter oversized;
+    private final Counter received;
+
+    private volatile boolean running;
+    private volatile boolean listening;
+    private Thread listenerThread;
+
+    /**
+     * @param listenConnectionFactory opens the dedicated LISTEN connection; it must reach the primary and is held
+     *                                open for the life of the instance, so it should not come from the shared pool
+     */
+    public PostgresNotifyRealtimeBroadcaster(SimpMessageSendingOperations messagingTemplate,
+                                             JdbcOperations jdbcOperations,
+                                             ListenConnectionFactory listenConnectionFactory,
+                                             RealtimeDispatcher dispatcher,
+                                             ObjectMapper objectMapper,
+                                             String channel,
+                                             MeterRegistry meterRegistry) {
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("app.realtime.notify-channel must be a lower-case SQL identifier");
+        }
+        this.messagingTemplate = messagingTemplate;
+        this.jdbcOperations = jdbcOperations;
+        this.listenConnectionFactory = listenConnectionFactory;
+        this.dispatcher = dispatcher;
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+        this.notifyFailures = relayCounter(meterRegistry, "notify.failed",
+                "NOTIFY sends that failed; the message was delivered to this instance only");
+        this.oversized = relayCounter(meterRegistry, "oversized",
+                "Messages too large for NOTIFY; delivered to this instance only");
+        this.received = relayCounter(meterRegistry, "received",
+                "Notifications received from the relay channel and handed to the local broker");
+    }
+
+    public void start() {
+        running = true;
+        listenerThread = new Thread(this::listenLoop, "ws-relay-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    boolean isListening() {
+        return listening;
+    }
+
+    @Override
+    public void broadcast(String destination, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            log.warn("Realtime payload for {} is not serializable: {}", destination, e.toString());
+            return;
+        }
+        String notification = destination + '\n' + json;
+        if (notification.getBytes(StandardCharsets.UTF_8).length > MAX_NOTIFY_PAYLOAD_BYTES) {
+            if (payload instanceof EntityChangeBatchMessage batch && batch.changes().size() > 1) {
+                // Halves go through the same dispatch partition as the destination, so their order is kept.
+                for (EntityChangeBatchMessage half : batch.split()) {
+                    broadcast(destination, half);
+                }
+                return;
+            }
+            oversized.increment();
+            log.warn("Realtime payload for {} exceeds the NOTIFY limit; delivering to this instance only", destination);
+            dispatcher.dispatch(destination, () -> deliverLocally(destination, json));
+            return;
+        }
+        dispatcher.dispatch(destination, () -> {
+            try {
+                jdbcOperations.execute(NOTIFY_SQL, (PreparedStatementCallback<Boolean>) ps -> {
+                    ps.setString(1, channel);
+                    ps.setString(2, notification);
+                    return ps.execute();
+                });
+            } catch (RuntimeException e) {
+                notifyFailures.increment();
+                log.warn("Realtime NOTIFY for {} failed, delivering to this instance only: {}", destination, e.toString());
+                deliverLocally(destination, json);
+            }
+        });
+    }
+
+    /** Handles one received notification; malformed ones are ignored. */
+    void onNotification(String notification) {
+        int newline = notification.indexOf('\n');
+        if (newline <= 0) {
+            log.debug("Ignoring malformed realtime notification");
+            return;
+        }
+        received.increment();
+        String destination = notification.substring(0, newline);
+        String json = notification.substring(newline + 1);
+        dispatcher.dispatch(destination, () -> deliverLocally(destination, json));
+    }
+
+    private void deliverLocally(String destination, String json) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setLeaveMutable(true);
+        Message<byte[]> message = MessageBuilder.createMessage(
+                json.getBytes(StandardCharsets.UTF_8), accessor.getMessageHeaders());
+        messagingTemplate.send(destination, message);
+    }
+
+    private void listenLoop() {
+        while (running) {
+            try (Connection connection = listenConnectionFactory.open()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                listening = true;
+                log.info("Realtime relay listening on channel {}", channel);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            onNotification(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (running) {
+                    log.warn("Realtime relay connection lost, reconnecting in {} ms: {}",
+                            RECONNECT_BACKOFF_MILLIS, e.toString());
+                }
+            } finally {
+                listening = false;
+            }
+            if (running) {
+                try {
+                    Thread.sleep(RECONNECT_BACKOFF_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private static Counter relayCounter(MeterRegistry meterRegistry, String name, String description) {
+        return Counter.builder("realtime.relay." + name)
+                .description(description)
+                .register(meterRegistry);
+    }
+}
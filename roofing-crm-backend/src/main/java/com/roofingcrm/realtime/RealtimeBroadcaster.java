@@ -0,0 +1,11 @@
+package com.roofingcrm.realtime;
+
+/**
+ * Delivers a message to every subscriber of a STOMP destination, whichever app instance the subscriber is connected
+ * to. Selected by {@code app.realtime.broker-mode} (see {@link RealtimeBrokerConfig}).
+ */
+public interface RealtimeBroadcaster {
+
+    /** Asynchronous and best effort: returns before delivery and never throws for delivery failures. */
+    void broadcast(String destination, Object payload);
+}
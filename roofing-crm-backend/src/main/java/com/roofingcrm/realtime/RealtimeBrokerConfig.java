@@ -0,0 +1,59 @@
+package com.roofingcrm.realtime;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+
+import java.sql.DriverManager;
+
+/**
+ * Chooses how realtime messages reach subscribers ({@code app.realtime.broker-mode}):
+ * <ul>
+ *   <li>{@code simple}: this instance's in-process broker only. Correct for a single instance.</li>
+ *   <li>{@code postgres}: fan out across instances through Postgres LISTEN/NOTIFY
+ *       ({@link PostgresNotifyRealtimeBroadcaster}). Use when more than one instance serves {@code /ws}.</li>
+ * </ul>
+ */
+@Configuration
+public class RealtimeBrokerConfig {
+
+    @Bean(destroyMethod = "close")
+    public RealtimeDispatcher realtimeDispatcher(RealtimeProperties properties, MeterRegistry meterRegistry) {
+        return new RealtimeDispatcher(
+                properties.getDispatchPartitions(), properties.getDispatchQueueCapacity(), meterRegistry);
+    }
+
+    @Bean
+    public RealtimeBroadcaster realtimeBroadcaster(RealtimeProperties properties,
+                                                   SimpMessageSendingOperations messagingTemplate,
+                                                   RealtimeDispatcher realtimeDispatcher,
+                                                   JdbcOperations jdbcOperations,
+                                                   DataSourceProperties dataSourceProperties,
+                                                   ObjectMapper objectMapper,
+                                                   MeterRegistry meterRegistry) {
+        return switch (properties.getBrokerMode()) {
+            case "simple" -> new LocalRealtimeBroadcaster(messagingTemplate, realtimeDispatcher);
+            case "postgres" -> {
+                // Dedicated connection outside the pool: it is held for the life of the instance and must not be
+                // routed to a read replica, which cannot LISTEN.
+                PostgresNotifyRealtimeBroadcaster broadcaster = new PostgresNotifyRealtimeBroadcaster(
+                        messagingTemplate,
+                        jdbcOperations,
+                        () -> DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword()),
+                        realtimeDispatcher,
+                        objectMapper,
+                        properties.getNotifyChannel(),
+                        meterRegistry);
+                broadcaster.start();
+                yield broadcaster;
+            }
+            default -> throw new IllegalStateException(
+                    "Unknown app.realtime.broker-mode '" + properties.getBrokerMode() + "' (expected simple or postgres)");
+        };
+    }
+}
@@ -0,0 +1,94 @@
+package com.roofingcrm.realtime;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands broker sends off the publishing thread onto a fixed set of single-threaded partitions. A destination always
+ * hashes to the same partition, so messages for one topic keep their publish order while different topics fan out in
+ * parallel and a hot topic only delays the topics sharing its partition.
+ * <p>
+ * Each partition has a bounded queue; when it is full the message is dropped and counted
+ * ({@code realtime.dispatch.dropped}) rather than blocking the caller. Realtime messages are invalidation hints, so a
+ * dropped one costs a client a stale list until its next refetch.
+ */
+public class RealtimeDispatcher implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(RealtimeDispatcher.class);
+
+    private final ThreadPoolExecutor[] partitions;
+    private final Counter dropped;
+
+    public RealtimeDispatcher(int partitionCount, int queueCapacity, MeterRegistry meterRegistry) {
+        this.partitions = new ThreadPoolExecutor[Math.max(1, partitionCount)];
+        for (int i = 0; i < partitions.length; i++) {
+            String threadName = "ws-dispatch-" + i;
+            partitions[i] = new ThreadPoolExecutor(
+                    1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(Math.max(1, queueCapacity)),
+                    r -> {
+                        Thread t = new Thread(r, threadName);
+                        t.setDaemon(true);
+                        return t;
+                    },
+                    new ThreadPoolExecutor.AbortPolicy());
+        }
+        this.dropped = Counter.builder("realtime.dispatch.dropped")
+                .description("Realtime messages dropped because their dispatch partition queue was full")
+                .register(meterRegistry);
+        Gauge.builder("realtime.dispatch.queue.depth", this, RealtimeDispatcher::queueDepth)
+                .description("Realtime messages waiting in dispatch partitions")
+                .register(meterRegistry);
+    }
+
+    /** Runs {@code send} on the partition owning {@code destination}; never blocks. */
+    public void dispatch(String destination, Runnable send) {
+        try {
+            partitions[partitionFor(destination)].execute(() -> {
+                try {
+                    send.run();
+                } catch (RuntimeException e) {
+                    log.warn("Realtime send to {} failed: {}", destination, e.toString());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            dropped.increment();
+            log.debug("Realtime dispatch partition full, dropped message for {}", destination);
+        }
+    }
+
+    int partitionFor(String destination) {
+        return Math.floorMod(destination.hashCode(), partitions.length);
+    }
+
+    int queueDepth() {
+        int depth = 0;
+        for (ThreadPoolExecutor partition : partitions) {
+            depth += partition.getQueue().size();
+        }
+        return depth;
+    }
+
+    /** Stops accepting work and waits briefly for queued sends to drain. */
+    @Override
+    public void close() {
+        for (ThreadPoolExecutor partition : partitions) {
+            partition.shutdown();
+        }
+        try {
+            for (ThreadPoolExecutor partition : partitions) {
+                partition.awaitTermination(2, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
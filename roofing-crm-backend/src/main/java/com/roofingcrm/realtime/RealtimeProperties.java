@@ -0,0 +1,174 @@
+package com.roofingcrm.realtime;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.realtime")
+public class RealtimeProperties {
+
+    /**
+     * Broker mode: simple (in-process broker, single instance) or postgres (every instance relays published
+     * messages through Postgres LISTEN/NOTIFY so subscribers connected to any instance receive them).
+     */
+    private String brokerMode = "simple";
+    /**
+     * Activity events for the same entity topic arriving within this many milliseconds of the first one are sent as
+     * one message. 0 sends every event immediately.
+     */
+    private int coalesceWindowMillis = 150;
+    /** A coalesced message is sent early once it carries this many activity events. */
+    private int coalesceMaxEvents = 50;
+    /**
+     * Publish committed lead/job/task/invoice/estimate changes as deltas on /topic/tenants/{tenantId}/changes
+     * (see {@link EntityChangeFeedListener}). Batched per tenant with the coalesce window above.
+     */
+    private boolean changeFeedEnabled = true;
+    /** NOTIFY channel shared by all instances in postgres mode. */
+    private String notifyChannel = "realtime_broadcast";
+    /** Number of single-threaded dispatch partitions; messages for one destination always use the same partition. */
+    private int dispatchPartitions = 4;
+    /** Pending messages per dispatch partition before new ones are dropped. */
+    private int dispatchQueueCapacity = 10_000;
+    /** clientInboundChannel executor (STOMP frames received from clients). */
+    private int inboundCorePoolSize = 4;
+    private int inboundMaxPoolSize = 8;
+    private int inboundQueueCapacity = 1_000;
+    /** clientOutboundChannel executor (frames written to client sessions). */
+    private int outboundCorePoolSize = 4;
+    private int outboundMaxPoolSize = 8;
+    private int outboundQueueCapacity = 10_000;
+    /** Destination-to-subscription cache entries kept by the broker; size above the number of live topics. */
+    private int subscriptionCacheLimit = 16_384;
+    /** A session whose pending send exceeds this time or buffer size is closed as a slow consumer. */
+    private int sendTimeLimitMillis = 10_000;
+    private int sendBufferSizeLimitBytes = 512 * 1024;
+
+    public String getBrokerMode() {
+        return brokerMode;
+    }
+
+    public void setBrokerMode(String brokerMode) {
+        this.brokerMode = brokerMode;
+    }
+
+    public int getCoalesceWindowMillis() {
+        return coalesceWindowMillis;
+    }
+
+    public void setCoalesceWindowMillis(int coalesceWindowMillis) {
+        this.coalesceWindowMillis = coalesceWindowMillis;
+    }
+
+    public int getCoalesceMaxEvents() {
+        return coalesceMaxEvents;
+    }
+
+    public void setCoalesceMaxEvents(int coalesceMaxEvents) {
+        this.coalesceMaxEvents = coalesceMaxEvents;
+    }
+
+    public boolean isChangeFeedEnabled() {
+        return changeFeedEnabled;
+    }
+
+    public void setChangeFeedEnabled(boolean changeFeedEnabled) {
+        this.changeFeedEnabled = changeFeedEnabled;
+    }
+
+    public String getNotifyChannel() {
+        return notifyChannel;
+    }
+
+    public void setNotifyChannel(String notifyChannel) {
+        this.notifyChannel = notifyChannel;
+    }
+
+    public int getDispatchPartitions() {
+        return dispatchPartitions;
+    }
+
+    public void setDispatchPartitions(int dispatchPartitions) {
+        this.dispatchPartitions = dispatchPartitions;
+    }
+
+    public int getDispatchQueueCapacity() {
+        return dispatchQueueCapacity;
+    }
+
+    public void setDispatchQueueCapacity(int dispatchQueueCapacity) {
+        this.dispatchQueueCapacity = dispatchQueueCapacity;
+    }
+
+    public int getInboundCorePoolSize() {
+        return inboundCorePoolSize;
+    }
+
+    public void setInboundCorePoolSize(int inboundCorePoolSize) {
+        this.inboundCorePoolSize = inboundCorePoolSize;
+    }
+
+    public int getInboundMaxPoolSize() {
+        return inboundMaxPoolSize;
+    }
+
+    public void setInboundMaxPoolSize(int inboundMaxPoolSize) {
+        this.inboundMaxPoolSize = inboundMaxPoolSize;
+    }
+
+    public int getInboundQueueCapacity() {
+        return inboundQueueCapacity;
+    }
+
+    public void setInboundQueueCapacity(int inboundQueueCapacity) {
+        this.inboundQueueCapacity = inboundQueueCapacity;
+    }
+
+    public int getOutboundCorePoolSize() {
+        return outboundCorePoolSize;
+    }
+
+    public void setOutboundCorePoolSize(int outboundCorePoolSize) {
+        this.outboundCorePoolSize = outboundCorePoolSize;
+    }
+
+    public int getOutboundMaxPoolSize() {
+        return outboundMaxPoolSize;
+    }
+
+    public void setOutboundMaxPoolSize(int outboundMaxPoolSize) {
+        this.outboundMaxPoolSize = outboundMaxPoolSize;
+    }
+
+    public int getOutboundQueueCapacity() {
+        return outboundQueueCapacity;
+    }
+
+    public void setOutboundQueueCapacity(int outboundQueueCapacity) {
+        this.outboundQueueCapacity = outboundQueueCapacity;
+    }
+
+    public int getSubscriptionCacheLimit() {
+        return subscriptionCacheLimit;
+    }
+
+    public void setSubscriptionCacheLimit(int subscriptionCacheLimit) {
+        this.subscriptionCacheLimit = subscriptionCacheLimit;
+    }
+
+    public int getSendTimeLimitMillis() {
+        return sendTimeLimitMillis;
+    }
+
+    public void setSendTimeLimitMillis(int sendTimeLimitMillis) {
+        this.sendTimeLimitMillis = sendTimeLimitMillis;
+    }
+
+    public int getSendBufferSizeLimitBytes() {
+        return sendBufferSizeLimitBytes;
+    }
+
+    public void setSendBufferSizeLimitBytes(int sendBufferSizeLimitBytes) {
+        this.sendBufferSizeLimitBytes = sendBufferSizeLimitBytes;
+    }
+}
@@ -0,0 +1,17 @@
+package com.roofingcrm.realtime;
+
+import com.roofingcrm.domain.enums.ReportJobStatus;
+import com.roofingcrm.domain.enums.ReportType;
+
+import java.util.UUID;
+
+/**
+ * Message published on /topic/tenants/{tenantId}/report-jobs when a report job succeeds or fails. Carries no report
+ * content: clients fetch the job (and its file) through the API, which checks their access.
+ */
+public record ReportJobCompletedMessage(
+        UUID tenantId,
+        UUID jobId,
+        ReportType type,
+        ReportJobStatus status
+) {}
@@ -0,0 +1,30 @@
+package com.roofingcrm.realtime;
+
+import com.roofingcrm.domain.enums.ReportJobStatus;
+import com.roofingcrm.domain.enums.ReportType;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * Publishes report job completions to WebSocket subscribers.
+ * Topic: /topic/tenants/{tenantId}/report-jobs
+ * Identical requests share a job, so everyone waiting for it is told by the same message.
+ */
+@Service
+public class ReportJobRealtimePublisher {
+
+    private static final String TOPIC_PREFIX = "/topic/tenants/";
+    private static final String TOPIC_SUFFIX = "/report-jobs";
+
+    private final RealtimeBroadcaster broadcaster;
+
+    public ReportJobRealtimePublisher(RealtimeBroadcaster broadcaster) {
+        this.broadcaster = broadcaster;
+    }
+
+    public void publishCompleted(UUID tenantId, UUID jobId, ReportType type, ReportJobStatus status) {
+        broadcaster.broadcast(TOPIC_PREFIX + tenantId + TOPIC_SUFFIX,
+                new ReportJobCompletedMessage(tenantId, jobId, type, status));
+    }
+}
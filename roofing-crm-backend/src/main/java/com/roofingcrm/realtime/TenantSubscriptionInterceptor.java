@@ -0,0 +1,90 @@
+package com.roofingcrm.realtime;
+
+import com.roofingcrm.service.tenant.TenantAccessService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Authorizes STOMP SUBSCRIBE frames: every topic is tenant-scoped ({@code /topic/tenants/{tenantId}/...}) and only
+ * active members of that tenant may subscribe. Any other destination is refused. A refused SUBSCRIBE fails with an
+ * ERROR frame, which closes the session.
+ *
+ * <p>The first check per tenant and session goes to {@link TenantAccessService}; later subscriptions of the same
+ * session to that tenant's topics reuse the result. Like the handshake JWT, a membership removed while a session is
+ * open is only enforced again on reconnect.
+ */
+class TenantSubscriptionInterceptor implements ChannelInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(TenantSubscriptionInterceptor.class);
+
+    static final String TENANT_TOPIC_PREFIX = "/topic/tenants/";
+    static final String AUTHORIZED_TENANTS_ATTRIBUTE = "roofingcrm.authorizedTenants";
+
+    private final TenantAccessService tenantAccessService;
+
+    TenantSubscriptionInterceptor(TenantAccessService tenantAccessService) {
+        this.tenantAccessService = Objects.requireNonNull(tenantAccessService);
+    }
+
+    @Override
+    public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() != StompCommand.SUBSCRIBE) {
+            return message;
+        }
+        String destination = accessor.getDestination();
+        UUID tenantId = tenantIdOf(destination);
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        Object userId = attributes != null ? attributes.get(JwtHandshakeInterceptor.USER_ID_ATTRIBUTE) : null;
+        if (tenantId == null || !(userId instanceof UUID user)) {
+            throw denied(destination);
+        }
+        @SuppressWarnings("unchecked")
+        Set<UUID> authorized = (Set<UUID>) attributes.computeIfAbsent(AUTHORIZED_TENANTS_ATTRIBUTE,
+                key -> ConcurrentHashMap.newKeySet());
+        if (!authorized.contains(tenantId)) {
+            try {
+                tenantAccessService.loadTenantForUserOrThrow(tenantId, user);
+            } catch (RuntimeException e) {
+                log.debug("Refused subscription to {} for user {}: {}", destination, user, e.getMessage());
+                throw denied(destination);
+            }
+            authorized.add(tenantId);
+        }
+        return message;
+    }
+
+    /** The tenant of a tenant-scoped topic, or null for any other destination. */
+    static UUID tenantIdOf(String destination) {
+        if (destination == null || !destination.startsWith(TENANT_TOPIC_PREFIX)) {
+            return null;
+        }
+        int end = destination.indexOf('/', TENANT_TOPIC_PREFIX.length());
+        if (end < 0) {
+            return null;
+        }
+        try {
+            return UUID.fromString(destination.substring(TENANT_TOPIC_PREFIX.length(), end));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static MessageDeliveryException denied(String destination) {
+        return new MessageDeliveryException("Not allowed to subscribe to " + destination);
+    }
+}
@@ -0,0 +1,144 @@
+package com.roofingcrm.realtime;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Folds items published to the same destination within a short window into one send. The first item opens a window
+ * of {@code windowMillis} and everything added to that destination before it closes is handed to the sender as one
+ * list, in arrival order. The window is fixed from the first item rather than extended by each new one, so a steady
+ * stream still produces a send per window instead of starving subscribers; a window holding {@code maxItems} items
+ * is sent immediately (and its timer cancelled, so it cannot cut the next window short). A window of 0 sends every
+ * item on its own. Timers run on the shared {@link TaskScheduler}.
+ * <p>
+ * Metrics, under the given prefix: {@code .events} (items added), {@code .messages} (sends), {@code .coalesced}
+ * (sends saved) and {@code .send.latency} (first item to hand-off).
+ */
+class TopicCoalescer<T> {
+
+    private final long windowMillis;
+    private final int maxItems;
+    private final TaskScheduler scheduler;
+    private final LongSupplier nanoClock;
+    private final BiConsumer<String, List<T>> sender;
+    private final ConcurrentHashMap<String, Window<T>> pending = new ConcurrentHashMap<>();
+    private final Counter eventsCounter;
+    private final Counter messagesCounter;
+    private final Counter coalescedCounter;
+    private final Timer sendLatency;
+
+    TopicCoalescer(String metricPrefix, String description, int windowMillis, int maxItems,
+                   TaskScheduler scheduler, LongSupplier nanoClock, MeterRegistry meterRegistry,
+                   BiConsumer<String, List<T>> sender) {
+        this.windowMillis = Math.max(0, windowMillis);
+        this.maxItems = Math.max(1, maxItems);
+        this.scheduler = scheduler;
+        this.nanoClock = nanoClock;
+        this.sender = sender;
+        this.eventsCounter = Counter.builder(metricPrefix + ".events")
+                .description(description + " published to realtime subscribers")
+                .register(meterRegistry);
+        this.messagesCounter = Counter.builder(metricPrefix + ".messages")
+                .description("Realtime messages sent after coalescing " + description.toLowerCase())
+                .register(meterRegistry);
+        this.coalescedCounter = Counter.builder(metricPrefix + ".coalesced")
+                .description("Realtime messages saved by folding " + description.toLowerCase()
+                        + " into an already pending message")
+                .register(meterRegistry);
+        this.sendLatency = Timer.builder(metricPrefix + ".send.latency")
+                .description("Time from a realtime message's first item to its hand-off to the broker")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    void add(String destination, T item) {
+        eventsCounter.increment();
+        if (windowMillis == 0) {
+            send(destination, List.of(item), nanoClock.getAsLong());
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Window<T>[] full = new Window[1];
+        @SuppressWarnings("unchecked")
+        Window<T>[] opened = new Window[1];
+        pending.compute(destination, (key, current) -> {
+            Window<T> window = current;
+            if (window == null) {
+                window = new Window<>(nanoClock.getAsLong());
+                opened[0] = window;
+            } else {
+                coalescedCounter.increment();
+            }
+            window.items.add(item);
+            if (window.items.size() >= maxItems) {
+                full[0] = window;
+                return null;
+            }
+            return window;
+        });
+        if (opened[0] != null && full[0] == null) {
+            Window<T> window = opened[0];
+            window.timer = scheduler.schedule(() -> flush(destination, window),
+                    Instant.now().plus(Duration.ofMillis(windowMillis)));
+        }
+        if (full[0] != null) {
+            full[0].cancelTimer();
+            send(destination, full[0].items, full[0].openedNanos);
+        }
+    }
+
+    /** Sends whatever is still pending; open windows would otherwise be lost on shutdown. */
+    void shutdown() {
+        for (String destination : List.copyOf(pending.keySet())) {
+            Window<T> window = pending.get(destination);
+            if (window != null) {
+                window.cancelTimer();
+                flush(destination, window);
+            }
+        }
+    }
+
+    /** Sends {@code window} if it is still the open window of the destination; a timer never flushes a later one. */
+    private void flush(String destination, Window<T> window) {
+        if (pending.remove(destination, window)) {
+            send(destination, window.items, window.openedNanos);
+        }
+    }
+
+    private void send(String destination, List<T> items, long openedNanos) {
+        messagesCounter.increment();
+        sendLatency.record(nanoClock.getAsLong() - openedNanos, TimeUnit.NANOSECONDS);
+        sender.accept(destination, List.copyOf(items));
+    }
+
+    /** Items are mutated only inside {@code pending.compute}; read after removal from the map. */
+    private static final class Window<T> {
+        final long openedNanos;
+        final List<T> items = new ArrayList<>(2);
+        volatile ScheduledFuture<?> timer;
+
+        Window(long openedNanos) {
+            this.openedNanos = openedNanos;
+        }
+
+        void cancelTimer() {
+            ScheduledFuture<?> scheduled = timer;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+        }
+    }
+}
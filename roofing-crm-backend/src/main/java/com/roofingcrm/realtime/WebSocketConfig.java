@@ -1,19 +1,26 @@
 package com.roofingcrm.realtime;
 
 import com.roofingcrm.security.JwtService;
+import com.roofingcrm.service.tenant.TenantAccessService;
 
 import java.util.Objects;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
 import org.springframework.lang.NonNull;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.TaskExecutorRegistration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 /**
  * Real-time message broker configuration.
@@ -22,12 +29,21 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
  * <ul>
  *   <li>Handshake JWT is validated by {@link JwtHandshakeInterceptor}; the access token is
  *       passed as a query param because browsers cannot set custom headers on WS upgrade.</li>
+ *   <li>SUBSCRIBE frames are authorized against tenant membership by
+ *       {@link TenantSubscriptionInterceptor}.</li>
  *   <li>Reverse proxies in front of this app must redact {@code token} from access logs.
  *       See {@link WebSocketUrlRedactor} for our in-app redaction helper.</li>
  *   <li>The JWT is only re-checked on (re)handshake. An open connection survives until the
  *       client reconnects or the connection drops; short access-token lifetime keeps that
  *       window small and the frontend already halts reconnects when refresh fails.</li>
  * </ul>
+ *
+ * <p>Capacity: client inbound/outbound channel pools are bounded ({@code app.realtime.*-pool-size},
+ * {@code *-queue-capacity}) so a burst of frames queues up to a limit instead of growing threads without bound, and
+ * slow consumers are closed once a send exceeds the configured time/buffer limits. Publishing across instances is
+ * handled by {@link RealtimeBroadcaster} (see {@link RealtimeBrokerConfig}). With
+ * {@code spring.threads.virtual.enabled=true} the channel executors run on virtual threads; the pool sizes above then
+ * bound concurrency rather than thread count.
  */
 @Configuration
 @EnableWebSocketMessageBroker
@@ -35,18 +51,51 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final JwtHandshakeInterceptor jwtHandshakeInterceptor;
+    private final TenantSubscriptionInterceptor tenantSubscriptionInterceptor;
+    private final RealtimeProperties properties;
+    private final boolean virtualThreads;
 
     @Autowired
-    public WebSocketConfig(JwtService jwtService) {
+    public WebSocketConfig(JwtService jwtService, TenantAccessService tenantAccessService,
+                           RealtimeProperties properties, Environment environment) {
         this.jwtHandshakeInterceptor = new JwtHandshakeInterceptor(jwtService);
+        this.tenantSubscriptionInterceptor = new TenantSubscriptionInterceptor(tenantAccessService);
+        this.properties = properties;
+        this.virtualThreads = Threading.VIRTUAL.isActive(environment);
     }
 
     @Override
     public void configureMessageBroker(@NonNull MessageBrokerRegistry config) {
         config.enableSimpleBroker("/topic")
                 .setHeartbeatValue(new long[]{10000, 10000})
-                .setTaskScheduler(Objects.requireNonNull(heartbeatScheduler()));
+                .setTaskScheduler(Objects.requireNonNull(heartbeatScheduler()))
+                // No client uses STOMP selector headers; skip evaluating them on every dispatch.
+                .setSelectorHeaderName(null);
         config.setApplicationDestinationPrefixes("/app");
+        config.setCacheLimit(properties.getSubscriptionCacheLimit());
+    }
+
+    @Override
+    public void configureClientInboundChannel(@NonNull ChannelRegistration registration) {
+        registration.interceptors(tenantSubscriptionInterceptor);
+        channelExecutor(registration, "clientInboundChannel-")
+                .corePoolSize(properties.getInboundCorePoolSize())
+                .maxPoolSize(properties.getInboundMaxPoolSize())
+                .queueCapacity(properties.getInboundQueueCapacity());
+    }
+
+    @Override
+    public void configureClientOutboundChannel(@NonNull ChannelRegistration registration) {
+        channelExecutor(registration, "clientOutboundChannel-")
+                .corePoolSize(properties.getOutboundCorePoolSize())
+                .maxPoolSize(properties.getOutboundMaxPoolSize())
+                .queueCapacity(properties.getOutboundQueueCapacity());
+    }
+
+    @Override
+    public void configureWebSocketTransport(@NonNull WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(properties.getSendTimeLimitMillis())
+                .setSendBufferSizeLimit(properties.getSendBufferSizeLimitBytes());
     }
 
     @Override
@@ -57,6 +106,15 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .withSockJS();
     }
 
+    private TaskExecutorRegistration channelExecutor(ChannelRegistration registration, String threadNamePrefix) {
+        if (!virtualThreads) {
+            return registration.taskExecutor();
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadFactory(Thread.ofVirtual().name(threadNamePrefix, 1).factory());
+        return registration.taskExecutor(executor);
+    }
+
     private static ThreadPoolTaskScheduler heartbeatScheduler() {
         ThreadPoolTaskScheduler s = new ThreadPoolTaskScheduler();
         s.setPoolSize(1);
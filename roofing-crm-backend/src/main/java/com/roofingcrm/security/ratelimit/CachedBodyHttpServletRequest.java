@@ -9,9 +9,15 @@ import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Buffer the request body so it can be read for rate-limit keying and again by the dispatcher.
+ * <p>
+ * The body is read once. Each {@link #getInputStream()} serves the same
+ * array through bulk reads and supports mark/reset, so the MVC message converter reads it in place: Spring's empty-body
+ * check uses mark/reset instead of wrapping it in another buffered stream.
  */
 final class CachedBodyHttpServletRequest extends HttpServletRequestWrapper {
 
@@ -24,36 +30,81 @@ final class CachedBodyHttpServletRequest extends HttpServletRequestWrapper {
 
     @Override
     public ServletInputStream getInputStream() {
-        ByteArrayInputStream in = new ByteArrayInputStream(cachedBody);
-        return new ServletInputStream() {
-            @Override
-            public int read() {
-                return in.read();
-            }
-
-            @Override
-            public boolean isFinished() {
-                return in.available() == 0;
-            }
-
-            @Override
-            public boolean isReady() {
-                return true;
-            }
-
-            @Override
-            public void setReadListener(ReadListener readListener) {
-                throw new UnsupportedOperationException();
-            }
-        };
+        return new CachedBodyInputStream(cachedBody);
     }
 
     @Override
     public BufferedReader getReader() {
-        return new BufferedReader(new InputStreamReader(getInputStream()));
+        String encoding = getCharacterEncoding();
+        Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+        return new BufferedReader(new InputStreamReader(getInputStream(), charset));
     }
 
     byte[] getCachedBody() {
         return cachedBody;
     }
+
+    private static final class CachedBodyInputStream extends ServletInputStream {
+
+        private final ByteArrayInputStream in;
+
+        CachedBodyInputStream(byte[] body) {
+            this.in = new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public int read() {
+            return in.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            return in.read(b, off, len);
+        }
+
+        @Override
+        public byte[] readAllBytes() {
+            return in.readAllBytes();
+        }
+
+        @Override
+        public int available() {
+            return in.available();
+        }
+
+        @Override
+        public long skip(long n) {
+            return in.skip(n);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return true;
+        }
+
+        @Override
+        public void mark(int readLimit) {
+            in.mark(readLimit);
+        }
+
+        @Override
+        public void reset() {
+            in.reset();
+        }
+
+        @Override
+        public boolean isFinished() {
+            return in.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            throw new UnsupportedOperationException();
+        }
+    }
 }
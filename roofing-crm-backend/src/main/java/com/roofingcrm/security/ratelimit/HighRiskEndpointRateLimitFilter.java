@@ -1,6 +1,5 @@
 package com.roofingcrm.security.ratelimit;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
@@ -21,8 +20,8 @@ import java.time.Instant;
 import java.util.Objects;
 
 /**
- * Rate limits authentication and anonymous public resource endpoints. Uses an in-memory per-minute counter
- * per composite key (IP plus SHA-256 hashes of normalized email, refresh cookie, or public token, as documented
+ * Rate limits authentication and anonymous public resource endpoints. Uses a per-minute {@link RateLimiter}
+ * counter per composite key (IP plus SHA-256 hashes of normalized email, refresh cookie, or public token, as documented
  * on each branch).
  */
 public class HighRiskEndpointRateLimitFilter extends OncePerRequestFilter {
@@ -35,12 +34,12 @@ public class HighRiskEndpointRateLimitFilter extends OncePerRequestFilter {
             .build();
 
     private final RateLimitProperties properties;
-    private final MinuteWindowRateLimiter limiter;
+    private final RateLimiter limiter;
     private final RefreshTokenProperties refreshTokenProperties;
 
     public HighRiskEndpointRateLimitFilter(
             RateLimitProperties properties,
-            MinuteWindowRateLimiter limiter,
+            RateLimiter limiter,
             RefreshTokenProperties refreshTokenProperties) {
         this.properties = Objects.requireNonNull(properties);
         this.limiter = Objects.requireNonNull(limiter);
@@ -121,17 +120,8 @@ public class HighRiskEndpointRateLimitFilter extends OncePerRequestFilter {
     }
 
     private String emailHashFromJson(byte[] jsonBody, String field) {
-        if (jsonBody == null || jsonBody.length == 0) {
-            return RateLimitHashing.sha256Hex("");
-        }
-        try {
-            JsonNode root = JSON.readTree(jsonBody);
-            JsonNode node = root.get(field);
-            String email = node != null && !node.isNull() ? node.asText() : "";
-            return RateLimitHashing.sha256Hex(RateLimitHashing.normalizeEmail(email));
-        } catch (Exception e) {
-            return RateLimitHashing.sha256Hex("");
-        }
+        String email = JsonFieldExtractor.topLevelText(jsonBody, field);
+        return RateLimitHashing.sha256Hex(RateLimitHashing.normalizeEmail(email));
     }
 
     private String refreshCookieHash(HttpServletRequest request) {
@@ -0,0 +1,58 @@
+package com.roofingcrm.security.ratelimit;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * Pulls one top-level scalar field out of a JSON body with a streaming {@link JsonParser}, without building a tree or
+ * binding objects. Nested objects and arrays are skipped token by token.
+ * <p>
+ * When the field repeats, the last occurrence wins, matching Jackson data binding; keying the limit on the first
+ * occurrence would let {@code {"email":"random","email":"victim"}} dodge the per-email limit while logging in as
+ * the victim. Scanning on past the first match is cheap for login-sized bodies.
+ */
+final class JsonFieldExtractor {
+
+    private static final JsonFactory FACTORY = JsonFactory.builder().build();
+
+    private JsonFieldExtractor() {
+    }
+
+    /**
+     * @return the field's text, or "" when the body is empty, not a JSON object, malformed, or the field is missing,
+     *         null or not a scalar.
+     */
+    static String topLevelText(byte[] body, String field) {
+        if (body == null || body.length == 0) {
+            return "";
+        }
+        try (JsonParser parser = FACTORY.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return "";
+            }
+            String value = "";
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+                boolean match = field.equals(parser.currentName());
+                JsonToken valueToken = parser.nextToken();
+                if (valueToken == null) {
+                    return "";
+                }
+                if (valueToken.isStructStart()) {
+                    parser.skipChildren();
+                    if (match) {
+                        value = "";
+                    }
+                } else if (match) {
+                    value = valueToken == JsonToken.VALUE_NULL ? "" : parser.getText();
+                }
+            }
+            return token == JsonToken.END_OBJECT ? value : "";
+        } catch (IOException e) {
+            return "";
+        }
+    }
+}
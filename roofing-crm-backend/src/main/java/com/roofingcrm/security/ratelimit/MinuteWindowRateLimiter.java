@@ -2,14 +2,19 @@ package com.roofingcrm.security.ratelimit;
 
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.LongSupplier;
 
 /**
- * Fixed 60-second window per key. In-memory only; not shared across horizontally scaled instances.
+ * Fixed 60-second window per key ({@code app.rate-limit.backend=fixed-window}). Allows up to twice the limit across a
+ * window boundary; {@link SlidingWindowRateLimiter} is the default in-memory backend. In-memory only; not shared across
+ * horizontally scaled instances.
  * Entries for keys inactive longer than the previous minute window are removed periodically so the
  * map does not grow without bound as new keys appear.
+ * Counters are guarded by a {@link ReentrantLock} rather than {@code synchronized}, which would pin the carrier of a
+ * virtual thread that contends for it.
  */
-public class MinuteWindowRateLimiter {
+public class MinuteWindowRateLimiter implements RateLimiter {
 
     private static final long WINDOW_MS = 60_000L;
     private static final long PRUNE_INTERVAL_MS = 60_000L;
@@ -31,6 +36,7 @@ public class MinuteWindowRateLimiter {
     /**
      * @return true if the request is allowed, false if the limit for the current minute is exceeded.
      */
+    @Override
     public boolean tryAcquire(String scopeKey, int maxPerMinute) {
         if (maxPerMinute <= 0) {
             return false;
@@ -39,7 +45,8 @@ public class MinuteWindowRateLimiter {
         long window = nowMs / WINDOW_MS;
         maybePruneUnused(nowMs, window);
         Counter c = counters.computeIfAbsent(scopeKey, k -> new Counter());
-        synchronized (c) {
+        c.lock.lock();
+        try {
             if (c.window != window) {
                 c.window = window;
                 c.count = 0;
@@ -49,6 +56,8 @@ public class MinuteWindowRateLimiter {
             }
             c.count++;
             return true;
+        } finally {
+            c.lock.unlock();
         }
     }
 
@@ -73,11 +82,14 @@ public class MinuteWindowRateLimiter {
         long oldestRetainedWindow = currentWindow - 1;
         counters.entrySet().removeIf(e -> {
             Counter c = e.getValue();
-            synchronized (c) {
+            c.lock.lock();
+            try {
                 if (c.window < 0) {
                     return false;
                 }
                 return c.window < oldestRetainedWindow;
+            } finally {
+                c.lock.unlock();
             }
         });
     }
@@ -87,6 +99,7 @@ public class MinuteWindowRateLimiter {
     }
 
     private static final class Counter {
+        private final ReentrantLock lock = new ReentrantLock();
         private long window = -1L;
         private int count;
     }
@@ -0,0 +1,98 @@
+package com.roofingcrm.security.ratelimit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
+
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+/**
+ * Sliding-window counter shared by all instances through the {@code rate_limit_counters} table
+ * ({@code app.rate-limit.backend=postgres}). Same algorithm as {@link SlidingWindowRateLimiter}, evaluated by a single
+ * upsert per check: the row lock taken by {@code ON CONFLICT DO UPDATE} serializes concurrent checks on one key, and
+ * the counter only advances when the request is allowed. Keys are stored as SHA-256 hashes (fixed width, no client
+ * IPs at rest). Rows idle for two minutes are deleted at most once a minute per instance. Instance clocks pick the
+ * window, so keep them NTP-synced.
+ * <p>
+ * If the database cannot be reached the request is allowed (and logged): authentication is already failing in that
+ * case, and locking everyone out would be worse than briefly not limiting.
+ */
+public class PostgresRateLimiter implements RateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresRateLimiter.class);
+
+    private static final long WINDOW_MS = 60_000L;
+    private static final long PRUNE_INTERVAL_MS = 60_000L;
+
+    /** Existing row's count for the current window (0 once the window has moved on). */
+    private static final String CURRENT =
+            "(CASE WHEN c.window_index = EXCLUDED.window_index THEN c.current_count ELSE 0 END)";
+    /** Existing row's count for the previous window, rolled over from current_count when the window advanced by one. */
+    private static final String PREVIOUS = """
+            (CASE WHEN c.window_index = EXCLUDED.window_index THEN c.previous_count \
+            WHEN c.window_index = EXCLUDED.window_index - 1 THEN c.current_count ELSE 0 END)""";
+    private static final String ALLOWED = "(" + PREVIOUS + " * :previousWeight + " + CURRENT + " + 1 <= :max)";
+
+    static final String UPSERT_SQL = """
+            INSERT INTO rate_limit_counters AS c (scope_key_hash, window_index, current_count, previous_count, last_allowed)
+            VALUES (:keyHash, :window, 1, 0, TRUE)
+            ON CONFLICT (scope_key_hash) DO UPDATE SET
+                last_allowed = {allowed},
+                current_count = {current} + CASE WHEN {allowed} THEN 1 ELSE 0 END,
+                previous_count = {previous},
+                window_index = EXCLUDED.window_index
+            RETURNING last_allowed
+            """
+            .replace("{allowed}", ALLOWED)
+            .replace("{current}", CURRENT)
+            .replace("{previous}", PREVIOUS);
+
+    static final String PRUNE_SQL = "DELETE FROM rate_limit_counters WHERE window_index < :oldestRetainedWindow";
+
+    private final NamedParameterJdbcOperations jdbc;
+    private final LongSupplier epochMillis;
+    private volatile long lastPruneEpochMs;
+
+    public PostgresRateLimiter(NamedParameterJdbcOperations jdbc) {
+        this(jdbc, System::currentTimeMillis);
+    }
+
+    PostgresRateLimiter(NamedParameterJdbcOperations jdbc, LongSupplier epochMillis) {
+        this.jdbc = Objects.requireNonNull(jdbc);
+        this.epochMillis = Objects.requireNonNull(epochMillis);
+        this.lastPruneEpochMs = epochMillis.getAsLong();
+    }
+
+    @Override
+    public boolean tryAcquire(String scopeKey, int maxPerMinute) {
+        if (maxPerMinute <= 0) {
+            return false;
+        }
+        long nowMs = epochMillis.getAsLong();
+        long window = nowMs / WINDOW_MS;
+        double previousWeight = 1.0d - (double) (nowMs % WINDOW_MS) / WINDOW_MS;
+        try {
+            maybePruneUnused(nowMs, window);
+            Boolean allowed = jdbc.queryForObject(UPSERT_SQL, new MapSqlParameterSource()
+                    .addValue("keyHash", RateLimitHashing.sha256Hex(scopeKey))
+                    .addValue("window", window)
+                    .addValue("previousWeight", previousWeight)
+                    .addValue("max", maxPerMinute), Boolean.class);
+            return Boolean.TRUE.equals(allowed);
+        } catch (DataAccessException e) {
+            log.warn("Shared rate limiter unavailable, allowing request: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    private void maybePruneUnused(long nowMs, long currentWindow) {
+        if (nowMs - lastPruneEpochMs < PRUNE_INTERVAL_MS) {
+            return;
+        }
+        lastPruneEpochMs = nowMs;
+        jdbc.update(PRUNE_SQL, new MapSqlParameterSource("oldestRetainedWindow", currentWindow - 1));
+    }
+}
@@ -3,13 +3,18 @@ package com.roofingcrm.security.ratelimit;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
- * In-memory per-window limits for high-risk endpoints. Values are requests allowed per rolling minute window,
+ * Per-window limits for high-risk endpoints. Values are requests allowed per rolling minute window,
  * per composite key (see {@link HighRiskEndpointRateLimitFilter}).
  */
 @ConfigurationProperties(prefix = "app.rate-limit")
 public class RateLimitProperties {
 
     private boolean enabled = true;
+    /**
+     * Counter backend: memory (per instance, sliding window), postgres (shared across instances) or fixed-window
+     * (per instance, legacy fixed minute).
+     */
+    private String backend = "memory";
     /** Max POST /auth/login per IP+email per minute. */
     private int loginPerMinute = 20;
     /** Max POST /auth/register per IP+email per minute. */
@@ -31,6 +36,14 @@ public class RateLimitProperties {
         this.enabled = enabled;
     }
 
+    public String getBackend() {
+        return backend;
+    }
+
+    public void setBackend(String backend) {
+        this.backend = backend;
+    }
+
     public int getLoginPerMinute() {
         return loginPerMinute;
     }
@@ -0,0 +1,15 @@
+package com.roofingcrm.security.ratelimit;
+
+/**
+ * Backend for {@link HighRiskEndpointRateLimitFilter}. Implementations are selected with {@code app.rate-limit.backend}
+ * (see {@code SecurityConfig}) and must be safe for concurrent use.
+ */
+public interface RateLimiter {
+
+    /**
+     * Counts one request against {@code scopeKey} if it fits the limit.
+     *
+     * @return true if the request is allowed, false if {@code maxPerMinute} would be exceeded.
+     */
+    boolean tryAcquire(String scopeKey, int maxPerMinute);
+}
@@ -0,0 +1,137 @@
+package com.roofingcrm.security.ratelimit;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free sliding-window counter per key ({@code app.rate-limit.backend=memory}, the default). The count of the
+ * previous minute is weighted by how much of it still overlaps the rolling 60-second window, so a client cannot get
+ * twice the limit by straddling a window boundary the way {@link MinuteWindowRateLimiter} allows.
+ * <p>
+ * Each key's state (minute index, current count, previous count) is packed into one {@link AtomicLong} and advanced
+ * with CAS, so contended keys never block; distinct keys only meet in the {@link ConcurrentHashMap}, whose bins are
+ * updated independently. In-memory only; use {@link PostgresRateLimiter} to share limits across instances.
+ */
+public class SlidingWindowRateLimiter implements RateLimiter {
+
+    private static final long WINDOW_MS = 60_000L;
+    private static final long PRUNE_INTERVAL_MS = 60_000L;
+    private static final int PRUNE_SIZE_PRESSURE = 4096;
+
+    private static final int COUNT_BITS = 20;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    private static final int WINDOW_SHIFT = 2 * COUNT_BITS;
+    /** Per-window counts saturate here; far above any configured per-minute limit. */
+    static final int MAX_COUNT = (int) COUNT_MASK;
+
+    private final ConcurrentHashMap<String, AtomicLong> windows = new ConcurrentHashMap<>();
+    private final LongSupplier epochMillis;
+    /** Minute indexes are stored relative to construction so they fit the 24 bits left in the packed state. */
+    private final long baseWindow;
+    private final AtomicBoolean pruning = new AtomicBoolean();
+    private volatile long lastPruneEpochMs;
+    /**
+     * Size at which a prune runs before the interval is up: double what the last prune kept, so a map full of live keys
+     * is scanned once per doubling (amortized O(1) per new key) rather than on every call.
+     */
+    private volatile int pruneSizeThreshold = PRUNE_SIZE_PRESSURE;
+
+    public SlidingWindowRateLimiter() {
+        this(System::currentTimeMillis);
+    }
+
+    SlidingWindowRateLimiter(LongSupplier epochMillis) {
+        this.epochMillis = Objects.requireNonNull(epochMillis);
+        this.lastPruneEpochMs = epochMillis.getAsLong();
+        this.baseWindow = lastPruneEpochMs / WINDOW_MS;
+    }
+
+    @Override
+    public boolean tryAcquire(String scopeKey, int maxPerMinute) {
+        if (maxPerMinute <= 0) {
+            return false;
+        }
+        long nowMs = epochMillis.getAsLong();
+        long window = Math.max(0L, nowMs / WINDOW_MS - baseWindow);
+        // Share of the previous window still inside the rolling 60 seconds.
+        double previousWeight = 1.0d - (double) (nowMs % WINDOW_MS) / WINDOW_MS;
+        maybePruneUnused(nowMs, window);
+
+        AtomicLong state = windows.computeIfAbsent(scopeKey, k -> new AtomicLong(pack(window, 0, 0)));
+        while (true) {
+            long current = state.get();
+            long stateWindow = windowOf(current);
+            int count;
+            int previous;
+            if (stateWindow == window) {
+                count = countOf(current);
+                previous = previousOf(current);
+            } else {
+                count = 0;
+                previous = stateWindow == window - 1 ? countOf(current) : 0;
+            }
+            if (previous * previousWeight + count + 1 > maxPerMinute || count >= MAX_COUNT) {
+                return false;
+            }
+            if (state.compareAndSet(current, pack(window, count + 1, previous))) {
+                return true;
+            }
+        }
+    }
+
+    private void maybePruneUnused(long nowMs, long currentWindow) {
+        int size = windows.size();
+        if (size == 0) {
+            return;
+        }
+        boolean sizePressure = size >= pruneSizeThreshold;
+        boolean timeDue = (nowMs - lastPruneEpochMs) >= PRUNE_INTERVAL_MS;
+        if ((!sizePressure && !timeDue) || !pruning.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            lastPruneEpochMs = nowMs;
+            pruneStaleWindows(currentWindow);
+            pruneSizeThreshold = (int) Math.min(Integer.MAX_VALUE,
+                    Math.max(PRUNE_SIZE_PRESSURE, 2L * windows.size()));
+        } finally {
+            pruning.set(false);
+        }
+    }
+
+    /**
+     * Drops keys last used before the previous minute; their weighted count is zero. A request racing with removal
+     * may count against the dropped entry, which can only under-count a key that was idle anyway.
+     */
+    private void pruneStaleWindows(long currentWindow) {
+        long oldestRetainedWindow = currentWindow - 1;
+        windows.values().removeIf(state -> windowOf(state.get()) < oldestRetainedWindow);
+    }
+
+    int testingEntryCount() {
+        return windows.size();
+    }
+
+    int testingPruneSizeThreshold() {
+        return pruneSizeThreshold;
+    }
+
+    private static long pack(long window, int count, int previous) {
+        return (window << WINDOW_SHIFT) | ((long) count << COUNT_BITS) | previous;
+    }
+
+    private static long windowOf(long state) {
+        return state >>> WINDOW_SHIFT;
+    }
+
+    private static int countOf(long state) {
+        return (int) ((state >>> COUNT_BITS) & COUNT_MASK);
+    }
+
+    private static int previousOf(long state) {
+        return (int) (state & COUNT_MASK);
+    }
+}
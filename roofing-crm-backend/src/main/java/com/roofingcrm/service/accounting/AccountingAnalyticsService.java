@@ -0,0 +1,28 @@
+package com.roofingcrm.service.accounting;
+
+import com.roofingcrm.api.v1.accounting.CostCategoryTrendDto;
+import com.roofingcrm.api.v1.accounting.ProfitabilityOverviewDto;
+import com.roofingcrm.api.v1.accounting.ReceivablesAgingDto;
+import com.roofingcrm.domain.enums.CostTrendInterval;
+import com.roofingcrm.domain.enums.MarginBasis;
+import org.springframework.lang.NonNull;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Tenant-wide accounting analytics, read from the precomputed job rollups and daily totals rather than from the
+ * individual jobs, so the cost does not grow with the number of jobs.
+ */
+public interface AccountingAnalyticsService {
+
+    /** Tenant totals over active jobs plus the {@code limit} jobs with the highest and lowest margin on {@code basis}. */
+    ProfitabilityOverviewDto getProfitabilityOverview(@NonNull UUID tenantId, @NonNull UUID userId, MarginBasis basis, int limit);
+
+    /** Costs per category and period between {@code from} and {@code to} (UTC days, inclusive; null for the last 12 months). */
+    CostCategoryTrendDto getCostCategoryTrend(@NonNull UUID tenantId, @NonNull UUID userId, LocalDate from, LocalDate to,
+                                              CostTrendInterval interval);
+
+    /** Open (SENT) receivables bucketed by days past due as of today (UTC). */
+    ReceivablesAgingDto getReceivablesAging(@NonNull UUID tenantId, @NonNull UUID userId);
+}
@@ -0,0 +1,239 @@
+package com.roofingcrm.service.accounting;
+
+import com.roofingcrm.api.v1.accounting.CostCategoryPeriodDto;
+import com.roofingcrm.api.v1.accounting.CostCategoryTrendDto;
+import com.roofingcrm.api.v1.accounting.ProfitabilityOverviewDto;
+import com.roofingcrm.api.v1.accounting.ReceivablesAgingBucketDto;
+import com.roofingcrm.api.v1.accounting.ReceivablesAgingDto;
+import com.roofingcrm.domain.entity.JobAccountingRollup;
+import com.roofingcrm.domain.entity.Tenant;
+import com.roofingcrm.domain.enums.CostTrendInterval;
+import com.roofingcrm.domain.enums.JobCostCategory;
+import com.roofingcrm.domain.enums.MarginBasis;
+import com.roofingcrm.domain.enums.UserRole;
+import com.roofingcrm.domain.repository.JobAccountingRollupRepository;
+import com.roofingcrm.service.tenant.TenantAccessService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+@Service
+@Transactional(readOnly = true)
+public class AccountingAnalyticsServiceImpl implements AccountingAnalyticsService {
+
+    private static final Set<UserRole> REPORT_ROLES = Set.of(UserRole.OWNER, UserRole.ADMIN);
+    static final int MAX_RANKED_JOBS = 50;
+    static final long MAX_TREND_DAYS = 5 * 366;
+    static final long MAX_DAILY_TREND_DAYS = 366;
+
+    /** Aging buckets by days past due; "Current" also holds invoices not yet due, the last one is open-ended. */
+    private static final List<AgingBucket> AGING_BUCKETS = List.of(
+            new AgingBucket("Current", 0, 0),
+            new AgingBucket("1-30", 1, 30),
+            new AgingBucket("31-60", 31, 60),
+            new AgingBucket("61-90", 61, 90),
+            new AgingBucket("90+", 91, null));
+
+    private final TenantAccessService tenantAccessService;
+    private final JobAccountingRollupRepository jobAccountingRollupRepository;
+    private final DailyAccountingTotals dailyAccountingTotals;
+
+    @Autowired
+    public AccountingAnalyticsServiceImpl(TenantAccessService tenantAccessService,
+                                          JobAccountingRollupRepository jobAccountingRollupRepository,
+                                          DailyAccountingTotals dailyAccountingTotals) {
+        this.tenantAccessService = tenantAccessService;
+        this.jobAccountingRollupRepository = jobAccountingRollupRepository;
+        this.dailyAccountingTotals = dailyAccountingTotals;
+    }
+
+    @Override
+    public ProfitabilityOverviewDto getProfitabilityOverview(@NonNull UUID tenantId, @NonNull UUID userId,
+                                                             MarginBasis basis, int limit) {
+        if (limit < 1 || limit > MAX_RANKED_JOBS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_RANKED_JOBS);
+        }
+        UUID rollupTenantId = loadReportTenantId(tenantId, userId);
+        MarginBasis safeBasis = basis != null ? basis : MarginBasis.ACTUAL;
+        JobAccountingRollupRepository.TenantTotalsView totals =
+                jobAccountingRollupRepository.sumActiveByTenant(rollupTenantId);
+
+        ProfitabilityOverviewDto dto = new ProfitabilityOverviewDto();
+        dto.setBasis(safeBasis);
+        dto.setJobCount(totals.getJobCount());
+        dto.setAgreedAmount(defaultMoney(totals.getAgreedAmount()));
+        dto.setInvoicedAmount(defaultMoney(totals.getInvoicedAmount()));
+        dto.setPaidAmount(defaultMoney(totals.getPaidAmount()));
+        dto.setTotalCosts(defaultMoney(totals.getTotalCosts()));
+        dto.setActualProfit(defaultMoney(totals.getActualProfit()));
+        dto.setActualMarginPercent(calculateMarginPercent(dto.getActualProfit(), dto.getPaidAmount()));
+        dto.setProjectedProfit(defaultMoney(totals.getProjectedProfit()));
+        dto.setProjectedMarginPercent(calculateMarginPercent(dto.getProjectedProfit(), dto.getAgreedAmount()));
+
+        PageRequest page = PageRequest.of(0, limit);
+        Page<JobAccountingRollup> most = safeBasis == MarginBasis.PROJECTED
+                ? jobAccountingRollupRepository.findActiveByTenantOrderByProjectedMargin(rollupTenantId, page)
+                : jobAccountingRollupRepository.findActiveByTenantOrderByActualMargin(rollupTenantId, page);
+        Page<JobAccountingRollup> least = safeBasis == MarginBasis.PROJECTED
+                ? jobAccountingRollupRepository.findActiveByTenantOrderByProjectedMarginAsc(rollupTenantId, page)
+                : jobAccountingRollupRepository.findActiveByTenantOrderByActualMarginAsc(rollupTenantId, page);
+        dto.setMostProfitableJobs(most.map(JobAccountingServiceImpl::toProfitabilityDto).getContent());
+        dto.setLeastProfitableJobs(least.map(JobAccountingServiceImpl::toProfitabilityDto).getContent());
+        return dto;
+    }
+
+    @Override
+    public CostCategoryTrendDto getCostCategoryTrend(@NonNull UUID tenantId, @NonNull UUID userId,
+                                                     LocalDate from, LocalDate to, CostTrendInterval interval) {
+        CostTrendInterval safeInterval = interval != null ? interval : CostTrendInterval.MONTH;
+        LocalDate safeTo = to != null ? to : LocalDate.now(ZoneOffset.UTC);
+        LocalDate safeFrom = from != null ? from : safeTo.minusMonths(11).withDayOfMonth(1);
+        if (safeFrom.isAfter(safeTo)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        long days = ChronoUnit.DAYS.between(safeFrom, safeTo) + 1;
+        long maxDays = safeInterval == CostTrendInterval.DAY ? MAX_DAILY_TREND_DAYS : MAX_TREND_DAYS;
+        if (days > maxDays) {
+            throw new IllegalArgumentException("Date range must not exceed " + maxDays + " days for interval " + safeInterval);
+        }
+        UUID totalsTenantId = loadReportTenantId(tenantId, userId);
+
+        // Every period in the range is listed, with zero totals when nothing was spent, so charts need no gap filling.
+        Map<LocalDate, CostCategoryPeriodDto> periods = new LinkedHashMap<>();
+        for (LocalDate start = periodStart(safeFrom, safeInterval); !start.isAfter(safeTo);
+             start = nextPeriodStart(start, safeInterval)) {
+            CostCategoryPeriodDto period = new CostCategoryPeriodDto();
+            period.setPeriodStart(start);
+            period.setCategoryTotals(zeroCategoryTotals());
+            period.setTotalCosts(BigDecimal.ZERO);
+            periods.put(start, period);
+        }
+        Map<JobCostCategory, BigDecimal> categoryTotals = zeroCategoryTotals();
+        BigDecimal totalCosts = BigDecimal.ZERO;
+        String unit = safeInterval.name().toLowerCase(Locale.ROOT);
+        for (DailyAccountingTotals.CostTotal row
+                : dailyAccountingTotals.costTotals(totalsTenantId, safeFrom, safeTo, unit)) {
+            CostCategoryPeriodDto period = periods.get(row.periodStart());
+            period.getCategoryTotals().merge(row.category(), row.amount(), BigDecimal::add);
+            period.setTotalCosts(period.getTotalCosts().add(row.amount()));
+            period.setEntryCount(period.getEntryCount() + row.entryCount());
+            categoryTotals.merge(row.category(), row.amount(), BigDecimal::add);
+            totalCosts = totalCosts.add(row.amount());
+        }
+
+        CostCategoryTrendDto dto = new CostCategoryTrendDto();
+        dto.setFrom(safeFrom);
+        dto.setTo(safeTo);
+        dto.setInterval(safeInterval);
+        dto.setCategoryTotals(categoryTotals);
+        dto.setTotalCosts(totalCosts);
+        dto.setPeriods(List.copyOf(periods.values()));
+        return dto;
+    }
+
+    @Override
+    public ReceivablesAgingDto getReceivablesAging(@NonNull UUID tenantId, @NonNull UUID userId) {
+        UUID totalsTenantId = loadReportTenantId(tenantId, userId);
+        LocalDate asOf = LocalDate.now(ZoneOffset.UTC);
+
+        List<ReceivablesAgingBucketDto> buckets = AGING_BUCKETS.stream().map(bucket -> {
+            ReceivablesAgingBucketDto bucketDto = new ReceivablesAgingBucketDto();
+            bucketDto.setLabel(bucket.label());
+            bucketDto.setMinDaysPastDue(bucket.minDaysPastDue());
+            bucketDto.setMaxDaysPastDue(bucket.maxDaysPastDue());
+            bucketDto.setAmount(BigDecimal.ZERO);
+            return bucketDto;
+        }).toList();
+        BigDecimal totalOpen = BigDecimal.ZERO;
+        long openCount = 0;
+        for (DailyAccountingTotals.ReceivableDay day : dailyAccountingTotals.receivables(totalsTenantId)) {
+            long daysPastDue = ChronoUnit.DAYS.between(day.dueDay(), asOf);
+            ReceivablesAgingBucketDto bucketDto = buckets.get(bucketIndex(daysPastDue));
+            bucketDto.setAmount(bucketDto.getAmount().add(day.openAmount()));
+            bucketDto.setInvoiceCount(bucketDto.getInvoiceCount() + day.openCount());
+            totalOpen = totalOpen.add(day.openAmount());
+            openCount += day.openCount();
+        }
+
+        ReceivablesAgingDto dto = new ReceivablesAgingDto();
+        dto.setAsOf(asOf);
+        dto.setTotalOpen(totalOpen);
+        dto.setOpenInvoiceCount(openCount);
+        dto.setBuckets(buckets);
+        return dto;
+    }
+
+    private UUID loadReportTenantId(UUID tenantId, UUID userId) {
+        tenantAccessService.requireAnyRole(tenantId, userId, Objects.requireNonNull(REPORT_ROLES),
+                "You do not have permission to view accounting analytics.");
+        Tenant tenant = tenantAccessService.loadTenantForUserOrThrow(tenantId, userId);
+        return Objects.requireNonNull(tenant.getId());
+    }
+
+    private static int bucketIndex(long daysPastDue) {
+        for (int i = AGING_BUCKETS.size() - 1; i > 0; i--) {
+            if (daysPastDue >= AGING_BUCKETS.get(i).minDaysPastDue()) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    /** Same truncation as Postgres {@code date_trunc}: ISO weeks (Monday) and calendar months. */
+    static LocalDate periodStart(LocalDate day, CostTrendInterval interval) {
+        return switch (interval) {
+            case DAY -> day;
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+
+    private static LocalDate nextPeriodStart(LocalDate start, CostTrendInterval interval) {
+        return switch (interval) {
+            case DAY -> start.plusDays(1);
+            case WEEK -> start.plusWeeks(1);
+            case MONTH -> start.plusMonths(1);
+        };
+    }
+
+    private static Map<JobCostCategory, BigDecimal> zeroCategoryTotals() {
+        Map<JobCostCategory, BigDecimal> totals = new LinkedHashMap<>();
+        for (JobCostCategory category : JobCostCategory.values()) {
+            totals.put(category, BigDecimal.ZERO);
+        }
+        return totals;
+    }
+
+    private static BigDecimal defaultMoney(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    private static BigDecimal calculateMarginPercent(BigDecimal profit, BigDecimal baseAmount) {
+        if (baseAmount.compareTo(BigDecimal.ZERO) <= 0) {
+            return null;
+        }
+        return profit.multiply(BigDecimal.valueOf(100))
+                .divide(baseAmount, 2, RoundingMode.HALF_UP);
+    }
+
+    private record AgingBucket(String label, int minDaysPastDue, Integer maxDaysPastDue) {
+    }
+}
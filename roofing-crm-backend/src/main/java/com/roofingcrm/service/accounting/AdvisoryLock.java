@@ -0,0 +1,55 @@
+package com.roofingcrm.service.accounting;
+
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Objects;
+
+/**
+ * Session-level Postgres advisory lock for background work that should run on one instance at a time. The lock is
+ * held on a connection of its own while the work runs, so the work is free to use its own short transactions; if the
+ * instance dies the session ends and the lock is released with it.
+ */
+@Component
+class AdvisoryLock {
+
+    static final String TRY_LOCK_SQL = "SELECT pg_try_advisory_lock(?)";
+    static final String UNLOCK_SQL = "SELECT pg_advisory_unlock(?)";
+
+    private final DataSource dataSource;
+
+    AdvisoryLock(DataSource dataSource) {
+        this.dataSource = Objects.requireNonNull(dataSource);
+    }
+
+    /** Runs {@code work} while holding {@code key}; returns false without running it when another session holds it. */
+    boolean runExclusively(long key, Runnable work) {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!call(connection, TRY_LOCK_SQL, key)) {
+                return false;
+            }
+            try {
+                work.run();
+            } finally {
+                call(connection, UNLOCK_SQL, key);
+            }
+            return true;
+        } catch (SQLException e) {
+            throw new DataAccessResourceFailureException("Advisory lock " + key + " failed", e);
+        }
+    }
+
+    private static boolean call(Connection connection, String sql, long key) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, key);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() && result.getBoolean(1);
+            }
+        }
+    }
+}
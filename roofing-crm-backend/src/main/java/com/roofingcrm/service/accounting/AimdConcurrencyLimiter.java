@@ -0,0 +1,126 @@
+package com.roofingcrm.service.accounting;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit that adapts to the provider (additive increase, multiplicative decrease): every success while the
+ * limit is actually in use raises it by {@code 1/limit}, so it grows by about one per round of calls, and every
+ * overload signal (429, 5xx, timeout) halves it. Under a brownout the number of calls we keep open against the provider
+ * drops within a few failures instead of every caller piling on.
+ * Guarded by a {@link ReentrantLock} rather than {@code synchronized}, which would pin a waiting virtual thread.
+ */
+final class AimdConcurrencyLimiter {
+
+    private static final double BACKOFF_RATIO = 0.5;
+
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition permitReleased = lock.newCondition();
+    private final int minLimit;
+    private final int maxLimit;
+    private double limit;
+    private int inFlight;
+
+    AimdConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+    }
+
+    /**
+     * Waits up to {@code timeoutMillis} for a permit.
+     *
+     * @return false if none freed up in time; the caller must not call the provider.
+     */
+    boolean acquire(long timeoutMillis) throws InterruptedException {
+        long remainingNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, timeoutMillis));
+        lock.lock();
+        try {
+            while (inFlight >= (int) limit) {
+                if (remainingNanos <= 0) {
+                    return false;
+                }
+                remainingNanos = permitReleased.awaitNanos(remainingNanos);
+            }
+            inFlight++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** The call succeeded. */
+    void onSuccess() {
+        lock.lock();
+        try {
+            // Only grow while the limit is the bottleneck; otherwise an idle period would inflate it without evidence.
+            if (inFlight * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            release();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** The provider signalled overload. */
+    void onOverload() {
+        lock.lock();
+        try {
+            limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+            release();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** The call ended in a way that says nothing about provider capacity (bad request, unparseable answer). */
+    void onIgnored() {
+        lock.lock();
+        try {
+            release();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes back a permit handed back with {@link #onIgnored()} by a call that is still running (between retries).
+     * Waits for room under the current limit without a timeout, since the call already holds its admission.
+     */
+    void reacquire() {
+        lock.lock();
+        try {
+            while (inFlight >= (int) limit) {
+                permitReleased.awaitUninterruptibly();
+            }
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int limit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release() {
+        inFlight--;
+        permitReleased.signalAll();
+    }
+}
@@ -0,0 +1,290 @@
+package com.roofingcrm.service.accounting;
+
+import com.roofingcrm.domain.enums.JobCostCategory;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Reads and writes the daily per-tenant aggregates behind the accounting analytics: {@code tenant_daily_cost_totals}
+ * (non-archived cost entries per UTC day and category) and {@code tenant_daily_receivables} (non-archived SENT
+ * invoices per UTC due day, falling back to the issue day).
+ * <p>
+ * Writes add deltas: each changed (tenant, day) row is upserted with {@code x = x + excluded.x} in the caller's
+ * transaction, and rows whose count drops to zero are removed. Concurrent transactions of one tenant therefore only
+ * wait on each other when they change the same day, never on a tenant-wide lock. Rows are written in key order so
+ * two transactions touching the same days lock them in the same order. {@link #rebuildTenants} recomputes whole
+ * tenants from the base tables for the consistency check.
+ */
+@Component
+public class DailyAccountingTotals {
+
+    /** One tenant's UTC calendar day. */
+    public record TenantDay(UUID tenantId, LocalDate day) implements Comparable<TenantDay> {
+
+        @Override
+        public int compareTo(TenantDay other) {
+            int byTenant = tenantId.compareTo(other.tenantId);
+            return byTenant != 0 ? byTenant : day.compareTo(other.day);
+        }
+    }
+
+    /** One tenant's UTC calendar day for one cost category. */
+    public record CostDay(UUID tenantId, LocalDate day, JobCostCategory category) implements Comparable<CostDay> {
+
+        @Override
+        public int compareTo(CostDay other) {
+            int byDay = new TenantDay(tenantId, day).compareTo(new TenantDay(other.tenantId, other.day));
+            return byDay != 0 ? byDay : category.compareTo(other.category);
+        }
+    }
+
+    /** A change to a day's amount and row count. */
+    public record Delta(BigDecimal amount, long count) {
+
+        public static final Delta NONE = new Delta(BigDecimal.ZERO, 0);
+
+        public Delta plus(Delta other) {
+            return new Delta(amount.add(other.amount), count + other.count);
+        }
+
+        public Delta negate() {
+            return new Delta(amount.negate(), -count);
+        }
+
+        boolean isZero() {
+            return count == 0 && amount.signum() == 0;
+        }
+    }
+
+    /** One period's total for one cost category. */
+    public record CostTotal(LocalDate periodStart, JobCostCategory category, BigDecimal amount, long entryCount) {
+    }
+
+    /** Open receivables falling due on one day. */
+    public record ReceivableDay(LocalDate dueDay, BigDecimal openAmount, long openCount) {
+    }
+
+    static final String ADD_COST_DAY_SQL = """
+            INSERT INTO tenant_daily_cost_totals AS t (tenant_id, day, category, amount, entry_count)
+            VALUES (:tenantId, :day, :category, :amount, :count)
+            ON CONFLICT (tenant_id, day, category) DO UPDATE SET
+                amount = t.amount + EXCLUDED.amount,
+                entry_count = t.entry_count + EXCLUDED.entry_count
+            """;
+
+    static final String DELETE_EMPTY_COST_DAYS_SQL = """
+            DELETE FROM tenant_daily_cost_totals WHERE (tenant_id, day, category) IN (:days) AND entry_count = 0
+            """;
+
+    static final String ADD_RECEIVABLE_DAY_SQL = """
+            INSERT INTO tenant_daily_receivables AS t (tenant_id, due_day, open_amount, open_count)
+            VALUES (:tenantId, :day, :amount, :count)
+            ON CONFLICT (tenant_id, due_day) DO UPDATE SET
+                open_amount = t.open_amount + EXCLUDED.open_amount,
+                open_count = t.open_count + EXCLUDED.open_count
+            """;
+
+    static final String DELETE_EMPTY_RECEIVABLE_DAYS_SQL = """
+            DELETE FROM tenant_daily_receivables WHERE (tenant_id, due_day) IN (:days) AND open_count = 0
+            """;
+
+    /** Tenants in {@code :tenantIds} with at least one stored day that is missing, extra or different. */
+    static final String DRIFTED_TENANTS_SQL = """
+            SELECT COALESCE(f.tenant_id, s.tenant_id) FROM (
+                SELECT c.tenant_id, (c.incurred_at AT TIME ZONE 'UTC')::date AS day, c.category,
+                       SUM(c.amount) AS amount, COUNT(*) AS entry_count
+                FROM job_cost_entries c
+                WHERE c.archived = FALSE AND c.tenant_id IN (:tenantIds)
+                GROUP BY 1, 2, 3
+            ) f
+            FULL JOIN (
+                SELECT * FROM tenant_daily_cost_totals WHERE tenant_id IN (:tenantIds)
+            ) s ON s.tenant_id = f.tenant_id AND s.day = f.day AND s.category = f.category
+            WHERE (f.amount, f.entry_count) IS DISTINCT FROM (s.amount, s.entry_count)
+            UNION
+            SELECT COALESCE(f.tenant_id, s.tenant_id) FROM (
+                SELECT i.tenant_id, (COALESCE(i.due_at, i.issued_at) AT TIME ZONE 'UTC')::date AS due_day,
+                       SUM(i.total) AS open_amount, COUNT(*) AS open_count
+                FROM invoices i
+                WHERE i.archived = FALSE AND i.status = 'SENT' AND i.tenant_id IN (:tenantIds)
+                GROUP BY 1, 2
+            ) f
+            FULL JOIN (
+                SELECT * FROM tenant_daily_receivables WHERE tenant_id IN (:tenantIds)
+            ) s ON s.tenant_id = f.tenant_id AND s.due_day = f.due_day
+            WHERE (f.open_amount, f.open_count) IS DISTINCT FROM (s.open_amount, s.open_count)
+            """;
+
+    static final String DELETE_TENANT_COSTS_SQL = """
+            DELETE FROM tenant_daily_cost_totals WHERE tenant_id IN (:tenantIds)
+            """;
+
+    static final String INSERT_TENANT_COSTS_SQL = """
+            INSERT INTO tenant_daily_cost_totals (tenant_id, day, category, amount, entry_count)
+            SELECT c.tenant_id, (c.incurred_at AT TIME ZONE 'UTC')::date, c.category, SUM(c.amount), COUNT(*)
+            FROM job_cost_entries c
+            WHERE c.archived = FALSE AND c.tenant_id IN (:tenantIds)
+            GROUP BY 1, 2, 3
+            """;
+
+    static final String DELETE_TENANT_RECEIVABLES_SQL = """
+            DELETE FROM tenant_daily_receivables WHERE tenant_id IN (:tenantIds)
+            """;
+
+    static final String INSERT_TENANT_RECEIVABLES_SQL = """
+            INSERT INTO tenant_daily_receivables (tenant_id, due_day, open_amount, open_count)
+            SELECT i.tenant_id, (COALESCE(i.due_at, i.issued_at) AT TIME ZONE 'UTC')::date, SUM(i.total), COUNT(*)
+            FROM invoices i
+            WHERE i.archived = FALSE AND i.status = 'SENT' AND i.tenant_id IN (:tenantIds)
+            GROUP BY 1, 2
+            """;
+
+    /** Tenants with a cost entry or invoice updated in the last {@code :lookbackHours}, keyset-paged. */
+    static final String CHANGED_TENANT_PAGE_SQL = """
+            SELECT tenant_id FROM (
+                SELECT tenant_id FROM job_cost_entries WHERE updated_at >= now() - (:lookbackHours * INTERVAL '1 hour')
+                UNION
+                SELECT tenant_id FROM invoices WHERE updated_at >= now() - (:lookbackHours * INTERVAL '1 hour')
+            ) changed
+            WHERE (CAST(:afterId AS uuid) IS NULL OR tenant_id > :afterId)
+            ORDER BY tenant_id
+            LIMIT :limit
+            """;
+
+    /** Cost totals per category and period; {@code :unit} is a {@code date_trunc} field (day, week or month). */
+    static final String COST_TOTALS_SQL = """
+            SELECT CAST(date_trunc(:unit, CAST(day AS timestamp)) AS date) AS period_start, category,
+                   SUM(amount) AS amount, SUM(entry_count) AS entry_count
+            FROM tenant_daily_cost_totals
+            WHERE tenant_id = :tenantId AND day BETWEEN :from AND :to
+            GROUP BY 1, 2
+            ORDER BY 1, 2
+            """;
+
+    static final String RECEIVABLES_SQL = """
+            SELECT due_day, open_amount, open_count
+            FROM tenant_daily_receivables
+            WHERE tenant_id = :tenantId
+            ORDER BY due_day
+            """;
+
+    private final NamedParameterJdbcOperations jdbc;
+
+    public DailyAccountingTotals(NamedParameterJdbcOperations jdbc) {
+        this.jdbc = Objects.requireNonNull(jdbc);
+    }
+
+    /** Adds {@code deltas} to their cost days; must run inside the transaction whose changes they describe. */
+    public void addCostDeltas(Map<CostDay, Delta> deltas) {
+        List<Map.Entry<CostDay, Delta>> changed = nonZero(deltas);
+        if (changed.isEmpty()) {
+            return;
+        }
+        jdbc.batchUpdate(ADD_COST_DAY_SQL, changed.stream()
+                .map(e -> deltaParams(e.getKey().tenantId(), e.getKey().day(), e.getValue())
+                        .addValue("category", e.getKey().category().name()))
+                .toArray(SqlParameterSource[]::new));
+        List<Object[]> keys = changed.stream()
+                .map(e -> new Object[]{e.getKey().tenantId(), e.getKey().day(), e.getKey().category().name()})
+                .toList();
+        jdbc.update(DELETE_EMPTY_COST_DAYS_SQL, new MapSqlParameterSource("days", keys));
+    }
+
+    /** Adds {@code deltas} to their receivable days; same transaction rules as {@link #addCostDeltas}. */
+    public void addReceivableDeltas(Map<TenantDay, Delta> deltas) {
+        List<Map.Entry<TenantDay, Delta>> changed = nonZero(deltas);
+        if (changed.isEmpty()) {
+            return;
+        }
+        jdbc.batchUpdate(ADD_RECEIVABLE_DAY_SQL, changed.stream()
+                .map(e -> deltaParams(e.getKey().tenantId(), e.getKey().day(), e.getValue()))
+                .toArray(SqlParameterSource[]::new));
+        List<Object[]> keys = changed.stream()
+                .map(e -> new Object[]{e.getKey().tenantId(), e.getKey().day()})
+                .toList();
+        jdbc.update(DELETE_EMPTY_RECEIVABLE_DAYS_SQL, new MapSqlParameterSource("days", keys));
+    }
+
+    /** Entries that change something, in key order. */
+    private static <K extends Comparable<K>> List<Map.Entry<K, Delta>> nonZero(Map<K, Delta> deltas) {
+        return deltas.entrySet().stream()
+                .filter(e -> !e.getValue().isZero())
+                .sorted(Map.Entry.comparingByKey())
+                .toList();
+    }
+
+    private static MapSqlParameterSource deltaParams(UUID tenantId, LocalDate day, Delta delta) {
+        return new MapSqlParameterSource()
+                .addValue("tenantId", tenantId)
+                .addValue("day", day)
+                .addValue("amount", delta.amount())
+                .addValue("count", delta.count());
+    }
+
+    /** The subset of {@code tenantIds} whose daily rows would change on {@link #rebuildTenants}. */
+    public List<UUID> findDriftedTenants(Collection<UUID> tenantIds) {
+        if (tenantIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbc.queryForList(DRIFTED_TENANTS_SQL, new MapSqlParameterSource("tenantIds", tenantIds), UUID.class);
+    }
+
+    /**
+     * Recomputes every daily row of {@code tenantIds}. A transaction adding to a rebuilt day between the delete and
+     * the insert makes the insert fail on the primary key; the next check retries that tenant.
+     */
+    public void rebuildTenants(Collection<UUID> tenantIds) {
+        if (tenantIds.isEmpty()) {
+            return;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("tenantIds", tenantIds);
+        jdbc.update(DELETE_TENANT_COSTS_SQL, params);
+        jdbc.update(INSERT_TENANT_COSTS_SQL, params);
+        jdbc.update(DELETE_TENANT_RECEIVABLES_SQL, params);
+        jdbc.update(INSERT_TENANT_RECEIVABLES_SQL, params);
+    }
+
+    /**
+     * Keyset page of the tenants whose cost entries or invoices were updated in the last {@code lookbackHours},
+     * after {@code afterId}, or from the start when null.
+     */
+    public List<UUID> changedTenantIdsAfter(long lookbackHours, UUID afterId, int limit) {
+        return jdbc.queryForList(CHANGED_TENANT_PAGE_SQL, new MapSqlParameterSource()
+                .addValue("lookbackHours", lookbackHours)
+                .addValue("afterId", afterId)
+                .addValue("limit", limit), UUID.class);
+    }
+
+    /** Cost totals of the tenant between {@code from} and {@code to} (inclusive), one row per period and category. */
+    public List<CostTotal> costTotals(UUID tenantId, LocalDate from, LocalDate to, String dateTruncUnit) {
+        return jdbc.query(COST_TOTALS_SQL, new MapSqlParameterSource()
+                        .addValue("tenantId", tenantId)
+                        .addValue("from", from)
+                        .addValue("to", to)
+                        .addValue("unit", dateTruncUnit),
+                (rs, rowNum) -> new CostTotal(
+                        rs.getObject("period_start", LocalDate.class),
+                        JobCostCategory.valueOf(rs.getString("category")),
+                        rs.getBigDecimal("amount"),
+                        rs.getLong("entry_count")));
+    }
+
+    /** The tenant's open receivables by due day, earliest first. */
+    public List<ReceivableDay> receivables(UUID tenantId) {
+        return jdbc.query(RECEIVABLES_SQL, new MapSqlParameterSource("tenantId", tenantId),
+                (rs, rowNum) -> new ReceivableDay(
+                        rs.getObject("due_day", LocalDate.class),
+                        rs.getBigDecimal("open_amount"),
+                        rs.getLong("open_count")));
+    }
+}
@@ -0,0 +1,155 @@
+package com.roofingcrm.service.accounting;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Writes the {@code job_accounting_rollups} table. A job's row is recomputed from its accepted estimate, invoices and
+ * cost entries with the same rules as the live summary queries (archived rows ignored, VOID invoices not invoiced,
+ * only PAID invoices paid, latest accepted estimate agreed), so a refreshed row always equals a fresh computation.
+ * <p>
+ * Every statement joins the caller's transaction. {@link #refresh} first locks the jobs' rows, so two transactions
+ * changing the same job refresh it one after the other and the second one reads the first one's committed figures.
+ */
+@Component
+public class JobAccountingLedger {
+
+    /** The rollup columns of each job in {@code :jobIds}, in {@code job_accounting_rollups} column order. */
+    static final String ROLLUP_SELECT = """
+            SELECT t.job_id, t.tenant_id, t.has_accepted_estimate, t.agreed_amount, t.invoiced_amount, t.paid_amount,
+                   t.total_costs, t.material_costs, t.transportation_costs, t.labor_costs, t.other_costs,
+                   t.paid_amount - t.total_costs AS actual_profit,
+                   CASE WHEN t.paid_amount > 0
+                        THEN ROUND((t.paid_amount - t.total_costs) * 100 / t.paid_amount, 2) END AS actual_margin_percent,
+                   t.agreed_amount - t.total_costs AS projected_profit,
+                   CASE WHEN t.agreed_amount > 0
+                        THEN ROUND((t.agreed_amount - t.total_costs) * 100 / t.agreed_amount, 2) END AS projected_margin_percent
+            FROM (
+                SELECT j.id AS job_id,
+                       j.tenant_id,
+                       accepted.id IS NOT NULL AS has_accepted_estimate,
+                       accepted.total AS agreed_amount,
+                       COALESCE(invoiced.non_void, 0) AS invoiced_amount,
+                       COALESCE(invoiced.paid, 0) AS paid_amount,
+                       COALESCE(costs.total, 0) AS total_costs,
+                       COALESCE(costs.material, 0) AS material_costs,
+                       COALESCE(costs.transportation, 0) AS transportation_costs,
+                       COALESCE(costs.labor, 0) AS labor_costs,
+                       COALESCE(costs.other, 0) AS other_costs
+                FROM jobs j
+                LEFT JOIN LATERAL (
+                    SELECT e.id, e.total
+                    FROM estimates e
+                    WHERE e.job_id = j.id AND e.archived = FALSE AND e.status = 'ACCEPTED'
+                    ORDER BY e.decision_at DESC NULLS LAST, e.updated_at DESC, e.created_at DESC
+                    LIMIT 1
+                ) accepted ON TRUE
+                LEFT JOIN LATERAL (
+                    SELECT SUM(i.total) FILTER (WHERE i.status <> 'VOID') AS non_void,
+                           SUM(i.total) FILTER (WHERE i.status = 'PAID') AS paid
+                    FROM invoices i
+                    WHERE i.job_id = j.id AND i.archived = FALSE
+                ) invoiced ON TRUE
+                LEFT JOIN LATERAL (
+                    SELECT SUM(c.amount) AS total,
+                           SUM(c.amount) FILTER (WHERE c.category = 'MATERIAL') AS material,
+                           SUM(c.amount) FILTER (WHERE c.category = 'TRANSPORTATION') AS transportation,
+                           SUM(c.amount) FILTER (WHERE c.category = 'LABOR') AS labor,
+                           SUM(c.amount) FILTER (WHERE c.category = 'OTHER') AS other
+                    FROM job_cost_entries c
+                    WHERE c.job_id = j.id AND c.archived = FALSE
+                ) costs ON TRUE
+                WHERE j.id IN (:jobIds)
+            ) t
+            """;
+
+    static final String LOCK_JOBS_SQL = """
+            SELECT id FROM jobs WHERE id IN (:jobIds) ORDER BY id FOR NO KEY UPDATE
+            """;
+
+    static final String UPSERT_SQL = """
+            INSERT INTO job_accounting_rollups (
+                job_id, tenant_id, has_accepted_estimate, agreed_amount, invoiced_amount, paid_amount, total_costs,
+                material_costs, transportation_costs, labor_costs, other_costs,
+                actual_profit, actual_margin_percent, projected_profit, projected_margin_percent, refreshed_at)
+            SELECT r.*, now() FROM (
+            """ + ROLLUP_SELECT + """
+            ) r
+            ON CONFLICT (job_id) DO UPDATE SET
+                tenant_id = EXCLUDED.tenant_id,
+                has_accepted_estimate = EXCLUDED.has_accepted_estimate,
+                agreed_amount = EXCLUDED.agreed_amount,
+                invoiced_amount = EXCLUDED.invoiced_amount,
+                paid_amount = EXCLUDED.paid_amount,
+                total_costs = EXCLUDED.total_costs,
+                material_costs = EXCLUDED.material_costs,
+                transportation_costs = EXCLUDED.transportation_costs,
+                labor_costs = EXCLUDED.labor_costs,
+                other_costs = EXCLUDED.other_costs,
+                actual_profit = EXCLUDED.actual_profit,
+                actual_margin_percent = EXCLUDED.actual_margin_percent,
+                projected_profit = EXCLUDED.projected_profit,
+                projected_margin_percent = EXCLUDED.projected_margin_percent,
+                refreshed_at = EXCLUDED.refreshed_at
+            """;
+
+    /** Jobs in {@code :jobIds} whose stored row is missing or differs from a fresh computation. */
+    static final String DRIFTED_SQL = """
+            SELECT r.job_id FROM (
+            """ + ROLLUP_SELECT + """
+            ) r
+            LEFT JOIN job_accounting_rollups s ON s.job_id = r.job_id
+            WHERE s.job_id IS NULL
+               OR (r.tenant_id, r.has_accepted_estimate, r.agreed_amount, r.invoiced_amount, r.paid_amount,
+                   r.total_costs, r.material_costs, r.transportation_costs, r.labor_costs, r.other_costs,
+                   r.actual_profit, r.actual_margin_percent, r.projected_profit, r.projected_margin_percent)
+                  IS DISTINCT FROM
+                  (s.tenant_id, s.has_accepted_estimate, s.agreed_amount, s.invoiced_amount, s.paid_amount,
+                   s.total_costs, s.material_costs, s.transportation_costs, s.labor_costs, s.other_costs,
+                   s.actual_profit, s.actual_margin_percent, s.projected_profit, s.projected_margin_percent)
+            """;
+
+    static final String JOB_PAGE_SQL = """
+            SELECT id FROM jobs
+            WHERE (CAST(:afterId AS uuid) IS NULL OR id > :afterId)
+            ORDER BY id
+            LIMIT :limit
+            """;
+
+    private final NamedParameterJdbcOperations jdbc;
+
+    public JobAccountingLedger(NamedParameterJdbcOperations jdbc) {
+        this.jdbc = Objects.requireNonNull(jdbc);
+    }
+
+    /** Recomputes the rows of {@code jobIds}; must run inside the transaction whose changes it should include. */
+    public void refresh(Collection<UUID> jobIds) {
+        if (jobIds.isEmpty()) {
+            return;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("jobIds", jobIds);
+        jdbc.queryForList(LOCK_JOBS_SQL, params, UUID.class);
+        jdbc.update(UPSERT_SQL, params);
+    }
+
+    /** The subset of {@code jobIds} whose rows would change on {@link #refresh}. */
+    public List<UUID> findDrifted(Collection<UUID> jobIds) {
+        if (jobIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbc.queryForList(DRIFTED_SQL, new MapSqlParameterSource("jobIds", jobIds), UUID.class);
+    }
+
+    /** Keyset page of all job ids (archived included) after {@code afterId}, or from the start when null. */
+    public List<UUID> jobIdsAfter(UUID afterId, int limit) {
+        return jdbc.queryForList(JOB_PAGE_SQL, new MapSqlParameterSource()
+                .addValue("afterId", afterId)
+                .addValue("limit", limit), UUID.class);
+    }
+}
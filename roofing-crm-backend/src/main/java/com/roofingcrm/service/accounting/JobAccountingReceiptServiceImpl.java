@@ -117,6 +117,7 @@ public class JobAccountingReceiptServiceImpl implements JobAccountingReceiptServ
         receipt.setStorageProvider("LOCAL");
         receipt.setTag(AttachmentTag.RECEIPT);
         receipt.setDescription(normalizeOptionalText(description));
+        receipt.setContentHash(ReceiptImportFiles.contentHash(file));
         AuditSupport.touchForCreate(receipt, userId);
 
         receipt = attachmentRepository.save(receipt);
@@ -0,0 +1,316 @@
+package com.roofingcrm.service.accounting;
+
+import com.roofingcrm.domain.entity.Estimate;
+import com.roofingcrm.domain.entity.Invoice;
+import com.roofingcrm.domain.entity.Job;
+import com.roofingcrm.domain.entity.JobCostEntry;
+import com.roofingcrm.domain.entity.Tenant;
+import com.roofingcrm.domain.enums.EstimateStatus;
+import com.roofingcrm.domain.enums.InvoiceStatus;
+import com.roofingcrm.domain.enums.JobCostCategory;
+import com.roofingcrm.service.accounting.DailyAccountingTotals.CostDay;
+import com.roofingcrm.service.accounting.DailyAccountingTotals.Delta;
+import com.roofingcrm.service.accounting.DailyAccountingTotals.TenantDay;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps {@code job_accounting_rollups} in step with the entities it is computed from. Insert/update/delete events of
+ * cost entries, invoices and estimates mark their job (and, when the entity moved, its previous job) dirty; the dirty
+ * jobs of a transaction are refreshed once, by {@link JobAccountingLedger#refresh}, after Hibernate's final flush
+ * and before the commit. The rollup therefore commits or rolls back with the change, and a request touching many
+ * rows of one job recomputes it once. New jobs get their (empty) row the same way.
+ *
+ * <p>The same events turn into deltas for {@link DailyAccountingTotals}: what a cost entry adds to its incurred day,
+ * or a SENT invoice to its due day, is subtracted as it was before the change and added as it is after. The deltas
+ * of a transaction are summed per day and added right after the jobs are refreshed. An update Hibernate reports
+ * without the previous state cannot be turned into a delta; the verifier's next pass repairs its tenant.
+ *
+ * <p>Updates that cannot change a rollup (a cost entry's notes, a draft estimate's items) are skipped. Bulk JPQL/SQL
+ * updates bypass entity events; {@link JobAccountingRollupVerifier} rebuilds what they leave behind.
+ */
+@Component
+public class JobAccountingRollupListener
+        implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final Set<String> COST_PROPERTIES = Set.of("job", "amount", "category", "archived");
+    private static final Set<String> INVOICE_PROPERTIES = Set.of("job", "total", "status", "archived");
+    private static final Set<String> COST_DAY_PROPERTIES = Set.of("amount", "category", "archived", "incurredAt");
+    private static final Set<String> RECEIVABLE_DAY_PROPERTIES =
+            Set.of("total", "status", "archived", "dueAt", "issuedAt");
+    private static final String JOB = "job";
+    private static final String STATUS = "status";
+    private static final String ARCHIVED = "archived";
+    private static final String AMOUNT = "amount";
+    private static final String CATEGORY = "category";
+    private static final String INCURRED_AT = "incurredAt";
+    private static final String TOTAL = "total";
+    private static final String DUE_AT = "dueAt";
+    private static final String ISSUED_AT = "issuedAt";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JobAccountingLedger ledger;
+    private final DailyAccountingTotals dailyTotals;
+    private final Map<SharedSessionContractImplementor, DirtyRows> dirtyRowsBySession = new ConcurrentHashMap<>();
+
+    public JobAccountingRollupListener(EntityManagerFactory entityManagerFactory, JobAccountingLedger ledger,
+                                       DailyAccountingTotals dailyTotals) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.ledger = ledger;
+        this.dailyTotals = dailyTotals;
+    }
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        Object entity = event.getEntity();
+        if (entity instanceof Job job) {
+            markDirty(event.getSession(), job.getId());
+        } else if (entity instanceof Estimate estimate) {
+            if (estimate.getStatus() == EstimateStatus.ACCEPTED) {
+                markDirty(event.getSession(), jobId(estimate.getJob()));
+            }
+        } else if (entity instanceof JobCostEntry entry) {
+            markDirty(event.getSession(), jobId(entry.getJob()));
+            addCost(event.getSession(), entry.getTenant(), entry.getIncurredAt(), entry.getCategory(),
+                    entry.getAmount(), entry.isArchived(), false);
+        } else if (entity instanceof Invoice invoice) {
+            markDirty(event.getSession(), jobId(invoice.getJob()));
+            addReceivable(event.getSession(), invoice.getTenant(), invoice.getDueAt(), invoice.getIssuedAt(),
+                    invoice.getStatus(), invoice.getTotal(), invoice.isArchived(), false);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        Object entity = event.getEntity();
+        String[] propertyNames = event.getPersister().getPropertyNames();
+        Set<String> dirty = dirtyProperties(event.getDirtyProperties(), propertyNames);
+        markChangedDays(event, entity, dirty, propertyNames);
+        boolean affectsRollup;
+        if (entity instanceof JobCostEntry) {
+            affectsRollup = dirty == null || dirty.stream().anyMatch(COST_PROPERTIES::contains);
+        } else if (entity instanceof Invoice) {
+            affectsRollup = dirty == null || dirty.stream().anyMatch(INVOICE_PROPERTIES::contains);
+        } else if (entity instanceof Estimate estimate) {
+            // Any change to an accepted estimate can change the agreed amount (including which accepted one is latest).
+            affectsRollup = dirty == null || dirty.contains(STATUS) || estimate.getStatus() == EstimateStatus.ACCEPTED;
+        } else {
+            return;
+        }
+        if (!affectsRollup) {
+            return;
+        }
+        markDirty(event.getSession(), jobId(jobOf(entity)));
+        if ((dirty == null || dirty.contains(JOB)) && event.getOldState() != null) {
+            markDirty(event.getSession(), jobId(event.getOldState()[indexOf(JOB, propertyNames)]));
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        Object entity = event.getEntity();
+        if (entity instanceof JobCostEntry || entity instanceof Invoice || entity instanceof Estimate) {
+            markDirty(event.getSession(), jobId(jobOf(entity)));
+        }
+        if (entity instanceof JobCostEntry entry) {
+            addCost(event.getSession(), entry.getTenant(), entry.getIncurredAt(), entry.getCategory(),
+                    entry.getAmount(), entry.isArchived(), true);
+        } else if (entity instanceof Invoice invoice) {
+            addReceivable(event.getSession(), invoice.getTenant(), invoice.getDueAt(), invoice.getIssuedAt(),
+                    invoice.getStatus(), invoice.getTotal(), invoice.isArchived(), true);
+        }
+    }
+
+    /** Moves what an updated cost entry or invoice counted on its day from its previous state to its current one. */
+    private void markChangedDays(PostUpdateEvent event, Object entity, Set<String> dirty, String[] propertyNames) {
+        Object[] oldState = event.getOldState();
+        if (entity instanceof JobCostEntry entry) {
+            if ((dirty != null && dirty.stream().noneMatch(COST_DAY_PROPERTIES::contains)) || oldState == null) {
+                return;
+            }
+            addCost(event.getSession(), entry.getTenant(),
+                    (Instant) oldState[indexOf(INCURRED_AT, propertyNames)],
+                    (JobCostCategory) oldState[indexOf(CATEGORY, propertyNames)],
+                    (BigDecimal) oldState[indexOf(AMOUNT, propertyNames)],
+                    (Boolean) oldState[indexOf(ARCHIVED, propertyNames)], true);
+            addCost(event.getSession(), entry.getTenant(), entry.getIncurredAt(), entry.getCategory(),
+                    entry.getAmount(), entry.isArchived(), false);
+        } else if (entity instanceof Invoice invoice) {
+            if ((dirty != null && dirty.stream().noneMatch(RECEIVABLE_DAY_PROPERTIES::contains)) || oldState == null) {
+                return;
+            }
+            addReceivable(event.getSession(), invoice.getTenant(),
+                    (Instant) oldState[indexOf(DUE_AT, propertyNames)],
+                    (Instant) oldState[indexOf(ISSUED_AT, propertyNames)],
+                    (InvoiceStatus) oldState[indexOf(STATUS, propertyNames)],
+                    (BigDecimal) oldState[indexOf(TOTAL, propertyNames)],
+                    (Boolean) oldState[indexOf(ARCHIVED, propertyNames)], true);
+            addReceivable(event.getSession(), invoice.getTenant(), invoice.getDueAt(), invoice.getIssuedAt(),
+                    invoice.getStatus(), invoice.getTotal(), invoice.isArchived(), false);
+        }
+    }
+
+    private void markDirty(EventSource session, UUID jobId) {
+        if (jobId != null) {
+            dirtyRows(session).jobIds.add(jobId);
+        }
+    }
+
+    /** Adds (or with {@code subtract}, removes) a non-archived cost entry's amount to its incurred day. */
+    private void addCost(EventSource session, Tenant tenant, Instant incurredAt, JobCostCategory category,
+                         BigDecimal amount, Boolean archived, boolean subtract) {
+        TenantDay day = tenantDay(tenant, incurredAt);
+        if (day == null || category == null || amount == null || Boolean.TRUE.equals(archived)) {
+            return;
+        }
+        Delta delta = new Delta(amount, 1);
+        dirtyRows(session).costDeltas.merge(new CostDay(day.tenantId(), day.day(), category),
+                subtract ? delta.negate() : delta, Delta::plus);
+    }
+
+    /** Adds (or with {@code subtract}, removes) a non-archived SENT invoice's total to its due day. */
+    private void addReceivable(EventSource session, Tenant tenant, Instant dueAt, Instant issuedAt, InvoiceStatus status,
+                               BigDecimal total, Boolean archived, boolean subtract) {
+        TenantDay day = tenantDay(tenant, dueAt != null ? dueAt : issuedAt);
+        if (day == null || status != InvoiceStatus.SENT || total == null || Boolean.TRUE.equals(archived)) {
+            return;
+        }
+        Delta delta = new Delta(total, 1);
+        dirtyRows(session).receivableDeltas.merge(day, subtract ? delta.negate() : delta, Delta::plus);
+    }
+
+    private DirtyRows dirtyRows(EventSource session) {
+        DirtyRows dirtyRows = dirtyRowsBySession.get(session);
+        if (dirtyRows == null) {
+            dirtyRows = new DirtyRows(session);
+            dirtyRowsBySession.put(session, dirtyRows);
+            session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) dirtyRows);
+            session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) dirtyRows);
+        }
+        return dirtyRows;
+    }
+
+    /** The tenant's UTC day of {@code at}, read without initializing a lazy tenant proxy; null when either is unknown. */
+    static TenantDay tenantDay(Tenant tenant, Instant at) {
+        UUID tenantId = tenant instanceof HibernateProxy proxy
+                ? (UUID) proxy.getHibernateLazyInitializer().getIdentifier()
+                : tenant != null ? tenant.getId() : null;
+        if (tenantId == null || at == null) {
+            return null;
+        }
+        return new TenantDay(tenantId, LocalDate.ofInstant(at, ZoneOffset.UTC));
+    }
+
+    private static Object jobOf(Object entity) {
+        if (entity instanceof JobCostEntry entry) {
+            return entry.getJob();
+        }
+        if (entity instanceof Invoice invoice) {
+            return invoice.getJob();
+        }
+        if (entity instanceof Estimate estimate) {
+            return estimate.getJob();
+        }
+        return null;
+    }
+
+    /** Reads the job id without initializing a lazy job proxy. */
+    static UUID jobId(Object job) {
+        if (job instanceof HibernateProxy proxy) {
+            return (UUID) proxy.getHibernateLazyInitializer().getIdentifier();
+        }
+        return job instanceof Job loaded ? loaded.getId() : null;
+    }
+
+    private static int indexOf(String propertyName, String[] propertyNames) {
+        for (int i = 0; i < propertyNames.length; i++) {
+            if (propertyName.equals(propertyNames[i])) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("No property " + propertyName);
+    }
+
+    /** Names of the dirty properties, or null when Hibernate did not track them (everything may have changed). */
+    static Set<String> dirtyProperties(int[] dirtyProperties, String[] propertyNames) {
+        if (dirtyProperties == null) {
+            return null;
+        }
+        Set<String> names = new TreeSet<>();
+        for (int index : dirtyProperties) {
+            names.add(propertyNames[index]);
+        }
+        return names;
+    }
+
+    /**
+     * The jobs and day deltas of one session's transaction; applied before it commits (jobs first), forgotten once it
+     * completes.
+     */
+    private final class DirtyRows implements BeforeTransactionCompletionProcess, AfterTransactionCompletionProcess {
+
+        private final SharedSessionContractImplementor owner;
+        private final Set<UUID> jobIds = new TreeSet<>();
+        private final Map<CostDay, Delta> costDeltas = new TreeMap<>();
+        private final Map<TenantDay, Delta> receivableDeltas = new TreeMap<>();
+
+        private DirtyRows(SharedSessionContractImplementor owner) {
+            this.owner = owner;
+        }
+
+        @Override
+        public void doBeforeTransactionCompletion(SessionImplementor session) {
+            ledger.refresh(jobIds);
+            dailyTotals.addCostDeltas(costDeltas);
+            dailyTotals.addReceivableDeltas(receivableDeltas);
+        }
+
+        @Override
+        public void doAfterTransactionCompletion(boolean success, SharedSessionContractImplementor session) {
+            dirtyRowsBySession.remove(owner);
+        }
+    }
+}
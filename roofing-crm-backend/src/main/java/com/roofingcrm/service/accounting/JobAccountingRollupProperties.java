@@ -0,0 +1,49 @@
+package com.roofingcrm.service.accounting;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.accounting.rollup")
+public class JobAccountingRollupProperties {
+
+    private boolean consistencyCheckEnabled = true;
+    /** Delay between the end of one pass over all jobs and the start of the next. */
+    private long consistencyCheckIntervalMinutes = 360;
+    /** Jobs compared (and drifted rows rebuilt) per statement and transaction. */
+    private int consistencyCheckBatchSize = 500;
+    /** Daily totals are compared only for tenants with a cost entry or invoice updated this recently. */
+    private long dailyTotalsLookbackHours = 24;
+
+    public boolean isConsistencyCheckEnabled() {
+        return consistencyCheckEnabled;
+    }
+
+    public void setConsistencyCheckEnabled(boolean consistencyCheckEnabled) {
+        this.consistencyCheckEnabled = consistencyCheckEnabled;
+    }
+
+    public long getConsistencyCheckIntervalMinutes() {
+        return consistencyCheckIntervalMinutes;
+    }
+
+    public void setConsistencyCheckIntervalMinutes(long consistencyCheckIntervalMinutes) {
+        this.consistencyCheckIntervalMinutes = consistencyCheckIntervalMinutes;
+    }
+
+    public int getConsistencyCheckBatchSize() {
+        return consistencyCheckBatchSize;
+    }
+
+    public void setConsistencyCheckBatchSize(int consistencyCheckBatchSize) {
+        this.consistencyCheckBatchSize = consistencyCheckBatchSize;
+    }
+
+    public long getDailyTotalsLookbackHours() {
+        return dailyTotalsLookbackHours;
+    }
+
+    public void setDailyTotalsLookbackHours(long dailyTotalsLookbackHours) {
+        this.dailyTotalsLookbackHours = dailyTotalsLookbackHours;
+    }
+}
@@ -0,0 +1,147 @@
+package com.roofingcrm.service.accounting;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodic consistency check for {@code job_accounting_rollups}: pages through every job, compares its stored row with
+ * a fresh computation in the database, and rebuilds rows that are missing or drifted (changes made by bulk SQL or by
+ * hand bypass {@link JobAccountingRollupListener}). Each page is compared and repaired in one short transaction.
+ * Rebuilt rows are counted in {@code accounting.rollup.drift.repaired}; a steady non-zero rate points at a write
+ * path the listener does not see.
+ * <p>
+ * The daily totals of {@link DailyAccountingTotals} are checked the same way, a page of tenants at a time, but only for
+ * tenants with a cost entry or invoice updated within {@code daily-totals-lookback-hours}; a tenant with any drifted
+ * day has all its days rebuilt and is counted in {@code accounting.daily.drift.repaired}.
+ * <p>
+ * The scheduled check holds an advisory lock, so with several instances only one of them runs each pass.
+ */
+@Component
+public class JobAccountingRollupVerifier {
+
+    /** Advisory lock key of the scheduled check. */
+    static final long LOCK_KEY = 0x6a6f622d726f6c6cL;
+
+    private static final Logger log = LoggerFactory.getLogger(JobAccountingRollupVerifier.class);
+
+    private final JobAccountingLedger ledger;
+    private final DailyAccountingTotals dailyTotals;
+    private final JobAccountingRollupProperties properties;
+    private final TransactionTemplate transaction;
+    private final AdvisoryLock lock;
+    private final Counter repaired;
+    private final Counter tenantsRepaired;
+
+    public JobAccountingRollupVerifier(JobAccountingLedger ledger,
+                                       DailyAccountingTotals dailyTotals,
+                                       JobAccountingRollupProperties properties,
+                                       PlatformTransactionManager transactionManager,
+                                       AdvisoryLock lock,
+                                       MeterRegistry meterRegistry) {
+        this.ledger = ledger;
+        this.dailyTotals = dailyTotals;
+        this.properties = properties;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.lock = lock;
+        this.repaired = Counter.builder("accounting.rollup.drift.repaired")
+                .description("Job accounting rollup rows rebuilt by the consistency check")
+                .register(meterRegistry);
+        this.tenantsRepaired = Counter.builder("accounting.daily.drift.repaired")
+                .description("Tenants whose daily accounting totals were rebuilt by the consistency check")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${app.accounting.rollup.consistency-check-interval-minutes:360}",
+            fixedDelayString = "${app.accounting.rollup.consistency-check-interval-minutes:360}",
+            timeUnit = TimeUnit.MINUTES)
+    public void scheduledCheck() {
+        if (!properties.isConsistencyCheckEnabled()) {
+            return;
+        }
+        try {
+            if (!lock.runExclusively(LOCK_KEY, this::verifyAll)) {
+                log.debug("Job accounting rollup consistency check is running on another instance");
+            }
+        } catch (RuntimeException e) {
+            log.warn("Job accounting rollup consistency check failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Checks every job and the daily totals of recently changed tenants once; returns how many job rows and tenants
+     * were rebuilt.
+     */
+    public int verifyAll() {
+        return verifyJobs() + verifyDailyTotals();
+    }
+
+    private int verifyJobs() {
+        int batchSize = Math.max(1, properties.getConsistencyCheckBatchSize());
+        int rebuilt = 0;
+        UUID afterId = null;
+        while (true) {
+            List<UUID> jobIds = ledger.jobIdsAfter(afterId, batchSize);
+            if (jobIds.isEmpty()) {
+                break;
+            }
+            int repairedInPage = Objects.requireNonNull(transaction.execute(status -> repair(jobIds)));
+            repaired.increment(repairedInPage);
+            rebuilt += repairedInPage;
+            if (jobIds.size() < batchSize) {
+                break;
+            }
+            afterId = jobIds.get(jobIds.size() - 1);
+        }
+        if (rebuilt > 0) {
+            log.warn("Rebuilt {} drifted job accounting rollup row(s)", rebuilt);
+        }
+        return rebuilt;
+    }
+
+    private int verifyDailyTotals() {
+        int batchSize = Math.max(1, properties.getConsistencyCheckBatchSize());
+        long lookbackHours = Math.max(1, properties.getDailyTotalsLookbackHours());
+        int rebuilt = 0;
+        UUID afterId = null;
+        while (true) {
+            List<UUID> tenantIds = dailyTotals.changedTenantIdsAfter(lookbackHours, afterId, batchSize);
+            if (tenantIds.isEmpty()) {
+                break;
+            }
+            int repairedInPage = Objects.requireNonNull(transaction.execute(status -> repairDailyTotals(tenantIds)));
+            tenantsRepaired.increment(repairedInPage);
+            rebuilt += repairedInPage;
+            if (tenantIds.size() < batchSize) {
+                break;
+            }
+            afterId = tenantIds.get(tenantIds.size() - 1);
+        }
+        if (rebuilt > 0) {
+            log.warn("Rebuilt the daily accounting totals of {} tenant(s)", rebuilt);
+        }
+        return rebuilt;
+    }
+
+    private int repairDailyTotals(List<UUID> tenantIds) {
+        List<UUID> drifted = dailyTotals.findDriftedTenants(tenantIds);
+        dailyTotals.rebuildTenants(drifted);
+        return drifted.size();
+    }
+
+    private int repair(List<UUID> jobIds) {
+        List<UUID> drifted = ledger.findDrifted(jobIds);
+        ledger.refresh(drifted);
+        return drifted.size();
+    }
+}
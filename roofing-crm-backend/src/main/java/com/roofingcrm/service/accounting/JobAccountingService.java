@@ -3,7 +3,11 @@ package com.roofingcrm.service.accounting;
 import com.roofingcrm.api.v1.accounting.CreateJobCostEntryRequest;
 import com.roofingcrm.api.v1.accounting.JobAccountingSummaryDto;
 import com.roofingcrm.api.v1.accounting.JobCostEntryDto;
+import com.roofingcrm.api.v1.accounting.JobProfitabilityDto;
 import com.roofingcrm.api.v1.accounting.UpdateJobCostEntryRequest;
+import com.roofingcrm.domain.enums.MarginBasis;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.lang.NonNull;
 
 import java.util.List;
@@ -13,6 +17,9 @@ public interface JobAccountingService {
 
     JobAccountingSummaryDto getJobAccountingSummary(@NonNull UUID tenantId, @NonNull UUID userId, UUID jobId);
 
+    /** Active jobs of the tenant, highest margin first; jobs without that margin (nothing paid or agreed) last. */
+    Page<JobProfitabilityDto> listJobProfitability(@NonNull UUID tenantId, @NonNull UUID userId, MarginBasis basis, @NonNull Pageable pageable);
+
     List<JobCostEntryDto> listJobCostEntries(@NonNull UUID tenantId, @NonNull UUID userId, UUID jobId);
 
     JobCostEntryDto createJobCostEntry(@NonNull UUID tenantId, @NonNull UUID userId, UUID jobId, CreateJobCostEntryRequest request);
@@ -3,17 +3,21 @@ package com.roofingcrm.service.accounting;
 import com.roofingcrm.api.v1.accounting.CreateJobCostEntryRequest;
 import com.roofingcrm.api.v1.accounting.JobAccountingSummaryDto;
 import com.roofingcrm.api.v1.accounting.JobCostEntryDto;
+import com.roofingcrm.api.v1.accounting.JobProfitabilityDto;
 import com.roofingcrm.api.v1.accounting.UpdateJobCostEntryRequest;
 import com.roofingcrm.domain.entity.Estimate;
 import com.roofingcrm.domain.entity.Job;
+import com.roofingcrm.domain.entity.JobAccountingRollup;
 import com.roofingcrm.domain.entity.JobCostEntry;
 import com.roofingcrm.domain.entity.Tenant;
 import com.roofingcrm.domain.enums.ActivityEntityType;
 import com.roofingcrm.domain.enums.ActivityEventType;
 import com.roofingcrm.domain.enums.JobCostCategory;
+import com.roofingcrm.domain.enums.MarginBasis;
 import com.roofingcrm.domain.enums.UserRole;
 import com.roofingcrm.domain.repository.EstimateRepository;
 import com.roofingcrm.domain.repository.InvoiceRepository;
+import com.roofingcrm.domain.repository.JobAccountingRollupRepository;
 import com.roofingcrm.domain.repository.JobCostEntryRepository;
 import com.roofingcrm.domain.repository.JobRepository;
 import com.roofingcrm.service.activity.ActivityEventService;
@@ -21,6 +25,9 @@ import com.roofingcrm.service.audit.AuditSupport;
 import com.roofingcrm.service.exception.ResourceNotFoundException;
 import com.roofingcrm.service.tenant.TenantAccessService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -46,6 +53,7 @@ public class JobAccountingServiceImpl implements JobAccountingService {
     private final EstimateRepository estimateRepository;
     private final InvoiceRepository invoiceRepository;
     private final JobCostEntryRepository jobCostEntryRepository;
+    private final JobAccountingRollupRepository jobAccountingRollupRepository;
     private final ActivityEventService activityEventService;
 
     @Autowired
@@ -54,12 +62,14 @@ public class JobAccountingServiceImpl implements JobAccountingService {
                                     EstimateRepository estimateRepository,
                                     InvoiceRepository invoiceRepository,
                                     JobCostEntryRepository jobCostEntryRepository,
+                                    JobAccountingRollupRepository jobAccountingRollupRepository,
                                     ActivityEventService activityEventService) {
         this.tenantAccessService = tenantAccessService;
         this.jobRepository = jobRepository;
         this.estimateRepository = estimateRepository;
         this.invoiceRepository = invoiceRepository;
         this.jobCostEntryRepository = jobCostEntryRepository;
+        this.jobAccountingRollupRepository = jobAccountingRollupRepository;
         this.activityEventService = activityEventService;
     }
 
@@ -69,6 +79,28 @@ public class JobAccountingServiceImpl implements JobAccountingService {
         Tenant tenant = tenantAccessService.loadTenantForUserOrThrow(tenantId, userId);
         Job job = loadJob(jobId, tenant);
 
+        // Kept current by JobAccountingRollupListener; the live computation only covers a row that does not exist yet.
+        return jobAccountingRollupRepository.findById(Objects.requireNonNull(job.getId()))
+                .map(this::toSummaryDto)
+                .orElseGet(() -> computeSummary(tenant, job));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<JobProfitabilityDto> listJobProfitability(@NonNull UUID tenantId, @NonNull UUID userId,
+                                                          MarginBasis basis, @NonNull Pageable pageable) {
+        Tenant tenant = tenantAccessService.loadTenantForUserOrThrow(tenantId, userId);
+        // The order is fixed by the query (margin, nulls last); only the page is taken from the request.
+        Pageable page = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        UUID rollupTenantId = Objects.requireNonNull(tenant.getId());
+        Page<JobAccountingRollup> rollups = basis == MarginBasis.PROJECTED
+                ? jobAccountingRollupRepository.findActiveByTenantOrderByProjectedMargin(rollupTenantId, page)
+                : jobAccountingRollupRepository.findActiveByTenantOrderByActualMargin(rollupTenantId, page);
+        return rollups.map(JobAccountingServiceImpl::toProfitabilityDto);
+    }
+
+    private JobAccountingSummaryDto computeSummary(Tenant tenant, Job job) {
+        UUID jobId = job.getId();
         Estimate acceptedEstimate = estimateRepository.findAcceptedForJobOrderForAccounting(job).stream()
                 .findFirst()
                 .orElse(null);
@@ -232,6 +264,49 @@ public class JobAccountingServiceImpl implements JobAccountingService {
                 .divide(baseAmount, 2, RoundingMode.HALF_UP);
     }
 
+    private JobAccountingSummaryDto toSummaryDto(JobAccountingRollup rollup) {
+        JobAccountingSummaryDto dto = new JobAccountingSummaryDto();
+        dto.setAgreedAmount(rollup.getAgreedAmount());
+        dto.setInvoicedAmount(rollup.getInvoicedAmount());
+        dto.setPaidAmount(rollup.getPaidAmount());
+        dto.setTotalCosts(rollup.getTotalCosts());
+        dto.setGrossProfit(rollup.getActualProfit());
+        dto.setMarginPercent(rollup.getActualMarginPercent());
+        dto.setProjectedProfit(rollup.getProjectedProfit());
+        dto.setActualProfit(rollup.getActualProfit());
+        dto.setProjectedMarginPercent(rollup.getProjectedMarginPercent());
+        dto.setActualMarginPercent(rollup.getActualMarginPercent());
+        Map<JobCostCategory, BigDecimal> categoryTotals = new LinkedHashMap<>();
+        categoryTotals.put(JobCostCategory.MATERIAL, rollup.getMaterialCosts());
+        categoryTotals.put(JobCostCategory.TRANSPORTATION, rollup.getTransportationCosts());
+        categoryTotals.put(JobCostCategory.LABOR, rollup.getLaborCosts());
+        categoryTotals.put(JobCostCategory.OTHER, rollup.getOtherCosts());
+        dto.setCategoryTotals(categoryTotals);
+        dto.setHasAcceptedEstimate(rollup.isHasAcceptedEstimate());
+        return dto;
+    }
+
+    static JobProfitabilityDto toProfitabilityDto(JobAccountingRollup rollup) {
+        JobProfitabilityDto dto = new JobProfitabilityDto();
+        Job job = rollup.getJob();
+        dto.setJobId(rollup.getJobId());
+        dto.setJobType(job.getJobType());
+        if (job.getPropertyAddress() != null) {
+            dto.setPropertyAddressLine1(job.getPropertyAddress().getLine1());
+            dto.setPropertyCity(job.getPropertyAddress().getCity());
+        }
+        dto.setAgreedAmount(rollup.getAgreedAmount());
+        dto.setInvoicedAmount(rollup.getInvoicedAmount());
+        dto.setPaidAmount(rollup.getPaidAmount());
+        dto.setTotalCosts(rollup.getTotalCosts());
+        dto.setActualProfit(rollup.getActualProfit());
+        dto.setActualMarginPercent(rollup.getActualMarginPercent());
+        dto.setProjectedProfit(rollup.getProjectedProfit());
+        dto.setProjectedMarginPercent(rollup.getProjectedMarginPercent());
+        dto.setHasAcceptedEstimate(rollup.isHasAcceptedEstimate());
+        return dto;
+    }
+
     private Map<JobCostCategory, BigDecimal> buildCategoryTotals(Tenant tenant, UUID jobId) {
         Map<JobCostCategory, BigDecimal> totals = new LinkedHashMap<>();
         for (JobCostCategory category : JobCostCategory.values()) {
@@ -1,8 +1,10 @@
 package com.roofingcrm.service.accounting;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.roofingcrm.domain.enums.JobCostCategory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatusCode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,6 +19,10 @@ import java.io.IOException;
 import java.math.BigDecimal;
 import java.net.http.HttpClient;
 import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,8 +30,17 @@ import java.util.Objects;
 
 public class OpenAiReceiptExtractionClient implements ReceiptExtractionClient {
 
+    /** How the client waits between retries; {@link ReceiptExtractionGateway} releases its permit for the wait. */
+    @FunctionalInterface
+    interface RetryPause {
+        void pause(Duration delay) throws InterruptedException;
+    }
+
     private static final Logger log = LoggerFactory.getLogger(OpenAiReceiptExtractionClient.class);
 
+    private static final int DEFAULT_MAX_RETRY_AFTER_SECONDS = 10;
+    private static final long RATE_LIMITED_BACKOFF_MILLIS = 1000;
+
     private static final String SYSTEM_PROMPT = """
             You extract receipt details for a roofing CRM.
             Return only JSON with these keys:
@@ -102,6 +117,8 @@ public class OpenAiReceiptExtractionClient implements ReceiptExtractionClient {
     private final String apiKey;
     private final String model;
     private final int maxRetries;
+    private final Duration maxRetryAfter;
+    private volatile RetryPause retryPause = Thread::sleep;
 
     public OpenAiReceiptExtractionClient(RestClient.Builder restClientBuilder,
                                          ObjectMapper objectMapper,
@@ -110,7 +127,8 @@ public class OpenAiReceiptExtractionClient implements ReceiptExtractionClient {
                                          String model,
                                          int connectTimeoutSeconds,
                                          int readTimeoutSeconds,
-                                         int maxRetries) {
+                                         int maxRetries,
+                                         int maxRetryAfterSeconds) {
         this(
                 restClientBuilder
                         .baseUrl(Objects.requireNonNull(baseUrl))
@@ -119,7 +137,8 @@ public class OpenAiReceiptExtractionClient implements ReceiptExtractionClient {
                 objectMapper,
                 apiKey,
                 model,
-                maxRetries
+                maxRetries,
+                maxRetryAfterSeconds
         );
     }
 
@@ -128,11 +147,25 @@ public class OpenAiReceiptExtractionClient implements ReceiptExtractionClient {
                                   String apiKey,
                                   String model,
                                   int maxRetries) {
+        this(restClient, objectMapper, apiKey, model, maxRetries, DEFAULT_MAX_RETRY_AFTER_SECONDS);
+    }
+
+    OpenAiReceiptExtractionClient(RestClient restClient,
+                                  ObjectMapper objectMapper,
+                                  String apiKey,
+                                  String model,
+                                  int maxRetries,
+                                  int maxRetryAfterSeconds) {
         this.restClient = restClient;
         this.objectMapper = objectMapper;
         this.apiKey = apiKey;
         this.model = model;
         this.maxRetries = Math.max(0, maxRetries);
+        this.maxRetryAfter = Duration.ofSeconds(Math.max(0, maxRetryAfterSeconds));
+    }
+
+    void setRetryPause(RetryPause retryPause) {
+        this.retryPause = Objects.requireNonNull(retryPause);
     }
 
     @Override
@@ -201,17 +234,19 @@ public class OpenAiReceiptExtractionClient implements ReceiptExtractionClient {
                 );
             } catch (RestClientResponseException ex) {
                 boolean retryable = isRetryableStatus(ex.getStatusCode());
+                Duration retryAfter = retryAfter(ex);
                 log.warn("OpenAI receipt interpretation failed attempt {}/{} with status {}, body={}",
                         attempt,
                         totalAttempts,
                         ex.getStatusCode().value(),
                         abbreviate(ex.getResponseBodyAsString()),
                         ex);
-                if (retryable && attempt < totalAttempts) {
+                if (retryable && attempt < totalAttempts && awaitRetry(ex.getStatusCode(), retryAfter, attempt)) {
                     continue;
                 }
                 throw new ReceiptExtractionProviderException(
-                        "Receipt interpretation provider request failed with status " + ex.getStatusCode().value() + ".", ex);
+                        "Receipt interpretation provider request failed with status " + ex.getStatusCode().value() + ".",
+                        ex, retryable, retryAfter);
             } catch (ResourceAccessException ex) {
                 log.warn("OpenAI receipt interpretation transport failure attempt {}/{}",
                         attempt,
@@ -221,7 +256,7 @@ public class OpenAiReceiptExtractionClient implements ReceiptExtractionClient {
                     continue;
                 }
                 throw new ReceiptExtractionProviderException(
-                        "Receipt interpretation provider request timed out or failed.", ex);
+                        "Receipt interpretation provider request timed out or failed.", ex, true, null);
             } catch (RestClientException | IOException ex) {
                 log.warn("Receipt interpretation request failed", ex);
                 throw new ReceiptExtractionProviderException(
@@ -276,11 +311,18 @@ public class OpenAiReceiptExtractionClient implements ReceiptExtractionClient {
                         Map.of(
                                 "type", "image_url",
                                 "image_url", Map.of(
-                                        "url", "data:" + document.imageMimeType() + ";base64," + document.imageBase64(),
+                                        "url", OpenAiVisionRequestBody.IMAGE_URL_PLACEHOLDER,
                                         "detail", "high"
                                 ))
                 ))
         ));
+        OpenAiVisionRequestBody body;
+        try {
+            body = new OpenAiVisionRequestBody(objectMapper, payload, document.imageMimeType(), document.imageBytes());
+        } catch (JsonProcessingException ex) {
+            throw new ReceiptExtractionProviderException(
+                    "Receipt extraction request could not be built for " + document.attemptLabel() + ".", ex);
+        }
 
         int totalAttempts = maxRetries + 1;
         for (int attempt = 1; attempt <= totalAttempts; attempt++) {
@@ -288,8 +330,9 @@ public class OpenAiReceiptExtractionClient implements ReceiptExtractionClient {
                 OpenAiChatCompletionResponse response = restClient.post()
                         .uri("/v1/chat/completions")
                         .contentType(Objects.requireNonNull(MediaType.APPLICATION_JSON))
+                        .contentLength(body.contentLength())
                         .header("Authorization", "Bearer " + apiKey)
-                        .body(Objects.requireNonNull(payload))
+                        .body(body)
                         .retrieve()
                         .body(OpenAiChatCompletionResponse.class);
                 String content = response != null
@@ -317,6 +360,7 @@ public class OpenAiReceiptExtractionClient implements ReceiptExtractionClient {
                 );
             } catch (RestClientResponseException ex) {
                 boolean retryable = isRetryableStatus(ex.getStatusCode());
+                Duration retryAfter = retryAfter(ex);
                 log.warn("OpenAI receipt extraction failed for {} attempt {}/{} with status {}, dims={}x{}, bytes={}, body={}",
                         document.attemptLabel(),
                         attempt,
@@ -327,12 +371,12 @@ public class OpenAiReceiptExtractionClient implements ReceiptExtractionClient {
                         document.imageByteSize(),
                         abbreviate(ex.getResponseBodyAsString()),
                         ex);
-                if (retryable && attempt < totalAttempts) {
+                if (retryable && attempt < totalAttempts && awaitRetry(ex.getStatusCode(), retryAfter, attempt)) {
                     continue;
                 }
                 throw new ReceiptExtractionProviderException(
                         "Receipt extraction provider request failed for " + document.attemptLabel()
-                                + " with status " + ex.getStatusCode().value() + ".", ex);
+                                + " with status " + ex.getStatusCode().value() + ".", ex, retryable, retryAfter);
             } catch (ResourceAccessException ex) {
                 log.warn("OpenAI receipt extraction transport failure for {} attempt {}/{} dims={}x{}, bytes={}",
                         document.attemptLabel(),
@@ -346,7 +390,8 @@ public class OpenAiReceiptExtractionClient implements ReceiptExtractionClient {
                     continue;
                 }
                 throw new ReceiptExtractionProviderException(
-                        "Receipt extraction provider request timed out or failed for " + document.attemptLabel() + ".", ex);
+                        "Receipt extraction provider request timed out or failed for " + document.attemptLabel() + ".",
+                        ex, true, null);
             } catch (RestClientException | IOException ex) {
                 log.warn("Receipt extraction request failed for {} dims={}x{}, bytes={}",
                         document.attemptLabel(),
@@ -423,9 +468,68 @@ public class OpenAiReceiptExtractionClient implements ReceiptExtractionClient {
         return requestFactory;
     }
 
-    private static boolean isRetryableStatus(HttpStatusCode statusCode) {
+    /** 408 and 429 are the provider shedding load, like 5xx; any other 4xx would fail the same way again. */
+    static boolean isRetryableStatus(HttpStatusCode statusCode) {
         int value = statusCode.value();
-        return value >= 500 && value < 600;
+        return value == 408 || value == 429 || (value >= 500 && value < 600);
+    }
+
+    /**
+     * Waits out the provider's {@code Retry-After} (or a short backoff for a 429 without one) before the next attempt.
+     * Returns false without waiting when the provider asks for longer than {@code max-retry-after-seconds}: the
+     * request gives up and {@link ReceiptExtractionGateway} holds every call off for that long instead.
+     */
+    private boolean awaitRetry(HttpStatusCode statusCode, Duration retryAfter, int attempt) {
+        Duration delay = retryAfter;
+        if (delay == null && statusCode.value() == 429) {
+            delay = Duration.ofMillis(RATE_LIMITED_BACKOFF_MILLIS << Math.min(attempt - 1, 4));
+        }
+        if (delay == null || delay.isZero()) {
+            return true;
+        }
+        if (delay.compareTo(maxRetryAfter) > 0) {
+            return false;
+        }
+        try {
+            retryPause.pause(delay);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static Duration retryAfter(RestClientResponseException ex) {
+        HttpHeaders headers = ex.getResponseHeaders();
+        if (headers == null) {
+            return null;
+        }
+        // The exception copies headers into a case-sensitive map and some clients lower-case names, so match by hand.
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if (HttpHeaders.RETRY_AFTER.equalsIgnoreCase(header.getKey()) && !header.getValue().isEmpty()) {
+                return parseRetryAfter(header.getValue().getFirst(), Instant.now());
+            }
+        }
+        return null;
+    }
+
+    /** Retry-After is either delta-seconds or an HTTP date. */
+    static Duration parseRetryAfter(String value, Instant now) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String trimmed = value.trim();
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(trimmed)));
+        } catch (NumberFormatException ignored) {
+            // fall through to HTTP date
+        }
+        try {
+            Duration untilDate = Duration.between(now, ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant());
+            return untilDate.isNegative() ? Duration.ZERO : untilDate;
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
     }
 
     private static String abbreviate(String value) {
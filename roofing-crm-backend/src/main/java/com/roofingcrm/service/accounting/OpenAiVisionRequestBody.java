@@ -0,0 +1,99 @@
+package com.roofingcrm.service.accounting;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.StreamingHttpOutputMessage;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Chat-completions request body whose image data URL is Base64-encoded straight into the connection, so an attempt
+ * holds only the encoded image bytes instead of also a Base64 string and a serialized JSON copy of it.
+ *
+ * <p>The rest of the payload is small and serialized up front with a placeholder where the data URL goes; the JSON
+ * around the placeholder is written verbatim on either side of the streamed Base64 (Base64 needs no JSON escaping).
+ * The exact length is known up front, so the request goes out with a Content-Length rather than chunked. The body
+ * is repeatable, so retries re-send it without re-encoding the image.
+ */
+class OpenAiVisionRequestBody implements StreamingHttpOutputMessage.Body {
+
+    static final String IMAGE_URL_PLACEHOLDER = "__receipt_image_data_url__";
+
+    private final byte[] prefix;
+    private final byte[] image;
+    private final byte[] suffix;
+
+    OpenAiVisionRequestBody(ObjectMapper objectMapper, Map<String, Object> payload, String mimeType, byte[] image)
+            throws JsonProcessingException {
+        byte[] json = objectMapper.writeValueAsBytes(payload);
+        byte[] marker = ('"' + IMAGE_URL_PLACEHOLDER + '"').getBytes(StandardCharsets.US_ASCII);
+        int at = lastIndexOf(json, marker);
+        if (at < 0) {
+            throw new IllegalArgumentException("Payload has no image URL placeholder");
+        }
+        byte[] urlStart = ("\"data:" + mimeType + ";base64,").getBytes(StandardCharsets.US_ASCII);
+        this.prefix = new byte[at + urlStart.length];
+        System.arraycopy(json, 0, prefix, 0, at);
+        System.arraycopy(urlStart, 0, prefix, at, urlStart.length);
+        int suffixStart = at + marker.length;
+        this.suffix = new byte[json.length - suffixStart + 1];
+        suffix[0] = '"';
+        System.arraycopy(json, suffixStart, suffix, 1, json.length - suffixStart);
+        this.image = image;
+    }
+
+    long contentLength() {
+        return prefix.length + 4L * ((image.length + 2) / 3) + suffix.length;
+    }
+
+    @Override
+    public void writeTo(OutputStream outputStream) throws IOException {
+        outputStream.write(prefix);
+        // Closing the Base64 stream writes the final padding; the shield keeps that from closing the connection.
+        try (OutputStream base64 = Base64.getEncoder().wrap(new CloseShieldOutputStream(outputStream))) {
+            base64.write(image);
+        }
+        outputStream.write(suffix);
+        outputStream.flush();
+    }
+
+    @Override
+    public boolean repeatable() {
+        return true;
+    }
+
+    private static int lastIndexOf(byte[] source, byte[] target) {
+        outer:
+        for (int i = source.length - target.length; i >= 0; i--) {
+            for (int j = 0; j < target.length; j++) {
+                if (source[i + j] != target[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private static final class CloseShieldOutputStream extends FilterOutputStream {
+
+        private CloseShieldOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.roofingcrm.service.accounting;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ingestion stage for PDF receipts. Multi-page supplier invoices keep their totals on the last page, so rendering page
+ * one only loses them.
+ *
+ * <ul>
+ *     <li>The PDF is parsed once with a {@link MemoryUsageSetting} that spills to a temp file past
+ *     {@code max-main-memory-bytes}; that pass reads the embedded text of every page and the page sizes.</li>
+ *     <li>The summary page is the page whose embedded text carries the strongest totals labels, or the last page when
+ *     there is no text layer.</li>
+ *     <li>Only the first page (vendor, date) and the summary page are rendered, at a DPI that brings the page's long
+ *     side to {@code target-long-side-pixels}. They render in parallel: the first page on the calling thread from the
+ *     parsed document, the summary page on the shared render pool from its own handle, because a {@link PDDocument}
+ *     must not be rendered from two threads.</li>
+ * </ul>
+ */
+public class PdfReceiptIngestor {
+
+    private static final Logger log = LoggerFactory.getLogger(PdfReceiptIngestor.class);
+
+    private static final long STRONG_TOTAL = ReceiptKeyword.mask(ReceiptKeyword.GRAND_TOTAL, ReceiptKeyword.TOTAL_DUE,
+            ReceiptKeyword.BALANCE_DUE, ReceiptKeyword.AMOUNT_DUE, ReceiptKeyword.ORDER_TOTAL);
+    private static final long TOTAL = ReceiptKeyword.mask(ReceiptKeyword.TOTAL);
+    private static final long SUBTOTAL = ReceiptKeyword.mask(
+            ReceiptKeyword.SUBTOTAL, ReceiptKeyword.SUB_TOTAL, ReceiptKeyword.SUB_DASH_TOTAL);
+    private static final long TAX = ReceiptKeyword.mask(ReceiptKeyword.TAX, ReceiptKeyword.GST, ReceiptKeyword.VAT,
+            ReceiptKeyword.HST);
+    private static final long AMOUNT_PAID = ReceiptKeyword.mask(ReceiptKeyword.AMOUNT_PAID, ReceiptKeyword.PAYMENT);
+
+    /** Rows lighter than this count as blank paper when trimming the summary page. */
+    private static final int BLANK_LUMA = 200;
+
+    /**
+     * @param pageIndex zero-based page number
+     * @param dpi resolution the page was rendered at
+     */
+    public record RenderedPage(int pageIndex, int dpi, BufferedImage image) {
+    }
+
+    /**
+     * @param embeddedText text layer of all pages, empty when the PDF is scanned
+     * @param summaryPageIndex page picked for the totals
+     * @param pages rendered pages in page order: the first page and, when different, the summary page
+     */
+    public record IngestedPdf(int pageCount, String embeddedText, int summaryPageIndex, List<RenderedPage> pages) {
+
+        /** The first page, stacked above the summary page when they differ, for the full-image vision pass. */
+        public BufferedImage fullImage() {
+            return pages.size() == 1 ? pages.getFirst().image() : stack(pages);
+        }
+
+        /**
+         * Image the summary-region crops are cut from. For multi-page PDFs this is the summary page with its blank
+         * bottom trimmed, so bottom-anchored crops land on the totals even when they end mid-page.
+         */
+        public BufferedImage summaryImage() {
+            return pages.size() == 1 ? pages.getFirst().image() : trimBlankBottom(pages.getLast().image());
+        }
+    }
+
+    private final PdfReceiptTextExtractor textExtractor;
+    private final long maxMainMemoryBytes;
+    private final int targetLongSidePixels;
+    private final int minDpi;
+    private final int maxDpi;
+    private final ThreadPoolExecutor renderPool;
+
+    public PdfReceiptIngestor(PdfReceiptTextExtractor textExtractor, ReceiptExtractionProperties.Pdf properties) {
+        this.textExtractor = textExtractor;
+        this.maxMainMemoryBytes = Math.max(1, properties.getMaxMainMemoryBytes());
+        this.targetLongSidePixels = Math.max(1, properties.getTargetLongSidePixels());
+        this.minDpi = Math.max(1, properties.getMinDpi());
+        this.maxDpi = Math.max(minDpi, properties.getMaxDpi());
+        int threads = Math.max(1, properties.getRenderThreads());
+        AtomicInteger threadNumber = new AtomicInteger();
+        // Idle render threads time out, so the pool needs no shutdown hook; when all are busy the caller renders.
+        this.renderPool = new ThreadPoolExecutor(
+                threads, threads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(threads * 4),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "receipt-pdf-render-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.renderPool.allowCoreThreadTimeOut(true);
+    }
+
+    public IngestedPdf ingest(byte[] pdfBytes) throws IOException {
+        long startNanos = System.nanoTime();
+        try (PDDocument document = load(pdfBytes)) {
+            int pageCount = document.getNumberOfPages();
+            if (pageCount == 0) {
+                throw new IllegalArgumentException("Receipt PDF is empty");
+            }
+            List<String> pageTexts = textExtractor.extractPageTexts(document);
+            int summaryPage = summaryPageIndex(pageTexts, pageCount);
+            TreeSet<Integer> selected = new TreeSet<>(List.of(0, summaryPage));
+
+            List<RenderedPage> pages = new ArrayList<>(selected.size());
+            Future<RenderedPage> summaryRender = null;
+            if (summaryPage != 0) {
+                int summaryDpi = dpiFor(document.getPage(summaryPage).getCropBox());
+                summaryRender = renderPool.submit(() -> renderOwnHandle(pdfBytes, summaryPage, summaryDpi));
+            }
+            pages.add(render(document, 0, dpiFor(document.getPage(0).getCropBox())));
+            if (summaryRender != null) {
+                pages.add(await(summaryRender));
+            }
+
+            log.info("PDF receipt ingested: pages={}, summaryPage={}, rendered={}, textChars={}, elapsedMs={}",
+                    pageCount,
+                    summaryPage + 1,
+                    pages.stream().map(p -> "p%d@%ddpi".formatted(p.pageIndex() + 1, p.dpi())).toList(),
+                    pageTexts.stream().mapToInt(String::length).sum(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            return new IngestedPdf(pageCount, joinPageTexts(pageTexts), summaryPage, List.copyOf(pages));
+        }
+    }
+
+    /**
+     * Page with the strongest totals labels on lines that carry an amount; ties go to the later page. Falls back to the
+     * last page when no page has embedded text with totals.
+     */
+    static int summaryPageIndex(List<String> pageTexts, int pageCount) {
+        int best = pageCount - 1;
+        int bestScore = 0;
+        for (int i = 0; i < Math.min(pageTexts.size(), pageCount); i++) {
+            int score = summaryScore(ReceiptText.of(pageTexts.get(i)));
+            if (score > 0 && score >= bestScore) {
+                best = i;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    private static int summaryScore(ReceiptText text) {
+        int score = 0;
+        for (ReceiptText.Line line : text.lines()) {
+            if (line.amounts().isEmpty()) {
+                continue;
+            }
+            if (line.has(STRONG_TOTAL)) {
+                score += 4;
+            } else if (line.has(SUBTOTAL)) {
+                score += 2;
+            } else if (line.has(TOTAL)) {
+                score += 2;
+            }
+            if (line.has(TAX)) {
+                score += 1;
+            }
+            if (line.has(AMOUNT_PAID)) {
+                score += 1;
+            }
+        }
+        return score;
+    }
+
+    int dpiFor(PDRectangle box) {
+        float longSidePoints = Math.max(box.getWidth(), box.getHeight());
+        if (longSidePoints <= 0) {
+            return minDpi;
+        }
+        int dpi = Math.round(targetLongSidePixels * 72f / longSidePoints);
+        return Math.max(minDpi, Math.min(maxDpi, dpi));
+    }
+
+    private PDDocument load(byte[] pdfBytes) throws IOException {
+        return PDDocument.load(pdfBytes, "", null, null, MemoryUsageSetting.setupMixed(maxMainMemoryBytes));
+    }
+
+    private RenderedPage renderOwnHandle(byte[] pdfBytes, int pageIndex, int dpi) throws IOException {
+        try (PDDocument document = load(pdfBytes)) {
+            return render(document, pageIndex, dpi);
+        }
+    }
+
+    private static RenderedPage render(PDDocument document, int pageIndex, int dpi) throws IOException {
+        BufferedImage image = new PDFRenderer(document).renderImageWithDPI(pageIndex, dpi, ImageType.RGB);
+        return new RenderedPage(pageIndex, dpi, image);
+    }
+
+    private static RenderedPage await(Future<RenderedPage> render) throws IOException {
+        try {
+            return render.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            render.cancel(true);
+            throw new IOException("Interrupted while rendering receipt PDF", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new UncheckedIOException(new IOException("Receipt PDF rendering failed", cause));
+        }
+    }
+
+    private static String joinPageTexts(List<String> pageTexts) {
+        StringBuilder text = new StringBuilder();
+        for (String page : pageTexts) {
+            if (page.isBlank()) {
+                continue;
+            }
+            if (!text.isEmpty()) {
+                text.append('\n');
+            }
+            text.append(page);
+        }
+        return text.toString();
+    }
+
+    private static BufferedImage stack(List<RenderedPage> pages) {
+        int width = 0;
+        int height = 0;
+        for (RenderedPage page : pages) {
+            width = Math.max(width, page.image().getWidth());
+            height += page.image().getHeight();
+        }
+        BufferedImage stacked = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = stacked.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            int y = 0;
+            for (RenderedPage page : pages) {
+                graphics.drawImage(page.image(), 0, y, null);
+                y += page.image().getHeight();
+            }
+        } finally {
+            graphics.dispose();
+        }
+        return stacked;
+    }
+
+    /** Drops blank rows below the last printed row, keeping a small margin and at least a quarter of the page. */
+    static BufferedImage trimBlankBottom(BufferedImage page) {
+        int width = page.getWidth();
+        int height = page.getHeight();
+        int[] row = new int[width];
+        int lastInked = -1;
+        for (int y = height - 1; y >= 0 && lastInked < 0; y--) {
+            page.getRGB(0, y, width, 1, row, 0, width);
+            for (int rgb : row) {
+                int luma = (((rgb >> 16) & 0xff) * 299 + ((rgb >> 8) & 0xff) * 587 + (rgb & 0xff) * 114) / 1000;
+                if (luma < BLANK_LUMA) {
+                    lastInked = y;
+                    break;
+                }
+            }
+        }
+        if (lastInked < 0) {
+            return page;
+        }
+        int keep = Math.min(height, Math.max(height / 4, lastInked + 1 + height / 50));
+        return keep >= height ? page : page.getSubimage(0, 0, width, keep);
+    }
+}
@@ -7,6 +7,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Extracts embedded text from PDF receipts (when a text layer exists).
@@ -35,4 +37,32 @@ public class PdfReceiptTextExtractor {
             return "";
         }
     }
+
+    /**
+     * Embedded text of each page of an already loaded document, so callers that also render pages parse the PDF once.
+     * Pages whose text cannot be read come back empty.
+     */
+    public List<String> extractPageTexts(PDDocument document) {
+        List<String> pages = new ArrayList<>(document.getNumberOfPages());
+        PDFTextStripper stripper;
+        try {
+            stripper = new PDFTextStripper();
+        } catch (IOException ex) {
+            log.debug("PDF embedded text extraction failed: {}", ex.getMessage());
+            return pages;
+        }
+        stripper.setSortByPosition(true);
+        for (int page = 1; page <= document.getNumberOfPages(); page++) {
+            stripper.setStartPage(page);
+            stripper.setEndPage(page);
+            try {
+                String text = stripper.getText(document);
+                pages.add(text == null ? "" : text.trim());
+            } catch (IOException ex) {
+                log.debug("PDF embedded text extraction failed on page {}: {}", page, ex.getMessage());
+                pages.add("");
+            }
+        }
+        return pages;
+    }
 }
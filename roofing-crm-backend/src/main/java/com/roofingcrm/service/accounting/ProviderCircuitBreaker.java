@@ -0,0 +1,160 @@
+package com.roofingcrm.service.accounting;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Consecutive-failure circuit breaker for the extraction provider. After {@code failureThreshold} overload failures
+ * in a row, or when the provider sends a {@code Retry-After} the client did not wait out, calls are refused until the
+ * open period ends; then a single trial call is let through and only its outcome closes or re-opens the circuit.
+ *
+ * <p>Every {@link #tryAcquire()} that returns a permit must be followed by exactly one of {@link #onSuccess(Permit)},
+ * {@link #onFailure(Permit, Duration)} or {@link #onIgnored(Permit)}. Permits carry the generation (number of state
+ * changes) they were issued in; outcomes of calls admitted before the last state change are ignored, so a slow call
+ * that started while the circuit was closed cannot close it again while the trial call is still out.
+ */
+final class ProviderCircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /** Admission to one provider call; {@code trial} for the single call let through while half-open. */
+    record Permit(long generation, boolean trial) {
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openUntilNanos;
+    private boolean trialInFlight;
+    private long generation;
+
+    ProviderCircuitBreaker(int failureThreshold, Duration openDuration, LongSupplier nanoClock) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = Math.max(0, openDuration.toNanos());
+        this.nanoClock = nanoClock;
+    }
+
+    /** @return a permit for one call, or {@code null} while the circuit refuses calls. */
+    Permit tryAcquire() {
+        lock.lock();
+        try {
+            switch (state) {
+                case CLOSED -> {
+                    return new Permit(generation, false);
+                }
+                case OPEN -> {
+                    if (nanoClock.getAsLong() - openUntilNanos < 0) {
+                        return null;
+                    }
+                    transition(State.HALF_OPEN);
+                    trialInFlight = true;
+                    return new Permit(generation, true);
+                }
+                default -> {
+                    if (trialInFlight) {
+                        return null;
+                    }
+                    trialInFlight = true;
+                    return new Permit(generation, true);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void onSuccess(Permit permit) {
+        lock.lock();
+        try {
+            if (permit.generation() != generation) {
+                return;
+            }
+            if (state == State.HALF_OPEN && permit.trial()) {
+                transition(State.CLOSED);
+                trialInFlight = false;
+            }
+            consecutiveFailures = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param retryAfter the provider's requested back-off, if any; the circuit stays open at least that long.
+     */
+    void onFailure(Permit permit, Duration retryAfter) {
+        lock.lock();
+        try {
+            if (permit.generation() != generation) {
+                return;
+            }
+            consecutiveFailures++;
+            long retryAfterNanos = retryAfter == null ? 0 : retryAfter.toNanos();
+            if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+                open(Math.max(openNanos, retryAfterNanos));
+            } else if (retryAfterNanos > 0) {
+                open(retryAfterNanos);
+            }
+            if (permit.trial()) {
+                trialInFlight = false;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void onIgnored(Permit permit) {
+        lock.lock();
+        try {
+            if (permit.trial() && permit.generation() == generation) {
+                trialInFlight = false;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    State state() {
+        lock.lock();
+        try {
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Seconds until the circuit will let a trial call through, rounded up; 0 when it is not open. */
+    long secondsUntilRetry() {
+        lock.lock();
+        try {
+            if (state != State.OPEN) {
+                return 0;
+            }
+            long remaining = openUntilNanos - nanoClock.getAsLong();
+            return remaining <= 0 ? 0 : TimeUnit.NANOSECONDS.toSeconds(remaining + TimeUnit.SECONDS.toNanos(1) - 1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void open(long durationNanos) {
+        long until = nanoClock.getAsLong() + durationNanos;
+        // A later, shorter back-off must not cut an earlier, longer one short.
+        if (state != State.OPEN || until - openUntilNanos > 0) {
+            openUntilNanos = until;
+        }
+        if (state != State.OPEN) {
+            transition(State.OPEN);
+        }
+    }
+
+    private void transition(State next) {
+        state = next;
+        generation++;
+    }
+}
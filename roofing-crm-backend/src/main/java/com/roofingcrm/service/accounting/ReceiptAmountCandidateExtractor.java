@@ -8,21 +8,39 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 @Component
 public class ReceiptAmountCandidateExtractor {
 
     private static final BigDecimal TOLERANCE = new BigDecimal("0.02");
 
-    private static final Pattern MONEY_PATTERN =
-            Pattern.compile("(?<!\\d)(?:\\$\\s*)?(\\d{1,3}(?:,\\d{3})*|\\d+)\\.\\d{2}(?!\\d)");
+    private static final long SUBTOTAL = ReceiptKeyword.mask(ReceiptKeyword.SUBTOTAL);
+    private static final long TAX = ReceiptKeyword.mask(ReceiptKeyword.TAX, ReceiptKeyword.GST, ReceiptKeyword.VAT);
+    private static final long AMOUNT_PAID =
+            ReceiptKeyword.mask(ReceiptKeyword.AMOUNT_PAID, ReceiptKeyword.PAID, ReceiptKeyword.PAYMENT);
+    private static final long STRONG_TOTAL = ReceiptKeyword.mask(
+            ReceiptKeyword.GRAND_TOTAL, ReceiptKeyword.TOTAL_DUE, ReceiptKeyword.BALANCE_DUE, ReceiptKeyword.AMOUNT_DUE);
+    private static final long GENERIC_TOTAL = ReceiptKeyword.mask(ReceiptKeyword.TOTAL);
+    private static final long ITEM = ReceiptKeyword.mask(ReceiptKeyword.ITEM, ReceiptKeyword.SKU, ReceiptKeyword.QTY,
+            ReceiptKeyword.RATE, ReceiptKeyword.UNIT_PRICE, ReceiptKeyword.PRICE, ReceiptKeyword.EACH);
+    private static final long CHANGE = ReceiptKeyword.mask(ReceiptKeyword.CHANGE);
+    private static final long TIP = ReceiptKeyword.mask(ReceiptKeyword.TIP);
+    private static final long DISCOUNT = ReceiptKeyword.mask(ReceiptKeyword.DISCOUNT, ReceiptKeyword.SAVINGS);
+    private static final long DEPOSIT = ReceiptKeyword.mask(ReceiptKeyword.DEPOSIT);
+    private static final long TAX_TOTAL = ReceiptKeyword.mask(ReceiptKeyword.TAX_TOTAL);
+    private static final long AMOUNT = ReceiptKeyword.mask(ReceiptKeyword.AMOUNT);
 
     public CandidateExtractionResult extractCandidates(String rawText) {
-        if (rawText == null || rawText.isBlank()) {
+        return extractCandidates(ReceiptText.of(rawText));
+    }
+
+    /**
+     * Ranks every money token of the lexed text by the labels on its line and its position on the receipt. Label tests
+     * are bit tests on the line's keyword set, so the cost no longer grows with the number of labels per amount.
+     */
+    public CandidateExtractionResult extractCandidates(ReceiptText text) {
+        if (text.isBlank()) {
             return new CandidateExtractionResult(
                     List.of(),
                     List.of("No reliable total was detected from the extracted text."),
@@ -30,31 +48,25 @@ public class ReceiptAmountCandidateExtractor {
             );
         }
 
-        String[] lines = rawText.split("\\R");
+        List<ReceiptText.Line> lines = text.lines();
         List<LineAmountCandidate> extracted = new ArrayList<>();
         SummaryAmounts summaryAmounts = new SummaryAmounts();
 
-        for (int i = 0; i < lines.length; i++) {
-            String line = lines[i].trim();
-            if (line.isEmpty()) {
+        for (ReceiptText.Line line : lines) {
+            if (line.isEmpty() || line.amounts().isEmpty()) {
                 continue;
             }
-            Matcher matcher = MONEY_PATTERN.matcher(line);
-            while (matcher.find()) {
-                String token = matcher.group();
-                BigDecimal amount = parseAmount(token);
-                if (amount == null) {
-                    continue;
-                }
-                String normalizedLine = line.toUpperCase(Locale.ROOT);
+            boolean isSubtotalLine = line.has(SUBTOTAL);
+            boolean isTaxLine = line.has(TAX);
+            boolean isAmountPaidLine = line.has(AMOUNT_PAID);
+            boolean isStrongTotalLine = line.has(STRONG_TOTAL);
+            boolean isGenericTotalLine = line.has(GENERIC_TOTAL);
+            boolean isItemLine = line.has(ITEM);
+            boolean hasMultipleAmounts = line.amounts().size() > 1;
+            int i = line.index();
+
+            for (BigDecimal amount : line.amounts()) {
                 int score = 10;
-                boolean isSubtotalLine = containsAny(normalizedLine, "SUBTOTAL");
-                boolean isTaxLine = containsAny(normalizedLine, "TAX", "GST", "VAT");
-                boolean isAmountPaidLine = containsAny(normalizedLine, "AMOUNT PAID", "PAID", "PAYMENT");
-                boolean isStrongTotalLine = containsAny(normalizedLine, "GRAND TOTAL", "TOTAL DUE", "BALANCE DUE", "AMOUNT DUE");
-                boolean isGenericTotalLine = containsAny(normalizedLine, "TOTAL");
-                boolean isItemLine = containsAny(normalizedLine, "ITEM", "SKU", "QTY", "RATE", "UNIT PRICE", "PRICE", "EACH");
-                boolean hasMultipleAmounts = countMoneyTokens(line) > 1;
 
                 if (isStrongTotalLine) score += 110;
                 if (isGenericTotalLine && !isSubtotalLine && !isTaxLine) score += 55;
@@ -74,19 +86,19 @@ public class ReceiptAmountCandidateExtractor {
                 if (isAmountPaidLine) {
                     summaryAmounts.amountPaid = amount;
                 }
-                if (containsAny(normalizedLine, "CHANGE")) score -= 60;
-                if (containsAny(normalizedLine, "TIP")) score -= 35;
-                if (containsAny(normalizedLine, "DISCOUNT", "SAVINGS")) score -= 45;
-                if (containsAny(normalizedLine, "DEPOSIT")) score -= 25;
-                if (containsAny(normalizedLine, "TAX TOTAL")) score -= 40;
+                if (line.has(CHANGE)) score -= 60;
+                if (line.has(TIP)) score -= 35;
+                if (line.has(DISCOUNT)) score -= 45;
+                if (line.has(DEPOSIT)) score -= 25;
+                if (line.has(TAX_TOTAL)) score -= 40;
                 if (isItemLine) score -= 35;
                 if (hasMultipleAmounts && !isStrongTotalLine && !isAmountPaidLine) score -= 30;
-                if (containsAny(normalizedLine, "AMOUNT") && !isStrongTotalLine && !isAmountPaidLine) score -= 15;
+                if (line.has(AMOUNT) && !isStrongTotalLine && !isAmountPaidLine) score -= 15;
 
-                double lineRatio = lines.length <= 1 ? 1d : (double) i / (double) (lines.length - 1);
+                double lineRatio = lines.size() <= 1 ? 1d : (double) i / (double) (lines.size() - 1);
                 score += (int) Math.round(lineRatio * 35d);
 
-                extracted.add(new LineAmountCandidate(amount, score, line, i));
+                extracted.add(new LineAmountCandidate(amount, score, line.text(), i));
             }
         }
 
@@ -129,32 +141,6 @@ public class ReceiptAmountCandidateExtractor {
         return new CandidateExtractionResult(ranked, warnings, summaryAmounts.toDetectedSummary());
     }
 
-    private static BigDecimal parseAmount(String token) {
-        try {
-            return new BigDecimal(token.replace("$", "").replace(",", "").trim()).setScale(2, RoundingMode.HALF_UP);
-        } catch (NumberFormatException ex) {
-            return null;
-        }
-    }
-
-    private static boolean containsAny(String line, String... labels) {
-        for (String label : labels) {
-            if (line.contains(label)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private static int countMoneyTokens(String line) {
-        int count = 0;
-        Matcher matcher = MONEY_PATTERN.matcher(line);
-        while (matcher.find()) {
-            count++;
-        }
-        return count;
-    }
-
     public record CandidateExtractionResult(
             List<RankedAmountCandidate> candidates,
             List<String> warnings,
@@ -0,0 +1,96 @@
+package com.roofingcrm.service.accounting;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the extractions of imported receipts in the background, {@code app.ai.receipt-extraction.batch.workers} at a
+ * time. Each extraction goes through {@link JobAccountingReceiptService#extractReceipt}, so it is persisted and
+ * reported exactly like one started from the receipt's extract endpoint, and the provider gateway still decides how
+ * many calls are in flight.
+ * <p>
+ * The queue lives in memory and holds at most {@code queue-capacity} receipts: receipts that do not fit, and receipts
+ * queued when the process stops, stay {@code NOT_STARTED} and can be extracted individually.
+ */
+@Component
+public class ReceiptBatchExtractionDispatcher implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReceiptBatchExtractionDispatcher.class);
+
+    private final JobAccountingReceiptService receiptService;
+    private final ThreadPoolExecutor workers;
+
+    public ReceiptBatchExtractionDispatcher(JobAccountingReceiptService receiptService,
+                                            ReceiptExtractionProperties properties,
+                                            MeterRegistry meterRegistry) {
+        this.receiptService = receiptService;
+        int threads = Math.max(1, properties.getBatch().getWorkers());
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(
+                threads, threads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(Math.max(1, properties.getBatch().getQueueCapacity())),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "receipt-batch-extract-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.workers.allowCoreThreadTimeOut(true);
+        Gauge.builder("receipt.extraction.batch.queued", workers, executor -> executor.getQueue().size())
+                .description("Imported receipts waiting for a batch extraction worker")
+                .register(meterRegistry);
+    }
+
+    /** Queues the receipts once the importing transaction commits, so workers never see uncommitted rows. */
+    public void enqueueAfterCommit(UUID tenantId, UUID userId, UUID jobId, List<UUID> receiptIds) {
+        List<UUID> ids = List.copyOf(receiptIds);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(tenantId, userId, jobId, ids);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(tenantId, userId, jobId, ids);
+            }
+        });
+    }
+
+    void enqueue(UUID tenantId, UUID userId, UUID jobId, List<UUID> receiptIds) {
+        int queued = 0;
+        try {
+            for (UUID receiptId : receiptIds) {
+                workers.execute(() -> extract(tenantId, userId, jobId, receiptId));
+                queued++;
+            }
+        } catch (RejectedExecutionException e) {
+            log.warn("Batch receipt extraction queue is full or shutting down; {} receipt(s) of job {} were not queued "
+                    + "and stay NOT_STARTED", receiptIds.size() - queued, jobId);
+        }
+    }
+
+    private void extract(UUID tenantId, UUID userId, UUID jobId, UUID receiptId) {
+        try {
+            receiptService.extractReceipt(tenantId, userId, jobId, receiptId);
+        } catch (RuntimeException e) {
+            log.warn("Batch extraction of receipt {} failed", receiptId, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        workers.shutdownNow();
+    }
+}
@@ -29,16 +29,15 @@ public class ReceiptDateCandidateRanker {
             "(?i)\\b(Jan(?:uary)?|Feb(?:ruary)?|Mar(?:ch)?|Apr(?:il)?|May|Jun(?:e)?|Jul(?:y)?|Aug(?:ust)?|Sep(?:t(?:ember)?)?|Oct(?:ober)?|Nov(?:ember)?|Dec(?:ember)?)"
                     + "\\s+(\\d{1,2})(?:st|nd|rd|th)?,?\\s+(\\d{4})\\b");
 
-    private static final String[] DATE_LABELS = {
-            "DATE",
-            "ORDER DATE",
-            "PICK UP DATE",
-            "DELIVERY DATE",
-            "INVOICE DATE",
-            "SALE DATE",
-            "TRANSACTION DATE",
-            "PICKUP DATE"
-    };
+    private static final long DATE_LABELS = ReceiptKeyword.mask(
+            ReceiptKeyword.DATE,
+            ReceiptKeyword.ORDER_DATE,
+            ReceiptKeyword.PICK_UP_DATE,
+            ReceiptKeyword.DELIVERY_DATE,
+            ReceiptKeyword.INVOICE_DATE,
+            ReceiptKeyword.SALE_DATE,
+            ReceiptKeyword.TRANSACTION_DATE,
+            ReceiptKeyword.PICKUP_DATE);
 
     private final Clock clock;
 
@@ -55,6 +54,14 @@ public class ReceiptDateCandidateRanker {
      * Does not invent a date when nothing parses.
      */
     public Instant resolveIncurredAt(String preferredIsoDate, String combinedRawText) {
+        return resolveIncurredAt(preferredIsoDate, ReceiptText.of(combinedRawText));
+    }
+
+    /**
+     * Same as {@link #resolveIncurredAt(String, String)} over already lexed text; date labels near a match are read
+     * from the keyword sets of its line and the line before.
+     */
+    public Instant resolveIncurredAt(String preferredIsoDate, ReceiptText combinedText) {
         LocalDate preferred = parseFlexibleDate(preferredIsoDate);
         int currentYear = LocalDate.now(clock).getYear();
 
@@ -62,10 +69,10 @@ public class ReceiptDateCandidateRanker {
         if (preferred != null) {
             bestScore.put(preferred, scoreVisionPrimary(preferred, currentYear));
         }
-        if (combinedRawText != null && !combinedRawText.isBlank()) {
-            collectIsoMatches(combinedRawText, currentYear, bestScore);
-            collectSlashMatches(combinedRawText, currentYear, bestScore);
-            collectMonthNameMatches(combinedRawText, currentYear, bestScore);
+        if (!combinedText.isBlank()) {
+            collectIsoMatches(combinedText, currentYear, bestScore);
+            collectSlashMatches(combinedText, currentYear, bestScore);
+            collectMonthNameMatches(combinedText, currentYear, bestScore);
         }
 
         if (bestScore.isEmpty()) {
@@ -105,41 +112,41 @@ public class ReceiptDateCandidateRanker {
         return null;
     }
 
-    private void collectIsoMatches(String raw, int currentYear, Map<LocalDate, Integer> bestScore) {
-        Matcher matcher = ISO_DATE.matcher(raw);
+    private void collectIsoMatches(ReceiptText text, int currentYear, Map<LocalDate, Integer> bestScore) {
+        Matcher matcher = ISO_DATE.matcher(text.raw());
         while (matcher.find()) {
             LocalDate d = tryParseIso(matcher.group());
             if (d == null) {
                 continue;
             }
             int score = yearPlausibility(d.getYear(), currentYear)
-                    + labelProximityScore(raw, matcher.start(), matcher.end());
+                    + labelProximityScore(text, matcher.start(), matcher.end());
             mergeMaxScore(bestScore, d, score);
         }
     }
 
-    private void collectSlashMatches(String raw, int currentYear, Map<LocalDate, Integer> bestScore) {
-        Matcher matcher = SLASH_DATE.matcher(raw);
+    private void collectSlashMatches(ReceiptText text, int currentYear, Map<LocalDate, Integer> bestScore) {
+        Matcher matcher = SLASH_DATE.matcher(text.raw());
         while (matcher.find()) {
             LocalDate d = parseSlashGroups(matcher.group(1), matcher.group(2), matcher.group(3));
             if (d == null) {
                 continue;
             }
             int score = yearPlausibility(d.getYear(), currentYear)
-                    + labelProximityScore(raw, matcher.start(), matcher.end());
+                    + labelProximityScore(text, matcher.start(), matcher.end());
             mergeMaxScore(bestScore, d, score);
         }
     }
 
-    private void collectMonthNameMatches(String raw, int currentYear, Map<LocalDate, Integer> bestScore) {
-        Matcher matcher = MONTH_NAME_DATE.matcher(raw);
+    private void collectMonthNameMatches(ReceiptText text, int currentYear, Map<LocalDate, Integer> bestScore) {
+        Matcher matcher = MONTH_NAME_DATE.matcher(text.raw());
         while (matcher.find()) {
             LocalDate d = parseMonthNameGroups(matcher.group(1), matcher.group(2), matcher.group(3));
             if (d == null) {
                 continue;
             }
             int score = yearPlausibility(d.getYear(), currentYear)
-                    + labelProximityScore(raw, matcher.start(), matcher.end())
+                    + labelProximityScore(text, matcher.start(), matcher.end())
                     + 2;
             mergeMaxScore(bestScore, d, score);
         }
@@ -241,25 +248,15 @@ public class ReceiptDateCandidateRanker {
         return 88 + yearPlausibility(d.getYear(), currentYear);
     }
 
-    private static int labelProximityScore(String raw, int matchStart, int matchEnd) {
-        int lineStart = raw.lastIndexOf('\n', matchStart);
-        lineStart = lineStart < 0 ? 0 : lineStart + 1;
-        int lineEnd = raw.indexOf('\n', matchEnd);
-        lineEnd = lineEnd < 0 ? raw.length() : lineEnd;
-        String line = raw.substring(lineStart, Math.min(lineEnd, raw.length())).toUpperCase(Locale.ROOT);
-        int bonus = labelBonus(line);
-        if (lineStart > 1) {
-            int prevLineStart = raw.lastIndexOf('\n', lineStart - 2);
-            prevLineStart = prevLineStart < 0 ? 0 : prevLineStart + 1;
-            String prev = raw.substring(prevLineStart, lineStart - 1).toUpperCase(Locale.ROOT);
-            bonus = Math.max(bonus, labelBonus(prev));
-        }
-        return bonus;
-    }
-
-    private static int labelBonus(String upperLine) {
-        for (String label : DATE_LABELS) {
-            if (upperLine.contains(label)) {
+    private static int labelProximityScore(ReceiptText text, int matchStart, int matchEnd) {
+        ReceiptText.Line first = text.lineAt(matchStart);
+        ReceiptText.Line last = text.lineAt(Math.max(matchStart, matchEnd - 1));
+        if (first == null || last == null) {
+            return 0;
+        }
+        int from = first.index() > 0 ? first.index() - 1 : first.index();
+        for (int i = from; i <= last.index(); i++) {
+            if (text.lines().get(i).has(DATE_LABELS)) {
                 return 52;
             }
         }
@@ -3,6 +3,7 @@ package com.roofingcrm.service.accounting;
 import com.roofingcrm.domain.enums.JobCostCategory;
 
 import java.math.BigDecimal;
+import java.util.UUID;
 
 public interface ReceiptExtractionClient {
 
@@ -20,13 +21,18 @@ public interface ReceiptExtractionClient {
             ReceiptTextInterpretationContext context
     );
 
+    /**
+     * One image sent for vision extraction. {@code imageBytes} is the encoded image (see {@link ReceiptImageEncoder});
+     * clients Base64-encode it on the way out rather than holding an encoded copy.
+     */
     record ReceiptVisionDocument(
+            UUID tenantId,
             String attemptLabel,
             String fileName,
             String contentType,
             String promptContext,
             String imageMimeType,
-            String imageBase64,
+            byte[] imageBytes,
             Integer width,
             Integer height,
             Integer imageByteSize
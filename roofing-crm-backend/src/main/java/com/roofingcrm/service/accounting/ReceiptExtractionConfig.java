@@ -1,12 +1,15 @@
 package com.roofingcrm.service.accounting;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestClient;
 
+import java.nio.file.Path;
+
 @Configuration
 public class ReceiptExtractionConfig {
 
@@ -16,13 +19,22 @@ public class ReceiptExtractionConfig {
     @Bean
     ReceiptExtractionClient receiptExtractionClient(RestClient.Builder restClientBuilder,
                                                     ObjectMapper objectMapper,
-                                                    ReceiptExtractionProperties properties) {
+                                                    ReceiptExtractionProperties properties,
+                                                    MeterRegistry meterRegistry) {
         boolean enabled = properties.isEnabled();
         String provider = normalize(properties.getProvider());
         String model = normalizeModel(properties.getOpenai().getModel());
         String baseUrl = normalizeBaseUrl(properties.getOpenai().getBaseUrl());
         String apiKey = trimToNull(properties.getOpenai().getApiKey());
         boolean apiKeyPresent = apiKey != null;
+        String recordReplayMode = normalize(properties.getRecordReplay().getMode());
+        String recordReplayDirectory = trimToNull(properties.getRecordReplay().getDirectory());
+
+        if ("replay".equals(recordReplayMode) && recordReplayDirectory != null) {
+            log.info("Receipt extraction config: selectedClient=REPLAY, directory={}", recordReplayDirectory);
+            return new RecordReplayReceiptExtractionClient(null, Path.of(recordReplayDirectory),
+                    RecordReplayReceiptExtractionClient.Mode.REPLAY, objectMapper);
+        }
 
         if (!enabled) {
             return noop(enabled, provider, apiKeyPresent, model,
@@ -43,7 +55,7 @@ public class ReceiptExtractionConfig {
         }
 
         try {
-            ReceiptExtractionClient client =
+            ReceiptExtractionClient openAiClient =
                     new OpenAiReceiptExtractionClient(
                             restClientBuilder,
                             objectMapper,
@@ -52,16 +64,25 @@ public class ReceiptExtractionConfig {
                             model,
                             properties.getOpenai().getConnectTimeoutSeconds(),
                             properties.getOpenai().getReadTimeoutSeconds(),
-                            properties.getOpenai().getMaxRetries());
+                            properties.getOpenai().getMaxRetries(),
+                            properties.getOpenai().getMaxRetryAfterSeconds());
+            ReceiptExtractionClient client = new ReceiptExtractionGateway(openAiClient, properties.getGateway(), meterRegistry);
+            if ("record".equals(recordReplayMode) && recordReplayDirectory != null) {
+                log.info("Receipt extraction config: recording provider responses to {}", recordReplayDirectory);
+                client = new RecordReplayReceiptExtractionClient(client, Path.of(recordReplayDirectory),
+                        RecordReplayReceiptExtractionClient.Mode.RECORD, objectMapper);
+            }
             log.info(
-                    "Receipt extraction config: enabled={}, provider={}, apiKeyPresent={}, model={}, connectTimeoutSeconds={}, readTimeoutSeconds={}, maxRetries={}, selectedClient=OPENAI",
+                    "Receipt extraction config: enabled={}, provider={}, apiKeyPresent={}, model={}, connectTimeoutSeconds={}, readTimeoutSeconds={}, maxRetries={}, maxConcurrency={}, tenantTokensPerHour={}, selectedClient=OPENAI",
                     enabled,
                     provider,
                     apiKeyPresent,
                     model,
                     properties.getOpenai().getConnectTimeoutSeconds(),
                     properties.getOpenai().getReadTimeoutSeconds(),
-                    properties.getOpenai().getMaxRetries());
+                    properties.getOpenai().getMaxRetries(),
+                    properties.getGateway().getMaxConcurrency(),
+                    properties.getGateway().getTenantTokensPerHour());
             return client;
         } catch (RuntimeException ex) {
             return noop(enabled, provider, apiKeyPresent, model,
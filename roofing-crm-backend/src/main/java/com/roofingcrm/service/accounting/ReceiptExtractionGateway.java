@@ -0,0 +1,215 @@
+package com.roofingcrm.service.accounting;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Sits in front of the provider client and protects both sides during a provider brownout. Without it every
+ * extraction spends its full {@code max-retries x read-timeout} against a provider that is already failing, and a
+ * burst of uploads keeps piling calls onto it.
+ *
+ * <ul>
+ *     <li>{@link AimdConcurrencyLimiter} bounds calls in flight and adapts the bound to how the provider copes.</li>
+ *     <li>{@link ProviderCircuitBreaker} refuses calls after repeated overload failures or a long {@code Retry-After}.
+ *     Refused calls fail at once with {@link ReceiptExtractionThrottledException} and never reach the provider.</li>
+ *     <li>{@link TenantTokenBudget} caps estimated tokens per tenant per hour.</li>
+ * </ul>
+ *
+ * <p>Metrics: {@code receipt.extraction.provider.in_flight}, {@code .concurrency_limit}, {@code .circuit_open},
+ * {@code .latency} (by operation and outcome) and {@code .rejected} (by reason).
+ */
+public class ReceiptExtractionGateway implements ReceiptExtractionClient {
+
+    private static final Logger log = LoggerFactory.getLogger(ReceiptExtractionGateway.class);
+
+    /** System prompt, user prompt and the JSON answer; measured at roughly this on real receipts. */
+    private static final long VISION_PROMPT_AND_COMPLETION_TOKENS = 900;
+    private static final long TEXT_PROMPT_AND_COMPLETION_TOKENS = 500;
+    /** The client truncates each transcribed text block to this many characters. */
+    private static final int MAX_TEXT_CHARS = 12_000;
+
+    private final ReceiptExtractionClient delegate;
+    private final AimdConcurrencyLimiter limiter;
+    private final ProviderCircuitBreaker circuitBreaker;
+    private final TenantTokenBudget tokenBudget;
+    private final long acquireTimeoutMillis;
+    private final MeterRegistry meterRegistry;
+
+    public ReceiptExtractionGateway(ReceiptExtractionClient delegate,
+                                    ReceiptExtractionProperties.Gateway properties,
+                                    MeterRegistry meterRegistry) {
+        this(delegate, properties, meterRegistry, System::nanoTime, System::currentTimeMillis);
+    }
+
+    ReceiptExtractionGateway(ReceiptExtractionClient delegate,
+                             ReceiptExtractionProperties.Gateway properties,
+                             MeterRegistry meterRegistry,
+                             LongSupplier nanoClock,
+                             LongSupplier epochMillis) {
+        this.delegate = delegate;
+        this.limiter = new AimdConcurrencyLimiter(
+                properties.getInitialConcurrency(), properties.getMinConcurrency(), properties.getMaxConcurrency());
+        this.circuitBreaker = new ProviderCircuitBreaker(
+                properties.getFailureThreshold(), Duration.ofSeconds(Math.max(0, properties.getOpenSeconds())), nanoClock);
+        this.tokenBudget = new TenantTokenBudget(properties.getTenantTokensPerHour(), epochMillis);
+        this.acquireTimeoutMillis = Math.max(0, properties.getAcquireTimeoutMillis());
+        this.meterRegistry = meterRegistry;
+        if (delegate instanceof OpenAiReceiptExtractionClient openAi) {
+            openAi.setRetryPause(this::pauseWithoutPermit);
+        }
+        Gauge.builder("receipt.extraction.provider.in_flight", limiter, AimdConcurrencyLimiter::inFlight)
+                .description("Receipt extraction provider calls currently in flight")
+                .register(meterRegistry);
+        Gauge.builder("receipt.extraction.provider.concurrency_limit", limiter, AimdConcurrencyLimiter::limit)
+                .description("Current adaptive limit on concurrent receipt extraction provider calls")
+                .register(meterRegistry);
+        Gauge.builder("receipt.extraction.provider.circuit_open", circuitBreaker,
+                        breaker -> breaker.state() == ProviderCircuitBreaker.State.CLOSED ? 0 : 1)
+                .description("1 while the receipt extraction provider circuit is open or half-open")
+                .register(meterRegistry);
+    }
+
+    ReceiptExtractionClient delegate() {
+        return delegate;
+    }
+
+    @Override
+    public ExtractedReceiptData extract(ReceiptVisionDocument document) {
+        return call("extract", document.tenantId(), estimateVisionTokens(document), () -> delegate.extract(document));
+    }
+
+    @Override
+    public ExtractedReceiptData extractSummary(ReceiptVisionDocument document) {
+        return call("summary", document.tenantId(), estimateVisionTokens(document),
+                () -> delegate.extractSummary(document));
+    }
+
+    @Override
+    public ExtractedReceiptData interpretFromTranscribedText(String fullTranscribedText,
+                                                             String summaryTranscribedText,
+                                                             ReceiptTextInterpretationContext context) {
+        return call("interpret", context.tenantId(), estimateTextTokens(fullTranscribedText, summaryTranscribedText),
+                () -> delegate.interpretFromTranscribedText(fullTranscribedText, summaryTranscribedText, context));
+    }
+
+    private <T> T call(String operation, UUID tenantId, long estimatedTokens, Supplier<T> providerCall) {
+        if (!tokenBudget.tryReserve(tenantId, estimatedTokens)) {
+            Duration untilReset = tokenBudget.untilReset();
+            throw reject("budget", "The hourly receipt extraction allowance for this account is used up; it resets in "
+                    + (untilReset.toSeconds() + 59) / 60 + " min.", untilReset);
+        }
+        ProviderCircuitBreaker.Permit permit = circuitBreaker.tryAcquire();
+        if (permit == null) {
+            tokenBudget.refund(tenantId, estimatedTokens);
+            long seconds = Math.max(1, circuitBreaker.secondsUntilRetry());
+            throw reject("circuit_open", "The receipt extraction provider is unavailable; retrying in " + seconds + "s.",
+                    Duration.ofSeconds(seconds));
+        }
+        boolean acquired;
+        try {
+            acquired = limiter.acquire(acquireTimeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            circuitBreaker.onIgnored(permit);
+            tokenBudget.refund(tenantId, estimatedTokens);
+            throw reject("concurrency", "Too many receipt extractions are running. Try again shortly.", null);
+        }
+
+        long startNanos = System.nanoTime();
+        String outcome = "failure";
+        try {
+            T result = providerCall.get();
+            limiter.onSuccess();
+            circuitBreaker.onSuccess(permit);
+            outcome = "success";
+            return result;
+        } catch (ReceiptExtractionProviderException ex) {
+            if (ex.isProviderDistress()) {
+                limiter.onOverload();
+                circuitBreaker.onFailure(permit, ex.getRetryAfter());
+                log.warn("Receipt extraction provider overloaded ({}): concurrency limit now {}, circuit {}",
+                        ex.getMessage(), limiter.limit(), circuitBreaker.state());
+            } else {
+                limiter.onIgnored();
+                circuitBreaker.onIgnored(permit);
+            }
+            throw ex;
+        } catch (RuntimeException ex) {
+            limiter.onIgnored();
+            circuitBreaker.onIgnored(permit);
+            throw ex;
+        } finally {
+            Timer.builder("receipt.extraction.provider.latency")
+                    .description("Receipt extraction provider call time, including in-client retries")
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Backoff between the client's own retries. The permit is handed back for the wait so a sleeping call does not
+     * count against the provider's concurrency, and taken again before the next attempt.
+     */
+    private void pauseWithoutPermit(Duration delay) throws InterruptedException {
+        limiter.onIgnored();
+        try {
+            Thread.sleep(delay);
+        } finally {
+            limiter.reacquire();
+        }
+    }
+
+    private ReceiptExtractionThrottledException reject(String reason, String message, Duration retryAfter) {
+        Counter.builder("receipt.extraction.provider.rejected")
+                .description("Receipt extraction provider calls refused by the gateway before reaching the provider")
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        return new ReceiptExtractionThrottledException(message, retryAfter);
+    }
+
+    /**
+     * Vision cost as the provider bills {@code detail=high}: the image is fitted into 2048x2048, its short side scaled
+     * to 768, then charged 170 tokens per 512px tile plus 85.
+     */
+    static long estimateVisionTokens(ReceiptVisionDocument document) {
+        long imageTokens = 85 + 170L * 6;
+        if (document.width() != null && document.height() != null && document.width() > 0 && document.height() > 0) {
+            double width = document.width();
+            double height = document.height();
+            double fit = Math.min(1.0, 2048.0 / Math.max(width, height));
+            width *= fit;
+            height *= fit;
+            double shortSide = Math.min(1.0, 768.0 / Math.min(width, height));
+            width *= shortSide;
+            height *= shortSide;
+            imageTokens = 85 + 170L * (long) Math.ceil(width / 512.0) * (long) Math.ceil(height / 512.0);
+        }
+        return imageTokens + VISION_PROMPT_AND_COMPLETION_TOKENS;
+    }
+
+    /** About four characters per token for English text. */
+    static long estimateTextTokens(String fullTranscribedText, String summaryTranscribedText) {
+        return (cappedLength(fullTranscribedText) + cappedLength(summaryTranscribedText)) / 4
+                + TEXT_PROMPT_AND_COMPLETION_TOKENS;
+    }
+
+    private static long cappedLength(String text) {
+        return text == null ? 0 : Math.min(text.length(), MAX_TEXT_CHARS);
+    }
+}
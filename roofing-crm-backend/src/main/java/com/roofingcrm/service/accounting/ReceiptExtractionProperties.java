@@ -2,6 +2,7 @@ package com.roofingcrm.service.accounting;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
 
 @Component
 @ConfigurationProperties(prefix = "app.ai.receipt-extraction")
@@ -13,7 +14,18 @@ public class ReceiptExtractionProperties {
      * When true, writes each processed summary image to java.io.tmpdir/roofing-crm-summary-debug/ for inspection.
      */
     private boolean debugWriteSummaryImages = false;
+    /**
+     * Upper bound on each encoded image sent to the vision provider; larger images are re-encoded at lower JPEG
+     * quality, then downscaled, until they fit.
+     */
+    private int maxImageBytes = 1_500_000;
+    /** JPEG quality (0-1) tried against grayscale PNG for each image; the smaller encoding is sent. */
+    private float jpegQuality = 0.85f;
     private final OpenAi openai = new OpenAi();
+    private final Gateway gateway = new Gateway();
+    private final RecordReplay recordReplay = new RecordReplay();
+    private final Pdf pdf = new Pdf();
+    private final Batch batch = new Batch();
 
     public boolean isDebugWriteSummaryImages() {
         return debugWriteSummaryImages;
@@ -23,6 +35,22 @@ public class ReceiptExtractionProperties {
         this.debugWriteSummaryImages = debugWriteSummaryImages;
     }
 
+    public int getMaxImageBytes() {
+        return maxImageBytes;
+    }
+
+    public void setMaxImageBytes(int maxImageBytes) {
+        this.maxImageBytes = maxImageBytes;
+    }
+
+    public float getJpegQuality() {
+        return jpegQuality;
+    }
+
+    public void setJpegQuality(float jpegQuality) {
+        this.jpegQuality = jpegQuality;
+    }
+
     public boolean isEnabled() {
         return enabled;
     }
@@ -43,6 +71,22 @@ public class ReceiptExtractionProperties {
         return openai;
     }
 
+    public Gateway getGateway() {
+        return gateway;
+    }
+
+    public RecordReplay getRecordReplay() {
+        return recordReplay;
+    }
+
+    public Pdf getPdf() {
+        return pdf;
+    }
+
+    public Batch getBatch() {
+        return batch;
+    }
+
     public static class OpenAi {
         private String baseUrl = "https://api.openai.com";
         private String apiKey = "";
@@ -50,6 +94,10 @@ public class ReceiptExtractionProperties {
         private int connectTimeoutSeconds = 10;
         private int readTimeoutSeconds = 45;
         private int maxRetries = 1;
+        /**
+         * Longest Retry-After the client waits out before retrying; longer ones fail the call and pause the gateway.
+         */
+        private int maxRetryAfterSeconds = 10;
 
         public String getBaseUrl() {
             return baseUrl;
@@ -98,5 +146,214 @@ public class ReceiptExtractionProperties {
         public void setMaxRetries(int maxRetries) {
             this.maxRetries = maxRetries;
         }
+
+        public int getMaxRetryAfterSeconds() {
+            return maxRetryAfterSeconds;
+        }
+
+        public void setMaxRetryAfterSeconds(int maxRetryAfterSeconds) {
+            this.maxRetryAfterSeconds = maxRetryAfterSeconds;
+        }
+    }
+
+    /**
+     * See {@link RecordReplayReceiptExtractionClient}. {@code record} saves every provider answer to {@code directory};
+     * {@code replay} answers only from it, with no provider and no network.
+     */
+    public static class RecordReplay {
+        /** off, record or replay. */
+        private String mode = "off";
+        private String directory = "";
+
+        public String getMode() {
+            return mode;
+        }
+
+        public void setMode(String mode) {
+            this.mode = mode;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+    }
+
+    /**
+     * Limits applied by {@link ReceiptExtractionGateway} in front of the provider client.
+     */
+    public static class Gateway {
+        private int initialConcurrency = 4;
+        private int minConcurrency = 1;
+        private int maxConcurrency = 16;
+        /** How long a call waits for a concurrency permit before it is refused. */
+        private long acquireTimeoutMillis = 20_000;
+        /** Consecutive overload failures (429, 408, 5xx, timeouts) that open the circuit. */
+        private int failureThreshold = 5;
+        private int openSeconds = 30;
+        /** Estimated provider tokens each tenant may spend per hour; 0 disables the budget. */
+        private long tenantTokensPerHour = 500_000;
+
+        public int getInitialConcurrency() {
+            return initialConcurrency;
+        }
+
+        public void setInitialConcurrency(int initialConcurrency) {
+            this.initialConcurrency = initialConcurrency;
+        }
+
+        public int getMinConcurrency() {
+            return minConcurrency;
+        }
+
+        public void setMinConcurrency(int minConcurrency) {
+            this.minConcurrency = minConcurrency;
+        }
+
+        public int getMaxConcurrency() {
+            return maxConcurrency;
+        }
+
+        public void setMaxConcurrency(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+        }
+
+        public long getAcquireTimeoutMillis() {
+            return acquireTimeoutMillis;
+        }
+
+        public void setAcquireTimeoutMillis(long acquireTimeoutMillis) {
+            this.acquireTimeoutMillis = acquireTimeoutMillis;
+        }
+
+        public int getFailureThreshold() {
+            return failureThreshold;
+        }
+
+        public void setFailureThreshold(int failureThreshold) {
+            this.failureThreshold = failureThreshold;
+        }
+
+        public int getOpenSeconds() {
+            return openSeconds;
+        }
+
+        public void setOpenSeconds(int openSeconds) {
+            this.openSeconds = openSeconds;
+        }
+
+        public long getTenantTokensPerHour() {
+            return tenantTokensPerHour;
+        }
+
+        public void setTenantTokensPerHour(long tenantTokensPerHour) {
+            this.tenantTokensPerHour = tenantTokensPerHour;
+        }
+    }
+
+    /**
+     * PDF ingestion by {@link PdfReceiptIngestor}: memory bound while parsing and the adaptive render resolution.
+     */
+    public static class Pdf {
+        /** Parsed PDF buffers above this spill to a temp file instead of the heap. */
+        private long maxMainMemoryBytes = 16L * 1024 * 1024;
+        /** Rendered pages aim for this many pixels on their long side; DPI follows from the page size. */
+        private int targetLongSidePixels = 2200;
+        private int minDpi = 110;
+        private int maxDpi = 300;
+        /** Threads rendering the selected pages of a PDF; shared by all extractions. */
+        private int renderThreads = 2;
+
+        public long getMaxMainMemoryBytes() {
+            return maxMainMemoryBytes;
+        }
+
+        public void setMaxMainMemoryBytes(long maxMainMemoryBytes) {
+            this.maxMainMemoryBytes = maxMainMemoryBytes;
+        }
+
+        public int getTargetLongSidePixels() {
+            return targetLongSidePixels;
+        }
+
+        public void setTargetLongSidePixels(int targetLongSidePixels) {
+            this.targetLongSidePixels = targetLongSidePixels;
+        }
+
+        public int getMinDpi() {
+            return minDpi;
+        }
+
+        public void setMinDpi(int minDpi) {
+            this.minDpi = minDpi;
+        }
+
+        public int getMaxDpi() {
+            return maxDpi;
+        }
+
+        public void setMaxDpi(int maxDpi) {
+            this.maxDpi = maxDpi;
+        }
+
+        public int getRenderThreads() {
+            return renderThreads;
+        }
+
+        public void setRenderThreads(int renderThreads) {
+            this.renderThreads = renderThreads;
+        }
+    }
+
+    public static class Batch {
+        /**
+         * Extractions of imported receipts run at most this many at a time. Keep it at or below the gateway's
+         * concurrency so queued receipts wait here rather than timing out on a gateway permit.
+         */
+        private int workers = 4;
+        /** Files per import, counting each ZIP entry. */
+        private int maxFiles = 250;
+        /**
+         * Receipts waiting for a worker. Imports that would overflow it leave the rest {@code NOT_STARTED}; they can
+         * be extracted individually.
+         */
+        private int queueCapacity = 2000;
+        /** Multipart limit (per part and per request) of the import endpoint only; see {@code MultipartConfig}. */
+        private DataSize maxRequestSize = DataSize.ofMegabytes(250);
+
+        public int getWorkers() {
+            return workers;
+        }
+
+        public void setWorkers(int workers) {
+            this.workers = workers;
+        }
+
+        public int getMaxFiles() {
+            return maxFiles;
+        }
+
+        public void setMaxFiles(int maxFiles) {
+            this.maxFiles = maxFiles;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public DataSize getMaxRequestSize() {
+            return maxRequestSize;
+        }
+
+        public void setMaxRequestSize(DataSize maxRequestSize) {
+            this.maxRequestSize = maxRequestSize;
+        }
     }
 }
@@ -1,12 +1,38 @@
 package com.roofingcrm.service.accounting;
 
+import java.time.Duration;
+
 public class ReceiptExtractionProviderException extends RuntimeException {
 
+    private final boolean providerDistress;
+    private final Duration retryAfter;
+
     public ReceiptExtractionProviderException(String message) {
         super(message);
+        this.providerDistress = false;
+        this.retryAfter = null;
     }
 
     public ReceiptExtractionProviderException(String message, Throwable cause) {
+        this(message, cause, false, null);
+    }
+
+    /**
+     * @param providerDistress true when the failure says the provider is overloaded or down (429, 408, 5xx, timeouts)
+     *                         rather than that this request was bad; {@link ReceiptExtractionGateway} backs off on these.
+     * @param retryAfter       the provider's {@code Retry-After}, if it sent one.
+     */
+    public ReceiptExtractionProviderException(String message, Throwable cause, boolean providerDistress, Duration retryAfter) {
         super(message, cause);
+        this.providerDistress = providerDistress;
+        this.retryAfter = retryAfter;
+    }
+
+    public boolean isProviderDistress() {
+        return providerDistress;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
     }
 }
@@ -7,9 +7,6 @@ import com.roofingcrm.domain.enums.ReceiptFieldConfidence;
 import com.roofingcrm.domain.enums.ReceiptExtractionStatus;
 import com.roofingcrm.domain.enums.ReceiptTotalSource;
 import com.roofingcrm.storage.AttachmentStorageService;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.rendering.ImageType;
-import org.apache.pdfbox.rendering.PDFRenderer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -17,19 +14,19 @@ import org.springframework.stereotype.Service;
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
-import java.util.Base64;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * Vision-first receipt extraction: OpenAI full-image and summary-crop calls drive amounts and fields.
@@ -62,9 +59,10 @@ public class ReceiptExtractionServiceImpl implements ReceiptExtractionService {
     private final ReceiptImagePreprocessor receiptImagePreprocessor;
     private final ReceiptSummaryRegionExtractor receiptSummaryRegionExtractor;
     private final SummaryFieldConsensusService summaryFieldConsensusService;
-    private final PdfReceiptTextExtractor pdfReceiptTextExtractor;
     private final ReceiptDateCandidateRanker receiptDateCandidateRanker;
     private final ReceiptExtractionProperties receiptExtractionProperties;
+    private final ReceiptImageEncoder receiptImageEncoder;
+    private final PdfReceiptIngestor pdfReceiptIngestor;
 
     public ReceiptExtractionServiceImpl(AttachmentStorageService attachmentStorageService,
                                         ReceiptExtractionClient receiptExtractionClient,
@@ -83,9 +81,13 @@ public class ReceiptExtractionServiceImpl implements ReceiptExtractionService {
         this.receiptImagePreprocessor = receiptImagePreprocessor;
         this.receiptSummaryRegionExtractor = receiptSummaryRegionExtractor;
         this.summaryFieldConsensusService = summaryFieldConsensusService;
-        this.pdfReceiptTextExtractor = pdfReceiptTextExtractor;
         this.receiptDateCandidateRanker = receiptDateCandidateRanker;
         this.receiptExtractionProperties = receiptExtractionProperties;
+        this.receiptImageEncoder = new ReceiptImageEncoder(
+                receiptExtractionProperties.getMaxImageBytes(),
+                receiptExtractionProperties.getJpegQuality()
+        );
+        this.pdfReceiptIngestor = new PdfReceiptIngestor(pdfReceiptTextExtractor, receiptExtractionProperties.getPdf());
     }
 
     @Override
@@ -96,9 +98,10 @@ public class ReceiptExtractionServiceImpl implements ReceiptExtractionService {
 
         try (InputStream inputStream = attachmentStorageService.loadAsStream(receipt.getStorageKey())) {
             byte[] bytes = inputStream.readAllBytes();
-            ReceiptImagePreprocessor.ProcessedReceiptImage processedImage = toProcessedImage(receipt, bytes);
+            PdfReceiptIngestor.IngestedPdf pdf = isPdf(receipt) ? pdfReceiptIngestor.ingest(bytes) : null;
+            ReceiptImagePreprocessor.ProcessedReceiptImage processedImage = toProcessedImage(receipt, bytes, pdf);
             List<ReceiptSummaryRegionExtractor.SummaryRegionCrop> summaryCrops =
-                    receiptSummaryRegionExtractor.extractVariants(processedImage.image());
+                    receiptSummaryRegionExtractor.extractVariants(summaryRegionSource(processedImage, pdf));
 
             log.info("Receipt extraction (vision-first) preprocessing for {}: original={}x{}, processed={}x{}, summaryCrops={}",
                     receipt.getId(),
@@ -111,10 +114,7 @@ public class ReceiptExtractionServiceImpl implements ReceiptExtractionService {
                                     crop.id(), crop.x(), crop.y(), crop.width(), crop.height()))
                             .toList());
 
-            String pdfEmbedded = "";
-            if ("application/pdf".equalsIgnoreCase(receipt.getContentType() == null ? "" : receipt.getContentType())) {
-                pdfEmbedded = pdfReceiptTextExtractor.extractEmbeddedText(bytes);
-            }
+            String pdfEmbedded = pdf != null ? pdf.embeddedText() : "";
 
             ReceiptExtractionClient.ExtractedReceiptData interpret =
                     attemptInterpretation(receipt, normalizeRawText(pdfEmbedded), "");
@@ -159,6 +159,7 @@ public class ReceiptExtractionServiceImpl implements ReceiptExtractionService {
             SummaryFieldConsensusService.SummaryConsensusResult summaryConsensus = initialComputation.summaryConsensus();
             ReceiptExtractionDecisionService.ReceiptAmountDecision amountDecision = initialComputation.amountDecision();
             String reviewCombinedRawText = initialComputation.reviewCombinedRawText();
+            ReceiptText candidateText = initialComputation.candidateText();
 
             if (shouldRunFallback(summaryConsensus, amountDecision)) {
                 log.info("Receipt extraction invoking fallback summary attempts for {}: confidence={}, summaryNotes={}, warnings={}",
@@ -181,6 +182,7 @@ public class ReceiptExtractionServiceImpl implements ReceiptExtractionService {
                     summaryConsensus = fallbackComputation.summaryConsensus();
                     amountDecision = fallbackComputation.amountDecision();
                     reviewCombinedRawText = fallbackComputation.reviewCombinedRawText();
+                    candidateText = fallbackComputation.candidateText();
                 }
             }
 
@@ -216,7 +218,7 @@ public class ReceiptExtractionServiceImpl implements ReceiptExtractionService {
             List<String> mergedWarnings = new ArrayList<>(amountDecision.warnings());
 
             Instant incurredAt = receiptDateCandidateRanker.resolveIncurredAt(
-                    fullExtracted.incurredDate(), reviewCombinedRawText);
+                    fullExtracted.incurredDate(), candidateText);
             if (incurredAt == null) {
                 incurredAt = parseDate(fullExtracted.incurredDate());
             }
@@ -261,6 +263,9 @@ public class ReceiptExtractionServiceImpl implements ReceiptExtractionService {
                     draft.extractedTaxRatePercent(),
                     draft.incurredAt());
             return draft;
+        } catch (ReceiptExtractionThrottledException ex) {
+            log.warn("Receipt extraction throttled for {}: {}", receipt.getId(), ex.getMessage());
+            return failed(throttledMessage(ex.getRetryAfter()));
         } catch (ReceiptExtractionUnavailableException ex) {
             log.warn("Receipt extraction unavailable for {}: {}", receipt.getId(), ex.getMessage(), ex);
             return failed("Receipt extraction is disabled or not configured correctly.");
@@ -273,12 +278,28 @@ public class ReceiptExtractionServiceImpl implements ReceiptExtractionService {
         }
     }
 
-    private ReceiptImagePreprocessor.ProcessedReceiptImage toProcessedImage(Attachment receipt, byte[] bytes) throws IOException {
+    /** The real wait when the gateway knows it (hourly budget, provider back-off); "a minute" otherwise. */
+    static String throttledMessage(Duration retryAfter) {
+        if (retryAfter == null || retryAfter.getSeconds() <= 60) {
+            return "Receipt extraction is busy right now. You can retry in a minute or enter it manually.";
+        }
+        long minutes = (retryAfter.getSeconds() + 59) / 60;
+        return "Receipt extraction is unavailable for about " + minutes
+                + " minutes. You can retry then or enter it manually.";
+    }
+
+    private static boolean isPdf(Attachment receipt) {
+        return "application/pdf".equalsIgnoreCase(receipt.getContentType() == null ? "" : receipt.getContentType());
+    }
+
+    private ReceiptImagePreprocessor.ProcessedReceiptImage toProcessedImage(Attachment receipt,
+                                                                            byte[] bytes,
+                                                                            PdfReceiptIngestor.IngestedPdf pdf) throws IOException {
         String contentType = receipt.getContentType() == null ? "application/octet-stream" : receipt.getContentType();
         BufferedImage image;
 
-        if ("application/pdf".equalsIgnoreCase(contentType)) {
-            image = renderPdfPreview(bytes);
+        if (pdf != null) {
+            image = pdf.fullImage();
         } else if (contentType.startsWith("image/")) {
             image = normalizeImage(bytes);
             if (image == null) {
@@ -299,28 +320,35 @@ public class ReceiptExtractionServiceImpl implements ReceiptExtractionService {
         if (promptContextSuffix != null && !promptContextSuffix.isBlank()) {
             context = context == null ? promptContextSuffix : context + " | " + promptContextSuffix;
         }
-        byte[] pngBytes = toPngBytes(image);
+        ReceiptImageEncoder.EncodedImage encoded = receiptImageEncoder.encode(image);
         return new ReceiptExtractionClient.ReceiptVisionDocument(
+                tenantId(receipt),
                 attemptLabel,
                 receipt.getFileName(),
                 receipt.getContentType(),
                 context,
-                "image/png",
-                Base64.getEncoder().encodeToString(pngBytes),
-                image.getWidth(),
-                image.getHeight(),
-                pngBytes.length
+                encoded.mimeType(),
+                encoded.bytes(),
+                encoded.width(),
+                encoded.height(),
+                encoded.byteSize()
         );
     }
 
-    private BufferedImage renderPdfPreview(byte[] pdfBytes) throws IOException {
-        try (PDDocument document = PDDocument.load(pdfBytes)) {
-            if (document.getNumberOfPages() == 0) {
-                throw new IllegalArgumentException("Receipt PDF is empty");
-            }
-            PDFRenderer renderer = new PDFRenderer(document);
-            return renderer.renderImageWithDPI(0, 220, ImageType.RGB);
+    private static UUID tenantId(Attachment receipt) {
+        return receipt.getTenant() != null ? receipt.getTenant().getId() : null;
+    }
+
+    /**
+     * Summary crops come from the full processed image, except for multi-page PDFs where they are cut from the
+     * summary page alone.
+     */
+    private BufferedImage summaryRegionSource(ReceiptImagePreprocessor.ProcessedReceiptImage processedImage,
+                                              PdfReceiptIngestor.IngestedPdf pdf) {
+        if (pdf == null || pdf.pages().size() == 1) {
+            return processedImage.image();
         }
+        return receiptImagePreprocessor.preprocess(pdf.summaryImage()).image();
     }
 
     private BufferedImage normalizeImage(byte[] imageBytes) throws IOException {
@@ -329,13 +357,6 @@ public class ReceiptExtractionServiceImpl implements ReceiptExtractionService {
         }
     }
 
-    private byte[] toPngBytes(BufferedImage image) throws IOException {
-        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-            ImageIO.write(image, "png", outputStream);
-            return outputStream.toByteArray();
-        }
-    }
-
     private Instant parseDate(String value) {
         String normalized = normalize(value);
         if (normalized == null) {
@@ -393,6 +414,7 @@ public class ReceiptExtractionServiceImpl implements ReceiptExtractionService {
                     pdfEmbeddedText == null ? "" : pdfEmbeddedText,
                     unusedSummary,
                     new ReceiptTextInterpretationContext(
+                            tenantId(receipt),
                             receipt.getFileName(),
                             receipt.getContentType(),
                             normalize(receipt.getDescription())
@@ -484,13 +506,14 @@ public class ReceiptExtractionServiceImpl implements ReceiptExtractionService {
             ReceiptExtractionClient.ReceiptVisionDocument summaryDocument =
                     toVisionDocument(receipt, variant.image(), "summary-region:%s:%s".formatted(crop.id(), variant.id()), attemptLabel);
             log.info(
-                    "[summary-vision-debug] receipt={} attempt={} crop={}x{} processed={}x{} pngBytes={}",
+                    "[summary-vision-debug] receipt={} attempt={} crop={}x{} processed={}x{} encoded={} bytes={}",
                     receipt.getId(),
                     attemptLabel,
                     crop.width(),
                     crop.height(),
                     variant.image().getWidth(),
                     variant.image().getHeight(),
+                    summaryDocument.imageMimeType(),
                     summaryDocument.imageByteSize());
             try {
                 log.info("Receipt extraction provider attempt for {} [{}]: dims={}x{}, bytes={}",
@@ -568,8 +591,10 @@ public class ReceiptExtractionServiceImpl implements ReceiptExtractionService {
         String candidateSourceText = buildVisionCandidateExtractionText(
                 summaryConsensus.rawText(),
                 fullExtracted.rawExtractedText());
+        // Lexed once here; the date ranker reads the same lines after the amount decision.
+        ReceiptText candidateText = ReceiptText.of(normalizeRawText(candidateSourceText));
         ReceiptAmountCandidateExtractor.CandidateExtractionResult candidates =
-                amountCandidateExtractor.extractCandidates(normalizeRawText(candidateSourceText));
+                amountCandidateExtractor.extractCandidates(candidateText);
         log.debug(
                 "Receipt amount decision INPUTS for {}: summaryConsensus(subtotal={} {}, tax={} {}, total={} {}, amountPaid={} {}), "
                         + "summaryNotes={}, fullImageVision(subtotal={}, tax={}, total={}, amountPaid={}, suggestedAmount={}, overallConfidence={}), "
@@ -618,7 +643,7 @@ public class ReceiptExtractionServiceImpl implements ReceiptExtractionService {
         String reviewCombined = combineRawTexts(
                 normalizeRawText(fullExtracted.rawExtractedText()),
                 normalizeRawText(summaryConsensus.rawText()));
-        return new ExtractionComputation(summaryConsensus, amountDecision, reviewCombined);
+        return new ExtractionComputation(summaryConsensus, amountDecision, reviewCombined, candidateText);
     }
 
     private static String explainTotalSelection(ReceiptTotalSource totalSource) {
@@ -766,7 +791,8 @@ public class ReceiptExtractionServiceImpl implements ReceiptExtractionService {
     private record ExtractionComputation(
             SummaryFieldConsensusService.SummaryConsensusResult summaryConsensus,
             ReceiptExtractionDecisionService.ReceiptAmountDecision amountDecision,
-            String reviewCombinedRawText
+            String reviewCombinedRawText,
+            ReceiptText candidateText
     ) {
     }
 }
@@ -0,0 +1,29 @@
+package com.roofingcrm.service.accounting;
+
+import java.time.Duration;
+
+/**
+ * Thrown by {@link ReceiptExtractionGateway} when a call is refused before reaching the provider: the circuit is
+ * open, the provider asked us to back off, the tenant's token budget is spent, or no concurrency permit freed up in
+ * time. Unlike its parent this is temporary; retrying later can succeed.
+ */
+public class ReceiptExtractionThrottledException extends ReceiptExtractionUnavailableException {
+
+    private final Duration retryAfter;
+
+    public ReceiptExtractionThrottledException(String message) {
+        this(message, null);
+    }
+
+    /**
+     * @param retryAfter when the refusal ends (circuit reopens for a trial, budget window resets), if known.
+     */
+    public ReceiptExtractionThrottledException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,141 @@
+package com.roofingcrm.service.accounting;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * Encodes a processed receipt image for the vision provider. Receipts are text on paper, so the image is sent in
+ * grayscale; both lossless PNG and JPEG are tried and the smaller encoding wins (binarized crops compress far better
+ * as PNG, photographed receipts as JPEG). If the result is over the byte budget, JPEG quality is stepped down and
+ * then the image is downscaled until it fits, since an oversized upload is slower and more likely to be rejected
+ * than a slightly softer one.
+ */
+public class ReceiptImageEncoder {
+
+    static final String PNG = "image/png";
+    static final String JPEG = "image/jpeg";
+
+    /** JPEG qualities tried, in order, once the preferred quality is over budget. */
+    private static final float[] FALLBACK_JPEG_QUALITIES = {0.75f, 0.65f};
+    /** Below this the text stops being reliably legible, so we stop shrinking and send what we have. */
+    private static final int MIN_DIMENSION = 480;
+    private static final int MAX_DOWNSCALE_ROUNDS = 4;
+    /**
+     * Starting capacity of an encoding buffer. Grayscale receipts encode to tens of kilobytes, so the buffer rarely
+     * grows; sizing it from the raster would hold megabytes per encoding instead.
+     */
+    private static final int INITIAL_OUTPUT_BYTES = 32 * 1024;
+
+    private final int maxBytes;
+    private final float jpegQuality;
+
+    public ReceiptImageEncoder(int maxBytes, float jpegQuality) {
+        this.maxBytes = maxBytes;
+        this.jpegQuality = Math.max(0.1f, Math.min(1.0f, jpegQuality));
+    }
+
+    public EncodedImage encode(BufferedImage image) throws IOException {
+        BufferedImage current = toGrayscale(image);
+        EncodedImage best = smallest(encodePng(current), encodeJpeg(current, jpegQuality));
+        if (maxBytes <= 0 || best.byteSize() <= maxBytes) {
+            return best;
+        }
+        for (float quality : FALLBACK_JPEG_QUALITIES) {
+            if (quality >= jpegQuality) {
+                continue;
+            }
+            best = smallest(best, encodeJpeg(current, quality));
+            if (best.byteSize() <= maxBytes) {
+                return best;
+            }
+        }
+        for (int round = 0; round < MAX_DOWNSCALE_ROUNDS && best.byteSize() > maxBytes; round++) {
+            // Encoded size scales roughly with pixel count; aim a little under the budget to avoid another round.
+            double scale = Math.sqrt(maxBytes * 0.9 / best.byteSize());
+            int width = (int) Math.round(current.getWidth() * scale);
+            int height = (int) Math.round(current.getHeight() * scale);
+            if (Math.min(width, height) < MIN_DIMENSION) {
+                break;
+            }
+            current = resize(current, width, height);
+            best = smallest(encodePng(current), encodeJpeg(current, FALLBACK_JPEG_QUALITIES[0]));
+        }
+        return best;
+    }
+
+    static BufferedImage toGrayscale(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_BYTE_GRAY) {
+            return image;
+        }
+        BufferedImage gray = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D graphics = gray.createGraphics();
+        try {
+            graphics.drawImage(image, 0, 0, null);
+        } finally {
+            graphics.dispose();
+        }
+        return gray;
+    }
+
+    private static BufferedImage resize(BufferedImage source, int width, int height) {
+        BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D graphics = resized.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return resized;
+    }
+
+    private static EncodedImage smallest(EncodedImage first, EncodedImage second) {
+        return second.byteSize() < first.byteSize() ? second : first;
+    }
+
+    private static EncodedImage encodePng(BufferedImage image) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(INITIAL_OUTPUT_BYTES);
+        ImageIO.write(image, "png", outputStream);
+        return new EncodedImage(PNG, outputStream.toByteArray(), image.getWidth(), image.getHeight());
+    }
+
+    private static EncodedImage encodeJpeg(BufferedImage image, float quality) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+        if (!writers.hasNext()) {
+            throw new IOException("No JPEG image writer available");
+        }
+        ImageWriter writer = writers.next();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(INITIAL_OUTPUT_BYTES);
+        try (ImageOutputStream imageOutputStream = ImageIO.createImageOutputStream(outputStream)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.setOutput(imageOutputStream);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return new EncodedImage(JPEG, outputStream.toByteArray(), image.getWidth(), image.getHeight());
+    }
+
+    /**
+     * The encoded image handed to {@link ReceiptExtractionClient}. {@code bytes} is the raw encoding; the client
+     * Base64-encodes it while writing the request, so no Base64 copy is ever held in memory.
+     */
+    public record EncodedImage(String mimeType, byte[] bytes, int width, int height) {
+
+        public int byteSize() {
+            return bytes.length;
+        }
+    }
+}
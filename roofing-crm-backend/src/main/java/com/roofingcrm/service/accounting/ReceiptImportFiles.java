@@ -0,0 +1,192 @@
+package com.roofingcrm.service.accounting;
+
+import org.springframework.lang.NonNull;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * File handling for bulk receipt imports: content hashes, ZIP detection, and spooling ZIP entries to temp files so
+ * each entry can be validated and stored like an uploaded part without holding the archive in memory.
+ */
+final class ReceiptImportFiles {
+
+    private static final Map<String, String> CONTENT_TYPES_BY_EXTENSION = Map.of(
+            "pdf", "application/pdf",
+            "jpg", "image/jpeg",
+            "jpeg", "image/jpeg",
+            "png", "image/png",
+            "gif", "image/gif",
+            "webp", "image/webp",
+            "heic", "image/heic");
+
+    private ReceiptImportFiles() {
+    }
+
+    /** SHA-256 of the file bytes, hex encoded; receipts with the same hash are the same file. */
+    static String contentHash(MultipartFile file) {
+        try (InputStream in = file.getInputStream()) {
+            MessageDigest digest = sha256();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Uploaded file could not be read.");
+        }
+    }
+
+    static boolean isZip(MultipartFile file) {
+        String contentType = file.getContentType() == null ? "" : file.getContentType().toLowerCase(Locale.ROOT);
+        return contentType.startsWith("application/zip")
+                || contentType.startsWith("application/x-zip")
+                || "zip".equals(extension(file.getOriginalFilename()));
+    }
+
+    /**
+     * Entries that are not receipts: folders, macOS resource forks and hidden files. Returns the entry's file name
+     * otherwise.
+     */
+    static String receiptEntryName(String entryName, boolean directory) {
+        if (directory || entryName == null || entryName.startsWith("__MACOSX/")) {
+            return null;
+        }
+        String name = entryName.substring(Math.max(entryName.lastIndexOf('/'), entryName.lastIndexOf('\\')) + 1);
+        return name.isBlank() || name.startsWith(".") ? null : name;
+    }
+
+    /** Archive entries carry no content type; it is taken from the extension and checked against the bytes later. */
+    static String contentTypeFor(String fileName) {
+        return CONTENT_TYPES_BY_EXTENSION.getOrDefault(extension(fileName), "application/octet-stream");
+    }
+
+    /**
+     * Copies {@code in} (an open ZIP entry, left open) to a temp file while hashing it.
+     *
+     * @throws IllegalArgumentException when the entry is larger than {@code maxBytes}
+     */
+    static SpooledFile spool(InputStream in, String fileName, long maxBytes, String maxSizeDisplay) throws IOException {
+        Path path = Files.createTempFile("receipt-import-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            long size = 0;
+            try (OutputStream out = Files.newOutputStream(path)) {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxBytes) {
+                        throw new IllegalArgumentException(
+                                "File is too large. Maximum size is " + maxSizeDisplay + ".");
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+            return new SpooledFile(path, fileName, contentTypeFor(fileName), size,
+                    HexFormat.of().formatHex(digest.digest()));
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(path);
+            throw e;
+        }
+    }
+
+    private static String extension(String fileName) {
+        if (fileName == null) {
+            return "";
+        }
+        int dot = fileName.lastIndexOf('.');
+        return dot < 0 ? "" : fileName.substring(dot + 1).toLowerCase(Locale.ROOT);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /** A ZIP entry spooled to disk, exposed as an upload part; closing it deletes the temp file. */
+    static final class SpooledFile implements MultipartFile, AutoCloseable {
+
+        private final Path path;
+        private final String fileName;
+        private final String contentType;
+        private final long size;
+        private final String contentHash;
+
+        private SpooledFile(Path path, String fileName, String contentType, long size, String contentHash) {
+            this.path = path;
+            this.fileName = fileName;
+            this.contentType = contentType;
+            this.size = size;
+            this.contentHash = contentHash;
+        }
+
+        String contentHash() {
+            return contentHash;
+        }
+
+        @Override
+        @NonNull
+        public String getName() {
+            return "files";
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return fileName;
+        }
+
+        @Override
+        public String getContentType() {
+            return contentType;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        @Override
+        public long getSize() {
+            return size;
+        }
+
+        @Override
+        @NonNull
+        public byte[] getBytes() throws IOException {
+            return Files.readAllBytes(path);
+        }
+
+        @Override
+        @NonNull
+        public InputStream getInputStream() throws IOException {
+            return Files.newInputStream(path);
+        }
+
+        @Override
+        public void transferTo(@NonNull File dest) throws IOException {
+            Files.copy(path, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        @Override
+        public void close() throws IOException {
+            Files.deleteIfExists(path);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.roofingcrm.service.accounting;
+
+import com.roofingcrm.api.v1.accounting.ReceiptImportBatchDto;
+import org.springframework.lang.NonNull;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface ReceiptImportService {
+
+    /**
+     * Stores each file (ZIP archives are expanded) as a receipt of the job, skipping files the job already has, and
+     * queues extraction of the stored receipts when {@code extract} is set.
+     */
+    ReceiptImportBatchDto importReceipts(@NonNull UUID tenantId, @NonNull UUID userId, UUID jobId,
+                                         List<MultipartFile> files, boolean extract);
+
+    ReceiptImportBatchDto getImportBatch(@NonNull UUID tenantId, @NonNull UUID userId, UUID jobId, UUID batchId);
+}
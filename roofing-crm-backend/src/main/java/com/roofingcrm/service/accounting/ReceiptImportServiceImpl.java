@@ -0,0 +1,427 @@
+package com.roofingcrm.service.accounting;
+
+import com.roofingcrm.api.v1.accounting.ReceiptImportBatchDto;
+import com.roofingcrm.api.v1.accounting.ReceiptImportItemDto;
+import com.roofingcrm.domain.entity.Attachment;
+import com.roofingcrm.domain.entity.Job;
+import com.roofingcrm.domain.entity.ReceiptImportBatch;
+import com.roofingcrm.domain.entity.ReceiptImportItem;
+import com.roofingcrm.domain.entity.Tenant;
+import com.roofingcrm.domain.enums.ActivityEntityType;
+import com.roofingcrm.domain.enums.ActivityEventType;
+import com.roofingcrm.domain.enums.AttachmentTag;
+import com.roofingcrm.domain.enums.ReceiptExtractionStatus;
+import com.roofingcrm.domain.enums.ReceiptImportItemStatus;
+import com.roofingcrm.domain.enums.UserRole;
+import com.roofingcrm.domain.repository.AttachmentRepository;
+import com.roofingcrm.domain.repository.JobRepository;
+import com.roofingcrm.domain.repository.ReceiptImportBatchRepository;
+import com.roofingcrm.service.activity.ActivityEventService;
+import com.roofingcrm.service.attachment.AttachmentUploadContext;
+import com.roofingcrm.service.attachment.AttachmentUploadProperties;
+import com.roofingcrm.service.attachment.AttachmentUploadValidator;
+import com.roofingcrm.service.audit.AuditSupport;
+import com.roofingcrm.service.exception.ResourceNotFoundException;
+import com.roofingcrm.service.tenant.TenantAccessService;
+import com.roofingcrm.storage.AttachmentStorageService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Bulk receipt import. Files are handled one at a time: each is hashed, compared against the job's receipts and the
+ * files already seen in the batch, validated like a single receipt upload and streamed to storage. ZIP entries are
+ * spooled to a temp file first, so neither an archive nor a batch is ever held in memory. A file that fails is
+ * recorded on its item and does not stop the rest of the batch.
+ * <p>
+ * Spooling, hashing and storing run outside any transaction, so a large import does not hold a pooled connection
+ * while it streams files. The access check and the job's known hashes are read in one short transaction and all rows
+ * are written in another at the end; if that one does not commit, the files it would have referenced are deleted
+ * from storage. Extraction is handed to {@link ReceiptBatchExtractionDispatcher} after commit.
+ */
+@Service
+public class ReceiptImportServiceImpl implements ReceiptImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReceiptImportServiceImpl.class);
+
+    private static final Set<UserRole> MUTATION_ROLES = Set.of(UserRole.OWNER, UserRole.ADMIN, UserRole.SALES);
+
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final TenantAccessService tenantAccessService;
+    private final AttachmentRepository attachmentRepository;
+    private final JobRepository jobRepository;
+    private final ReceiptImportBatchRepository batchRepository;
+    private final AttachmentStorageService attachmentStorageService;
+    private final ActivityEventService activityEventService;
+    private final AttachmentUploadValidator uploadValidator;
+    private final AttachmentUploadProperties uploadProperties;
+    private final ReceiptBatchExtractionDispatcher extractionDispatcher;
+    private final TransactionOperations transactionOperations;
+    private final int maxFiles;
+
+    @Autowired
+    public ReceiptImportServiceImpl(TenantAccessService tenantAccessService,
+                                    AttachmentRepository attachmentRepository,
+                                    JobRepository jobRepository,
+                                    ReceiptImportBatchRepository batchRepository,
+                                    AttachmentStorageService attachmentStorageService,
+                                    ActivityEventService activityEventService,
+                                    AttachmentUploadValidator uploadValidator,
+                                    AttachmentUploadProperties uploadProperties,
+                                    ReceiptBatchExtractionDispatcher extractionDispatcher,
+                                    ReceiptExtractionProperties extractionProperties,
+                                    TransactionOperations transactionOperations) {
+        this.tenantAccessService = tenantAccessService;
+        this.attachmentRepository = attachmentRepository;
+        this.jobRepository = jobRepository;
+        this.batchRepository = batchRepository;
+        this.attachmentStorageService = attachmentStorageService;
+        this.activityEventService = activityEventService;
+        this.uploadValidator = uploadValidator;
+        this.uploadProperties = uploadProperties;
+        this.extractionDispatcher = extractionDispatcher;
+        this.transactionOperations = transactionOperations;
+        this.maxFiles = Math.max(1, extractionProperties.getBatch().getMaxFiles());
+    }
+
+    @Override
+    public ReceiptImportBatchDto importReceipts(@NonNull UUID tenantId, @NonNull UUID userId, UUID jobId,
+                                                List<MultipartFile> files, boolean extract) {
+        BatchImport batchImport = Objects.requireNonNull(transactionOperations.execute(status -> {
+            tenantAccessService.requireAnyRole(tenantId, userId, Objects.requireNonNull(MUTATION_ROLES),
+                    "You do not have permission to manage receipts.");
+            Tenant tenant = tenantAccessService.loadTenantForUserOrThrow(tenantId, userId);
+            Job job = loadJob(jobId, tenant);
+            BatchImport started = new BatchImport(tenant, job, userId);
+            for (AttachmentRepository.ContentHashView existing
+                    : attachmentRepository.findContentHashesForJob(tenant, job, AttachmentTag.RECEIPT)) {
+                started.existingByHash.putIfAbsent(existing.getContentHash(), existing.getId());
+            }
+            return started;
+        }));
+        if (files == null || files.isEmpty()) {
+            throw new IllegalArgumentException("Choose at least one receipt file or ZIP archive to import.");
+        }
+        if (files.size() > maxFiles) {
+            throw new IllegalArgumentException("Too many files. Import at most " + maxFiles + " receipts at a time.");
+        }
+
+        try {
+            for (MultipartFile file : files) {
+                if (batchImport.limitReached) {
+                    break;
+                }
+                if (ReceiptImportFiles.isZip(file)) {
+                    importArchive(batchImport, file);
+                } else {
+                    importPart(batchImport, file);
+                }
+            }
+            ReceiptImportBatchDto result = transactionOperations.execute(status -> persist(batchImport, extract));
+            batchImport.committed = true;
+            return result;
+        } catch (RuntimeException ex) {
+            if (!batchImport.committed) {
+                deleteStoredFiles(batchImport);
+            }
+            throw ex;
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ReceiptImportBatchDto getImportBatch(@NonNull UUID tenantId, @NonNull UUID userId, UUID jobId, UUID batchId) {
+        Tenant tenant = tenantAccessService.loadTenantForUserOrThrow(tenantId, userId);
+        ReceiptImportBatch batch = batchRepository.findByIdAndJobIdAndTenantAndArchivedFalse(batchId, jobId, tenant)
+                .orElseThrow(() -> new ResourceNotFoundException("Receipt import not found"));
+        return toBatchDto(batch, List.of());
+    }
+
+    /** Writes the receipts, the batch and its items; runs in the import's only write transaction. */
+    private ReceiptImportBatchDto persist(BatchImport batchImport, boolean extract) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    batchImport.committed = true;
+                }
+            });
+        }
+        List<Attachment> storedReceipts = batchImport.storedReceipts();
+        storedReceipts.forEach(attachmentRepository::save);
+        batchImport.existingDuplicates.forEach((item, receiptId) ->
+                item.setAttachment(attachmentRepository.getReferenceById(receiptId)));
+        batchImport.batch.setExtractionRequested(extract);
+        ReceiptImportBatch saved = batchRepository.save(batchImport.batch);
+
+        List<UUID> stored = storedReceipts.stream().map(Attachment::getId).toList();
+        if (extract && !stored.isEmpty()) {
+            extractionDispatcher.enqueueAfterCommit(batchImport.tenant.getId(), batchImport.userId,
+                    batchImport.job.getId(), stored);
+        }
+        recordImportEvent(batchImport, saved);
+        log.info("Receipt import {} for job {}: files={}, stored={}, duplicates={}, rejected={}, extract={}",
+                saved.getId(), batchImport.job.getId(), saved.getItems().size(), stored.size(),
+                count(saved, ReceiptImportItemStatus.DUPLICATE), count(saved, ReceiptImportItemStatus.REJECTED), extract);
+        return toBatchDto(saved, storedReceipts);
+    }
+
+    private void deleteStoredFiles(BatchImport batchImport) {
+        for (Attachment receipt : batchImport.storedByHash.values()) {
+            try {
+                attachmentStorageService.delete(receipt.getStorageKey());
+            } catch (RuntimeException ex) {
+                log.warn("Receipt import could not delete orphaned file {}", receipt.getStorageKey(), ex);
+            }
+        }
+    }
+
+    private void importPart(BatchImport batchImport, MultipartFile file) {
+        String fileName = fileNameOf(file.getOriginalFilename());
+        if (!batchImport.admit(fileName, maxFiles)) {
+            return;
+        }
+        try {
+            importFile(batchImport, file, fileName, ReceiptImportFiles.contentHash(file));
+        } catch (IllegalArgumentException ex) {
+            batchImport.reject(fileName, null, ex.getMessage());
+        }
+    }
+
+    private void importArchive(BatchImport batchImport, MultipartFile archive) {
+        String archiveName = fileNameOf(archive.getOriginalFilename());
+        long maxBytes = uploadProperties.getMaxFileSize().toBytes();
+        try (InputStream in = archive.getInputStream();
+             ZipInputStream zip = new ZipInputStream(in, StandardCharsets.UTF_8)) {
+            ZipEntry entry;
+            int entries = 0;
+            while ((entry = zip.getNextEntry()) != null) {
+                String fileName = ReceiptImportFiles.receiptEntryName(entry.getName(), entry.isDirectory());
+                if (fileName == null) {
+                    continue;
+                }
+                if (!batchImport.admit(fileName, maxFiles)) {
+                    return;
+                }
+                entries++;
+                try (ReceiptImportFiles.SpooledFile spooled = ReceiptImportFiles.spool(
+                        zip, fileName, maxBytes, uploadProperties.getMaxFileSizeDisplayString())) {
+                    importFile(batchImport, spooled, fileName, spooled.contentHash());
+                } catch (IllegalArgumentException ex) {
+                    batchImport.reject(fileName, null, ex.getMessage());
+                }
+            }
+            if (entries == 0) {
+                batchImport.reject(archiveName, null, "Archive contains no files.");
+            }
+        } catch (IOException | IllegalArgumentException ex) {
+            log.warn("Receipt import could not read archive {}: {}", archiveName, ex.getMessage());
+            batchImport.reject(archiveName, null, "Archive could not be read. Upload a standard ZIP file.");
+        }
+    }
+
+    /** Dedups, validates and stores one file; validation failures surface as IllegalArgumentException. */
+    private void importFile(BatchImport batchImport, MultipartFile file, String fileName, String contentHash) {
+        Attachment duplicateOf = batchImport.storedByHash.get(contentHash);
+        if (duplicateOf != null) {
+            batchImport.addItem(fileName, contentHash, ReceiptImportItemStatus.DUPLICATE).setAttachment(duplicateOf);
+            return;
+        }
+        UUID existingId = batchImport.existingByHash.get(contentHash);
+        if (existingId != null) {
+            batchImport.existingDuplicates.put(
+                    batchImport.addItem(fileName, contentHash, ReceiptImportItemStatus.DUPLICATE), existingId);
+            return;
+        }
+        uploadValidator.validate(file, AttachmentUploadContext.JOB_RECEIPT);
+
+        Attachment receipt = new Attachment();
+        receipt.setTenant(batchImport.tenant);
+        receipt.setJob(batchImport.job);
+        receipt.setFileName(fileName);
+        receipt.setContentType(file.getContentType());
+        receipt.setFileSize(file.getSize());
+        receipt.setStorageProvider("LOCAL");
+        receipt.setTag(AttachmentTag.RECEIPT);
+        receipt.setContentHash(contentHash);
+        AuditSupport.touchForCreate(receipt, batchImport.userId);
+        try {
+            // The row does not exist yet, so the file is named by its own id rather than the attachment's.
+            receipt.setStorageKey(attachmentStorageService.store(batchImport.tenantSlug, UUID.randomUUID(), file));
+        } catch (RuntimeException ex) {
+            log.warn("Receipt import could not store {}", fileName, ex);
+            batchImport.reject(fileName, contentHash, "File could not be stored. Try uploading it again.");
+            return;
+        }
+
+        batchImport.storedByHash.put(contentHash, receipt);
+        batchImport.addItem(fileName, contentHash, ReceiptImportItemStatus.STORED).setAttachment(receipt);
+    }
+
+    private Job loadJob(UUID jobId, Tenant tenant) {
+        return jobRepository.findByIdAndTenantAndArchivedFalse(jobId, tenant)
+                .orElseThrow(() -> new ResourceNotFoundException("Job not found"));
+    }
+
+    private void recordImportEvent(BatchImport batchImport, ReceiptImportBatch batch) {
+        int stored = batchImport.storedReceipts().size();
+        if (stored == 0) {
+            return;
+        }
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("importBatchId", batch.getId() != null ? batch.getId().toString() : null);
+        metadata.put("storedCount", stored);
+        metadata.put("duplicateCount", count(batch, ReceiptImportItemStatus.DUPLICATE));
+        metadata.put("rejectedCount", count(batch, ReceiptImportItemStatus.REJECTED));
+        activityEventService.recordEvent(batchImport.tenant, batchImport.userId, ActivityEntityType.JOB,
+                Objects.requireNonNull(batchImport.job.getId()), ActivityEventType.RECEIPT_UPLOADED,
+                stored == 1 ? "1 receipt imported" : stored + " receipts imported", metadata);
+    }
+
+    private static int count(ReceiptImportBatch batch, ReceiptImportItemStatus status) {
+        return (int) batch.getItems().stream().filter(item -> item.getStatus() == status).count();
+    }
+
+    /**
+     * @param justStored receipts stored by this request; their extraction has not been queued yet, so they are
+     *                   reported as pending even though the dispatcher may pick them up before this returns
+     */
+    private ReceiptImportBatchDto toBatchDto(ReceiptImportBatch batch, List<Attachment> justStored) {
+        ReceiptImportBatchDto dto = new ReceiptImportBatchDto();
+        dto.setId(batch.getId());
+        dto.setJobId(batch.getJob().getId());
+        dto.setCreatedAt(batch.getCreatedAt());
+        dto.setExtractionRequested(batch.isExtractionRequested());
+        dto.setFileCount(batch.getItems().size());
+
+        int pending = 0;
+        int completed = 0;
+        int failed = 0;
+        List<ReceiptImportItemDto> items = new ArrayList<>(batch.getItems().size());
+        for (ReceiptImportItem item : batch.getItems()) {
+            ReceiptImportItemDto itemDto = new ReceiptImportItemDto();
+            itemDto.setFileName(item.getFileName());
+            itemDto.setStatus(item.getStatus());
+            itemDto.setError(item.getError());
+            Attachment receipt = item.getAttachment();
+            if (receipt != null) {
+                itemDto.setReceiptId(receipt.getId());
+                ReceiptExtractionStatus extractionStatus = justStored.contains(receipt)
+                        ? ReceiptExtractionStatus.NOT_STARTED
+                        : receipt.getExtractionStatus();
+                itemDto.setExtractionStatus(extractionStatus);
+                if (item.getStatus() == ReceiptImportItemStatus.STORED) {
+                    switch (extractionStatus) {
+                        case COMPLETED -> completed++;
+                        case FAILED -> failed++;
+                        default -> pending++;
+                    }
+                }
+            }
+            items.add(itemDto);
+        }
+        dto.setStoredCount(count(batch, ReceiptImportItemStatus.STORED));
+        dto.setDuplicateCount(count(batch, ReceiptImportItemStatus.DUPLICATE));
+        dto.setRejectedCount(count(batch, ReceiptImportItemStatus.REJECTED));
+        dto.setExtractionPendingCount(pending);
+        dto.setExtractionCompletedCount(completed);
+        dto.setExtractionFailedCount(failed);
+        dto.setComplete(!batch.isExtractionRequested() || pending == 0);
+        dto.setItems(items);
+        return dto;
+    }
+
+    private static String fileNameOf(String originalFilename) {
+        return originalFilename == null || originalFilename.isBlank() ? "(unnamed)" : originalFilename;
+    }
+
+    private static String truncate(String value) {
+        if (value == null || value.length() <= MAX_ERROR_LENGTH) {
+            return value;
+        }
+        return value.substring(0, MAX_ERROR_LENGTH - 3) + "...";
+    }
+
+    /** State of one import request. */
+    private static final class BatchImport {
+
+        private final Tenant tenant;
+        private final String tenantSlug;
+        private final Job job;
+        private final UUID userId;
+        private final ReceiptImportBatch batch = new ReceiptImportBatch();
+        /** Content hash to the job's receipt holding it, as of the start of the import. */
+        private final Map<String, UUID> existingByHash = new HashMap<>();
+        /** Receipts stored by this import, in order; saved when the import commits. */
+        private final Map<String, Attachment> storedByHash = new LinkedHashMap<>();
+        /** Duplicate items to the id of the job's existing receipt, resolved when the import commits. */
+        private final Map<ReceiptImportItem, UUID> existingDuplicates = new LinkedHashMap<>();
+        private boolean limitReached;
+        private volatile boolean committed;
+
+        private BatchImport(Tenant tenant, Job job, UUID userId) {
+            this.tenant = tenant;
+            this.tenantSlug = tenant.getSlug() != null ? tenant.getSlug() : tenant.getId().toString();
+            this.job = job;
+            this.userId = userId;
+            batch.setTenant(tenant);
+            batch.setJob(job);
+            AuditSupport.touchForCreate(batch, userId);
+        }
+
+        private List<Attachment> storedReceipts() {
+            return List.copyOf(storedByHash.values());
+        }
+
+        /** False, after recording why, once the batch already holds {@code maxFiles} files. */
+        private boolean admit(String fileName, int maxFiles) {
+            if (batch.getItems().size() < maxFiles) {
+                return true;
+            }
+            limitReached = true;
+            reject(fileName, null, "Import limit of " + maxFiles + " files reached; this and later files were skipped.");
+            return false;
+        }
+
+        private ReceiptImportItem addItem(String fileName, String contentHash, ReceiptImportItemStatus status) {
+            ReceiptImportItem item = new ReceiptImportItem();
+            item.setBatch(batch);
+            item.setSortOrder(batch.getItems().size());
+            item.setFileName(truncateFileName(fileName));
+            item.setContentHash(contentHash);
+            item.setStatus(status);
+            batch.getItems().add(item);
+            return item;
+        }
+
+        private void reject(String fileName, String contentHash, String error) {
+            addItem(fileName, contentHash, ReceiptImportItemStatus.REJECTED).setError(truncate(error));
+        }
+
+        private static String truncateFileName(String fileName) {
+            return fileName.length() <= 255 ? fileName : fileName.substring(0, 255);
+        }
+    }
+}
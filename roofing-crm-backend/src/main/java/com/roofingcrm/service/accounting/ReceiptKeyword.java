@@ -0,0 +1,85 @@
+package com.roofingcrm.service.accounting;
+
+/**
+ * Every label the amount extractor, summary parser and date ranker look for in a receipt line. {@link ReceiptText}
+ * finds all of them in one pass per line; consumers test the resulting bit set with {@link #mask(ReceiptKeyword...)}.
+ * Literals are upper case and matched against upper-cased lines with whitespace runs collapsed to one space.
+ */
+enum ReceiptKeyword {
+
+    SUBTOTAL("SUBTOTAL"),
+    SUB_TOTAL("SUB TOTAL"),
+    SUB_DASH_TOTAL("SUB-TOTAL"),
+    SUB("SUB"),
+    TOT("TOT"),
+    TOTAL("TOTAL"),
+    TOTAL_COLON("TOTAL:"),
+    GRAND_TOTAL("GRAND TOTAL"),
+    ORDER_TOTAL("ORDER TOTAL"),
+    TOTAL_DUE("TOTAL DUE"),
+    BALANCE_DUE("BALANCE DUE"),
+    AMOUNT_DUE("AMOUNT DUE"),
+    DUE("DUE"),
+    TAX("TAX"),
+    TAX_TOTAL("TAX TOTAL"),
+    TAXTOTAL("TAXTOTAL"),
+    TAX_RATE("TAX RATE"),
+    SALES_TAX("SALES TAX"),
+    GST("GST"),
+    VAT("VAT"),
+    HST("HST"),
+    AMOUNT("AMOUNT"),
+    AMOUNT_PAID("AMOUNT PAID"),
+    PAID("PAID"),
+    PAID_COLON("PAID:"),
+    PAYMENT("PAYMENT"),
+    CARD_PAYMENT("CARD PAYMENT"),
+    CHANGE("CHANGE"),
+    TIP("TIP"),
+    DISCOUNT("DISCOUNT"),
+    SAVINGS("SAVINGS"),
+    DEPOSIT("DEPOSIT"),
+    ITEM("ITEM"),
+    SKU("SKU"),
+    QTY("QTY"),
+    RATE("RATE"),
+    UNIT_PRICE("UNIT PRICE"),
+    PRICE("PRICE"),
+    EACH("EACH"),
+    DATE("DATE"),
+    ORDER_DATE("ORDER DATE"),
+    PICK_UP_DATE("PICK UP DATE"),
+    PICKUP_DATE("PICKUP DATE"),
+    DELIVERY_DATE("DELIVERY DATE"),
+    INVOICE_DATE("INVOICE DATE"),
+    SALE_DATE("SALE DATE"),
+    TRANSACTION_DATE("TRANSACTION DATE");
+
+    static {
+        if (values().length > Long.SIZE) {
+            throw new IllegalStateException("ReceiptKeyword sets are long bit masks; at most 64 keywords");
+        }
+    }
+
+    private final String literal;
+
+    ReceiptKeyword(String literal) {
+        this.literal = literal;
+    }
+
+    String literal() {
+        return literal;
+    }
+
+    long bit() {
+        return 1L << ordinal();
+    }
+
+    static long mask(ReceiptKeyword... keywords) {
+        long mask = 0;
+        for (ReceiptKeyword keyword : keywords) {
+            mask |= keyword.bit();
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,100 @@
+package com.roofingcrm.service.accounting;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+
+/**
+ * Aho-Corasick automaton over all {@link ReceiptKeyword} literals, compiled to a dense transition table on the ASCII
+ * range. Feeding a line one character at a time yields every keyword occurring in it, overlapping ones included, in a
+ * single left-to-right pass. Characters outside ASCII never occur in a keyword and send the automaton back to its root.
+ * Immutable once built, so one instance is shared by all threads.
+ */
+final class ReceiptKeywordAutomaton {
+
+    static final ReceiptKeywordAutomaton INSTANCE = new ReceiptKeywordAutomaton(ReceiptKeyword.values());
+
+    private static final int ROOT = 0;
+    private static final int ALPHABET = 128;
+
+    private final int[][] transitions;
+    /** Keywords ending at each state, including those reached through failure links. */
+    private final long[] outputs;
+
+    ReceiptKeywordAutomaton(ReceiptKeyword[] keywords) {
+        int maxStates = 1;
+        for (ReceiptKeyword keyword : keywords) {
+            maxStates += keyword.literal().length();
+        }
+        int[][] trie = new int[maxStates][ALPHABET];
+        long[] out = new long[maxStates];
+        for (int[] row : trie) {
+            Arrays.fill(row, -1);
+        }
+        int states = 1;
+        for (ReceiptKeyword keyword : keywords) {
+            int state = ROOT;
+            for (char c : keyword.literal().toCharArray()) {
+                if (trie[state][c] < 0) {
+                    trie[state][c] = states++;
+                }
+                state = trie[state][c];
+            }
+            out[state] |= keyword.bit();
+        }
+
+        // Breadth-first over the trie: missing edges become the failure state's edge, turning the trie into a DFA.
+        int[] failure = new int[states];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int c = 0; c < ALPHABET; c++) {
+            int next = trie[ROOT][c];
+            if (next < 0) {
+                trie[ROOT][c] = ROOT;
+            } else {
+                failure[next] = ROOT;
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            out[state] |= out[failure[state]];
+            for (int c = 0; c < ALPHABET; c++) {
+                int next = trie[state][c];
+                if (next < 0) {
+                    trie[state][c] = trie[failure[state]][c];
+                } else {
+                    failure[next] = trie[failure[state]][c];
+                    queue.add(next);
+                }
+            }
+        }
+        this.transitions = Arrays.copyOf(trie, states);
+        this.outputs = Arrays.copyOf(out, states);
+    }
+
+    /** Keyword bits for every keyword in {@code text}, case-insensitively and with whitespace runs collapsed. */
+    long scan(CharSequence text, int from, int to) {
+        int state = ROOT;
+        long found = 0;
+        boolean pendingSpace = false;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = true;
+                continue;
+            }
+            if (pendingSpace) {
+                state = step(state, ' ');
+                found |= outputs[state];
+                pendingSpace = false;
+            }
+            state = step(state, Character.toUpperCase(c));
+            found |= outputs[state];
+        }
+        return found;
+    }
+
+    private int step(int state, char upper) {
+        return upper < ALPHABET ? transitions[state][upper] : ROOT;
+    }
+}
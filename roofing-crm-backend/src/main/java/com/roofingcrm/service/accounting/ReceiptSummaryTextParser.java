@@ -4,7 +4,6 @@ import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.Locale;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -14,14 +13,30 @@ import java.util.regex.Pattern;
 @Component
 public class ReceiptSummaryTextParser {
 
-    private static final Pattern MONEY_PATTERN =
-            Pattern.compile("(?:\\$\\s*)?(\\d{1,3}(?:,\\d{3})*|\\d+)\\.\\d{2}(?!\\d)");
-
     private static final Pattern TAX_RATE_PATTERN =
             Pattern.compile("(?:^|[^\\d])(\\d{1,2}(?:\\.\\d{1,3})?)\\s*%");
 
     private static final int SUMMARY_TEXT_CONFIDENCE = 92;
 
+    private static final long TAXISH = ReceiptKeyword.mask(ReceiptKeyword.TAX, ReceiptKeyword.GST, ReceiptKeyword.VAT);
+    private static final long SUBTOTAL_LABELS = ReceiptKeyword.mask(
+            ReceiptKeyword.SUBTOTAL, ReceiptKeyword.SUB_TOTAL, ReceiptKeyword.SUB_DASH_TOTAL);
+    private static final long SUB_AND_TOT = ReceiptKeyword.mask(ReceiptKeyword.SUB, ReceiptKeyword.TOT);
+    private static final long SUBTOTAL = ReceiptKeyword.mask(ReceiptKeyword.SUBTOTAL);
+    private static final long SUB = ReceiptKeyword.mask(ReceiptKeyword.SUB);
+    private static final long TOTAL = ReceiptKeyword.mask(ReceiptKeyword.TOTAL);
+    private static final long TAX = ReceiptKeyword.mask(ReceiptKeyword.TAX);
+    private static final long TAX_TOTAL = ReceiptKeyword.mask(ReceiptKeyword.TAX_TOTAL, ReceiptKeyword.TAXTOTAL);
+    private static final long TAX_AMOUNT = ReceiptKeyword.mask(ReceiptKeyword.TAX, ReceiptKeyword.GST,
+            ReceiptKeyword.VAT, ReceiptKeyword.HST, ReceiptKeyword.SALES_TAX);
+    private static final long AMOUNT_PAID = ReceiptKeyword.mask(ReceiptKeyword.AMOUNT_PAID, ReceiptKeyword.PAYMENT,
+            ReceiptKeyword.CARD_PAYMENT, ReceiptKeyword.PAID_COLON);
+    private static final long NOT_GRAND_TOTAL = ReceiptKeyword.mask(ReceiptKeyword.SUBTOTAL, ReceiptKeyword.SUB_TOTAL);
+    private static final long TOTAL_OR_DUE = ReceiptKeyword.mask(ReceiptKeyword.TOTAL, ReceiptKeyword.DUE);
+    private static final long STRONG_TOTAL = ReceiptKeyword.mask(ReceiptKeyword.GRAND_TOTAL, ReceiptKeyword.TOTAL_DUE,
+            ReceiptKeyword.BALANCE_DUE, ReceiptKeyword.AMOUNT_DUE, ReceiptKeyword.TOTAL_COLON, ReceiptKeyword.ORDER_TOTAL);
+    private static final long SUB_OR_TAX_RATE = ReceiptKeyword.mask(ReceiptKeyword.SUB, ReceiptKeyword.TAX_RATE);
+
     public record NumericSummaryExtraction(
             ParsedNumericSummary parsed,
             ReceiptExtractionClient.ExtractedReceiptData extractedData
@@ -111,40 +126,43 @@ public class ReceiptSummaryTextParser {
      * Parses subtotal/tax/total/amount paid and optional tax rate from summary text.
      */
     public ParsedNumericSummary parseNumericSummary(String text) {
-        String[] lines = text.split("\\R");
+        return parseNumericSummary(ReceiptText.of(text));
+    }
+
+    /**
+     * Same as {@link #parseNumericSummary(String)} over already lexed text; labels are read from each line's keyword set.
+     */
+    public ParsedNumericSummary parseNumericSummary(ReceiptText text) {
         BigDecimal subtotal = null;
         BigDecimal tax = null;
         BigDecimal total = null;
         BigDecimal amountPaid = null;
         BigDecimal taxRatePercent = null;
 
-        for (String rawLine : lines) {
-            String line = rawLine.trim();
+        for (ReceiptText.Line line : text.lines()) {
             if (line.isEmpty()) {
                 continue;
             }
-            String upper = normalizeForMatching(line.toUpperCase(Locale.ROOT));
-            BigDecimal rate = parseTaxRatePercent(line);
-            if (rate != null && taxRatePercent == null && isTaxishLine(upper)) {
-                taxRatePercent = rate;
+            if (taxRatePercent == null && line.has(TAXISH)) {
+                taxRatePercent = parseTaxRatePercent(line.text());
             }
-            BigDecimal amount = firstMoney(line);
-            if (amount == null) {
+            if (line.amounts().isEmpty()) {
                 continue;
             }
-            if (isSubtotalLine(upper) && subtotal == null) {
+            BigDecimal amount = line.amounts().getFirst();
+            if (isSubtotalLine(line) && subtotal == null) {
                 subtotal = amount;
                 continue;
             }
-            if (isTaxAmountLine(upper) && tax == null) {
+            if (isTaxAmountLine(line) && tax == null) {
                 tax = amount;
                 continue;
             }
-            if (isAmountPaidLine(upper) && amountPaid == null) {
+            if (isAmountPaidLine(line) && amountPaid == null) {
                 amountPaid = amount;
                 continue;
             }
-            if (isGrandTotalLine(upper) && total == null) {
+            if (isGrandTotalLine(line) && total == null) {
                 total = amount;
             }
         }
@@ -156,11 +174,6 @@ public class ReceiptSummaryTextParser {
         return new ParsedNumericSummary(subtotal, tax, total, amountPaid, taxRatePercent);
     }
 
-    /** Collapses noisy spacing for label matching. */
-    private static String normalizeForMatching(String upper) {
-        return upper.replaceAll("\\s+", " ").trim();
-    }
-
     private static BigDecimal parseTaxRatePercent(String line) {
         Matcher matcher = TAX_RATE_PATTERN.matcher(line);
         if (!matcher.find()) {
@@ -173,68 +186,35 @@ public class ReceiptSummaryTextParser {
         }
     }
 
-    private static boolean isTaxishLine(String upper) {
-        return upper.contains("TAX") || upper.contains("GST") || upper.contains("VAT");
-    }
-
-    private static boolean isSubtotalLine(String upper) {
-        return upper.contains("SUBTOTAL")
-                || upper.contains("SUB TOTAL")
-                || upper.contains("SUB-TOTAL")
-                || (upper.contains("SUB") && upper.contains("TOT"));
+    private static boolean isSubtotalLine(ReceiptText.Line line) {
+        return line.has(SUBTOTAL_LABELS) || line.hasAll(SUB_AND_TOT);
     }
 
-    private static boolean isTaxAmountLine(String upper) {
-        if (upper.contains("SUBTOTAL")) {
+    private static boolean isTaxAmountLine(ReceiptText.Line line) {
+        if (line.has(SUBTOTAL)) {
             return false;
         }
-        if (upper.contains("TAX TOTAL") || upper.contains("TAXTOTAL")) {
+        if (line.has(TAX_TOTAL)) {
             return true;
         }
-        if (upper.contains("TOTAL") && upper.contains("TAX") && !upper.contains("SUB")) {
+        if (line.has(TOTAL) && line.has(TAX) && !line.has(SUB)) {
             return false;
         }
-        return upper.contains("TAX")
-                || upper.contains("GST")
-                || upper.contains("VAT")
-                || upper.contains("HST")
-                || upper.contains("SALES TAX");
+        return line.has(TAX_AMOUNT);
     }
 
-    private static boolean isAmountPaidLine(String upper) {
-        return upper.contains("AMOUNT PAID")
-                || upper.contains("PAYMENT")
-                || upper.contains("CARD PAYMENT")
-                || upper.contains("PAID:");
+    private static boolean isAmountPaidLine(ReceiptText.Line line) {
+        return line.has(AMOUNT_PAID);
     }
 
-    private static boolean isGrandTotalLine(String upper) {
-        if (upper.contains("SUBTOTAL") || upper.contains("SUB TOTAL")) {
+    private static boolean isGrandTotalLine(ReceiptText.Line line) {
+        if (line.has(NOT_GRAND_TOTAL)) {
             return false;
         }
-        if (isTaxAmountLine(upper) && !upper.contains("TOTAL") && !upper.contains("DUE")) {
+        if (isTaxAmountLine(line) && !line.has(TOTAL_OR_DUE)) {
             return false;
         }
-        return upper.contains("GRAND TOTAL")
-                || upper.contains("TOTAL DUE")
-                || upper.contains("BALANCE DUE")
-                || upper.contains("AMOUNT DUE")
-                || upper.contains("TOTAL:")
-                || upper.contains("ORDER TOTAL")
-                || (upper.contains("TOTAL") && !upper.contains("SUB") && !upper.contains("TAX RATE"));
-    }
-
-    private static BigDecimal firstMoney(String line) {
-        Matcher matcher = MONEY_PATTERN.matcher(line);
-        if (!matcher.find()) {
-            return null;
-        }
-        try {
-            String token = matcher.group();
-            return new BigDecimal(token.replace("$", "").replace(",", "").trim()).setScale(2, RoundingMode.HALF_UP);
-        } catch (NumberFormatException ex) {
-            return null;
-        }
+        return line.has(STRONG_TOTAL) || (line.has(TOTAL) && !line.has(SUB_OR_TAX_RATE));
     }
 
     public record ParsedNumericSummary(
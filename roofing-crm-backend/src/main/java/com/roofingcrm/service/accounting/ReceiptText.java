@@ -0,0 +1,155 @@
+package com.roofingcrm.service.accounting;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Receipt text lexed once into lines, each with its keyword set ({@link ReceiptKeyword} bits from
+ * {@link ReceiptKeywordAutomaton}) and its money tokens. {@link ReceiptAmountCandidateExtractor},
+ * {@link ReceiptSummaryTextParser} and {@link ReceiptDateCandidateRanker} all read this model, so the combined raw
+ * text of a receipt is split, upper-cased and scanned for labels once instead of once per consumer and per amount.
+ *
+ * <p>Lines follow {@code raw.split("\\R")}: every line break form, trailing empty lines dropped, empty lines in between
+ * kept so line indexes match what the consumers used before.
+ */
+public final class ReceiptText {
+
+    static final ReceiptText EMPTY = new ReceiptText(null, List.of());
+
+    private static final Pattern MONEY_PATTERN =
+            Pattern.compile("(?<!\\d)(?:\\$\\s*)?(\\d{1,3}(?:,\\d{3})*|\\d+)\\.\\d{2}(?!\\d)");
+
+    /**
+     * @param index position in {@link #lines()}
+     * @param start offset of the untrimmed line in {@link #raw()}
+     * @param text the line, trimmed
+     * @param keywords {@link ReceiptKeyword} bits found in the line
+     * @param amounts money tokens of the line, left to right
+     */
+    record Line(int index, int start, String text, long keywords, List<BigDecimal> amounts) {
+
+        boolean has(long keywordMask) {
+            return (keywords & keywordMask) != 0;
+        }
+
+        boolean hasAll(long keywordMask) {
+            return (keywords & keywordMask) == keywordMask;
+        }
+
+        boolean isEmpty() {
+            return text.isEmpty();
+        }
+    }
+
+    private final String raw;
+    private final List<Line> lines;
+
+    private ReceiptText(String raw, List<Line> lines) {
+        this.raw = raw;
+        this.lines = lines;
+    }
+
+    public static ReceiptText of(String raw) {
+        if (raw == null || raw.isEmpty()) {
+            return raw == null ? EMPTY : new ReceiptText(raw, List.of());
+        }
+        List<Line> lines = new ArrayList<>();
+        int lastNonEmpty = -1;
+        int start = 0;
+        int length = raw.length();
+        while (start <= length) {
+            int end = start;
+            while (end < length && !isLineBreak(raw.charAt(end))) {
+                end++;
+            }
+            if (end > start) {
+                lastNonEmpty = lines.size();
+            }
+            lines.add(lex(raw, lines.size(), start, end));
+            if (end == length) {
+                break;
+            }
+            start = raw.charAt(end) == '\r' && end + 1 < length && raw.charAt(end + 1) == '\n' ? end + 2 : end + 1;
+        }
+        return new ReceiptText(raw, List.copyOf(lines.subList(0, lastNonEmpty + 1)));
+    }
+
+    private static Line lex(String raw, int index, int start, int end) {
+        int from = start;
+        int to = end;
+        while (from < to && raw.charAt(from) <= ' ') {
+            from++;
+        }
+        while (to > from && raw.charAt(to - 1) <= ' ') {
+            to--;
+        }
+        if (from == to) {
+            return new Line(index, start, "", 0, List.of());
+        }
+        String text = raw.substring(from, to);
+        long keywords = ReceiptKeywordAutomaton.INSTANCE.scan(raw, from, to);
+        return new Line(index, start, text, keywords, amounts(text));
+    }
+
+    private static List<BigDecimal> amounts(String text) {
+        List<BigDecimal> amounts = null;
+        Matcher matcher = MONEY_PATTERN.matcher(text);
+        while (matcher.find()) {
+            BigDecimal amount = parseAmount(matcher.group());
+            if (amount != null) {
+                if (amounts == null) {
+                    amounts = new ArrayList<>(2);
+                }
+                amounts.add(amount);
+            }
+        }
+        return amounts == null ? List.of() : List.copyOf(amounts);
+    }
+
+    private static BigDecimal parseAmount(String token) {
+        try {
+            return new BigDecimal(token.replace("$", "").replace(",", "").trim()).setScale(2, RoundingMode.HALF_UP);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    /** Line break characters of {@code \R}; {@code \r\n} is handled as one break by {@link #of(String)}. */
+    private static boolean isLineBreak(char c) {
+        return c == '\n' || c == '\r' || c == '\u000B' || c == '\f' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    String raw() {
+        return raw;
+    }
+
+    List<Line> lines() {
+        return lines;
+    }
+
+    boolean isBlank() {
+        return raw == null || raw.isBlank();
+    }
+
+    /** The line containing {@code offset} of {@link #raw()}, or null when there are no lines. */
+    Line lineAt(int offset) {
+        int low = 0;
+        int high = lines.size() - 1;
+        Line found = null;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            Line line = lines.get(mid);
+            if (line.start() <= offset) {
+                found = line;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+}
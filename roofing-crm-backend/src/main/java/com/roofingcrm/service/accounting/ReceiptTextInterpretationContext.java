@@ -1,9 +1,12 @@
 package com.roofingcrm.service.accounting;
 
+import java.util.UUID;
+
 /**
  * Metadata for OCR-first text interpretation (vendor/date/category/notes) without vision.
  */
 public record ReceiptTextInterpretationContext(
+        UUID tenantId,
         String fileName,
         String contentType,
         String promptContext
@@ -0,0 +1,172 @@
+package com.roofingcrm.service.accounting;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Captures provider answers to disk ({@link Mode#RECORD}) and serves them back without any network
+ * ({@link Mode#REPLAY}), so the decision, consensus and date-ranking logic can be tuned and regression-tested offline
+ * against real provider output.
+ *
+ * <p>Each call is keyed by a SHA-256 over the operation and everything the provider sees: the encoded image and the
+ * prompt inputs for vision calls, the transcribed text for interpretation calls. Tenant and attempt label are left out
+ * so a corpus replays under any tenant. One JSON file per key is written to the directory; provider failures are
+ * recorded too, so a replay makes the same number of provider calls with the same outcomes.
+ *
+ * <p>A change to image preprocessing or encoding changes the keys, and replay then fails with a miss naming the attempt;
+ * re-record the corpus after such changes.
+ */
+public class RecordReplayReceiptExtractionClient implements ReceiptExtractionClient {
+
+    public enum Mode { RECORD, REPLAY }
+
+    /** One recorded call: either the provider's answer or the message of the provider failure. */
+    record Recording(String operation, String attemptLabel, String fileName, ExtractedReceiptData response, String failure) {
+    }
+
+    private final ReceiptExtractionClient delegate;
+    private final Path directory;
+    private final Mode mode;
+    private final ObjectMapper objectMapper;
+
+    public RecordReplayReceiptExtractionClient(ReceiptExtractionClient delegate,
+                                               Path directory,
+                                               Mode mode,
+                                               ObjectMapper objectMapper) {
+        if (mode == Mode.RECORD) {
+            Objects.requireNonNull(delegate, "Recording needs a provider client");
+        }
+        this.delegate = delegate;
+        this.directory = directory;
+        this.mode = mode;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public ExtractedReceiptData extract(ReceiptVisionDocument document) {
+        return call("extract", document.attemptLabel(), document.fileName(), visionKey("extract", document),
+                () -> delegate.extract(document));
+    }
+
+    @Override
+    public ExtractedReceiptData extractSummary(ReceiptVisionDocument document) {
+        return call("summary", document.attemptLabel(), document.fileName(), visionKey("summary", document),
+                () -> delegate.extractSummary(document));
+    }
+
+    @Override
+    public ExtractedReceiptData interpretFromTranscribedText(String fullTranscribedText,
+                                                             String summaryTranscribedText,
+                                                             ReceiptTextInterpretationContext context) {
+        Digest digest = new Digest("interpret")
+                .add(fullTranscribedText)
+                .add(summaryTranscribedText)
+                .add(context.fileName())
+                .add(context.contentType())
+                .add(context.promptContext());
+        return call("interpret", "interpret", context.fileName(), digest.hex(),
+                () -> delegate.interpretFromTranscribedText(fullTranscribedText, summaryTranscribedText, context));
+    }
+
+    private ExtractedReceiptData call(String operation,
+                                      String attemptLabel,
+                                      String fileName,
+                                      String key,
+                                      Supplier<ExtractedReceiptData> providerCall) {
+        Path file = directory.resolve(key + ".json");
+        if (mode == Mode.REPLAY) {
+            return replay(file, operation, attemptLabel);
+        }
+        try {
+            ExtractedReceiptData response = providerCall.get();
+            write(file, new Recording(operation, attemptLabel, fileName, response, null));
+            return response;
+        } catch (ReceiptExtractionProviderException ex) {
+            write(file, new Recording(operation, attemptLabel, fileName, null, ex.getMessage()));
+            throw ex;
+        }
+    }
+
+    private ExtractedReceiptData replay(Path file, String operation, String attemptLabel) {
+        if (!Files.exists(file)) {
+            throw new ReceiptExtractionProviderException(
+                    "No recorded provider response for " + operation + " " + attemptLabel + " (" + file.getFileName() + ")");
+        }
+        Recording recording;
+        try {
+            recording = objectMapper.readValue(file.toFile(), Recording.class);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unreadable recording " + file, ex);
+        }
+        if (recording.failure() != null) {
+            throw new ReceiptExtractionProviderException(recording.failure());
+        }
+        return recording.response();
+    }
+
+    private void write(Path file, Recording recording) {
+        try {
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, "recording", ".tmp");
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(temp.toFile(), recording);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not write recording " + file, ex);
+        }
+    }
+
+    static String visionKey(String operation, ReceiptVisionDocument document) {
+        return new Digest(operation)
+                .add(document.fileName())
+                .add(document.contentType())
+                .add(document.promptContext())
+                .add(document.imageMimeType())
+                .add(String.valueOf(document.width()))
+                .add(String.valueOf(document.height()))
+                .add(document.imageBytes())
+                .hex();
+    }
+
+    /** Length-prefixed fields, so ("ab", "c") and ("a", "bc") hash differently. */
+    private static final class Digest {
+
+        private final MessageDigest sha256;
+
+        private Digest(String operation) {
+            try {
+                sha256 = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+            add(operation);
+        }
+
+        private Digest add(String value) {
+            return add(value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private Digest add(byte[] value) {
+            int length = value == null ? -1 : value.length;
+            sha256.update(new byte[]{(byte) (length >>> 24), (byte) (length >>> 16), (byte) (length >>> 8), (byte) length});
+            if (value != null) {
+                sha256.update(value);
+            }
+            return this;
+        }
+
+        private String hex() {
+            return HexFormat.of().formatHex(sha256.digest());
+        }
+    }
+}
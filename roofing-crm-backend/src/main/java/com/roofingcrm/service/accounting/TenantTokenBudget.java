@@ -0,0 +1,66 @@
+package com.roofingcrm.service.accounting;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Estimated provider tokens per tenant in fixed one-hour windows, so one tenant importing a shoebox of receipts cannot
+ * spend the whole account's provider quota. In-memory only; each instance enforces the budget on its own share of
+ * traffic.
+ */
+final class TenantTokenBudget {
+
+    private static final long WINDOW_MS = 3_600_000L;
+    private static final int PRUNE_SIZE_PRESSURE = 4096;
+
+    private record Usage(long window, long tokens) {
+    }
+
+    private final ConcurrentHashMap<UUID, Usage> usage = new ConcurrentHashMap<>();
+    private final long tokensPerHour;
+    private final LongSupplier epochMillis;
+
+    TenantTokenBudget(long tokensPerHour, LongSupplier epochMillis) {
+        this.tokensPerHour = tokensPerHour;
+        this.epochMillis = epochMillis;
+    }
+
+    /**
+     * Reserves {@code tokens} for {@code tenantId} if they fit this hour's budget. Always succeeds when budgets are
+     * disabled ({@code tokens-per-hour <= 0}) or the tenant is unknown.
+     */
+    boolean tryReserve(UUID tenantId, long tokens) {
+        if (tokensPerHour <= 0 || tenantId == null) {
+            return true;
+        }
+        long window = epochMillis.getAsLong() / WINDOW_MS;
+        if (usage.size() >= PRUNE_SIZE_PRESSURE) {
+            usage.values().removeIf(u -> u.window() < window);
+        }
+        boolean[] reserved = new boolean[1];
+        usage.compute(tenantId, (id, current) -> {
+            long used = current == null || current.window() != window ? 0 : current.tokens();
+            if (used + tokens > tokensPerHour) {
+                return current;
+            }
+            reserved[0] = true;
+            return new Usage(window, used + tokens);
+        });
+        return reserved[0];
+    }
+
+    /** Time until the current window ends and every tenant's budget is full again. */
+    Duration untilReset() {
+        return Duration.ofMillis(WINDOW_MS - Math.floorMod(epochMillis.getAsLong(), WINDOW_MS));
+    }
+
+    /** Gives back a reservation for a call that never reached the provider. */
+    void refund(UUID tenantId, long tokens) {
+        if (tokensPerHour <= 0 || tenantId == null) {
+            return;
+        }
+        usage.computeIfPresent(tenantId, (id, current) -> new Usage(current.window(), Math.max(0, current.tokens() - tokens)));
+    }
+}
@@ -0,0 +1,23 @@
+package com.roofingcrm.service.activity;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.activity")
+public class ActivityEventProperties {
+
+    /**
+     * When true, events recorded inside a read-write transaction are buffered and inserted as one JDBC batch
+     * just before commit, instead of one INSERT per {@code recordEvent} call.
+     */
+    private boolean writeBehindEnabled = true;
+
+    public boolean isWriteBehindEnabled() {
+        return writeBehindEnabled;
+    }
+
+    public void setWriteBehindEnabled(boolean writeBehindEnabled) {
+        this.writeBehindEnabled = writeBehindEnabled;
+    }
+}
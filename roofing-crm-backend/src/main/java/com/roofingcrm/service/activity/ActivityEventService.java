@@ -18,7 +18,10 @@ public interface ActivityEventService {
     com.roofingcrm.domain.entity.ActivityEvent recordEventWithActor(Tenant tenant, User actor, ActivityEntityType entityType, @NonNull UUID entityId,
                               ActivityEventType type, String message, Map<String, Object> metadata);
 
-    /** Convenience: loads User by userId and records the event. entityId must not be null. */
+    /**
+     * Convenience: references User by userId and records the event. Inside a read-write transaction the insert is
+     * deferred to commit and batched with other events (see {@link ActivityEventProperties}). entityId must not be null.
+     */
     void recordEvent(Tenant tenant, UUID userId, ActivityEntityType entityType, @NonNull UUID entityId,
                      ActivityEventType type, String message, Map<String, Object> metadata);
 
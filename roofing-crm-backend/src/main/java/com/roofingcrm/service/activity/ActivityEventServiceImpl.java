@@ -16,6 +16,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.Collections;
 import java.util.Map;
@@ -28,20 +29,31 @@ public class ActivityEventServiceImpl implements ActivityEventService {
     private final ActivityEventRepository activityEventRepository;
     private final UserRepository userRepository;
     private final ApplicationEventPublisher applicationEventPublisher;
+    private final ActivityEventProperties properties;
 
     @Autowired
     public ActivityEventServiceImpl(ActivityEventRepository activityEventRepository,
                                     UserRepository userRepository,
-                                    ApplicationEventPublisher applicationEventPublisher) {
+                                    ApplicationEventPublisher applicationEventPublisher,
+                                    ActivityEventProperties properties) {
         this.activityEventRepository = activityEventRepository;
         this.userRepository = userRepository;
         this.applicationEventPublisher = applicationEventPublisher;
+        this.properties = properties;
     }
 
     @Override
     @Transactional
     public ActivityEvent recordEventWithActor(Tenant tenant, User actor, ActivityEntityType entityType, @NonNull UUID entityId,
                                              ActivityEventType type, String message, Map<String, Object> metadata) {
+        ActivityEvent event = newEvent(tenant, actor, entityType, entityId, type, message, metadata);
+        event = activityEventRepository.save(event);
+        publishCreatedEvent(tenant, entityType, entityId, event.getId());
+        return event;
+    }
+
+    private ActivityEvent newEvent(Tenant tenant, User actor, ActivityEntityType entityType, UUID entityId,
+                                   ActivityEventType type, String message, Map<String, Object> metadata) {
         ActivityEvent event = new ActivityEvent();
         event.setTenant(tenant);
         event.setEntityType(entityType);
@@ -50,8 +62,6 @@ public class ActivityEventServiceImpl implements ActivityEventService {
         event.setMessage(message != null ? message.trim() : "");
         event.setMetadata(metadata != null ? metadata : Collections.emptyMap());
         event.setCreatedBy(actor);
-        event = activityEventRepository.save(event);
-        publishCreatedEvent(tenant, entityType, entityId, event.getId());
         return event;
     }
 
@@ -65,8 +75,26 @@ public class ActivityEventServiceImpl implements ActivityEventService {
     @Transactional
     public void recordEvent(Tenant tenant, UUID userId, ActivityEntityType entityType, @NonNull UUID entityId,
                             ActivityEventType type, String message, Map<String, Object> metadata) {
-        User user = userRepository.findById(Objects.requireNonNull(userId)).orElse(null);
-        recordEventWithActor(tenant, user, entityType, entityId, type, message, metadata);
+        Objects.requireNonNull(userId);
+        if (!isWriteBehindAvailable()) {
+            // An unknown user records the event without an actor, as before.
+            User user = userRepository.existsById(userId) ? userRepository.getReferenceById(userId) : null;
+            recordEventWithActor(tenant, user, entityType, entityId, type, message, metadata);
+            return;
+        }
+        ActivityEventWriteBuffer buffer =
+                ActivityEventWriteBuffer.current(this, activityEventRepository, userRepository, applicationEventPublisher);
+        buffer.add(newEvent(tenant, buffer.actor(userId), entityType, entityId, type, message, metadata));
+    }
+
+    /**
+     * Write-behind needs an enclosing read-write transaction whose commit will flush the buffer.
+     */
+    private boolean isWriteBehindAvailable() {
+        return properties.isWriteBehindEnabled()
+                && TransactionSynchronizationManager.isSynchronizationActive()
+                && TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
     }
 
     @Override
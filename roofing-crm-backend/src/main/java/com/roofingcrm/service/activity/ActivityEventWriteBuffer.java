@@ -0,0 +1,109 @@
+package com.roofingcrm.service.activity;
+
+import com.roofingcrm.domain.entity.ActivityEvent;
+import com.roofingcrm.domain.entity.User;
+import com.roofingcrm.domain.repository.ActivityEventRepository;
+import com.roofingcrm.domain.repository.UserRepository;
+import com.roofingcrm.realtime.ActivityEventCreatedAppEvent;
+import com.roofingcrm.realtime.ActivityEventsCreatedAppEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Per-transaction outbox for {@link ActivityEvent}s. Events are persisted together in {@link #beforeCommit}, so
+ * Hibernate sends them as one JDBC batch with the commit flush, and a single
+ * {@link ActivityEventsCreatedAppEvent} is published for the whole batch. Rolled-back transactions discard the
+ * buffer without touching the database. Each actor is looked up once per transaction (see {@link #actor}).
+ */
+final class ActivityEventWriteBuffer implements TransactionSynchronization {
+
+    private final Object resourceKey;
+    private final ActivityEventRepository activityEventRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final List<ActivityEvent> pending = new ArrayList<>();
+    private final Map<UUID, User> actors = new HashMap<>();
+
+    private ActivityEventWriteBuffer(Object resourceKey,
+                                     ActivityEventRepository activityEventRepository,
+                                     UserRepository userRepository,
+                                     ApplicationEventPublisher applicationEventPublisher) {
+        this.resourceKey = resourceKey;
+        this.activityEventRepository = activityEventRepository;
+        this.userRepository = userRepository;
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    /**
+     * Returns the buffer bound to the current transaction, creating and registering one on first use.
+     * Callers must check that transaction synchronization is active.
+     */
+    static ActivityEventWriteBuffer current(Object resourceKey,
+                                            ActivityEventRepository activityEventRepository,
+                                            UserRepository userRepository,
+                                            ApplicationEventPublisher applicationEventPublisher) {
+        ActivityEventWriteBuffer buffer =
+                (ActivityEventWriteBuffer) TransactionSynchronizationManager.getResource(resourceKey);
+        if (buffer == null) {
+            buffer = new ActivityEventWriteBuffer(resourceKey, activityEventRepository, userRepository,
+                    applicationEventPublisher);
+            TransactionSynchronizationManager.bindResource(resourceKey, buffer);
+            TransactionSynchronizationManager.registerSynchronization(buffer);
+        }
+        return buffer;
+    }
+
+    /**
+     * A reference to the user, or null when no such user exists. Checked here rather than left to the FK, which would
+     * only fail in the commit flush and roll back the caller's transaction; the first event of a transaction pays for
+     * the lookup, the rest reuse it.
+     */
+    User actor(UUID userId) {
+        if (!actors.containsKey(userId)) {
+            actors.put(userId, userRepository.existsById(userId) ? userRepository.getReferenceById(userId) : null);
+        }
+        return actors.get(userId);
+    }
+
+    void add(ActivityEvent event) {
+        pending.add(event);
+    }
+
+    int size() {
+        return pending.size();
+    }
+
+    @Override
+    public void beforeCommit(boolean readOnly) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<ActivityEvent> saved = activityEventRepository.saveAll(List.copyOf(pending));
+        List<ActivityEventCreatedAppEvent> created = new ArrayList<>(saved.size());
+        for (ActivityEvent event : saved) {
+            created.add(new ActivityEventCreatedAppEvent(
+                    this,
+                    Objects.requireNonNull(event.getTenant().getId()),
+                    event.getEntityType(),
+                    event.getEntityId(),
+                    event.getId()));
+        }
+        pending.clear();
+        applicationEventPublisher.publishEvent(new ActivityEventsCreatedAppEvent(this, created));
+    }
+
+    @Override
+    public void afterCompletion(int status) {
+        pending.clear();
+        actors.clear();
+        TransactionSynchronizationManager.unbindResourceIfPossible(resourceKey);
+    }
+}
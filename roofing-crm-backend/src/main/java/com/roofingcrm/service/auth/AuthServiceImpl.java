@@ -25,9 +25,10 @@ import com.roofingcrm.service.pipeline.PipelineStatusAdminService;
 import com.roofingcrm.service.team.TeamService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
@@ -58,8 +59,9 @@ public class AuthServiceImpl implements AuthService {
     private final JwtService jwtService;
     private final RefreshTokenProperties refreshTokenProperties;
     private final PipelineStatusAdminService pipelineStatusAdminService;
+    private final PasswordHashingService passwordHashingService;
+    private final TransactionOperations transactionOperations;
     private final SecureRandom secureRandom = new SecureRandom();
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
     public AuthServiceImpl(UserRepository userRepository,
                            TenantRepository tenantRepository,
@@ -69,7 +71,9 @@ public class AuthServiceImpl implements AuthService {
                            TeamService teamService,
                            JwtService jwtService,
                            RefreshTokenProperties refreshTokenProperties,
-                           PipelineStatusAdminService pipelineStatusAdminService) {
+                           PipelineStatusAdminService pipelineStatusAdminService,
+                           PasswordHashingService passwordHashingService,
+                           TransactionOperations transactionOperations) {
         this.userRepository = userRepository;
         this.tenantRepository = tenantRepository;
         this.membershipRepository = membershipRepository;
@@ -79,10 +83,23 @@ public class AuthServiceImpl implements AuthService {
         this.jwtService = jwtService;
         this.refreshTokenProperties = refreshTokenProperties;
         this.pipelineStatusAdminService = pipelineStatusAdminService;
+        this.passwordHashingService = passwordHashingService;
+        this.transactionOperations = transactionOperations;
     }
 
+    /*
+     * login/register hash on the bounded PasswordHashingService pool outside any transaction, so a request waiting
+     * for a hashing thread does not hold a pooled DB connection; the DB work runs in its own transaction afterwards.
+     */
+
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponse registerOwner(RegisterRequest request) {
+        String passwordHash = passwordHashingService.encode(request.getPassword());
+        return Objects.requireNonNull(transactionOperations.execute(status -> createOwner(request, passwordHash)));
+    }
+
+    private AuthResponse createOwner(RegisterRequest request, String passwordHash) {
         // Check if user already exists
         userRepository.findByEmailIgnoreCase(request.getEmail())
                 .ifPresent(existing -> {
@@ -92,7 +109,7 @@ public class AuthServiceImpl implements AuthService {
         User user = new User();
         user.setEmail(request.getEmail().toLowerCase());
         user.setFullName(request.getFullName());
-        user.setPasswordHash(passwordEncoder.encode(request.getPassword()));
+        user.setPasswordHash(passwordHash);
         user.setEnabled(true);
         user = userRepository.save(user);
 
@@ -113,7 +130,13 @@ public class AuthServiceImpl implements AuthService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponse registerWithInvite(RegisterWithInviteRequest request) {
+        String passwordHash = passwordHashingService.encode(request.getPassword());
+        return Objects.requireNonNull(transactionOperations.execute(status -> createInvitedUser(request, passwordHash)));
+    }
+
+    private AuthResponse createInvitedUser(RegisterWithInviteRequest request, String passwordHash) {
         String normalizedEmail = request.getEmail().trim().toLowerCase();
 
         TenantInvite invite = inviteRepository.findByToken(request.getToken())
@@ -137,7 +160,7 @@ public class AuthServiceImpl implements AuthService {
         User user = new User();
         user.setEmail(normalizedEmail);
         user.setFullName(request.getFullName());
-        user.setPasswordHash(passwordEncoder.encode(request.getPassword()));
+        user.setPasswordHash(passwordHash);
         user.setEnabled(true);
         user = userRepository.save(user);
 
@@ -149,6 +172,7 @@ public class AuthServiceImpl implements AuthService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponse login(LoginRequest request) {
         User user = userRepository.findByEmailIgnoreCase(request.getEmail())
                 .orElseThrow(() -> new ResourceNotFoundException("Invalid email or password"));
@@ -157,11 +181,20 @@ public class AuthServiceImpl implements AuthService {
             throw new IllegalArgumentException("User account is disabled");
         }
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
+        PasswordHashingService.PasswordCheck check =
+                passwordHashingService.verify(request.getPassword(), user.getPasswordHash());
+        if (!check.matches()) {
             throw new ResourceNotFoundException("Invalid email or password");
         }
 
-        return buildAuthResponse(user);
+        return Objects.requireNonNull(transactionOperations.execute(status -> {
+            if (check.upgradedHash() != null) {
+                // Stored hash predates the current bcrypt cost; replace it now that we have the plaintext.
+                user.setPasswordHash(check.upgradedHash());
+                return buildAuthResponse(userRepository.save(user));
+            }
+            return buildAuthResponse(user);
+        }));
     }
 
     @Override
@@ -0,0 +1,74 @@
+package com.roofingcrm.service.auth;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * BCrypt cost and the bounded executor that runs password hashing off the request threads
+ * (see {@link PasswordHashingService}).
+ */
+@Component
+@ConfigurationProperties(prefix = "app.security.password-hashing")
+public class PasswordHashingProperties {
+
+    /** Fixed BCrypt cost (4-31). 0 calibrates at startup to the highest cost within target-hash-millis. */
+    private int strength = 0;
+    /** Calibration target for one hash on this host. */
+    private int targetHashMillis = 250;
+    /** Calibration never goes below this cost (Spring Security's default is 10). */
+    private int minStrength = 10;
+    /** Calibration never goes above this cost. */
+    private int maxStrength = 14;
+    /** Hashing threads. 0 uses the number of available processors. */
+    private int threads = 0;
+    /** Hash requests allowed to wait for a thread; beyond this, logins/registrations get 429. */
+    private int queueCapacity = 32;
+
+    public int getStrength() {
+        return strength;
+    }
+
+    public void setStrength(int strength) {
+        this.strength = strength;
+    }
+
+    public int getTargetHashMillis() {
+        return targetHashMillis;
+    }
+
+    public void setTargetHashMillis(int targetHashMillis) {
+        this.targetHashMillis = targetHashMillis;
+    }
+
+    public int getMinStrength() {
+        return minStrength;
+    }
+
+    public void setMinStrength(int minStrength) {
+        this.minStrength = minStrength;
+    }
+
+    public int getMaxStrength() {
+        return maxStrength;
+    }
+
+    public void setMaxStrength(int maxStrength) {
+        this.maxStrength = maxStrength;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+}
@@ -0,0 +1,186 @@
+package com.roofingcrm.service.auth;
+
+import com.roofingcrm.service.exception.PasswordHashingCapacityException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Runs BCrypt on a small dedicated pool so a login/registration burst occupies at most {@code threads} cores instead
+ * of every Tomcat worker. Callers still wait for the result, but blocked rather than spinning on CPU, and once
+ * {@code queue-capacity} hashes are waiting further calls fail fast with {@link PasswordHashingCapacityException}
+ * (429).
+ * <p>
+ * The cost is fixed by {@code app.security.password-hashing.strength} or calibrated at startup to the slowest cost
+ * that still hashes within {@code target-hash-millis}. Hashes made with a lower cost are upgraded on the next
+ * successful login ({@link PasswordCheck#upgradedHash()}); hashes are never downgraded.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    private static final String CALIBRATION_PASSWORD = "calibration-Password-1";
+
+    /** Result of {@link #verify}; {@code upgradedHash} is non-null when the stored hash should be replaced. */
+    public record PasswordCheck(boolean matches, String upgradedHash) {
+    }
+
+    private final BCryptPasswordEncoder encoder;
+    private final int strength;
+    private final ThreadPoolExecutor executor;
+    private final Timer encodeTimer;
+    private final Timer verifyTimer;
+    private final Timer queueWaitTimer;
+    private final Counter rejected;
+
+    public PasswordHashingService(PasswordHashingProperties properties, MeterRegistry meterRegistry) {
+        this.strength = properties.getStrength() > 0
+                ? properties.getStrength()
+                : calibrate(properties.getMinStrength(), properties.getMaxStrength(), properties.getTargetHashMillis(),
+                        PasswordHashingService::measureEncodeMillis);
+        this.encoder = new BCryptPasswordEncoder(strength);
+
+        int threads = properties.getThreads() > 0 ? properties.getThreads() : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity())),
+                new HashingThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        log.info("Password hashing: bcrypt cost {} on {} thread(s), queue capacity {}",
+                strength, threads, properties.getQueueCapacity());
+
+        this.encodeTimer = hashTimer(meterRegistry, "encode");
+        this.verifyTimer = hashTimer(meterRegistry, "verify");
+        this.queueWaitTimer = Timer.builder("auth.password.hash.queue.wait")
+                .description("Time a password hash waited for a hashing thread")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejected = Counter.builder("auth.password.hash.rejected")
+                .description("Password hashes refused because the hashing queue was full (answered with 429)")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hash.queue.depth", executor, e -> e.getQueue().size())
+                .description("Password hashes waiting for a hashing thread")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashes currently running")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hash.cost", this, s -> s.strength)
+                .description("BCrypt cost used for new hashes")
+                .register(meterRegistry);
+    }
+
+    public String encode(CharSequence rawPassword) {
+        return runOnHashingPool(encodeTimer, () -> encoder.encode(rawPassword));
+    }
+
+    /**
+     * Checks the password and, when it matches a hash made with a lower cost than the current one, computes the
+     * replacement in the same task (one queue slot per login).
+     */
+    public PasswordCheck verify(CharSequence rawPassword, String encodedPassword) {
+        return runOnHashingPool(verifyTimer, () -> {
+            if (!encoder.matches(rawPassword, encodedPassword)) {
+                return new PasswordCheck(false, null);
+            }
+            String upgraded = encoder.upgradeEncoding(encodedPassword) ? encoder.encode(rawPassword) : null;
+            return new PasswordCheck(true, upgraded);
+        });
+    }
+
+    int getStrength() {
+        return strength;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T runOnHashingPool(Timer timer, Callable<T> work) {
+        long enqueuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueWaitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                return timer.recordCallable(work);
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingCapacityException("Too many requests. Please try again later.");
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    /**
+     * Highest cost in [min, max] whose measured hash time stays within the target; {@code min} if even that is
+     * slower. Each cost step doubles the work, so measuring stops at the first cost over the target.
+     */
+    static int calibrate(int minStrength, int maxStrength, long targetMillis, IntToLongFunction measureMillis) {
+        int chosen = minStrength;
+        measureMillis.applyAsLong(minStrength); // JIT warm-up; the first hash is not representative
+        for (int cost = minStrength; cost <= maxStrength; cost++) {
+            long elapsed = measureMillis.applyAsLong(cost);
+            if (elapsed > targetMillis) {
+                break;
+            }
+            chosen = cost;
+        }
+        return chosen;
+    }
+
+    private static long measureEncodeMillis(int cost) {
+        BCryptPasswordEncoder candidate = new BCryptPasswordEncoder(cost);
+        long start = System.nanoTime();
+        candidate.encode(CALIBRATION_PASSWORD);
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private static Timer hashTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("auth.password.hash")
+                .description("BCrypt time per operation on the hashing pool")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static final class HashingThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-hash-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.roofingcrm.service.cache;
+
+import com.roofingcrm.domain.entity.CacheRegions;
+import com.roofingcrm.domain.entity.PipelineStatusDefinition;
+import com.roofingcrm.domain.entity.TenantAppPreferences;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Explicit second-level cache eviction for read-mostly reference data. Hibernate already keeps READ_WRITE entries
+ * consistent for entity writes; this also clears the query-cache regions and covers writes that bypass the
+ * session. Eviction runs after commit so concurrent readers cannot re-populate the cache with the old rows.
+ * Whole regions are cleared: admin writes are rare and the regions refill from a handful of rows per tenant.
+ */
+@Component
+public class ReferenceDataCacheInvalidator {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public ReferenceDataCacheInvalidator(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public void evictPipelineStatusesAfterCommit() {
+        runAfterCommit(() -> evict(PipelineStatusDefinition.class, CacheRegions.PIPELINE_STATUS_QUERIES));
+    }
+
+    public void evictAppPreferencesAfterCommit() {
+        runAfterCommit(() -> evict(TenantAppPreferences.class, CacheRegions.TENANT_APP_PREFERENCES_QUERIES));
+    }
+
+    private void evict(Class<?> entityClass, String queryRegion) {
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        cache.evictEntityData(entityClass);
+        cache.evictQueryRegion(queryRegion);
+    }
+
+    private static void runAfterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -16,9 +16,13 @@ import com.roofingcrm.service.activity.ActivityEventService;
 import com.roofingcrm.service.exception.EstimateConflictException;
 import com.roofingcrm.service.exception.EstimateLinkExpiredException;
 import com.roofingcrm.service.exception.ResourceNotFoundException;
+import com.roofingcrm.service.publicview.PublicView;
+import com.roofingcrm.service.publicview.PublicViewCache;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 import java.util.ArrayList;
@@ -28,33 +32,52 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
 
+/**
+ * Public (token) estimate views and customer decisions. Views are served through {@link PublicViewCache}; a decision
+ * commits an estimate update, which evicts the cached view. Misses load on the primary, so the view cached after an
+ * eviction is never the replica's copy from before the change.
+ */
 @Service
 public class PublicEstimateService {
 
     private final EstimateRepository estimateRepository;
     private final ActivityEventService activityEventService;
+    private final PublicViewCache<PublicEstimateDto> viewCache;
+    private final TransactionTemplate loadTransaction;
 
     public PublicEstimateService(EstimateRepository estimateRepository,
-                                 ActivityEventService activityEventService) {
+                                 ActivityEventService activityEventService,
+                                 PublicViewCache<PublicEstimateDto> viewCache,
+                                 PlatformTransactionManager transactionManager) {
         this.estimateRepository = estimateRepository;
         this.activityEventService = activityEventService;
+        this.viewCache = viewCache;
+        this.loadTransaction = new TransactionTemplate(transactionManager);
     }
 
-    @Transactional(readOnly = true)
     public PublicEstimateDto getByToken(@NonNull String token) {
+        return getViewByToken(token).body();
+    }
+
+    /** The view with its ETag, for conditional GETs. */
+    public PublicView<PublicEstimateDto> getViewByToken(@NonNull String token) {
         if (token.isBlank()) {
             throw new ResourceNotFoundException("Estimate not found");
         }
-        String tokenHash = PublicShareTokenHasher.sha256HexUtf8(token);
-        Estimate estimate = estimateRepository
-                .findByPublicTokenHashAndPublicEnabledTrueAndArchivedFalse(tokenHash)
-                .orElseThrow(() -> new ResourceNotFoundException("Estimate not found"));
-
-        if (estimate.getPublicExpiresAt() != null && Instant.now().isAfter(estimate.getPublicExpiresAt())) {
+        PublicView<PublicEstimateDto> view = viewCache.get(PublicShareTokenHasher.sha256HexUtf8(token), this::load);
+        if (view.isExpired(Instant.now())) {
             throw new EstimateLinkExpiredException("Link expired");
         }
+        return view;
+    }
 
-        return toPublicDto(estimate);
+    private PublicView<PublicEstimateDto> load(String tokenHash) {
+        return Objects.requireNonNull(loadTransaction.execute(status -> {
+            Estimate estimate = estimateRepository
+                    .findByPublicTokenHashAndPublicEnabledTrueAndArchivedFalse(tokenHash)
+                    .orElseThrow(() -> new ResourceNotFoundException("Estimate not found"));
+            return viewCache.view(estimate.getId(), tokenHash, toPublicDto(estimate), estimate.getPublicExpiresAt());
+        }));
     }
 
     @Transactional
@@ -0,0 +1,11 @@
+package com.roofingcrm.service.exception;
+
+/**
+ * The password-hashing executor is saturated; mapped to 429 so clients back off instead of piling up on request
+ * threads.
+ */
+public class PasswordHashingCapacityException extends RuntimeException {
+    public PasswordHashingCapacityException(String message) {
+        super(message);
+    }
+}
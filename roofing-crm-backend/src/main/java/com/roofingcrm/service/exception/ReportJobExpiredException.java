@@ -0,0 +1,7 @@
+package com.roofingcrm.service.exception;
+
+public class ReportJobExpiredException extends RuntimeException {
+    public ReportJobExpiredException(String message) {
+        super(message);
+    }
+}
@@ -10,38 +10,61 @@ import com.roofingcrm.security.PublicShareTokenHasher;
 import com.roofingcrm.domain.value.Address;
 import com.roofingcrm.service.exception.InvoiceLinkExpiredException;
 import com.roofingcrm.service.exception.ResourceNotFoundException;
+import com.roofingcrm.service.publicview.PublicView;
+import com.roofingcrm.service.publicview.PublicViewCache;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
+/**
+ * Public (token) invoice views, served through {@link PublicViewCache}: repeat opens of a link are answered from
+ * memory, and only a miss reads the database, on the primary: the miss usually follows an eviction, and a lagging
+ * replica would put the view from before the change back in the cache for the whole ttl.
+ */
 @Service
 public class PublicInvoiceService {
 
     private final InvoiceRepository invoiceRepository;
+    private final PublicViewCache<PublicInvoiceDto> viewCache;
+    private final TransactionTemplate loadTransaction;
 
-    public PublicInvoiceService(InvoiceRepository invoiceRepository) {
+    public PublicInvoiceService(InvoiceRepository invoiceRepository,
+                                PublicViewCache<PublicInvoiceDto> viewCache,
+                                PlatformTransactionManager transactionManager) {
         this.invoiceRepository = invoiceRepository;
+        this.viewCache = viewCache;
+        this.loadTransaction = new TransactionTemplate(transactionManager);
     }
 
-    @Transactional(readOnly = true)
     public PublicInvoiceDto getByToken(@NonNull String token) {
+        return getViewByToken(token).body();
+    }
+
+    /** The view with its ETag, for conditional GETs. */
+    public PublicView<PublicInvoiceDto> getViewByToken(@NonNull String token) {
         if (token.isBlank()) {
             throw new ResourceNotFoundException("Invoice not found");
         }
-        String tokenHash = PublicShareTokenHasher.sha256HexUtf8(token);
-        Invoice invoice = invoiceRepository
-                .findByPublicTokenHashAndPublicEnabledTrueAndArchivedFalse(tokenHash)
-                .orElseThrow(() -> new ResourceNotFoundException("Invoice not found"));
-
-        if (invoice.getPublicExpiresAt() != null && Instant.now().isAfter(invoice.getPublicExpiresAt())) {
+        PublicView<PublicInvoiceDto> view = viewCache.get(PublicShareTokenHasher.sha256HexUtf8(token), this::load);
+        if (view.isExpired(Instant.now())) {
             throw new InvoiceLinkExpiredException("Link expired");
         }
+        return view;
+    }
 
-        return toPublicDto(invoice);
+    private PublicView<PublicInvoiceDto> load(String tokenHash) {
+        return Objects.requireNonNull(loadTransaction.execute(status -> {
+            Invoice invoice = invoiceRepository
+                    .findByPublicTokenHashAndPublicEnabledTrueAndArchivedFalse(tokenHash)
+                    .orElseThrow(() -> new ResourceNotFoundException("Invoice not found"));
+            return viewCache.view(invoice.getId(), tokenHash, toPublicDto(invoice), invoice.getPublicExpiresAt());
+        }));
     }
 
     private PublicInvoiceDto toPublicDto(Invoice invoice) {
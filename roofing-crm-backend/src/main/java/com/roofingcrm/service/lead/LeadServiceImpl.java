@@ -199,6 +199,12 @@ public class LeadServiceImpl implements LeadService {
 
         List<Lead> oldColumn = leadRepository
                 .findByTenantAndStatusDefinitionAndArchivedFalseOrderByPipelinePositionAscCreatedAtAsc(tenant, oldDef);
+        // Load the target column before touching positions: a query after the edits would auto-flush the old column
+        // as its own batch instead of letting both columns go out together at commit.
+        List<Lead> newColumn = statusChanged
+                ? leadRepository.findByTenantAndStatusDefinitionAndArchivedFalseOrderByPipelinePositionAscCreatedAtAsc(
+                        tenant, newDef)
+                : List.of();
         List<Lead> oldList = new ArrayList<>(oldColumn);
         oldList.removeIf(l -> Objects.equals(l.getId(), leadId));
 
@@ -209,8 +215,6 @@ public class LeadServiceImpl implements LeadService {
         if (statusChanged) {
             lead.setStatusDefinition(newDef);
             AuditSupport.touchForUpdate(lead, userId);
-            List<Lead> newColumn = leadRepository
-                    .findByTenantAndStatusDefinitionAndArchivedFalseOrderByPipelinePositionAscCreatedAtAsc(tenant, newDef);
             List<Lead> newList = new ArrayList<>(newColumn);
             int insertIdx = (position != null && position >= 0 && position <= newList.size()) ? position : newList.size();
             newList.add(insertIdx, lead);
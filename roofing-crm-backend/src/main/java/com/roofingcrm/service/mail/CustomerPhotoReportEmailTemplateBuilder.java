@@ -4,9 +4,39 @@ import com.roofingcrm.domain.entity.CustomerPhotoReport;
 import com.roofingcrm.domain.entity.Tenant;
 
 import java.util.List;
+import java.util.Map;
 
 public class CustomerPhotoReportEmailTemplateBuilder {
 
+    private static final EmailTemplate HTML = EmailTemplate.html("""
+            <p>{{greeting}}</p>
+            <p>{{intro}}</p>
+            <p><strong>Report:</strong> {{title}}</p>
+            <p>The PDF report is attached to this email.</p>
+            {{{htmlFooter}}}
+            """);
+
+    private static final EmailTemplate TEXT = EmailTemplate.text("""
+            {{greeting}}
+
+            {{intro}}
+
+            Report: {{title}}
+            The PDF report is attached to this email.
+
+            {{textFooter}}
+            """);
+
+    private final TenantEmailFragments tenantFragments;
+
+    public CustomerPhotoReportEmailTemplateBuilder() {
+        this(TenantEmailFragments.shared());
+    }
+
+    CustomerPhotoReportEmailTemplateBuilder(TenantEmailFragments tenantFragments) {
+        this.tenantFragments = tenantFragments;
+    }
+
     public EmailMessage build(Tenant tenant,
                               CustomerPhotoReport report,
                               String recipientEmail,
@@ -14,39 +44,24 @@ public class CustomerPhotoReportEmailTemplateBuilder {
                               String subjectOverride,
                               String customMessage,
                               EmailAttachment attachment) {
-        String senderName = isBlank(tenant.getName()) ? "Your roofing team" : tenant.getName().trim();
+        TenantEmailFragments.Fragments fragments = tenantFragments.forTenant(tenant);
+        String title = fallbackTitle(report.getTitle());
         String subject = isBlank(subjectOverride)
-                ? senderName + " - " + fallbackTitle(report.getTitle())
+                ? fragments.senderName() + " - " + title
                 : subjectOverride.trim();
         String greeting = isBlank(recipientName) ? "Hello," : "Hello " + recipientName.trim() + ",";
         String intro = isBlank(customMessage)
                 ? "Attached is your customer photo report for review."
                 : customMessage.trim();
 
-        String html = """
-                <p>%s</p>
-                <p>%s</p>
-                <p><strong>Report:</strong> %s</p>
-                <p>The PDF report is attached to this email.</p>
-                <p>Thank you,<br/>%s</p>
-                """.formatted(
-                escapeHtml(greeting),
-                escapeHtml(intro),
-                escapeHtml(fallbackTitle(report.getTitle())),
-                escapeHtml(senderName)
-        );
-
-        String text = """
-                %s
-
-                %s
-
-                Report: %s
-                The PDF report is attached to this email.
-
-                Thank you,
-                %s
-                """.formatted(greeting, intro, fallbackTitle(report.getTitle()), senderName);
+        Map<String, String> values = Map.of(
+                "greeting", greeting,
+                "intro", intro,
+                "title", title,
+                "htmlFooter", fragments.htmlFooter(),
+                "textFooter", fragments.textFooter());
+        String html = HTML.render(values);
+        String text = TEXT.render(values);
 
         return new EmailMessage(recipientEmail, subject, html, text, List.of(attachment));
     }
@@ -58,16 +73,4 @@ public class CustomerPhotoReportEmailTemplateBuilder {
     private static boolean isBlank(String value) {
         return value == null || value.trim().isEmpty();
     }
-
-    private static String escapeHtml(String value) {
-        if (value == null) {
-            return "";
-        }
-        return value
-                .replace("&", "&amp;")
-                .replace("<", "&lt;")
-                .replace(">", "&gt;")
-                .replace("\"", "&quot;")
-                .replace("'", "&#39;");
-    }
 }
@@ -0,0 +1,22 @@
+package com.roofingcrm.service.mail;
+
+import java.util.List;
+
+/**
+ * Provider transport used by {@link OutboundEmailWorker}. Implementations throw
+ * {@link com.roofingcrm.service.exception.MailDeliveryException} (with the provider error as cause) when a send fails.
+ */
+public interface EmailDeliveryClient {
+
+    /** Sends one message and returns the provider's message id. */
+    String send(EmailMessage message, String idempotencyKey);
+
+    /** Largest batch {@link #sendBatch} accepts; 1 when the provider has no batch endpoint. */
+    int maxBatchSize();
+
+    /** Whether the message may go out through {@link #sendBatch}. */
+    boolean supportsBatch(EmailMessage message);
+
+    /** Sends the messages in one provider call and returns their provider ids in the same order. */
+    List<String> sendBatch(List<EmailMessage> messages, String idempotencyKey);
+}
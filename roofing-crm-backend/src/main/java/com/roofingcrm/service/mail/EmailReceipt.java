@@ -0,0 +1,17 @@
+package com.roofingcrm.service.mail;
+
+import java.util.UUID;
+
+/**
+ * Returned by {@link EmailService#send} once a message is queued; delivery happens later on the outbound worker.
+ *
+ * @param id             outbound_emails row id
+ * @param idempotencyKey key the message was queued under
+ * @param duplicate      true when a message with the same key was already queued and this call was a no-op
+ */
+public record EmailReceipt(
+        UUID id,
+        String idempotencyKey,
+        boolean duplicate
+) {
+}
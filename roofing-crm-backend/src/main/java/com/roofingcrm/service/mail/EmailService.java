@@ -1,5 +1,18 @@
 package com.roofingcrm.service.mail;
 
 public interface EmailService {
-    void send(EmailMessage message);
+
+    /**
+     * Queues the message for delivery and returns immediately. Inside a transaction the message is queued with it:
+     * nothing is sent if the transaction rolls back. Every call sends; pass an idempotency key to deduplicate.
+     */
+    default EmailReceipt send(EmailMessage message) {
+        return send(message, null);
+    }
+
+    /**
+     * Queues the message under a caller-chosen idempotency key; a second call with the same key is a no-op that
+     * returns the first receipt with {@code duplicate = true}. A {@code null} key behaves like {@link #send(EmailMessage)}.
+     */
+    EmailReceipt send(EmailMessage message, String idempotencyKey);
 }
@@ -0,0 +1,140 @@
+package com.roofingcrm.service.mail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Email body template parsed once into alternating literal and placeholder segments, so a send is a walk over the
+ * segments instead of re-scanning a format string.
+ *
+ * <ul>
+ *   <li>{@code {{name}}}: the value, HTML-escaped in {@link #html} templates and as-is in {@link #text} ones.</li>
+ *   <li>{@code {{{name}}}}: the value as-is, for fragments that are already HTML
+ *       (see {@link TenantEmailFragments}).</li>
+ * </ul>
+ * Missing and {@code null} values render as empty. Each render allocates one builder sized to the literals plus the
+ * values, so it never grows while rendering.
+ */
+final class EmailTemplate {
+
+    /** {@code literals.length == names.length + 1}: literal, value, literal, ..., literal. */
+    private final String[] literals;
+    private final String[] names;
+    private final boolean[] escape;
+    private final int literalLength;
+
+    private EmailTemplate(List<String> literals, List<String> names, List<Boolean> escape) {
+        this.literals = literals.toArray(String[]::new);
+        this.names = names.toArray(String[]::new);
+        this.escape = new boolean[escape.size()];
+        for (int i = 0; i < this.escape.length; i++) {
+            this.escape[i] = escape.get(i);
+        }
+        int length = 0;
+        for (String literal : this.literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    static EmailTemplate html(String source) {
+        return parse(source, true);
+    }
+
+    static EmailTemplate text(String source) {
+        return parse(source, false);
+    }
+
+    String render(Map<String, String> values) {
+        StringBuilder out = new StringBuilder(renderedLengthHint(values));
+        renderTo(out, values);
+        return out.toString();
+    }
+
+    /** Literals plus values, with 1/16 headroom on escaped values for entities. */
+    int renderedLengthHint(Map<String, String> values) {
+        long length = literalLength;
+        for (int i = 0; i < names.length; i++) {
+            String value = values.get(names[i]);
+            if (value != null) {
+                length += escape[i] ? value.length() + (value.length() >> 4) : value.length();
+            }
+        }
+        return (int) Math.min(length, Integer.MAX_VALUE - 8);
+    }
+
+    void renderTo(StringBuilder out, Map<String, String> values) {
+        for (int i = 0; i < names.length; i++) {
+            out.append(literals[i]);
+            String value = values.get(names[i]);
+            if (value == null) {
+                continue;
+            }
+            if (escape[i]) {
+                appendEscaped(out, value);
+            } else {
+                out.append(value);
+            }
+        }
+        out.append(literals[names.length]);
+    }
+
+    /** Appends {@code value} HTML-escaped in one pass, copying unescaped runs in bulk. */
+    static void appendEscaped(StringBuilder out, String value) {
+        int runStart = 0;
+        for (int i = 0, length = value.length(); i < length; i++) {
+            String replacement = switch (value.charAt(i)) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '"' -> "&quot;";
+                case '\'' -> "&#39;";
+                default -> null;
+            };
+            if (replacement != null) {
+                out.append(value, runStart, i).append(replacement);
+                runStart = i + 1;
+            }
+        }
+        out.append(value, runStart, value.length());
+    }
+
+    static String escapeHtml(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder out = new StringBuilder(value.length() + 16);
+        appendEscaped(out, value);
+        return out.toString();
+    }
+
+    private static EmailTemplate parse(String source, boolean html) {
+        List<String> literals = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        List<Boolean> escape = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int open = source.indexOf("{{", position);
+            if (open < 0) {
+                literals.add(source.substring(position));
+                return new EmailTemplate(literals, names, escape);
+            }
+            boolean raw = source.startsWith("{{{", open);
+            String closeToken = raw ? "}}}" : "}}";
+            int nameStart = open + (raw ? 3 : 2);
+            int close = source.indexOf(closeToken, nameStart);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder at offset " + open);
+            }
+            String name = source.substring(nameStart, close).trim();
+            if (name.isEmpty()) {
+                throw new IllegalArgumentException("Empty placeholder at offset " + open);
+            }
+            literals.add(source.substring(position, open));
+            names.add(name);
+            escape.add(html && !raw);
+            position = close + closeToken.length();
+        }
+    }
+}
@@ -3,13 +3,43 @@ package com.roofingcrm.service.mail;
 import com.roofingcrm.domain.entity.Estimate;
 import com.roofingcrm.domain.entity.Tenant;
 
-import java.math.BigDecimal;
-import java.text.NumberFormat;
-import java.util.Currency;
-import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 
 public class EstimateEmailTemplateBuilder {
 
+    private static final EmailTemplate HTML = EmailTemplate.html("""
+            <p>{{greeting}}</p>
+            <p>{{intro}}</p>
+            <p><strong>Estimate:</strong> {{number}}<br/><strong>Total:</strong> {{total}}</p>
+            <p><a href="{{url}}">View Estimate</a></p>
+            <p>If the button above does not work, copy and paste this URL into your browser:<br/>{{url}}</p>
+            {{{htmlFooter}}}
+            """);
+
+    private static final EmailTemplate TEXT = EmailTemplate.text("""
+            {{greeting}}
+
+            {{intro}}
+
+            Estimate: {{number}}
+            Total: {{total}}
+
+            View Estimate: {{url}}
+
+            {{textFooter}}
+            """);
+
+    private final TenantEmailFragments tenantFragments;
+
+    public EstimateEmailTemplateBuilder() {
+        this(TenantEmailFragments.shared());
+    }
+
+    EstimateEmailTemplateBuilder(TenantEmailFragments tenantFragments) {
+        this.tenantFragments = tenantFragments;
+    }
+
     public EmailMessage build(Tenant tenant,
                               Estimate estimate,
                               String recipientEmail,
@@ -17,71 +47,31 @@ public class EstimateEmailTemplateBuilder {
                               String subjectOverride,
                               String customMessage,
                               String publicUrl) {
-        String senderName = isBlank(tenant.getName()) ? "Your roofing team" : tenant.getName().trim();
+        TenantEmailFragments.Fragments fragments = tenantFragments.forTenant(tenant);
         String subject = isBlank(subjectOverride)
-                ? "Estimate " + estimate.getEstimateNumber() + " from " + senderName
+                ? "Estimate " + estimate.getEstimateNumber() + " from " + fragments.senderName()
                 : subjectOverride.trim();
         String greeting = isBlank(recipientName) ? "Hello," : "Hello " + recipientName.trim() + ",";
         String intro = isBlank(customMessage)
                 ? "Please review your estimate using the secure link below."
                 : customMessage.trim();
-        String total = formatMoney(estimate.getTotal(), tenant.getDefaultCurrencyCode());
-        String signature = senderName;
-
-        String html = """
-                <p>%s</p>
-                <p>%s</p>
-                <p><strong>Estimate:</strong> %s<br/><strong>Total:</strong> %s</p>
-                <p><a href="%s">View Estimate</a></p>
-                <p>If the button above does not work, copy and paste this URL into your browser:<br/>%s</p>
-                <p>Thank you,<br/>%s</p>
-                """.formatted(
-                escapeHtml(greeting),
-                escapeHtml(intro),
-                escapeHtml(estimate.getEstimateNumber()),
-                escapeHtml(total),
-                escapeHtml(publicUrl),
-                escapeHtml(publicUrl),
-                escapeHtml(signature)
-        );
-
-        String text = """
-                %s
-
-                %s
-
-                Estimate: %s
-                Total: %s
-
-                View Estimate: %s
-
-                Thank you,
-                %s
-                """.formatted(greeting, intro, estimate.getEstimateNumber(), total, publicUrl, signature);
+        String total = fragments.formatMoney(estimate.getTotal());
 
-        return new EmailMessage(recipientEmail, subject, html, text);
-    }
+        Map<String, String> values = Map.of(
+                "greeting", greeting,
+                "intro", intro,
+                "number", Objects.toString(estimate.getEstimateNumber(), ""),
+                "total", total,
+                "url", Objects.toString(publicUrl, ""),
+                "htmlFooter", fragments.htmlFooter(),
+                "textFooter", fragments.textFooter());
+        String html = HTML.render(values);
+        String text = TEXT.render(values);
 
-    private static String formatMoney(BigDecimal amount, String currencyCode) {
-        NumberFormat formatter = NumberFormat.getCurrencyInstance(Locale.US);
-        String code = isBlank(currencyCode) ? "USD" : currencyCode.trim().toUpperCase(Locale.US);
-        formatter.setCurrency(Currency.getInstance(code));
-        return formatter.format(amount == null ? BigDecimal.ZERO : amount);
+        return new EmailMessage(recipientEmail, subject, html, text);
     }
 
     private static boolean isBlank(String value) {
         return value == null || value.trim().isEmpty();
     }
-
-    private static String escapeHtml(String value) {
-        if (value == null) {
-            return "";
-        }
-        return value
-                .replace("&", "&amp;")
-                .replace("<", "&lt;")
-                .replace(">", "&gt;")
-                .replace("\"", "&quot;")
-                .replace("'", "&#39;");
-    }
 }
@@ -3,40 +3,41 @@ package com.roofingcrm.service.mail;
 import com.roofingcrm.domain.entity.Tenant;
 import com.roofingcrm.domain.enums.UserRole;
 
+import java.util.Map;
+import java.util.Objects;
+
 public class InviteEmailTemplateBuilder {
 
-    public EmailMessage build(Tenant tenant, String recipientEmail, UserRole role, String inviteUrl) {
-        String senderName = tenant.getName() == null || tenant.getName().trim().isEmpty()
-                ? "VivaCRM"
-                : tenant.getName().trim();
-        String roleLabel = toRoleLabel(role);
-        String subject = "You're invited to join " + senderName + " on VivaCRM";
+    private static final EmailTemplate HTML = EmailTemplate.html("""
+            <p>Hello,</p>
+            <p>{{sender}} invited you to join their team on VivaCRM as <strong>{{role}}</strong>.</p>
+            <p><a href="{{url}}">Join team</a></p>
+            <p>If the button above does not work, copy and paste this URL into your browser:<br/>{{url}}</p>
+            <p>Thank you,<br/>VivaCRM</p>
+            """);
 
-        String html = """
-                <p>Hello,</p>
-                <p>%s invited you to join their team on VivaCRM as <strong>%s</strong>.</p>
-                <p><a href="%s">Join team</a></p>
-                <p>If the button above does not work, copy and paste this URL into your browser:<br/>%s</p>
-                <p>Thank you,<br/>VivaCRM</p>
-                """.formatted(
-                escapeHtml(senderName),
-                escapeHtml(roleLabel),
-                escapeHtml(inviteUrl),
-                escapeHtml(inviteUrl)
-        );
+    private static final EmailTemplate TEXT = EmailTemplate.text("""
+            Hello,
 
-        String text = """
-                Hello,
+            {{sender}} invited you to join their team on VivaCRM as {{role}}.
 
-                %s invited you to join their team on VivaCRM as %s.
+            Join team: {{url}}
 
-                Join team: %s
+            Thank you,
+            VivaCRM
+            """);
 
-                Thank you,
-                VivaCRM
-                """.formatted(senderName, roleLabel, inviteUrl);
+    public EmailMessage build(Tenant tenant, String recipientEmail, UserRole role, String inviteUrl) {
+        String senderName = tenant.getName() == null || tenant.getName().trim().isEmpty()
+                ? "VivaCRM"
+                : tenant.getName().trim();
+        String subject = "You're invited to join " + senderName + " on VivaCRM";
 
-        return new EmailMessage(recipientEmail, subject, html, text);
+        Map<String, String> values = Map.of(
+                "sender", senderName,
+                "role", toRoleLabel(role),
+                "url", Objects.toString(inviteUrl, ""));
+        return new EmailMessage(recipientEmail, subject, HTML.render(values), TEXT.render(values));
     }
 
     private String toRoleLabel(UserRole role) {
@@ -47,16 +48,4 @@ public class InviteEmailTemplateBuilder {
             case FIELD_TECH -> "Field Tech";
         };
     }
-
-    private static String escapeHtml(String value) {
-        if (value == null) {
-            return "";
-        }
-        return value
-                .replace("&", "&amp;")
-                .replace("<", "&lt;")
-                .replace(">", "&gt;")
-                .replace("\"", "&quot;")
-                .replace("'", "&#39;");
-    }
 }
@@ -3,13 +3,43 @@ package com.roofingcrm.service.mail;
 import com.roofingcrm.domain.entity.Invoice;
 import com.roofingcrm.domain.entity.Tenant;
 
-import java.math.BigDecimal;
-import java.text.NumberFormat;
-import java.util.Currency;
-import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 
 public class InvoiceEmailTemplateBuilder {
 
+    private static final EmailTemplate HTML = EmailTemplate.html("""
+            <p>{{greeting}}</p>
+            <p>{{intro}}</p>
+            <p><strong>Invoice:</strong> {{number}}<br/><strong>Total:</strong> {{total}}</p>
+            <p><a href="{{url}}">View Invoice</a></p>
+            <p>If the button above does not work, copy and paste this URL into your browser:<br/>{{url}}</p>
+            {{{htmlFooter}}}
+            """);
+
+    private static final EmailTemplate TEXT = EmailTemplate.text("""
+            {{greeting}}
+
+            {{intro}}
+
+            Invoice: {{number}}
+            Total: {{total}}
+
+            View Invoice: {{url}}
+
+            {{textFooter}}
+            """);
+
+    private final TenantEmailFragments tenantFragments;
+
+    public InvoiceEmailTemplateBuilder() {
+        this(TenantEmailFragments.shared());
+    }
+
+    InvoiceEmailTemplateBuilder(TenantEmailFragments tenantFragments) {
+        this.tenantFragments = tenantFragments;
+    }
+
     public EmailMessage build(Tenant tenant,
                               Invoice invoice,
                               String recipientEmail,
@@ -17,71 +47,31 @@ public class InvoiceEmailTemplateBuilder {
                               String subjectOverride,
                               String customMessage,
                               String publicUrl) {
-        String senderName = isBlank(tenant.getName()) ? "Your roofing team" : tenant.getName().trim();
+        TenantEmailFragments.Fragments fragments = tenantFragments.forTenant(tenant);
         String subject = isBlank(subjectOverride)
-                ? "Invoice " + invoice.getInvoiceNumber() + " from " + senderName
+                ? "Invoice " + invoice.getInvoiceNumber() + " from " + fragments.senderName()
                 : subjectOverride.trim();
         String greeting = isBlank(recipientName) ? "Hello," : "Hello " + recipientName.trim() + ",";
         String intro = isBlank(customMessage)
                 ? "Please review your invoice using the secure link below."
                 : customMessage.trim();
-        String total = formatMoney(invoice.getTotal(), tenant.getDefaultCurrencyCode());
-        String signature = senderName;
-
-        String html = """
-                <p>%s</p>
-                <p>%s</p>
-                <p><strong>Invoice:</strong> %s<br/><strong>Total:</strong> %s</p>
-                <p><a href="%s">View Invoice</a></p>
-                <p>If the button above does not work, copy and paste this URL into your browser:<br/>%s</p>
-                <p>Thank you,<br/>%s</p>
-                """.formatted(
-                escapeHtml(greeting),
-                escapeHtml(intro),
-                escapeHtml(invoice.getInvoiceNumber()),
-                escapeHtml(total),
-                escapeHtml(publicUrl),
-                escapeHtml(publicUrl),
-                escapeHtml(signature)
-        );
-
-        String text = """
-                %s
-
-                %s
-
-                Invoice: %s
-                Total: %s
-
-                View Invoice: %s
-
-                Thank you,
-                %s
-                """.formatted(greeting, intro, invoice.getInvoiceNumber(), total, publicUrl, signature);
+        String total = fragments.formatMoney(invoice.getTotal());
 
-        return new EmailMessage(recipientEmail, subject, html, text);
-    }
+        Map<String, String> values = Map.of(
+                "greeting", greeting,
+                "intro", intro,
+                "number", Objects.toString(invoice.getInvoiceNumber(), ""),
+                "total", total,
+                "url", Objects.toString(publicUrl, ""),
+                "htmlFooter", fragments.htmlFooter(),
+                "textFooter", fragments.textFooter());
+        String html = HTML.render(values);
+        String text = TEXT.render(values);
 
-    private static String formatMoney(BigDecimal amount, String currencyCode) {
-        NumberFormat formatter = NumberFormat.getCurrencyInstance(Locale.US);
-        String code = isBlank(currencyCode) ? "USD" : currencyCode.trim().toUpperCase(Locale.US);
-        formatter.setCurrency(Currency.getInstance(code));
-        return formatter.format(amount == null ? BigDecimal.ZERO : amount);
+        return new EmailMessage(recipientEmail, subject, html, text);
     }
 
     private static boolean isBlank(String value) {
         return value == null || value.trim().isEmpty();
     }
-
-    private static String escapeHtml(String value) {
-        if (value == null) {
-            return "";
-        }
-        return value
-                .replace("&", "&amp;")
-                .replace("<", "&lt;")
-                .replace(">", "&gt;")
-                .replace("\"", "&quot;")
-                .replace("'", "&#39;");
-    }
 }
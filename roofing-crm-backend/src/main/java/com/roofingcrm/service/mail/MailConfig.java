@@ -1,14 +1,28 @@
 package com.roofingcrm.service.mail;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
 import org.springframework.web.client.RestClient;
 
 @Configuration
 public class MailConfig {
 
     @Bean
-    EmailService emailService(RestClient.Builder restClientBuilder, MailProperties mailProperties) {
+    OutboundEmailQueue outboundEmailQueue(NamedParameterJdbcOperations jdbcOperations, ObjectMapper objectMapper) {
+        return new OutboundEmailQueue(jdbcOperations, objectMapper);
+    }
+
+    /**
+     * Queue-backed service when mail is fully configured, otherwise a service that fails every send with the
+     * configuration problem. The worker is only started in the first case, so queued rows wait (rather than fail)
+     * while mail is switched off.
+     */
+    @Bean
+    EmailService emailService(RestClient.Builder restClientBuilder, MailProperties mailProperties,
+                              OutboundEmailQueue outboundEmailQueue, MeterRegistry meterRegistry) {
         if (!mailProperties.isEnabled()) {
             return new NoopEmailService("Email sending is disabled. Set APP_MAIL_ENABLED=true to enable it.");
         }
@@ -26,7 +40,10 @@ public class MailConfig {
             return new NoopEmailService("Email sending is enabled but APP_MAIL_RESEND_API_KEY is missing.");
         }
 
-        return new ResendEmailService(restClientBuilder, mailProperties);
+        OutboundEmailWorker worker = new OutboundEmailWorker(outboundEmailQueue,
+                new ResendEmailClient(restClientBuilder, mailProperties), mailProperties.getQueue(), meterRegistry);
+        worker.start();
+        return new QueuedEmailService(outboundEmailQueue, worker);
     }
 
     private static boolean isBlank(String value) {
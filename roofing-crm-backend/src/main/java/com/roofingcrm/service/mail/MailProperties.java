@@ -12,6 +12,7 @@ public class MailProperties {
     private String fromEmail = "";
     private String fromName = "";
     private final Resend resend = new Resend();
+    private final Queue queue = new Queue();
 
     public boolean isEnabled() {
         return enabled;
@@ -49,8 +50,14 @@ public class MailProperties {
         return resend;
     }
 
+    public Queue getQueue() {
+        return queue;
+    }
+
     public static class Resend {
         private String apiKey = "";
+        private String baseUrl = "https://api.resend.com";
+        private long timeoutMillis = 10_000;
 
         public String getApiKey() {
             return apiKey;
@@ -59,5 +66,104 @@ public class MailProperties {
         public void setApiKey(String apiKey) {
             this.apiKey = apiKey;
         }
+
+        public String getBaseUrl() {
+            return baseUrl;
+        }
+
+        public void setBaseUrl(String baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+
+        public long getTimeoutMillis() {
+            return timeoutMillis;
+        }
+
+        public void setTimeoutMillis(long timeoutMillis) {
+            this.timeoutMillis = timeoutMillis;
+        }
+    }
+
+    /** Outbound queue drained by {@link OutboundEmailWorker}. */
+    public static class Queue {
+        /** Provider calls in flight at once. */
+        private int workers = 4;
+        /** Messages per provider batch call (capped by the provider's own limit). */
+        private int batchSize = 50;
+        /** How often the worker looks for due messages when nothing wakes it. */
+        private long pollIntervalMillis = 1_000;
+        /** Attempts before a message is marked FAILED. */
+        private int maxAttempts = 8;
+        /** Delay before the first retry; doubles per attempt up to {@link #maxBackoffMillis}. */
+        private long initialBackoffMillis = 5_000;
+        private long maxBackoffMillis = 3_600_000;
+        /** Lease on a claimed message; a worker that dies mid-send releases it to others after this long. */
+        private long leaseMillis = 300_000;
+        /** SENT rows are deleted after this many days. */
+        private int retentionDays = 14;
+
+        public int getWorkers() {
+            return workers;
+        }
+
+        public void setWorkers(int workers) {
+            this.workers = workers;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public long getPollIntervalMillis() {
+            return pollIntervalMillis;
+        }
+
+        public void setPollIntervalMillis(long pollIntervalMillis) {
+            this.pollIntervalMillis = pollIntervalMillis;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public long getInitialBackoffMillis() {
+            return initialBackoffMillis;
+        }
+
+        public void setInitialBackoffMillis(long initialBackoffMillis) {
+            this.initialBackoffMillis = initialBackoffMillis;
+        }
+
+        public long getMaxBackoffMillis() {
+            return maxBackoffMillis;
+        }
+
+        public void setMaxBackoffMillis(long maxBackoffMillis) {
+            this.maxBackoffMillis = maxBackoffMillis;
+        }
+
+        public long getLeaseMillis() {
+            return leaseMillis;
+        }
+
+        public void setLeaseMillis(long leaseMillis) {
+            this.leaseMillis = leaseMillis;
+        }
+
+        public int getRetentionDays() {
+            return retentionDays;
+        }
+
+        public void setRetentionDays(int retentionDays) {
+            this.retentionDays = retentionDays;
+        }
     }
 }
@@ -11,7 +11,7 @@ public class NoopEmailService implements EmailService {
     }
 
     @Override
-    public void send(EmailMessage message) {
+    public EmailReceipt send(EmailMessage message, String idempotencyKey) {
         throw new MailConfigurationException(reason);
     }
 }
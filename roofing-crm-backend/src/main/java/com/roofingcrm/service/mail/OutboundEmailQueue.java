@@ -0,0 +1,234 @@
+package com.roofingcrm.service.mail;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * The {@code outbound_emails} table. Enqueueing joins the caller's transaction (outbox): the row, and so the email,
+ * exists only if the business change commits. Workers claim due rows with {@code FOR UPDATE SKIP LOCKED}, so any
+ * number of instances can drain the queue without sending a message twice, and hold them under a lease
+ * ({@code locked_until}) that returns the row to the queue if the worker dies mid-send. All times come from the
+ * database clock.
+ */
+public class OutboundEmailQueue {
+
+    /**
+     * A claimed message; {@code attempts} includes the attempt about to be made. {@code batchKey} is set once the
+     * message went out in a batch: it is then retried only together with the other {@code batchSize} members.
+     */
+    public record OutboundEmail(UUID id, String idempotencyKey, EmailMessage message, int attempts, String batchKey,
+                                int batchSize) {
+
+        public OutboundEmail(UUID id, String idempotencyKey, EmailMessage message, int attempts) {
+            this(id, idempotencyKey, message, attempts, null, 0);
+        }
+    }
+
+    private static final TypeReference<List<EmailAttachment>> ATTACHMENTS = new TypeReference<>() {
+    };
+
+    static final String ENQUEUE_SQL = """
+            INSERT INTO outbound_emails (id, idempotency_key, to_email, subject, html_body, text_body, attachments,
+                                         has_attachments, status, attempts, next_attempt_at, created_at)
+            VALUES (:id, :idempotencyKey, :toEmail, :subject, :html, :text, CAST(:attachments AS jsonb),
+                    :hasAttachments, 'PENDING', 0, now(), now())
+            ON CONFLICT (idempotency_key) DO NOTHING
+            """;
+
+    static final String FIND_BY_KEY_SQL = "SELECT id FROM outbound_emails WHERE idempotency_key = :idempotencyKey";
+
+    static final String CLAIM_SQL = """
+            UPDATE outbound_emails e
+            SET status = 'SENDING',
+                attempts = e.attempts + 1,
+                locked_until = now() + (:leaseMillis * INTERVAL '1 millisecond')
+            FROM (SELECT id FROM outbound_emails
+                  WHERE status IN ('PENDING', 'SENDING')
+                    AND CASE WHEN status = 'PENDING' THEN next_attempt_at <= now() ELSE locked_until < now() END
+                  ORDER BY next_attempt_at, batch_key
+                  LIMIT :limit
+                  FOR UPDATE SKIP LOCKED) due
+            WHERE e.id = due.id
+            RETURNING e.id, e.idempotency_key, e.to_email, e.subject, e.html_body, e.text_body, e.attachments, e.attempts,
+                      e.batch_key, e.batch_size
+            """;
+
+    /** Recorded before the batch call, so a retry after a lost response sends the same batch under the same key. */
+    static final String ASSIGN_BATCH_SQL = """
+            UPDATE outbound_emails
+            SET batch_key = :batchKey, batch_size = :batchSize
+            WHERE id IN (:ids)
+            """;
+
+    /** The provider rejected the batch, so none of it was sent: the members go on alone under their own keys. */
+    static final String CLEAR_BATCH_SQL = """
+            UPDATE outbound_emails
+            SET batch_key = NULL, batch_size = NULL
+            WHERE id IN (:ids)
+            """;
+
+    /** Returns claimed rows to the queue without counting the attempt. */
+    static final String RELEASE_SQL = """
+            UPDATE outbound_emails
+            SET status = 'PENDING', attempts = attempts - 1, locked_until = NULL
+            WHERE id IN (:ids)
+            """;
+
+    /** Attachments are dropped once sent; photo-report PDFs would otherwise dominate the table. */
+    static final String MARK_SENT_SQL = """
+            UPDATE outbound_emails
+            SET status = 'SENT', sent_at = now(), locked_until = NULL, provider_message_id = :providerMessageId,
+                last_error = NULL, attachments = NULL
+            WHERE id = :id
+            """;
+
+    static final String MARK_RETRY_SQL = """
+            UPDATE outbound_emails
+            SET status = 'PENDING', locked_until = NULL, last_error = :error,
+                next_attempt_at = now() + (:delayMillis * INTERVAL '1 millisecond')
+            WHERE id IN (:ids)
+            """;
+
+    static final String MARK_FAILED_SQL = """
+            UPDATE outbound_emails
+            SET status = 'FAILED', locked_until = NULL, last_error = :error
+            WHERE id = :id
+            """;
+
+    static final String PURGE_SQL = """
+            DELETE FROM outbound_emails
+            WHERE status = 'SENT' AND sent_at < now() - (:retentionDays * INTERVAL '1 day')
+            """;
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final NamedParameterJdbcOperations jdbc;
+    private final ObjectMapper objectMapper;
+    private final RowMapper<OutboundEmail> rowMapper;
+
+    public OutboundEmailQueue(NamedParameterJdbcOperations jdbc, ObjectMapper objectMapper) {
+        this.jdbc = Objects.requireNonNull(jdbc);
+        this.objectMapper = Objects.requireNonNull(objectMapper);
+        this.rowMapper = (rs, rowNum) -> new OutboundEmail(
+                rs.getObject("id", UUID.class),
+                rs.getString("idempotency_key"),
+                new EmailMessage(
+                        rs.getString("to_email"),
+                        rs.getString("subject"),
+                        rs.getString("html_body"),
+                        rs.getString("text_body"),
+                        readAttachments(rs.getString("attachments"))),
+                rs.getInt("attempts"),
+                rs.getString("batch_key"),
+                rs.getInt("batch_size"));
+    }
+
+    /**
+     * Queues the message unless one with the same key is already queued. Runs in the caller's transaction when
+     * there is one.
+     */
+    public EmailReceipt enqueue(EmailMessage message, String idempotencyKey) {
+        UUID id = UUID.randomUUID();
+        boolean hasAttachments = message.attachments() != null && !message.attachments().isEmpty();
+        int inserted = jdbc.update(ENQUEUE_SQL, new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("idempotencyKey", idempotencyKey)
+                .addValue("toEmail", message.toEmail())
+                .addValue("subject", message.subject())
+                .addValue("html", message.html())
+                .addValue("text", message.text())
+                .addValue("attachments", hasAttachments ? writeAttachments(message.attachments()) : null)
+                .addValue("hasAttachments", hasAttachments));
+        if (inserted == 1) {
+            return new EmailReceipt(id, idempotencyKey, false);
+        }
+        UUID existing = jdbc.queryForObject(FIND_BY_KEY_SQL,
+                new MapSqlParameterSource("idempotencyKey", idempotencyKey), UUID.class);
+        return new EmailReceipt(existing, idempotencyKey, true);
+    }
+
+    /** Claims up to {@code limit} due messages for {@code leaseMillis}. */
+    public List<OutboundEmail> claimDue(int limit, long leaseMillis) {
+        return jdbc.query(CLAIM_SQL, new MapSqlParameterSource()
+                .addValue("limit", limit)
+                .addValue("leaseMillis", leaseMillis), rowMapper);
+    }
+
+    public void markSent(UUID id, String providerMessageId) {
+        jdbc.update(MARK_SENT_SQL, new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("providerMessageId", providerMessageId));
+    }
+
+    public void markRetry(UUID id, long delayMillis, String error) {
+        markRetry(List.of(id), delayMillis, error);
+    }
+
+    /** Reschedules the messages to the same instant, so a batch is claimed again as a whole. */
+    public void markRetry(List<UUID> ids, long delayMillis, String error) {
+        jdbc.update(MARK_RETRY_SQL, new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("delayMillis", delayMillis)
+                .addValue("error", truncate(error)));
+    }
+
+    public void assignBatch(List<UUID> ids, String batchKey) {
+        jdbc.update(ASSIGN_BATCH_SQL, new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("batchKey", batchKey)
+                .addValue("batchSize", ids.size()));
+    }
+
+    public void clearBatch(List<UUID> ids) {
+        jdbc.update(CLEAR_BATCH_SQL, new MapSqlParameterSource("ids", ids));
+    }
+
+    public void release(List<UUID> ids) {
+        jdbc.update(RELEASE_SQL, new MapSqlParameterSource("ids", ids));
+    }
+
+    public void markFailed(UUID id, String error) {
+        jdbc.update(MARK_FAILED_SQL, new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("error", truncate(error)));
+    }
+
+    /** Deletes SENT rows older than {@code retentionDays}; returns how many. */
+    public int purgeSent(int retentionDays) {
+        return jdbc.update(PURGE_SQL, new MapSqlParameterSource("retentionDays", retentionDays));
+    }
+
+    private String writeAttachments(List<EmailAttachment> attachments) {
+        try {
+            return objectMapper.writeValueAsString(attachments);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize email attachments", e);
+        }
+    }
+
+    private List<EmailAttachment> readAttachments(String json) {
+        if (json == null) {
+            return List.of();
+        }
+        try {
+            return objectMapper.readValue(json, ATTACHMENTS);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read queued email attachments", e);
+        }
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,354 @@
+package com.roofingcrm.service.mail;
+
+import com.roofingcrm.service.mail.OutboundEmailQueue.OutboundEmail;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Drains {@link OutboundEmailQueue}. A poller thread claims due messages and fans provider calls out over
+ * {@code app.mail.queue.workers} sender threads, so a slow provider delays the queue, never a request.
+ *
+ * <ul>
+ *   <li>First attempts of messages the provider can batch go out {@code app.mail.queue.batch-size} per call, under a
+ *       key derived from the batch members. The membership is stored on the rows before the call, and a batch that
+ *       failed transiently is retried only as a whole, in the same order and under the same key, so the provider
+ *       replays a batch whose response was lost instead of sending it again. A batch the provider rejects permanently
+ *       (one invalid address fails the whole call) is resent one message at a time, so only the offending messages
+ *       fail.</li>
+ *   <li>Other messages (with attachments, or first sent alone) go out alone under the message's own idempotency key,
+ *       so a send whose response was lost is deduplicated by the provider.</li>
+ *   <li>Failures retry with exponential backoff and jitter; 4xx responses other than 408/409/429 are permanent, as is
+ *       running out of {@code app.mail.queue.max-attempts}. Permanent failures are left as FAILED rows.</li>
+ * </ul>
+ *
+ * {@link #wakeUp()} (called after a queueing transaction commits) skips the poll interval, so a queued email normally
+ * leaves within one provider round trip.
+ */
+public class OutboundEmailWorker implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboundEmailWorker.class);
+
+    private static final long PURGE_INTERVAL_MS = TimeUnit.HOURS.toMillis(1);
+
+    private final OutboundEmailQueue queue;
+    private final EmailDeliveryClient client;
+    private final MailProperties.Queue properties;
+    private final ExecutorService senders;
+    private final DoubleSupplier jitter;
+    private final int batchSize;
+    private final Semaphore wakeUps = new Semaphore(0);
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter failed;
+    private final Timer singleSends;
+    private final Timer batchSends;
+
+    private volatile boolean running;
+    private Thread poller;
+    private long lastPurgeMs;
+
+    public OutboundEmailWorker(OutboundEmailQueue queue, EmailDeliveryClient client, MailProperties.Queue properties,
+                               MeterRegistry meterRegistry) {
+        this(queue, client, properties, meterRegistry,
+                Executors.newFixedThreadPool(Math.max(1, properties.getWorkers()), senderThreadFactory()),
+                () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    OutboundEmailWorker(OutboundEmailQueue queue, EmailDeliveryClient client, MailProperties.Queue properties,
+                        MeterRegistry meterRegistry, ExecutorService senders, DoubleSupplier jitter) {
+        this.queue = queue;
+        this.client = client;
+        this.properties = properties;
+        this.senders = senders;
+        this.jitter = jitter;
+        this.batchSize = Math.max(1, Math.min(properties.getBatchSize(), client.maxBatchSize()));
+        this.sent = Counter.builder("mail.outbound.sent")
+                .description("Queued emails accepted by the provider")
+                .register(meterRegistry);
+        this.retried = Counter.builder("mail.outbound.retried")
+                .description("Email send attempts that failed and were rescheduled")
+                .register(meterRegistry);
+        this.failed = Counter.builder("mail.outbound.failed")
+                .description("Queued emails given up on (permanent error or attempts exhausted)")
+                .register(meterRegistry);
+        this.singleSends = Timer.builder("mail.outbound.provider.calls")
+                .description("Email provider call latency")
+                .tag("batch", "false")
+                .register(meterRegistry);
+        this.batchSends = Timer.builder("mail.outbound.provider.calls")
+                .description("Email provider call latency")
+                .tag("batch", "true")
+                .register(meterRegistry);
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        poller = new Thread(this::pollLoop, "mail-queue-poller");
+        poller.setDaemon(true);
+        poller.start();
+    }
+
+    /** Polls now instead of at the next interval. */
+    public void wakeUp() {
+        if (wakeUps.availablePermits() == 0) {
+            wakeUps.release();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        running = false;
+        if (poller != null) {
+            poller.interrupt();
+        }
+        senders.shutdown();
+        try {
+            if (!senders.awaitTermination(properties.getLeaseMillis(), TimeUnit.MILLISECONDS)) {
+                senders.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            senders.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void pollLoop() {
+        while (running) {
+            int claimed = 0;
+            try {
+                claimed = pollOnce();
+                maybePurge();
+            } catch (RuntimeException e) {
+                log.warn("Outbound email poll failed: {}", e.getMessage());
+            }
+            if (claimed >= claimLimit()) {
+                continue;
+            }
+            try {
+                wakeUps.tryAcquire(properties.getPollIntervalMillis(), TimeUnit.MILLISECONDS);
+                wakeUps.drainPermits();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /** Claims one round of due messages and sends them; returns how many were claimed. */
+    int pollOnce() {
+        List<OutboundEmail> due = queue.claimDue(claimLimit(), properties.getLeaseMillis());
+        if (due.isEmpty()) {
+            return 0;
+        }
+        List<OutboundEmail> batchable = new ArrayList<>();
+        Map<String, List<OutboundEmail>> retriedBatches = new LinkedHashMap<>();
+        List<Runnable> sends = new ArrayList<>();
+        for (OutboundEmail email : due) {
+            if (email.batchKey() != null) {
+                retriedBatches.computeIfAbsent(email.batchKey(), key -> new ArrayList<>()).add(email);
+            } else if (email.attempts() == 1 && client.supportsBatch(email.message())) {
+                batchable.add(email);
+            } else {
+                sends.add(() -> sendSingle(email));
+            }
+        }
+        for (List<OutboundEmail> batch : retriedBatches.values()) {
+            if (batch.size() == batch.get(0).batchSize()) {
+                sends.add(() -> sendBatch(inBatchOrder(batch)));
+            } else {
+                // The rest of the batch was cut off by the claim limit or claimed elsewhere; wait for all of it.
+                queue.release(ids(batch));
+            }
+        }
+        for (int from = 0; from < batchable.size(); from += batchSize) {
+            List<OutboundEmail> batch = batchable.subList(from, Math.min(from + batchSize, batchable.size()));
+            sends.add(batch.size() == 1 ? () -> sendSingle(batch.get(0)) : () -> sendBatch(inBatchOrder(batch)));
+        }
+        CompletableFuture.allOf(sends.stream()
+                        .map(send -> CompletableFuture.runAsync(send, senders))
+                        .toArray(CompletableFuture[]::new))
+                .join();
+        return due.size();
+    }
+
+    private int claimLimit() {
+        return batchSize * Math.max(1, properties.getWorkers());
+    }
+
+    private void sendSingle(OutboundEmail email) {
+        try {
+            String providerId = singleSends.recordCallable(
+                    () -> client.send(email.message(), email.idempotencyKey()));
+            queue.markSent(email.id(), providerId);
+            sent.increment();
+        } catch (Exception e) {
+            onFailure(email, e);
+        }
+    }
+
+    private void sendBatch(List<OutboundEmail> batch) {
+        String key = batchKey(batch);
+        if (batch.get(0).batchKey() == null) {
+            queue.assignBatch(ids(batch), key);
+        }
+        List<String> providerIds;
+        try {
+            providerIds = batchSends.recordCallable(() -> client.sendBatch(
+                    batch.stream().map(OutboundEmail::message).toList(), key));
+        } catch (Exception e) {
+            if (isRetryable(e)) {
+                onBatchFailure(batch, e);
+            } else {
+                log.warn("Email batch of {} rejected ({}), sending individually", batch.size(), describe(e));
+                queue.clearBatch(ids(batch));
+                batch.forEach(this::sendSingle);
+            }
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            String providerId = providerIds != null && i < providerIds.size() ? providerIds.get(i) : null;
+            queue.markSent(batch.get(i).id(), providerId);
+            sent.increment();
+        }
+    }
+
+    private void onFailure(OutboundEmail email, Exception e) {
+        String error = describe(e);
+        if (!isRetryable(e) || email.attempts() >= properties.getMaxAttempts()) {
+            log.error("Giving up on queued email {} to {} after {} attempt(s): {}",
+                    email.id(), email.message().toEmail(), email.attempts(), error);
+            queue.markFailed(email.id(), error);
+            failed.increment();
+            return;
+        }
+        long delay = backoffMillis(email.attempts(), properties.getInitialBackoffMillis(),
+                properties.getMaxBackoffMillis(), jitter.getAsDouble());
+        log.warn("Queued email {} attempt {} failed, retrying in {} ms: {}", email.id(), email.attempts(), delay, error);
+        queue.markRetry(email.id(), delay, error);
+        retried.increment();
+    }
+
+    /** Members of a batch share their attempts, so they are retried, or given up on, together. */
+    private void onBatchFailure(List<OutboundEmail> batch, Exception e) {
+        OutboundEmail first = batch.get(0);
+        if (first.attempts() >= properties.getMaxAttempts()) {
+            batch.forEach(email -> onFailure(email, e));
+            return;
+        }
+        String error = describe(e);
+        long delay = backoffMillis(first.attempts(), properties.getInitialBackoffMillis(),
+                properties.getMaxBackoffMillis(), jitter.getAsDouble());
+        log.warn("Email batch of {} attempt {} failed, retrying in {} ms: {}", batch.size(), first.attempts(), delay,
+                error);
+        queue.markRetry(ids(batch), delay, error);
+        retried.increment(batch.size());
+    }
+
+    private void maybePurge() {
+        long now = System.currentTimeMillis();
+        if (now - lastPurgeMs < PURGE_INTERVAL_MS) {
+            return;
+        }
+        lastPurgeMs = now;
+        int purged = queue.purgeSent(properties.getRetentionDays());
+        if (purged > 0) {
+            log.info("Purged {} sent emails older than {} days", purged, properties.getRetentionDays());
+        }
+    }
+
+    /**
+     * Delay before retrying after {@code attempt} failed: {@code initial * 2^(attempt-1)} capped at {@code max}, of
+     * which the upper half is randomized by {@code jitter} (0..1) so messages that failed together do not retry
+     * together.
+     */
+    static long backoffMillis(int attempt, long initialMillis, long maxMillis, double jitter) {
+        int exponent = Math.min(Math.max(attempt - 1, 0), 30);
+        long ceiling = Math.min(maxMillis, initialMillis << exponent);
+        long half = ceiling / 2;
+        return half + (long) (half * jitter);
+    }
+
+    /** 4xx is permanent except timeouts, conflicts (idempotent request still in progress) and rate limits. */
+    static boolean isRetryable(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RestClientResponseException response) {
+                int status = response.getStatusCode().value();
+                return status >= 500
+                        || status == HttpStatus.REQUEST_TIMEOUT.value()
+                        || status == HttpStatus.CONFLICT.value()
+                        || status == HttpStatus.TOO_MANY_REQUESTS.value();
+            }
+        }
+        return true;
+    }
+
+    /** The order a batch is sent in, the same on every attempt (the key and the request body must both match). */
+    static List<OutboundEmail> inBatchOrder(List<OutboundEmail> batch) {
+        return batch.stream().sorted(Comparator.comparing(OutboundEmail::idempotencyKey)).toList();
+    }
+
+    private static List<UUID> ids(List<OutboundEmail> emails) {
+        return emails.stream().map(OutboundEmail::id).toList();
+    }
+
+    /** Batch idempotency key: stable for the same members, different for any other composition. */
+    static String batchKey(List<OutboundEmail> batch) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (OutboundEmail email : batch) {
+                digest.update(email.idempotencyKey().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            return "batch:" + HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String describe(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RestClientResponseException response) {
+                return response.getStatusCode().value() + " " + response.getResponseBodyAsString();
+            }
+        }
+        Throwable root = error.getCause() != null ? error.getCause() : error;
+        return root.getClass().getSimpleName() + ": " + root.getMessage();
+    }
+
+    private static ThreadFactory senderThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "mail-sender-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
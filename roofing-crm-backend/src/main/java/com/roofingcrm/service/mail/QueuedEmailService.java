@@ -0,0 +1,57 @@
+package com.roofingcrm.service.mail;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+/**
+ * {@link EmailService} backed by the {@code outbound_emails} queue: {@link #send} inserts a row and returns, and
+ * {@link OutboundEmailWorker} delivers it after the transaction commits. Messages queued without an idempotency key
+ * get a unique one: they are never deduplicated against each other (resending an invoice must send it again), while
+ * retries of the queued row still reuse its key with the provider.
+ */
+public class QueuedEmailService implements EmailService, AutoCloseable {
+
+    static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
+    private final OutboundEmailQueue queue;
+    private final OutboundEmailWorker worker;
+
+    public QueuedEmailService(OutboundEmailQueue queue, OutboundEmailWorker worker) {
+        this.queue = queue;
+        this.worker = worker;
+    }
+
+    @Override
+    public EmailReceipt send(EmailMessage message, String idempotencyKey) {
+        String key = idempotencyKey != null ? idempotencyKey : "msg:" + UUID.randomUUID();
+        if (key.isBlank() || key.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new IllegalArgumentException(
+                    "Idempotency key must be 1-" + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+        EmailReceipt receipt = queue.enqueue(message, key);
+        if (!receipt.duplicate()) {
+            wakeWorkerAfterCommit();
+        }
+        return receipt;
+    }
+
+    @Override
+    public void close() {
+        worker.close();
+    }
+
+    private void wakeWorkerAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            worker.wakeUp();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                worker.wakeUp();
+            }
+        });
+    }
+}
@@ -0,0 +1,143 @@
+package com.roofingcrm.service.mail;
+
+import com.roofingcrm.service.exception.MailDeliveryException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Resend transport: {@code POST /emails} for single messages and {@code POST /emails/batch} (up to 100 messages,
+ * no attachments) for batches. Every call carries an {@code Idempotency-Key} header, so a send retried after a lost
+ * response is not delivered twice. The base URL comes from {@code app.mail.resend.base-url}, which lets tests point
+ * it at a local HTTP stub.
+ */
+public class ResendEmailClient implements EmailDeliveryClient {
+
+    private static final Logger log = LoggerFactory.getLogger(ResendEmailClient.class);
+
+    /** Resend's batch endpoint limit. */
+    static final int MAX_BATCH_SIZE = 100;
+
+    private record SendResponse(String id) {
+    }
+
+    private record BatchResponse(List<SendResponse> data) {
+    }
+
+    private final RestClient restClient;
+    private final MailProperties mailProperties;
+
+    public ResendEmailClient(RestClient.Builder restClientBuilder, MailProperties mailProperties) {
+        MailProperties.Resend resend = mailProperties.getResend();
+        this.restClient = restClientBuilder
+                .baseUrl(resend.getBaseUrl())
+                .requestFactory(Objects.requireNonNull(createRequestFactory(resend.getTimeoutMillis())))
+                .build();
+        this.mailProperties = mailProperties;
+    }
+
+    @Override
+    public String send(EmailMessage message, String idempotencyKey) {
+        try {
+            SendResponse response = restClient.post()
+                    .uri("/emails")
+                    .contentType(Objects.requireNonNull(MediaType.APPLICATION_JSON))
+                    .header("Authorization", "Bearer " + mailProperties.getResend().getApiKey())
+                    .header("Idempotency-Key", idempotencyKey)
+                    .body(Objects.requireNonNull(payload(message)))
+                    .retrieve()
+                    .body(SendResponse.class);
+            log.info("Sent transactional email via Resend to {}", message.toEmail());
+            return response != null ? response.id() : null;
+        } catch (RestClientException ex) {
+            log.warn("Failed to send transactional email via Resend to {}: {}", message.toEmail(), ex.getMessage());
+            throw new MailDeliveryException("Failed to send email through Resend.", ex);
+        }
+    }
+
+    @Override
+    public int maxBatchSize() {
+        return MAX_BATCH_SIZE;
+    }
+
+    @Override
+    public boolean supportsBatch(EmailMessage message) {
+        return message.attachments() == null || message.attachments().isEmpty();
+    }
+
+    @Override
+    public List<String> sendBatch(List<EmailMessage> messages, String idempotencyKey) {
+        List<Map<String, Object>> payload = messages.stream().map(this::payload).toList();
+        try {
+            BatchResponse response = restClient.post()
+                    .uri("/emails/batch")
+                    .contentType(Objects.requireNonNull(MediaType.APPLICATION_JSON))
+                    .header("Authorization", "Bearer " + mailProperties.getResend().getApiKey())
+                    .header("Idempotency-Key", idempotencyKey)
+                    .body(payload)
+                    .retrieve()
+                    .body(BatchResponse.class);
+            log.info("Sent batch of {} transactional emails via Resend", messages.size());
+            if (response == null || response.data() == null) {
+                return messages.stream().map(message -> (String) null).toList();
+            }
+            return response.data().stream().map(SendResponse::id).toList();
+        } catch (RestClientException ex) {
+            log.warn("Failed to send batch of {} transactional emails via Resend: {}", messages.size(), ex.getMessage());
+            throw new MailDeliveryException("Failed to send email batch through Resend.", ex);
+        }
+    }
+
+    private Map<String, Object> payload(EmailMessage message) {
+        String fromName = blankToNull(mailProperties.getFromName());
+        String fromEmail = blankToNull(mailProperties.getFromEmail());
+        String from = fromName != null ? fromName + " <" + fromEmail + ">" : String.valueOf(fromEmail);
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("from", from);
+        payload.put("to", List.of(message.toEmail()));
+        payload.put("subject", message.subject());
+        payload.put("html", message.html());
+        payload.put("text", message.text());
+        if (message.attachments() != null && !message.attachments().isEmpty()) {
+            payload.put("attachments", message.attachments().stream().map(attachment -> {
+                Map<String, Object> entry = new HashMap<>();
+                entry.put("filename", attachment.filename());
+                entry.put("content", attachment.content());
+                if (attachment.contentType() != null && !attachment.contentType().isBlank()) {
+                    entry.put("content_type", attachment.contentType());
+                }
+                return entry;
+            }).toList());
+        }
+        return payload;
+    }
+
+    private static JdkClientHttpRequestFactory createRequestFactory(long timeoutMillis) {
+        Duration timeout = Duration.ofMillis(Math.max(1, timeoutMillis));
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(Objects.requireNonNull(httpClient));
+        requestFactory.setReadTimeout(Objects.requireNonNull(timeout));
+        return requestFactory;
+    }
+
+    private static String blankToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+}
@@ -0,0 +1,95 @@
+package com.roofingcrm.service.mail;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.roofingcrm.domain.entity.Tenant;
+
+import java.math.BigDecimal;
+import java.text.NumberFormat;
+import java.time.Duration;
+import java.util.Currency;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Per-tenant pieces shared by every customer-facing email (sender name, signature footer, currency format), built
+ * once per tenant instead of once per send. Entries remember the tenant name and currency they were built from and
+ * are rebuilt when either changes, so a rename shows up on the next email without explicit invalidation.
+ */
+final class TenantEmailFragments {
+
+    static final String DEFAULT_SENDER_NAME = "Your roofing team";
+
+    private static final TenantEmailFragments SHARED = new TenantEmailFragments(10_000, Duration.ofHours(1));
+
+    private static final EmailTemplate HTML_FOOTER = EmailTemplate.html("<p>Thank you,<br/>{{sender}}</p>");
+    private static final EmailTemplate TEXT_FOOTER = EmailTemplate.text("Thank you,\n{{sender}}");
+
+    /**
+     * {@code senderName} goes into subjects, {@code htmlFooter} (already escaped) into {@code {{{htmlFooter}}}}
+     * of HTML templates and {@code textFooter} into text ones. {@code sourceName} and {@code sourceCurrencyCode}
+     * are what the entry was built from.
+     */
+    record Fragments(String sourceName, String sourceCurrencyCode, String senderName, String htmlFooter,
+                     String textFooter, NumberFormat currencyFormat) {
+
+        /** {@link NumberFormat} is not thread-safe: each call formats with a clone of the cached prototype. */
+        String formatMoney(BigDecimal amount) {
+            return ((NumberFormat) currencyFormat.clone()).format(amount == null ? BigDecimal.ZERO : amount);
+        }
+    }
+
+    private final Cache<UUID, Fragments> cache;
+
+    TenantEmailFragments(long maximumSize, Duration expireAfterAccess) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(expireAfterAccess)
+                .build();
+    }
+
+    static TenantEmailFragments shared() {
+        return SHARED;
+    }
+
+    Fragments forTenant(Tenant tenant) {
+        UUID tenantId = tenant.getId();
+        if (tenantId == null) {
+            return build(tenant);
+        }
+        Fragments cached = cache.getIfPresent(tenantId);
+        if (cached != null
+                && Objects.equals(cached.sourceName(), tenant.getName())
+                && Objects.equals(cached.sourceCurrencyCode(), tenant.getDefaultCurrencyCode())) {
+            return cached;
+        }
+        Fragments fresh = build(tenant);
+        cache.put(tenantId, fresh);
+        return fresh;
+    }
+
+    private static Fragments build(Tenant tenant) {
+        String senderName = isBlank(tenant.getName()) ? DEFAULT_SENDER_NAME : tenant.getName().trim();
+        Map<String, String> values = Map.of("sender", senderName);
+        return new Fragments(
+                tenant.getName(),
+                tenant.getDefaultCurrencyCode(),
+                senderName,
+                HTML_FOOTER.render(values),
+                TEXT_FOOTER.render(values),
+                currencyFormat(tenant.getDefaultCurrencyCode()));
+    }
+
+    private static NumberFormat currencyFormat(String currencyCode) {
+        NumberFormat formatter = NumberFormat.getCurrencyInstance(Locale.US);
+        String code = isBlank(currencyCode) ? "USD" : currencyCode.trim().toUpperCase(Locale.US);
+        formatter.setCurrency(Currency.getInstance(code));
+        return formatter;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+}
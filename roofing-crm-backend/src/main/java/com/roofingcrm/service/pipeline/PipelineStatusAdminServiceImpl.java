@@ -9,6 +9,7 @@ import com.roofingcrm.domain.entity.Tenant;
 import com.roofingcrm.domain.enums.PipelineType;
 import com.roofingcrm.domain.enums.UserRole;
 import com.roofingcrm.domain.repository.PipelineStatusDefinitionRepository;
+import com.roofingcrm.service.cache.ReferenceDataCacheInvalidator;
 import com.roofingcrm.service.exception.ResourceNotFoundException;
 import com.roofingcrm.service.tenant.TenantAccessService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -32,13 +33,16 @@ public class PipelineStatusAdminServiceImpl implements PipelineStatusAdminServic
 
     private final TenantAccessService tenantAccessService;
     private final PipelineStatusDefinitionRepository definitionRepository;
+    private final ReferenceDataCacheInvalidator cacheInvalidator;
 
     @Autowired
     public PipelineStatusAdminServiceImpl(
             TenantAccessService tenantAccessService,
-            PipelineStatusDefinitionRepository definitionRepository) {
+            PipelineStatusDefinitionRepository definitionRepository,
+            ReferenceDataCacheInvalidator cacheInvalidator) {
         this.tenantAccessService = tenantAccessService;
         this.definitionRepository = definitionRepository;
+        this.cacheInvalidator = cacheInvalidator;
     }
 
     @Override
@@ -80,6 +84,7 @@ public class PipelineStatusAdminServiceImpl implements PipelineStatusAdminServic
         def.setBuiltIn(false);
         def.setActive(true);
         PipelineStatusDefinition saved = definitionRepository.save(def);
+        cacheInvalidator.evictPipelineStatusesAfterCommit();
         return toDto(saved);
     }
 
@@ -99,7 +104,9 @@ public class PipelineStatusAdminServiceImpl implements PipelineStatusAdminServic
             throw new IllegalArgumentException("Label is required");
         }
         def.setLabel(label);
-        return toDto(definitionRepository.save(def));
+        PipelineStatusDefinition saved = definitionRepository.save(def);
+        cacheInvalidator.evictPipelineStatusesAfterCommit();
+        return toDto(saved);
     }
 
     @Override
@@ -132,6 +139,7 @@ public class PipelineStatusAdminServiceImpl implements PipelineStatusAdminServic
             reordered.get(i).setSortOrder(i);
         }
         definitionRepository.saveAll(reordered);
+        cacheInvalidator.evictPipelineStatusesAfterCommit();
     }
 
     @Override
@@ -212,6 +220,7 @@ public class PipelineStatusAdminServiceImpl implements PipelineStatusAdminServic
             finalOrder.get(i).setSortOrder(i);
         }
         definitionRepository.saveAll(Objects.requireNonNull(all));
+        cacheInvalidator.evictPipelineStatusesAfterCommit();
     }
 
     @Override
@@ -230,10 +239,13 @@ public class PipelineStatusAdminServiceImpl implements PipelineStatusAdminServic
         }
         def.setActive(false);
         definitionRepository.save(def);
+        cacheInvalidator.evictPipelineStatusesAfterCommit();
     }
 
     @Override
     public void seedDefaultsForNewTenant(@NonNull Tenant tenant) {
+        // Collect first and save once so the lookups below never auto-flush a partial set; one batched INSERT.
+        List<PipelineStatusDefinition> seeded = new ArrayList<>();
         for (PipelineType type : PipelineType.values()) {
             long existing = definitionRepository
                     .findByTenantAndPipelineTypeAndArchivedFalseOrderBySortOrderAsc(tenant, type)
@@ -251,9 +263,13 @@ public class PipelineStatusAdminServiceImpl implements PipelineStatusAdminServic
                 def.setSortOrder(order++);
                 def.setBuiltIn(true);
                 def.setActive(true);
-                definitionRepository.save(def);
+                seeded.add(def);
             }
         }
+        if (!seeded.isEmpty()) {
+            definitionRepository.saveAll(seeded);
+            cacheInvalidator.evictPipelineStatusesAfterCommit();
+        }
     }
 
     private long usageCount(Tenant tenant, PipelineType type, UUID definitionId) {
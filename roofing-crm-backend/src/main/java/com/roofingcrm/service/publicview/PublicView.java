@@ -0,0 +1,34 @@
+package com.roofingcrm.service.publicview;
+
+import org.springframework.http.CacheControl;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A rendered public estimate/invoice view as served from {@link PublicViewCache}.
+ *
+ * @param entityId  estimate or invoice id (what invalidation is keyed on)
+ * @param tokenHash share token hash the view was loaded for
+ * @param body      the public DTO
+ * @param etag      content hash of {@code body}, unquoted
+ * @param expiresAt share link expiry, checked on every hit; {@code null} = never
+ */
+public record PublicView<T>(
+        UUID entityId,
+        String tokenHash,
+        T body,
+        String etag,
+        Instant expiresAt
+) {
+
+    /**
+     * Links are bearer secrets, so only the customer's browser may store the response, and it must revalidate
+     * (a cheap 304 against the ETag) because the estimate can be accepted or changed at any time.
+     */
+    public static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && now.isAfter(expiresAt);
+    }
+}
@@ -0,0 +1,92 @@
+package com.roofingcrm.service.publicview;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache of rendered public views for one kind of shared document, keyed by share token hash. Customers
+ * reopen links and mail scanners prefetch them; a hit costs a map lookup and no database access.
+ *
+ * <p>Entries are stored per entity, with a token-hash index in front, so {@link #evict(UUID)} (called when the entity
+ * changes, see {@link PublicViewCacheInvalidator}) needs only the id; a hit is only served when the stored view was
+ * loaded for the requested hash, so a regenerated token never reaches the old view. A load that overlaps an eviction
+ * is not kept, so a view read before a commit cannot outlive it.
+ */
+public class PublicViewCache<T> {
+
+    /** Loads the view for a token hash; throws (not found/expired) when there is none, which is not cached. */
+    @FunctionalInterface
+    public interface Loader<T> {
+        PublicView<T> load(String tokenHash);
+    }
+
+    private final Cache<String, UUID> entityIdByTokenHash;
+    private final Cache<UUID, PublicView<T>> viewsByEntityId;
+    private final ObjectMapper objectMapper;
+    private final AtomicLong evictions = new AtomicLong();
+
+    public PublicViewCache(String kind, PublicViewCacheProperties properties, ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry) {
+        Duration ttl = Duration.ofSeconds(Math.max(0, properties.getTtlSeconds()));
+        this.entityIdByTokenHash = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxEntries())
+                .expireAfterWrite(ttl)
+                .build();
+        this.viewsByEntityId = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxEntries())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.objectMapper = objectMapper;
+        CaffeineCacheMetrics.monitor(meterRegistry, viewsByEntityId, "public.views", "kind", kind);
+    }
+
+    public PublicView<T> get(String tokenHash, Loader<T> loader) {
+        UUID entityId = entityIdByTokenHash.getIfPresent(tokenHash);
+        if (entityId != null) {
+            PublicView<T> cached = viewsByEntityId.getIfPresent(entityId);
+            if (cached != null && cached.tokenHash().equals(tokenHash)) {
+                return cached;
+            }
+        }
+        long evictionsBefore = evictions.get();
+        PublicView<T> loaded = loader.load(tokenHash);
+        entityIdByTokenHash.put(tokenHash, loaded.entityId());
+        viewsByEntityId.put(loaded.entityId(), loaded);
+        if (evictions.get() != evictionsBefore) {
+            viewsByEntityId.invalidate(loaded.entityId());
+        }
+        return loaded;
+    }
+
+    /** Builds a view, hashing the serialized body into its ETag. */
+    public PublicView<T> view(UUID entityId, String tokenHash, T body, Instant expiresAt) {
+        return new PublicView<>(entityId, tokenHash, body, etag(body), expiresAt);
+    }
+
+    public void evict(UUID entityId) {
+        evictions.incrementAndGet();
+        viewsByEntityId.invalidate(entityId);
+    }
+
+    private String etag(T body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(body));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not compute public view ETag", e);
+        }
+    }
+}
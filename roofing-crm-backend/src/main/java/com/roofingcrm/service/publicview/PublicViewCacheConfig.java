@@ -0,0 +1,26 @@
+package com.roofingcrm.service.publicview;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.roofingcrm.api.publicapi.estimate.PublicEstimateDto;
+import com.roofingcrm.api.publicapi.invoice.PublicInvoiceDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class PublicViewCacheConfig {
+
+    @Bean
+    public PublicViewCache<PublicEstimateDto> publicEstimateViewCache(PublicViewCacheProperties properties,
+                                                                      ObjectMapper objectMapper,
+                                                                      MeterRegistry meterRegistry) {
+        return new PublicViewCache<>("estimate", properties, objectMapper, meterRegistry);
+    }
+
+    @Bean
+    public PublicViewCache<PublicInvoiceDto> publicInvoiceViewCache(PublicViewCacheProperties properties,
+                                                                    ObjectMapper objectMapper,
+                                                                    MeterRegistry meterRegistry) {
+        return new PublicViewCache<>("invoice", properties, objectMapper, meterRegistry);
+    }
+}
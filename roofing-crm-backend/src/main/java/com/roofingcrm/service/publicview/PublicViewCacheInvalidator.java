@@ -0,0 +1,122 @@
+package com.roofingcrm.service.publicview;
+
+import com.roofingcrm.api.publicapi.estimate.PublicEstimateDto;
+import com.roofingcrm.api.publicapi.invoice.PublicInvoiceDto;
+import com.roofingcrm.domain.entity.BaseEntity;
+import com.roofingcrm.domain.entity.Estimate;
+import com.roofingcrm.domain.entity.EstimateItem;
+import com.roofingcrm.domain.entity.Invoice;
+import com.roofingcrm.domain.entity.InvoiceItem;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Evicts cached public views when the estimate/invoice, or one of its items, changes: status changes, customer
+ * decisions, share regeneration or revocation, archiving and edits all commit as entity updates. Runs on Hibernate
+ * post-commit events, so a rolled-back change evicts nothing and a committed one is never served from the cache
+ * afterwards.
+ */
+@Component
+public class PublicViewCacheInvalidator
+        implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final PublicViewCache<PublicEstimateDto> estimateViews;
+    private final PublicViewCache<PublicInvoiceDto> invoiceViews;
+
+    public PublicViewCacheInvalidator(EntityManagerFactory entityManagerFactory,
+                                      PublicViewCache<PublicEstimateDto> estimateViews,
+                                      PublicViewCache<PublicInvoiceDto> invoiceViews) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.estimateViews = estimateViews;
+        this.invoiceViews = invoiceViews;
+    }
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        Class<?> type = persister.getMappedClass();
+        return type == Estimate.class || type == EstimateItem.class
+                || type == Invoice.class || type == InvoiceItem.class;
+    }
+
+    /** Items added to an already-shared document. */
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        evict(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        evict(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        evict(event.getEntity());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // Rolled back: nothing changed.
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // Rolled back: nothing changed.
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // Rolled back: nothing changed.
+    }
+
+    void evict(Object entity) {
+        if (entity instanceof Estimate estimate) {
+            evict(estimateViews, estimate.getId());
+        } else if (entity instanceof EstimateItem item) {
+            evict(estimateViews, id(item.getEstimate()));
+        } else if (entity instanceof Invoice invoice) {
+            evict(invoiceViews, invoice.getId());
+        } else if (entity instanceof InvoiceItem item) {
+            evict(invoiceViews, id(item.getInvoice()));
+        }
+    }
+
+    private static void evict(PublicViewCache<?> cache, UUID id) {
+        if (id != null) {
+            cache.evict(id);
+        }
+    }
+
+    /** Reads the parent id without initializing a lazy proxy (the session may already be closing). */
+    private static UUID id(BaseEntity entity) {
+        if (entity instanceof HibernateProxy proxy) {
+            return (UUID) proxy.getHibernateLazyInitializer().getIdentifier();
+        }
+        return entity != null ? entity.getId() : null;
+    }
+}
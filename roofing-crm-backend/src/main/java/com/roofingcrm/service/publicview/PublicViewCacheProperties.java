@@ -0,0 +1,34 @@
+package com.roofingcrm.service.publicview;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.public-view-cache")
+public class PublicViewCacheProperties {
+
+    /** Views kept per kind (estimates, invoices). */
+    private long maxEntries = 10_000;
+
+    /**
+     * Upper bound on staleness. Changes made through this instance evict immediately; this covers other instances
+     * and changes that bypass entity events (customer/tenant renames).
+     */
+    private long ttlSeconds = 30;
+
+    public long getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(long maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public void setTtlSeconds(long ttlSeconds) {
+        this.ttlSeconds = ttlSeconds;
+    }
+}
@@ -0,0 +1,142 @@
+package com.roofingcrm.service.report;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Year;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Disk cache of rendered paid invoices PDFs, one file per tenant and year in a private temp directory. Each file is
+ * kept with the data version it was rendered from ({@link ReportDataFingerprint#paidInvoicesYear}) and is served only
+ * while the caller passes the same version, so a change committed on any instance, or by SQL that sets
+ * {@code updated_at}, is picked up by the next request without an eviction. The current year's entry also expires
+ * after {@code currentYearTtlSeconds}.
+ *
+ * <p>Replaced and evicted files are deleted while a response may still be streaming them; the open stream keeps reading the
+ * unlinked file, which POSIX file systems allow.
+ */
+@Component
+public class PaidInvoicesPdfCache implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(PaidInvoicesPdfCache.class);
+
+    /** Writes one PDF to {@code out}. */
+    @FunctionalInterface
+    public interface Renderer {
+        void render(OutputStream out) throws IOException;
+    }
+
+    /** An open PDF file; the caller closes {@code content}. */
+    public record CachedPdf(InputStream content, long size) {
+    }
+
+    private record Key(UUID tenantId, int year) {
+    }
+
+    private record Entry(String version, Path path) {
+    }
+
+    private final Path directory;
+    private final Cache<Key, Entry> files;
+
+    public PaidInvoicesPdfCache(PaidInvoicesPdfProperties properties, MeterRegistry meterRegistry) throws IOException {
+        this.directory = Files.createTempDirectory("paid-invoices-pdf-");
+        long currentYearTtlNanos = TimeUnit.SECONDS.toNanos(Math.max(0, properties.getCurrentYearTtlSeconds()));
+        this.files = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxCachedFiles())
+                .expireAfter(new Expiry<Key, Entry>() {
+                    @Override
+                    public long expireAfterCreate(Key key, Entry entry, long currentTime) {
+                        return key.year() >= Year.now(ZoneOffset.UTC).getValue() ? currentYearTtlNanos : Long.MAX_VALUE;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Key key, Entry entry, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Key key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .removalListener((Key key, Entry entry, RemovalCause cause) -> {
+                    if (entry != null) {
+                        deleteQuietly(entry.path());
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, files, "reports.paid_invoices_pdf");
+    }
+
+    /**
+     * Opens the cached PDF of the tenant's year when it was rendered from {@code version}, rendering and caching it
+     * first otherwise. Read {@code version} before the data the renderer reads: a change committed in between then
+     * leaves a newer file under an older version, which only costs one extra render.
+     */
+    public CachedPdf open(UUID tenantId, int year, String version, Renderer renderer) throws IOException {
+        Key key = new Key(tenantId, year);
+        Entry cached = files.getIfPresent(key);
+        if (cached != null && cached.version().equals(version)) {
+            try {
+                return openFile(cached.path());
+            } catch (NoSuchFileException e) {
+                // Replaced or evicted between the lookup and the open: render again.
+            }
+        }
+        Path path = Files.createTempFile(directory, "paid-invoices-", ".pdf");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path))) {
+            renderer.render(out);
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(path);
+            throw e;
+        }
+        CachedPdf pdf = openFile(path);
+        files.put(key, new Entry(version, path));
+        return pdf;
+    }
+
+    @Override
+    public void close() {
+        files.invalidateAll();
+        try (Stream<Path> paths = Files.list(directory)) {
+            paths.forEach(PaidInvoicesPdfCache::deleteQuietly);
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Could not list paid invoices PDF cache directory {}: {}", directory, e.getMessage());
+        }
+        deleteQuietly(directory);
+    }
+
+    private static CachedPdf openFile(Path path) throws IOException {
+        long size = Files.size(path);
+        return new CachedPdf(Files.newInputStream(path), size);
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete cached paid invoices PDF {}: {}", path, e.getMessage());
+        }
+    }
+}
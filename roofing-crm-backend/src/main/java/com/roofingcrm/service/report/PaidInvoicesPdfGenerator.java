@@ -1,8 +1,8 @@
 package com.roofingcrm.service.report;
 
-import com.roofingcrm.domain.entity.Invoice;
 import com.roofingcrm.domain.entity.Tenant;
-import com.roofingcrm.domain.value.Address;
+import com.roofingcrm.domain.repository.InvoiceRepository.PaidInvoiceRowView;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
@@ -11,16 +11,20 @@ import org.apache.pdfbox.pdmodel.font.PDType1Font;
 import org.apache.pdfbox.pdmodel.font.PDFont;
 import org.springframework.stereotype.Component;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.text.NumberFormat;
 import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 import java.util.Locale;
 
+/**
+ * Renders the paid invoices report for one year. Rows are consumed one at a time from an {@link Iterable} (paged from
+ * the database by the caller), and the document's page content is buffered through a PDFBox scratch file once it
+ * outgrows {@code maxMainMemoryBytes}, so neither the invoices nor the document have to fit in memory.
+ */
 @Component
 public class PaidInvoicesPdfGenerator {
 
@@ -33,8 +37,15 @@ public class PaidInvoicesPdfGenerator {
     private static final DateTimeFormatter TS_FMT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm 'UTC'").withZone(ZoneOffset.UTC);
     private static final NumberFormat MONEY_FMT = NumberFormat.getCurrencyInstance(Locale.US);
 
-    public byte[] generate(Tenant tenant, int year, List<Invoice> invoices) {
-        try (PDDocument document = new PDDocument()) {
+    private final long maxMainMemoryBytes;
+
+    public PaidInvoicesPdfGenerator(PaidInvoicesPdfProperties properties) {
+        this.maxMainMemoryBytes = Math.max(1, properties.getMaxMainMemoryBytes());
+    }
+
+    /** Writes the PDF to {@code out} (PDFBox closes it when done). */
+    public void write(Tenant tenant, int year, Iterable<PaidInvoiceRowView> invoices, OutputStream out) {
+        try (PDDocument document = new PDDocument(MemoryUsageSetting.setupMixed(maxMainMemoryBytes))) {
             PDPage page = new PDPage(PDRectangle.LETTER);
             document.addPage(page);
             float y = page.getMediaBox().getHeight() - MARGIN;
@@ -44,7 +55,7 @@ public class PaidInvoicesPdfGenerator {
                 y = drawPageHeader(content, year, tenant != null ? tenant.getName() : null, y);
                 y = drawTableHeader(content, y);
 
-                for (Invoice invoice : invoices) {
+                for (PaidInvoiceRowView invoice : invoices) {
                     totalPaid = totalPaid.add(invoice.getTotal() != null ? invoice.getTotal() : BigDecimal.ZERO);
                     if (y < MARGIN + 70f) {
                         content.close();
@@ -65,7 +76,7 @@ public class PaidInvoicesPdfGenerator {
             } finally {
                 content.close();
             }
-            return save(document);
+            document.save(out);
         } catch (IOException ex) {
             throw new IllegalStateException("Failed to generate paid invoices PDF", ex);
         }
@@ -93,20 +104,13 @@ public class PaidInvoicesPdfGenerator {
         return y - 20f;
     }
 
-    private float drawInvoiceRow(PDPageContentStream content, Invoice invoice, float y) throws IOException {
+    private float drawInvoiceRow(PDPageContentStream content, PaidInvoiceRowView invoice, float y) throws IOException {
         String paidDate = invoice.getPaidAt() != null ? DATE_FMT.format(invoice.getPaidAt()) : "—";
         String invoiceNumber = nonBlank(invoice.getInvoiceNumber(), "—");
-        String customer = "—";
-        if (invoice.getJob() != null && invoice.getJob().getCustomer() != null) {
-            String first = invoice.getJob().getCustomer().getFirstName();
-            String last = invoice.getJob().getCustomer().getLastName();
-            String name = ((first != null ? first : "") + " " + (last != null ? last : "")).trim();
-            customer = nonBlank(name, "—");
-        }
-        String address = "—";
-        if (invoice.getJob() != null) {
-            address = nonBlank(formatAddress(invoice.getJob().getPropertyAddress()), "—");
-        }
+        String first = invoice.getCustomerFirstName();
+        String last = invoice.getCustomerLastName();
+        String customer = nonBlank(((first != null ? first : "") + " " + (last != null ? last : "")).trim(), "—");
+        String address = nonBlank(formatAddress(invoice), "—");
         String total = MONEY_FMT.format(invoice.getTotal() != null ? invoice.getTotal() : BigDecimal.ZERO);
 
         drawText(content, truncate(paidDate, 12), MARGIN, y, PDType1Font.HELVETICA, BODY_SIZE);
@@ -117,13 +121,12 @@ public class PaidInvoicesPdfGenerator {
         return y - ROW_HEIGHT;
     }
 
-    private static String formatAddress(Address address) {
-        if (address == null) return "";
+    private static String formatAddress(PaidInvoiceRowView invoice) {
         StringBuilder sb = new StringBuilder();
-        appendPart(sb, address.getLine1());
-        appendPart(sb, address.getLine2());
-        appendPart(sb, address.getCity());
-        String stateZip = ((address.getState() != null ? address.getState().trim() : "") + " " + (address.getZip() != null ? address.getZip().trim() : "")).trim();
+        appendPart(sb, invoice.getAddressLine1());
+        appendPart(sb, invoice.getAddressLine2());
+        appendPart(sb, invoice.getAddressCity());
+        String stateZip = ((invoice.getAddressState() != null ? invoice.getAddressState().trim() : "") + " " + (invoice.getAddressZip() != null ? invoice.getAddressZip().trim() : "")).trim();
         appendPart(sb, stateZip);
         return sb.toString();
     }
@@ -158,11 +161,4 @@ public class PaidInvoicesPdfGenerator {
         content.showText(text != null ? text : "");
         content.endText();
     }
-
-    private static byte[] save(PDDocument document) throws IOException {
-        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            document.save(out);
-            return out.toByteArray();
-        }
-    }
 }
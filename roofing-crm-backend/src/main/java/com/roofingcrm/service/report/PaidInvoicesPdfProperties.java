@@ -0,0 +1,56 @@
+package com.roofingcrm.service.report;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.reports.paid-invoices-pdf")
+public class PaidInvoicesPdfProperties {
+
+    /** Invoices read per query while rendering. */
+    private int pageSize = 500;
+
+    /** Document buffers kept in memory while rendering; the rest spills to a scratch file. */
+    private long maxMainMemoryBytes = 8L * 1024 * 1024;
+
+    /** Rendered PDFs kept on disk, one per tenant and year. */
+    private long maxCachedFiles = 500;
+
+    /**
+     * Staleness bound for the current year's PDF (new payments are evicted at once; tenant and customer renames are
+     * not). Prior years are kept until an invoice change evicts them.
+     */
+    private long currentYearTtlSeconds = 900;
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public long getMaxMainMemoryBytes() {
+        return maxMainMemoryBytes;
+    }
+
+    public void setMaxMainMemoryBytes(long maxMainMemoryBytes) {
+        this.maxMainMemoryBytes = maxMainMemoryBytes;
+    }
+
+    public long getMaxCachedFiles() {
+        return maxCachedFiles;
+    }
+
+    public void setMaxCachedFiles(long maxCachedFiles) {
+        this.maxCachedFiles = maxCachedFiles;
+    }
+
+    public long getCurrentYearTtlSeconds() {
+        return currentYearTtlSeconds;
+    }
+
+    public void setCurrentYearTtlSeconds(long currentYearTtlSeconds) {
+        this.currentYearTtlSeconds = currentYearTtlSeconds;
+    }
+}
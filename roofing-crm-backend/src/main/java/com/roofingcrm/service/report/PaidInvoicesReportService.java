@@ -1,18 +1,23 @@
 package com.roofingcrm.service.report;
 
-import com.roofingcrm.domain.entity.Invoice;
 import com.roofingcrm.domain.entity.Tenant;
 import com.roofingcrm.domain.enums.UserRole;
 import com.roofingcrm.domain.repository.InvoiceRepository;
+import com.roofingcrm.domain.repository.InvoiceRepository.PaidInvoiceRowView;
 import com.roofingcrm.service.exception.NoPaidInvoicesForYearException;
 import com.roofingcrm.service.tenant.TenantAccessService;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.Instant;
 import java.time.Year;
 import java.time.ZoneOffset;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
@@ -23,13 +28,22 @@ public class PaidInvoicesReportService {
     private final TenantAccessService tenantAccessService;
     private final InvoiceRepository invoiceRepository;
     private final PaidInvoicesPdfGenerator paidInvoicesPdfGenerator;
+    private final PaidInvoicesPdfCache paidInvoicesPdfCache;
+    private final ReportDataFingerprint dataFingerprint;
+    private final int pageSize;
 
     public PaidInvoicesReportService(TenantAccessService tenantAccessService,
                                      InvoiceRepository invoiceRepository,
-                                     PaidInvoicesPdfGenerator paidInvoicesPdfGenerator) {
+                                     PaidInvoicesPdfGenerator paidInvoicesPdfGenerator,
+                                     PaidInvoicesPdfCache paidInvoicesPdfCache,
+                                     ReportDataFingerprint dataFingerprint,
+                                     PaidInvoicesPdfProperties properties) {
         this.tenantAccessService = tenantAccessService;
         this.invoiceRepository = invoiceRepository;
         this.paidInvoicesPdfGenerator = paidInvoicesPdfGenerator;
+        this.paidInvoicesPdfCache = paidInvoicesPdfCache;
+        this.dataFingerprint = dataFingerprint;
+        this.pageSize = Math.max(1, properties.getPageSize());
     }
 
     @Transactional(readOnly = true)
@@ -42,21 +56,78 @@ public class PaidInvoicesReportService {
         return invoiceRepository.findPaidInvoiceYears(safeTenantId);
     }
 
-    @Transactional(readOnly = true)
-    public byte[] generatePaidInvoicesYearPdf(UUID tenantId, UUID userId, int year) {
+    /**
+     * Opens the year's PDF from {@link PaidInvoicesPdfCache}, rendering it on a miss by paging through the paid
+     * invoices. The caller streams and closes the returned content.
+     * <p>
+     * Not read-only on purpose: read-only transactions may be routed to a lagging replica, and a PDF rendered from it
+     * would be cached under the primary's current data version.
+     */
+    @Transactional
+    public PaidInvoicesPdfCache.CachedPdf openPaidInvoicesYearPdf(UUID tenantId, UUID userId, int year) {
         UUID safeTenantId = Objects.requireNonNull(tenantId);
         UUID safeUserId = Objects.requireNonNull(userId);
         tenantAccessService.requireAnyRole(safeTenantId, safeUserId, Objects.requireNonNull(Set.of(UserRole.OWNER, UserRole.ADMIN)),
                 "You do not have permission to generate reports.");
         Tenant tenant = tenantAccessService.loadTenantForUserOrThrow(safeTenantId, safeUserId);
 
+        try {
+            String version = dataFingerprint.paidInvoicesYear(safeTenantId, year);
+            return paidInvoicesPdfCache.open(safeTenantId, year, version, out -> render(tenant, year, out));
+        } catch (IOException ex) {
+            throw new IllegalStateException("Failed to generate paid invoices PDF", ex);
+        }
+    }
+
+    private void render(Tenant tenant, int year, OutputStream out) {
         Instant start = Year.of(year).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
         Instant end = Year.of(year + 1).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
 
-        List<Invoice> invoices = invoiceRepository.findPaidInvoicesForYear(tenant, start, end);
-        if (invoices.isEmpty()) {
+        List<PaidInvoiceRowView> firstPage =
+                invoiceRepository.findPaidInvoiceRowsForYear(tenant, start, end, PageRequest.of(0, pageSize));
+        if (firstPage.isEmpty()) {
             throw new NoPaidInvoicesForYearException(year);
         }
-        return paidInvoicesPdfGenerator.generate(tenant, year, invoices);
+        paidInvoicesPdfGenerator.write(tenant, year, () -> new PaidInvoiceRows(tenant, start, end, firstPage), out);
+    }
+
+    /** Paid invoices of one year in report order, read a page at a time after the last row of the previous page. */
+    private final class PaidInvoiceRows implements Iterator<PaidInvoiceRowView> {
+
+        private final Tenant tenant;
+        private final Instant start;
+        private final Instant end;
+        private List<PaidInvoiceRowView> page;
+        private int index;
+
+        private PaidInvoiceRows(Tenant tenant, Instant start, Instant end, List<PaidInvoiceRowView> firstPage) {
+            this.tenant = tenant;
+            this.start = start;
+            this.end = end;
+            this.page = firstPage;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (index < page.size()) {
+                return true;
+            }
+            if (page.size() < pageSize) {
+                return false;
+            }
+            PaidInvoiceRowView last = page.get(page.size() - 1);
+            page = invoiceRepository.findPaidInvoiceRowsForYearAfter(tenant, start, end,
+                    last.getPaidAt(), last.getInvoiceNumber(), last.getId(), PageRequest.of(0, pageSize));
+            index = 0;
+            return !page.isEmpty();
+        }
+
+        @Override
+        public PaidInvoiceRowView next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return page.get(index++);
+        }
     }
 }
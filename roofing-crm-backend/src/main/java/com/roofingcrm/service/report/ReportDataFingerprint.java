@@ -0,0 +1,102 @@
+package com.roofingcrm.service.report;
+
+import com.roofingcrm.domain.enums.ReportType;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+/**
+ * A cheap version of the data a report reads: the latest {@code updated_at} of each table it reads for the tenant
+ * (plus the tenant row, whose name is printed on every report), one index probe per table on its
+ * {@code (tenant_id, updated_at)} index. The application never deletes these rows (it archives them), so any insert,
+ * edit or archive through it changes the version, and {@link ReportJobService} can hand an identical request the file
+ * already generated for the same data. Changes that bypass {@code updated_at} (bulk SQL, hard deletes) are not seen
+ * until the file expires.
+ */
+@Component
+public class ReportDataFingerprint {
+
+    static final String LEADS_CSV_SQL = tableVersions("leads", "customers", "jobs", "pipeline_status_definitions");
+
+    static final String JOBS_CSV_SQL = tableVersions("jobs", "customers", "pipeline_status_definitions");
+
+    static final String ACCOUNTING_JOBS_XLSX_SQL =
+            tableVersions("jobs", "customers", "estimates", "invoices", "job_cost_entries");
+
+    /** The year's paid invoices and the jobs and customers printed with them. */
+    static final String PAID_INVOICES_PDF_SQL = """
+            SELECT concat_ws('|', (SELECT updated_at::text FROM tenants WHERE id = :tenantId),
+                   (SELECT count(*) || ':' || COALESCE(max(GREATEST(i.updated_at, j.updated_at, c.updated_at))::text, '')
+                    FROM invoices i
+                    JOIN jobs j ON j.id = i.job_id
+                    JOIN customers c ON c.id = j.customer_id
+                    WHERE i.tenant_id = :tenantId AND i.archived = FALSE AND i.status = 'PAID'
+                      AND i.paid_at >= make_timestamptz(:year, 1, 1, 0, 0, 0, 'UTC')
+                      AND i.paid_at < make_timestamptz(:year + 1, 1, 1, 0, 0, 0, 'UTC')))
+            """;
+
+    /** One report only; no row when the report does not exist in the tenant. */
+    static final String CUSTOMER_PHOTO_REPORT_PDF_SQL = """
+            SELECT concat_ws('|', t.updated_at::text, r.updated_at::text,
+                   (SELECT c.updated_at::text FROM customers c WHERE c.id = r.customer_id),
+                   (SELECT j.updated_at::text FROM jobs j WHERE j.id = r.job_id),
+                   (SELECT count(*) || ':' || COALESCE(max(s.updated_at)::text, '')
+                    FROM customer_photo_report_sections s WHERE s.report_id = r.id),
+                   (SELECT count(*) || ':' || COALESCE(max(GREATEST(p.updated_at, a.updated_at))::text, '')
+                    FROM customer_photo_report_section_photos p
+                    JOIN customer_photo_report_sections s ON s.id = p.section_id
+                    JOIN attachments a ON a.id = p.attachment_id
+                    WHERE s.report_id = r.id))
+            FROM customer_photo_reports r
+            JOIN tenants t ON t.id = r.tenant_id
+            WHERE r.id = :reportId AND r.tenant_id = :tenantId AND r.archived = FALSE
+            """;
+
+    private final NamedParameterJdbcOperations jdbc;
+
+    public ReportDataFingerprint(NamedParameterJdbcOperations jdbc) {
+        this.jdbc = Objects.requireNonNull(jdbc);
+    }
+
+    /** The fingerprint, or null when the report's subject (a customer photo report) does not exist. */
+    public String fingerprint(UUID tenantId, ReportType type, ReportJobParameters parameters) {
+        MapSqlParameterSource params = new MapSqlParameterSource("tenantId", tenantId);
+        String sql = switch (type) {
+            case LEADS_CSV -> LEADS_CSV_SQL;
+            case JOBS_CSV -> JOBS_CSV_SQL;
+            case ACCOUNTING_JOBS_XLSX -> ACCOUNTING_JOBS_XLSX_SQL;
+            case PAID_INVOICES_PDF -> {
+                params.addValue("year", parameters.year());
+                yield PAID_INVOICES_PDF_SQL;
+            }
+            case CUSTOMER_PHOTO_REPORT_PDF -> {
+                params.addValue("reportId", parameters.reportId());
+                yield CUSTOMER_PHOTO_REPORT_PDF_SQL;
+            }
+        };
+        List<String> rows = jdbc.queryForList(sql, params, String.class);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /** The version {@link PaidInvoicesPdfCache} keeps a tenant's paid invoices PDF of {@code year} under. */
+    public String paidInvoicesYear(UUID tenantId, int year) {
+        return jdbc.queryForObject(PAID_INVOICES_PDF_SQL, new MapSqlParameterSource()
+                .addValue("tenantId", tenantId)
+                .addValue("year", year), String.class);
+    }
+
+    /** {@code max(updated_at)} of each table for {@code :tenantId}, after the tenant row's own version. */
+    private static String tableVersions(String... tables) {
+        StringJoiner sql = new StringJoiner(",\n       ",
+                "SELECT concat_ws('|', (SELECT updated_at::text FROM tenants WHERE id = :tenantId),\n       ", ")");
+        for (String table : tables) {
+            sql.add("(SELECT COALESCE(max(updated_at)::text, '') FROM " + table + " WHERE tenant_id = :tenantId)");
+        }
+        return sql.toString();
+    }
+}
@@ -0,0 +1,75 @@
+package com.roofingcrm.service.report;
+
+import com.roofingcrm.service.customerreport.CustomerPhotoReportPdfExport;
+import com.roofingcrm.service.customerreport.CustomerPhotoReportService;
+import com.roofingcrm.service.report.ReportJobQueue.ClaimedReportJob;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Produces the file of a claimed report job. It calls the services behind the synchronous report endpoints as the
+ * user who requested the job, so a job sees exactly the access checks and content of a direct download.
+ */
+@Component
+public class ReportJobGenerator {
+
+    /** A generated file; the caller reads and closes {@code content}. */
+    public record ReportFile(String fileName, long size, InputStream content) implements AutoCloseable {
+
+        @Override
+        public void close() throws IOException {
+            content.close();
+        }
+    }
+
+    private final ReportService reportService;
+    private final AccountingJobsReportService accountingJobsReportService;
+    private final PaidInvoicesReportService paidInvoicesReportService;
+    private final CustomerPhotoReportService customerPhotoReportService;
+
+    public ReportJobGenerator(ReportService reportService,
+                              AccountingJobsReportService accountingJobsReportService,
+                              PaidInvoicesReportService paidInvoicesReportService,
+                              CustomerPhotoReportService customerPhotoReportService) {
+        this.reportService = reportService;
+        this.accountingJobsReportService = accountingJobsReportService;
+        this.paidInvoicesReportService = paidInvoicesReportService;
+        this.customerPhotoReportService = customerPhotoReportService;
+    }
+
+    public ReportFile generate(ClaimedReportJob job) {
+        UUID tenantId = Objects.requireNonNull(job.tenantId());
+        UUID userId = Objects.requireNonNull(job.requestedByUserId());
+        ReportJobParameters parameters = job.parameters();
+        return switch (job.type()) {
+            case LEADS_CSV -> inMemory("leads-" + LocalDate.now() + ".csv", reportService.exportLeadsCsv(
+                    userId, tenantId, parameters.statusDefinitionId(), parameters.source(), parameters.limit()));
+            case JOBS_CSV -> inMemory("jobs-" + LocalDate.now() + ".csv", reportService.exportJobsCsv(
+                    userId, tenantId, parameters.statusDefinitionId(), parameters.limit()));
+            case ACCOUNTING_JOBS_XLSX -> inMemory("accounting-report-" + LocalDate.now(ZoneOffset.UTC) + ".xlsx",
+                    accountingJobsReportService.generateAccountingJobsXlsx(tenantId, userId));
+            case PAID_INVOICES_PDF -> {
+                int year = parameters.year();
+                PaidInvoicesPdfCache.CachedPdf pdf =
+                        paidInvoicesReportService.openPaidInvoicesYearPdf(tenantId, userId, year);
+                yield new ReportFile("paid-invoices-" + year + ".pdf", pdf.size(), pdf.content());
+            }
+            case CUSTOMER_PHOTO_REPORT_PDF -> {
+                CustomerPhotoReportPdfExport export = customerPhotoReportService.exportPdf(
+                        tenantId, userId, Objects.requireNonNull(parameters.reportId()));
+                yield inMemory(export.filename(), export.content());
+            }
+        };
+    }
+
+    private static ReportFile inMemory(String fileName, byte[] content) {
+        return new ReportFile(fileName, content.length, new ByteArrayInputStream(content));
+    }
+}
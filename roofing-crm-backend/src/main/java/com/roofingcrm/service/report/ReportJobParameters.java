@@ -0,0 +1,19 @@
+package com.roofingcrm.service.report;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.roofingcrm.domain.enums.LeadSource;
+
+import java.util.UUID;
+
+/**
+ * Parameters of a report job; only those its type reads are set. Stored as JSON on the job and hashed into its dedup
+ * key, so two requests that differ only in parameters the type ignores share a job.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ReportJobParameters(
+        UUID statusDefinitionId,
+        LeadSource source,
+        Integer limit,
+        Integer year,
+        UUID reportId
+) {}
@@ -0,0 +1,97 @@
+package com.roofingcrm.service.report;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.reports.jobs")
+public class ReportJobProperties {
+
+    /** Runs the worker on this instance; requests are still queued when false. */
+    private boolean enabled = true;
+
+    /** Reports generated at once on this instance. */
+    private int workers = 2;
+
+    /** How often the worker looks for queued jobs when it is not woken by a new request. */
+    private long pollIntervalMillis = 5_000;
+
+    /** How long a claimed job stays with its worker; a job whose worker died is claimed again after this. */
+    private long leaseMillis = 2L * 60 * 1000;
+
+    /** How often the worker extends the lease of the jobs it is generating; well below {@code leaseMillis}. */
+    private long leaseRenewIntervalMillis = 30_000;
+
+    /** Claims of one job before it is failed as interrupted. */
+    private int maxAttempts = 2;
+
+    /** How long a generated file can be downloaded (and reused for identical requests). */
+    private long fileTtlMinutes = 60;
+
+    /** Failed and expired jobs are deleted after this many days. */
+    private int retentionDays = 7;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    public long getPollIntervalMillis() {
+        return pollIntervalMillis;
+    }
+
+    public void setPollIntervalMillis(long pollIntervalMillis) {
+        this.pollIntervalMillis = pollIntervalMillis;
+    }
+
+    public long getLeaseMillis() {
+        return leaseMillis;
+    }
+
+    public void setLeaseMillis(long leaseMillis) {
+        this.leaseMillis = leaseMillis;
+    }
+
+    public long getLeaseRenewIntervalMillis() {
+        return leaseRenewIntervalMillis;
+    }
+
+    public void setLeaseRenewIntervalMillis(long leaseRenewIntervalMillis) {
+        this.leaseRenewIntervalMillis = leaseRenewIntervalMillis;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public long getFileTtlMinutes() {
+        return fileTtlMinutes;
+    }
+
+    public void setFileTtlMinutes(long fileTtlMinutes) {
+        this.fileTtlMinutes = fileTtlMinutes;
+    }
+
+    public int getRetentionDays() {
+        return retentionDays;
+    }
+
+    public void setRetentionDays(int retentionDays) {
+        this.retentionDays = retentionDays;
+    }
+}
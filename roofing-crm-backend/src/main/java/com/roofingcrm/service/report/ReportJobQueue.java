@@ -0,0 +1,318 @@
+package com.roofingcrm.service.report;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.roofingcrm.domain.enums.ReportJobStatus;
+import com.roofingcrm.domain.enums.ReportType;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The {@code report_jobs} table. Enqueueing joins the caller's transaction and is deduplicated by the partial unique
+ * index on {@code (tenant_id, dedup_key)}: while a job with the same key is queued, running or has an unexpired file,
+ * the request gets that job. Workers claim rows with {@code FOR UPDATE SKIP LOCKED} under a lease, like
+ * {@code OutboundEmailQueue}, and complete them only while they still hold the claim ({@code attempts} unchanged), so
+ * a worker that lost its lease cannot overwrite the result of the one that took over. All times come from the
+ * database clock.
+ */
+@Component
+public class ReportJobQueue {
+
+    /** A job as shown to clients. */
+    public record ReportJob(UUID id, UUID tenantId, ReportType type, ReportJobStatus status, String storageKey,
+                            String fileName, String contentType, Long sizeBytes, String error, Instant createdAt,
+                            Instant startedAt, Instant completedAt, Instant expiresAt) {
+    }
+
+    /** A claimed job; {@code attempts} includes the attempt about to be made. */
+    public record ClaimedReportJob(UUID id, UUID tenantId, String tenantSlug, UUID requestedByUserId, ReportType type,
+                                   ReportJobParameters parameters, int attempts) {
+    }
+
+    /** A job that ended without a worker reporting it (see {@link #failAbandoned}). */
+    public record EndedReportJob(UUID id, UUID tenantId, ReportType type) {
+    }
+
+    public record Enqueued(UUID id, boolean duplicate) {
+    }
+
+    /** A file whose job expired, still to be deleted from storage. */
+    public record ExpiredFile(UUID id, String storageKey) {
+    }
+
+    private static final String JOB_COLUMNS = """
+            id, tenant_id, report_type, status, storage_key, file_name, content_type, size_bytes, error, created_at,
+            started_at, completed_at, expires_at
+            """;
+
+    /** A SUCCEEDED row past its expiry must not capture the dedup key of a new request. */
+    static final String EXPIRE_KEY_SQL = """
+            UPDATE report_jobs
+            SET status = 'EXPIRED'
+            WHERE tenant_id = :tenantId AND dedup_key = :dedupKey AND status = 'SUCCEEDED' AND expires_at <= now()
+            """;
+
+    static final String ENQUEUE_SQL = """
+            INSERT INTO report_jobs (id, tenant_id, requested_by_user_id, report_type, parameters, dedup_key, status,
+                                     attempts, created_at)
+            VALUES (:id, :tenantId, :userId, :reportType, CAST(:parameters AS jsonb), :dedupKey, 'QUEUED', 0, now())
+            ON CONFLICT (tenant_id, dedup_key) WHERE status IN ('QUEUED', 'RUNNING', 'SUCCEEDED') DO NOTHING
+            """;
+
+    static final String FIND_LIVE_BY_KEY_SQL = """
+            SELECT id FROM report_jobs
+            WHERE tenant_id = :tenantId AND dedup_key = :dedupKey AND status IN ('QUEUED', 'RUNNING', 'SUCCEEDED')
+            """;
+
+    static final String FIND_SQL = "SELECT " + JOB_COLUMNS + " FROM report_jobs WHERE id = :id AND tenant_id = :tenantId";
+
+    static final String CLAIM_SQL = """
+            UPDATE report_jobs j
+            SET status = 'RUNNING',
+                attempts = j.attempts + 1,
+                started_at = now(),
+                locked_until = now() + (:leaseMillis * INTERVAL '1 millisecond')
+            FROM (SELECT id FROM report_jobs
+                  WHERE (status = 'QUEUED' OR (status = 'RUNNING' AND locked_until < now()))
+                    AND attempts < :maxAttempts
+                  ORDER BY created_at
+                  LIMIT :limit
+                  FOR UPDATE SKIP LOCKED) due, tenants t
+            WHERE j.id = due.id AND t.id = j.tenant_id
+            RETURNING j.id, j.tenant_id, COALESCE(t.slug, t.id::text) AS tenant_slug, j.requested_by_user_id,
+                      j.report_type, j.parameters::text AS parameters, j.attempts
+            """;
+
+    static final String MARK_SUCCEEDED_SQL = """
+            UPDATE report_jobs
+            SET status = 'SUCCEEDED', locked_until = NULL, storage_key = :storageKey, file_name = :fileName,
+                content_type = :contentType, size_bytes = :sizeBytes, error = NULL, completed_at = now(),
+                expires_at = now() + (:ttlMinutes * INTERVAL '1 minute')
+            WHERE id = :id AND status = 'RUNNING' AND attempts = :attempts
+            """;
+
+    static final String MARK_FAILED_SQL = """
+            UPDATE report_jobs
+            SET status = 'FAILED', locked_until = NULL, error = :error, completed_at = now()
+            WHERE id = :id AND status = 'RUNNING' AND attempts = :attempts
+            """;
+
+    static final String RENEW_SQL = """
+            UPDATE report_jobs
+            SET locked_until = now() + (:leaseMillis * INTERVAL '1 millisecond')
+            WHERE id = :id AND status = 'RUNNING' AND attempts = :attempts
+            """;
+
+    /** Hands a job back to the queue without counting the attempt: its worker is shutting down, not failing. */
+    static final String RELEASE_SQL = """
+            UPDATE report_jobs
+            SET status = 'QUEUED', attempts = attempts - 1, started_at = NULL, locked_until = NULL
+            WHERE id = :id AND status = 'RUNNING' AND attempts = :attempts
+            """;
+
+    /** Running jobs whose lease expired after their last allowed attempt: the worker died every time. */
+    static final String FAIL_ABANDONED_SQL = """
+            UPDATE report_jobs
+            SET status = 'FAILED', locked_until = NULL, error = 'Report generation was interrupted.',
+                completed_at = now()
+            WHERE status = 'RUNNING' AND locked_until < now() AND attempts >= :maxAttempts
+            RETURNING id, tenant_id, report_type
+            """;
+
+    static final String EXPIRE_SQL = """
+            UPDATE report_jobs
+            SET status = 'EXPIRED'
+            WHERE status = 'SUCCEEDED' AND expires_at <= now()
+            """;
+
+    static final String FIND_EXPIRED_FILES_SQL = """
+            SELECT id, storage_key FROM report_jobs
+            WHERE status = 'EXPIRED' AND storage_key IS NOT NULL
+            ORDER BY expires_at
+            LIMIT :limit
+            """;
+
+    static final String CLEAR_STORAGE_KEY_SQL = "UPDATE report_jobs SET storage_key = NULL WHERE id = :id";
+
+    static final String PURGE_SQL = """
+            DELETE FROM report_jobs
+            WHERE status IN ('FAILED', 'EXPIRED') AND storage_key IS NULL
+              AND completed_at < now() - (:retentionDays * INTERVAL '1 day')
+            """;
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final NamedParameterJdbcOperations jdbc;
+    private final ObjectMapper objectMapper;
+
+    public ReportJobQueue(NamedParameterJdbcOperations jdbc, ObjectMapper objectMapper) {
+        this.jdbc = Objects.requireNonNull(jdbc);
+        this.objectMapper = Objects.requireNonNull(objectMapper);
+    }
+
+    /**
+     * Queues a job unless a live one with the same key exists; runs in the caller's transaction when there is one.
+     */
+    public Enqueued enqueue(UUID tenantId, UUID userId, ReportType type, ReportJobParameters parameters,
+                            String dedupKey) {
+        MapSqlParameterSource key = new MapSqlParameterSource()
+                .addValue("tenantId", tenantId)
+                .addValue("dedupKey", dedupKey);
+        jdbc.update(EXPIRE_KEY_SQL, key);
+        // The live job can finish (and fail) between the insert and the lookup; then there is room for a new one.
+        for (int attempt = 0; attempt < 3; attempt++) {
+            UUID id = UUID.randomUUID();
+            int inserted = jdbc.update(ENQUEUE_SQL, new MapSqlParameterSource(key.getValues())
+                    .addValue("id", id)
+                    .addValue("userId", userId)
+                    .addValue("reportType", type.name())
+                    .addValue("parameters", writeParameters(parameters)));
+            if (inserted == 1) {
+                return new Enqueued(id, false);
+            }
+            List<UUID> existing = jdbc.queryForList(FIND_LIVE_BY_KEY_SQL, key, UUID.class);
+            if (!existing.isEmpty()) {
+                return new Enqueued(existing.get(0), true);
+            }
+        }
+        throw new IllegalStateException("Could not queue report job " + type);
+    }
+
+    public Optional<ReportJob> find(UUID tenantId, UUID id) {
+        return jdbc.query(FIND_SQL, new MapSqlParameterSource()
+                        .addValue("id", id)
+                        .addValue("tenantId", tenantId), ReportJobQueue::mapJob)
+                .stream()
+                .findFirst();
+    }
+
+    /** Claims up to {@code limit} queued (or abandoned) jobs for {@code leaseMillis}. */
+    public List<ClaimedReportJob> claim(int limit, long leaseMillis, int maxAttempts) {
+        return jdbc.query(CLAIM_SQL, new MapSqlParameterSource()
+                .addValue("limit", limit)
+                .addValue("leaseMillis", leaseMillis)
+                .addValue("maxAttempts", maxAttempts), (rs, rowNum) -> new ClaimedReportJob(
+                rs.getObject("id", UUID.class),
+                rs.getObject("tenant_id", UUID.class),
+                rs.getString("tenant_slug"),
+                rs.getObject("requested_by_user_id", UUID.class),
+                ReportType.valueOf(rs.getString("report_type")),
+                readParameters(rs.getString("parameters")),
+                rs.getInt("attempts")));
+    }
+
+    /** Records the stored file; false when the claim was lost (the file is then not referenced by the job). */
+    public boolean markSucceeded(ClaimedReportJob job, String storageKey, String fileName, String contentType,
+                                 long sizeBytes, long ttlMinutes) {
+        return jdbc.update(MARK_SUCCEEDED_SQL, new MapSqlParameterSource()
+                .addValue("id", job.id())
+                .addValue("attempts", job.attempts())
+                .addValue("storageKey", storageKey)
+                .addValue("fileName", fileName)
+                .addValue("contentType", contentType)
+                .addValue("sizeBytes", sizeBytes)
+                .addValue("ttlMinutes", ttlMinutes)) == 1;
+    }
+
+    /** False when the claim was lost. */
+    public boolean markFailed(ClaimedReportJob job, String error) {
+        return jdbc.update(MARK_FAILED_SQL, new MapSqlParameterSource()
+                .addValue("id", job.id())
+                .addValue("attempts", job.attempts())
+                .addValue("error", truncate(error))) == 1;
+    }
+
+    /** Extends the lease of a job still being generated; false when the claim was lost. */
+    public boolean renew(ClaimedReportJob job, long leaseMillis) {
+        return jdbc.update(RENEW_SQL, new MapSqlParameterSource()
+                .addValue("id", job.id())
+                .addValue("attempts", job.attempts())
+                .addValue("leaseMillis", leaseMillis)) == 1;
+    }
+
+    /** Queues a claimed job again for another worker; false when the claim was lost. */
+    public boolean release(ClaimedReportJob job) {
+        return jdbc.update(RELEASE_SQL, new MapSqlParameterSource()
+                .addValue("id", job.id())
+                .addValue("attempts", job.attempts())) == 1;
+    }
+
+    public List<EndedReportJob> failAbandoned(int maxAttempts) {
+        return jdbc.query(FAIL_ABANDONED_SQL, new MapSqlParameterSource("maxAttempts", maxAttempts),
+                (rs, rowNum) -> new EndedReportJob(
+                        rs.getObject("id", UUID.class),
+                        rs.getObject("tenant_id", UUID.class),
+                        ReportType.valueOf(rs.getString("report_type"))));
+    }
+
+    /** Marks jobs whose file passed its expiry as EXPIRED and returns up to {@code limit} files to delete. */
+    public List<ExpiredFile> expire(int limit) {
+        jdbc.update(EXPIRE_SQL, new MapSqlParameterSource());
+        return jdbc.query(FIND_EXPIRED_FILES_SQL, new MapSqlParameterSource("limit", limit),
+                (rs, rowNum) -> new ExpiredFile(rs.getObject("id", UUID.class), rs.getString("storage_key")));
+    }
+
+    /** Called once an expired job's file is deleted. */
+    public void clearStorageKey(UUID id) {
+        jdbc.update(CLEAR_STORAGE_KEY_SQL, new MapSqlParameterSource("id", id));
+    }
+
+    /** Deletes failed and expired jobs older than {@code retentionDays}; returns how many. */
+    public int purge(int retentionDays) {
+        return jdbc.update(PURGE_SQL, new MapSqlParameterSource("retentionDays", retentionDays));
+    }
+
+    private static ReportJob mapJob(ResultSet rs, int rowNum) throws SQLException {
+        return new ReportJob(
+                rs.getObject("id", UUID.class),
+                rs.getObject("tenant_id", UUID.class),
+                ReportType.valueOf(rs.getString("report_type")),
+                ReportJobStatus.valueOf(rs.getString("status")),
+                rs.getString("storage_key"),
+                rs.getString("file_name"),
+                rs.getString("content_type"),
+                rs.getObject("size_bytes", Long.class),
+                rs.getString("error"),
+                instant(rs.getTimestamp("created_at")),
+                instant(rs.getTimestamp("started_at")),
+                instant(rs.getTimestamp("completed_at")),
+                instant(rs.getTimestamp("expires_at")));
+    }
+
+    private String writeParameters(ReportJobParameters parameters) {
+        try {
+            return objectMapper.writeValueAsString(parameters);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize report parameters", e);
+        }
+    }
+
+    private ReportJobParameters readParameters(String json) {
+        try {
+            return objectMapper.readValue(json, ReportJobParameters.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read report parameters", e);
+        }
+    }
+
+    private static Instant instant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant() : null;
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,26 @@
+package com.roofingcrm.service.report;
+
+import com.roofingcrm.api.v1.report.CreateReportJobRequest;
+import com.roofingcrm.api.v1.report.ReportJobDto;
+import org.springframework.lang.NonNull;
+
+import java.io.InputStream;
+import java.util.UUID;
+
+/**
+ * Background report generation: a request queues a job (or joins an identical one for unchanged data), a
+ * {@link ReportJobWorker} generates its file, and clients poll the job or wait for the realtime notification before
+ * downloading the file.
+ */
+public interface ReportJobService {
+
+    /** A stored report file; the caller closes {@code content}. */
+    record ReportJobFile(InputStream content, long size, String fileName, String contentType) {
+    }
+
+    ReportJobDto requestReport(@NonNull UUID tenantId, @NonNull UUID userId, @NonNull CreateReportJobRequest request);
+
+    ReportJobDto getReportJob(@NonNull UUID tenantId, @NonNull UUID userId, @NonNull UUID jobId);
+
+    ReportJobFile openReportJobFile(@NonNull UUID tenantId, @NonNull UUID userId, @NonNull UUID jobId);
+}
@@ -0,0 +1,200 @@
+package com.roofingcrm.service.report;
+
+import com.roofingcrm.api.v1.report.CreateReportJobRequest;
+import com.roofingcrm.api.v1.report.ReportJobDto;
+import com.roofingcrm.domain.enums.ReportJobStatus;
+import com.roofingcrm.domain.enums.ReportType;
+import com.roofingcrm.domain.enums.UserRole;
+import com.roofingcrm.service.exception.ReportJobExpiredException;
+import com.roofingcrm.service.exception.ReportJobNotReadyException;
+import com.roofingcrm.service.exception.ResourceNotFoundException;
+import com.roofingcrm.service.report.ReportJobQueue.ReportJob;
+import com.roofingcrm.service.tenant.TenantAccessService;
+import com.roofingcrm.storage.AttachmentStorageService;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+@Service
+public class ReportJobServiceImpl implements ReportJobService {
+
+    private static final int DEFAULT_LIMIT = 2000;
+    private static final int MAX_LIMIT = 5000;
+    private static final Set<UserRole> REPORT_ROLES = EnumSet.of(UserRole.OWNER, UserRole.ADMIN);
+    private static final Set<UserRole> PHOTO_REPORT_ROLES = EnumSet.of(UserRole.OWNER, UserRole.ADMIN, UserRole.SALES);
+
+    private final TenantAccessService tenantAccessService;
+    private final ReportJobQueue queue;
+    private final ReportDataFingerprint fingerprint;
+    private final ReportJobWorker worker;
+    private final AttachmentStorageService storage;
+
+    public ReportJobServiceImpl(TenantAccessService tenantAccessService,
+                                ReportJobQueue queue,
+                                ReportDataFingerprint fingerprint,
+                                ReportJobWorker worker,
+                                AttachmentStorageService storage) {
+        this.tenantAccessService = tenantAccessService;
+        this.queue = queue;
+        this.fingerprint = fingerprint;
+        this.worker = worker;
+        this.storage = storage;
+    }
+
+    @Override
+    @Transactional
+    public ReportJobDto requestReport(@NonNull UUID tenantId, @NonNull UUID userId,
+                                      @NonNull CreateReportJobRequest request) {
+        ReportType type = Objects.requireNonNull(request.getType(), "type is required");
+        ReportJobParameters parameters = parametersFor(type, request);
+        requireAccess(tenantId, userId, type);
+
+        String dataVersion = fingerprint.fingerprint(tenantId, type, parameters);
+        if (dataVersion == null) {
+            throw new ResourceNotFoundException("Report not found");
+        }
+        ReportJobQueue.Enqueued enqueued =
+                queue.enqueue(tenantId, userId, type, parameters, dedupKey(type, parameters, dataVersion));
+        if (!enqueued.duplicate()) {
+            wakeWorkerAfterCommit();
+        }
+        return toDto(queue.find(tenantId, enqueued.id())
+                .orElseThrow(() -> new IllegalStateException("Report job " + enqueued.id() + " not found")));
+    }
+
+    @Override
+    public ReportJobDto getReportJob(@NonNull UUID tenantId, @NonNull UUID userId, @NonNull UUID jobId) {
+        return toDto(loadAccessibleJob(tenantId, userId, jobId));
+    }
+
+    @Override
+    public ReportJobFile openReportJobFile(@NonNull UUID tenantId, @NonNull UUID userId, @NonNull UUID jobId) {
+        ReportJob job = loadAccessibleJob(tenantId, userId, jobId);
+        switch (job.status()) {
+            case QUEUED, RUNNING -> throw new ReportJobNotReadyException("Report is still being generated.");
+            case FAILED -> throw new ReportJobNotReadyException("Report generation failed"
+                    + (job.error() != null ? ": " + job.error() : "."));
+            case EXPIRED -> throw expired();
+            case SUCCEEDED -> {
+                if (job.expiresAt() != null && !job.expiresAt().isAfter(Instant.now())) {
+                    throw expired();
+                }
+            }
+        }
+        long size = job.sizeBytes() != null ? job.sizeBytes() : -1;
+        return new ReportJobFile(storage.loadAsStream(job.storageKey()), size, job.fileName(), job.contentType());
+    }
+
+    /** Keeps only the parameters the type reads, with the defaults and bounds of its synchronous endpoint. */
+    static ReportJobParameters parametersFor(ReportType type, CreateReportJobRequest request) {
+        return switch (type) {
+            case LEADS_CSV -> new ReportJobParameters(request.getStatusDefinitionId(), request.getSource(),
+                    cappedLimit(request.getLimit()), null, null);
+            case JOBS_CSV -> new ReportJobParameters(request.getStatusDefinitionId(), null,
+                    cappedLimit(request.getLimit()), null, null);
+            case ACCOUNTING_JOBS_XLSX -> new ReportJobParameters(null, null, null, null, null);
+            case PAID_INVOICES_PDF -> {
+                if (request.getYear() == null) {
+                    throw new IllegalArgumentException("year is required for " + type);
+                }
+                yield new ReportJobParameters(null, null, null, request.getYear(), null);
+            }
+            case CUSTOMER_PHOTO_REPORT_PDF -> {
+                if (request.getReportId() == null) {
+                    throw new IllegalArgumentException("reportId is required for " + type);
+                }
+                yield new ReportJobParameters(null, null, null, null, request.getReportId());
+            }
+        };
+    }
+
+    /** Same type, parameters and data version: the same file. */
+    static String dedupKey(ReportType type, ReportJobParameters parameters, String dataVersion) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : new String[] {type.name(), parameters.toString(), dataVersion}) {
+                digest.update(part.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private ReportJob loadAccessibleJob(UUID tenantId, UUID userId, UUID jobId) {
+        tenantAccessService.loadTenantForUserOrThrow(tenantId, userId);
+        ReportJob job = queue.find(tenantId, jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Report job not found"));
+        requireAccess(tenantId, userId, job.type());
+        return job;
+    }
+
+    /**
+     * The access the type's synchronous endpoint requires. Jobs are shared by identical requests, so this is checked
+     * for every read as well.
+     */
+    private void requireAccess(UUID tenantId, UUID userId, ReportType type) {
+        switch (type) {
+            case ACCOUNTING_JOBS_XLSX, PAID_INVOICES_PDF -> tenantAccessService.requireAnyRole(tenantId, userId,
+                    REPORT_ROLES, "You do not have permission to generate reports.");
+            case CUSTOMER_PHOTO_REPORT_PDF -> tenantAccessService.requireAnyRole(tenantId, userId,
+                    PHOTO_REPORT_ROLES, "You do not have permission to manage customer photo reports.");
+            case LEADS_CSV, JOBS_CSV -> {
+                // Any member, checked below.
+            }
+        }
+        tenantAccessService.loadTenantForUserOrThrow(tenantId, userId);
+    }
+
+    private void wakeWorkerAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            worker.wakeUp();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                worker.wakeUp();
+            }
+        });
+    }
+
+    private static int cappedLimit(Integer limit) {
+        return Math.min(Math.max(limit != null ? limit : DEFAULT_LIMIT, 1), MAX_LIMIT);
+    }
+
+    private static ReportJobExpiredException expired() {
+        return new ReportJobExpiredException("Report file has expired. Request the report again.");
+    }
+
+    private static ReportJobDto toDto(ReportJob job) {
+        ReportJobDto dto = new ReportJobDto();
+        dto.setId(job.id());
+        dto.setType(job.type());
+        dto.setStatus(job.status());
+        if (job.status() == ReportJobStatus.SUCCEEDED) {
+            dto.setFileName(job.fileName());
+            dto.setContentType(job.contentType());
+            dto.setSizeBytes(job.sizeBytes());
+        }
+        dto.setError(job.error());
+        dto.setCreatedAt(job.createdAt());
+        dto.setStartedAt(job.startedAt());
+        dto.setCompletedAt(job.completedAt());
+        dto.setExpiresAt(job.expiresAt());
+        return dto;
+    }
+}
@@ -0,0 +1,289 @@
+package com.roofingcrm.service.report;
+
+import com.roofingcrm.domain.enums.ReportJobStatus;
+import com.roofingcrm.realtime.ReportJobRealtimePublisher;
+import com.roofingcrm.service.exception.NoPaidInvoicesForYearException;
+import com.roofingcrm.service.exception.ResourceNotFoundException;
+import com.roofingcrm.service.report.ReportJobGenerator.ReportFile;
+import com.roofingcrm.service.report.ReportJobQueue.ClaimedReportJob;
+import com.roofingcrm.service.report.ReportJobQueue.EndedReportJob;
+import com.roofingcrm.service.report.ReportJobQueue.ExpiredFile;
+import com.roofingcrm.service.tenant.TenantAccessDeniedException;
+import com.roofingcrm.storage.AttachmentStorageService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Drains {@link ReportJobQueue}. Every {@code poll-interval-millis} it claims as many queued jobs as there are idle
+ * generator threads ({@code app.reports.jobs.workers}), so a burst of requests waits in the table instead of piling up
+ * in memory, and every instance running the worker takes a share. A finished job is announced on the tenant's
+ * report-jobs topic.
+ * <p>
+ * The lease of every job being generated is renewed every {@code lease-renew-interval-millis}, so a long report is
+ * never claimed twice while a job whose instance died is picked up again after one short lease. On shutdown the jobs
+ * still running are handed back to the queue at once. Generation errors are permanent (they are access, validation or
+ * missing-data errors that a retry would repeat); a job whose worker died {@code max-attempts} times is failed by the
+ * minutely maintenance, which also deletes expired files.
+ * <p>
+ * {@link #wakeUp()} (called after a queueing transaction commits, and when a job finishes) polls without waiting for
+ * the interval.
+ */
+@Component
+public class ReportJobWorker implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportJobWorker.class);
+
+    private static final int EXPIRED_FILES_PER_ROUND = 500;
+
+    private final ReportJobQueue queue;
+    private final ReportJobGenerator generator;
+    private final AttachmentStorageService storage;
+    private final ReportJobRealtimePublisher publisher;
+    private final ReportJobProperties properties;
+    private final ThreadPoolTaskExecutor generators;
+    private final Semaphore idleGenerators;
+    private final Map<UUID, ClaimedReportJob> running = new ConcurrentHashMap<>();
+    private final AtomicBoolean pollRequested = new AtomicBoolean();
+    private final MeterRegistry meterRegistry;
+    private final Counter succeeded;
+    private final Counter failed;
+
+    private volatile boolean closed;
+
+    @Autowired
+    public ReportJobWorker(ReportJobQueue queue, ReportJobGenerator generator, AttachmentStorageService storage,
+                           ReportJobRealtimePublisher publisher, ReportJobProperties properties,
+                           MeterRegistry meterRegistry) {
+        this(queue, generator, storage, publisher, properties, meterRegistry, generatorExecutor(properties));
+    }
+
+    ReportJobWorker(ReportJobQueue queue, ReportJobGenerator generator, AttachmentStorageService storage,
+                    ReportJobRealtimePublisher publisher, ReportJobProperties properties, MeterRegistry meterRegistry,
+                    ThreadPoolTaskExecutor generators) {
+        this.queue = queue;
+        this.generator = generator;
+        this.storage = storage;
+        this.publisher = publisher;
+        this.properties = properties;
+        this.generators = generators;
+        this.idleGenerators = new Semaphore(Math.max(1, properties.getWorkers()));
+        this.meterRegistry = meterRegistry;
+        this.succeeded = Counter.builder("reports.jobs.succeeded")
+                .description("Background report jobs whose file was stored")
+                .register(meterRegistry);
+        this.failed = Counter.builder("reports.jobs.failed")
+                .description("Background report jobs that failed or were abandoned")
+                .register(meterRegistry);
+    }
+
+    /** Polls now instead of at the next interval. */
+    public void wakeUp() {
+        if (!isActive() || !pollRequested.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            generators.execute(() -> {
+                pollRequested.set(false);
+                poll();
+            });
+        } catch (TaskRejectedException e) {
+            pollRequested.set(false);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.reports.jobs.poll-interval-millis:5000}")
+    public void poll() {
+        if (!isActive()) {
+            return;
+        }
+        try {
+            pollOnce();
+        } catch (RuntimeException e) {
+            log.warn("Report job poll failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.reports.jobs.lease-renew-interval-millis:30000}")
+    public void renewLeases() {
+        for (ClaimedReportJob job : running.values()) {
+            try {
+                if (!queue.renew(job, properties.getLeaseMillis())) {
+                    log.warn("Report job {} was taken over by another worker while it was being generated", job.id());
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not renew the lease of report job {}: {}", job.id(), e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(initialDelay = 1, fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
+    public void scheduledMaintenance() {
+        if (!isActive()) {
+            return;
+        }
+        try {
+            maintain();
+        } catch (RuntimeException e) {
+            log.warn("Report job maintenance failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Stops generating and queues the jobs still running again, so another instance picks them up now instead of
+     * after their lease. A generator thread that finishes anyway can no longer complete its job (the claim is gone).
+     */
+    @Override
+    public void close() {
+        closed = true;
+        generators.shutdown();
+        for (ClaimedReportJob job : running.values()) {
+            try {
+                queue.release(job);
+            } catch (RuntimeException e) {
+                log.warn("Could not release report job {}; it is claimed again once its lease expires: {}", job.id(),
+                        e.getMessage());
+            }
+        }
+    }
+
+    /** Claims up to one job per idle generator thread and starts them; returns how many were claimed. */
+    synchronized int pollOnce() {
+        int idle = idleGenerators.availablePermits();
+        if (idle == 0) {
+            return 0;
+        }
+        List<ClaimedReportJob> jobs = queue.claim(idle, properties.getLeaseMillis(), properties.getMaxAttempts());
+        for (ClaimedReportJob job : jobs) {
+            idleGenerators.acquireUninterruptibly();
+            running.put(job.id(), job);
+            try {
+                generators.execute(() -> {
+                    try {
+                        run(job);
+                    } finally {
+                        running.remove(job.id());
+                        idleGenerators.release();
+                        wakeUp();
+                    }
+                });
+            } catch (TaskRejectedException e) {
+                running.remove(job.id());
+                idleGenerators.release();
+                log.warn("Report job worker is shutting down; releasing job {}", job.id());
+                queue.release(job);
+            }
+        }
+        return jobs.size();
+    }
+
+    void run(ClaimedReportJob job) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String storageKey = null;
+        try (ReportFile file = generator.generate(job)) {
+            storageKey = storage.store(job.tenantSlug(), job.id(), file.fileName(), file.content());
+            if (!queue.markSucceeded(job, storageKey, file.fileName(), job.type().getContentType(), file.size(),
+                    properties.getFileTtlMinutes())) {
+                log.warn("Report job {} was taken over by another worker; discarding its file", job.id());
+                deleteQuietly(storageKey);
+                return;
+            }
+        } catch (Exception e) {
+            if (storageKey != null) {
+                deleteQuietly(storageKey);
+            }
+            fail(job, e);
+            return;
+        } finally {
+            sample.stop(Timer.builder("reports.jobs.generation")
+                    .description("Background report generation time, including storing the file")
+                    .tag("type", job.type().name())
+                    .register(meterRegistry));
+        }
+        succeeded.increment();
+        publisher.publishCompleted(job.tenantId(), job.id(), job.type(), ReportJobStatus.SUCCEEDED);
+    }
+
+    private void fail(ClaimedReportJob job, Exception e) {
+        if (closed) {
+            // Interrupted by the shutdown; close() queued the job again.
+            return;
+        }
+        String error = describe(e);
+        if (error == null) {
+            log.error("Report job {} ({}) failed", job.id(), job.type(), e);
+            error = "Report generation failed.";
+        }
+        try {
+            if (queue.markFailed(job, error)) {
+                failed.increment();
+                publisher.publishCompleted(job.tenantId(), job.id(), job.type(), ReportJobStatus.FAILED);
+            }
+        } catch (RuntimeException markError) {
+            log.warn("Could not record failure of report job {}: {}", job.id(), markError.getMessage());
+        }
+    }
+
+    void maintain() {
+        for (EndedReportJob job : queue.failAbandoned(properties.getMaxAttempts())) {
+            failed.increment();
+            publisher.publishCompleted(job.tenantId(), job.id(), job.type(), ReportJobStatus.FAILED);
+        }
+        for (ExpiredFile file : queue.expire(EXPIRED_FILES_PER_ROUND)) {
+            if (deleteQuietly(file.storageKey())) {
+                queue.clearStorageKey(file.id());
+            }
+        }
+        queue.purge(properties.getRetentionDays());
+    }
+
+    /** The message of errors a user can act on; null for unexpected ones. */
+    static String describe(Throwable error) {
+        if (error instanceof NoPaidInvoicesForYearException
+                || error instanceof ResourceNotFoundException
+                || error instanceof TenantAccessDeniedException
+                || error instanceof IllegalArgumentException) {
+            return error.getMessage();
+        }
+        return null;
+    }
+
+    private boolean deleteQuietly(String storageKey) {
+        try {
+            storage.delete(storageKey);
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Could not delete report file {}: {}", storageKey, e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean isActive() {
+        return properties.isEnabled() && !closed;
+    }
+
+    private static ThreadPoolTaskExecutor generatorExecutor(ReportJobProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(Math.max(1, properties.getWorkers()));
+        executor.setMaxPoolSize(Math.max(1, properties.getWorkers()));
+        executor.setThreadNamePrefix("report-job-");
+        executor.setDaemon(true);
+        executor.initialize();
+        return executor;
+    }
+}
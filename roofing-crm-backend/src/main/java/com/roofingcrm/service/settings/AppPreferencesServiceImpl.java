@@ -6,6 +6,7 @@ import com.roofingcrm.domain.entity.Tenant;
 import com.roofingcrm.domain.entity.TenantAppPreferences;
 import com.roofingcrm.domain.enums.UserRole;
 import com.roofingcrm.domain.repository.TenantAppPreferencesRepository;
+import com.roofingcrm.service.cache.ReferenceDataCacheInvalidator;
 import com.roofingcrm.service.tenant.TenantAccessService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
@@ -20,13 +21,16 @@ public class AppPreferencesServiceImpl implements AppPreferencesService {
 
     private final TenantAccessService tenantAccessService;
     private final TenantAppPreferencesRepository preferencesRepository;
+    private final ReferenceDataCacheInvalidator cacheInvalidator;
 
     @Autowired
     public AppPreferencesServiceImpl(
             TenantAccessService tenantAccessService,
-            TenantAppPreferencesRepository preferencesRepository) {
+            TenantAppPreferencesRepository preferencesRepository,
+            ReferenceDataCacheInvalidator cacheInvalidator) {
         this.tenantAccessService = tenantAccessService;
         this.preferencesRepository = preferencesRepository;
+        this.cacheInvalidator = cacheInvalidator;
     }
 
     @Override
@@ -81,6 +85,7 @@ public class AppPreferencesServiceImpl implements AppPreferencesService {
         entity.setPreferences(buildSanitizedSnapshot(merged));
 
         TenantAppPreferences saved = preferencesRepository.save(entity);
+        cacheInvalidator.evictAppPreferencesAfterCommit();
         return toDto(saved);
     }
 
@@ -21,6 +21,17 @@ public interface AttachmentStorageService {
      */
     String store(String tenantSlug, UUID attachmentId, MultipartFile file);
 
+    /**
+     * Store content that does not arrive as an upload (e.g. a generated report) and return a storage key.
+     *
+     * @param tenantSlug    The tenant's slug for namespacing
+     * @param attachmentId  The ID used for unique naming
+     * @param filename      The file name to keep (sanitized like an uploaded name)
+     * @param content       The content; read to the end but not closed
+     * @return The storage key for retrieving the file later
+     */
+    String store(String tenantSlug, UUID attachmentId, String filename, InputStream content);
+
     /**
      * Load a file for download as an InputStream.
      *
@@ -28,4 +39,11 @@ public interface AttachmentStorageService {
      * @return InputStream for reading the file content
      */
     InputStream loadAsStream(String storageKey);
+
+    /**
+     * Delete a stored file. Deleting a file that no longer exists is not an error.
+     *
+     * @param storageKey The storage key returned from store()
+     */
+    void delete(String storageKey);
 }
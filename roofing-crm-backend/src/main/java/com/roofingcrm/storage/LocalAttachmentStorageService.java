@@ -25,6 +25,15 @@ public class LocalAttachmentStorageService implements AttachmentStorageService {
 
     @Override
     public String store(String tenantSlug, UUID attachmentId, MultipartFile file) {
+        try (InputStream is = file.getInputStream()) {
+            return store(tenantSlug, attachmentId, file.getOriginalFilename(), is);
+        } catch (IOException ex) {
+            throw new RuntimeException("Failed to store attachment", ex);
+        }
+    }
+
+    @Override
+    public String store(String tenantSlug, UUID attachmentId, String filename, InputStream content) {
         try {
             Path baseDir = Path.of(properties.getBaseDir()).toAbsolutePath().normalize();
 
@@ -32,13 +41,11 @@ public class LocalAttachmentStorageService implements AttachmentStorageService {
             Path tenantDir = resolveStrictlyUnderBase(baseDir, safeTenant);
             Files.createDirectories(tenantDir);
 
-            String safeBasename = AttachmentFilenameSanitizer.sanitizeUploadedFilename(file.getOriginalFilename());
+            String safeBasename = AttachmentFilenameSanitizer.sanitizeUploadedFilename(filename);
             String fileName = attachmentId + "_" + safeBasename;
             Path target = resolveStrictlyUnderBase(tenantDir, fileName);
 
-            try (InputStream is = file.getInputStream()) {
-                Files.copy(is, target, StandardCopyOption.REPLACE_EXISTING);
-            }
+            Files.copy(content, target, StandardCopyOption.REPLACE_EXISTING);
 
             // storageKey is a relative path under baseDir
             return safeTenant + "/" + fileName;
@@ -63,6 +70,16 @@ public class LocalAttachmentStorageService implements AttachmentStorageService {
         }
     }
 
+    @Override
+    public void delete(String storageKey) {
+        try {
+            Path baseDir = Path.of(properties.getBaseDir()).toAbsolutePath().normalize();
+            Files.deleteIfExists(resolveStrictlyUnderBase(baseDir, storageKey));
+        } catch (IOException ex) {
+            throw new RuntimeException("Failed to delete attachment", ex);
+        }
+    }
+
     /**
      * Resolves {@code relativeKey} under {@code baseDir}, rejecting absolute keys and any normalized path
      * that escapes {@code baseDir}.
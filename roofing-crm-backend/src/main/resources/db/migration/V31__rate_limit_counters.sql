@@ -0,0 +1,16 @@
+-- ============================================================
+-- V31__rate_limit_counters.sql
+-- Shared sliding-window counters for PostgresRateLimiter (app.rate-limit.backend=postgres).
+-- UNLOGGED: counters are short-lived, losing them on a crash only resets limits, and skipping WAL keeps the
+-- per-request upsert cheap.
+-- ============================================================
+
+CREATE UNLOGGED TABLE rate_limit_counters (
+    scope_key_hash CHAR(64) PRIMARY KEY,
+    window_index BIGINT NOT NULL,
+    current_count INTEGER NOT NULL,
+    previous_count INTEGER NOT NULL,
+    last_allowed BOOLEAN NOT NULL
+);
+
+CREATE INDEX idx_rate_limit_counters_window_index ON rate_limit_counters(window_index);
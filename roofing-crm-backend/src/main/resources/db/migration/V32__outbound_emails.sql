@@ -0,0 +1,33 @@
+-- ============================================================
+-- V32__outbound_emails.sql
+-- Persistent outbound mail queue (QueuedEmailService / OutboundEmailWorker).
+-- Rows are written in the caller's transaction, so an email is queued exactly when the business change commits, and
+-- delivered by the worker with retries. idempotency_key makes enqueueing the same message twice a no-op and is sent
+-- to the provider so a retried send is not delivered twice.
+-- ============================================================
+
+CREATE TABLE outbound_emails (
+    id UUID PRIMARY KEY,
+    idempotency_key VARCHAR(255) NOT NULL,
+    to_email VARCHAR(320) NOT NULL,
+    subject TEXT NOT NULL,
+    html_body TEXT,
+    text_body TEXT,
+    attachments JSONB,
+    has_attachments BOOLEAN NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    locked_until TIMESTAMP WITH TIME ZONE,
+    provider_message_id VARCHAR(255),
+    last_error TEXT,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    sent_at TIMESTAMP WITH TIME ZONE,
+    CONSTRAINT uq_outbound_emails_idempotency_key UNIQUE (idempotency_key),
+    CONSTRAINT chk_outbound_emails_status CHECK (status IN ('PENDING', 'SENDING', 'SENT', 'FAILED'))
+);
+
+-- Worker claim: due PENDING rows and SENDING rows whose lease expired.
+CREATE INDEX idx_outbound_emails_due ON outbound_emails(next_attempt_at) WHERE status IN ('PENDING', 'SENDING');
+
+CREATE INDEX idx_outbound_emails_sent_at ON outbound_emails(sent_at) WHERE status = 'SENT';
@@ -0,0 +1,46 @@
+-- ============================================================
+-- V33__receipt_import_batches.sql
+-- Bulk receipt import (ReceiptImportService). A batch records every file it was given; stored files become RECEIPT
+-- attachments whose extraction runs in the background, so the batch status is read from the items and their
+-- attachments. content_hash (SHA-256 of the file bytes) lets an import skip files already on the job.
+-- ============================================================
+
+ALTER TABLE attachments ADD COLUMN content_hash VARCHAR(64);
+
+CREATE INDEX idx_attachments_job_content_hash
+    ON attachments (job_id, content_hash)
+    WHERE archived = FALSE AND content_hash IS NOT NULL;
+
+CREATE TABLE receipt_import_batches (
+    id UUID PRIMARY KEY,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    archived BOOLEAN NOT NULL DEFAULT FALSE,
+    archived_at TIMESTAMP WITH TIME ZONE,
+    tenant_id UUID NOT NULL REFERENCES tenants(id),
+    created_by_user_id UUID,
+    updated_by_user_id UUID,
+    job_id UUID NOT NULL REFERENCES jobs(id),
+    extraction_requested BOOLEAN NOT NULL
+);
+
+CREATE INDEX idx_receipt_import_batches_tenant_job
+    ON receipt_import_batches (tenant_id, job_id, created_at DESC);
+
+CREATE TABLE receipt_import_items (
+    id UUID PRIMARY KEY,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    archived BOOLEAN NOT NULL DEFAULT FALSE,
+    archived_at TIMESTAMP WITH TIME ZONE,
+    batch_id UUID NOT NULL REFERENCES receipt_import_batches(id) ON DELETE CASCADE,
+    sort_order INTEGER NOT NULL,
+    file_name VARCHAR(255) NOT NULL,
+    content_hash VARCHAR(64),
+    status VARCHAR(20) NOT NULL,
+    attachment_id UUID REFERENCES attachments(id),
+    error VARCHAR(255),
+    CONSTRAINT chk_receipt_import_items_status CHECK (status IN ('STORED', 'DUPLICATE', 'REJECTED'))
+);
+
+CREATE INDEX idx_receipt_import_items_batch_sort ON receipt_import_items (batch_id, sort_order);
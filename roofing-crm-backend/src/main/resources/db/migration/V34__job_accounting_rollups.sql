@@ -0,0 +1,82 @@
+-- ============================================================
+-- V34__job_accounting_rollups.sql
+-- One row per job with the figures of the job accounting summary (JobAccountingLedger). Rows are recomputed in the
+-- transaction that changes a job's cost entries, invoices or accepted estimate, so the summary is a primary key
+-- lookup and jobs can be listed by margin. Category columns follow JobCostCategory; a new category needs a column.
+-- ============================================================
+
+CREATE TABLE job_accounting_rollups (
+    job_id UUID PRIMARY KEY REFERENCES jobs(id) ON DELETE CASCADE,
+    tenant_id UUID NOT NULL REFERENCES tenants(id),
+    has_accepted_estimate BOOLEAN NOT NULL,
+    agreed_amount NUMERIC(14, 2),
+    invoiced_amount NUMERIC(14, 2) NOT NULL,
+    paid_amount NUMERIC(14, 2) NOT NULL,
+    total_costs NUMERIC(14, 2) NOT NULL,
+    material_costs NUMERIC(14, 2) NOT NULL,
+    transportation_costs NUMERIC(14, 2) NOT NULL,
+    labor_costs NUMERIC(14, 2) NOT NULL,
+    other_costs NUMERIC(14, 2) NOT NULL,
+    actual_profit NUMERIC(14, 2) NOT NULL,
+    actual_margin_percent NUMERIC,
+    projected_profit NUMERIC(14, 2),
+    projected_margin_percent NUMERIC,
+    refreshed_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX idx_job_accounting_rollups_tenant_actual_margin
+    ON job_accounting_rollups (tenant_id, actual_margin_percent DESC NULLS LAST);
+
+CREATE INDEX idx_job_accounting_rollups_tenant_projected_margin
+    ON job_accounting_rollups (tenant_id, projected_margin_percent DESC NULLS LAST);
+
+-- Same figures as JobAccountingLedger.ROLLUP_SELECT, for every existing job.
+INSERT INTO job_accounting_rollups (
+    job_id, tenant_id, has_accepted_estimate, agreed_amount, invoiced_amount, paid_amount, total_costs,
+    material_costs, transportation_costs, labor_costs, other_costs,
+    actual_profit, actual_margin_percent, projected_profit, projected_margin_percent, refreshed_at)
+SELECT t.job_id, t.tenant_id, t.has_accepted_estimate, t.agreed_amount, t.invoiced_amount, t.paid_amount,
+       t.total_costs, t.material_costs, t.transportation_costs, t.labor_costs, t.other_costs,
+       t.paid_amount - t.total_costs,
+       CASE WHEN t.paid_amount > 0
+            THEN ROUND((t.paid_amount - t.total_costs) * 100 / t.paid_amount, 2) END,
+       t.agreed_amount - t.total_costs,
+       CASE WHEN t.agreed_amount > 0
+            THEN ROUND((t.agreed_amount - t.total_costs) * 100 / t.agreed_amount, 2) END,
+       now()
+FROM (
+    SELECT j.id AS job_id,
+           j.tenant_id,
+           accepted.id IS NOT NULL AS has_accepted_estimate,
+           accepted.total AS agreed_amount,
+           COALESCE(invoiced.non_void, 0) AS invoiced_amount,
+           COALESCE(invoiced.paid, 0) AS paid_amount,
+           COALESCE(costs.total, 0) AS total_costs,
+           COALESCE(costs.material, 0) AS material_costs,
+           COALESCE(costs.transportation, 0) AS transportation_costs,
+           COALESCE(costs.labor, 0) AS labor_costs,
+           COALESCE(costs.other, 0) AS other_costs
+    FROM jobs j
+    LEFT JOIN LATERAL (
+        SELECT e.id, e.total
+        FROM estimates e
+        WHERE e.job_id = j.id AND e.archived = FALSE AND e.status = 'ACCEPTED'
+        ORDER BY e.decision_at DESC NULLS LAST, e.updated_at DESC, e.created_at DESC
+        LIMIT 1
+    ) accepted ON TRUE
+    LEFT JOIN LATERAL (
+        SELECT SUM(i.total) FILTER (WHERE i.status <> 'VOID') AS non_void,
+               SUM(i.total) FILTER (WHERE i.status = 'PAID') AS paid
+        FROM invoices i
+        WHERE i.job_id = j.id AND i.archived = FALSE
+    ) invoiced ON TRUE
+    LEFT JOIN LATERAL (
+        SELECT SUM(c.amount) AS total,
+               SUM(c.amount) FILTER (WHERE c.category = 'MATERIAL') AS material,
+               SUM(c.amount) FILTER (WHERE c.category = 'TRANSPORTATION') AS transportation,
+               SUM(c.amount) FILTER (WHERE c.category = 'LABOR') AS labor,
+               SUM(c.amount) FILTER (WHERE c.category = 'OTHER') AS other
+        FROM job_cost_entries c
+        WHERE c.job_id = j.id AND c.archived = FALSE
+    ) costs ON TRUE
+) t;
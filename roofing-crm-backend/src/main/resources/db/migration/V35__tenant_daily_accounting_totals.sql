@@ -0,0 +1,38 @@
+-- ============================================================
+-- V35__tenant_daily_accounting_totals.sql
+-- Daily per-tenant aggregates behind the accounting analytics endpoints (DailyAccountingTotals). Days are UTC dates,
+-- like the paid invoice reports. The transaction that changes a cost entry or invoice adds its amount and count deltas
+-- to the affected days (JobAccountingRollupListener), and a day whose count drops to zero is deleted, so analytics read
+-- a few hundred rows per tenant instead of scanning every job. JobAccountingRollupVerifier rebuilds drifted tenants.
+-- ============================================================
+
+-- Non-archived cost entries by the day they were incurred.
+CREATE TABLE tenant_daily_cost_totals (
+    tenant_id UUID NOT NULL REFERENCES tenants(id),
+    day DATE NOT NULL,
+    category VARCHAR(32) NOT NULL,
+    amount NUMERIC(14, 2) NOT NULL,
+    entry_count INTEGER NOT NULL,
+    PRIMARY KEY (tenant_id, day, category)
+);
+
+-- Open receivables: non-archived SENT invoices by the day they fall due (issue day when no due date is set).
+CREATE TABLE tenant_daily_receivables (
+    tenant_id UUID NOT NULL REFERENCES tenants(id),
+    due_day DATE NOT NULL,
+    open_amount NUMERIC(14, 2) NOT NULL,
+    open_count INTEGER NOT NULL,
+    PRIMARY KEY (tenant_id, due_day)
+);
+
+INSERT INTO tenant_daily_cost_totals (tenant_id, day, category, amount, entry_count)
+SELECT c.tenant_id, (c.incurred_at AT TIME ZONE 'UTC')::date, c.category, SUM(c.amount), COUNT(*)
+FROM job_cost_entries c
+WHERE c.archived = FALSE
+GROUP BY 1, 2, 3;
+
+INSERT INTO tenant_daily_receivables (tenant_id, due_day, open_amount, open_count)
+SELECT i.tenant_id, (COALESCE(i.due_at, i.issued_at) AT TIME ZONE 'UTC')::date, SUM(i.total), COUNT(*)
+FROM invoices i
+WHERE i.archived = FALSE AND i.status = 'SENT'
+GROUP BY 1, 2;
@@ -0,0 +1,41 @@
+-- ============================================================
+-- V36__report_jobs.sql
+-- Background report generation (ReportJobService / ReportJobWorker). A request becomes a QUEUED row; workers claim
+-- rows with FOR UPDATE SKIP LOCKED under a lease (locked_until), store the file through AttachmentStorageService and
+-- keep it until expires_at. dedup_key is a hash of the report type, its parameters and a fingerprint of the data it
+-- reads: the partial unique index lets an identical request for unchanged data join the live job instead of
+-- queueing another.
+-- ============================================================
+
+CREATE TABLE report_jobs (
+    id UUID PRIMARY KEY,
+    tenant_id UUID NOT NULL REFERENCES tenants(id),
+    requested_by_user_id UUID NOT NULL,
+    report_type VARCHAR(40) NOT NULL,
+    parameters JSONB NOT NULL,
+    dedup_key VARCHAR(64) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    locked_until TIMESTAMP WITH TIME ZONE,
+    storage_key VARCHAR(500),
+    file_name VARCHAR(255),
+    content_type VARCHAR(120),
+    size_bytes BIGINT,
+    error TEXT,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    started_at TIMESTAMP WITH TIME ZONE,
+    completed_at TIMESTAMP WITH TIME ZONE,
+    expires_at TIMESTAMP WITH TIME ZONE,
+    CONSTRAINT chk_report_jobs_status CHECK (status IN ('QUEUED', 'RUNNING', 'SUCCEEDED', 'FAILED', 'EXPIRED'))
+);
+
+CREATE UNIQUE INDEX uq_report_jobs_live_dedup
+    ON report_jobs (tenant_id, dedup_key)
+    WHERE status IN ('QUEUED', 'RUNNING', 'SUCCEEDED');
+
+-- Worker claim: queued rows and running rows whose lease expired.
+CREATE INDEX idx_report_jobs_claimable ON report_jobs (created_at) WHERE status IN ('QUEUED', 'RUNNING');
+
+CREATE INDEX idx_report_jobs_expires_at ON report_jobs (expires_at) WHERE status = 'SUCCEEDED';
+
+CREATE INDEX idx_report_jobs_completed_at ON report_jobs (completed_at) WHERE status IN ('FAILED', 'EXPIRED');
@@ -0,0 +1,9 @@
+-- ============================================================
+-- V37__accounting_change_indexes.sql
+-- The daily totals consistency check (JobAccountingRollupVerifier) only compares tenants whose cost entries or
+-- invoices changed recently; these indexes find them without scanning either table.
+-- ============================================================
+
+CREATE INDEX idx_job_cost_entries_updated_at ON job_cost_entries (updated_at, tenant_id);
+
+CREATE INDEX idx_invoices_updated_at ON invoices (updated_at, tenant_id);
@@ -0,0 +1,19 @@
+-- ============================================================
+-- V38__report_fingerprint_indexes.sql
+-- ReportDataFingerprint versions a report by the latest updated_at of each table it reads for the tenant; with these
+-- indexes that is one index probe per table instead of a scan of the tenant's rows on every report request.
+-- ============================================================
+
+CREATE INDEX idx_leads_tenant_updated_at ON leads (tenant_id, updated_at);
+
+CREATE INDEX idx_customers_tenant_updated_at ON customers (tenant_id, updated_at);
+
+CREATE INDEX idx_jobs_tenant_updated_at ON jobs (tenant_id, updated_at);
+
+CREATE INDEX idx_psd_tenant_updated_at ON pipeline_status_definitions (tenant_id, updated_at);
+
+CREATE INDEX idx_estimates_tenant_updated_at ON estimates (tenant_id, updated_at);
+
+CREATE INDEX idx_invoices_tenant_updated_at ON invoices (tenant_id, updated_at);
+
+CREATE INDEX idx_job_cost_entries_tenant_updated_at ON job_cost_entries (tenant_id, updated_at);
@@ -0,0 +1,8 @@
+-- ============================================================
+-- V39__outbound_email_batches.sql
+-- Batch membership of outbound emails. A batch whose provider response was lost is retried with the same members
+-- under the same idempotency key (batch_key), so the provider replays it instead of sending every email again.
+-- ============================================================
+
+ALTER TABLE outbound_emails ADD COLUMN batch_key VARCHAR(80);
+ALTER TABLE outbound_emails ADD COLUMN batch_size INTEGER;
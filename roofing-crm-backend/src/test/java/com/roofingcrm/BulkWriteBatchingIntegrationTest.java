@@ -0,0 +1,222 @@
+package com.roofingcrm;
+
+import com.roofingcrm.api.v1.common.AddressDto;
+import com.roofingcrm.api.v1.lead.CreateLeadRequest;
+import com.roofingcrm.api.v1.lead.LeadDto;
+import com.roofingcrm.api.v1.settings.ReorderPipelineStatusesRequest;
+import com.roofingcrm.domain.entity.Customer;
+import com.roofingcrm.domain.entity.PipelineStatusDefinition;
+import com.roofingcrm.domain.entity.Tenant;
+import com.roofingcrm.domain.entity.TenantUserMembership;
+import com.roofingcrm.domain.entity.User;
+import com.roofingcrm.domain.enums.PipelineType;
+import com.roofingcrm.domain.enums.UserRole;
+import com.roofingcrm.domain.repository.CustomerRepository;
+import com.roofingcrm.domain.repository.PipelineStatusDefinitionRepository;
+import com.roofingcrm.domain.repository.TenantRepository;
+import com.roofingcrm.domain.repository.TenantUserMembershipRepository;
+import com.roofingcrm.domain.repository.UserRepository;
+import com.roofingcrm.service.lead.LeadService;
+import com.roofingcrm.service.pipeline.PipelineStatusAdminService;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.lang.NonNull;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Regression test: multi-row writes (lead column moves, pipeline reorder, tenant seeding) must reach the database
+ * as a constant number of JDBC executions, not one statement per row. Relies on hibernate.jdbc.batch_size and
+ * order_inserts/order_updates in application.yml.
+ */
+@Import(BulkWriteBatchingIntegrationTest.StatementCountingConfig.class)
+class BulkWriteBatchingIntegrationTest extends AbstractIntegrationTest {
+
+    private static final int COLUMN_SIZE = 30;
+
+    @Autowired
+    private LeadService leadService;
+
+    @Autowired
+    private PipelineStatusAdminService pipelineStatusAdminService;
+
+    @Autowired
+    private PipelineStatusDefinitionRepository definitionRepository;
+
+    @Autowired
+    private TenantRepository tenantRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TenantUserMembershipRepository membershipRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private TestDatabaseCleaner dbCleaner;
+
+    @NonNull
+    private UUID tenantId = Objects.requireNonNull(UUID.randomUUID());
+    @NonNull
+    private UUID userId = Objects.requireNonNull(UUID.randomUUID());
+    private Tenant tenant;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        dbCleaner.reset();
+
+        tenant = new Tenant();
+        tenant.setName("Batch Roofing");
+        tenant.setSlug("batch-roofing");
+        tenant = tenantRepository.save(tenant);
+
+        User user = new User();
+        user.setEmail("batch-user@example.com");
+        user.setFullName("Batch User");
+        user.setPasswordHash("irrelevant-for-this-test");
+        user.setEnabled(true);
+        user = userRepository.save(user);
+
+        TenantUserMembership membership = new TenantUserMembership();
+        membership.setTenant(tenant);
+        membership.setUser(user);
+        membership.setRole(UserRole.OWNER);
+        membershipRepository.save(membership);
+
+        customer = new Customer();
+        customer.setTenant(tenant);
+        customer.setFirstName("Bulk");
+        customer.setLastName("Customer");
+        customer = customerRepository.save(customer);
+
+        this.tenantId = Objects.requireNonNull(tenant.getId());
+        this.userId = Objects.requireNonNull(user.getId());
+
+        pipelineStatusAdminService.seedDefaultsForNewTenant(tenant);
+        StatementCounter.reset();
+    }
+
+    @Test
+    void seedDefaultsForNewTenant_insertsAllDefinitionsInOneBatch() {
+        Tenant other = new Tenant();
+        other.setName("Second Roofing");
+        other.setSlug("second-roofing");
+        other = tenantRepository.save(other);
+        StatementCounter.reset();
+
+        pipelineStatusAdminService.seedDefaultsForNewTenant(other);
+
+        assertEquals(1, StatementCounter.executionsStartingWith("insert into pipeline_status_definitions"));
+    }
+
+    @Test
+    void updateLeadStatus_movingAcrossColumns_updatesBothColumnsInOneBatch() {
+        List<LeadDto> leads = new ArrayList<>();
+        for (int i = 0; i < COLUMN_SIZE; i++) {
+            CreateLeadRequest request = new CreateLeadRequest();
+            request.setCustomerId(customer.getId());
+            request.setPropertyAddress(new AddressDto());
+            leads.add(leadService.createLead(tenantId, userId, request));
+        }
+        UUID contactedId = definitionRepository
+                .findByTenantAndPipelineTypeAndSystemKeyAndArchivedFalse(tenant, PipelineType.LEAD, "CONTACTED")
+                .orElseThrow()
+                .getId();
+        StatementCounter.reset();
+
+        leadService.updateLeadStatus(tenantId, userId, leads.get(0).getId(), contactedId, 0);
+
+        assertEquals(1, StatementCounter.executionsStartingWith("update leads"),
+                "Renumbering " + COLUMN_SIZE + " leads must be sent as a single JDBC batch");
+        assertTrue(StatementCounter.executionsStartingWith("insert into activity_events") <= 1);
+    }
+
+    @Test
+    void reorder_updatesEveryDefinitionInOneBatch() {
+        List<PipelineStatusDefinition> defs =
+                definitionRepository.findByTenantAndPipelineTypeAndArchivedFalseOrderBySortOrderAsc(tenant, PipelineType.LEAD);
+        List<UUID> reversed = new ArrayList<>(defs.stream().map(PipelineStatusDefinition::getId).toList());
+        Collections.reverse(reversed);
+        ReorderPipelineStatusesRequest request = new ReorderPipelineStatusesRequest();
+        request.setPipelineType(PipelineType.LEAD);
+        request.setOrderedDefinitionIds(reversed);
+        StatementCounter.reset();
+
+        pipelineStatusAdminService.reorder(tenantId, userId, request);
+
+        assertEquals(1, StatementCounter.executionsStartingWith("update pipeline_status_definitions"));
+    }
+
+    @TestConfiguration
+    static class StatementCountingConfig {
+
+        @Bean
+        static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+                    if (bean instanceof DataSource dataSource) {
+                        return ProxyDataSourceBuilder.create(dataSource)
+                                .name("statement-counting")
+                                .listener(new StatementCounter())
+                                .build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    /**
+     * Records the leading SQL of every JDBC execution; a batch of N statements counts as one execution.
+     */
+    static final class StatementCounter implements QueryExecutionListener {
+
+        private static final List<String> EXECUTIONS = Collections.synchronizedList(new ArrayList<>());
+
+        static void reset() {
+            EXECUTIONS.clear();
+        }
+
+        static long executionsStartingWith(String prefix) {
+            synchronized (EXECUTIONS) {
+                return EXECUTIONS.stream().filter(sql -> sql.startsWith(prefix)).count();
+            }
+        }
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            if (queryInfoList.isEmpty()) {
+                return;
+            }
+            String sql = queryInfoList.get(0).getQuery().trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+            EXECUTIONS.add(sql);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.roofingcrm;
+
+import com.roofingcrm.api.v1.common.AddressDto;
+import com.roofingcrm.api.v1.dashboard.DashboardSummaryDto;
+import com.roofingcrm.api.v1.lead.CreateLeadRequest;
+import com.roofingcrm.domain.entity.Customer;
+import com.roofingcrm.domain.entity.Tenant;
+import com.roofingcrm.domain.entity.TenantUserMembership;
+import com.roofingcrm.domain.entity.User;
+import com.roofingcrm.domain.enums.UserRole;
+import com.roofingcrm.domain.repository.CustomerRepository;
+import com.roofingcrm.domain.repository.TenantRepository;
+import com.roofingcrm.domain.repository.TenantUserMembershipRepository;
+import com.roofingcrm.domain.repository.UserRepository;
+import com.roofingcrm.observability.SqlStatementStats;
+import com.roofingcrm.service.dashboard.DashboardService;
+import com.roofingcrm.service.lead.LeadService;
+import com.roofingcrm.service.pipeline.PipelineStatusAdminService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.NonNull;
+
+import java.util.Objects;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pins the SQL statement budget of the dashboard summary, counted through the instrumented DataSource. The summary
+ * runs a fixed set of count queries plus one per active pipeline status, so its statement count must not depend on
+ * how many leads the tenant has.
+ */
+class QueryBudgetIntegrationTest extends AbstractIntegrationTest {
+
+    private static final int DASHBOARD_STATEMENT_BUDGET = 40;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private LeadService leadService;
+
+    @Autowired
+    private PipelineStatusAdminService pipelineStatusAdminService;
+
+    @Autowired
+    private TenantRepository tenantRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TenantUserMembershipRepository membershipRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private TestDatabaseCleaner dbCleaner;
+
+    @NonNull
+    private UUID tenantId = Objects.requireNonNull(UUID.randomUUID());
+    @NonNull
+    private UUID userId = Objects.requireNonNull(UUID.randomUUID());
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        dbCleaner.reset();
+
+        Tenant tenant = new Tenant();
+        tenant.setName("Budget Roofing");
+        tenant.setSlug("budget-roofing");
+        tenant = tenantRepository.save(tenant);
+
+        User user = new User();
+        user.setEmail("budget-user@example.com");
+        user.setFullName("Budget User");
+        user.setPasswordHash("irrelevant-for-this-test");
+        user.setEnabled(true);
+        user = userRepository.save(user);
+
+        TenantUserMembership membership = new TenantUserMembership();
+        membership.setTenant(tenant);
+        membership.setUser(user);
+        membership.setRole(UserRole.OWNER);
+        membershipRepository.save(membership);
+
+        customer = new Customer();
+        customer.setTenant(tenant);
+        customer.setFirstName("Budget");
+        customer.setLastName("Customer");
+        customer = customerRepository.save(customer);
+
+        this.tenantId = Objects.requireNonNull(tenant.getId());
+        this.userId = Objects.requireNonNull(user.getId());
+
+        pipelineStatusAdminService.seedDefaultsForNewTenant(tenant);
+    }
+
+    @Test
+    void dashboardSummary_staysWithinBudget_regardlessOfLeadCount() {
+        createLeads(5);
+        SqlStatementStats few = SqlQueryBudget.measure(() -> dashboardService.getSummary(tenantId, userId));
+
+        createLeads(20);
+        DashboardSummaryDto summary = SqlQueryBudget.assertAtMost(DASHBOARD_STATEMENT_BUDGET, "Dashboard summary",
+                () -> dashboardService.getSummary(tenantId, userId));
+
+        assertEquals(25, summary.getLeadCount());
+        SqlStatementStats many = SqlQueryBudget.measure(() -> dashboardService.getSummary(tenantId, userId));
+        assertEquals(few.getStatements(), many.getStatements(),
+                "Dashboard statement count must not grow with the number of leads");
+        assertTrue(many.getRows() > 0);
+    }
+
+    private void createLeads(int count) {
+        for (int i = 0; i < count; i++) {
+            CreateLeadRequest request = new CreateLeadRequest();
+            request.setCustomerId(customer.getId());
+            request.setPropertyAddress(new AddressDto());
+            leadService.createLead(tenantId, userId, request);
+        }
+    }
+}
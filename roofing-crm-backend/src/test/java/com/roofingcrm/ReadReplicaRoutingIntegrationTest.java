@@ -0,0 +1,119 @@
+package com.roofingcrm;
+
+import com.roofingcrm.config.datasource.ReadReplicaProperties;
+import com.roofingcrm.config.datasource.ReplicaLagMonitor;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs against two independent Postgres containers standing in for primary and replica. A tenant row that exists only
+ * on the "replica" shows which pool served each transaction.
+ */
+class ReadReplicaRoutingIntegrationTest extends AbstractIntegrationTest {
+
+    private static final String MARKER_SLUG = "replica-only-marker";
+    private static final String COUNT_MARKER = "SELECT count(*) FROM tenants WHERE slug = ?";
+
+    @SuppressWarnings("resource") // JDT false-positive: container is stopped in @AfterAll
+    static final PostgreSQLContainer<?> replica = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("replica")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private ReadReplicaProperties replicaProperties;
+
+    private int configuredMaxLag;
+
+    @BeforeAll
+    static void startReplica() {
+        replica.start();
+        Flyway.configure()
+                .dataSource(replica.getJdbcUrl(), replica.getUsername(), replica.getPassword())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+        new JdbcTemplate(new DriverManagerDataSource(
+                replica.getJdbcUrl(), replica.getUsername(), replica.getPassword()))
+                .update("INSERT INTO tenants (id, created_at, updated_at, name, slug) VALUES (?, now(), now(), ?, ?)",
+                        UUID.randomUUID(), "Replica Only", MARKER_SLUG);
+    }
+
+    @AfterAll
+    static void stopReplica() {
+        replica.close();
+    }
+
+    @DynamicPropertySource
+    static void configureReplica(DynamicPropertyRegistry registry) {
+        registry.add("app.datasource.replica.enabled", () -> "true");
+        registry.add("app.datasource.replica.url", replica::getJdbcUrl);
+        registry.add("app.datasource.replica.username", replica::getUsername);
+        registry.add("app.datasource.replica.password", replica::getPassword);
+    }
+
+    @BeforeEach
+    void setUp() {
+        configuredMaxLag = replicaProperties.getMaxLagSeconds();
+        replicaLagMonitor.refresh();
+    }
+
+    @AfterEach
+    void tearDown() {
+        replicaProperties.setMaxLagSeconds(configuredMaxLag);
+        replicaLagMonitor.refresh();
+    }
+
+    @Test
+    void readOnlyTransaction_isServedByReplica() {
+        assertTrue(replicaLagMonitor.isReplicaUsable());
+
+        assertEquals(1, countMarkerIn(true));
+    }
+
+    @Test
+    void readWriteTransaction_isServedByPrimary() {
+        assertEquals(0, countMarkerIn(false));
+    }
+
+    @Test
+    void readOnlyTransaction_fallsBackToPrimary_whenReplicaLagExceedsLimit() {
+        replicaProperties.setMaxLagSeconds(-1);
+        replicaLagMonitor.refresh();
+
+        assertEquals(0, countMarkerIn(true));
+    }
+
+    private int countMarkerIn(boolean readOnly) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(readOnly);
+        Integer count = tx.execute(status -> jdbcTemplate.queryForObject(COUNT_MARKER, Integer.class, MARKER_SLUG));
+        return count != null ? count : -1;
+    }
+}
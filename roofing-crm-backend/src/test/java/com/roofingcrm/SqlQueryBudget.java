@@ -0,0 +1,41 @@
+package com.roofingcrm;
+
+import com.roofingcrm.observability.SqlStatementStats;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test helper: runs an action inside a {@link SqlStatementStats} scope against the instrumented DataSource and
+ * asserts how many JDBC executions it issued. Use from integration tests to pin the query budget of key endpoints.
+ */
+public final class SqlQueryBudget {
+
+    private SqlQueryBudget() {
+    }
+
+    /** Runs the action and returns the SQL work it did on this thread. */
+    public static SqlStatementStats measure(Runnable action) {
+        SqlStatementStats stats = SqlStatementStats.start();
+        try {
+            action.run();
+            return stats;
+        } finally {
+            SqlStatementStats.clear();
+        }
+    }
+
+    /** Runs the action, fails if it issued more than maxStatements JDBC executions, and returns its result. */
+    public static <T> T assertAtMost(int maxStatements, String description, Supplier<T> action) {
+        SqlStatementStats stats = SqlStatementStats.start();
+        try {
+            T result = action.get();
+            assertTrue(stats.getStatements() <= maxStatements,
+                    description + " issued " + stats.getStatements() + " SQL statements; budget is " + maxStatements);
+            return result;
+        } finally {
+            SqlStatementStats.clear();
+        }
+    }
+}
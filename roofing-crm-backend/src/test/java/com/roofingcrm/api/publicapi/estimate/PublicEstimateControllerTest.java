@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.roofingcrm.domain.enums.EstimateStatus;
 import com.roofingcrm.service.estimate.PublicEstimateService;
 import com.roofingcrm.service.exception.EstimateLinkExpiredException;
+import com.roofingcrm.service.publicview.PublicView;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -14,6 +15,7 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.UUID;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
@@ -51,7 +53,7 @@ class PublicEstimateControllerTest {
         dto.setTotal(new BigDecimal("5000.00"));
         dto.setItems(List.of());
 
-        when(publicEstimateService.getByToken(eq(token))).thenReturn(dto);
+        when(publicEstimateService.getViewByToken(eq(token))).thenReturn(view(dto));
 
         mockMvc.perform(get("/api/public/estimates/{token}", token))
                 .andExpect(status().isOk())
@@ -64,13 +66,13 @@ class PublicEstimateControllerTest {
     @Test
     void getByToken_returns410WhenExpired() throws Exception {
         String token = "expiredtoken";
-        when(publicEstimateService.getByToken(eq(token)))
+        when(publicEstimateService.getViewByToken(eq(token)))
                 .thenThrow(new EstimateLinkExpiredException("Link expired"));
 
         mockMvc.perform(get("/api/public/estimates/{token}", token))
                 .andExpect(status().isGone());
 
-        verify(publicEstimateService).getByToken(eq(token));
+        verify(publicEstimateService).getViewByToken(eq(token));
     }
 
     @Test
@@ -109,4 +111,8 @@ class PublicEstimateControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.status", is("ACCEPTED")));
     }
+
+    private static PublicView<PublicEstimateDto> view(PublicEstimateDto dto) {
+        return new PublicView<>(UUID.randomUUID(), "hash", dto, "0123456789abcdef", null);
+    }
 }
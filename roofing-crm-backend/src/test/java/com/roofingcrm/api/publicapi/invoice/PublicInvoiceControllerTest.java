@@ -2,6 +2,7 @@ package com.roofingcrm.api.publicapi.invoice;
 
 import com.roofingcrm.domain.enums.InvoiceStatus;
 import com.roofingcrm.service.exception.InvoiceLinkExpiredException;
+import com.roofingcrm.service.publicview.PublicView;
 import com.roofingcrm.service.invoice.PublicInvoiceService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,12 +13,15 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.UUID;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -43,7 +47,7 @@ class PublicInvoiceControllerTest {
         dto.setCompanyName("Acme Roofing Co");
         dto.setItems(List.of());
 
-        when(publicInvoiceService.getByToken(eq(token))).thenReturn(dto);
+        when(publicInvoiceService.getViewByToken(eq(token))).thenReturn(view(dto));
 
         mockMvc.perform(get("/api/public/invoices/{token}", token))
                 .andExpect(status().isOk())
@@ -53,15 +57,37 @@ class PublicInvoiceControllerTest {
                 .andExpect(jsonPath("$.companyName", is("Acme Roofing Co")));
     }
 
+    @Test
+    void getByToken_sendsETagAndPrivateNoCache_and304WhenUnchanged() throws Exception {
+        String token = "inv-token-etag";
+        PublicInvoiceDto dto = new PublicInvoiceDto();
+        dto.setInvoiceNumber("INV-2002");
+        dto.setItems(List.of());
+        when(publicInvoiceService.getViewByToken(eq(token))).thenReturn(view(dto));
+
+        mockMvc.perform(get("/api/public/invoices/{token}", token))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0123456789abcdef\""))
+                .andExpect(header().string("Cache-Control", "no-cache, private"));
+
+        mockMvc.perform(get("/api/public/invoices/{token}", token).header("If-None-Match", "\"0123456789abcdef\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
     @Test
     void getByToken_returns410WhenExpired() throws Exception {
         String token = "expired";
-        when(publicInvoiceService.getByToken(eq(token)))
+        when(publicInvoiceService.getViewByToken(eq(token)))
                 .thenThrow(new InvoiceLinkExpiredException("Link expired"));
 
         mockMvc.perform(get("/api/public/invoices/{token}", token))
                 .andExpect(status().isGone());
 
-        verify(publicInvoiceService).getByToken(eq(token));
+        verify(publicInvoiceService).getViewByToken(eq(token));
+    }
+
+    private static PublicView<PublicInvoiceDto> view(PublicInvoiceDto dto) {
+        return new PublicView<>(UUID.randomUUID(), "hash", dto, "0123456789abcdef", null);
     }
 }
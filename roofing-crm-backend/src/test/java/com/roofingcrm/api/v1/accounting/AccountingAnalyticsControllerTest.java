@@ -0,0 +1,132 @@
+package com.roofingcrm.api.v1.accounting;
+
+import com.roofingcrm.domain.enums.CostTrendInterval;
+import com.roofingcrm.domain.enums.MarginBasis;
+import com.roofingcrm.security.AuthenticatedUser;
+import com.roofingcrm.service.accounting.AccountingAnalyticsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = AccountingAnalyticsController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@SuppressWarnings("null")
+class AccountingAnalyticsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private AccountingAnalyticsService accountingAnalyticsService;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        AuthenticatedUser authUser = new AuthenticatedUser(userId, "test@example.com");
+        TestingAuthenticationToken authentication = new TestingAuthenticationToken(authUser, null);
+        authentication.setAuthenticated(true);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+
+    @Test
+    void getProfitabilityOverview_passesBasisAndLimit() throws Exception {
+        UUID tenantId = UUID.randomUUID();
+        ProfitabilityOverviewDto dto = new ProfitabilityOverviewDto();
+        dto.setBasis(MarginBasis.PROJECTED);
+        dto.setJobCount(3);
+        dto.setProjectedMarginPercent(new BigDecimal("37.50"));
+
+        when(accountingAnalyticsService.getProfitabilityOverview(tenantId, userId, MarginBasis.PROJECTED, 5))
+                .thenReturn(dto);
+
+        mockMvc.perform(get("/api/v1/accounting/analytics/profitability")
+                        .header("X-Tenant-Id", tenantId.toString())
+                        .param("basis", "PROJECTED")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.jobCount", is(3)))
+                .andExpect(jsonPath("$.projectedMarginPercent", is(37.50)));
+    }
+
+    @Test
+    void getProfitabilityOverview_invalidLimit_returnsBadRequest() throws Exception {
+        UUID tenantId = UUID.randomUUID();
+        when(accountingAnalyticsService.getProfitabilityOverview(eq(tenantId), eq(userId), any(), anyInt()))
+                .thenThrow(new IllegalArgumentException("limit must be between 1 and 50"));
+
+        mockMvc.perform(get("/api/v1/accounting/analytics/profitability")
+                        .header("X-Tenant-Id", tenantId.toString())
+                        .param("limit", "500"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getCostCategoryTrend_parsesDatesAndInterval() throws Exception {
+        UUID tenantId = UUID.randomUUID();
+        LocalDate from = LocalDate.parse("2026-01-01");
+        LocalDate to = LocalDate.parse("2026-01-31");
+        CostCategoryTrendDto dto = new CostCategoryTrendDto();
+        dto.setFrom(from);
+        dto.setTo(to);
+        dto.setInterval(CostTrendInterval.WEEK);
+        dto.setTotalCosts(new BigDecimal("1250.00"));
+
+        when(accountingAnalyticsService.getCostCategoryTrend(tenantId, userId, from, to, CostTrendInterval.WEEK))
+                .thenReturn(dto);
+
+        mockMvc.perform(get("/api/v1/accounting/analytics/cost-categories")
+                        .header("X-Tenant-Id", tenantId.toString())
+                        .param("from", "2026-01-01")
+                        .param("to", "2026-01-31")
+                        .param("interval", "WEEK"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.interval", is("WEEK")))
+                .andExpect(jsonPath("$.totalCosts", is(1250.00)));
+    }
+
+    @Test
+    void getReceivablesAging_returnsBuckets() throws Exception {
+        UUID tenantId = UUID.randomUUID();
+        ReceivablesAgingBucketDto bucket = new ReceivablesAgingBucketDto();
+        bucket.setLabel("1-30");
+        bucket.setMinDaysPastDue(1);
+        bucket.setMaxDaysPastDue(30);
+        bucket.setAmount(new BigDecimal("900.00"));
+        bucket.setInvoiceCount(2);
+        ReceivablesAgingDto dto = new ReceivablesAgingDto();
+        dto.setTotalOpen(new BigDecimal("900.00"));
+        dto.setOpenInvoiceCount(2);
+        dto.setBuckets(List.of(bucket));
+
+        when(accountingAnalyticsService.getReceivablesAging(tenantId, userId)).thenReturn(dto);
+
+        mockMvc.perform(get("/api/v1/accounting/analytics/receivables-aging")
+                        .header("X-Tenant-Id", tenantId.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.openInvoiceCount", is(2)))
+                .andExpect(jsonPath("$.buckets[0].label", is("1-30")))
+                .andExpect(jsonPath("$.buckets[0].invoiceCount", is(2)));
+    }
+}
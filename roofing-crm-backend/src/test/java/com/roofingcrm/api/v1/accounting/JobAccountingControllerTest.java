@@ -2,18 +2,23 @@ package com.roofingcrm.api.v1.accounting;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.roofingcrm.domain.enums.JobCostCategory;
+import com.roofingcrm.domain.enums.MarginBasis;
 import com.roofingcrm.domain.enums.ReceiptAmountConfidence;
 import com.roofingcrm.domain.enums.ReceiptFieldConfidence;
 import com.roofingcrm.domain.enums.ReceiptExtractionStatus;
+import com.roofingcrm.domain.enums.ReceiptImportItemStatus;
 import com.roofingcrm.security.AuthenticatedUser;
 import com.roofingcrm.service.accounting.JobAccountingReceiptService;
 import com.roofingcrm.service.accounting.JobAccountingService;
+import com.roofingcrm.service.accounting.ReceiptImportService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.TestingAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -27,6 +32,7 @@ import java.util.UUID;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.verify;
@@ -54,6 +60,8 @@ class JobAccountingControllerTest {
     private JobAccountingService jobAccountingService;
     @MockBean
     private JobAccountingReceiptService jobAccountingReceiptService;
+    @MockBean
+    private ReceiptImportService receiptImportService;
 
     private UUID userId;
 
@@ -94,6 +102,30 @@ class JobAccountingControllerTest {
                 .andExpect(jsonPath("$.hasAcceptedEstimate", is(true)));
     }
 
+    @Test
+    void listJobProfitability_passesBasisAndPage() throws Exception {
+        UUID tenantId = UUID.randomUUID();
+
+        JobProfitabilityDto dto = new JobProfitabilityDto();
+        dto.setJobId(UUID.randomUUID());
+        dto.setProjectedMarginPercent(new BigDecimal("41.50"));
+
+        when(jobAccountingService.listJobProfitability(eq(tenantId), eq(userId), eq(MarginBasis.PROJECTED), any()))
+                .thenReturn(new PageImpl<>(List.of(dto), PageRequest.of(2, 10), 21));
+
+        mockMvc.perform(get("/api/v1/accounting/job-profitability")
+                        .header("X-Tenant-Id", tenantId.toString())
+                        .param("basis", "PROJECTED")
+                        .param("page", "2")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].projectedMarginPercent", is(41.50)))
+                .andExpect(jsonPath("$.totalElements", is(21)));
+
+        verify(jobAccountingService).listJobProfitability(eq(tenantId), eq(userId), eq(MarginBasis.PROJECTED),
+                argThat(pageable -> pageable.getPageNumber() == 2 && pageable.getPageSize() == 10));
+    }
+
     @Test
     void listJobCostEntries_returnsList() throws Exception {
         UUID tenantId = UUID.randomUUID();
@@ -233,6 +265,59 @@ class JobAccountingControllerTest {
                 .andExpect(jsonPath("$.fileName", is("receipt.pdf")));
     }
 
+    @Test
+    void importReceipts_acceptsMultipleFilesAndReturnsBatch() throws Exception {
+        UUID tenantId = UUID.randomUUID();
+        UUID jobId = UUID.randomUUID();
+
+        ReceiptImportItemDto item = new ReceiptImportItemDto();
+        item.setFileName("a.pdf");
+        item.setStatus(ReceiptImportItemStatus.STORED);
+        item.setExtractionStatus(ReceiptExtractionStatus.NOT_STARTED);
+        ReceiptImportBatchDto dto = new ReceiptImportBatchDto();
+        dto.setId(UUID.randomUUID());
+        dto.setJobId(jobId);
+        dto.setFileCount(2);
+        dto.setStoredCount(1);
+        dto.setDuplicateCount(1);
+        dto.setExtractionPendingCount(1);
+        dto.setItems(List.of(item));
+
+        when(receiptImportService.importReceipts(eq(tenantId), eq(userId), eq(jobId), any(), eq(true))).thenReturn(dto);
+
+        mockMvc.perform(multipart("/api/v1/jobs/{jobId}/receipts/batches", jobId)
+                        .file("files", "pdf-a".getBytes())
+                        .file("files", "pdf-a".getBytes())
+                        .header("X-Tenant-Id", tenantId.toString()))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.storedCount", is(1)))
+                .andExpect(jsonPath("$.duplicateCount", is(1)))
+                .andExpect(jsonPath("$.items[0].status", is("STORED")));
+
+        verify(receiptImportService).importReceipts(eq(tenantId), eq(userId), eq(jobId),
+                argThat(files -> files.size() == 2), eq(true));
+    }
+
+    @Test
+    void getReceiptImport_returnsBatchStatus() throws Exception {
+        UUID tenantId = UUID.randomUUID();
+        UUID jobId = UUID.randomUUID();
+        UUID batchId = UUID.randomUUID();
+
+        ReceiptImportBatchDto dto = new ReceiptImportBatchDto();
+        dto.setId(batchId);
+        dto.setExtractionCompletedCount(3);
+        dto.setComplete(true);
+
+        when(receiptImportService.getImportBatch(tenantId, userId, jobId, batchId)).thenReturn(dto);
+
+        mockMvc.perform(get("/api/v1/jobs/{jobId}/receipts/batches/{batchId}", jobId, batchId)
+                        .header("X-Tenant-Id", tenantId.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.extractionCompletedCount", is(3)))
+                .andExpect(jsonPath("$.complete", is(true)));
+    }
+
     @Test
     void createCostFromReceipt_returnsCreated() throws Exception {
         UUID tenantId = UUID.randomUUID();
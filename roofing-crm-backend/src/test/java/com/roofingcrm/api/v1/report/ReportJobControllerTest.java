@@ -0,0 +1,127 @@
+package com.roofingcrm.api.v1.report;
+
+import com.roofingcrm.domain.enums.ReportJobStatus;
+import com.roofingcrm.domain.enums.ReportType;
+import com.roofingcrm.security.AuthenticatedUser;
+import com.roofingcrm.service.exception.ReportJobExpiredException;
+import com.roofingcrm.service.exception.ReportJobNotReadyException;
+import com.roofingcrm.service.report.ReportJobService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = ReportJobController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@SuppressWarnings("null")
+class ReportJobControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReportJobService reportJobService;
+
+    private UUID userId;
+    private UUID tenantId;
+    private UUID jobId;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        tenantId = UUID.randomUUID();
+        jobId = UUID.randomUUID();
+        AuthenticatedUser authUser = new AuthenticatedUser(userId, "test@example.com");
+        TestingAuthenticationToken authentication = new TestingAuthenticationToken(authUser, null);
+        authentication.setAuthenticated(true);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+
+    @Test
+    void requestReport_returns202_withQueuedJob() throws Exception {
+        ReportJobDto dto = new ReportJobDto();
+        dto.setId(jobId);
+        dto.setType(ReportType.PAID_INVOICES_PDF);
+        dto.setStatus(ReportJobStatus.QUEUED);
+        when(reportJobService.requestReport(eq(tenantId), eq(userId),
+                argThat(r -> r.getType() == ReportType.PAID_INVOICES_PDF && r.getYear() == 2025)))
+                .thenReturn(dto);
+
+        mockMvc.perform(post("/api/v1/reports/jobs")
+                        .header("X-Tenant-Id", tenantId.toString())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"type\":\"PAID_INVOICES_PDF\",\"year\":2025}"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").value(jobId.toString()))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+    }
+
+    @Test
+    void requestReport_withoutType_returns400() throws Exception {
+        mockMvc.perform(post("/api/v1/reports/jobs")
+                        .header("X-Tenant-Id", tenantId.toString())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"year\":2025}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(reportJobService);
+    }
+
+    @Test
+    void download_returnsStoredFileAsAttachment() throws Exception {
+        byte[] body = "%PDF-1.4".getBytes();
+        when(reportJobService.openReportJobFile(tenantId, userId, jobId)).thenReturn(new ReportJobService.ReportJobFile(
+                new ByteArrayInputStream(body), body.length, "paid-invoices-2025.pdf", "application/pdf"));
+
+        mockMvc.perform(get("/api/v1/reports/jobs/{jobId}/download", jobId)
+                        .header("X-Tenant-Id", tenantId.toString()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", startsWith("application/pdf")))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"paid-invoices-2025.pdf\""))
+                .andExpect(header().longValue("Content-Length", body.length))
+                .andExpect(content().bytes(body));
+    }
+
+    @Test
+    void download_whenNotReady_returns409() throws Exception {
+        when(reportJobService.openReportJobFile(any(), any(), any()))
+                .thenThrow(new ReportJobNotReadyException("Report is still being generated."));
+
+        mockMvc.perform(get("/api/v1/reports/jobs/{jobId}/download", jobId)
+                        .header("X-Tenant-Id", tenantId.toString()))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Report is still being generated."));
+    }
+
+    @Test
+    void download_whenExpired_returns410() throws Exception {
+        when(reportJobService.openReportJobFile(any(), any(), any()))
+                .thenThrow(new ReportJobExpiredException("Report file has expired. Request the report again."));
+
+        mockMvc.perform(get("/api/v1/reports/jobs/{jobId}/download", jobId)
+                        .header("X-Tenant-Id", tenantId.toString()))
+                .andExpect(status().isGone());
+    }
+}
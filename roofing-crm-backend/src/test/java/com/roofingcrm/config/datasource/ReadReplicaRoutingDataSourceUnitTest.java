@@ -0,0 +1,68 @@
+package com.roofingcrm.config.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings("null")
+class ReadReplicaRoutingDataSourceUnitTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica;
+
+    @Mock
+    private ReplicaLagMonitor lagMonitor;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReadReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        routing = new ReadReplicaRoutingDataSource(primary, replica, lagMonitor, meterRegistry);
+        routing.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void readWrite_routesToPrimary() {
+        assertEquals(ReadReplicaRoutingDataSource.Target.PRIMARY, routing.determineCurrentLookupKey());
+        assertEquals(1.0, meterRegistry.get("db.routing.connections").tag("mode", "read-write").counter().count());
+    }
+
+    @Test
+    void readOnly_routesToReplica_whenUsable() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(lagMonitor.isReplicaUsable()).thenReturn(true);
+
+        assertEquals(ReadReplicaRoutingDataSource.Target.REPLICA, routing.determineCurrentLookupKey());
+        assertEquals(1.0, meterRegistry.get("db.routing.connections").tag("target", "replica").counter().count());
+    }
+
+    @Test
+    void readOnly_fallsBackToPrimary_whenReplicaLagging() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(lagMonitor.isReplicaUsable()).thenReturn(false);
+
+        assertEquals(ReadReplicaRoutingDataSource.Target.PRIMARY, routing.determineCurrentLookupKey());
+        assertEquals(1.0, meterRegistry.get("db.routing.replica.fallbacks").counter().count());
+    }
+}
@@ -0,0 +1,74 @@
+package com.roofingcrm.config.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcOperations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings("null")
+class ReplicaLagMonitorUnitTest {
+
+    @Mock
+    private JdbcOperations replicaJdbc;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReplicaLagMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        ReadReplicaProperties properties = new ReadReplicaProperties();
+        properties.setMaxLagSeconds(10);
+        meterRegistry = new SimpleMeterRegistry();
+        monitor = new ReplicaLagMonitor(replicaJdbc, properties, meterRegistry);
+    }
+
+    @Test
+    void unusableUntilFirstCheck() {
+        assertFalse(monitor.isReplicaUsable());
+    }
+
+    @Test
+    void lagWithinLimit_marksReplicaUsable() {
+        when(replicaJdbc.queryForObject(eq(ReplicaLagMonitor.LAG_QUERY), eq(Double.class))).thenReturn(2.5);
+
+        monitor.refresh();
+
+        assertTrue(monitor.isReplicaUsable());
+        assertEquals(2.5, meterRegistry.get("db.replica.lag").gauge().value());
+        assertEquals(1.0, meterRegistry.get("db.replica.usable").gauge().value());
+    }
+
+    @Test
+    void lagOverLimit_marksReplicaUnusable() {
+        when(replicaJdbc.queryForObject(eq(ReplicaLagMonitor.LAG_QUERY), eq(Double.class))).thenReturn(2.0, 30.0);
+
+        monitor.refresh();
+        monitor.refresh();
+
+        assertFalse(monitor.isReplicaUsable());
+    }
+
+    @Test
+    void unreachableReplica_marksReplicaUnusable() {
+        when(replicaJdbc.queryForObject(eq(ReplicaLagMonitor.LAG_QUERY), eq(Double.class)))
+                .thenReturn(0.0)
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+
+        monitor.refresh();
+        monitor.refresh();
+
+        assertFalse(monitor.isReplicaUsable());
+        assertTrue(Double.isNaN(meterRegistry.get("db.replica.lag").gauge().value()));
+    }
+}
@@ -0,0 +1,62 @@
+package com.roofingcrm.config.multipart;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockPart;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EndpointMultipartResolverTest {
+
+    private final EndpointMultipartResolver resolver = new EndpointMultipartResolver(
+            DataSize.ofBytes(10), DataSize.ofBytes(15), MultipartConfig.BULK_RECEIPT_IMPORT_PATTERN);
+
+    @Test
+    void oversizedPart_onOtherEndpoint_isRejected() {
+        MockHttpServletRequest request = upload("/api/v1/jobs/42/attachments", new byte[11]);
+
+        MaxUploadSizeExceededException ex = assertThrows(MaxUploadSizeExceededException.class,
+                () -> resolver.resolveMultipart(request));
+        assertEquals(10, ex.getMaxUploadSize());
+    }
+
+    @Test
+    void oversizedRequest_onOtherEndpoint_isRejectedFromContentLength() {
+        MockHttpServletRequest request = upload("/api/v1/jobs/42/attachments", new byte[5]);
+        request.setContent(new byte[16]);
+
+        MaxUploadSizeExceededException ex = assertThrows(MaxUploadSizeExceededException.class,
+                () -> resolver.resolveMultipart(request));
+        assertEquals(15, ex.getMaxUploadSize());
+    }
+
+    @Test
+    void bulkReceiptImport_isHeldOnlyToContainerLimits() {
+        MockHttpServletRequest request = upload("/api/v1/jobs/42/receipts/batches", new byte[11]);
+        request.addPart(new MockPart("files", "b.pdf", new byte[11]));
+
+        MultipartHttpServletRequest resolved = resolver.resolveMultipart(request);
+
+        assertEquals(2, resolved.getMultiFileMap().get("files").size());
+    }
+
+    @Test
+    void bulkReceiptImportPath_withOtherMethod_isNotExempt() {
+        MockHttpServletRequest request = upload("/api/v1/jobs/42/receipts/batches", new byte[11]);
+        request.setMethod("PUT");
+
+        assertThrows(MaxUploadSizeExceededException.class, () -> resolver.resolveMultipart(request));
+    }
+
+    private static MockHttpServletRequest upload(String uri, byte[] content) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setContentType(MediaType.MULTIPART_FORM_DATA_VALUE);
+        request.addPart(new MockPart("files", "a.pdf", content));
+        return request;
+    }
+}
@@ -0,0 +1,115 @@
+package com.roofingcrm.config.threads;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestConcurrencyLimitFilterTest {
+
+    @Test
+    void requestsWithinLimit_passThrough() throws Exception {
+        RequestConcurrencyLimitFilter filter = filter(2, 0);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        int[] calls = new int[1];
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/leads"), response, (req, res) -> calls[0]++);
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/leads"), response, (req, res) -> calls[0]++);
+
+        assertEquals(2, calls[0]);
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    void requestOverLimit_waitsThenGets503WithRetryAfter() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RequestConcurrencyLimitFilter filter = filter(1, 50, meterRegistry);
+        CountDownLatch inFlight = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = Thread.ofVirtual().start(() -> {
+            try {
+                filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/jobs"), new MockHttpServletResponse(),
+                        (req, res) -> {
+                            inFlight.countDown();
+                            awaitQuietly(release);
+                        });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(inFlight.await(5, TimeUnit.SECONDS));
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        FilterChain mustNotRun = (req, res) -> {
+            throw new AssertionError("request over the limit must not reach the chain");
+        };
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/jobs"), rejected, mustNotRun);
+
+        assertEquals(503, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains(RequestConcurrencyLimitFilter.OVERLOADED_MESSAGE));
+        assertEquals(1.0, meterRegistry.get("http.server.requests.admission.rejected").counter().count());
+
+        release.countDown();
+        holder.join(5_000);
+        MockHttpServletResponse afterRelease = new MockHttpServletResponse();
+        int[] calls = new int[1];
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/jobs"), afterRelease, (req, res) -> calls[0]++);
+        assertEquals(1, calls[0]);
+    }
+
+    @Test
+    void failingRequest_releasesPermit() throws Exception {
+        RequestConcurrencyLimitFilter filter = filter(1, 0);
+        try {
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/tasks"), new MockHttpServletResponse(),
+                    (req, res) -> {
+                        throw new IllegalStateException("boom");
+                    });
+        } catch (IllegalStateException expected) {
+            // permit must still be returned
+        }
+        int[] calls = new int[1];
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/tasks"), new MockHttpServletResponse(),
+                (req, res) -> calls[0]++);
+        assertEquals(1, calls[0]);
+    }
+
+    @Test
+    void defaultLimit_isDerivedFromConnectionPoolSize() {
+        VirtualThreadProperties properties = new VirtualThreadProperties();
+
+        assertEquals(20, properties.resolveMaxConcurrentRequests(10));
+        properties.setRequestsPerConnection(3);
+        assertEquals(15, properties.resolveMaxConcurrentRequests(5));
+        properties.setMaxConcurrentRequests(7);
+        assertEquals(7, properties.resolveMaxConcurrentRequests(5));
+    }
+
+    private static RequestConcurrencyLimitFilter filter(int maxConcurrent, long timeoutMillis) {
+        return filter(maxConcurrent, timeoutMillis, new SimpleMeterRegistry());
+    }
+
+    private static RequestConcurrencyLimitFilter filter(int maxConcurrent, long timeoutMillis,
+                                                        SimpleMeterRegistry meterRegistry) {
+        VirtualThreadProperties properties = new VirtualThreadProperties();
+        properties.setMaxConcurrentRequests(maxConcurrent);
+        properties.setAcquireTimeoutMillis(timeoutMillis);
+        return new RequestConcurrencyLimitFilter(properties, 10, meterRegistry);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.roofingcrm.config.threads;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class VirtualThreadPinningMonitorTest {
+
+    @Test
+    void site_isInnermostApplicationFrame() {
+        assertEquals("com.roofingcrm.security.ratelimit.MinuteWindowRateLimiter.tryAcquire",
+                VirtualThreadPinningMonitor.site(List.of(
+                        "java.lang.Thread.sleep",
+                        "com.roofingcrm.security.ratelimit.MinuteWindowRateLimiter.tryAcquire",
+                        "com.roofingcrm.security.ratelimit.HighRiskEndpointRateLimitFilter.doFilterInternal")));
+    }
+
+    @Test
+    void site_fallsBackToInnermostFrameOutsideApplicationCode() {
+        assertEquals("org.postgresql.core.v3.QueryExecutorImpl.execute",
+                VirtualThreadPinningMonitor.site(List.of(
+                        "org.postgresql.core.v3.QueryExecutorImpl.execute",
+                        "org.postgresql.jdbc.PgStatement.executeInternal")));
+        assertEquals("unknown", VirtualThreadPinningMonitor.site(List.of()));
+    }
+
+    @Test
+    void onPinned_recordsDurationPerSite() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(20));
+        List<String> frames = List.of("java.lang.Object.wait", "com.roofingcrm.service.Example.call");
+
+        monitor.onPinned(Duration.ofMillis(30), frames);
+        monitor.onPinned(Duration.ofMillis(45), frames);
+
+        Timer pinned = meterRegistry.get("jvm.threads.virtual.pinned")
+                .tag("site", "com.roofingcrm.service.Example.call")
+                .timer();
+        assertEquals(2, pinned.count());
+        assertEquals(75.0, pinned.totalTime(TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,148 @@
+package com.roofingcrm.config.threads;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request throughput under a mixed blocking load, platform worker pool vs virtual threads. Each simulated request
+ * holds one of {@value #POOL_SIZE} "Hikari connections" for a few JDBC round trips, sometimes waits on an external
+ * HTTP call (OpenAI receipt extraction, Resend) outside the connection, reads a file and does a little CPU work.
+ * <ul>
+ *   <li>{@code platform}: 200 platform workers, Tomcat's default {@code threads.max}.</li>
+ *   <li>{@code virtual}: a virtual thread per request, unbounded.</li>
+ *   <li>{@code virtual-guarded}: virtual threads behind the 200-permit admission semaphore of
+ *       {@link RequestConcurrencyLimitFilter}.</li>
+ * </ul>
+ * With slow external calls, platform workers are exhausted waiting on HTTP while connections sit idle; virtual threads
+ * keep the pool busy. Blocking sleeps stand in for I/O, so results reflect scheduling, not real drivers.
+ * <p>
+ * Run: {@code mvn -q test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.roofingcrm.config.threads.VirtualThreadThroughputBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class VirtualThreadThroughputBenchmark {
+
+    private static final int REQUESTS = 2_000;
+    private static final int POOL_SIZE = 10;
+    private static final int PLATFORM_WORKERS = 200;
+    private static final int JDBC_ROUND_TRIP_MICROS = 500;
+    private static final int JDBC_ROUND_TRIPS = 3;
+    private static final int FILE_READ_MICROS = 300;
+    private static final double EXTERNAL_CALL_SHARE = 0.3;
+
+    @Param({"platform", "virtual", "virtual-guarded"})
+    public String mode;
+
+    /** Latency of the external HTTP call made by a share of requests. */
+    @Param({"50", "250"})
+    public int externalCallMillis;
+
+    private ExecutorService executor;
+    private Semaphore connections;
+    private Semaphore admission;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = "platform".equals(mode)
+                ? Executors.newFixedThreadPool(PLATFORM_WORKERS)
+                : Executors.newVirtualThreadPerTaskExecutor();
+        connections = new Semaphore(POOL_SIZE, true);
+        admission = "virtual-guarded".equals(mode) ? new Semaphore(PLATFORM_WORKERS, true) : null;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public void mixedIoRequests(Blackhole blackhole) {
+        CompletableFuture<?>[] requests = new CompletableFuture<?>[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            requests[i] = CompletableFuture.runAsync(() -> blackhole.consume(admitted()), executor);
+        }
+        CompletableFuture.allOf(requests).join();
+    }
+
+    private byte[] admitted() {
+        if (admission == null) {
+            return handle();
+        }
+        admission.acquireUninterruptibly();
+        try {
+            return handle();
+        } finally {
+            admission.release();
+        }
+    }
+
+    private byte[] handle() {
+        connections.acquireUninterruptibly();
+        try {
+            for (int i = 0; i < JDBC_ROUND_TRIPS; i++) {
+                sleepMicros(JDBC_ROUND_TRIP_MICROS);
+            }
+        } finally {
+            connections.release();
+        }
+        if (ThreadLocalRandom.current().nextDouble() < EXTERNAL_CALL_SHARE) {
+            sleepMicros(externalCallMillis * 1_000L);
+        }
+        sleepMicros(FILE_READ_MICROS);
+        return cpuWork();
+    }
+
+    private static byte[] cpuWork() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[4096];
+            ThreadLocalRandom.current().nextBytes(buffer);
+            return digest.digest(buffer);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void sleepMicros(long micros) {
+        try {
+            TimeUnit.MICROSECONDS.sleep(micros);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(VirtualThreadThroughputBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,112 @@
+package com.roofingcrm.observability;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlRequestMetricsFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SqlInstrumentationProperties properties;
+    private SqlRequestMetricsFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new SqlInstrumentationProperties();
+        properties.setStatementBudget(3);
+        filter = new SqlRequestMetricsFilter(meterRegistry, properties);
+    }
+
+    @Test
+    void recordsStatementsRowsAndTime_taggedWithRouteTemplate() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/leads/123");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, executing(2, 5, "/api/v1/leads/{leadId}"));
+
+        DistributionSummary statements = meterRegistry.get(SqlRequestMetricsFilter.STATEMENTS_METRIC)
+                .tag("uri", "/api/v1/leads/{leadId}")
+                .tag("method", "GET")
+                .summary();
+        assertEquals(1, statements.count());
+        assertEquals(2.0, statements.totalAmount());
+        assertEquals(10.0, meterRegistry.get(SqlRequestMetricsFilter.ROWS_METRIC).summary().totalAmount());
+        Timer time = meterRegistry.get(SqlRequestMetricsFilter.TIME_METRIC).timer();
+        assertEquals(2.0, time.totalTime(TimeUnit.MILLISECONDS));
+        assertNull(response.getHeader(SqlRequestMetricsFilter.BUDGET_HEADER));
+        assertNull(SqlStatementStats.current(), "scope must be cleared after the request");
+    }
+
+    @Test
+    void overBudget_setsHeaderBeforeBodyIsCommitted() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/dashboard/summary");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> {
+            executing(4, 1, "/api/v1/dashboard/summary").doFilter(req, res);
+            res.getOutputStream().write("{}".getBytes(StandardCharsets.UTF_8));
+            res.flushBuffer();
+        });
+
+        assertTrue(response.isCommitted());
+        assertEquals("statements=4; budget=3", response.getHeader(SqlRequestMetricsFilter.BUDGET_HEADER));
+    }
+
+    @Test
+    void overBudget_withoutBody_stillSetsHeader() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("DELETE", "/api/v1/tasks/1"), response,
+                executing(5, 0, "/api/v1/tasks/{taskId}"));
+
+        assertNotNull(response.getHeader(SqlRequestMetricsFilter.BUDGET_HEADER));
+    }
+
+    @Test
+    void unmatchedRoute_isTaggedUnknown() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/nothing"), new MockHttpServletResponse(),
+                executing(0, 0, null));
+
+        assertNotNull(meterRegistry.find(SqlRequestMetricsFilter.STATEMENTS_METRIC).tag("uri", "UNKNOWN").summary());
+    }
+
+    @Test
+    void routeBudget_appliedOnceHandlerIsResolved() throws Exception {
+        properties.getRouteBudgets().put("GET /api/v1/dashboard/summary", 10);
+        SqlStatementBudgetInterceptor interceptor = new SqlStatementBudgetInterceptor(properties);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/dashboard/summary"), response, (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/dashboard/summary");
+            interceptor.preHandle((MockHttpServletRequest) req, response, new Object());
+            executing(5, 0, "/api/v1/dashboard/summary").doFilter(req, res);
+        });
+
+        assertNull(response.getHeader(SqlRequestMetricsFilter.BUDGET_HEADER));
+    }
+
+    private static FilterChain executing(int statements, int rowsEach, String routeTemplate) {
+        return (req, res) -> {
+            if (routeTemplate != null) {
+                req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, routeTemplate);
+            }
+            SqlStatementStats stats = SqlStatementStats.current();
+            assertNotNull(stats);
+            for (int i = 0; i < statements; i++) {
+                stats.recordExecution(TimeUnit.MILLISECONDS.toNanos(1), rowsEach);
+            }
+        };
+    }
+}
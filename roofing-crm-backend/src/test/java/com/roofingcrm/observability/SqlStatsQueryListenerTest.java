@@ -0,0 +1,86 @@
+package com.roofingcrm.observability;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SqlStatsQueryListenerTest {
+
+    private final SqlStatsQueryListener listener = new SqlStatsQueryListener();
+
+    @AfterEach
+    void tearDown() {
+        SqlStatementStats.clear();
+    }
+
+    @Test
+    void batchCountsAsOneExecution_withAllAffectedRows() {
+        SqlStatementStats stats = SqlStatementStats.start();
+        ExecutionInfo batch = new ExecutionInfo();
+        batch.setBatch(true);
+        batch.setBatchSize(3);
+        batch.setResult(new int[]{1, 1, 1});
+
+        listener.beforeQuery(batch, List.of());
+        listener.afterQuery(batch, List.of());
+
+        assertEquals(1, stats.getStatements());
+        assertEquals(3, stats.getRows());
+    }
+
+    @Test
+    void rewrittenBatch_countsOneRowPerStatement() {
+        SqlStatementStats stats = SqlStatementStats.start();
+        ExecutionInfo batch = new ExecutionInfo();
+        batch.setBatch(true);
+        batch.setResult(new int[]{Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO});
+
+        listener.beforeQuery(batch, List.of());
+        listener.afterQuery(batch, List.of());
+
+        assertEquals(2, stats.getRows());
+    }
+
+    @Test
+    void dbTime_hasSubMillisecondResolution() {
+        SqlStatementStats stats = SqlStatementStats.start();
+        ExecutionInfo query = new ExecutionInfo();
+        query.setElapsedTime(0);
+
+        listener.beforeQuery(query, List.of());
+        listener.afterQuery(query, List.of());
+
+        assertTrue(stats.getDbNanos() > 0);
+    }
+
+    @Test
+    void enforcedBudget_failsTheStatementThatWouldExceedIt() {
+        SqlStatementStats stats = SqlStatementStats.start();
+        stats.setBudget(1, true);
+        ExecutionInfo first = new ExecutionInfo();
+        listener.beforeQuery(first, List.of());
+        listener.afterQuery(first, List.of());
+
+        assertThrows(SqlStatementBudgetExceededException.class,
+                () -> listener.beforeQuery(new ExecutionInfo(), List.of()));
+        assertEquals(1, stats.getStatements());
+    }
+
+    @Test
+    void withoutActiveScope_recordsNothing() {
+        ExecutionInfo update = new ExecutionInfo();
+        update.setResult(1);
+
+        listener.afterQuery(update, List.of());
+
+        SqlStatementStats stats = SqlStatementStats.start();
+        assertEquals(0, stats.getStatements());
+    }
+}
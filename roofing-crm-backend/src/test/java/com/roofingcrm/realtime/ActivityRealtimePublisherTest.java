@@ -0,0 +1,166 @@
+package com.roofingcrm.realtime;
+
+import com.roofingcrm.domain.enums.ActivityEntityType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings("null")
+class ActivityRealtimePublisherTest {
+
+    private static final UUID TENANT_ID = UUID.randomUUID();
+    private static final UUID LEAD_ID = UUID.randomUUID();
+    private static final String LEAD_TOPIC = "/topic/tenants/" + TENANT_ID + "/activity/LEAD/" + LEAD_ID;
+
+    @Mock
+    private RealtimeBroadcaster broadcaster;
+
+    @Mock
+    private TaskScheduler scheduler;
+
+    private final AtomicLong clock = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+    private RealtimeProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new RealtimeProperties();
+        properties.setCoalesceWindowMillis(150);
+        properties.setCoalesceMaxEvents(3);
+    }
+
+    @Test
+    void eventsWithinWindow_sentAsOneMessageListingEveryId() {
+        ActivityRealtimePublisher publisher = publisher();
+        UUID statusChanged = UUID.randomUUID();
+        UUID converted = UUID.randomUUID();
+
+        publisher.publish(TENANT_ID, ActivityEntityType.LEAD, LEAD_ID, statusChanged);
+        publisher.publish(TENANT_ID, ActivityEntityType.LEAD, LEAD_ID, converted);
+        verify(broadcaster, never()).broadcast(anyString(), any());
+
+        clock.set(TimeUnit.MILLISECONDS.toNanos(150));
+        runScheduledFlush(1);
+
+        ActivityEventCreatedMessage message = sentTo(LEAD_TOPIC);
+        assertEquals(List.of(statusChanged, converted), message.activityEventIds());
+        assertEquals(converted, message.activityEventId());
+        assertEquals(ActivityEntityType.LEAD, message.entityType());
+        assertEquals(1.0, meterRegistry.get("realtime.activity.coalesced").counter().count());
+        assertEquals(1.0, meterRegistry.get("realtime.activity.messages").counter().count());
+        assertEquals(150.0, meterRegistry.get("realtime.activity.send.latency").timer()
+                .totalTime(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void differentEntities_areNotCoalesced() {
+        ActivityRealtimePublisher publisher = publisher();
+        UUID jobId = UUID.randomUUID();
+
+        publisher.publish(TENANT_ID, ActivityEntityType.LEAD, LEAD_ID, UUID.randomUUID());
+        publisher.publish(TENANT_ID, ActivityEntityType.JOB, jobId, UUID.randomUUID());
+        runScheduledFlush(2);
+
+        verify(broadcaster).broadcast(eq(LEAD_TOPIC), any());
+        verify(broadcaster).broadcast(eq("/topic/tenants/" + TENANT_ID + "/activity/JOB/" + jobId), any());
+        assertEquals(0.0, meterRegistry.get("realtime.activity.coalesced").counter().count());
+    }
+
+    @Test
+    void reachingMaxEvents_sendsBeforeWindowCloses() {
+        ActivityRealtimePublisher publisher = publisher();
+
+        for (int i = 0; i < 3; i++) {
+            publisher.publish(TENANT_ID, ActivityEntityType.LEAD, LEAD_ID, UUID.randomUUID());
+        }
+
+        assertEquals(3, sentTo(LEAD_TOPIC).activityEventIds().size());
+        runScheduledFlush(1);
+        verify(broadcaster, times(1)).broadcast(anyString(), any());
+    }
+
+    @Test
+    void earlyFlush_cancelsItsTimer_andStaleTimerLeavesNextWindowOpen() {
+        ScheduledFuture<?> firstTimer = mock(ScheduledFuture.class);
+        doReturn(firstTimer).doReturn(null).when(scheduler).schedule(any(Runnable.class), any(Instant.class));
+        ActivityRealtimePublisher publisher = publisher();
+
+        for (int i = 0; i < 3; i++) {
+            publisher.publish(TENANT_ID, ActivityEntityType.LEAD, LEAD_ID, UUID.randomUUID());
+        }
+        verify(firstTimer).cancel(false);
+
+        publisher.publish(TENANT_ID, ActivityEntityType.LEAD, LEAD_ID, UUID.randomUUID());
+        ArgumentCaptor<Runnable> timers = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler, times(2)).schedule(timers.capture(), any(Instant.class));
+        timers.getAllValues().get(0).run();
+        verify(broadcaster, times(1)).broadcast(anyString(), any());
+
+        timers.getAllValues().get(1).run();
+        verify(broadcaster, times(2)).broadcast(anyString(), any());
+    }
+
+    @Test
+    void zeroWindow_sendsEachEventImmediately() {
+        properties.setCoalesceWindowMillis(0);
+        ActivityRealtimePublisher publisher = publisher();
+        UUID eventId = UUID.randomUUID();
+
+        publisher.publish(TENANT_ID, ActivityEntityType.LEAD, LEAD_ID, eventId);
+
+        ActivityEventCreatedMessage message = sentTo(LEAD_TOPIC);
+        assertEquals(eventId, message.activityEventId());
+        assertEquals(List.of(eventId), message.activityEventIds());
+        verify(scheduler, never()).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @Test
+    void shutdown_flushesPendingMessages() {
+        ActivityRealtimePublisher publisher = publisher();
+        publisher.publish(TENANT_ID, ActivityEntityType.LEAD, LEAD_ID, UUID.randomUUID());
+
+        publisher.shutdown();
+
+        verify(broadcaster).broadcast(eq(LEAD_TOPIC), any());
+    }
+
+    private ActivityRealtimePublisher publisher() {
+        return new ActivityRealtimePublisher(broadcaster, properties, meterRegistry, scheduler, clock::get);
+    }
+
+    private void runScheduledFlush(int expectedSchedules) {
+        ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler, times(expectedSchedules)).schedule(flush.capture(), any(Instant.class));
+        flush.getAllValues().forEach(Runnable::run);
+    }
+
+    private ActivityEventCreatedMessage sentTo(String destination) {
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(broadcaster).broadcast(eq(destination), payload.capture());
+        return (ActivityEventCreatedMessage) payload.getValue();
+    }
+}
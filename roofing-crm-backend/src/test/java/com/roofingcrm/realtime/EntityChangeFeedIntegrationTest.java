@@ -0,0 +1,107 @@
+package com.roofingcrm.realtime;
+
+import com.roofingcrm.AbstractIntegrationTest;
+import com.roofingcrm.TestDatabaseCleaner;
+import com.roofingcrm.domain.entity.Task;
+import com.roofingcrm.domain.entity.Tenant;
+import com.roofingcrm.domain.enums.TaskStatus;
+import com.roofingcrm.domain.repository.TaskRepository;
+import com.roofingcrm.domain.repository.TenantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@TestPropertySource(properties = "app.realtime.coalesce-window-millis=0")
+@SuppressWarnings("null")
+class EntityChangeFeedIntegrationTest extends AbstractIntegrationTest {
+
+    @MockBean
+    private RealtimeBroadcaster broadcaster;
+
+    @Autowired
+    private TenantRepository tenantRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TestDatabaseCleaner dbCleaner;
+
+    private Tenant tenant;
+
+    @BeforeEach
+    void setUp() {
+        dbCleaner.reset();
+        tenant = new Tenant();
+        tenant.setName("Feed Roofing");
+        tenant.setSlug("feed-roofing");
+        tenant = tenantRepository.save(tenant);
+        clearInvocations(broadcaster);
+    }
+
+    @Test
+    void committedInsertAndUpdate_publishDeltasOnTenantTopic() {
+        Task task = new Task();
+        task.setTenant(tenant);
+        task.setTitle("Order shingles");
+        UUID taskId = taskRepository.save(task).getId();
+
+        EntityChangeMessage created = onlyChange();
+        assertEquals(ChangedEntityType.TASK, created.entityType());
+        assertEquals(taskId, created.id());
+        assertEquals(EntityChangeMessage.Change.CREATED, created.change());
+        assertNull(created.changedFields());
+        clearInvocations(broadcaster);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Task loaded = taskRepository.findById(taskId).orElseThrow();
+            loaded.setStatus(TaskStatus.IN_PROGRESS);
+        });
+
+        EntityChangeMessage updated = onlyChange();
+        assertEquals(EntityChangeMessage.Change.UPDATED, updated.change());
+        assertEquals(List.of("status"), updated.changedFields());
+        assertEquals(taskRepository.findById(taskId).orElseThrow().getUpdatedAt().toEpochMilli(), updated.version());
+    }
+
+    @Test
+    void rolledBackChange_isNotPublished() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Task task = new Task();
+            task.setTenant(tenant);
+            task.setTitle("Never committed");
+            taskRepository.saveAndFlush(task);
+            status.setRollbackOnly();
+        });
+
+        verify(broadcaster, never()).broadcast(anyString(), any());
+    }
+
+    private EntityChangeMessage onlyChange() {
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(broadcaster).broadcast(eq("/topic/tenants/" + tenant.getId() + "/changes"), payload.capture());
+        EntityChangeBatchMessage batch = (EntityChangeBatchMessage) payload.getValue();
+        assertEquals(tenant.getId(), batch.tenantId());
+        assertEquals(1, batch.changes().size());
+        return batch.changes().get(0);
+    }
+}
@@ -0,0 +1,116 @@
+package com.roofingcrm.realtime;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings("null")
+class EntityChangeFeedPublisherTest {
+
+    private static final UUID TENANT_ID = UUID.randomUUID();
+    private static final String TOPIC = "/topic/tenants/" + TENANT_ID + "/changes";
+
+    @Mock
+    private RealtimeBroadcaster broadcaster;
+
+    @Mock
+    private TaskScheduler scheduler;
+
+    private EntityChangeFeedPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        RealtimeProperties properties = new RealtimeProperties();
+        properties.setCoalesceWindowMillis(150);
+        publisher = new EntityChangeFeedPublisher(broadcaster, properties, new SimpleMeterRegistry(), scheduler,
+                System::nanoTime);
+    }
+
+    @Test
+    void changesInWindow_sentAsOneBatchMergedPerEntity() {
+        UUID leadId = UUID.randomUUID();
+        UUID jobId = UUID.randomUUID();
+        publisher.publish(TENANT_ID, update(ChangedEntityType.LEAD, leadId, 10, "statusDefinition"));
+        publisher.publish(TENANT_ID, update(ChangedEntityType.JOB, jobId, 11, "scheduledStartDate"));
+        publisher.publish(TENANT_ID, update(ChangedEntityType.LEAD, leadId, 12, "pipelinePosition"));
+
+        List<EntityChangeMessage> changes = flushAndCapture();
+
+        assertEquals(2, changes.size());
+        assertEquals(leadId, changes.get(0).id());
+        assertEquals(12, changes.get(0).version());
+        assertEquals(List.of("statusDefinition", "pipelinePosition"), changes.get(0).changedFields());
+        assertEquals(jobId, changes.get(1).id());
+    }
+
+    @Test
+    void merge_createdThenUpdated_staysCreated() {
+        UUID id = UUID.randomUUID();
+        EntityChangeMessage merged = EntityChangeFeedPublisher.merge(
+                new EntityChangeMessage(ChangedEntityType.TASK, id, 1, EntityChangeMessage.Change.CREATED, null),
+                update(ChangedEntityType.TASK, id, 2, "status"));
+
+        assertEquals(EntityChangeMessage.Change.CREATED, merged.change());
+        assertEquals(2, merged.version());
+        assertNull(merged.changedFields());
+    }
+
+    @Test
+    void merge_updatedThenDeleted_isDeleted() {
+        UUID id = UUID.randomUUID();
+        EntityChangeMessage merged = EntityChangeFeedPublisher.merge(
+                update(ChangedEntityType.INVOICE, id, 5, "status"),
+                new EntityChangeMessage(ChangedEntityType.INVOICE, id, 5, EntityChangeMessage.Change.DELETED, null));
+
+        assertEquals(EntityChangeMessage.Change.DELETED, merged.change());
+        assertNull(merged.changedFields());
+    }
+
+    @Test
+    void merge_unknownDirtyFields_staysUnknown() {
+        UUID id = UUID.randomUUID();
+        EntityChangeMessage merged = EntityChangeFeedPublisher.merge(
+                update(ChangedEntityType.ESTIMATE, id, 1, "title"),
+                new EntityChangeMessage(ChangedEntityType.ESTIMATE, id, 2, EntityChangeMessage.Change.UPDATED, null));
+
+        assertNull(merged.changedFields());
+    }
+
+    @Test
+    void changedFields_skipsUpdatedAt() {
+        assertEquals(List.of("status"), EntityChangeFeedListener.changedFields(
+                new int[]{0, 2}, new String[]{"status", "title", "updatedAt"}));
+        assertNull(EntityChangeFeedListener.changedFields(null, new String[]{"status"}));
+    }
+
+    private List<EntityChangeMessage> flushAndCapture() {
+        ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(flush.capture(), any(Instant.class));
+        flush.getValue().run();
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(broadcaster).broadcast(eq(TOPIC), payload.capture());
+        EntityChangeBatchMessage batch = (EntityChangeBatchMessage) payload.getValue();
+        assertEquals(TENANT_ID, batch.tenantId());
+        return batch.changes();
+    }
+
+    private static EntityChangeMessage update(ChangedEntityType type, UUID id, long version, String field) {
+        return new EntityChangeMessage(type, id, version, EntityChangeMessage.Change.UPDATED, List.of(field));
+    }
+}
@@ -0,0 +1,85 @@
+package com.roofingcrm.realtime;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.roofingcrm.AbstractIntegrationTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.DriverManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Two broadcasters on one database stand in for two app instances.
+ */
+@SuppressWarnings({"null", "unchecked"})
+class PostgresNotifyRealtimeBroadcasterIntegrationTest extends AbstractIntegrationTest {
+
+    private static final String DESTINATION = "/topic/tenants/t1/activity/JOB/j1";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    private final List<AutoCloseable> toClose = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (AutoCloseable closeable : toClose) {
+            closeable.close();
+        }
+    }
+
+    @Test
+    void messagePublishedOnOneInstance_reachesSubscribersOnBoth() throws InterruptedException {
+        SimpMessageSendingOperations brokerA = mock(SimpMessageSendingOperations.class);
+        SimpMessageSendingOperations brokerB = mock(SimpMessageSendingOperations.class);
+        PostgresNotifyRealtimeBroadcaster instanceA = startInstance(brokerA);
+        PostgresNotifyRealtimeBroadcaster instanceB = startInstance(brokerB);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!(instanceA.isListening() && instanceB.isListening()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertTrue(instanceA.isListening() && instanceB.isListening());
+
+        instanceA.broadcast(DESTINATION, Map.of("activityEventId", "e1"));
+
+        for (SimpMessageSendingOperations broker : List.of(brokerA, brokerB)) {
+            ArgumentCaptor<Message<byte[]>> message = ArgumentCaptor.forClass(Message.class);
+            verify(broker, timeout(5_000)).send(eq(DESTINATION), message.capture());
+            assertEquals("{\"activityEventId\":\"e1\"}",
+                    new String(message.getValue().getPayload(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private PostgresNotifyRealtimeBroadcaster startInstance(SimpMessageSendingOperations broker) {
+        RealtimeDispatcher dispatcher = new RealtimeDispatcher(2, 100, new SimpleMeterRegistry());
+        PostgresNotifyRealtimeBroadcaster broadcaster = new PostgresNotifyRealtimeBroadcaster(
+                broker, jdbcTemplate,
+                () -> DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                        dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword()),
+                dispatcher, new ObjectMapper(), "realtime_broadcast_test", new SimpleMeterRegistry());
+        broadcaster.start();
+        toClose.add(broadcaster);
+        toClose.add(dispatcher);
+        return broadcaster;
+    }
+}
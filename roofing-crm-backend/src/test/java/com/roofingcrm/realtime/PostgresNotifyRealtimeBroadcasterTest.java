@@ -0,0 +1,156 @@
+package com.roofingcrm.realtime;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings({"null", "unchecked"})
+class PostgresNotifyRealtimeBroadcasterTest {
+
+    private static final String DESTINATION = "/topic/tenants/t1/activity/LEAD/l1";
+
+    @Mock
+    private SimpMessageSendingOperations messagingTemplate;
+
+    @Mock
+    private JdbcOperations jdbcOperations;
+
+    private RealtimeDispatcher dispatcher;
+    private PostgresNotifyRealtimeBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new RealtimeDispatcher(1, 100, new SimpleMeterRegistry());
+        broadcaster = new PostgresNotifyRealtimeBroadcaster(messagingTemplate, jdbcOperations,
+                () -> {
+                    throw new SQLException("not used");
+                },
+                dispatcher, new ObjectMapper(), "realtime_broadcast", new SimpleMeterRegistry());
+    }
+
+    @Test
+    void broadcast_notifiesChannelWithDestinationAndJson() throws Exception {
+        broadcaster.broadcast(DESTINATION, Map.of("activityEventId", "e1"));
+        dispatcher.close();
+
+        ArgumentCaptor<PreparedStatementCallback<Boolean>> callback = ArgumentCaptor.forClass(PreparedStatementCallback.class);
+        verify(jdbcOperations).execute(eq("SELECT pg_notify(?, ?)"), callback.capture());
+        PreparedStatement ps = mock(PreparedStatement.class);
+        callback.getValue().doInPreparedStatement(ps);
+        verify(ps).setString(1, "realtime_broadcast");
+        verify(ps).setString(2, DESTINATION + "\n{\"activityEventId\":\"e1\"}");
+        verify(messagingTemplate, never()).send(anyString(), any(Message.class));
+    }
+
+    @Test
+    void notifyFailure_deliversToThisInstance() {
+        when(jdbcOperations.execute(anyString(), any(PreparedStatementCallback.class)))
+                .thenThrow(new DataAccessResourceFailureException("db down"));
+
+        broadcaster.broadcast(DESTINATION, Map.of("activityEventId", "e1"));
+        dispatcher.close();
+
+        assertDeliveredLocally("{\"activityEventId\":\"e1\"}");
+    }
+
+    @Test
+    void oversizedPayload_skipsNotifyAndDeliversToThisInstance() {
+        String big = "x".repeat(PostgresNotifyRealtimeBroadcaster.MAX_NOTIFY_PAYLOAD_BYTES);
+
+        broadcaster.broadcast(DESTINATION, Map.of("note", big));
+        dispatcher.close();
+
+        verify(jdbcOperations, never()).execute(anyString(), any(PreparedStatementCallback.class));
+        assertDeliveredLocally("{\"note\":\"" + big + "\"}");
+    }
+
+    @Test
+    void oversizedChangeBatch_isSplitIntoNotificationsUnderTheLimit() throws Exception {
+        List<EntityChangeMessage> changes = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            changes.add(new EntityChangeMessage(ChangedEntityType.LEAD, UUID.randomUUID(), i,
+                    EntityChangeMessage.Change.UPDATED, List.of("statusDefinition")));
+        }
+
+        broadcaster.broadcast(DESTINATION, new EntityChangeBatchMessage(UUID.randomUUID(), changes));
+        dispatcher.close();
+
+        ArgumentCaptor<PreparedStatementCallback<Boolean>> callbacks = ArgumentCaptor.forClass(PreparedStatementCallback.class);
+        verify(jdbcOperations, times(4)).execute(eq("SELECT pg_notify(?, ?)"), callbacks.capture());
+        int delivered = 0;
+        for (PreparedStatementCallback<Boolean> callback : callbacks.getAllValues()) {
+            PreparedStatement ps = mock(PreparedStatement.class);
+            callback.doInPreparedStatement(ps);
+            ArgumentCaptor<String> notification = ArgumentCaptor.forClass(String.class);
+            verify(ps).setString(eq(2), notification.capture());
+            assertTrue(notification.getValue().getBytes(StandardCharsets.UTF_8).length
+                    <= PostgresNotifyRealtimeBroadcaster.MAX_NOTIFY_PAYLOAD_BYTES);
+            delivered += notification.getValue().split("\"id\"").length - 1;
+        }
+        assertEquals(200, delivered);
+        verify(messagingTemplate, never()).send(anyString(), any(Message.class));
+    }
+
+    @Test
+    void onNotification_forwardsJsonToLocalBrokerUnchanged() {
+        broadcaster.onNotification(DESTINATION + "\n{\"activityEventId\":\"e2\"}");
+        dispatcher.close();
+
+        assertDeliveredLocally("{\"activityEventId\":\"e2\"}");
+    }
+
+    @Test
+    void onNotification_ignoresMalformedPayload() {
+        broadcaster.onNotification("no-destination");
+        dispatcher.close();
+
+        verify(messagingTemplate, never()).send(anyString(), any(Message.class));
+    }
+
+    @Test
+    void rejectsChannelThatIsNotAnIdentifier() {
+        assertThrows(IllegalArgumentException.class, () -> new PostgresNotifyRealtimeBroadcaster(
+                messagingTemplate, jdbcOperations, () -> null, dispatcher, new ObjectMapper(),
+                "x; DROP TABLE users", new SimpleMeterRegistry()));
+    }
+
+    private void assertDeliveredLocally(String expectedJson) {
+        ArgumentCaptor<Message<byte[]>> message = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate).send(eq(DESTINATION), message.capture());
+        assertEquals(expectedJson, new String(message.getValue().getPayload(), StandardCharsets.UTF_8));
+        assertEquals(MimeTypeUtils.APPLICATION_JSON, message.getValue().getHeaders().get(MessageHeaders.CONTENT_TYPE));
+    }
+}
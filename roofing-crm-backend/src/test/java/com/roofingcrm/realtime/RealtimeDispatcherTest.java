@@ -0,0 +1,90 @@
+package com.roofingcrm.realtime;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RealtimeDispatcherTest {
+
+    @Test
+    void sameDestination_keepsPublishOrder() {
+        List<Integer> delivered = new CopyOnWriteArrayList<>();
+        RealtimeDispatcher dispatcher = new RealtimeDispatcher(4, 1_000, new SimpleMeterRegistry());
+        for (int i = 0; i < 500; i++) {
+            int n = i;
+            dispatcher.dispatch("/topic/tenants/t/activity/LEAD/1", () -> delivered.add(n));
+        }
+        dispatcher.close();
+
+        assertEquals(500, delivered.size());
+        for (int i = 0; i < 500; i++) {
+            assertEquals(i, delivered.get(i));
+        }
+    }
+
+    @Test
+    void destinations_spreadAcrossPartitions() {
+        RealtimeDispatcher dispatcher = new RealtimeDispatcher(4, 10, new SimpleMeterRegistry());
+        boolean[] used = new boolean[4];
+        for (int i = 0; i < 100; i++) {
+            used[dispatcher.partitionFor("/topic/tenants/t/activity/JOB/" + i)] = true;
+        }
+        dispatcher.close();
+
+        for (boolean partitionUsed : used) {
+            assertTrue(partitionUsed);
+        }
+    }
+
+    @Test
+    void fullPartition_dropsAndCountsInsteadOfBlocking() throws InterruptedException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RealtimeDispatcher dispatcher = new RealtimeDispatcher(1, 2, registry);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger sent = new AtomicInteger();
+        dispatcher.dispatch("/topic/a", () -> {
+            running.countDown();
+            awaitQuietly(release);
+        });
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        for (int i = 0; i < 5; i++) {
+            dispatcher.dispatch("/topic/a", sent::incrementAndGet);
+        }
+        release.countDown();
+        dispatcher.close();
+
+        assertEquals(2, sent.get());
+        assertEquals(3.0, registry.get("realtime.dispatch.dropped").counter().count());
+    }
+
+    @Test
+    void failingSend_doesNotStopPartition() {
+        AtomicInteger sent = new AtomicInteger();
+        RealtimeDispatcher dispatcher = new RealtimeDispatcher(1, 10, new SimpleMeterRegistry());
+        dispatcher.dispatch("/topic/a", () -> {
+            throw new IllegalStateException("session closed");
+        });
+        dispatcher.dispatch("/topic/a", sent::incrementAndGet);
+        dispatcher.close();
+
+        assertEquals(1, sent.get());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.roofingcrm.realtime;
+
+import com.roofingcrm.AbstractIntegrationTest;
+import com.roofingcrm.TestDatabaseCleaner;
+import com.roofingcrm.domain.entity.Tenant;
+import com.roofingcrm.domain.entity.TenantUserMembership;
+import com.roofingcrm.domain.entity.User;
+import com.roofingcrm.domain.enums.ActivityEntityType;
+import com.roofingcrm.domain.enums.UserRole;
+import com.roofingcrm.domain.repository.TenantRepository;
+import com.roofingcrm.domain.repository.TenantUserMembershipRepository;
+import com.roofingcrm.domain.repository.UserRepository;
+import com.roofingcrm.security.JwtService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Holds 10,000 concurrent STOMP subscriptions (100 WebSocket sessions x 100 subscriptions over 1,000 activity topics,
+ * 10 subscribers per topic) against the real endpoint, then publishes once per topic and expects every subscriber to
+ * receive its message. Guards the bounded channel executors and broker cache sizing against regressions that only
+ * show up at subscription counts well above what unit tests create.
+ * <p>
+ * Tagged {@code load}: excluded from the default build, run with {@code mvn test -Pload-tests}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class RealtimeSubscriptionLoadTest extends AbstractIntegrationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(RealtimeSubscriptionLoadTest.class);
+
+    private static final int SESSIONS = 100;
+    private static final int SUBSCRIPTIONS_PER_SESSION = 100;
+    private static final int TOPICS = 1_000;
+    private static final int SUBSCRIBERS_PER_TOPIC = SESSIONS * SUBSCRIPTIONS_PER_SESSION / TOPICS;
+    /** Fan-out budget for delivering one message to each of the 10,000 subscriptions. */
+    private static final long DELIVERY_BUDGET_MS = 10_000;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private ActivityRealtimePublisher publisher;
+
+    @Autowired
+    private SimpleBrokerMessageHandler simpleBrokerMessageHandler;
+
+    @Autowired
+    private TenantRepository tenantRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TenantUserMembershipRepository membershipRepository;
+
+    @Autowired
+    private TestDatabaseCleaner dbCleaner;
+
+    private final List<StompSession> sessions = new ArrayList<>();
+    private WebSocketStompClient stompClient;
+
+    @AfterEach
+    void tearDown() {
+        sessions.forEach(StompSession::disconnect);
+        if (stompClient != null) {
+            stompClient.stop();
+        }
+    }
+
+    @Test
+    void tenThousandSubscriptions_allReceiveTheirTopicMessage() throws Exception {
+        dbCleaner.reset();
+        Tenant tenant = new Tenant();
+        tenant.setName("Load Roofing");
+        tenant.setSlug("load-roofing");
+        tenant = tenantRepository.save(tenant);
+        User user = new User();
+        user.setEmail("load@example.com");
+        user.setFullName("Load User");
+        user.setPasswordHash("irrelevant-for-this-test");
+        user.setEnabled(true);
+        user = userRepository.save(user);
+        TenantUserMembership membership = new TenantUserMembership();
+        membership.setTenant(tenant);
+        membership.setUser(user);
+        membership.setRole(UserRole.OWNER);
+        membershipRepository.save(membership);
+
+        UUID tenantId = tenant.getId();
+        UUID[] entityIds = new UUID[TOPICS];
+        for (int i = 0; i < TOPICS; i++) {
+            entityIds[i] = UUID.randomUUID();
+        }
+        String url = "ws://localhost:" + port + "/ws/websocket?token="
+                + jwtService.generateToken(user.getId(), user.getEmail());
+
+        stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        CountDownLatch received = new CountDownLatch(SESSIONS * SUBSCRIPTIONS_PER_SESSION);
+        StompFrameHandler countingHandler = new StompFrameHandler() {
+            @Override
+            @NonNull
+            public Type getPayloadType(@NonNull StompHeaders headers) {
+                return ActivityEventCreatedMessage.class;
+            }
+
+            @Override
+            public void handleFrame(@NonNull StompHeaders headers, Object payload) {
+                received.countDown();
+            }
+        };
+
+        long connectStart = System.nanoTime();
+        for (int s = 0; s < SESSIONS; s++) {
+            StompSession session = stompClient.connectAsync(url, new StompSessionHandlerAdapter() { })
+                    .get(10, TimeUnit.SECONDS);
+            sessions.add(session);
+            for (int k = 0; k < SUBSCRIPTIONS_PER_SESSION; k++) {
+                int topic = (s * SUBSCRIPTIONS_PER_SESSION + k) % TOPICS;
+                session.subscribe(destination(tenantId, entityIds[topic]), countingHandler);
+            }
+        }
+        awaitSubscriptions(tenantId, entityIds);
+        long subscribedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - connectStart);
+
+        long publishStart = System.nanoTime();
+        for (int i = 0; i < TOPICS; i++) {
+            publisher.publish(tenantId, ActivityEntityType.JOB, entityIds[i], UUID.randomUUID());
+        }
+        assertTrue(received.await(60, TimeUnit.SECONDS),
+                "undelivered messages: " + received.getCount());
+        long deliveredMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - publishStart);
+
+        log.info("{} subscriptions ready in {} ms; {} messages delivered in {} ms",
+                SESSIONS * SUBSCRIPTIONS_PER_SESSION, subscribedMillis,
+                SESSIONS * SUBSCRIPTIONS_PER_SESSION, deliveredMillis);
+        assertTrue(deliveredMillis <= DELIVERY_BUDGET_MS,
+                "delivery took " + deliveredMillis + " ms; budget is " + DELIVERY_BUDGET_MS + " ms");
+    }
+
+    private void awaitSubscriptions(UUID tenantId, UUID[] entityIds) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 60_000;
+        int total = 0;
+        while (System.currentTimeMillis() < deadline) {
+            total = 0;
+            for (UUID entityId : entityIds) {
+                SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+                accessor.setDestination(destination(tenantId, entityId));
+                total += simpleBrokerMessageHandler.getSubscriptionRegistry()
+                        .findSubscriptions(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()))
+                        .values().stream().mapToInt(List::size).sum();
+            }
+            if (total == TOPICS * SUBSCRIBERS_PER_TOPIC) {
+                return;
+            }
+            Thread.sleep(200);
+        }
+        assertEquals(TOPICS * SUBSCRIBERS_PER_TOPIC, total, "subscriptions registered with the broker");
+    }
+
+    private static String destination(UUID tenantId, UUID entityId) {
+        return "/topic/tenants/" + tenantId + "/activity/JOB/" + entityId;
+    }
+}
@@ -0,0 +1,103 @@
+package com.roofingcrm.realtime;
+
+import com.roofingcrm.service.tenant.TenantAccessDeniedException;
+import com.roofingcrm.service.tenant.TenantAccessService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings("null")
+class TenantSubscriptionInterceptorTest {
+
+    @Mock
+    private TenantAccessService tenantAccessService;
+
+    private final MessageChannel channel = mock(MessageChannel.class);
+    private TenantSubscriptionInterceptor interceptor;
+    private UUID tenantId;
+    private UUID userId;
+    private Map<String, Object> sessionAttributes;
+
+    @BeforeEach
+    void setUp() {
+        interceptor = new TenantSubscriptionInterceptor(tenantAccessService);
+        tenantId = UUID.randomUUID();
+        userId = UUID.randomUUID();
+        sessionAttributes = new HashMap<>();
+        sessionAttributes.put(JwtHandshakeInterceptor.USER_ID_ATTRIBUTE, userId);
+    }
+
+    @Test
+    void member_maySubscribe_andIsCheckedOncePerTenant() {
+        Message<byte[]> changes = subscribe("/topic/tenants/" + tenantId + "/changes");
+        Message<byte[]> reportJobs = subscribe("/topic/tenants/" + tenantId + "/report-jobs");
+
+        assertSame(changes, interceptor.preSend(changes, channel));
+        assertSame(reportJobs, interceptor.preSend(reportJobs, channel));
+
+        verify(tenantAccessService, times(1)).loadTenantForUserOrThrow(tenantId, userId);
+    }
+
+    @Test
+    void nonMember_isRefused() {
+        when(tenantAccessService.loadTenantForUserOrThrow(tenantId, userId))
+                .thenThrow(new TenantAccessDeniedException("User does not have access to this tenant"));
+
+        assertThrows(MessageDeliveryException.class,
+                () -> interceptor.preSend(subscribe("/topic/tenants/" + tenantId + "/changes"), channel));
+    }
+
+    @Test
+    void nonTenantTopic_orMissingUser_isRefusedWithoutLookup() {
+        assertThrows(MessageDeliveryException.class,
+                () -> interceptor.preSend(subscribe("/topic/everything"), channel));
+        assertThrows(MessageDeliveryException.class,
+                () -> interceptor.preSend(subscribe("/topic/tenants/not-a-uuid/changes"), channel));
+        sessionAttributes.clear();
+        assertThrows(MessageDeliveryException.class,
+                () -> interceptor.preSend(subscribe("/topic/tenants/" + tenantId + "/changes"), channel));
+
+        verify(tenantAccessService, times(0)).loadTenantForUserOrThrow(any(), any());
+    }
+
+    @Test
+    void otherFrames_passThrough() {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SEND);
+        accessor.setDestination("/app/anything");
+        Message<byte[]> send = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+
+        assertSame(send, interceptor.preSend(send, channel));
+        verifyNoInteractions(tenantAccessService);
+    }
+
+    private Message<byte[]> subscribe(String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setDestination(destination);
+        accessor.setSubscriptionId("sub-" + destination.hashCode());
+        accessor.setSessionId("session-1");
+        accessor.setSessionAttributes(sessionAttributes);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
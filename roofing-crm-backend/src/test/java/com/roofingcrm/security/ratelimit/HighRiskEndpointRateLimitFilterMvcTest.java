@@ -14,9 +14,11 @@ import com.roofingcrm.security.RefreshTokenProperties;
 import com.roofingcrm.service.auth.AuthService;
 import com.roofingcrm.service.estimate.PublicEstimateService;
 import com.roofingcrm.service.exception.ResourceNotFoundException;
+import com.roofingcrm.service.publicview.PublicView;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
@@ -29,6 +31,7 @@ import java.util.UUID;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -127,6 +130,21 @@ class HighRiskEndpointRateLimitFilterMvcTest {
         verify(authService, times(2)).login(any());
     }
 
+    @Test
+    void login_cachedBody_isBoundByControllerAfterKeying() throws Exception {
+        mockLoginSuccess();
+
+        authMvc.perform(post("/api/v1/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"profile\":{\"email\":\"x\"},\"email\":\"User@Example.com\",\"password\":\"secret\"}"))
+                .andExpect(status().isOk());
+
+        ArgumentCaptor<LoginRequest> captor = ArgumentCaptor.forClass(LoginRequest.class);
+        verify(authService).login(captor.capture());
+        assertEquals("User@Example.com", captor.getValue().getEmail());
+        assertEquals("secret", captor.getValue().getPassword());
+    }
+
     @Test
     void login_badCredentials_sameMessageRegardlessOfUser_existenceNotLeaked() throws Exception {
         when(authService.login(any(LoginRequest.class)))
@@ -170,7 +188,8 @@ class HighRiskEndpointRateLimitFilterMvcTest {
 
     @Test
     void publicEstimateGet_exceedsLimit_returns429() throws Exception {
-        when(publicEstimateService.getByToken("tok1")).thenReturn(new PublicEstimateDto());
+        when(publicEstimateService.getViewByToken("tok1")).thenReturn(
+                new PublicView<>(UUID.randomUUID(), "hash", new PublicEstimateDto(), "etag", null));
 
         publicMvc.perform(get("/api/public/estimates/tok1")).andExpect(status().isOk());
         publicMvc.perform(get("/api/public/estimates/tok1")).andExpect(status().isOk());
@@ -0,0 +1,49 @@
+package com.roofingcrm.security.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JsonFieldExtractorTest {
+
+    @Test
+    void extractsTopLevelField() {
+        assertEquals("user@example.com", extract("{\"email\":\"user@example.com\",\"password\":\"secret\"}"));
+        assertEquals("user@example.com", extract("{\"password\":\"secret\",\"email\":\"user@example.com\"}"));
+    }
+
+    @Test
+    void skipsNestedObjectsAndArrays() {
+        assertEquals("top@example.com", extract(
+                "{\"profile\":{\"email\":\"nested@example.com\"},\"tags\":[{\"email\":\"x\"}],\"email\":\"top@example.com\"}"));
+    }
+
+    @Test
+    void duplicateField_lastOccurrenceWins_likeDataBinding() {
+        assertEquals("victim@example.com", extract("{\"email\":\"random@example.com\",\"email\":\"victim@example.com\"}"));
+    }
+
+    @Test
+    void scalarNonStringValues_useTheirText() {
+        assertEquals("42", extract("{\"email\":42}"));
+        assertEquals("true", extract("{\"email\":true}"));
+    }
+
+    @Test
+    void missingNullStructuredOrMalformed_returnsEmpty() {
+        assertEquals("", extract("{\"password\":\"secret\"}"));
+        assertEquals("", extract("{\"email\":null}"));
+        assertEquals("", extract("{\"email\":{\"value\":\"a@b.c\"}}"));
+        assertEquals("", extract("[\"email\",\"a@b.c\"]"));
+        assertEquals("", extract("{\"email\":\"a@b.c\""));
+        assertEquals("", extract("not json"));
+        assertEquals("", JsonFieldExtractor.topLevelText(new byte[0], "email"));
+        assertEquals("", JsonFieldExtractor.topLevelText(null, "email"));
+    }
+
+    private static String extract(String json) {
+        return JsonFieldExtractor.topLevelText(json.getBytes(StandardCharsets.UTF_8), "email");
+    }
+}
@@ -0,0 +1,124 @@
+package com.roofingcrm.security.ratelimit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.roofingcrm.api.v1.auth.LoginRequest;
+import com.roofingcrm.security.RefreshTokenProperties;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of keying POST /auth/login in {@link HighRiskEndpointRateLimitFilter} during a credential-stuffing flood.
+ * <ul>
+ *   <li>{@code extractEmailTree} vs {@code extractEmailStreaming}: the previous {@code readTree} keying against
+ *   {@link JsonFieldExtractor} on a realistic login body.</li>
+ *   <li>{@code floodRejected}: a full filter pass for a request that is over the limit (most of a flood).</li>
+ *   <li>{@code floodAllowed}: a full filter pass plus the MVC-style bind of {@link LoginRequest} from the cached
+ *   body, i.e. the extra work the filter adds in front of the controller.</li>
+ * </ul>
+ * Results are average time per request; multiplied by 5,000 they give the CPU-seconds per second a 5k req/s flood
+ * costs on these paths. Runs 8 threads to mimic concurrent Tomcat workers.
+ * <p>
+ * Run: {@code mvn -q test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.roofingcrm.security.ratelimit.LoginFloodBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class LoginFloodBenchmark {
+
+    private static final ObjectMapper MVC_MAPPER = Jackson2ObjectMapperBuilder.json().build();
+    private static final int DISTINCT_BODIES = 256;
+    /** Shared: a MockServletContext per request would dominate the measurement. */
+    private static final MockServletContext SERVLET_CONTEXT = new MockServletContext();
+
+    private byte[][] bodies;
+    private HighRiskEndpointRateLimitFilter rejectingFilter;
+    private HighRiskEndpointRateLimitFilter allowingFilter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        bodies = new byte[DISTINCT_BODIES][];
+        for (int i = 0; i < DISTINCT_BODIES; i++) {
+            LoginRequest request = new LoginRequest();
+            request.setEmail("victim" + i + "@example.com");
+            request.setPassword("Spring2024!" + i);
+            bodies[i] = MVC_MAPPER.writeValueAsBytes(request);
+        }
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setLoginPerMinute(20);
+        RefreshTokenProperties refreshTokenProperties = new RefreshTokenProperties();
+        rejectingFilter = new HighRiskEndpointRateLimitFilter(properties, (key, max) -> false, refreshTokenProperties);
+        allowingFilter = new HighRiskEndpointRateLimitFilter(properties, (key, max) -> true, refreshTokenProperties);
+    }
+
+    @Benchmark
+    public String extractEmailTree() throws Exception {
+        JsonNode node = MVC_MAPPER.readTree(nextBody()).get("email");
+        return node != null && !node.isNull() ? node.asText() : "";
+    }
+
+    @Benchmark
+    public String extractEmailStreaming() {
+        return JsonFieldExtractor.topLevelText(nextBody(), "email");
+    }
+
+    @Benchmark
+    public int floodRejected() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        rejectingFilter.doFilter(loginRequest(), response, (req, res) -> {
+        });
+        return response.getStatus();
+    }
+
+    @Benchmark
+    public void floodAllowed(Blackhole blackhole) throws Exception {
+        FilterChain bindLikeMvc = (req, res) ->
+                blackhole.consume(MVC_MAPPER.readValue(req.getInputStream(), LoginRequest.class));
+        allowingFilter.doFilter(loginRequest(), new MockHttpServletResponse(), bindLikeMvc);
+    }
+
+    private MockHttpServletRequest loginRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest(SERVLET_CONTEXT, "POST", "/api/v1/auth/login");
+        request.setContentType("application/json");
+        request.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        request.setRemoteAddr("203.0.113.7");
+        request.setContent(nextBody());
+        return request;
+    }
+
+    private byte[] nextBody() {
+        return bodies[ThreadLocalRandom.current().nextInt(DISTINCT_BODIES)];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(LoginFloodBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,114 @@
+package com.roofingcrm.security.ratelimit;
+
+import com.roofingcrm.AbstractIntegrationTest;
+import com.roofingcrm.TestDatabaseCleaner;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PostgresRateLimiterIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestDatabaseCleaner dbCleaner;
+
+    private final AtomicLong clock = new AtomicLong(1_000_000L * 60_000L);
+
+    @BeforeEach
+    void setUp() {
+        dbCleaner.reset();
+    }
+
+    @Test
+    void sharedAcrossInstances_limitAppliesToCombinedTraffic() {
+        PostgresRateLimiter instanceA = new PostgresRateLimiter(namedJdbc, clock::get);
+        PostgresRateLimiter instanceB = new PostgresRateLimiter(namedJdbc, clock::get);
+
+        assertTrue(instanceA.tryAcquire("login:1.2.3.4:x", 3));
+        assertTrue(instanceB.tryAcquire("login:1.2.3.4:x", 3));
+        assertTrue(instanceA.tryAcquire("login:1.2.3.4:x", 3));
+        assertFalse(instanceB.tryAcquire("login:1.2.3.4:x", 3));
+        assertTrue(instanceB.tryAcquire("login:5.6.7.8:x", 3));
+    }
+
+    @Test
+    void rejectedRequests_doNotAdvanceCounter() {
+        PostgresRateLimiter limiter = new PostgresRateLimiter(namedJdbc, clock::get);
+        assertTrue(limiter.tryAcquire("k", 1));
+        assertFalse(limiter.tryAcquire("k", 1));
+        assertFalse(limiter.tryAcquire("k", 1));
+
+        Integer current = jdbcTemplate.queryForObject("SELECT current_count FROM rate_limit_counters", Integer.class);
+        assertEquals(1, current);
+    }
+
+    @Test
+    void slidingWindow_weightsPreviousMinute() {
+        PostgresRateLimiter limiter = new PostgresRateLimiter(namedJdbc, clock::get);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire("k", 10));
+        }
+        clock.addAndGet(61_000L);
+        assertFalse(limiter.tryAcquire("k", 10));
+        clock.addAndGet(29_000L);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire("k", 10));
+        }
+        assertFalse(limiter.tryAcquire("k", 10));
+    }
+
+    @Test
+    void prunesRowsIdleForTwoWindows() {
+        PostgresRateLimiter limiter = new PostgresRateLimiter(namedJdbc, clock::get);
+        assertTrue(limiter.tryAcquire("idle", 5));
+        clock.addAndGet(180_000L);
+        assertTrue(limiter.tryAcquire("fresh", 5));
+
+        Integer rows = jdbcTemplate.queryForObject("SELECT count(*) FROM rate_limit_counters", Integer.class);
+        assertEquals(1, rows);
+    }
+
+    @Test
+    void concurrentChecks_onOneKey_neverExceedLimit() throws Exception {
+        PostgresRateLimiter limiter = new PostgresRateLimiter(namedJdbc, clock::get);
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            for (int t = 0; t < 8; t++) {
+                pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 25; i++) {
+                        if (limiter.tryAcquire("hot", 50)) {
+                            allowed.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        } finally {
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+        }
+        assertEquals(50, allowed.get());
+    }
+}
@@ -0,0 +1,78 @@
+package com.roofingcrm.security.ratelimit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * {@code tryAcquire} throughput of the in-memory backends under 64-thread contention, on one hot key (every thread
+ * hammers the same login scope, as in a credential-stuffing burst) and spread over many keys. The limiters run on a
+ * clock where a "minute" lasts 60 ms, so windows keep rolling: with {@code limit=20} almost every call is rejected (the
+ * flood case), with {@code limit=100000} a large share takes the allow path, which is the one that writes.
+ * <p>
+ * Run: {@code mvn -q test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.roofingcrm.security.ratelimit.RateLimiterBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(64)
+public class RateLimiterBenchmark {
+
+    private static final int KEY_COUNT = 1024;
+
+    @Param({"sliding-window", "fixed-window"})
+    public String backend;
+
+    @Param({"20", "100000"})
+    public int limit;
+
+    private RateLimiter limiter;
+    private String[] keys;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        LongSupplier fastClock = () -> System.nanoTime() / 1_000L;
+        limiter = "fixed-window".equals(backend)
+                ? new MinuteWindowRateLimiter(fastClock)
+                : new SlidingWindowRateLimiter(fastClock);
+        keys = new String[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys[i] = "login:10.0." + (i >> 8) + "." + (i & 0xff) + ":" + RateLimitHashing.sha256Hex("user" + i);
+        }
+    }
+
+    @Benchmark
+    public boolean hotKey() {
+        return limiter.tryAcquire(keys[0], limit);
+    }
+
+    @Benchmark
+    public boolean spreadKeys() {
+        return limiter.tryAcquire(keys[ThreadLocalRandom.current().nextInt(KEY_COUNT)], limit);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RateLimiterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,116 @@
+package com.roofingcrm.security.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlidingWindowRateLimiterTest {
+
+    @Test
+    void allowsUpToMaxPerWindow_thenBlocks() {
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter();
+        assertTrue(limiter.tryAcquire("scope-a", 3));
+        assertTrue(limiter.tryAcquire("scope-a", 3));
+        assertTrue(limiter.tryAcquire("scope-a", 3));
+        assertFalse(limiter.tryAcquire("scope-a", 3));
+        assertTrue(limiter.tryAcquire("scope-b", 3));
+    }
+
+    @Test
+    void nonPositiveLimitBlocks() {
+        assertFalse(new SlidingWindowRateLimiter().tryAcquire("k", 0));
+    }
+
+    @Test
+    void windowBoundary_doesNotAllowDoubleBurst() {
+        AtomicLong clock = new AtomicLong(59_000L);
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(clock::get);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire("k", 10));
+        }
+        // One second into the next minute the previous window still weighs 59/60: 10 * 0.983 + 1 > 10.
+        clock.set(61_000L);
+        assertFalse(limiter.tryAcquire("k", 10));
+        // Halfway through, half of the previous minute has slid out: 10 * 0.5 + 5 fills the limit.
+        clock.set(90_000L);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire("k", 10));
+        }
+        assertFalse(limiter.tryAcquire("k", 10));
+    }
+
+    @Test
+    void fullyRecovers_afterTwoWindows() {
+        AtomicLong clock = new AtomicLong(0L);
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(clock::get);
+        assertTrue(limiter.tryAcquire("k", 1));
+        assertFalse(limiter.tryAcquire("k", 1));
+        clock.set(120_000L);
+        assertTrue(limiter.tryAcquire("k", 1));
+    }
+
+    @Test
+    void prunesStaleKeysAfterClockAdvancesTwoMinutes() {
+        AtomicLong clock = new AtomicLong(0L);
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(clock::get);
+        for (int i = 0; i < 5000; i++) {
+            assertTrue(limiter.tryAcquire("k" + i, 5));
+        }
+        assertEquals(5000, limiter.testingEntryCount());
+        clock.set(120_000L);
+        assertTrue(limiter.tryAcquire("fresh", 5));
+        assertEquals(1, limiter.testingEntryCount());
+    }
+
+    @Test
+    void liveKeysOverSizePressure_areNotRescannedOnEveryCall() {
+        AtomicLong clock = new AtomicLong(0L);
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(clock::get);
+        for (int i = 0; i < 5000; i++) {
+            assertTrue(limiter.tryAcquire("k" + i, 5));
+        }
+        // The prune at 4096 live keys kept them all, so the next size-driven prune waits for twice as many.
+        assertEquals(8192, limiter.testingPruneSizeThreshold());
+
+        clock.set(120_000L);
+        assertTrue(limiter.tryAcquire("fresh", 5));
+        assertEquals(4096, limiter.testingPruneSizeThreshold());
+    }
+
+    @Test
+    void concurrentCallers_neverExceedLimit() throws Exception {
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(() -> 0L);
+        int threads = 16;
+        int attemptsPerThread = 1_000;
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            for (int t = 0; t < threads; t++) {
+                pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        if (limiter.tryAcquire("hot", 500)) {
+                            allowed.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        } finally {
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        }
+        assertEquals(500, allowed.get());
+    }
+}
@@ -0,0 +1,190 @@
+package com.roofingcrm.service.accounting;
+
+import com.roofingcrm.api.v1.accounting.CostCategoryPeriodDto;
+import com.roofingcrm.api.v1.accounting.CostCategoryTrendDto;
+import com.roofingcrm.api.v1.accounting.ProfitabilityOverviewDto;
+import com.roofingcrm.api.v1.accounting.ReceivablesAgingDto;
+import com.roofingcrm.domain.entity.Job;
+import com.roofingcrm.domain.entity.JobAccountingRollup;
+import com.roofingcrm.domain.entity.Tenant;
+import com.roofingcrm.domain.enums.CostTrendInterval;
+import com.roofingcrm.domain.enums.JobCostCategory;
+import com.roofingcrm.domain.enums.MarginBasis;
+import com.roofingcrm.domain.repository.JobAccountingRollupRepository;
+import com.roofingcrm.service.tenant.TenantAccessService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings("null")
+class AccountingAnalyticsServiceImplUnitTest {
+
+    @Mock
+    private TenantAccessService tenantAccessService;
+    @Mock
+    private JobAccountingRollupRepository jobAccountingRollupRepository;
+    @Mock
+    private DailyAccountingTotals dailyAccountingTotals;
+
+    private AccountingAnalyticsServiceImpl service;
+    private UUID tenantId;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        service = new AccountingAnalyticsServiceImpl(tenantAccessService, jobAccountingRollupRepository,
+                dailyAccountingTotals);
+        tenantId = UUID.randomUUID();
+        userId = UUID.randomUUID();
+    }
+
+    @Test
+    void getProfitabilityOverview_projectedBasis_computesTenantMarginsAndRanksBothEnds() {
+        stubTenant();
+        JobAccountingRollupRepository.TenantTotalsView totals = mock(JobAccountingRollupRepository.TenantTotalsView.class);
+        when(totals.getJobCount()).thenReturn(4L);
+        when(totals.getAgreedAmount()).thenReturn(new BigDecimal("20000.00"));
+        when(totals.getPaidAmount()).thenReturn(new BigDecimal("8000.00"));
+        when(totals.getTotalCosts()).thenReturn(new BigDecimal("6000.00"));
+        when(totals.getActualProfit()).thenReturn(new BigDecimal("2000.00"));
+        when(totals.getProjectedProfit()).thenReturn(new BigDecimal("15000.00"));
+        when(jobAccountingRollupRepository.sumActiveByTenant(tenantId)).thenReturn(totals);
+        JobAccountingRollup best = rollup("45.00");
+        JobAccountingRollup worst = rollup("-12.50");
+        when(jobAccountingRollupRepository.findActiveByTenantOrderByProjectedMargin(tenantId, PageRequest.of(0, 3)))
+                .thenReturn(new PageImpl<>(List.of(best)));
+        when(jobAccountingRollupRepository.findActiveByTenantOrderByProjectedMarginAsc(tenantId, PageRequest.of(0, 3)))
+                .thenReturn(new PageImpl<>(List.of(worst)));
+
+        ProfitabilityOverviewDto result = service.getProfitabilityOverview(tenantId, userId, MarginBasis.PROJECTED, 3);
+
+        assertEquals(4L, result.getJobCount());
+        assertEquals(new BigDecimal("25.00"), result.getActualMarginPercent());
+        assertEquals(new BigDecimal("75.00"), result.getProjectedMarginPercent());
+        assertEquals(0, result.getInvoicedAmount().signum());
+        assertEquals(best.getJobId(), result.getMostProfitableJobs().get(0).getJobId());
+        assertEquals(worst.getJobId(), result.getLeastProfitableJobs().get(0).getJobId());
+        verify(jobAccountingRollupRepository, never()).findActiveByTenantOrderByActualMargin(any(), any());
+    }
+
+    @Test
+    void getProfitabilityOverview_withoutPayments_hasNoActualMargin() {
+        stubTenant();
+        JobAccountingRollupRepository.TenantTotalsView totals = mock(JobAccountingRollupRepository.TenantTotalsView.class);
+        when(jobAccountingRollupRepository.sumActiveByTenant(tenantId)).thenReturn(totals);
+        when(jobAccountingRollupRepository.findActiveByTenantOrderByActualMargin(any(), any()))
+                .thenReturn(new PageImpl<>(List.of()));
+        when(jobAccountingRollupRepository.findActiveByTenantOrderByActualMarginAsc(any(), any()))
+                .thenReturn(new PageImpl<>(List.of()));
+
+        ProfitabilityOverviewDto result = service.getProfitabilityOverview(tenantId, userId, MarginBasis.ACTUAL, 10);
+
+        assertNull(result.getActualMarginPercent());
+        assertEquals(0, result.getPaidAmount().signum());
+    }
+
+    @Test
+    void getProfitabilityOverview_limitOutOfRange_isRejectedBeforeLoading() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.getProfitabilityOverview(tenantId, userId, MarginBasis.ACTUAL, 51));
+
+        verifyNoInteractions(tenantAccessService, jobAccountingRollupRepository);
+    }
+
+    @Test
+    void getCostCategoryTrend_weekly_listsEveryWeekAndSumsCategories() {
+        stubTenant();
+        LocalDate from = LocalDate.parse("2026-01-01");
+        LocalDate to = LocalDate.parse("2026-01-14");
+        LocalDate secondWeek = LocalDate.parse("2026-01-05");
+        when(dailyAccountingTotals.costTotals(tenantId, from, to, "week")).thenReturn(List.of(
+                new DailyAccountingTotals.CostTotal(secondWeek, JobCostCategory.LABOR, new BigDecimal("50.00"), 1),
+                new DailyAccountingTotals.CostTotal(secondWeek, JobCostCategory.MATERIAL, new BigDecimal("100.00"), 2)));
+
+        CostCategoryTrendDto result = service.getCostCategoryTrend(tenantId, userId, from, to, CostTrendInterval.WEEK);
+
+        List<CostCategoryPeriodDto> periods = result.getPeriods();
+        assertEquals(List.of(LocalDate.parse("2025-12-29"), secondWeek, LocalDate.parse("2026-01-12")),
+                periods.stream().map(CostCategoryPeriodDto::getPeriodStart).toList());
+        assertEquals(0, periods.get(0).getTotalCosts().signum());
+        assertEquals(new BigDecimal("150.00"), periods.get(1).getTotalCosts());
+        assertEquals(3L, periods.get(1).getEntryCount());
+        assertEquals(new BigDecimal("100.00"), result.getCategoryTotals().get(JobCostCategory.MATERIAL));
+        assertEquals(0, result.getCategoryTotals().get(JobCostCategory.OTHER).signum());
+        assertEquals(new BigDecimal("150.00"), result.getTotalCosts());
+    }
+
+    @Test
+    void getCostCategoryTrend_dailyRangeTooLong_isRejected() {
+        assertThrows(IllegalArgumentException.class, () -> service.getCostCategoryTrend(tenantId, userId,
+                LocalDate.parse("2025-01-01"), LocalDate.parse("2026-01-02"), CostTrendInterval.DAY));
+        assertThrows(IllegalArgumentException.class, () -> service.getCostCategoryTrend(tenantId, userId,
+                LocalDate.parse("2026-02-01"), LocalDate.parse("2026-01-01"), CostTrendInterval.MONTH));
+
+        verifyNoInteractions(dailyAccountingTotals);
+    }
+
+    @Test
+    void getReceivablesAging_bucketsByDaysPastDue() {
+        stubTenant();
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        when(dailyAccountingTotals.receivables(tenantId)).thenReturn(List.of(
+                new DailyAccountingTotals.ReceivableDay(today.minusDays(120), new BigDecimal("700.00"), 1),
+                new DailyAccountingTotals.ReceivableDay(today.minusDays(30), new BigDecimal("300.00"), 2),
+                new DailyAccountingTotals.ReceivableDay(today.minusDays(1), new BigDecimal("200.00"), 1),
+                new DailyAccountingTotals.ReceivableDay(today, new BigDecimal("50.00"), 1),
+                new DailyAccountingTotals.ReceivableDay(today.plusDays(14), new BigDecimal("25.00"), 1)));
+
+        ReceivablesAgingDto result = service.getReceivablesAging(tenantId, userId);
+
+        assertEquals(today, result.getAsOf());
+        assertEquals(new BigDecimal("1275.00"), result.getTotalOpen());
+        assertEquals(6L, result.getOpenInvoiceCount());
+        assertEquals(List.of("Current", "1-30", "31-60", "61-90", "90+"),
+                result.getBuckets().stream().map(b -> b.getLabel()).toList());
+        assertEquals(new BigDecimal("75.00"), result.getBuckets().get(0).getAmount());
+        assertEquals(new BigDecimal("500.00"), result.getBuckets().get(1).getAmount());
+        assertEquals(3L, result.getBuckets().get(1).getInvoiceCount());
+        assertEquals(0, result.getBuckets().get(2).getAmount().signum());
+        assertEquals(new BigDecimal("700.00"), result.getBuckets().get(4).getAmount());
+        assertNull(result.getBuckets().get(4).getMaxDaysPastDue());
+    }
+
+    private void stubTenant() {
+        Tenant tenant = new Tenant();
+        tenant.setId(tenantId);
+        when(tenantAccessService.loadTenantForUserOrThrow(tenantId, userId)).thenReturn(tenant);
+    }
+
+    private JobAccountingRollup rollup(String projectedMarginPercent) {
+        Job job = new Job();
+        job.setId(UUID.randomUUID());
+        JobAccountingRollup rollup = new JobAccountingRollup();
+        rollup.setJobId(job.getId());
+        rollup.setJob(job);
+        rollup.setTenantId(tenantId);
+        rollup.setProjectedMarginPercent(new BigDecimal(projectedMarginPercent));
+        return rollup;
+    }
+}
@@ -0,0 +1,295 @@
+package com.roofingcrm.service.accounting;
+
+import com.roofingcrm.AbstractIntegrationTest;
+import com.roofingcrm.TestDatabaseCleaner;
+import com.roofingcrm.api.v1.accounting.CostCategoryTrendDto;
+import com.roofingcrm.api.v1.accounting.CreateJobCostEntryRequest;
+import com.roofingcrm.api.v1.accounting.JobAccountingSummaryDto;
+import com.roofingcrm.api.v1.accounting.JobCostEntryDto;
+import com.roofingcrm.api.v1.accounting.JobProfitabilityDto;
+import com.roofingcrm.api.v1.accounting.ReceivablesAgingDto;
+import com.roofingcrm.api.v1.common.AddressDto;
+import com.roofingcrm.api.v1.job.CreateJobRequest;
+import com.roofingcrm.domain.entity.Customer;
+import com.roofingcrm.domain.entity.Invoice;
+import com.roofingcrm.domain.entity.Job;
+import com.roofingcrm.domain.entity.Tenant;
+import com.roofingcrm.domain.entity.TenantUserMembership;
+import com.roofingcrm.domain.entity.User;
+import com.roofingcrm.domain.enums.CostTrendInterval;
+import com.roofingcrm.domain.enums.InvoiceStatus;
+import com.roofingcrm.domain.enums.JobCostCategory;
+import com.roofingcrm.domain.enums.JobType;
+import com.roofingcrm.domain.enums.MarginBasis;
+import com.roofingcrm.domain.enums.UserRole;
+import com.roofingcrm.domain.repository.CustomerRepository;
+import com.roofingcrm.domain.repository.InvoiceRepository;
+import com.roofingcrm.domain.repository.JobAccountingRollupRepository;
+import com.roofingcrm.domain.repository.JobRepository;
+import com.roofingcrm.domain.repository.TenantRepository;
+import com.roofingcrm.domain.repository.TenantUserMembershipRepository;
+import com.roofingcrm.domain.repository.UserRepository;
+import com.roofingcrm.service.job.JobService;
+import com.roofingcrm.service.pipeline.PipelineStatusAdminService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestPropertySource(properties = "app.accounting.rollup.consistency-check-enabled=false")
+@SuppressWarnings("null")
+class JobAccountingRollupIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private JobAccountingService jobAccountingService;
+    @Autowired
+    private AccountingAnalyticsService accountingAnalyticsService;
+    @Autowired
+    private JobService jobService;
+    @Autowired
+    private JobAccountingRollupVerifier verifier;
+    @Autowired
+    private JobAccountingRollupRepository rollupRepository;
+    @Autowired
+    private JobRepository jobRepository;
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+    @Autowired
+    private TenantRepository tenantRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TenantUserMembershipRepository membershipRepository;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private PipelineStatusAdminService pipelineStatusAdminService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TestDatabaseCleaner dbCleaner;
+
+    private UUID tenantId;
+    private UUID userId;
+    private UUID customerId;
+
+    @BeforeEach
+    void setUp() {
+        dbCleaner.reset();
+
+        Tenant tenant = new Tenant();
+        tenant.setName("Ledger Roofing");
+        tenant.setSlug("ledger-roofing");
+        tenant = tenantRepository.save(tenant);
+
+        User user = new User();
+        user.setEmail("ledger-user@example.com");
+        user.setFullName("Ledger User");
+        user.setPasswordHash("irrelevant-for-this-test");
+        user.setEnabled(true);
+        user = userRepository.save(user);
+
+        TenantUserMembership membership = new TenantUserMembership();
+        membership.setTenant(tenant);
+        membership.setUser(user);
+        membership.setRole(UserRole.OWNER);
+        membershipRepository.save(membership);
+
+        pipelineStatusAdminService.seedDefaultsForNewTenant(tenant);
+
+        Customer customer = new Customer();
+        customer.setTenant(tenant);
+        customer.setFirstName("Rollup");
+        customer.setLastName("Customer");
+        customer = customerRepository.save(customer);
+
+        tenantId = Objects.requireNonNull(tenant.getId());
+        userId = Objects.requireNonNull(user.getId());
+        customerId = customer.getId();
+    }
+
+    @Test
+    void newJob_getsEmptyRollupRow() {
+        UUID jobId = createJob();
+
+        var rollup = rollupRepository.findById(jobId).orElseThrow();
+        assertEquals(tenantId, rollup.getTenantId());
+        assertEquals(0, rollup.getTotalCosts().signum());
+        assertFalse(rollup.isHasAcceptedEstimate());
+        assertNull(rollup.getActualMarginPercent());
+    }
+
+    @Test
+    void costAndInvoiceChanges_areReflectedInSummaryAndListing() {
+        UUID jobId = createJob();
+        addCost(jobId, JobCostCategory.MATERIAL, "3500.00");
+        JobCostEntryDto labor = addCost(jobId, JobCostCategory.LABOR, "1200.00");
+        UUID invoiceId = addInvoice(jobId, InvoiceStatus.SENT, "9000.00");
+
+        JobAccountingSummaryDto summary = jobAccountingService.getJobAccountingSummary(tenantId, userId, jobId);
+        assertEquals(new BigDecimal("9000.00"), summary.getInvoicedAmount());
+        assertEquals(0, summary.getPaidAmount().signum());
+        assertEquals(new BigDecimal("4700.00"), summary.getTotalCosts());
+        assertEquals(new BigDecimal("1200.00"), summary.getCategoryTotals().get(JobCostCategory.LABOR));
+
+        transactionTemplate.executeWithoutResult(status ->
+                invoiceRepository.findById(invoiceId).orElseThrow().setStatus(InvoiceStatus.PAID));
+        jobAccountingService.deleteJobCostEntry(tenantId, userId, jobId, labor.getId());
+
+        summary = jobAccountingService.getJobAccountingSummary(tenantId, userId, jobId);
+        assertEquals(new BigDecimal("9000.00"), summary.getPaidAmount());
+        assertEquals(new BigDecimal("3500.00"), summary.getTotalCosts());
+        assertEquals(new BigDecimal("5500.00"), summary.getActualProfit());
+        assertEquals(new BigDecimal("61.11"), summary.getActualMarginPercent());
+
+        UUID unprofitableJobId = createJob();
+        addCost(unprofitableJobId, JobCostCategory.OTHER, "100.00");
+        UUID emptyJobId = createJob();
+
+        List<JobProfitabilityDto> listing = jobAccountingService.listJobProfitability(
+                tenantId, userId, MarginBasis.ACTUAL, PageRequest.of(0, 10)).getContent();
+        assertEquals(3, listing.size());
+        assertEquals(jobId, listing.get(0).getJobId());
+        assertTrue(List.of(unprofitableJobId, emptyJobId).contains(listing.get(2).getJobId()));
+    }
+
+    @Test
+    void verifier_rebuildsDriftedAndMissingRows() {
+        UUID jobId = createJob();
+        addCost(jobId, JobCostCategory.MATERIAL, "250.00");
+        UUID otherJobId = createJob();
+        jdbcTemplate.update("UPDATE job_accounting_rollups SET total_costs = 0 WHERE job_id = ?", jobId);
+        jdbcTemplate.update("DELETE FROM job_accounting_rollups WHERE job_id = ?", otherJobId);
+
+        assertEquals(2, verifier.verifyAll());
+
+        assertEquals(new BigDecimal("250.00"), rollupRepository.findById(jobId).orElseThrow().getTotalCosts());
+        assertTrue(rollupRepository.findById(otherJobId).isPresent());
+        assertEquals(0, verifier.verifyAll());
+    }
+
+    @Test
+    void costAndInvoiceChanges_maintainDailyTotalsBehindAnalytics() {
+        UUID jobId = createJob();
+        Instant lastWeek = Instant.now().minus(7, ChronoUnit.DAYS);
+        JobCostEntryDto material = addCost(jobId, JobCostCategory.MATERIAL, "400.00", lastWeek);
+        addCost(jobId, JobCostCategory.LABOR, "150.00", Instant.now());
+        UUID overdueId = addInvoice(jobId, InvoiceStatus.SENT, "1000.00", Instant.now().minus(45, ChronoUnit.DAYS));
+        addInvoice(jobId, InvoiceStatus.SENT, "250.00", Instant.now().plus(10, ChronoUnit.DAYS));
+        addInvoice(jobId, InvoiceStatus.DRAFT, "999.00", Instant.now());
+
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        CostCategoryTrendDto trend = accountingAnalyticsService.getCostCategoryTrend(
+                tenantId, userId, today.minusDays(13), today, CostTrendInterval.DAY);
+        assertEquals(14, trend.getPeriods().size());
+        assertEquals(new BigDecimal("550.00"), trend.getTotalCosts());
+        assertEquals(new BigDecimal("400.00"), trend.getPeriods().get(6).getTotalCosts());
+
+        ReceivablesAgingDto aging = accountingAnalyticsService.getReceivablesAging(tenantId, userId);
+        assertEquals(new BigDecimal("1250.00"), aging.getTotalOpen());
+        assertEquals(new BigDecimal("250.00"), aging.getBuckets().get(0).getAmount());
+        assertEquals(new BigDecimal("1000.00"), aging.getBuckets().get(2).getAmount());
+
+        transactionTemplate.executeWithoutResult(status ->
+                invoiceRepository.findById(overdueId).orElseThrow().setStatus(InvoiceStatus.PAID));
+        jobAccountingService.deleteJobCostEntry(tenantId, userId, jobId, material.getId());
+
+        assertEquals(new BigDecimal("250.00"),
+                accountingAnalyticsService.getReceivablesAging(tenantId, userId).getTotalOpen());
+        assertEquals(new BigDecimal("150.00"), accountingAnalyticsService.getCostCategoryTrend(
+                tenantId, userId, today.minusDays(13), today, CostTrendInterval.DAY).getTotalCosts());
+        assertEquals(new BigDecimal("1000.00"), accountingAnalyticsService.getProfitabilityOverview(
+                tenantId, userId, MarginBasis.ACTUAL, 5).getPaidAmount());
+    }
+
+    @Test
+    void verifier_rebuildsDriftedDailyTotals() {
+        UUID jobId = createJob();
+        addCost(jobId, JobCostCategory.OTHER, "75.00");
+        jdbcTemplate.update("DELETE FROM tenant_daily_cost_totals WHERE tenant_id = ?", tenantId);
+        jdbcTemplate.update("INSERT INTO tenant_daily_receivables (tenant_id, due_day, open_amount, open_count) "
+                + "VALUES (?, DATE '2020-01-01', 10, 1)", tenantId);
+
+        assertEquals(1, verifier.verifyAll());
+
+        assertEquals(new BigDecimal("75.00"), jdbcTemplate.queryForObject(
+                "SELECT SUM(amount) FROM tenant_daily_cost_totals WHERE tenant_id = ?", BigDecimal.class, tenantId));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tenant_daily_receivables WHERE tenant_id = ?", Integer.class, tenantId));
+        assertEquals(0, verifier.verifyAll());
+    }
+
+    @Test
+    void rolledBackChange_leavesRollupUntouched() {
+        UUID jobId = createJob();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            addCost(jobId, JobCostCategory.MATERIAL, "999.00");
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, rollupRepository.findById(jobId).orElseThrow().getTotalCosts().signum());
+    }
+
+    private UUID createJob() {
+        CreateJobRequest request = new CreateJobRequest();
+        request.setCustomerId(customerId);
+        request.setType(JobType.REPLACEMENT);
+        AddressDto address = new AddressDto();
+        address.setLine1("12 Ledger Ln");
+        address.setCity("Chicago");
+        request.setPropertyAddress(address);
+        return jobService.createJob(tenantId, userId, request).getId();
+    }
+
+    private JobCostEntryDto addCost(UUID jobId, JobCostCategory category, String amount) {
+        return addCost(jobId, category, amount, Instant.now());
+    }
+
+    private JobCostEntryDto addCost(UUID jobId, JobCostCategory category, String amount, Instant incurredAt) {
+        CreateJobCostEntryRequest request = new CreateJobCostEntryRequest();
+        request.setCategory(category);
+        request.setDescription(category.name().toLowerCase());
+        request.setAmount(new BigDecimal(amount));
+        request.setIncurredAt(incurredAt);
+        return jobAccountingService.createJobCostEntry(tenantId, userId, jobId, request);
+    }
+
+    private UUID addInvoice(UUID jobId, InvoiceStatus status, String total) {
+        return addInvoice(jobId, status, total, null);
+    }
+
+    private UUID addInvoice(UUID jobId, InvoiceStatus status, String total, Instant dueAt) {
+        return transactionTemplate.execute(tx -> {
+            Job job = jobRepository.findById(jobId).orElseThrow();
+            Invoice invoice = new Invoice();
+            invoice.setTenant(job.getTenant());
+            invoice.setJob(job);
+            invoice.setInvoiceNumber("INV-" + UUID.randomUUID().toString().substring(0, 8));
+            invoice.setStatus(status);
+            invoice.setIssuedAt(Instant.now());
+            invoice.setDueAt(dueAt);
+            invoice.setTotal(new BigDecimal(total));
+            return invoiceRepository.save(invoice).getId();
+        });
+    }
+}
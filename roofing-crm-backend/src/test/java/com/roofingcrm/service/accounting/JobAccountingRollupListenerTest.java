@@ -0,0 +1,271 @@
+package com.roofingcrm.service.accounting;
+
+import com.roofingcrm.domain.entity.Estimate;
+import com.roofingcrm.domain.entity.Invoice;
+import com.roofingcrm.domain.entity.Job;
+import com.roofingcrm.domain.entity.JobCostEntry;
+import com.roofingcrm.domain.entity.Tenant;
+import com.roofingcrm.domain.enums.EstimateStatus;
+import com.roofingcrm.domain.enums.InvoiceStatus;
+import com.roofingcrm.domain.enums.JobCostCategory;
+import com.roofingcrm.service.accounting.DailyAccountingTotals.CostDay;
+import com.roofingcrm.service.accounting.DailyAccountingTotals.Delta;
+import com.roofingcrm.service.accounting.DailyAccountingTotals.TenantDay;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.ActionQueue;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings("null")
+class JobAccountingRollupListenerTest {
+
+    private static final String[] COST_PROPERTIES = {"amount", "category", "description", "job", "notes"};
+    private static final String[] INVOICE_PROPERTIES =
+            {"archived", "dueAt", "issuedAt", "job", "notes", "status", "total"};
+    private static final String[] ESTIMATE_PROPERTIES = {"job", "notes", "status", "total"};
+    private static final String[] DATED_COST_PROPERTIES =
+            {"amount", "archived", "category", "incurredAt", "job", "notes"};
+
+    @Mock
+    private JobAccountingLedger ledger;
+    @Mock
+    private DailyAccountingTotals dailyTotals;
+    @Mock
+    private EventSource session;
+    @Mock
+    private ActionQueue actionQueue;
+
+    private JobAccountingRollupListener listener;
+
+    @BeforeEach
+    void setUp() {
+        listener = new JobAccountingRollupListener(mock(EntityManagerFactory.class), ledger, dailyTotals);
+    }
+
+    @Test
+    void costEntryNotesChange_doesNotTouchRollup() {
+        JobCostEntry entry = new JobCostEntry();
+        entry.setJob(job());
+
+        listener.onPostUpdate(update(entry, COST_PROPERTIES, new int[]{4}, null));
+
+        verify(session, never()).getActionQueue();
+    }
+
+    @Test
+    void invoiceMovedToAnotherJob_refreshesBothJobsOnceBeforeCommit() {
+        when(session.getActionQueue()).thenReturn(actionQueue);
+        Job oldJob = job();
+        Job newJob = job();
+        Invoice invoice = new Invoice();
+        invoice.setJob(newJob);
+        Object[] oldState = {false, null, null, oldJob, null, null, null};
+
+        listener.onPostUpdate(update(invoice, INVOICE_PROPERTIES, new int[]{3, 6}, oldState));
+        JobCostEntry entry = new JobCostEntry();
+        entry.setJob(newJob);
+        listener.onPostInsert(new PostInsertEvent(entry, UUID.randomUUID(), null, mock(EntityPersister.class), session));
+
+        ArgumentCaptor<BeforeTransactionCompletionProcess> beforeCompletion =
+                ArgumentCaptor.forClass(BeforeTransactionCompletionProcess.class);
+        verify(actionQueue).registerProcess(beforeCompletion.capture());
+        beforeCompletion.getValue().doBeforeTransactionCompletion(null);
+        verify(ledger).refresh(Set.of(oldJob.getId(), newJob.getId()));
+    }
+
+    @Test
+    void draftEstimateEdit_isIgnoredButAcceptanceRefreshes() {
+        when(session.getActionQueue()).thenReturn(actionQueue);
+        Job job = job();
+        Estimate estimate = new Estimate();
+        estimate.setJob(job);
+        estimate.setStatus(EstimateStatus.DRAFT);
+
+        listener.onPostUpdate(update(estimate, ESTIMATE_PROPERTIES, new int[]{3}, null));
+        verify(ledger, never()).refresh(anyCollection());
+
+        estimate.setStatus(EstimateStatus.ACCEPTED);
+        listener.onPostUpdate(update(estimate, ESTIMATE_PROPERTIES, new int[]{2}, null));
+
+        ArgumentCaptor<BeforeTransactionCompletionProcess> beforeCompletion =
+                ArgumentCaptor.forClass(BeforeTransactionCompletionProcess.class);
+        verify(actionQueue).registerProcess(beforeCompletion.capture());
+        beforeCompletion.getValue().doBeforeTransactionCompletion(null);
+        verify(ledger).refresh(Set.of(job.getId()));
+    }
+
+    @Test
+    void completedTransaction_nextChangeRegistersAgain() {
+        when(session.getActionQueue()).thenReturn(actionQueue);
+        Job job = job();
+        JobCostEntry entry = new JobCostEntry();
+        entry.setJob(job);
+
+        listener.onPostUpdate(update(entry, COST_PROPERTIES, new int[]{0}, null));
+        ArgumentCaptor<AfterTransactionCompletionProcess> afterCompletion =
+                ArgumentCaptor.forClass(AfterTransactionCompletionProcess.class);
+        verify(actionQueue).registerProcess(afterCompletion.capture());
+        afterCompletion.getValue().doAfterTransactionCompletion(true, session);
+
+        listener.onPostUpdate(update(entry, COST_PROPERTIES, new int[]{0}, null));
+
+        verify(actionQueue, times(2)).registerProcess(any(BeforeTransactionCompletionProcess.class));
+    }
+
+    @Test
+    void costEntryMovedToAnotherDay_movesItsAmountBetweenDaysAfterTheJob() {
+        when(session.getActionQueue()).thenReturn(actionQueue);
+        Tenant tenant = tenant();
+        JobCostEntry entry = costEntry(tenant, "2026-03-02T01:00:00Z");
+        Object[] oldState = {entry.getAmount(), false, JobCostCategory.MATERIAL, Instant.parse("2026-02-27T23:30:00Z"),
+                entry.getJob(), null};
+
+        listener.onPostUpdate(update(entry, DATED_COST_PROPERTIES, new int[]{3}, oldState));
+
+        beforeCommit();
+        var order = inOrder(ledger, dailyTotals);
+        order.verify(ledger).refresh(Set.of());
+        order.verify(dailyTotals).addCostDeltas(Map.of(
+                new CostDay(tenant.getId(), LocalDate.parse("2026-02-27"), JobCostCategory.MATERIAL),
+                new Delta(new BigDecimal("-100.00"), -1),
+                new CostDay(tenant.getId(), LocalDate.parse("2026-03-02"), JobCostCategory.MATERIAL),
+                new Delta(new BigDecimal("100.00"), 1)));
+        verify(dailyTotals).addReceivableDeltas(Map.of());
+    }
+
+    @Test
+    void costEntryAddedAndArchivedInOneTransaction_addsNothing() {
+        when(session.getActionQueue()).thenReturn(actionQueue);
+        JobCostEntry entry = costEntry(tenant(), "2026-03-02T01:00:00Z");
+
+        listener.onPostInsert(new PostInsertEvent(entry, UUID.randomUUID(), null, mock(EntityPersister.class), session));
+        Object[] oldState = {entry.getAmount(), false, entry.getCategory(), entry.getIncurredAt(), entry.getJob(), null};
+        entry.setArchived(true);
+        listener.onPostUpdate(update(entry, DATED_COST_PROPERTIES, new int[]{1}, oldState));
+
+        beforeCommit();
+        verify(dailyTotals).addCostDeltas(Map.of(
+                new CostDay(entry.getTenant().getId(), LocalDate.parse("2026-03-02"), JobCostCategory.MATERIAL),
+                new Delta(new BigDecimal("0.00"), 0)));
+    }
+
+    @Test
+    void invoiceDueDateChange_movesItsTotalButNotesDoNot() {
+        when(session.getActionQueue()).thenReturn(actionQueue);
+        Tenant tenant = tenant();
+        Invoice invoice = new Invoice();
+        invoice.setTenant(tenant);
+        invoice.setStatus(InvoiceStatus.SENT);
+        invoice.setTotal(new BigDecimal("250.00"));
+        invoice.setIssuedAt(Instant.parse("2026-03-01T12:00:00Z"));
+        invoice.setDueAt(Instant.parse("2026-04-15T12:00:00Z"));
+
+        listener.onPostUpdate(update(invoice, INVOICE_PROPERTIES, new int[]{4}, null));
+        verify(session, never()).getActionQueue();
+
+        Object[] oldState = {false, null, Instant.parse("2026-03-01T12:00:00Z"), null, null, InvoiceStatus.SENT,
+                invoice.getTotal()};
+        listener.onPostUpdate(update(invoice, INVOICE_PROPERTIES, new int[]{1}, oldState));
+
+        beforeCommit();
+        verify(dailyTotals).addReceivableDeltas(Map.of(
+                new TenantDay(tenant.getId(), LocalDate.parse("2026-03-01")), new Delta(new BigDecimal("-250.00"), -1),
+                new TenantDay(tenant.getId(), LocalDate.parse("2026-04-15")), new Delta(new BigDecimal("250.00"), 1)));
+        verify(ledger).refresh(Set.of());
+    }
+
+    @Test
+    void draftInvoiceSent_addsItsTotalToItsDueDay() {
+        when(session.getActionQueue()).thenReturn(actionQueue);
+        Tenant tenant = tenant();
+        Invoice invoice = new Invoice();
+        invoice.setTenant(tenant);
+        invoice.setJob(job());
+        invoice.setStatus(InvoiceStatus.SENT);
+        invoice.setTotal(new BigDecimal("80.00"));
+        invoice.setIssuedAt(Instant.parse("2026-03-01T12:00:00Z"));
+        Object[] oldState = {false, null, invoice.getIssuedAt(), invoice.getJob(), null, InvoiceStatus.DRAFT,
+                invoice.getTotal()};
+
+        listener.onPostUpdate(update(invoice, INVOICE_PROPERTIES, new int[]{5}, oldState));
+
+        beforeCommit();
+        verify(dailyTotals).addReceivableDeltas(Map.of(
+                new TenantDay(tenant.getId(), LocalDate.parse("2026-03-01")), new Delta(new BigDecimal("80.00"), 1)));
+    }
+
+    @Test
+    void dirtyProperties_nullWhenNotTracked() {
+        assertNull(JobAccountingRollupListener.dirtyProperties(null, INVOICE_PROPERTIES));
+        assertEquals(Set.of("status", "total"),
+                JobAccountingRollupListener.dirtyProperties(new int[]{5, 6}, INVOICE_PROPERTIES));
+    }
+
+    private void beforeCommit() {
+        ArgumentCaptor<BeforeTransactionCompletionProcess> beforeCompletion =
+                ArgumentCaptor.forClass(BeforeTransactionCompletionProcess.class);
+        verify(actionQueue).registerProcess(beforeCompletion.capture());
+        beforeCompletion.getValue().doBeforeTransactionCompletion(null);
+    }
+
+    private static JobCostEntry costEntry(Tenant tenant, String incurredAt) {
+        JobCostEntry entry = new JobCostEntry();
+        entry.setTenant(tenant);
+        entry.setJob(job());
+        entry.setCategory(JobCostCategory.MATERIAL);
+        entry.setAmount(new BigDecimal("100.00"));
+        entry.setIncurredAt(Instant.parse(incurredAt));
+        return entry;
+    }
+
+    private PostUpdateEvent update(Object entity, String[] propertyNames, int[] dirty, Object[] oldState) {
+        return new PostUpdateEvent(entity, UUID.randomUUID(), null, oldState, dirty, persister(propertyNames), session);
+    }
+
+    private static EntityPersister persister(String[] propertyNames) {
+        EntityPersister persister = mock(EntityPersister.class);
+        when(persister.getPropertyNames()).thenReturn(propertyNames);
+        return persister;
+    }
+
+    private static Tenant tenant() {
+        Tenant tenant = new Tenant();
+        tenant.setId(UUID.randomUUID());
+        return tenant;
+    }
+
+    private static Job job() {
+        Job job = new Job();
+        job.setId(UUID.randomUUID());
+        return job;
+    }
+}
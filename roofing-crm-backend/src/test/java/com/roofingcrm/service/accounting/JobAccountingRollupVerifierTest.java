@@ -0,0 +1,123 @@
+package com.roofingcrm.service.accounting;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings("null")
+class JobAccountingRollupVerifierTest {
+
+    @Mock
+    private JobAccountingLedger ledger;
+    @Mock
+    private DailyAccountingTotals dailyTotals;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private AdvisoryLock lock;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private JobAccountingRollupProperties properties;
+    private JobAccountingRollupVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        properties = new JobAccountingRollupProperties();
+        properties.setConsistencyCheckBatchSize(2);
+        verifier = new JobAccountingRollupVerifier(ledger, dailyTotals, properties, transactionManager, lock,
+                meterRegistry);
+    }
+
+    @Test
+    void verifyAll_pagesThroughJobsAndRebuildsOnlyDriftedRows() {
+        UUID a = new UUID(0, 1);
+        UUID b = new UUID(0, 2);
+        UUID c = new UUID(0, 3);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(ledger.jobIdsAfter(null, 2)).thenReturn(List.of(a, b));
+        when(ledger.jobIdsAfter(b, 2)).thenReturn(List.of(c));
+        when(ledger.findDrifted(List.of(a, b))).thenReturn(List.of(b));
+        when(ledger.findDrifted(List.of(c))).thenReturn(List.of());
+
+        assertEquals(1, verifier.verifyAll());
+
+        verify(ledger).refresh(List.of(b));
+        verify(transactionManager, times(2)).commit(any());
+        assertEquals(1.0, meterRegistry.get("accounting.rollup.drift.repaired").counter().count());
+    }
+
+    @Test
+    void verifyAll_rebuildsTenantsWithDriftedDailyTotals() {
+        UUID tenantA = new UUID(1, 1);
+        UUID tenantB = new UUID(1, 2);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(dailyTotals.changedTenantIdsAfter(24, null, 2)).thenReturn(List.of(tenantA, tenantB));
+        when(dailyTotals.changedTenantIdsAfter(24, tenantB, 2)).thenReturn(List.of());
+        when(dailyTotals.findDriftedTenants(List.of(tenantA, tenantB))).thenReturn(List.of(tenantA));
+
+        assertEquals(1, verifier.verifyAll());
+
+        verify(dailyTotals).rebuildTenants(List.of(tenantA));
+        assertEquals(1.0, meterRegistry.get("accounting.daily.drift.repaired").counter().count());
+        assertEquals(0.0, meterRegistry.get("accounting.rollup.drift.repaired").counter().count());
+    }
+
+    @Test
+    void verifyAll_withoutJobs_opensNoTransaction() {
+        when(ledger.jobIdsAfter(null, 2)).thenReturn(List.of());
+
+        assertEquals(0, verifier.verifyAll());
+
+        verify(transactionManager, never()).getTransaction(any());
+    }
+
+    @Test
+    void scheduledCheck_runsUnderTheAdvisoryLock() {
+        when(lock.runExclusively(eq(JobAccountingRollupVerifier.LOCK_KEY), any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return true;
+        });
+        when(ledger.jobIdsAfter(null, 2)).thenReturn(List.of());
+        when(dailyTotals.changedTenantIdsAfter(24, null, 2)).thenReturn(List.of());
+
+        verifier.scheduledCheck();
+
+        verify(ledger).jobIdsAfter(null, 2);
+    }
+
+    @Test
+    void scheduledCheck_whenAnotherInstanceHoldsTheLock_checksNothing() {
+        when(lock.runExclusively(eq(JobAccountingRollupVerifier.LOCK_KEY), any())).thenReturn(false);
+
+        verifier.scheduledCheck();
+
+        verifyNoInteractions(ledger, dailyTotals, transactionManager);
+    }
+
+    @Test
+    void scheduledCheck_whenDisabled_doesNotTakeTheLock() {
+        properties.setConsistencyCheckEnabled(false);
+
+        verifier.scheduledCheck();
+
+        verifyNoInteractions(lock, ledger);
+    }
+}
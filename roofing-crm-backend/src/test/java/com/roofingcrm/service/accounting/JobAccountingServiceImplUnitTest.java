@@ -4,13 +4,17 @@ import com.roofingcrm.api.v1.accounting.CreateJobCostEntryRequest;
 import com.roofingcrm.api.v1.accounting.UpdateJobCostEntryRequest;
 import com.roofingcrm.domain.entity.Estimate;
 import com.roofingcrm.domain.entity.Job;
+import com.roofingcrm.domain.entity.JobAccountingRollup;
 import com.roofingcrm.domain.entity.JobCostEntry;
 import com.roofingcrm.domain.entity.Tenant;
 import com.roofingcrm.domain.enums.ActivityEntityType;
 import com.roofingcrm.domain.enums.ActivityEventType;
 import com.roofingcrm.domain.enums.JobCostCategory;
+import com.roofingcrm.domain.enums.JobType;
+import com.roofingcrm.domain.enums.MarginBasis;
 import com.roofingcrm.domain.repository.EstimateRepository;
 import com.roofingcrm.domain.repository.InvoiceRepository;
+import com.roofingcrm.domain.repository.JobAccountingRollupRepository;
 import com.roofingcrm.domain.repository.JobCostEntryRepository;
 import com.roofingcrm.domain.repository.JobRepository;
 import com.roofingcrm.service.activity.ActivityEventService;
@@ -20,6 +24,8 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -36,6 +42,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -54,6 +61,8 @@ class JobAccountingServiceImplUnitTest {
     @Mock
     private JobCostEntryRepository jobCostEntryRepository;
     @Mock
+    private JobAccountingRollupRepository jobAccountingRollupRepository;
+    @Mock
     private ActivityEventService activityEventService;
 
     private JobAccountingServiceImpl service;
@@ -72,6 +81,7 @@ class JobAccountingServiceImplUnitTest {
                 estimateRepository,
                 invoiceRepository,
                 jobCostEntryRepository,
+                jobAccountingRollupRepository,
                 activityEventService);
 
         tenantId = UUID.randomUUID();
@@ -144,6 +154,64 @@ class JobAccountingServiceImplUnitTest {
         assertFalse(result.isHasAcceptedEstimate());
     }
 
+    @Test
+    void getJobAccountingSummary_readsRollupRowWithoutAggregating() {
+        JobAccountingRollup rollup = new JobAccountingRollup();
+        rollup.setJobId(jobId);
+        rollup.setTenantId(tenantId);
+        rollup.setHasAcceptedEstimate(true);
+        rollup.setAgreedAmount(new BigDecimal("12000.00"));
+        rollup.setInvoicedAmount(new BigDecimal("15000.00"));
+        rollup.setPaidAmount(new BigDecimal("9000.00"));
+        rollup.setTotalCosts(new BigDecimal("5500.00"));
+        rollup.setMaterialCosts(new BigDecimal("3500.00"));
+        rollup.setTransportationCosts(BigDecimal.ZERO);
+        rollup.setLaborCosts(new BigDecimal("2000.00"));
+        rollup.setOtherCosts(BigDecimal.ZERO);
+        rollup.setActualProfit(new BigDecimal("3500.00"));
+        rollup.setActualMarginPercent(new BigDecimal("38.89"));
+        rollup.setProjectedProfit(new BigDecimal("6500.00"));
+        rollup.setProjectedMarginPercent(new BigDecimal("54.17"));
+
+        when(tenantAccessService.loadTenantForUserOrThrow(tenantId, userId)).thenReturn(tenant);
+        when(jobRepository.findByIdAndTenantAndArchivedFalse(jobId, tenant)).thenReturn(Optional.of(job));
+        when(jobAccountingRollupRepository.findById(jobId)).thenReturn(Optional.of(rollup));
+
+        var result = service.getJobAccountingSummary(tenantId, userId, jobId);
+
+        assertEquals(new BigDecimal("12000.00"), result.getAgreedAmount());
+        assertEquals(new BigDecimal("3500.00"), result.getGrossProfit());
+        assertEquals(new BigDecimal("38.89"), result.getMarginPercent());
+        assertEquals(new BigDecimal("54.17"), result.getProjectedMarginPercent());
+        assertEquals(new BigDecimal("2000.00"), result.getCategoryTotals().get(JobCostCategory.LABOR));
+        assertEquals(4, result.getCategoryTotals().size());
+        assertTrue(result.isHasAcceptedEstimate());
+        verify(estimateRepository, never()).findAcceptedForJobOrderForAccounting(any());
+        verify(jobCostEntryRepository, never()).sumAmountForJob(any(), any());
+    }
+
+    @Test
+    void listJobProfitability_usesProjectedMarginQueryAndMapsJob() {
+        job.setJobType(JobType.REPLACEMENT);
+        JobAccountingRollup rollup = new JobAccountingRollup();
+        rollup.setJobId(jobId);
+        rollup.setJob(job);
+        rollup.setProjectedMarginPercent(new BigDecimal("41.50"));
+        PageRequest pageable = PageRequest.of(1, 5);
+
+        when(tenantAccessService.loadTenantForUserOrThrow(tenantId, userId)).thenReturn(tenant);
+        when(jobAccountingRollupRepository.findActiveByTenantOrderByProjectedMargin(tenantId, pageable))
+                .thenReturn(new PageImpl<>(List.of(rollup), pageable, 6));
+
+        var result = service.listJobProfitability(tenantId, userId, MarginBasis.PROJECTED, pageable);
+
+        assertEquals(6, result.getTotalElements());
+        assertEquals(jobId, result.getContent().get(0).getJobId());
+        assertEquals(JobType.REPLACEMENT, result.getContent().get(0).getJobType());
+        assertEquals(new BigDecimal("41.50"), result.getContent().get(0).getProjectedMarginPercent());
+        verify(jobAccountingRollupRepository, never()).findActiveByTenantOrderByActualMargin(any(), any());
+    }
+
     @Test
     void createJobCostEntry_setsAuditFieldsAndRecordsActivity() {
         CreateJobCostEntryRequest request = new CreateJobCostEntryRequest();
@@ -12,12 +12,18 @@ import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.net.InetSocketAddress;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Objects;
+import java.util.Random;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class OpenAiReceiptExtractionClientTest {
 
@@ -65,6 +71,38 @@ class OpenAiReceiptExtractionClientTest {
         assertEquals(true, url.asText().startsWith("data:image/png;base64,"));
     }
 
+    @Test
+    void extract_streamsImageAsBase64DataUrlWithExactContentLength() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        AtomicReference<String> capturedBody = new AtomicReference<>();
+        AtomicReference<String> contentLength = new AtomicReference<>();
+        byte[] image = new byte[10_000];
+        new Random(7).nextBytes(image);
+
+        try (TestServer server = new TestServer(exchange -> {
+            contentLength.set(exchange.getRequestHeaders().getFirst("Content-Length"));
+            capturedBody.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            write(exchange, 200, minimalFullExtractionResponse());
+        })) {
+            OpenAiReceiptExtractionClient client = new OpenAiReceiptExtractionClient(
+                    RestClient.builder().baseUrl(Objects.requireNonNull(server.baseUrl())).build(),
+                    mapper,
+                    "test-key",
+                    "gpt-4o-mini",
+                    0
+            );
+            client.extract(new ReceiptExtractionClient.ReceiptVisionDocument(
+                    null, "full-image", "receipt.jpg", "image/jpeg", "Lumber \"yard\"", "image/jpeg", image, 100, 100,
+                    image.length));
+        }
+
+        JsonNode root = mapper.readTree(capturedBody.get());
+        assertEquals("data:image/jpeg;base64," + Base64.getEncoder().encodeToString(image),
+                root.at("/messages/1/content/1/image_url/url").asText());
+        assertEquals(true, root.at("/messages/1/content/0/text").asText().contains("Lumber \"yard\""));
+        assertEquals(String.valueOf(capturedBody.get().getBytes(StandardCharsets.UTF_8).length), contentLength.get());
+    }
+
     private static String minimalFullExtractionResponse() {
         return """
                 {"choices":[{"message":{"content":"{\\"vendorName\\":null,\\"incurredDate\\":null,\\"subtotal\\":null,\\"tax\\":null,\\"total\\":null,\\"amountPaid\\":null,\\"suggestedAmount\\":null,\\"suggestedCategory\\":null,\\"notes\\":null,\\"confidence\\":null,\\"rawExtractedText\\":null}"}}]}
@@ -126,14 +164,77 @@ class OpenAiReceiptExtractionClientTest {
         }
     }
 
+    @Test
+    void extractSummary_retriesRateLimitAfterRetryAfter() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        try (TestServer server = new TestServer(exchange -> {
+            if (requestCount.incrementAndGet() == 1) {
+                exchange.getResponseHeaders().add("Retry-After", "0");
+                write(exchange, 429, "{\"error\":\"rate limited\"}");
+                return;
+            }
+            write(exchange, 200, minimalSummaryExtractionResponse());
+        })) {
+            OpenAiReceiptExtractionClient client = new OpenAiReceiptExtractionClient(
+                    RestClient.builder().baseUrl(Objects.requireNonNull(server.baseUrl())).build(),
+                    new ObjectMapper(),
+                    "test-key",
+                    "gpt-4o-mini",
+                    1
+            );
+
+            client.extractSummary(document("summary-tight-baseline"));
+
+            assertEquals(2, requestCount.get());
+        }
+    }
+
+    @Test
+    void extractSummary_retryAfterBeyondCap_failsWithoutWaitingAndReportsIt() throws Exception {
+        AtomicInteger requestCount = new AtomicInteger();
+        try (TestServer server = new TestServer(exchange -> {
+            requestCount.incrementAndGet();
+            exchange.getResponseHeaders().add("Retry-After", "120");
+            write(exchange, 429, "{\"error\":\"rate limited\"}");
+        })) {
+            OpenAiReceiptExtractionClient client = new OpenAiReceiptExtractionClient(
+                    RestClient.builder().baseUrl(Objects.requireNonNull(server.baseUrl())).build(),
+                    new ObjectMapper(),
+                    "test-key",
+                    "gpt-4o-mini",
+                    3,
+                    10
+            );
+
+            ReceiptExtractionProviderException ex = assertThrows(ReceiptExtractionProviderException.class,
+                    () -> client.extractSummary(document("summary-tight-baseline")));
+
+            assertEquals(1, requestCount.get());
+            assertTrue(ex.isProviderDistress());
+            assertEquals(Duration.ofSeconds(120), ex.getRetryAfter());
+        }
+    }
+
+    @Test
+    void parseRetryAfter_acceptsSecondsAndHttpDate() {
+        Instant now = Instant.parse("2026-03-31T12:00:00Z");
+
+        assertEquals(Duration.ofSeconds(7), OpenAiReceiptExtractionClient.parseRetryAfter(" 7 ", now));
+        assertEquals(Duration.ofSeconds(90),
+                OpenAiReceiptExtractionClient.parseRetryAfter("Tue, 31 Mar 2026 12:01:30 GMT", now));
+        assertEquals(Duration.ZERO, OpenAiReceiptExtractionClient.parseRetryAfter("Tue, 31 Mar 2026 11:00:00 GMT", now));
+        assertNull(OpenAiReceiptExtractionClient.parseRetryAfter("soon", now));
+    }
+
     private static ReceiptExtractionClient.ReceiptVisionDocument document(String attemptLabel) {
         return new ReceiptExtractionClient.ReceiptVisionDocument(
+                null,
                 attemptLabel,
                 "receipt.png",
                 "image/png",
                 attemptLabel,
                 "image/png",
-                "ZmFrZQ==",
+                "fake".getBytes(StandardCharsets.US_ASCII),
                 1200,
                 400,
                 1024
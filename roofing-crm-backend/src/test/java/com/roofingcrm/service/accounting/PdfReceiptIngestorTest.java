@@ -0,0 +1,115 @@
+package com.roofingcrm.service.accounting;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PdfReceiptIngestorTest {
+
+    private final PdfReceiptIngestor ingestor =
+            new PdfReceiptIngestor(new PdfReceiptTextExtractor(), new ReceiptExtractionProperties().getPdf());
+
+    @Test
+    void ingest_multiPageInvoice_rendersFirstAndTotalsPageOnly() throws IOException {
+        byte[] pdf = pdf(PDRectangle.LETTER,
+                List.of("ABC SUPPLY CO.", "Invoice Date: 03/28/2026", "001 Shingles QTY 40 EACH 32.50 1300.00"),
+                List.of("Continued", "014 Drip edge QTY 10 EACH 8.40 84.00"),
+                List.of("SUBTOTAL 1455.24", "SALES TAX 109.14", "TOTAL DUE 1564.38"),
+                List.of("Terms and conditions", "Returns within 30 days"));
+
+        PdfReceiptIngestor.IngestedPdf ingested = ingestor.ingest(pdf);
+
+        assertEquals(4, ingested.pageCount());
+        assertEquals(2, ingested.summaryPageIndex());
+        assertEquals(List.of(0, 2), ingested.pages().stream().map(PdfReceiptIngestor.RenderedPage::pageIndex).toList());
+        assertTrue(ingested.embeddedText().contains("TOTAL DUE 1564.38"));
+        assertTrue(ingested.embeddedText().contains("Returns within 30 days"));
+        BufferedImage first = ingested.pages().getFirst().image();
+        assertEquals(first.getHeight() * 2, ingested.fullImage().getHeight());
+    }
+
+    @Test
+    void ingest_singlePage_usesPageForBothFullImageAndSummaryCrops() throws IOException {
+        byte[] pdf = pdf(PDRectangle.LETTER, List.of("ABC SUPPLY CO.", "TOTAL 88.10"));
+
+        PdfReceiptIngestor.IngestedPdf ingested = ingestor.ingest(pdf);
+
+        assertEquals(1, ingested.pages().size());
+        assertSame(ingested.fullImage(), ingested.summaryImage());
+        // Letter is 792pt tall: 2200px / 11in = 200 DPI.
+        assertEquals(200, ingested.pages().getFirst().dpi());
+        assertEquals(2200, ingested.fullImage().getHeight());
+    }
+
+    @Test
+    void ingest_withoutTextLayer_fallsBackToLastPage() throws IOException {
+        byte[] pdf = pdf(PDRectangle.LETTER, List.of(), List.of(), List.of());
+
+        assertEquals(2, ingestor.ingest(pdf).summaryPageIndex());
+    }
+
+    @Test
+    void ingest_emptyPdf_isRejected() throws IOException {
+        byte[] pdf = pdf(PDRectangle.LETTER);
+
+        assertThrows(IllegalArgumentException.class, () -> ingestor.ingest(pdf));
+    }
+
+    @Test
+    void dpiFor_fitsLongSideAndClampsToConfiguredRange() {
+        assertEquals(200, ingestor.dpiFor(PDRectangle.LETTER));
+        // A 3in x 6in thermal receipt would need 367 DPI; capped.
+        assertEquals(300, ingestor.dpiFor(new PDRectangle(216, 432)));
+        // Large-format plan sheet: floor keeps text legible.
+        assertEquals(110, ingestor.dpiFor(new PDRectangle(2592, 1728)));
+    }
+
+    @Test
+    void summaryImage_trimsBlankBottomOfTotalsPage() throws IOException {
+        byte[] pdf = pdf(PDRectangle.LETTER,
+                List.of("ABC SUPPLY CO."),
+                List.of("SUBTOTAL 10.00", "TAX 1.50", "TOTAL 11.50"));
+
+        PdfReceiptIngestor.IngestedPdf ingested = ingestor.ingest(pdf);
+
+        int pageHeight = ingested.pages().getLast().image().getHeight();
+        assertTrue(ingested.summaryImage().getHeight() < pageHeight / 2);
+        assertTrue(ingested.summaryImage().getHeight() >= pageHeight / 4);
+    }
+
+    @SafeVarargs
+    private static byte[] pdf(PDRectangle size, List<String>... pages) throws IOException {
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            for (List<String> lines : pages) {
+                PDPage page = new PDPage(size);
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    float y = size.getHeight() - 72;
+                    for (String line : lines) {
+                        content.beginText();
+                        content.setFont(PDType1Font.HELVETICA, 12);
+                        content.newLineAtOffset(72, y);
+                        content.showText(line);
+                        content.endText();
+                        y -= 18;
+                    }
+                }
+            }
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.roofingcrm.service.accounting;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ProviderCircuitBreakerTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final ProviderCircuitBreaker breaker = new ProviderCircuitBreaker(2, Duration.ofSeconds(30), nanos::get);
+
+    @Test
+    void lateSuccessFromBeforeOpening_doesNotCloseHalfOpenCircuit() {
+        ProviderCircuitBreaker.Permit slow = breaker.tryAcquire();
+        breaker.onFailure(breaker.tryAcquire(), null);
+        breaker.onFailure(breaker.tryAcquire(), null);
+        assertEquals(ProviderCircuitBreaker.State.OPEN, breaker.state());
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(31));
+        ProviderCircuitBreaker.Permit trial = breaker.tryAcquire();
+        assertNotNull(trial);
+        breaker.onSuccess(slow);
+
+        assertEquals(ProviderCircuitBreaker.State.HALF_OPEN, breaker.state());
+        assertNull(breaker.tryAcquire());
+
+        breaker.onSuccess(trial);
+        assertEquals(ProviderCircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void lateFailureFromBeforeClosing_doesNotCountAgainstClosedCircuit() {
+        ProviderCircuitBreaker.Permit slow = breaker.tryAcquire();
+        breaker.onFailure(breaker.tryAcquire(), Duration.ofSeconds(60));
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        breaker.onSuccess(breaker.tryAcquire());
+        assertEquals(ProviderCircuitBreaker.State.CLOSED, breaker.state());
+
+        breaker.onFailure(slow, null);
+        breaker.onFailure(breaker.tryAcquire(), null);
+
+        assertEquals(ProviderCircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void ignoredTrial_letsTheNextTrialThrough() {
+        breaker.onFailure(breaker.tryAcquire(), null);
+        breaker.onFailure(breaker.tryAcquire(), null);
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(31));
+
+        breaker.onIgnored(breaker.tryAcquire());
+
+        assertNotNull(breaker.tryAcquire());
+    }
+}
@@ -0,0 +1,280 @@
+package com.roofingcrm.service.accounting;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.roofingcrm.domain.entity.Attachment;
+import com.roofingcrm.storage.AttachmentStorageService;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Offline accuracy and cost benchmark for receipt extraction. Runs every receipt of a corpus through the real
+ * {@link ReceiptExtractionServiceImpl} with provider answers served by {@link RecordReplayReceiptExtractionClient}, and
+ * reports amount/date/vendor accuracy against the expected values, provider calls and CPU time per receipt.
+ *
+ * <p>Corpus layout:
+ * <pre>
+ * corpus/receipts/NAME.png|jpg|jpeg|pdf
+ * corpus/receipts/NAME.expected.json   {"vendorName": "ABC Supply", "incurredDate": "2026-03-31", "amount": 1564.38}
+ * corpus/recordings/KEY.json           written by record mode
+ * </pre>
+ *
+ * Record once against the live provider (needs APP_RECEIPT_EXTRACTION_OPENAI_API_KEY), then replay offline as often as
+ * needed:
+ * <pre>
+ * mvn -q exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.roofingcrm.service.accounting.ReceiptAccuracyHarness -Dexec.args="record /path/to/corpus"
+ * mvn -q exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.roofingcrm.service.accounting.ReceiptAccuracyHarness -Dexec.args="replay /path/to/corpus"
+ * </pre>
+ * {@link ReceiptAccuracyHarnessTest} runs the same harness over a generated corpus in CI.
+ */
+final class ReceiptAccuracyHarness {
+
+    private static final ObjectMapper JSON = new ObjectMapper().findAndRegisterModules();
+
+    record Expected(String vendorName, String incurredDate, BigDecimal amount) {
+    }
+
+    record ReceiptResult(String name,
+                         boolean amountMatch,
+                         boolean dateMatch,
+                         boolean vendorMatch,
+                         int providerCalls,
+                         long cpuNanos,
+                         String detail) {
+    }
+
+    record Report(List<ReceiptResult> receipts) {
+
+        double amountAccuracy() {
+            return share(ReceiptResult::amountMatch);
+        }
+
+        double dateAccuracy() {
+            return share(ReceiptResult::dateMatch);
+        }
+
+        double vendorAccuracy() {
+            return share(ReceiptResult::vendorMatch);
+        }
+
+        int providerCalls() {
+            return receipts.stream().mapToInt(ReceiptResult::providerCalls).sum();
+        }
+
+        double cpuMillisPerReceipt() {
+            return receipts.isEmpty() ? 0 : receipts.stream().mapToLong(ReceiptResult::cpuNanos).sum() / 1e6 / receipts.size();
+        }
+
+        String format() {
+            StringBuilder out = new StringBuilder();
+            out.append(String.format(Locale.ROOT, "%-28s %-6s %-6s %-6s %5s %9s  %s%n",
+                    "receipt", "amount", "date", "vendor", "calls", "cpu(ms)", "detail"));
+            for (ReceiptResult r : receipts) {
+                out.append(String.format(Locale.ROOT, "%-28s %-6s %-6s %-6s %5d %9.1f  %s%n",
+                        r.name(), mark(r.amountMatch()), mark(r.dateMatch()), mark(r.vendorMatch()),
+                        r.providerCalls(), r.cpuNanos() / 1e6, r.detail()));
+            }
+            out.append(String.format(Locale.ROOT,
+                    "accuracy: amount=%.1f%% date=%.1f%% vendor=%.1f%%  provider calls=%d  cpu/receipt=%.1fms%n",
+                    amountAccuracy() * 100, dateAccuracy() * 100, vendorAccuracy() * 100,
+                    providerCalls(), cpuMillisPerReceipt()));
+            return out.toString();
+        }
+
+        private double share(Predicate<ReceiptResult> match) {
+            return receipts.isEmpty() ? 0 : (double) receipts.stream().filter(match).count() / receipts.size();
+        }
+
+        private static String mark(boolean match) {
+            return match ? "ok" : "MISS";
+        }
+    }
+
+    private ReceiptAccuracyHarness() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2 || !(args[0].equals("record") || args[0].equals("replay"))) {
+            System.err.println("usage: ReceiptAccuracyHarness record|replay <corpus-dir>");
+            System.exit(2);
+        }
+        Path corpus = Path.of(args[1]);
+        RecordReplayReceiptExtractionClient.Mode mode = args[0].equals("record")
+                ? RecordReplayReceiptExtractionClient.Mode.RECORD
+                : RecordReplayReceiptExtractionClient.Mode.REPLAY;
+        ReceiptExtractionClient provider = mode == RecordReplayReceiptExtractionClient.Mode.RECORD ? liveProvider() : null;
+        Report report = run(corpus, mode, provider);
+        System.out.print(report.format());
+    }
+
+    static Report run(Path corpus, RecordReplayReceiptExtractionClient.Mode mode, ReceiptExtractionClient provider)
+            throws IOException {
+        CountingClient client = new CountingClient(new RecordReplayReceiptExtractionClient(
+                provider, corpus.resolve("recordings"), mode, JSON));
+        ReceiptExtractionServiceImpl service = new ReceiptExtractionServiceImpl(
+                new CorpusStorage(),
+                client,
+                new ReceiptAmountCandidateExtractor(),
+                new ReceiptExtractionDecisionService(),
+                new ReceiptImagePreprocessor(),
+                new ReceiptSummaryRegionExtractor(),
+                new SummaryFieldConsensusService(),
+                new PdfReceiptTextExtractor(),
+                new ReceiptDateCandidateRanker(),
+                new ReceiptExtractionProperties()
+        );
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        List<ReceiptResult> results = new ArrayList<>();
+        for (Path file : receiptFiles(corpus.resolve("receipts"))) {
+            String name = baseName(file);
+            Expected expected = JSON.readValue(file.resolveSibling(name + ".expected.json").toFile(), Expected.class);
+            client.calls.set(0);
+            long cpuStart = threads.getCurrentThreadCpuTime();
+            ReceiptExtractionService.ExtractionDraft draft = service.extractReceipt(attachment(file));
+            long cpuNanos = threads.getCurrentThreadCpuTime() - cpuStart;
+
+            boolean amountMatch = expected.amount() != null && draft.amount() != null
+                    && expected.amount().compareTo(draft.amount()) == 0;
+            LocalDate incurred = draft.incurredAt() == null ? null : draft.incurredAt().atZone(ZoneOffset.UTC).toLocalDate();
+            boolean dateMatch = expected.incurredDate() != null && incurred != null
+                    && LocalDate.parse(expected.incurredDate()).equals(incurred);
+            boolean vendorMatch = vendorMatches(expected.vendorName(), draft.vendorName());
+            String detail = draft.error() != null
+                    ? draft.error()
+                    : "amount=%s date=%s vendor=%s".formatted(draft.amount(), incurred, draft.vendorName());
+            results.add(new ReceiptResult(name, amountMatch, dateMatch, vendorMatch, client.calls.get(), cpuNanos, detail));
+        }
+        return new Report(results);
+    }
+
+    /** Case, spacing and punctuation differences ("ABC SUPPLY CO." vs "ABC Supply") are not vendor misses. */
+    static boolean vendorMatches(String expected, String actual) {
+        if (expected == null || actual == null) {
+            return expected == null && actual == null;
+        }
+        String e = expected.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+        String a = actual.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+        return !e.isEmpty() && !a.isEmpty() && (a.contains(e) || e.contains(a));
+    }
+
+    private static List<Path> receiptFiles(Path receipts) throws IOException {
+        try (Stream<Path> files = Files.list(receipts)) {
+            return files.filter(f -> contentType(f) != null).sorted().toList();
+        }
+    }
+
+    private static Attachment attachment(Path file) {
+        Attachment attachment = new Attachment();
+        attachment.setId(UUID.nameUUIDFromBytes(file.getFileName().toString().getBytes()));
+        attachment.setFileName(file.getFileName().toString());
+        attachment.setContentType(contentType(file));
+        attachment.setStorageKey(file.toAbsolutePath().toString());
+        return attachment;
+    }
+
+    private static String contentType(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".png")) {
+            return "image/png";
+        }
+        if (name.endsWith(".jpg") || name.endsWith(".jpeg")) {
+            return "image/jpeg";
+        }
+        if (name.endsWith(".pdf")) {
+            return "application/pdf";
+        }
+        return null;
+    }
+
+    private static String baseName(Path file) {
+        String name = file.getFileName().toString();
+        return name.substring(0, name.lastIndexOf('.'));
+    }
+
+    private static ReceiptExtractionClient liveProvider() {
+        String apiKey = System.getenv("APP_RECEIPT_EXTRACTION_OPENAI_API_KEY");
+        if (apiKey == null || apiKey.isBlank()) {
+            throw new IllegalStateException("Recording needs APP_RECEIPT_EXTRACTION_OPENAI_API_KEY");
+        }
+        ReceiptExtractionProperties.OpenAi openAi = new ReceiptExtractionProperties().getOpenai();
+        String model = System.getenv().getOrDefault("APP_RECEIPT_EXTRACTION_OPENAI_MODEL", openAi.getModel());
+        return new OpenAiReceiptExtractionClient(RestClient.builder(), JSON, openAi.getBaseUrl(), apiKey, model,
+                openAi.getConnectTimeoutSeconds(), openAi.getReadTimeoutSeconds(), openAi.getMaxRetries(),
+                openAi.getMaxRetryAfterSeconds());
+    }
+
+    /** Storage keys are absolute corpus file paths. */
+    private static final class CorpusStorage implements AttachmentStorageService {
+
+        @Override
+        public String store(String tenantSlug, UUID attachmentId, MultipartFile file) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String store(String tenantSlug, UUID attachmentId, String filename, InputStream content) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public InputStream loadAsStream(String storageKey) {
+            try {
+                return Files.newInputStream(Path.of(storageKey));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        @Override
+        public void delete(String storageKey) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static final class CountingClient implements ReceiptExtractionClient {
+
+        private final ReceiptExtractionClient delegate;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private CountingClient(ReceiptExtractionClient delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public ExtractedReceiptData extract(ReceiptVisionDocument document) {
+            calls.incrementAndGet();
+            return delegate.extract(document);
+        }
+
+        @Override
+        public ExtractedReceiptData extractSummary(ReceiptVisionDocument document) {
+            calls.incrementAndGet();
+            return delegate.extractSummary(document);
+        }
+
+        @Override
+        public ExtractedReceiptData interpretFromTranscribedText(String fullTranscribedText,
+                                                                 String summaryTranscribedText,
+                                                                 ReceiptTextInterpretationContext context) {
+            calls.incrementAndGet();
+            return delegate.interpretFromTranscribedText(fullTranscribedText, summaryTranscribedText, context);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.roofingcrm.service.accounting;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs {@link ReceiptAccuracyHarness} over a generated corpus. The scripted provider answers like a vision model
+ * would, misreading the full image of one receipt, so the decision and consensus logic is exercised end to end.
+ */
+class ReceiptAccuracyHarnessTest {
+
+    private record Truth(String vendor, String date, String subtotal, String tax, String total) {
+    }
+
+    private static final Map<String, Truth> CORPUS = Map.of(
+            "lumber-yard.png", new Truth("ABC Supply", "2026-03-31", "1455.24", "109.14", "1564.38"),
+            "misread-full-image.png", new Truth("Beacon Roofing Supply", "2026-02-14", "820.00", "61.50", "881.50")
+    );
+
+    @TempDir
+    Path corpus;
+
+    @Test
+    void replay_reproducesRecordedRunOfflineAndReportsAccuracy() throws Exception {
+        writeCorpus();
+        ScriptedProvider provider = new ScriptedProvider();
+
+        ReceiptAccuracyHarness.Report recorded =
+                ReceiptAccuracyHarness.run(corpus, RecordReplayReceiptExtractionClient.Mode.RECORD, provider);
+        int liveCalls = provider.calls.get();
+        ReceiptAccuracyHarness.Report replayed =
+                ReceiptAccuracyHarness.run(corpus, RecordReplayReceiptExtractionClient.Mode.REPLAY, null);
+
+        assertEquals(liveCalls, provider.calls.get(), "replay must not call the provider");
+        assertEquals(recorded.providerCalls(), replayed.providerCalls());
+        assertEquals(liveCalls, replayed.providerCalls());
+        assertEquals(1.0, replayed.amountAccuracy());
+        assertEquals(1.0, replayed.dateAccuracy());
+        assertEquals(1.0, replayed.vendorAccuracy());
+        assertEquals(List.of("lumber-yard", "misread-full-image"),
+                replayed.receipts().stream().map(ReceiptAccuracyHarness.ReceiptResult::name).toList());
+        for (int i = 0; i < recorded.receipts().size(); i++) {
+            ReceiptAccuracyHarness.ReceiptResult result = replayed.receipts().get(i);
+            assertTrue(result.amountMatch() && result.dateMatch() && result.vendorMatch(), result.detail());
+            assertTrue(result.providerCalls() > 0);
+            assertEquals(recorded.receipts().get(i).providerCalls(), result.providerCalls());
+            assertEquals(recorded.receipts().get(i).detail(), result.detail());
+        }
+        assertTrue(replayed.cpuMillisPerReceipt() >= 0);
+        assertTrue(replayed.format().contains("accuracy: amount=100.0% date=100.0% vendor=100.0%"));
+    }
+
+    @Test
+    void replay_withoutRecording_reportsProviderFailureInsteadOfCallingOut() throws Exception {
+        writeCorpus();
+
+        ReceiptAccuracyHarness.Report report =
+                ReceiptAccuracyHarness.run(corpus, RecordReplayReceiptExtractionClient.Mode.REPLAY, null);
+
+        assertEquals(0.0, report.amountAccuracy());
+        assertTrue(report.receipts().stream().allMatch(r -> r.detail().contains("provider")));
+    }
+
+    @Test
+    void vendorMatches_ignoresCaseAndPunctuation() {
+        assertTrue(ReceiptAccuracyHarness.vendorMatches("ABC Supply", "ABC SUPPLY CO."));
+        assertFalse(ReceiptAccuracyHarness.vendorMatches("ABC Supply", "Home Depot"));
+        assertFalse(ReceiptAccuracyHarness.vendorMatches("ABC Supply", null));
+    }
+
+    private void writeCorpus() throws IOException {
+        Path receipts = Files.createDirectories(corpus.resolve("receipts"));
+        ObjectMapper mapper = new ObjectMapper();
+        for (Map.Entry<String, Truth> entry : CORPUS.entrySet()) {
+            Truth truth = entry.getValue();
+            ImageIO.write(render(truth), "png", receipts.resolve(entry.getKey()).toFile());
+            String name = entry.getKey().substring(0, entry.getKey().lastIndexOf('.'));
+            mapper.writeValue(receipts.resolve(name + ".expected.json").toFile(), Map.of(
+                    "vendorName", truth.vendor(),
+                    "incurredDate", truth.date(),
+                    "amount", new BigDecimal(truth.total())));
+        }
+    }
+
+    private static BufferedImage render(Truth truth) {
+        BufferedImage image = new BufferedImage(800, 1200, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+            graphics.setColor(Color.BLACK);
+            graphics.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 22));
+            graphics.drawString(truth.vendor().toUpperCase(), 120, 120);
+            graphics.drawString(truth.date(), 120, 160);
+            graphics.drawString("SUBTOTAL " + truth.subtotal(), 120, 1000);
+            graphics.drawString("TAX " + truth.tax(), 120, 1040);
+            graphics.drawString("TOTAL " + truth.total(), 120, 1080);
+        } finally {
+            graphics.dispose();
+        }
+        return image;
+    }
+
+    /** Stands in for the live provider while recording. */
+    private static final class ScriptedProvider implements ReceiptExtractionClient {
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public ExtractedReceiptData extract(ReceiptVisionDocument document) {
+            calls.incrementAndGet();
+            Truth truth = CORPUS.get(document.fileName());
+            // The misread receipt's full image reports the subtotal as the total, as models do on crowded receipts.
+            String total = document.fileName().startsWith("misread") ? truth.subtotal() : truth.total();
+            return new ExtractedReceiptData(
+                    truth.vendor(),
+                    truth.date(),
+                    new BigDecimal(truth.subtotal()),
+                    new BigDecimal(truth.tax()),
+                    new BigDecimal(total),
+                    null,
+                    new BigDecimal(total),
+                    null,
+                    null,
+                    80,
+                    "SUBTOTAL %s TAX %s TOTAL %s".formatted(truth.subtotal(), truth.tax(), total));
+        }
+
+        @Override
+        public ExtractedReceiptData extractSummary(ReceiptVisionDocument document) {
+            calls.incrementAndGet();
+            Truth truth = CORPUS.get(document.fileName());
+            return new ExtractedReceiptData(
+                    null,
+                    null,
+                    new BigDecimal(truth.subtotal()),
+                    new BigDecimal(truth.tax()),
+                    new BigDecimal(truth.total()),
+                    new BigDecimal(truth.total()),
+                    null,
+                    null,
+                    null,
+                    88,
+                    "Subtotal %s\nTax %s\nTotal %s".formatted(truth.subtotal(), truth.tax(), truth.total()));
+        }
+
+        @Override
+        public ExtractedReceiptData interpretFromTranscribedText(String fullTranscribedText,
+                                                                 String summaryTranscribedText,
+                                                                 ReceiptTextInterpretationContext context) {
+            calls.incrementAndGet();
+            return new ExtractedReceiptData(null, null, null, null, null, null, null, null, null, null, null);
+        }
+    }
+}
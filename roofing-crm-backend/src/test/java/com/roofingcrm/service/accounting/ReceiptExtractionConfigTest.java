@@ -1,6 +1,7 @@
 package com.roofingcrm.service.accounting;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.web.client.RestClient;
 
@@ -13,7 +14,7 @@ class ReceiptExtractionConfigTest {
     private final ReceiptExtractionConfig config = new ReceiptExtractionConfig();
 
     @Test
-    void receiptExtractionClient_whenEnabledWithOpenAiConfig_returnsOpenAiClient() {
+    void receiptExtractionClient_whenEnabledWithOpenAiConfig_returnsGatewayOverOpenAiClient() {
         ReceiptExtractionProperties properties = new ReceiptExtractionProperties();
         properties.setEnabled(true);
         properties.setProvider(" OPENAI ");
@@ -23,10 +24,28 @@ class ReceiptExtractionConfigTest {
         ReceiptExtractionClient client = config.receiptExtractionClient(
                 mock(RestClient.Builder.class, RETURNS_SELF),
                 new ObjectMapper(),
-                properties
+                properties,
+                new SimpleMeterRegistry()
         );
 
-        assertInstanceOf(OpenAiReceiptExtractionClient.class, client);
+        ReceiptExtractionGateway gateway = assertInstanceOf(ReceiptExtractionGateway.class, client);
+        assertInstanceOf(OpenAiReceiptExtractionClient.class, gateway.delegate());
+    }
+
+    @Test
+    void receiptExtractionClient_whenReplayModeConfigured_returnsReplayClientWithoutApiKey() {
+        ReceiptExtractionProperties properties = new ReceiptExtractionProperties();
+        properties.getRecordReplay().setMode(" REPLAY ");
+        properties.getRecordReplay().setDirectory("target/receipt-recordings");
+
+        ReceiptExtractionClient client = config.receiptExtractionClient(
+                mock(RestClient.Builder.class, RETURNS_SELF),
+                new ObjectMapper(),
+                properties,
+                new SimpleMeterRegistry()
+        );
+
+        assertInstanceOf(RecordReplayReceiptExtractionClient.class, client);
     }
 
     @Test
@@ -36,7 +55,8 @@ class ReceiptExtractionConfigTest {
         ReceiptExtractionClient client = config.receiptExtractionClient(
                 mock(RestClient.Builder.class, RETURNS_SELF),
                 new ObjectMapper(),
-                properties
+                properties,
+                new SimpleMeterRegistry()
         );
 
         assertInstanceOf(NoopReceiptExtractionClient.class, client);
@@ -51,7 +71,8 @@ class ReceiptExtractionConfigTest {
         ReceiptExtractionClient client = config.receiptExtractionClient(
                 mock(RestClient.Builder.class, RETURNS_SELF),
                 new ObjectMapper(),
-                properties
+                properties,
+                new SimpleMeterRegistry()
         );
 
         assertInstanceOf(NoopReceiptExtractionClient.class, client);
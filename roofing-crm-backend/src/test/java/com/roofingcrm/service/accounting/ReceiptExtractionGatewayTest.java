@@ -0,0 +1,328 @@
+package com.roofingcrm.service.accounting;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReceiptExtractionGatewayTest {
+
+    private static final UUID TENANT_ID = UUID.randomUUID();
+    private static final ReceiptExtractionClient.ExtractedReceiptData EMPTY =
+            new ReceiptExtractionClient.ExtractedReceiptData(null, null, null, null, null, null, null, null, null, null, null);
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void repeatedOverload_opensCircuitAndShortCircuitsWithoutCallingProvider() {
+        ScriptedClient provider = new ScriptedClient();
+        provider.failWith(new ReceiptExtractionProviderException("503", null, true, null));
+        ReceiptExtractionGateway gateway = gateway(provider, properties());
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(ReceiptExtractionProviderException.class, () -> gateway.extract(document()));
+        }
+        ReceiptExtractionThrottledException rejected =
+                assertThrows(ReceiptExtractionThrottledException.class, () -> gateway.extract(document()));
+
+        assertEquals(3, provider.calls.get());
+        assertTrue(rejected.getMessage().contains("retrying in 30s"));
+        assertEquals(1.0, meterRegistry.get("receipt.extraction.provider.rejected").tag("reason", "circuit_open").counter().count());
+        assertEquals(1.0, meterRegistry.get("receipt.extraction.provider.circuit_open").gauge().value());
+    }
+
+    @Test
+    void openCircuit_letsOneTrialThroughAfterOpenPeriod_andClosesOnSuccess() {
+        ScriptedClient provider = new ScriptedClient();
+        provider.failWith(new ReceiptExtractionProviderException("503", null, true, null));
+        ReceiptExtractionGateway gateway = gateway(provider, properties());
+        for (int i = 0; i < 3; i++) {
+            assertThrows(ReceiptExtractionProviderException.class, () -> gateway.extract(document()));
+        }
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(31));
+        provider.succeed();
+        gateway.extract(document());
+        gateway.extract(document());
+
+        assertEquals(5, provider.calls.get());
+        assertEquals(0.0, meterRegistry.get("receipt.extraction.provider.circuit_open").gauge().value());
+    }
+
+    @Test
+    void retryAfter_pausesCallsForThatLongEvenBelowThreshold() {
+        ScriptedClient provider = new ScriptedClient();
+        provider.failWith(new ReceiptExtractionProviderException("429", null, true, Duration.ofSeconds(90)));
+        ReceiptExtractionGateway gateway = gateway(provider, properties());
+
+        assertThrows(ReceiptExtractionProviderException.class, () -> gateway.extractSummary(document()));
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(60));
+        ReceiptExtractionThrottledException rejected =
+                assertThrows(ReceiptExtractionThrottledException.class, () -> gateway.extractSummary(document()));
+
+        assertEquals(1, provider.calls.get());
+        assertTrue(rejected.getMessage().contains("retrying in 30s"));
+    }
+
+    @Test
+    void badRequest_doesNotCountAgainstProviderHealth() {
+        ScriptedClient provider = new ScriptedClient();
+        provider.failWith(new ReceiptExtractionProviderException("400"));
+        ReceiptExtractionGateway gateway = gateway(provider, properties());
+
+        for (int i = 0; i < 5; i++) {
+            assertThrows(ReceiptExtractionProviderException.class, () -> gateway.extract(document()));
+        }
+
+        assertEquals(5, provider.calls.get());
+        assertEquals(4.0, meterRegistry.get("receipt.extraction.provider.concurrency_limit").gauge().value());
+    }
+
+    @Test
+    void overload_halvesConcurrencyLimit() {
+        ScriptedClient provider = new ScriptedClient();
+        provider.failWith(new ReceiptExtractionProviderException("429", null, true, null));
+        ReceiptExtractionGateway gateway = gateway(provider, properties());
+
+        assertThrows(ReceiptExtractionProviderException.class, () -> gateway.extract(document()));
+        assertThrows(ReceiptExtractionProviderException.class, () -> gateway.extract(document()));
+
+        assertEquals(1.0, meterRegistry.get("receipt.extraction.provider.concurrency_limit").gauge().value());
+    }
+
+    @Test
+    void tenantBudget_rejectsOnceHourlyTokensAreSpent_otherTenantsUnaffected() {
+        ScriptedClient provider = new ScriptedClient();
+        ReceiptExtractionProperties.Gateway properties = properties();
+        long perCall = ReceiptExtractionGateway.estimateVisionTokens(document());
+        properties.setTenantTokensPerHour(perCall * 2);
+        ReceiptExtractionGateway gateway = gateway(provider, properties);
+
+        gateway.extract(document());
+        gateway.extract(document());
+        ReceiptExtractionThrottledException rejected =
+                assertThrows(ReceiptExtractionThrottledException.class, () -> gateway.extract(document()));
+        gateway.extract(documentFor(UUID.randomUUID()));
+
+        assertEquals(Duration.ofHours(1), rejected.getRetryAfter());
+        assertTrue(rejected.getMessage().contains("resets in 60 min"));
+
+        assertEquals(3, provider.calls.get());
+        assertEquals(1.0, meterRegistry.get("receipt.extraction.provider.rejected").tag("reason", "budget").counter().count());
+    }
+
+    @Test
+    void estimateVisionTokens_followsHighDetailTiling() {
+        // 1400x2100 -> fits 2048 as 1365x2048 -> short side 768 as 768x1152 -> 2x3 tiles.
+        ReceiptExtractionClient.ReceiptVisionDocument document = new ReceiptExtractionClient.ReceiptVisionDocument(
+                TENANT_ID, "full-image", "r.png", "image/png", null, "image/png", new byte[0], 1400, 2100, 0);
+
+        assertEquals(85 + 170 * 6 + 900, ReceiptExtractionGateway.estimateVisionTokens(document));
+    }
+
+    @Test
+    void againstLocalStub_rateLimitedProviderIsPausedAndSlowCallsBoundConcurrency() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        CountDownLatch slowCallStarted = new CountDownLatch(1);
+        HttpServer server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.createContext("/v1/chat/completions", exchange -> {
+            try {
+                exchange.getRequestBody().readAllBytes();
+                int n = requests.incrementAndGet();
+                if (n == 1) {
+                    slowCallStarted.countDown();
+                    sleep(400);
+                    write(exchange, 200, summaryResponse());
+                } else {
+                    exchange.getResponseHeaders().add("Retry-After", "120");
+                    write(exchange, 429, "{\"error\":\"rate limited\"}");
+                }
+            } finally {
+                exchange.close();
+            }
+        });
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.start();
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            OpenAiReceiptExtractionClient client = new OpenAiReceiptExtractionClient(
+                    RestClient.builder().baseUrl("http://localhost:" + server.getAddress().getPort()).build(),
+                    new ObjectMapper(), "test-key", "gpt-4o-mini", 1, 5);
+            ReceiptExtractionProperties.Gateway properties = properties();
+            properties.setInitialConcurrency(1);
+            properties.setMaxConcurrency(1);
+            properties.setAcquireTimeoutMillis(50);
+            ReceiptExtractionGateway gateway = new ReceiptExtractionGateway(client, properties, meterRegistry);
+
+            Future<ReceiptExtractionClient.ExtractedReceiptData> slow = callers.submit(() -> gateway.extractSummary(document()));
+            assertTrue(slowCallStarted.await(5, TimeUnit.SECONDS));
+            assertThrows(ReceiptExtractionThrottledException.class, () -> gateway.extractSummary(document()));
+            slow.get(5, TimeUnit.SECONDS);
+
+            ReceiptExtractionProviderException rateLimited =
+                    assertThrows(ReceiptExtractionProviderException.class, () -> gateway.extractSummary(document()));
+            assertEquals(Duration.ofSeconds(120), rateLimited.getRetryAfter());
+            assertThrows(ReceiptExtractionThrottledException.class, () -> gateway.extractSummary(document()));
+
+            assertEquals(2, requests.get());
+            assertEquals(1.0, meterRegistry.get("receipt.extraction.provider.rejected").tag("reason", "concurrency").counter().count());
+            assertEquals(1, meterRegistry.get("receipt.extraction.provider.latency")
+                    .tag("operation", "summary").tag("outcome", "success").timer().count());
+        } finally {
+            callers.shutdownNow();
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void againstLocalStub_retryBackoffReleasesPermitForOtherCalls() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        CountDownLatch backingOff = new CountDownLatch(1);
+        HttpServer server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.createContext("/v1/chat/completions", exchange -> {
+            try {
+                exchange.getRequestBody().readAllBytes();
+                if (requests.incrementAndGet() == 1) {
+                    exchange.getResponseHeaders().add("Retry-After", "1");
+                    write(exchange, 429, "{\"error\":\"rate limited\"}");
+                    backingOff.countDown();
+                } else {
+                    write(exchange, 200, summaryResponse());
+                }
+            } finally {
+                exchange.close();
+            }
+        });
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.start();
+        ExecutorService callers = Executors.newFixedThreadPool(1);
+        try {
+            OpenAiReceiptExtractionClient client = new OpenAiReceiptExtractionClient(
+                    RestClient.builder().baseUrl("http://localhost:" + server.getAddress().getPort()).build(),
+                    new ObjectMapper(), "test-key", "gpt-4o-mini", 1, 5);
+            ReceiptExtractionProperties.Gateway properties = properties();
+            properties.setInitialConcurrency(1);
+            properties.setMaxConcurrency(1);
+            properties.setAcquireTimeoutMillis(200);
+            ReceiptExtractionGateway gateway = new ReceiptExtractionGateway(client, properties, meterRegistry);
+
+            Future<ReceiptExtractionClient.ExtractedReceiptData> retried =
+                    callers.submit(() -> gateway.extractSummary(document()));
+            assertTrue(backingOff.await(5, TimeUnit.SECONDS));
+            sleep(100);
+            gateway.extractSummary(document());
+            retried.get(5, TimeUnit.SECONDS);
+
+            assertEquals(3, requests.get());
+            assertEquals(0.0, meterRegistry.get("receipt.extraction.provider.in_flight").gauge().value());
+        } finally {
+            callers.shutdownNow();
+            server.stop(0);
+        }
+    }
+
+    private ReceiptExtractionGateway gateway(ReceiptExtractionClient provider, ReceiptExtractionProperties.Gateway properties) {
+        return new ReceiptExtractionGateway(provider, properties, meterRegistry, nanos::get, () -> 0L);
+    }
+
+    private static ReceiptExtractionProperties.Gateway properties() {
+        ReceiptExtractionProperties.Gateway properties = new ReceiptExtractionProperties.Gateway();
+        properties.setFailureThreshold(3);
+        properties.setOpenSeconds(30);
+        properties.setAcquireTimeoutMillis(0);
+        return properties;
+    }
+
+    private static ReceiptExtractionClient.ReceiptVisionDocument document() {
+        return documentFor(TENANT_ID);
+    }
+
+    private static ReceiptExtractionClient.ReceiptVisionDocument documentFor(UUID tenantId) {
+        return new ReceiptExtractionClient.ReceiptVisionDocument(
+                tenantId, "summary-tight-baseline", "receipt.png", "image/png", null, "image/png",
+                "fake".getBytes(StandardCharsets.US_ASCII), 1200, 400, 4);
+    }
+
+    private static String summaryResponse() {
+        return """
+                {"choices":[{"message":{"content":"{\\"subtotal\\":null,\\"tax\\":null,\\"total\\":null,\\"amountPaid\\":null,\\"confidence\\":null,\\"rawExtractedText\\":null}"}}]}
+                """;
+    }
+
+    private static void write(com.sun.net.httpserver.HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(bytes);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class ScriptedClient implements ReceiptExtractionClient {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile RuntimeException failure;
+
+        void failWith(RuntimeException failure) {
+            this.failure = failure;
+        }
+
+        void succeed() {
+            this.failure = null;
+        }
+
+        @Override
+        public ExtractedReceiptData extract(ReceiptVisionDocument document) {
+            return answer();
+        }
+
+        @Override
+        public ExtractedReceiptData extractSummary(ReceiptVisionDocument document) {
+            return answer();
+        }
+
+        @Override
+        public ExtractedReceiptData interpretFromTranscribedText(String fullTranscribedText,
+                                                                 String summaryTranscribedText,
+                                                                 ReceiptTextInterpretationContext context) {
+            return answer();
+        }
+
+        private ExtractedReceiptData answer() {
+            calls.incrementAndGet();
+            RuntimeException current = failure;
+            if (current != null) {
+                throw current;
+            }
+            return EMPTY;
+        }
+    }
+}
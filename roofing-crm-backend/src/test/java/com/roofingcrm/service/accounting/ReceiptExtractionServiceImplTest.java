@@ -75,7 +75,7 @@ class ReceiptExtractionServiceImplTest {
         when(receiptExtractionClient.extract(any())).thenReturn(fullResult());
         when(receiptExtractionClient.extractSummary(any()))
                 .thenThrow(new ReceiptExtractionProviderException("summary failed"));
-        when(amountCandidateExtractor.extractCandidates(any())).thenReturn(emptyCandidates());
+        when(amountCandidateExtractor.extractCandidates(any(ReceiptText.class))).thenReturn(emptyCandidates());
         when(extractionDecisionService.decideAmount(any(), any(), any(), anyBoolean(), any())).thenReturn(highDecision());
 
         ReceiptExtractionService.ExtractionDraft result = service.extractReceipt(receipt);
@@ -93,7 +93,7 @@ class ReceiptExtractionServiceImplTest {
         when(attachmentStorageService.loadAsStream(anyString())).thenReturn(stream(testImageBytes()));
         when(receiptExtractionClient.extract(any())).thenReturn(fullResult());
         when(receiptExtractionClient.extractSummary(any())).thenReturn(summaryResult());
-        when(amountCandidateExtractor.extractCandidates(any())).thenReturn(emptyCandidates());
+        when(amountCandidateExtractor.extractCandidates(any(ReceiptText.class))).thenReturn(emptyCandidates());
         when(extractionDecisionService.decideAmount(any(), any(), any(), anyBoolean(), any())).thenReturn(highDecision());
 
         ReceiptExtractionService.ExtractionDraft result = service.extractReceipt(receipt);
@@ -114,7 +114,7 @@ class ReceiptExtractionServiceImplTest {
                 .thenReturn(summaryResult())
                 .thenReturn(summaryResult())
                 .thenReturn(summaryResult());
-        when(amountCandidateExtractor.extractCandidates(any())).thenReturn(emptyCandidates());
+        when(amountCandidateExtractor.extractCandidates(any(ReceiptText.class))).thenReturn(emptyCandidates());
         when(extractionDecisionService.decideAmount(any(), any(), any(), anyBoolean(), any()))
                 .thenReturn(lowDecision())
                 .thenReturn(highDecision());
@@ -0,0 +1,90 @@
+package com.roofingcrm.service.accounting;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReceiptImageEncoderTest {
+
+    @Test
+    void encode_binarizedTextPrefersPng() throws Exception {
+        ReceiptImageEncoder.EncodedImage encoded = new ReceiptImageEncoder(1_500_000, 0.85f).encode(textImage(1200, 1600));
+
+        assertEquals(ReceiptImageEncoder.PNG, encoded.mimeType());
+        assertEquals(1200, encoded.width());
+        assertEquals(1600, encoded.height());
+        assertDecodes(encoded);
+    }
+
+    @Test
+    void encode_photographicNoisePrefersJpeg() throws Exception {
+        ReceiptImageEncoder.EncodedImage encoded = new ReceiptImageEncoder(10_000_000, 0.85f).encode(noiseImage(800, 800));
+
+        assertEquals(ReceiptImageEncoder.JPEG, encoded.mimeType());
+        assertDecodes(encoded);
+    }
+
+    @Test
+    void encode_overBudget_lowersQualityThenDownscalesUntilItFits() throws Exception {
+        int budget = 150_000;
+        ReceiptImageEncoder.EncodedImage encoded = new ReceiptImageEncoder(budget, 0.95f).encode(noiseImage(1600, 1600));
+
+        assertTrue(encoded.byteSize() <= budget, "encoded " + encoded.byteSize() + " bytes over budget " + budget);
+        assertTrue(encoded.width() < 1600);
+        assertEquals(encoded.width(), encoded.height());
+        assertDecodes(encoded);
+    }
+
+    @Test
+    void encode_neverShrinksBelowLegibleSize() throws Exception {
+        ReceiptImageEncoder.EncodedImage encoded = new ReceiptImageEncoder(1_000, 0.85f).encode(noiseImage(1000, 1000));
+
+        assertTrue(encoded.width() >= 480);
+        assertTrue(encoded.byteSize() > 1_000);
+    }
+
+    private static void assertDecodes(ReceiptImageEncoder.EncodedImage encoded) throws Exception {
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(encoded.bytes()));
+        assertNotNull(decoded);
+        assertEquals(encoded.width(), decoded.getWidth());
+        assertEquals(encoded.height(), decoded.getHeight());
+    }
+
+    private static BufferedImage textImage(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.setColor(Color.BLACK);
+            for (int y = 40; y < height; y += 40) {
+                graphics.drawString("2x4 STUD 8FT        12 @ 4.98      59.76", 40, y);
+            }
+        } finally {
+            graphics.dispose();
+        }
+        return image;
+    }
+
+    private static BufferedImage noiseImage(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int base = 128 + (int) (60 * Math.sin(x / 40.0) * Math.cos(y / 55.0));
+                int value = Math.max(0, Math.min(255, base + random.nextInt(41) - 20));
+                image.setRGB(x, y, (value << 16) | (value << 8) | value);
+            }
+        }
+        return image;
+    }
+}
@@ -0,0 +1,311 @@
+package com.roofingcrm.service.accounting;
+
+import com.roofingcrm.api.v1.accounting.ReceiptImportBatchDto;
+import com.roofingcrm.api.v1.accounting.ReceiptImportItemDto;
+import com.roofingcrm.domain.entity.Attachment;
+import com.roofingcrm.domain.entity.Job;
+import com.roofingcrm.domain.entity.ReceiptImportBatch;
+import com.roofingcrm.domain.entity.ReceiptImportItem;
+import com.roofingcrm.domain.entity.Tenant;
+import com.roofingcrm.domain.enums.ActivityEntityType;
+import com.roofingcrm.domain.enums.ActivityEventType;
+import com.roofingcrm.domain.enums.AttachmentTag;
+import com.roofingcrm.domain.enums.ReceiptExtractionStatus;
+import com.roofingcrm.domain.enums.ReceiptImportItemStatus;
+import com.roofingcrm.domain.repository.AttachmentRepository;
+import com.roofingcrm.domain.repository.JobRepository;
+import com.roofingcrm.domain.repository.ReceiptImportBatchRepository;
+import com.roofingcrm.service.activity.ActivityEventService;
+import com.roofingcrm.service.attachment.AttachmentUploadProperties;
+import com.roofingcrm.service.attachment.AttachmentUploadValidator;
+import com.roofingcrm.service.tenant.TenantAccessService;
+import com.roofingcrm.storage.AttachmentStorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static com.roofingcrm.service.attachment.UploadValidationTestFixtures.MINIMAL_PDF_BYTES;
+import static com.roofingcrm.service.attachment.UploadValidationTestFixtures.MINIMAL_PNG_BYTES;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.endsWith;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings("null")
+class ReceiptImportServiceImplUnitTest {
+
+    @Mock
+    private TenantAccessService tenantAccessService;
+    @Mock
+    private AttachmentRepository attachmentRepository;
+    @Mock
+    private JobRepository jobRepository;
+    @Mock
+    private ReceiptImportBatchRepository batchRepository;
+    @Mock
+    private AttachmentStorageService attachmentStorageService;
+    @Mock
+    private ActivityEventService activityEventService;
+    @Mock
+    private ReceiptBatchExtractionDispatcher extractionDispatcher;
+
+    private ReceiptExtractionProperties extractionProperties;
+    private UUID tenantId;
+    private UUID userId;
+    private UUID jobId;
+    private Tenant tenant;
+    private Job job;
+
+    @BeforeEach
+    void setUp() {
+        extractionProperties = new ReceiptExtractionProperties();
+        tenantId = UUID.randomUUID();
+        userId = UUID.randomUUID();
+        jobId = UUID.randomUUID();
+
+        tenant = new Tenant();
+        tenant.setId(tenantId);
+        tenant.setSlug("tenant-slug");
+
+        job = new Job();
+        job.setId(jobId);
+        job.setTenant(tenant);
+    }
+
+    @Test
+    void importReceipts_storesPartsAndZipEntriesAndSkipsDuplicates() throws IOException {
+        byte[] existingPdf = pdf("existing");
+        Attachment existing = new Attachment();
+        existing.setId(UUID.randomUUID());
+        existing.setExtractionStatus(ReceiptExtractionStatus.COMPLETED);
+        stubImport(List.of(hashView(existing.getId(), sha256(existingPdf))));
+        when(attachmentRepository.getReferenceById(existing.getId())).thenReturn(existing);
+
+        byte[] zip = zip(
+                "march/a.pdf", pdf("a"),
+                "march/b.png", MINIMAL_PNG_BYTES,
+                "__MACOSX/march/._b.png", new byte[]{0},
+                "march/.DS_Store", new byte[]{0},
+                "march/copy-of-a.pdf", pdf("a"));
+        List<MultipartFile> files = List.of(
+                new MockMultipartFile("files", "c.pdf", "application/pdf", pdf("c")),
+                new MockMultipartFile("files", "again.pdf", "application/pdf", existingPdf),
+                new MockMultipartFile("files", "receipts.zip", "application/zip", zip));
+
+        ReceiptImportBatchDto result = service().importReceipts(tenantId, userId, jobId, files, true);
+
+        assertEquals(List.of("c.pdf", "again.pdf", "a.pdf", "b.png", "copy-of-a.pdf"),
+                result.getItems().stream().map(ReceiptImportItemDto::getFileName).toList());
+        assertEquals(List.of(ReceiptImportItemStatus.STORED, ReceiptImportItemStatus.DUPLICATE,
+                        ReceiptImportItemStatus.STORED, ReceiptImportItemStatus.STORED,
+                        ReceiptImportItemStatus.DUPLICATE),
+                result.getItems().stream().map(ReceiptImportItemDto::getStatus).toList());
+        assertEquals(3, result.getStoredCount());
+        assertEquals(2, result.getDuplicateCount());
+        assertEquals(3, result.getExtractionPendingCount());
+        assertFalse(result.isComplete());
+        assertEquals(existing.getId(), result.getItems().get(1).getReceiptId());
+        assertEquals(ReceiptExtractionStatus.COMPLETED, result.getItems().get(1).getExtractionStatus());
+        assertEquals(result.getItems().get(2).getReceiptId(), result.getItems().get(4).getReceiptId());
+
+        verify(attachmentStorageService, times(3)).store(eq("tenant-slug"), any(), any());
+        verify(extractionDispatcher).enqueueAfterCommit(eq(tenantId), eq(userId), eq(jobId),
+                eq(List.of(result.getItems().get(0).getReceiptId(), result.getItems().get(2).getReceiptId(),
+                        result.getItems().get(3).getReceiptId())));
+        verify(activityEventService).recordEvent(eq(tenant), eq(userId), eq(ActivityEntityType.JOB), eq(jobId),
+                eq(ActivityEventType.RECEIPT_UPLOADED), eq("3 receipts imported"), anyMap());
+    }
+
+    @Test
+    void importReceipts_rejectedFilesDoNotStopTheBatch() {
+        stubImport(List.of());
+        List<MultipartFile> files = List.of(
+                new MockMultipartFile("files", "notes.txt", "text/plain", "hello".getBytes(StandardCharsets.UTF_8)),
+                new MockMultipartFile("files", "broken.zip", "application/zip", "not a zip".getBytes(StandardCharsets.UTF_8)),
+                new MockMultipartFile("files", "ok.pdf", "application/pdf", pdf("ok")));
+
+        ReceiptImportBatchDto result = service().importReceipts(tenantId, userId, jobId, files, false);
+
+        assertEquals(List.of(ReceiptImportItemStatus.REJECTED, ReceiptImportItemStatus.REJECTED,
+                        ReceiptImportItemStatus.STORED),
+                result.getItems().stream().map(ReceiptImportItemDto::getStatus).toList());
+        assertTrue(result.getItems().get(0).getError().startsWith("Unsupported file type"));
+        assertEquals("Archive contains no files.", result.getItems().get(1).getError());
+        assertTrue(result.isComplete());
+        verify(extractionDispatcher, never()).enqueueAfterCommit(any(), any(), any(), any());
+    }
+
+    @Test
+    void importReceipts_stopsAtFileLimit() throws IOException {
+        extractionProperties.getBatch().setMaxFiles(2);
+        stubImport(List.of());
+        byte[] zip = zip("1.pdf", pdf("1"), "2.pdf", pdf("2"), "3.pdf", pdf("3"), "4.pdf", pdf("4"));
+
+        ReceiptImportBatchDto result = service().importReceipts(tenantId, userId, jobId,
+                List.of(new MockMultipartFile("files", "all.zip", "application/zip", zip)), true);
+
+        assertEquals(2, result.getStoredCount());
+        assertEquals(1, result.getRejectedCount());
+        assertEquals("3.pdf", result.getItems().get(2).getFileName());
+        assertTrue(result.getItems().get(2).getError().startsWith("Import limit of 2 files reached"));
+    }
+
+    @Test
+    void importReceipts_whenRowsCannotBeSaved_deletesStoredFiles() {
+        stubImport(List.of());
+        doThrow(new IllegalStateException("db down")).when(activityEventService)
+                .recordEvent(any(), any(), any(), any(), any(), anyString(), anyMap());
+        List<MultipartFile> files = List.of(
+                new MockMultipartFile("files", "a.pdf", "application/pdf", pdf("a")),
+                new MockMultipartFile("files", "b.pdf", "application/pdf", pdf("b")));
+
+        assertThrows(IllegalStateException.class,
+                () -> service().importReceipts(tenantId, userId, jobId, files, true));
+
+        verify(attachmentStorageService).delete(endsWith("_a.pdf"));
+        verify(attachmentStorageService).delete(endsWith("_b.pdf"));
+    }
+
+    @Test
+    void getImportBatch_reportsExtractionProgressOfStoredReceipts() {
+        ReceiptImportBatch batch = new ReceiptImportBatch();
+        batch.setId(UUID.randomUUID());
+        batch.setJob(job);
+        batch.setExtractionRequested(true);
+        addItem(batch, ReceiptImportItemStatus.STORED, ReceiptExtractionStatus.COMPLETED);
+        addItem(batch, ReceiptImportItemStatus.STORED, ReceiptExtractionStatus.FAILED);
+        addItem(batch, ReceiptImportItemStatus.STORED, ReceiptExtractionStatus.NOT_STARTED);
+        addItem(batch, ReceiptImportItemStatus.DUPLICATE, ReceiptExtractionStatus.NOT_STARTED);
+        addItem(batch, ReceiptImportItemStatus.REJECTED, null);
+
+        when(tenantAccessService.loadTenantForUserOrThrow(tenantId, userId)).thenReturn(tenant);
+        when(batchRepository.findByIdAndJobIdAndTenantAndArchivedFalse(batch.getId(), jobId, tenant))
+                .thenReturn(Optional.of(batch));
+
+        ReceiptImportBatchDto result = service().getImportBatch(tenantId, userId, jobId, batch.getId());
+
+        assertEquals(5, result.getFileCount());
+        assertEquals(1, result.getExtractionCompletedCount());
+        assertEquals(1, result.getExtractionFailedCount());
+        assertEquals(1, result.getExtractionPendingCount());
+        assertFalse(result.isComplete());
+
+        batch.getItems().get(2).getAttachment().setExtractionStatus(ReceiptExtractionStatus.COMPLETED);
+        assertTrue(service().getImportBatch(tenantId, userId, jobId, batch.getId()).isComplete());
+    }
+
+    private ReceiptImportServiceImpl service() {
+        return new ReceiptImportServiceImpl(
+                tenantAccessService,
+                attachmentRepository,
+                jobRepository,
+                batchRepository,
+                attachmentStorageService,
+                activityEventService,
+                new AttachmentUploadValidator(new AttachmentUploadProperties()),
+                new AttachmentUploadProperties(),
+                extractionDispatcher,
+                extractionProperties,
+                TransactionOperations.withoutTransaction());
+    }
+
+    private void stubImport(List<AttachmentRepository.ContentHashView> existingHashes) {
+        when(tenantAccessService.loadTenantForUserOrThrow(tenantId, userId)).thenReturn(tenant);
+        when(jobRepository.findByIdAndTenantAndArchivedFalse(jobId, tenant)).thenReturn(Optional.of(job));
+        when(attachmentRepository.findContentHashesForJob(tenant, job, AttachmentTag.RECEIPT)).thenReturn(existingHashes);
+        when(attachmentRepository.save(any(Attachment.class))).thenAnswer(invocation -> {
+            Attachment attachment = invocation.getArgument(0);
+            if (attachment.getId() == null) {
+                attachment.setId(UUID.randomUUID());
+            }
+            return attachment;
+        });
+        when(attachmentStorageService.store(anyString(), any(), any())).thenAnswer(
+                invocation -> "tenant-slug/" + invocation.getArgument(1) + "_" + ((MultipartFile) invocation.getArgument(2)).getOriginalFilename());
+        when(batchRepository.save(any(ReceiptImportBatch.class))).thenAnswer(invocation -> {
+            ReceiptImportBatch batch = invocation.getArgument(0);
+            batch.setId(UUID.randomUUID());
+            return batch;
+        });
+    }
+
+    private static void addItem(ReceiptImportBatch batch, ReceiptImportItemStatus status,
+                                ReceiptExtractionStatus extractionStatus) {
+        ReceiptImportItem item = new ReceiptImportItem();
+        item.setBatch(batch);
+        item.setFileName("receipt-" + batch.getItems().size() + ".pdf");
+        item.setStatus(status);
+        if (extractionStatus != null) {
+            Attachment receipt = new Attachment();
+            receipt.setId(UUID.randomUUID());
+            receipt.setExtractionStatus(extractionStatus);
+            item.setAttachment(receipt);
+        }
+        batch.getItems().add(item);
+    }
+
+    private static AttachmentRepository.ContentHashView hashView(UUID id, String contentHash) {
+        return new AttachmentRepository.ContentHashView() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public String getContentHash() {
+                return contentHash;
+            }
+        };
+    }
+
+    private static byte[] pdf(String marker) {
+        byte[] suffix = marker.getBytes(StandardCharsets.US_ASCII);
+        byte[] bytes = Arrays.copyOf(MINIMAL_PDF_BYTES, MINIMAL_PDF_BYTES.length + suffix.length);
+        System.arraycopy(suffix, 0, bytes, MINIMAL_PDF_BYTES.length, suffix.length);
+        return bytes;
+    }
+
+    private static String sha256(byte[] bytes) {
+        return ReceiptImportFiles.contentHash(new MockMultipartFile("file", bytes));
+    }
+
+    private static byte[] zip(Object... namesAndContents) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            List<Object> entries = new ArrayList<>(List.of(namesAndContents));
+            for (int i = 0; i < entries.size(); i += 2) {
+                zip.putNextEntry(new ZipEntry((String) entries.get(i)));
+                zip.write((byte[]) entries.get(i + 1));
+                zip.closeEntry();
+            }
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,196 @@
+package com.roofingcrm.service.accounting;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Label scanning cost for the text of a multi-page supplier invoice (PDF embedded text: 40 line items per page, page
+ * headers with dates, a totals block at the end). {@code legacy} is the scanning the extractor, parser and ranker did
+ * before {@link ReceiptText}: each splits the raw text itself, the extractor upper-cases the line and runs every
+ * {@code containsAny} per amount, the ranker upper-cases the surrounding lines per date. {@code lexed} lexes once and
+ * runs the real extractor, parser and ranker on the shared model.
+ * <p>
+ * Run: {@code mvn -q test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.roofingcrm.service.accounting.ReceiptTextBenchmark}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReceiptTextBenchmark {
+
+    @Param({"1", "12"})
+    public int pages;
+
+    private String rawText;
+    private ReceiptAmountCandidateExtractor extractor;
+    private ReceiptSummaryTextParser parser;
+    private ReceiptDateCandidateRanker ranker;
+
+    @Setup
+    public void setUp() {
+        StringBuilder text = new StringBuilder();
+        for (int page = 1; page <= pages; page++) {
+            text.append("ABC SUPPLY CO. INC.   Branch 412   Page ").append(page).append(" of ").append(pages).append('\n');
+            text.append("Invoice Date: 03/28/2026    Order Date: March 24, 2026    Ship Date: 2026-03-27\n");
+            text.append("ITEM   SKU   DESCRIPTION                     QTY   UNIT PRICE   EXT PRICE\n");
+            for (int item = 0; item < 40; item++) {
+                int qty = 1 + item % 7;
+                int cents = 1299 + item * 317;
+                text.append(String.format(Locale.ROOT, "%03d    %06d  Owens Corning Duration shingle %2d   %3d   %d.%02d EA   %d.%02d%n",
+                        item + 1, 400_000 + item * 13, item, qty, cents / 100, cents % 100,
+                        qty * cents / 100, qty * cents % 100));
+            }
+            text.append("Continued on next page. Savings this page 12.40  Deposit applied 0.00\n\n");
+        }
+        text.append("SUBTOTAL $14,455.24\nSALES TAX 8.25% 1,192.56\nTOTAL DUE $15,647.80\n");
+        text.append("CARD PAYMENT 15,647.80\nCHANGE 0.00\nThank you for your business\n");
+        rawText = text.toString();
+        extractor = new ReceiptAmountCandidateExtractor();
+        parser = new ReceiptSummaryTextParser();
+        ranker = new ReceiptDateCandidateRanker();
+    }
+
+    @Benchmark
+    public int legacy() {
+        return LegacyScan.extractorLabels(rawText) + LegacyScan.parserLabels(rawText) + LegacyScan.rankerLabels(rawText);
+    }
+
+    @Benchmark
+    public Object lexed() {
+        ReceiptText text = ReceiptText.of(rawText);
+        ReceiptAmountCandidateExtractor.CandidateExtractionResult candidates = extractor.extractCandidates(text);
+        ReceiptSummaryTextParser.ParsedNumericSummary summary = parser.parseNumericSummary(text);
+        Instant incurredAt = ranker.resolveIncurredAt(null, text);
+        return new Object[]{candidates, summary, incurredAt};
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ReceiptTextBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /**
+     * Only the splitting and label tests of the previous implementations; scoring, parsing and date arithmetic, which
+     * {@code lexed} still pays for, are left out, so the comparison flatters the baseline.
+     */
+    private static final class LegacyScan {
+
+        private static final Pattern MONEY =
+                Pattern.compile("(?<!\\d)(?:\\$\\s*)?(\\d{1,3}(?:,\\d{3})*|\\d+)\\.\\d{2}(?!\\d)");
+        private static final Pattern ISO_DATE = Pattern.compile("\\b(20\\d{2})-(\\d{1,2})-(\\d{1,2})\\b");
+        private static final Pattern SLASH_DATE = Pattern.compile("\\b(\\d{1,2})/(\\d{1,2})/(\\d{2}|\\d{4})\\b");
+        private static final String[] DATE_LABELS = {"DATE", "ORDER DATE", "PICK UP DATE", "DELIVERY DATE",
+                "INVOICE DATE", "SALE DATE", "TRANSACTION DATE", "PICKUP DATE"};
+
+        static int extractorLabels(String raw) {
+            int hits = 0;
+            for (String rawLine : raw.split("\\R")) {
+                String line = rawLine.trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                Matcher matcher = MONEY.matcher(line);
+                while (matcher.find()) {
+                    String upper = line.toUpperCase(Locale.ROOT);
+                    hits += flag(containsAny(upper, "SUBTOTAL"))
+                            + flag(containsAny(upper, "TAX", "GST", "VAT"))
+                            + flag(containsAny(upper, "AMOUNT PAID", "PAID", "PAYMENT"))
+                            + flag(containsAny(upper, "GRAND TOTAL", "TOTAL DUE", "BALANCE DUE", "AMOUNT DUE"))
+                            + flag(containsAny(upper, "TOTAL"))
+                            + flag(containsAny(upper, "ITEM", "SKU", "QTY", "RATE", "UNIT PRICE", "PRICE", "EACH"))
+                            + countMoney(line)
+                            + flag(containsAny(upper, "CHANGE"))
+                            + flag(containsAny(upper, "TIP"))
+                            + flag(containsAny(upper, "DISCOUNT", "SAVINGS"))
+                            + flag(containsAny(upper, "DEPOSIT"))
+                            + flag(containsAny(upper, "TAX TOTAL"))
+                            + flag(containsAny(upper, "AMOUNT"));
+                }
+            }
+            return hits;
+        }
+
+        static int parserLabels(String raw) {
+            int hits = 0;
+            for (String rawLine : raw.split("\\R")) {
+                String line = rawLine.trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                String upper = line.toUpperCase(Locale.ROOT).replaceAll("\\s+", " ").trim();
+                if (!MONEY.matcher(line).find()) {
+                    continue;
+                }
+                hits += flag(containsAny(upper, "SUBTOTAL", "SUB TOTAL", "SUB-TOTAL"))
+                        + flag(containsAny(upper, "TAX TOTAL", "TAXTOTAL", "TAX", "GST", "VAT", "HST", "SALES TAX"))
+                        + flag(containsAny(upper, "AMOUNT PAID", "PAYMENT", "CARD PAYMENT", "PAID:"))
+                        + flag(containsAny(upper, "GRAND TOTAL", "TOTAL DUE", "BALANCE DUE", "AMOUNT DUE",
+                        "TOTAL:", "ORDER TOTAL", "TOTAL", "SUB", "TAX RATE"));
+            }
+            return hits;
+        }
+
+        static int rankerLabels(String raw) {
+            int hits = 0;
+            for (Pattern pattern : new Pattern[]{ISO_DATE, SLASH_DATE}) {
+                Matcher matcher = pattern.matcher(raw);
+                while (matcher.find()) {
+                    int lineStart = raw.lastIndexOf('\n', matcher.start());
+                    lineStart = lineStart < 0 ? 0 : lineStart + 1;
+                    int lineEnd = raw.indexOf('\n', matcher.end());
+                    lineEnd = lineEnd < 0 ? raw.length() : lineEnd;
+                    hits += flag(containsAny(raw.substring(lineStart, lineEnd).toUpperCase(Locale.ROOT), DATE_LABELS));
+                    if (lineStart > 1) {
+                        int prevLineStart = raw.lastIndexOf('\n', lineStart - 2);
+                        prevLineStart = prevLineStart < 0 ? 0 : prevLineStart + 1;
+                        hits += flag(containsAny(raw.substring(prevLineStart, lineStart - 1).toUpperCase(Locale.ROOT),
+                                DATE_LABELS));
+                    }
+                }
+            }
+            return hits;
+        }
+
+        private static int countMoney(String line) {
+            int count = 0;
+            Matcher matcher = MONEY.matcher(line);
+            while (matcher.find()) {
+                count++;
+            }
+            return count;
+        }
+
+        private static boolean containsAny(String line, String... labels) {
+            for (String label : labels) {
+                if (line.contains(label)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static int flag(boolean value) {
+            return value ? 1 : 0;
+        }
+    }
+}
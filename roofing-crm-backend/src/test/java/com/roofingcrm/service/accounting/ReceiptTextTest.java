@@ -0,0 +1,57 @@
+package com.roofingcrm.service.accounting;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReceiptTextTest {
+
+    @Test
+    void of_findsOverlappingKeywordsCaseInsensitivelyAcrossCollapsedWhitespace() {
+        ReceiptText.Line line = ReceiptText.of("  Sub   total (sales\ttax incl.)  $1,455.24  ").lines().getFirst();
+
+        assertEquals("Sub   total (sales\ttax incl.)  $1,455.24", line.text());
+        assertTrue(line.has(ReceiptKeyword.mask(ReceiptKeyword.SUB_TOTAL)));
+        assertTrue(line.hasAll(ReceiptKeyword.mask(
+                ReceiptKeyword.SUB, ReceiptKeyword.TOT, ReceiptKeyword.TOTAL, ReceiptKeyword.SALES_TAX, ReceiptKeyword.TAX)));
+        assertFalse(line.has(ReceiptKeyword.mask(ReceiptKeyword.SUBTOTAL, ReceiptKeyword.TAX_TOTAL)));
+        assertEquals(List.of(new BigDecimal("1455.24")), line.amounts());
+    }
+
+    @Test
+    void of_splitsLikeLineBreakRegexAndKeepsInnerEmptyLines() {
+        String raw = "Invoice Date: 2026-03-28\r\n\r\nSUBTOTAL 10.00 TAX 1.50\rTOTAL 11.50\n\n";
+
+        ReceiptText text = ReceiptText.of(raw);
+
+        assertEquals(raw.split("\\R").length, text.lines().size());
+        assertTrue(text.lines().get(1).isEmpty());
+        assertEquals(List.of(new BigDecimal("10.00"), new BigDecimal("1.50")), text.lines().get(2).amounts());
+        assertEquals("TOTAL 11.50", text.lines().get(3).text());
+    }
+
+    @Test
+    void lineAt_findsLineContainingOffset() {
+        String raw = "first\nInvoice Date: 2026-03-28\nlast";
+        ReceiptText text = ReceiptText.of(raw);
+
+        assertEquals(1, text.lineAt(raw.indexOf("2026")).index());
+        assertEquals(0, text.lineAt(0).index());
+        assertEquals(2, text.lineAt(raw.length() - 1).index());
+        assertNull(ReceiptText.of(null).lineAt(0));
+    }
+
+    @Test
+    void of_ignoresMoneyLikeTokensInsideLongerNumbers() {
+        ReceiptText.Line line = ReceiptText.of("SKU 12345.678 QTY 2 EACH 19.99").lines().getFirst();
+
+        assertEquals(List.of(new BigDecimal("19.99")), line.amounts());
+        assertTrue(line.hasAll(ReceiptKeyword.mask(ReceiptKeyword.SKU, ReceiptKeyword.QTY, ReceiptKeyword.EACH)));
+    }
+}
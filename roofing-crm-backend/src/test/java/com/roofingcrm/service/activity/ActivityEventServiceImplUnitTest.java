@@ -0,0 +1,176 @@
+package com.roofingcrm.service.activity;
+
+import com.roofingcrm.domain.entity.ActivityEvent;
+import com.roofingcrm.domain.entity.Tenant;
+import com.roofingcrm.domain.entity.User;
+import com.roofingcrm.domain.enums.ActivityEntityType;
+import com.roofingcrm.domain.enums.ActivityEventType;
+import com.roofingcrm.domain.repository.ActivityEventRepository;
+import com.roofingcrm.domain.repository.UserRepository;
+import com.roofingcrm.realtime.ActivityEventCreatedAppEvent;
+import com.roofingcrm.realtime.ActivityEventsCreatedAppEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings("null")
+class ActivityEventServiceImplUnitTest {
+
+    @Mock
+    private ActivityEventRepository activityEventRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    private ActivityEventProperties properties;
+    private ActivityEventServiceImpl service;
+    private Tenant tenant;
+    private UUID userId;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ActivityEventProperties();
+        service = new ActivityEventServiceImpl(activityEventRepository, userRepository, applicationEventPublisher, properties);
+
+        tenant = new Tenant();
+        tenant.setId(UUID.randomUUID());
+        userId = UUID.randomUUID();
+        user = new User();
+        user.setId(userId);
+        lenient().when(userRepository.existsById(userId)).thenReturn(true);
+        lenient().when(userRepository.getReferenceById(userId)).thenReturn(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void recordEvent_insideTransaction_defersInsertAndPublishesOnceAtCommit() {
+        beginTransaction();
+        UUID leadId = UUID.randomUUID();
+        when(activityEventRepository.saveAll(anyList())).thenAnswer(inv -> assignIds(inv.getArgument(0)));
+
+        service.recordEvent(tenant, userId, ActivityEntityType.LEAD, leadId,
+                ActivityEventType.LEAD_STATUS_CHANGED, "moved", Map.of());
+        service.recordEvent(tenant, userId, ActivityEntityType.LEAD, leadId,
+                ActivityEventType.LEAD_CONVERTED_TO_JOB, "converted", Map.of());
+
+        verify(activityEventRepository, never()).save(any());
+        verify(activityEventRepository, never()).saveAll(anyList());
+        verify(userRepository, never()).findById(any());
+        verifyNoInteractions(applicationEventPublisher);
+
+        commit();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ActivityEvent>> savedCaptor = ArgumentCaptor.forClass(List.class);
+        verify(activityEventRepository, times(1)).saveAll(savedCaptor.capture());
+        assertEquals(2, savedCaptor.getValue().size());
+        assertSame(user, savedCaptor.getValue().get(0).getCreatedBy());
+        assertSame(user, savedCaptor.getValue().get(1).getCreatedBy());
+        verify(userRepository, times(1)).existsById(userId);
+
+        ArgumentCaptor<ActivityEventsCreatedAppEvent> publishedCaptor =
+                ArgumentCaptor.forClass(ActivityEventsCreatedAppEvent.class);
+        verify(applicationEventPublisher, times(1)).publishEvent(publishedCaptor.capture());
+        List<ActivityEventCreatedAppEvent> fanOut = publishedCaptor.getValue().getEvents();
+        assertEquals(2, fanOut.size());
+        assertEquals(tenant.getId(), fanOut.get(0).getTenantId());
+        assertEquals(leadId, fanOut.get(1).getEntityId());
+        assertNotNull(fanOut.get(1).getActivityEventId());
+    }
+
+    @Test
+    void recordEvent_withUnknownUser_recordsEventWithoutActor() {
+        beginTransaction();
+        UUID unknownUserId = UUID.randomUUID();
+        when(activityEventRepository.saveAll(anyList())).thenAnswer(inv -> assignIds(inv.getArgument(0)));
+
+        service.recordEvent(tenant, unknownUserId, ActivityEntityType.LEAD, UUID.randomUUID(),
+                ActivityEventType.LEAD_STATUS_CHANGED, "moved", Map.of());
+        commit();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ActivityEvent>> savedCaptor = ArgumentCaptor.forClass(List.class);
+        verify(activityEventRepository).saveAll(savedCaptor.capture());
+        assertNull(savedCaptor.getValue().get(0).getCreatedBy());
+        verify(userRepository, never()).getReferenceById(unknownUserId);
+    }
+
+    @Test
+    void recordEvent_rolledBack_discardsBufferedEvents() {
+        beginTransaction();
+
+        service.recordEvent(tenant, userId, ActivityEntityType.JOB, UUID.randomUUID(),
+                ActivityEventType.JOB_STATUS_CHANGED, "changed", null);
+
+        for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+            sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+
+        verifyNoInteractions(activityEventRepository);
+        verifyNoInteractions(applicationEventPublisher);
+        assertFalse(TransactionSynchronizationManager.hasResource(service));
+    }
+
+    @Test
+    void recordEvent_whenWriteBehindDisabled_savesImmediately() {
+        properties.setWriteBehindEnabled(false);
+        beginTransaction();
+        when(activityEventRepository.save(any(ActivityEvent.class))).thenAnswer(inv -> {
+            ActivityEvent e = inv.getArgument(0);
+            e.setId(UUID.randomUUID());
+            return e;
+        });
+
+        service.recordEvent(tenant, userId, ActivityEntityType.JOB, UUID.randomUUID(),
+                ActivityEventType.JOB_STATUS_CHANGED, "changed", null);
+
+        verify(activityEventRepository).save(any(ActivityEvent.class));
+        verify(applicationEventPublisher).publishEvent(any(ActivityEventCreatedAppEvent.class));
+        assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
+    }
+
+    private static void beginTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+    }
+
+    private static void commit() {
+        List<TransactionSynchronization> syncs = TransactionSynchronizationManager.getSynchronizations();
+        syncs.forEach(s -> s.beforeCommit(false));
+        syncs.forEach(TransactionSynchronization::afterCommit);
+        syncs.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+
+    private static List<ActivityEvent> assignIds(List<ActivityEvent> events) {
+        List<ActivityEvent> saved = new ArrayList<>(events);
+        saved.forEach(e -> e.setId(UUID.randomUUID()));
+        return saved;
+    }
+}
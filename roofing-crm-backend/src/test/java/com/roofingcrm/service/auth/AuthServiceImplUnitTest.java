@@ -1,5 +1,6 @@
 package com.roofingcrm.service.auth;
 
+import com.roofingcrm.api.v1.auth.LoginRequest;
 import com.roofingcrm.api.v1.auth.RegisterWithInviteRequest;
 import com.roofingcrm.api.v1.team.AcceptInviteRequest;
 import com.roofingcrm.api.v1.team.AcceptInviteResponse;
@@ -17,6 +18,7 @@ import com.roofingcrm.domain.repository.AuthRefreshTokenSessionRepository;
 import com.roofingcrm.security.JwtService;
 import com.roofingcrm.security.RefreshTokenProperties;
 import com.roofingcrm.service.exception.InviteConflictException;
+import com.roofingcrm.service.exception.ResourceNotFoundException;
 import com.roofingcrm.service.pipeline.PipelineStatusAdminService;
 import com.roofingcrm.service.team.TeamService;
 import org.junit.jupiter.api.BeforeEach;
@@ -25,6 +27,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.time.Instant;
 import java.util.ArrayList;
@@ -66,6 +69,8 @@ class AuthServiceImplUnitTest {
     private RefreshTokenProperties refreshTokenProperties;
     @Mock
     private PipelineStatusAdminService pipelineStatusAdminService;
+    @Mock
+    private PasswordHashingService passwordHashingService;
 
     private AuthServiceImpl service;
 
@@ -80,8 +85,11 @@ class AuthServiceImplUnitTest {
                 teamService,
                 jwtService,
                 refreshTokenProperties,
-                pipelineStatusAdminService
+                pipelineStatusAdminService,
+                passwordHashingService,
+                TransactionOperations.withoutTransaction()
         );
+        lenient().when(passwordHashingService.encode(any())).thenReturn("$2a$10$hashed");
         lenient().when(refreshTokenProperties.getExpirationDays()).thenReturn(14L);
         lenient().when(refreshTokenSessionRepository.save(any())).thenAnswer(invocation -> {
             AuthRefreshTokenSession session = invocation.getArgument(0);
@@ -150,6 +158,49 @@ class AuthServiceImplUnitTest {
         assertEquals(token, acceptCaptor.getValue().getToken());
     }
 
+    @Test
+    void login_withOutdatedHashCost_savesUpgradedHash() {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setEmail("owner@example.com");
+        user.setPasswordHash("$2a$10$old");
+        user.setEnabled(true);
+        when(userRepository.findByEmailIgnoreCase("owner@example.com")).thenReturn(Optional.of(user));
+        when(passwordHashingService.verify("secret", "$2a$10$old"))
+                .thenReturn(new PasswordHashingService.PasswordCheck(true, "$2a$12$new"));
+        when(userRepository.save(user)).thenReturn(user);
+        when(jwtService.generateToken(user.getId(), user.getEmail())).thenReturn("jwt-token");
+
+        LoginRequest request = new LoginRequest();
+        request.setEmail("owner@example.com");
+        request.setPassword("secret");
+        var response = service.login(request);
+
+        assertEquals("jwt-token", response.getToken());
+        assertEquals("$2a$12$new", user.getPasswordHash());
+        verify(userRepository).save(user);
+    }
+
+    @Test
+    void login_wrongPassword_doesNotTouchSessionsOrHash() {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setEmail("owner@example.com");
+        user.setPasswordHash("$2a$10$old");
+        user.setEnabled(true);
+        when(userRepository.findByEmailIgnoreCase("owner@example.com")).thenReturn(Optional.of(user));
+        when(passwordHashingService.verify("wrong", "$2a$10$old"))
+                .thenReturn(new PasswordHashingService.PasswordCheck(false, null));
+
+        LoginRequest request = new LoginRequest();
+        request.setEmail("owner@example.com");
+        request.setPassword("wrong");
+
+        assertThrows(ResourceNotFoundException.class, () -> service.login(request));
+        verify(userRepository, never()).save(any());
+        verify(refreshTokenSessionRepository, never()).save(any());
+    }
+
     @Test
     void registerWithInvite_rejectsExpiredInvite() {
         UUID token = UUID.randomUUID();
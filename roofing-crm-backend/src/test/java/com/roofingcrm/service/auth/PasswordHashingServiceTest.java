@@ -0,0 +1,140 @@
+package com.roofingcrm.service.auth;
+
+import com.roofingcrm.service.exception.PasswordHashingCapacityException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHashingServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PasswordHashingService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void calibrate_picksHighestCostWithinTarget() {
+        // Simulated host: cost 10 = 60 ms, doubling per step.
+        assertEquals(12, PasswordHashingService.calibrate(10, 14, 250, cost -> 60L << (cost - 10)));
+    }
+
+    @Test
+    void calibrate_neverGoesBelowMinimumOrAboveMaximum() {
+        assertEquals(10, PasswordHashingService.calibrate(10, 14, 50, cost -> 400L));
+        assertEquals(14, PasswordHashingService.calibrate(10, 14, 250, cost -> 1L));
+    }
+
+    @Test
+    void encodeAndVerify_roundTrip() {
+        service = newService(4, 2, 8);
+
+        String hash = service.encode("secret");
+
+        assertTrue(service.verify("secret", hash).matches());
+        assertFalse(service.verify("wrong", hash).matches());
+        assertEquals(2, meterRegistry.get("auth.password.hash").tag("operation", "verify").timer().count());
+    }
+
+    @Test
+    void verify_upgradesHashMadeWithLowerCost() {
+        service = newService(5, 1, 8);
+        String oldHash = new BCryptPasswordEncoder(4).encode("secret");
+
+        PasswordHashingService.PasswordCheck check = service.verify("secret", oldHash);
+
+        assertTrue(check.matches());
+        assertNotNull(check.upgradedHash());
+        assertTrue(check.upgradedHash().startsWith("$2a$05$"));
+        assertNull(service.verify("secret", check.upgradedHash()).upgradedHash());
+    }
+
+    @Test
+    void verify_neverDowngradesHashMadeWithHigherCost() {
+        service = newService(4, 1, 8);
+        String strongerHash = new BCryptPasswordEncoder(5).encode("secret");
+
+        assertNull(service.verify("secret", strongerHash).upgradedHash());
+    }
+
+    @Test
+    void fullQueue_rejectsWithCapacityException() throws Exception {
+        service = newService(4, 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> service.encode(new BlockingPassword(running, release)));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> service.encode("queued"));
+        waitForQueueDepth(1);
+
+        assertThrows(PasswordHashingCapacityException.class, () -> service.encode("rejected"));
+        assertEquals(1.0, meterRegistry.get("auth.password.hash.rejected").counter().count());
+
+        release.countDown();
+        assertNotNull(first.get(5, TimeUnit.SECONDS));
+        assertNotNull(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    private PasswordHashingService newService(int strength, int threads, int queueCapacity) {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setStrength(strength);
+        properties.setThreads(threads);
+        properties.setQueueCapacity(queueCapacity);
+        return new PasswordHashingService(properties, meterRegistry);
+    }
+
+    private void waitForQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("auth.password.hash.queue.depth").gauge().value() < depth) {
+            assertTrue(System.nanoTime() < deadline, "queue never reached depth " + depth);
+            Thread.sleep(5);
+        }
+    }
+
+    /** Holds the hashing thread inside BCrypt until released. */
+    private record BlockingPassword(CountDownLatch running, CountDownLatch release) implements CharSequence {
+
+        @Override
+        public String toString() {
+            running.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "blocked";
+        }
+
+        @Override
+        public int length() {
+            return toString().length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return toString().charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().subSequence(start, end);
+        }
+    }
+}
@@ -1,14 +1,19 @@
 package com.roofingcrm.service.estimate;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.roofingcrm.domain.entity.Estimate;
 import com.roofingcrm.domain.repository.EstimateRepository;
 import com.roofingcrm.security.PublicShareTokenHasher;
 import com.roofingcrm.service.activity.ActivityEventService;
+import com.roofingcrm.service.publicview.PublicViewCache;
+import com.roofingcrm.service.publicview.PublicViewCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -27,11 +32,17 @@ class PublicEstimateServiceUnitTest {
     @Mock
     private ActivityEventService activityEventService;
 
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     private PublicEstimateService service;
 
     @BeforeEach
     void setUp() {
-        service = new PublicEstimateService(estimateRepository, activityEventService);
+        service = new PublicEstimateService(estimateRepository, activityEventService,
+                new PublicViewCache<>("estimate", new PublicViewCacheProperties(), new ObjectMapper().findAndRegisterModules(),
+                        new SimpleMeterRegistry()),
+                transactionManager);
     }
 
     @Test
@@ -1,18 +1,36 @@
 package com.roofingcrm.service.invoice;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.roofingcrm.api.publicapi.invoice.PublicInvoiceDto;
 import com.roofingcrm.domain.entity.Invoice;
 import com.roofingcrm.domain.repository.InvoiceRepository;
 import com.roofingcrm.security.PublicShareTokenHasher;
+import com.roofingcrm.service.exception.InvoiceLinkExpiredException;
+import com.roofingcrm.service.publicview.PublicView;
+import com.roofingcrm.service.publicview.PublicViewCache;
+import com.roofingcrm.service.publicview.PublicViewCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 
+import java.time.Instant;
 import java.util.Optional;
 import java.util.UUID;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -23,11 +41,19 @@ class PublicInvoiceServiceUnitTest {
     @Mock
     private InvoiceRepository invoiceRepository;
 
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     private PublicInvoiceService service;
 
+    private PublicViewCache<PublicInvoiceDto> viewCache;
+
     @BeforeEach
     void setUp() {
-        service = new PublicInvoiceService(invoiceRepository);
+        viewCache = new PublicViewCache<>("invoice", new PublicViewCacheProperties(),
+                new ObjectMapper().findAndRegisterModules(), new SimpleMeterRegistry());
+        service = new PublicInvoiceService(invoiceRepository,
+                viewCache, transactionManager);
     }
 
     @Test
@@ -42,5 +68,47 @@ class PublicInvoiceServiceUnitTest {
         service.getByToken(raw);
 
         verify(invoiceRepository).findByPublicTokenHashAndPublicEnabledTrueAndArchivedFalse(eq(hash));
+        // Read-only transactions go to the replica, which may not have the change that evicted the view yet.
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertFalse(definition.getValue().isReadOnly());
+    }
+
+    @Test
+    void getByToken_repeatViewsServedFromCacheUntilEvicted() {
+        String raw = "customer-facing-token";
+        Invoice invoice = new Invoice();
+        invoice.setId(UUID.randomUUID());
+        invoice.setInvoiceNumber("INV-1");
+        when(invoiceRepository.findByPublicTokenHashAndPublicEnabledTrueAndArchivedFalse(any()))
+                .thenReturn(Optional.of(invoice));
+
+        PublicView<PublicInvoiceDto> first = service.getViewByToken(raw);
+        PublicView<PublicInvoiceDto> second = service.getViewByToken(raw);
+
+        assertSame(first, second);
+        verify(invoiceRepository, times(1)).findByPublicTokenHashAndPublicEnabledTrueAndArchivedFalse(any());
+
+        invoice.setInvoiceNumber("INV-1-REVISED");
+        viewCache.evict(invoice.getId());
+        PublicView<PublicInvoiceDto> reloaded = service.getViewByToken(raw);
+
+        assertEquals("INV-1-REVISED", reloaded.body().getInvoiceNumber());
+        assertNotEquals(first.etag(), reloaded.etag());
+    }
+
+    @Test
+    void getByToken_cachedViewPastExpiry_isGoneWithoutReload() {
+        String raw = "expiring-token";
+        Invoice invoice = new Invoice();
+        invoice.setId(UUID.randomUUID());
+        invoice.setPublicExpiresAt(Instant.now().minusSeconds(1));
+        when(invoiceRepository.findByPublicTokenHashAndPublicEnabledTrueAndArchivedFalse(any()))
+                .thenReturn(Optional.of(invoice));
+
+        assertThrows(InvoiceLinkExpiredException.class, () -> service.getViewByToken(raw));
+        assertThrows(InvoiceLinkExpiredException.class, () -> service.getViewByToken(raw));
+
+        verify(invoiceRepository, times(1)).findByPublicTokenHashAndPublicEnabledTrueAndArchivedFalse(any());
     }
 }
@@ -0,0 +1,149 @@
+package com.roofingcrm.service.mail;
+
+import com.roofingcrm.domain.entity.Invoice;
+import com.roofingcrm.domain.entity.Tenant;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.text.NumberFormat;
+import java.util.Currency;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-email cost of building an invoice email, as in a reminder or statement run: {@code legacy} is the previous
+ * builder ({@code String.formatted} over text blocks, five {@code replace} passes per escaped value, a new
+ * {@link NumberFormat} per send), {@code compiled} is {@link InvoiceEmailTemplateBuilder} on pre-parsed
+ * {@link EmailTemplate}s with cached {@link TenantEmailFragments}. {@code customMessage=long} adds a 2 KB note with
+ * characters to escape, the case where escaping dominates.
+ * <p>
+ * Run: {@code mvn -q test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.roofingcrm.service.mail.EmailTemplateBenchmark}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailTemplateBenchmark {
+
+    @Param({"none", "long"})
+    public String customMessage;
+
+    private Tenant tenant;
+    private Invoice invoice;
+    private String message;
+    private InvoiceEmailTemplateBuilder compiled;
+
+    @Setup
+    public void setUp() {
+        tenant = new Tenant();
+        tenant.setId(UUID.randomUUID());
+        tenant.setName("Smith & Daughters Roofing");
+        tenant.setDefaultCurrencyCode("USD");
+        invoice = new Invoice();
+        invoice.setInvoiceNumber("INV-2024-00042");
+        invoice.setTotal(new BigDecimal("18450.75"));
+        message = "long".equals(customMessage)
+                ? "Thanks for choosing us! Your balance covers the tear-off & re-roof <phase 2>. ".repeat(26)
+                : null;
+        compiled = new InvoiceEmailTemplateBuilder();
+    }
+
+    @Benchmark
+    public EmailMessage legacy() {
+        return LegacyInvoiceEmail.build(tenant, invoice, "customer@example.com", "Jordan", null, message,
+                "https://app.example.com/public/invoices/3f1c2b9a7d");
+    }
+
+    @Benchmark
+    public EmailMessage compiled() {
+        return compiled.build(tenant, invoice, "customer@example.com", "Jordan", null, message,
+                "https://app.example.com/public/invoices/3f1c2b9a7d");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EmailTemplateBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /** The builder as it was before templates were precompiled, kept as the baseline. */
+    private static final class LegacyInvoiceEmail {
+
+        static EmailMessage build(Tenant tenant, Invoice invoice, String recipientEmail, String recipientName,
+                                  String subjectOverride, String customMessage, String publicUrl) {
+            String senderName = isBlank(tenant.getName()) ? "Your roofing team" : tenant.getName().trim();
+            String subject = isBlank(subjectOverride)
+                    ? "Invoice " + invoice.getInvoiceNumber() + " from " + senderName
+                    : subjectOverride.trim();
+            String greeting = isBlank(recipientName) ? "Hello," : "Hello " + recipientName.trim() + ",";
+            String intro = isBlank(customMessage)
+                    ? "Please review your invoice using the secure link below."
+                    : customMessage.trim();
+            String total = formatMoney(invoice.getTotal(), tenant.getDefaultCurrencyCode());
+
+            String html = """
+                    <p>%s</p>
+                    <p>%s</p>
+                    <p><strong>Invoice:</strong> %s<br/><strong>Total:</strong> %s</p>
+                    <p><a href="%s">View Invoice</a></p>
+                    <p>If the button above does not work, copy and paste this URL into your browser:<br/>%s</p>
+                    <p>Thank you,<br/>%s</p>
+                    """.formatted(escapeHtml(greeting), escapeHtml(intro), escapeHtml(invoice.getInvoiceNumber()),
+                    escapeHtml(total), escapeHtml(publicUrl), escapeHtml(publicUrl), escapeHtml(senderName));
+
+            String text = """
+                    %s
+
+                    %s
+
+                    Invoice: %s
+                    Total: %s
+
+                    View Invoice: %s
+
+                    Thank you,
+                    %s
+                    """.formatted(greeting, intro, invoice.getInvoiceNumber(), total, publicUrl, senderName);
+
+            return new EmailMessage(recipientEmail, subject, html, text);
+        }
+
+        private static String formatMoney(BigDecimal amount, String currencyCode) {
+            NumberFormat formatter = NumberFormat.getCurrencyInstance(Locale.US);
+            String code = isBlank(currencyCode) ? "USD" : currencyCode.trim().toUpperCase(Locale.US);
+            formatter.setCurrency(Currency.getInstance(code));
+            return formatter.format(amount == null ? BigDecimal.ZERO : amount);
+        }
+
+        private static boolean isBlank(String value) {
+            return value == null || value.trim().isEmpty();
+        }
+
+        private static String escapeHtml(String value) {
+            if (value == null) {
+                return "";
+            }
+            return value
+                    .replace("&", "&amp;")
+                    .replace("<", "&lt;")
+                    .replace(">", "&gt;")
+                    .replace("\"", "&quot;")
+                    .replace("'", "&#39;");
+        }
+    }
+}
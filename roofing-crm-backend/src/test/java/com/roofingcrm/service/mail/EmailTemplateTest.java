@@ -0,0 +1,95 @@
+package com.roofingcrm.service.mail;
+
+import com.roofingcrm.domain.entity.Invoice;
+import com.roofingcrm.domain.entity.Tenant;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EmailTemplateTest {
+
+    @Test
+    void html_escapesValues_rawPlaceholdersPassThrough() {
+        EmailTemplate template = EmailTemplate.html("<p>{{name}}</p>{{{footer}}}<a href=\"{{ url }}\">x</a>");
+
+        String rendered = template.render(Map.of(
+                "name", "Tom & \"Jerry's\" <Roofing>",
+                "footer", "<p>Thanks</p>",
+                "url", "https://example.com/?a=1&b=2"));
+
+        assertEquals("<p>Tom &amp; &quot;Jerry&#39;s&quot; &lt;Roofing&gt;</p><p>Thanks</p>"
+                + "<a href=\"https://example.com/?a=1&amp;b=2\">x</a>", rendered);
+    }
+
+    @Test
+    void text_doesNotEscape_missingValuesRenderEmpty() {
+        EmailTemplate template = EmailTemplate.text("Hi {{name}},{{missing}} total {{total}}");
+
+        Map<String, String> values = Map.of("name", "<Bob>", "total", "$5.00");
+        assertEquals("Hi <Bob>, total $5.00", template.render(values));
+        assertEquals("Hi <Bob>, total $5.00".length(), template.renderedLengthHint(values));
+    }
+
+    @Test
+    void parse_rejectsUnclosedPlaceholder() {
+        assertThrows(IllegalArgumentException.class, () -> EmailTemplate.html("<p>{{name</p>"));
+    }
+
+    @Test
+    void invoiceEmail_matchesPreviousLayout() {
+        Tenant tenant = new Tenant();
+        tenant.setId(UUID.randomUUID());
+        tenant.setName(" Acme & Sons ");
+        tenant.setDefaultCurrencyCode("usd");
+        Invoice invoice = new Invoice();
+        invoice.setInvoiceNumber("INV-7");
+        invoice.setTotal(new BigDecimal("1234.5"));
+
+        EmailMessage message = new InvoiceEmailTemplateBuilder().build(tenant, invoice, "c@example.com", "Dana",
+                null, null, "https://app.example.com/invoice/abc");
+
+        assertEquals("Invoice INV-7 from Acme & Sons", message.subject());
+        assertEquals("""
+                <p>Hello Dana,</p>
+                <p>Please review your invoice using the secure link below.</p>
+                <p><strong>Invoice:</strong> INV-7<br/><strong>Total:</strong> $1,234.50</p>
+                <p><a href="https://app.example.com/invoice/abc">View Invoice</a></p>
+                <p>If the button above does not work, copy and paste this URL into your browser:<br/>https://app.example.com/invoice/abc</p>
+                <p>Thank you,<br/>Acme &amp; Sons</p>
+                """, message.html());
+        assertEquals("""
+                Hello Dana,
+
+                Please review your invoice using the secure link below.
+
+                Invoice: INV-7
+                Total: $1,234.50
+
+                View Invoice: https://app.example.com/invoice/abc
+
+                Thank you,
+                Acme & Sons
+                """, message.text());
+    }
+
+    @Test
+    void tenantFragments_cachedPerTenant_rebuiltOnRename() {
+        TenantEmailFragments fragments = new TenantEmailFragments(100, Duration.ofMinutes(5));
+        Tenant tenant = new Tenant();
+        tenant.setId(UUID.randomUUID());
+        tenant.setName("Acme");
+
+        TenantEmailFragments.Fragments first = fragments.forTenant(tenant);
+        assertSame(first, fragments.forTenant(tenant));
+
+        tenant.setName("Acme Roofing");
+        assertEquals("<p>Thank you,<br/>Acme Roofing</p>", fragments.forTenant(tenant).htmlFooter());
+    }
+}
@@ -1,5 +1,6 @@
 package com.roofingcrm.service.mail;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.web.client.RestClient;
 
@@ -11,18 +12,20 @@ import static org.mockito.Mockito.RETURNS_SELF;
 class MailConfigTest {
 
     private final MailConfig mailConfig = new MailConfig();
+    private final OutboundEmailQueue queue = mock(OutboundEmailQueue.class);
 
     @Test
     void emailService_whenDisabled_returnsNoopService() {
         MailProperties properties = new MailProperties();
 
-        EmailService emailService = mailConfig.emailService(mock(RestClient.Builder.class, RETURNS_SELF), properties);
+        EmailService emailService = mailConfig.emailService(mock(RestClient.Builder.class, RETURNS_SELF), properties, queue,
+                new SimpleMeterRegistry());
 
         assertInstanceOf(NoopEmailService.class, emailService);
     }
 
     @Test
-    void emailService_whenEnabledWithResendConfig_returnsResendService() {
+    void emailService_whenEnabledWithResendConfig_returnsQueuedService() {
         MailProperties properties = new MailProperties();
         properties.setEnabled(true);
         properties.setProvider("resend");
@@ -33,9 +36,10 @@ class MailConfigTest {
         RestClient.Builder builder = mock(RestClient.Builder.class, RETURNS_SELF);
         when(builder.build()).thenReturn(mock(RestClient.class));
 
-        EmailService emailService = mailConfig.emailService(builder, properties);
+        EmailService emailService = mailConfig.emailService(builder, properties, queue, new SimpleMeterRegistry());
 
-        assertInstanceOf(ResendEmailService.class, emailService);
+        assertInstanceOf(QueuedEmailService.class, emailService);
+        ((QueuedEmailService) emailService).close();
     }
 
     @Test
@@ -45,7 +49,8 @@ class MailConfigTest {
         properties.setProvider("resend");
         properties.setFromEmail("noreply@example.com");
 
-        EmailService emailService = mailConfig.emailService(mock(RestClient.Builder.class, RETURNS_SELF), properties);
+        EmailService emailService = mailConfig.emailService(mock(RestClient.Builder.class, RETURNS_SELF), properties, queue,
+                new SimpleMeterRegistry());
 
         assertInstanceOf(NoopEmailService.class, emailService);
     }
@@ -0,0 +1,120 @@
+package com.roofingcrm.service.mail;
+
+import com.roofingcrm.AbstractIntegrationTest;
+import com.roofingcrm.TestDatabaseCleaner;
+import com.roofingcrm.service.mail.OutboundEmailQueue.OutboundEmail;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SuppressWarnings("null")
+class OutboundEmailQueueIntegrationTest extends AbstractIntegrationTest {
+
+    private static final long LEASE_MILLIS = 60_000;
+
+    @Autowired
+    private OutboundEmailQueue queue;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TestDatabaseCleaner dbCleaner;
+
+    @BeforeEach
+    void setUp() {
+        dbCleaner.reset();
+    }
+
+    @Test
+    void enqueue_sameKeyTwice_queuesOnce() {
+        EmailMessage message = new EmailMessage("owner@example.com", "Invoice", "<p>Hi</p>", "Hi");
+
+        EmailReceipt first = queue.enqueue(message, "invoice-1");
+        EmailReceipt second = queue.enqueue(message, "invoice-1");
+
+        assertFalse(first.duplicate());
+        assertTrue(second.duplicate());
+        assertEquals(first.id(), second.id());
+        assertEquals(1, count("PENDING"));
+    }
+
+    @Test
+    void enqueue_inRolledBackTransaction_leavesNothingQueued() {
+        transactionTemplate.executeWithoutResult(status -> {
+            queue.enqueue(new EmailMessage("owner@example.com", "Invoice", "<p>Hi</p>", "Hi"), "rolled-back");
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, count("PENDING"));
+    }
+
+    @Test
+    void claim_roundTripsAttachments_andLeasesRowsAwayFromOtherWorkers() {
+        EmailAttachment pdf = new EmailAttachment("report.pdf", "JVBERi0=", "application/pdf");
+        queue.enqueue(new EmailMessage("owner@example.com", "Report", "<p>Hi</p>", "Hi", List.of(pdf)), "report-1");
+
+        List<OutboundEmail> claimed = queue.claimDue(10, LEASE_MILLIS);
+
+        assertEquals(1, claimed.size());
+        assertEquals(1, claimed.get(0).attempts());
+        assertEquals(List.of(pdf), claimed.get(0).message().attachments());
+        assertTrue(queue.claimDue(10, LEASE_MILLIS).isEmpty());
+
+        queue.markSent(claimed.get(0).id(), "provider-1");
+        assertEquals(1, count("SENT"));
+        assertNull(jdbcTemplate.queryForObject("SELECT attachments::text FROM outbound_emails", String.class));
+    }
+
+    @Test
+    void retry_isClaimedAgainOnceDue_andExpiredLeasesAreReclaimed() {
+        queue.enqueue(new EmailMessage("owner@example.com", "Invoice", "<p>Hi</p>", "Hi"), "invoice-2");
+        OutboundEmail email = queue.claimDue(10, LEASE_MILLIS).get(0);
+
+        queue.markRetry(email.id(), 60_000, "503 unavailable");
+        assertTrue(queue.claimDue(10, LEASE_MILLIS).isEmpty());
+
+        queue.markRetry(email.id(), 0, "503 unavailable");
+        OutboundEmail retried = queue.claimDue(10, 0).get(0);
+        assertEquals(2, retried.attempts());
+
+        // Zero lease: as if the worker holding it died.
+        assertEquals(3, queue.claimDue(10, LEASE_MILLIS).get(0).attempts());
+    }
+
+    @Test
+    void retriedBatch_isClaimedWithItsMembership_andReleaseDoesNotCountTheAttempt() {
+        queue.enqueue(new EmailMessage("a@example.com", "Invoice", "<p>Hi</p>", "Hi"), "invoice-a");
+        queue.enqueue(new EmailMessage("b@example.com", "Invoice", "<p>Hi</p>", "Hi"), "invoice-b");
+        List<OutboundEmail> batch = queue.claimDue(10, LEASE_MILLIS);
+        List<UUID> ids = batch.stream().map(OutboundEmail::id).toList();
+        queue.assignBatch(ids, "batch:1");
+        queue.markRetry(ids, 0, "503 unavailable");
+
+        List<OutboundEmail> retried = queue.claimDue(10, LEASE_MILLIS);
+
+        assertEquals(2, retried.size());
+        assertTrue(retried.stream().allMatch(e -> "batch:1".equals(e.batchKey()) && e.batchSize() == 2));
+        queue.release(ids);
+        assertEquals(2, queue.claimDue(10, LEASE_MILLIS).get(0).attempts());
+    }
+
+    private int count(String status) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM outbound_emails WHERE status = ?", Integer.class, status);
+        return count != null ? count : 0;
+    }
+}
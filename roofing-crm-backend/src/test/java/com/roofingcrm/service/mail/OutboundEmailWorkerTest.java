@@ -0,0 +1,230 @@
+package com.roofingcrm.service.mail;
+
+import com.roofingcrm.service.exception.MailDeliveryException;
+import com.roofingcrm.service.mail.OutboundEmailQueue.OutboundEmail;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings("null")
+class OutboundEmailWorkerTest {
+
+    @Mock
+    private OutboundEmailQueue queue;
+
+    @Mock
+    private EmailDeliveryClient client;
+
+    private final MailProperties.Queue properties = new MailProperties.Queue();
+    private OutboundEmailWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        properties.setWorkers(2);
+        properties.setBatchSize(10);
+        properties.setMaxAttempts(3);
+        properties.setInitialBackoffMillis(1_000);
+        properties.setMaxBackoffMillis(60_000);
+        when(client.maxBatchSize()).thenReturn(100);
+        lenient().when(client.supportsBatch(any()))
+                .thenAnswer(invocation -> ((EmailMessage) invocation.getArgument(0)).attachments().isEmpty());
+        worker = new OutboundEmailWorker(queue, client, properties, new SimpleMeterRegistry(),
+                Executors.newFixedThreadPool(2), () -> 1.0d);
+    }
+
+    @AfterEach
+    void tearDown() {
+        worker.close();
+    }
+
+    @Test
+    void firstAttempts_areBatched_attachmentsAndRetriesGoAlone() {
+        OutboundEmail first = email(1, false);
+        OutboundEmail second = email(1, false);
+        OutboundEmail withPdf = email(1, true);
+        OutboundEmail retry = email(2, false);
+        when(queue.claimDue(20, properties.getLeaseMillis())).thenReturn(List.of(first, second, withPdf, retry));
+        when(client.sendBatch(anyList(), anyString())).thenReturn(List.of("p1", "p2"));
+        when(client.send(any(), anyString())).thenReturn("single");
+
+        assertEquals(4, worker.pollOnce());
+
+        boolean firstLeads = OutboundEmailWorker.inBatchOrder(List.of(first, second)).get(0) == first;
+
+        List<OutboundEmail> batch = OutboundEmailWorker.inBatchOrder(List.of(first, second));
+        String batchKey = OutboundEmailWorker.batchKey(batch);
+        verify(queue).assignBatch(List.of(batch.get(0).id(), batch.get(1).id()), batchKey);
+        verify(client).sendBatch(List.of(batch.get(0).message(), batch.get(1).message()), batchKey);
+        verify(client).send(withPdf.message(), withPdf.idempotencyKey());
+        verify(client).send(retry.message(), retry.idempotencyKey());
+        verify(queue).markSent(first.id(), firstLeads ? "p1" : "p2");
+        verify(queue).markSent(second.id(), firstLeads ? "p2" : "p1");
+        verify(queue).markSent(withPdf.id(), "single");
+        verify(queue).markSent(retry.id(), "single");
+    }
+
+    @Test
+    void serverError_isRetriedWithBackoff() {
+        OutboundEmail email = email(2, false);
+        when(queue.claimDue(20, properties.getLeaseMillis())).thenReturn(List.of(email));
+        when(client.send(any(), anyString())).thenThrow(new MailDeliveryException("Failed",
+                new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE)));
+
+        worker.pollOnce();
+
+        verify(queue).markRetry(eq(email.id()), eq(2_000L), anyString());
+        verify(queue, never()).markFailed(any(), anyString());
+    }
+
+    @Test
+    void validationError_failsWithoutRetry() {
+        OutboundEmail email = email(1, true);
+        when(queue.claimDue(20, properties.getLeaseMillis())).thenReturn(List.of(email));
+        when(client.send(any(), anyString())).thenThrow(new MailDeliveryException("Failed",
+                new HttpClientErrorException(HttpStatus.UNPROCESSABLE_ENTITY)));
+
+        worker.pollOnce();
+
+        verify(queue).markFailed(eq(email.id()), anyString());
+        verify(queue, never()).markRetry(any(UUID.class), any(Long.class), anyString());
+    }
+
+    @Test
+    void batchRejectedPermanently_isResentOneByOne_onlyTheBadMessageFails() {
+        OutboundEmail good = email(1, false);
+        OutboundEmail bad = email(1, false);
+        when(queue.claimDue(20, properties.getLeaseMillis())).thenReturn(List.of(good, bad));
+        when(client.sendBatch(anyList(), anyString())).thenThrow(new MailDeliveryException("Failed",
+                new HttpClientErrorException(HttpStatus.UNPROCESSABLE_ENTITY)));
+        when(client.send(good.message(), good.idempotencyKey())).thenReturn("p1");
+        when(client.send(bad.message(), bad.idempotencyKey())).thenThrow(new MailDeliveryException("Failed",
+                new HttpClientErrorException(HttpStatus.UNPROCESSABLE_ENTITY)));
+
+        worker.pollOnce();
+
+        verify(queue).markSent(good.id(), "p1");
+        verify(queue).markFailed(eq(bad.id()), anyString());
+        verify(queue, never()).markFailed(eq(good.id()), anyString());
+    }
+
+    @Test
+    void batchServerError_retriesTheWholeBatchTogether() {
+        OutboundEmail a = email(1, false);
+        OutboundEmail b = email(1, false);
+        when(queue.claimDue(20, properties.getLeaseMillis())).thenReturn(List.of(a, b));
+        when(client.sendBatch(anyList(), anyString())).thenThrow(new MailDeliveryException("Failed",
+                new HttpServerErrorException(HttpStatus.BAD_GATEWAY)));
+
+        worker.pollOnce();
+
+        List<UUID> ids = OutboundEmailWorker.inBatchOrder(List.of(a, b)).stream().map(OutboundEmail::id).toList();
+        verify(queue).assignBatch(eq(ids), anyString());
+        verify(queue).markRetry(eq(ids), eq(1_000L), anyString());
+        verify(client, never()).send(any(), anyString());
+    }
+
+    @Test
+    void retriedBatch_isResentWithSameMembersAndKey() {
+        OutboundEmail a = email(1, false);
+        OutboundEmail b = email(1, false);
+        String key = OutboundEmailWorker.batchKey(OutboundEmailWorker.inBatchOrder(List.of(a, b)));
+        OutboundEmail retryB = inBatch(b, key);
+        OutboundEmail retryA = inBatch(a, key);
+        when(queue.claimDue(20, properties.getLeaseMillis())).thenReturn(List.of(retryB, retryA));
+        when(client.sendBatch(anyList(), eq(key))).thenReturn(List.of("p1", "p2"));
+
+        worker.pollOnce();
+
+        List<OutboundEmail> ordered = OutboundEmailWorker.inBatchOrder(List.of(a, b));
+        verify(client).sendBatch(List.of(ordered.get(0).message(), ordered.get(1).message()), key);
+        verify(queue, never()).assignBatch(anyList(), anyString());
+        verify(client, never()).send(any(), anyString());
+    }
+
+    @Test
+    void partlyClaimedBatch_isReleasedUntilAllMembersAreDue() {
+        OutboundEmail a = email(1, false);
+        OutboundEmail retryA = inBatch(a, "batch:1");
+        when(queue.claimDue(20, properties.getLeaseMillis())).thenReturn(List.of(retryA));
+
+        worker.pollOnce();
+
+        verify(queue).release(List.of(a.id()));
+        verify(client, never()).sendBatch(anyList(), anyString());
+        verify(client, never()).send(any(), anyString());
+    }
+
+    @Test
+    void lastAttempt_failsInsteadOfRetrying() {
+        OutboundEmail email = email(3, false);
+        when(queue.claimDue(20, properties.getLeaseMillis())).thenReturn(List.of(email));
+        when(client.send(any(), anyString())).thenThrow(new MailDeliveryException("Failed",
+                new HttpClientErrorException(HttpStatus.TOO_MANY_REQUESTS)));
+
+        worker.pollOnce();
+
+        verify(queue).markFailed(eq(email.id()), anyString());
+    }
+
+    @Test
+    void backoff_doublesPerAttemptUpToCap() {
+        assertEquals(1_000, OutboundEmailWorker.backoffMillis(1, 1_000, 60_000, 1.0));
+        assertEquals(4_000, OutboundEmailWorker.backoffMillis(3, 1_000, 60_000, 1.0));
+        assertEquals(2_000, OutboundEmailWorker.backoffMillis(3, 1_000, 60_000, 0.0));
+        assertEquals(60_000, OutboundEmailWorker.backoffMillis(40, 1_000, 60_000, 1.0));
+    }
+
+    @Test
+    void retryable_onlyTransientStatuses() {
+        assertTrue(OutboundEmailWorker.isRetryable(new HttpClientErrorException(HttpStatus.TOO_MANY_REQUESTS)));
+        assertTrue(OutboundEmailWorker.isRetryable(new HttpClientErrorException(HttpStatus.CONFLICT)));
+        assertTrue(OutboundEmailWorker.isRetryable(new MailDeliveryException("timeout", new RuntimeException())));
+        assertFalse(OutboundEmailWorker.isRetryable(new HttpClientErrorException(HttpStatus.UNAUTHORIZED)));
+    }
+
+    @Test
+    void batchKey_dependsOnMembers() {
+        OutboundEmail a = email(1, false);
+        OutboundEmail b = email(1, false);
+        assertEquals(OutboundEmailWorker.batchKey(List.of(a, b)), OutboundEmailWorker.batchKey(List.of(a, b)));
+        assertNotEquals(OutboundEmailWorker.batchKey(List.of(a, b)), OutboundEmailWorker.batchKey(List.of(a)));
+    }
+
+    private static OutboundEmail inBatch(OutboundEmail email, String batchKey) {
+        return new OutboundEmail(email.id(), email.idempotencyKey(), email.message(), 2, batchKey, 2);
+    }
+
+    private static OutboundEmail email(int attempts, boolean withAttachment) {
+        UUID id = UUID.randomUUID();
+        List<EmailAttachment> attachments = withAttachment
+                ? List.of(new EmailAttachment("report.pdf", "JVBERi0=", "application/pdf"))
+                : List.of();
+        return new OutboundEmail(id, "key-" + id,
+                new EmailMessage(id + "@example.com", "Subject", "<p>Hi</p>", "Hi", attachments), attempts);
+    }
+}
@@ -0,0 +1,96 @@
+package com.roofingcrm.service.mail;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings("null")
+class QueuedEmailServiceTest {
+
+    private static final EmailMessage MESSAGE = new EmailMessage("owner@example.com", "Invoice", "<p>Hi</p>", "Hi");
+
+    @Mock
+    private OutboundEmailQueue queue;
+
+    @Mock
+    private OutboundEmailWorker worker;
+
+    private QueuedEmailService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new QueuedEmailService(queue, worker);
+    }
+
+    @Test
+    void send_withoutTransaction_queuesAndWakesWorker() {
+        EmailReceipt queued = new EmailReceipt(UUID.randomUUID(), "explicit", false);
+        when(queue.enqueue(MESSAGE, "explicit")).thenReturn(queued);
+
+        assertSame(queued, service.send(MESSAGE, "explicit"));
+
+        verify(worker).wakeUp();
+    }
+
+    @Test
+    void send_inTransaction_wakesWorkerOnlyAfterCommit() {
+        when(queue.enqueue(eq(MESSAGE), anyString()))
+                .thenReturn(new EmailReceipt(UUID.randomUUID(), "k", false));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.send(MESSAGE);
+            verify(worker, never()).wakeUp();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(worker).wakeUp();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void send_duplicate_doesNotWakeWorker() {
+        when(queue.enqueue(any(), anyString())).thenReturn(new EmailReceipt(UUID.randomUUID(), "k", true));
+
+        service.send(MESSAGE);
+
+        verify(worker, never()).wakeUp();
+    }
+
+    @Test
+    void send_withoutKey_queuesIdenticalMessagesUnderDistinctKeys() {
+        when(queue.enqueue(eq(MESSAGE), anyString()))
+                .thenAnswer(invocation -> new EmailReceipt(UUID.randomUUID(), invocation.getArgument(1), false));
+
+        service.send(MESSAGE);
+        service.send(new EmailMessage("owner@example.com", "Invoice", "<p>Hi</p>", "Hi"));
+
+        ArgumentCaptor<String> keys = ArgumentCaptor.forClass(String.class);
+        verify(queue, times(2)).enqueue(any(), keys.capture());
+        List<String> captured = keys.getAllValues();
+        assertNotEquals(captured.get(0), captured.get(1));
+        assertTrue(captured.get(0).startsWith("msg:"));
+        verify(worker, times(2)).wakeUp();
+    }
+}
@@ -0,0 +1,130 @@
+package com.roofingcrm.service.mail;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.roofingcrm.service.exception.MailDeliveryException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the Resend client against a local HTTP stub standing in for api.resend.com.
+ */
+class ResendEmailClientTest {
+
+    private record Recorded(String path, String authorization, String idempotencyKey, JsonNode body) {
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Recorded> requests = new CopyOnWriteArrayList<>();
+
+    private HttpServer server;
+    private volatile int status = 200;
+    private volatile String responseBody = "{\"id\":\"email-1\"}";
+    private ResendEmailClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+
+        MailProperties properties = new MailProperties();
+        properties.setFromEmail("noreply@example.com");
+        properties.setFromName("Roofing CRM");
+        properties.getResend().setApiKey("test-key");
+        properties.getResend().setBaseUrl("http://localhost:" + server.getAddress().getPort());
+        client = new ResendEmailClient(RestClient.builder(), properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void send_postsMessageWithIdempotencyKeyAndReturnsProviderId() {
+        EmailAttachment pdf = new EmailAttachment("report.pdf", "JVBERi0=", "application/pdf");
+
+        String id = client.send(new EmailMessage("owner@example.com", "Report", "<p>Hi</p>", "Hi", List.of(pdf)),
+                "auto:abc");
+
+        assertEquals("email-1", id);
+        Recorded request = requests.get(0);
+        assertEquals("/emails", request.path());
+        assertEquals("Bearer test-key", request.authorization());
+        assertEquals("auto:abc", request.idempotencyKey());
+        assertEquals("Roofing CRM <noreply@example.com>", request.body().get("from").asText());
+        assertEquals("owner@example.com", request.body().get("to").get(0).asText());
+        assertEquals("application/pdf", request.body().get("attachments").get(0).get("content_type").asText());
+    }
+
+    @Test
+    void sendBatch_postsArrayAndReturnsIdsInOrder() {
+        responseBody = "{\"data\":[{\"id\":\"a\"},{\"id\":\"b\"}]}";
+
+        List<String> ids = client.sendBatch(List.of(
+                new EmailMessage("one@example.com", "One", "<p>1</p>", "1"),
+                new EmailMessage("two@example.com", "Two", "<p>2</p>", "2")), "batch:xyz");
+
+        assertEquals(List.of("a", "b"), ids);
+        Recorded request = requests.get(0);
+        assertEquals("/emails/batch", request.path());
+        assertEquals("batch:xyz", request.idempotencyKey());
+        assertTrue(request.body().isArray());
+        assertEquals("two@example.com", request.body().get(1).get("to").get(0).asText());
+    }
+
+    @Test
+    void supportsBatch_onlyWithoutAttachments() {
+        assertTrue(client.supportsBatch(new EmailMessage("a@example.com", "s", "h", "t")));
+        assertFalse(client.supportsBatch(new EmailMessage("a@example.com", "s", "h", "t",
+                List.of(new EmailAttachment("a.pdf", "AA==", "application/pdf")))));
+    }
+
+    @Test
+    void send_providerError_throwsMailDeliveryExceptionWithStatus() {
+        status = 503;
+        responseBody = "{\"message\":\"unavailable\"}";
+
+        MailDeliveryException ex = assertThrows(MailDeliveryException.class, () ->
+                client.send(new EmailMessage("a@example.com", "s", "h", "t"), "auto:1"));
+
+        RestClientResponseException cause = assertInstanceOf(RestClientResponseException.class, ex.getCause());
+        assertEquals(503, cause.getStatusCode().value());
+        assertTrue(OutboundEmailWorker.isRetryable(ex));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        byte[] requestBody = exchange.getRequestBody().readAllBytes();
+        requests.add(new Recorded(
+                exchange.getRequestURI().getPath(),
+                exchange.getRequestHeaders().getFirst("Authorization"),
+                exchange.getRequestHeaders().getFirst("Idempotency-Key"),
+                objectMapper.readTree(requestBody)));
+        byte[] response = responseBody.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, response.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(response);
+        }
+    }
+}
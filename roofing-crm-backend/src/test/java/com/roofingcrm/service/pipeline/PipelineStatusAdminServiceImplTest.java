@@ -5,6 +5,7 @@ import com.roofingcrm.domain.entity.PipelineStatusDefinition;
 import com.roofingcrm.domain.entity.Tenant;
 import com.roofingcrm.domain.enums.PipelineType;
 import com.roofingcrm.domain.repository.PipelineStatusDefinitionRepository;
+import com.roofingcrm.service.cache.ReferenceDataCacheInvalidator;
 import com.roofingcrm.service.tenant.TenantAccessService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -42,6 +43,9 @@ class PipelineStatusAdminServiceImplTest {
     @Mock
     private PipelineStatusDefinitionRepository definitionRepository;
 
+    @Mock
+    private ReferenceDataCacheInvalidator cacheInvalidator;
+
     private PipelineStatusAdminServiceImpl service;
     private Tenant tenant;
     private UUID tenantId;
@@ -49,7 +53,7 @@ class PipelineStatusAdminServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        service = new PipelineStatusAdminServiceImpl(tenantAccessService, definitionRepository);
+        service = new PipelineStatusAdminServiceImpl(tenantAccessService, definitionRepository, cacheInvalidator);
         tenant = new Tenant();
         tenantId = UUID.randomUUID();
         tenant.setId(tenantId);
@@ -92,6 +96,7 @@ class PipelineStatusAdminServiceImplTest {
         }
         assertEquals("C_early", byOrder.get(keys.size()).getSystemKey());
         assertEquals("C_late", byOrder.get(keys.size() + 1).getSystemKey());
+        verify(cacheInvalidator).evictPipelineStatusesAfterCommit();
         Set<Integer> orders = new HashSet<>();
         for (PipelineStatusDefinition d : saved) {
             assertTrue(orders.add(d.getSortOrder()), "expected unique sort orders");
@@ -0,0 +1,79 @@
+package com.roofingcrm.service.publicview;
+
+import com.roofingcrm.api.publicapi.estimate.PublicEstimateDto;
+import com.roofingcrm.api.publicapi.invoice.PublicInvoiceDto;
+import com.roofingcrm.domain.entity.Estimate;
+import com.roofingcrm.domain.entity.EstimateItem;
+import com.roofingcrm.domain.entity.Invoice;
+import com.roofingcrm.domain.entity.InvoiceItem;
+import com.roofingcrm.domain.entity.Task;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings("null")
+class PublicViewCacheInvalidatorTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private PublicViewCache<PublicEstimateDto> estimateViews;
+
+    @Mock
+    private PublicViewCache<PublicInvoiceDto> invoiceViews;
+
+    private PublicViewCacheInvalidator invalidator;
+
+    @BeforeEach
+    void setUp() {
+        invalidator = new PublicViewCacheInvalidator(entityManagerFactory, estimateViews, invoiceViews);
+    }
+
+    @Test
+    void documentChange_evictsItsView() {
+        Estimate estimate = new Estimate();
+        estimate.setId(UUID.randomUUID());
+
+        invalidator.evict(estimate);
+
+        verify(estimateViews).evict(estimate.getId());
+        verify(invoiceViews, never()).evict(any());
+    }
+
+    @Test
+    void itemChange_evictsParentView() {
+        Invoice invoice = new Invoice();
+        invoice.setId(UUID.randomUUID());
+        InvoiceItem item = new InvoiceItem();
+        item.setInvoice(invoice);
+        Estimate estimate = new Estimate();
+        estimate.setId(UUID.randomUUID());
+        EstimateItem estimateItem = new EstimateItem();
+        estimateItem.setEstimate(estimate);
+
+        invalidator.evict(item);
+        invalidator.evict(estimateItem);
+
+        verify(invoiceViews).evict(invoice.getId());
+        verify(estimateViews).evict(estimate.getId());
+    }
+
+    @Test
+    void unrelatedEntity_evictsNothing() {
+        invalidator.evict(new Task());
+
+        verify(estimateViews, never()).evict(any());
+        verify(invoiceViews, never()).evict(any());
+    }
+}
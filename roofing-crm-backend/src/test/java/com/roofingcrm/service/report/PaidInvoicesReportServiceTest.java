@@ -1,30 +1,36 @@
 package com.roofingcrm.service.report;
 
-import com.roofingcrm.domain.entity.Customer;
-import com.roofingcrm.domain.entity.Invoice;
-import com.roofingcrm.domain.entity.Job;
 import com.roofingcrm.domain.entity.Tenant;
-import com.roofingcrm.domain.enums.InvoiceStatus;
 import com.roofingcrm.domain.repository.InvoiceRepository;
-import com.roofingcrm.domain.value.Address;
+import com.roofingcrm.domain.repository.InvoiceRepository.PaidInvoiceRowView;
 import com.roofingcrm.service.exception.NoPaidInvoicesForYearException;
 import com.roofingcrm.service.tenant.TenantAccessService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import org.springframework.data.domain.PageRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -36,18 +42,28 @@ class PaidInvoicesReportServiceTest {
     private TenantAccessService tenantAccessService;
     @Mock
     private InvoiceRepository invoiceRepository;
+    @Mock
+    private ReportDataFingerprint dataFingerprint;
 
+    private PaidInvoicesPdfProperties properties;
+    private PaidInvoicesPdfCache cache;
     private PaidInvoicesReportService service;
     private Tenant tenant;
     private UUID tenantId;
     private UUID userId;
 
     @BeforeEach
-    void setUp() {
+    void setUp() throws IOException {
+        properties = new PaidInvoicesPdfProperties();
+        properties.setPageSize(2);
+        cache = new PaidInvoicesPdfCache(properties, new SimpleMeterRegistry());
         service = new PaidInvoicesReportService(
                 tenantAccessService,
                 invoiceRepository,
-                new PaidInvoicesPdfGenerator()
+                new PaidInvoicesPdfGenerator(properties),
+                cache,
+                dataFingerprint,
+                properties
         );
         tenantId = UUID.randomUUID();
         userId = UUID.randomUUID();
@@ -56,25 +72,27 @@ class PaidInvoicesReportServiceTest {
         tenant.setName("Acme Roofing");
     }
 
+    @AfterEach
+    void tearDown() {
+        cache.close();
+    }
+
     @Test
-    void generatePaidInvoicesYearPdf_whenNoInvoices_throwsNotFoundException() {
-        when(tenantAccessService.requireAnyRole(eq(tenantId), eq(userId), any(), any()))
-                .thenReturn(mock(com.roofingcrm.domain.entity.TenantUserMembership.class));
-        when(tenantAccessService.loadTenantForUserOrThrow(tenantId, userId)).thenReturn(tenant);
-        when(invoiceRepository.findPaidInvoicesForYear(eq(tenant), any(), any())).thenReturn(List.of());
+    void openPaidInvoicesYearPdf_whenNoInvoices_throwsNotFoundException() {
+        stubAccess();
+        when(invoiceRepository.findPaidInvoiceRowsForYear(eq(tenant), any(), any(), any())).thenReturn(List.of());
 
         assertThrows(NoPaidInvoicesForYearException.class, () ->
-                service.generatePaidInvoicesYearPdf(tenantId, userId, 2026));
+                service.openPaidInvoicesYearPdf(tenantId, userId, 2026));
     }
 
     @Test
-    void generatePaidInvoicesYearPdf_whenInvoicesExist_returnsPdfBytes() {
-        when(tenantAccessService.requireAnyRole(eq(tenantId), eq(userId), any(), any()))
-                .thenReturn(mock(com.roofingcrm.domain.entity.TenantUserMembership.class));
-        when(tenantAccessService.loadTenantForUserOrThrow(tenantId, userId)).thenReturn(tenant);
-        when(invoiceRepository.findPaidInvoicesForYear(eq(tenant), any(), any())).thenReturn(List.of(sampleInvoice()));
+    void openPaidInvoicesYearPdf_whenInvoicesExist_returnsPdf() throws IOException {
+        stubAccess();
+        when(invoiceRepository.findPaidInvoiceRowsForYear(eq(tenant), any(), any(), any()))
+                .thenReturn(List.of(sampleRow("INV-100", "2026-03-10T12:00:00Z")));
 
-        byte[] pdf = service.generatePaidInvoicesYearPdf(tenantId, userId, 2026);
+        byte[] pdf = read(service.openPaidInvoicesYearPdf(tenantId, userId, 2026));
 
         assertTrue(pdf.length > 4);
         String prefix = new String(pdf, 0, 4);
@@ -82,6 +100,41 @@ class PaidInvoicesReportServiceTest {
         verify(tenantAccessService).requireAnyRole(eq(tenantId), eq(userId), any(), any());
     }
 
+    @Test
+    void openPaidInvoicesYearPdf_fullPage_readsNextPageAfterLastRow() throws IOException {
+        stubAccess();
+        PaidInvoiceRowView first = sampleRow("INV-100", "2026-03-10T12:00:00Z");
+        PaidInvoiceRowView second = sampleRow("INV-101", "2026-04-02T09:30:00Z");
+        when(invoiceRepository.findPaidInvoiceRowsForYear(eq(tenant), any(), any(), eq(PageRequest.of(0, 2))))
+                .thenReturn(List.of(first, second));
+        when(invoiceRepository.findPaidInvoiceRowsForYearAfter(eq(tenant), any(), any(),
+                eq(second.getPaidAt()), eq("INV-101"), eq(second.getId()), eq(PageRequest.of(0, 2))))
+                .thenReturn(List.of(sampleRow("INV-102", "2026-05-20T15:00:00Z")));
+
+        byte[] pdf = read(service.openPaidInvoicesYearPdf(tenantId, userId, 2026));
+
+        assertTrue(new String(pdf, 0, 4).startsWith("%PDF"));
+        verify(invoiceRepository, times(1)).findPaidInvoiceRowsForYearAfter(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void openPaidInvoicesYearPdf_secondRequest_isServedFromCacheUntilTheDataVersionChanges() throws IOException {
+        stubAccess();
+        when(dataFingerprint.paidInvoicesYear(tenantId, 2025)).thenReturn("v1", "v1", "v2");
+        when(invoiceRepository.findPaidInvoiceRowsForYear(eq(tenant), any(), any(), any()))
+                .thenReturn(List.of(sampleRow("INV-100", "2025-03-10T12:00:00Z")));
+
+        byte[] first = read(service.openPaidInvoicesYearPdf(tenantId, userId, 2025));
+        byte[] second = read(service.openPaidInvoicesYearPdf(tenantId, userId, 2025));
+
+        assertEquals(first.length, second.length);
+        verify(invoiceRepository, times(1)).findPaidInvoiceRowsForYear(any(), any(), any(), any());
+
+        read(service.openPaidInvoicesYearPdf(tenantId, userId, 2025));
+
+        verify(invoiceRepository, times(2)).findPaidInvoiceRowsForYear(any(), any(), any(), any());
+    }
+
     @Test
     void getPaidInvoiceYears_requiresOwnerOrAdminRole() {
         when(tenantAccessService.requireAnyRole(eq(tenantId), eq(userId), any(), any()))
@@ -94,22 +147,29 @@ class PaidInvoicesReportServiceTest {
         verify(tenantAccessService).requireAnyRole(eq(tenantId), eq(userId), any(), any());
     }
 
-    private Invoice sampleInvoice() {
-        Customer customer = new Customer();
-        customer.setFirstName("Jane");
-        customer.setLastName("Homeowner");
-
-        Job job = new Job();
-        job.setCustomer(customer);
-        job.setPropertyAddress(new Address("123 Main St", null, "Denver", "CO", "80202", "US"));
-
-        Invoice invoice = new Invoice();
-        invoice.setId(UUID.randomUUID());
-        invoice.setJob(job);
-        invoice.setStatus(InvoiceStatus.PAID);
-        invoice.setInvoiceNumber("INV-100");
-        invoice.setPaidAt(Instant.parse("2026-03-10T12:00:00Z"));
-        invoice.setTotal(new BigDecimal("1234.56"));
-        return invoice;
+    private void stubAccess() {
+        when(tenantAccessService.requireAnyRole(eq(tenantId), eq(userId), any(), any()))
+                .thenReturn(mock(com.roofingcrm.domain.entity.TenantUserMembership.class));
+        when(tenantAccessService.loadTenantForUserOrThrow(tenantId, userId)).thenReturn(tenant);
+        lenient().when(dataFingerprint.paidInvoicesYear(eq(tenantId), anyInt())).thenReturn("v1");
+    }
+
+    private static byte[] read(PaidInvoicesPdfCache.CachedPdf pdf) throws IOException {
+        try (InputStream content = pdf.content()) {
+            byte[] bytes = content.readAllBytes();
+            assertEquals(pdf.size(), bytes.length);
+            return bytes;
+        }
+    }
+
+    private static PaidInvoiceRowView sampleRow(String invoiceNumber, String paidAt) {
+        return new SampleRow(UUID.randomUUID(), invoiceNumber, Instant.parse(paidAt), new BigDecimal("1234.56"),
+                "Jane", "Homeowner", "123 Main St", null, "Denver", "CO", "80202");
+    }
+
+    private record SampleRow(UUID getId, String getInvoiceNumber, Instant getPaidAt, BigDecimal getTotal,
+                             String getCustomerFirstName, String getCustomerLastName, String getAddressLine1,
+                             String getAddressLine2, String getAddressCity, String getAddressState,
+                             String getAddressZip) implements PaidInvoiceRowView {
     }
 }
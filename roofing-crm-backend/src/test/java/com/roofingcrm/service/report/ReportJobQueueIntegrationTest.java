@@ -0,0 +1,165 @@
+package com.roofingcrm.service.report;
+
+import com.roofingcrm.AbstractIntegrationTest;
+import com.roofingcrm.TestDatabaseCleaner;
+import com.roofingcrm.domain.entity.Tenant;
+import com.roofingcrm.domain.enums.ReportJobStatus;
+import com.roofingcrm.domain.enums.ReportType;
+import com.roofingcrm.domain.repository.TenantRepository;
+import com.roofingcrm.service.report.ReportJobQueue.ClaimedReportJob;
+import com.roofingcrm.service.report.ReportJobQueue.Enqueued;
+import com.roofingcrm.service.report.ReportJobQueue.ExpiredFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestPropertySource(properties = "app.reports.jobs.enabled=false")
+@SuppressWarnings("null")
+class ReportJobQueueIntegrationTest extends AbstractIntegrationTest {
+
+    private static final long LEASE_MILLIS = 60_000;
+    private static final ReportJobParameters PAID_2025 = new ReportJobParameters(null, null, null, 2025, null);
+
+    @Autowired
+    private ReportJobQueue queue;
+
+    @Autowired
+    private TenantRepository tenantRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestDatabaseCleaner dbCleaner;
+
+    private UUID tenantId;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        dbCleaner.reset();
+        Tenant tenant = new Tenant();
+        tenant.setName("Report Roofing");
+        tenant.setSlug("report-roofing");
+        tenantId = tenantRepository.save(tenant).getId();
+        userId = UUID.randomUUID();
+    }
+
+    @Test
+    void enqueue_sameKeyWhileLive_joinsExistingJob() {
+        Enqueued first = queue.enqueue(tenantId, userId, ReportType.PAID_INVOICES_PDF, PAID_2025, "key-1");
+        Enqueued second = queue.enqueue(tenantId, userId, ReportType.PAID_INVOICES_PDF, PAID_2025, "key-1");
+        Enqueued other = queue.enqueue(tenantId, userId, ReportType.PAID_INVOICES_PDF, PAID_2025, "key-2");
+
+        assertFalse(first.duplicate());
+        assertTrue(second.duplicate());
+        assertEquals(first.id(), second.id());
+        assertNotEquals(first.id(), other.id());
+    }
+
+    @Test
+    void claim_leasesJobAwayFromOtherWorkers_andRoundTripsParameters() {
+        Enqueued enqueued = queue.enqueue(tenantId, userId, ReportType.PAID_INVOICES_PDF, PAID_2025, "key-1");
+
+        List<ClaimedReportJob> claimed = queue.claim(10, LEASE_MILLIS, 2);
+
+        assertEquals(1, claimed.size());
+        ClaimedReportJob job = claimed.get(0);
+        assertEquals(enqueued.id(), job.id());
+        assertEquals("report-roofing", job.tenantSlug());
+        assertEquals(userId, job.requestedByUserId());
+        assertEquals(PAID_2025, job.parameters());
+        assertEquals(1, job.attempts());
+        assertTrue(queue.claim(10, LEASE_MILLIS, 2).isEmpty());
+        assertEquals(ReportJobStatus.RUNNING, queue.find(tenantId, job.id()).orElseThrow().status());
+    }
+
+    @Test
+    void markSucceeded_afterLostLease_isRejected() {
+        queue.enqueue(tenantId, userId, ReportType.PAID_INVOICES_PDF, PAID_2025, "key-1");
+        ClaimedReportJob stale = queue.claim(10, 0, 2).get(0);
+        ClaimedReportJob current = queue.claim(10, LEASE_MILLIS, 2).get(0);
+
+        assertFalse(queue.markSucceeded(stale, "a", "paid.pdf", "application/pdf", 10, 60));
+        assertTrue(queue.markSucceeded(current, "b", "paid.pdf", "application/pdf", 10, 60));
+
+        ReportJobQueue.ReportJob job = queue.find(tenantId, current.id()).orElseThrow();
+        assertEquals(ReportJobStatus.SUCCEEDED, job.status());
+        assertEquals("b", job.storageKey());
+        assertEquals(10L, job.sizeBytes());
+    }
+
+    @Test
+    void renew_keepsJobAwayFromOtherWorkers_onlyForTheClaimHolder() {
+        queue.enqueue(tenantId, userId, ReportType.PAID_INVOICES_PDF, PAID_2025, "key-1");
+        ClaimedReportJob stale = queue.claim(10, 0, 3).get(0);
+        ClaimedReportJob current = queue.claim(10, 0, 3).get(0);
+
+        assertFalse(queue.renew(stale, LEASE_MILLIS));
+        assertTrue(queue.renew(current, LEASE_MILLIS));
+        assertTrue(queue.claim(10, LEASE_MILLIS, 3).isEmpty());
+    }
+
+    @Test
+    void release_queuesJobAgain_withoutCountingTheAttempt() {
+        queue.enqueue(tenantId, userId, ReportType.PAID_INVOICES_PDF, PAID_2025, "key-1");
+        ClaimedReportJob job = queue.claim(10, LEASE_MILLIS, 1).get(0);
+
+        assertTrue(queue.release(job));
+
+        assertEquals(ReportJobStatus.QUEUED, queue.find(tenantId, job.id()).orElseThrow().status());
+        ClaimedReportJob reclaimed = queue.claim(10, LEASE_MILLIS, 1).get(0);
+        assertEquals(1, reclaimed.attempts());
+    }
+
+    @Test
+    void failedJob_freesItsKey_forANewRequest() {
+        Enqueued first = queue.enqueue(tenantId, userId, ReportType.PAID_INVOICES_PDF, PAID_2025, "key-1");
+        ClaimedReportJob job = queue.claim(10, LEASE_MILLIS, 2).get(0);
+        assertTrue(queue.markFailed(job, "No paid invoices."));
+
+        Enqueued retry = queue.enqueue(tenantId, userId, ReportType.PAID_INVOICES_PDF, PAID_2025, "key-1");
+
+        assertFalse(retry.duplicate());
+        assertNotEquals(first.id(), retry.id());
+        assertEquals("No paid invoices.", queue.find(tenantId, first.id()).orElseThrow().error());
+    }
+
+    @Test
+    void expire_returnsFilesToDelete_andFreesTheKey() {
+        Enqueued first = queue.enqueue(tenantId, userId, ReportType.PAID_INVOICES_PDF, PAID_2025, "key-1");
+        ClaimedReportJob job = queue.claim(10, LEASE_MILLIS, 2).get(0);
+        queue.markSucceeded(job, "report-roofing/file", "paid.pdf", "application/pdf", 10, 0);
+
+        List<ExpiredFile> expired = queue.expire(10);
+
+        assertEquals(List.of(new ExpiredFile(first.id(), "report-roofing/file")), expired);
+        queue.clearStorageKey(first.id());
+        assertTrue(queue.expire(10).isEmpty());
+        assertNull(queue.find(tenantId, first.id()).orElseThrow().storageKey());
+        assertFalse(queue.enqueue(tenantId, userId, ReportType.PAID_INVOICES_PDF, PAID_2025, "key-1").duplicate());
+    }
+
+    @Test
+    void failAbandoned_failsJobsWhoseLastLeaseExpired() {
+        queue.enqueue(tenantId, userId, ReportType.JOBS_CSV, new ReportJobParameters(null, null, 2000, null, null),
+                "key-1");
+        ClaimedReportJob job = queue.claim(10, 0, 1).get(0);
+
+        assertTrue(queue.claim(10, LEASE_MILLIS, 1).isEmpty());
+        assertEquals(1, queue.failAbandoned(1).size());
+        assertEquals(ReportJobStatus.FAILED, queue.find(tenantId, job.id()).orElseThrow().status());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM report_jobs", Integer.class));
+    }
+}
@@ -0,0 +1,232 @@
+package com.roofingcrm.service.report;
+
+import com.roofingcrm.api.v1.report.CreateReportJobRequest;
+import com.roofingcrm.api.v1.report.ReportJobDto;
+import com.roofingcrm.domain.enums.ReportJobStatus;
+import com.roofingcrm.domain.enums.ReportType;
+import com.roofingcrm.domain.enums.UserRole;
+import com.roofingcrm.service.exception.ReportJobExpiredException;
+import com.roofingcrm.service.exception.ReportJobNotReadyException;
+import com.roofingcrm.service.exception.ResourceNotFoundException;
+import com.roofingcrm.service.report.ReportJobQueue.ReportJob;
+import com.roofingcrm.service.tenant.TenantAccessDeniedException;
+import com.roofingcrm.service.tenant.TenantAccessService;
+import com.roofingcrm.storage.AttachmentStorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings("null")
+class ReportJobServiceImplTest {
+
+    @Mock
+    private TenantAccessService tenantAccessService;
+
+    @Mock
+    private ReportJobQueue queue;
+
+    @Mock
+    private ReportDataFingerprint fingerprint;
+
+    @Mock
+    private ReportJobWorker worker;
+
+    @Mock
+    private AttachmentStorageService storage;
+
+    private ReportJobServiceImpl service;
+    private UUID tenantId;
+    private UUID userId;
+    private UUID jobId;
+
+    @BeforeEach
+    void setUp() {
+        service = new ReportJobServiceImpl(tenantAccessService, queue, fingerprint, worker, storage);
+        tenantId = UUID.randomUUID();
+        userId = UUID.randomUUID();
+        jobId = UUID.randomUUID();
+    }
+
+    @Test
+    void requestReport_queuesJobWithCanonicalParameters_andWakesWorker() {
+        CreateReportJobRequest request = request(ReportType.PAID_INVOICES_PDF);
+        request.setYear(2025);
+        request.setLimit(10);
+        ReportJobParameters expected = new ReportJobParameters(null, null, null, 2025, null);
+        when(fingerprint.fingerprint(tenantId, ReportType.PAID_INVOICES_PDF, expected)).thenReturn("v1");
+        when(queue.enqueue(eq(tenantId), eq(userId), eq(ReportType.PAID_INVOICES_PDF), eq(expected), anyString()))
+                .thenReturn(new ReportJobQueue.Enqueued(jobId, false));
+        when(queue.find(tenantId, jobId)).thenReturn(Optional.of(job(ReportType.PAID_INVOICES_PDF,
+                ReportJobStatus.QUEUED, null)));
+
+        ReportJobDto dto = service.requestReport(tenantId, userId, request);
+
+        assertEquals(jobId, dto.getId());
+        assertEquals(ReportJobStatus.QUEUED, dto.getStatus());
+        verify(tenantAccessService).requireAnyRole(eq(tenantId), eq(userId),
+                eq(EnumSet.of(UserRole.OWNER, UserRole.ADMIN)), anyString());
+        verify(queue).enqueue(tenantId, userId, ReportType.PAID_INVOICES_PDF, expected,
+                ReportJobServiceImpl.dedupKey(ReportType.PAID_INVOICES_PDF, expected, "v1"));
+        verify(worker).wakeUp();
+    }
+
+    @Test
+    void requestReport_joiningExistingJob_doesNotWakeWorker() {
+        when(fingerprint.fingerprint(eq(tenantId), eq(ReportType.LEADS_CSV), any())).thenReturn("v1");
+        when(queue.enqueue(eq(tenantId), eq(userId), eq(ReportType.LEADS_CSV), any(), anyString()))
+                .thenReturn(new ReportJobQueue.Enqueued(jobId, true));
+        when(queue.find(tenantId, jobId)).thenReturn(Optional.of(job(ReportType.LEADS_CSV,
+                ReportJobStatus.SUCCEEDED, Instant.now().plusSeconds(600))));
+
+        ReportJobDto dto = service.requestReport(tenantId, userId, request(ReportType.LEADS_CSV));
+
+        assertEquals(ReportJobStatus.SUCCEEDED, dto.getStatus());
+        assertEquals("report.pdf", dto.getFileName());
+        verify(worker, never()).wakeUp();
+    }
+
+    @Test
+    void requestReport_withoutRequiredParameter_throwsBeforeAnyLookup() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.requestReport(tenantId, userId, request(ReportType.PAID_INVOICES_PDF)));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.requestReport(tenantId, userId, request(ReportType.CUSTOMER_PHOTO_REPORT_PDF)));
+
+        verifyNoInteractions(tenantAccessService, fingerprint, queue);
+    }
+
+    @Test
+    void requestReport_whenPhotoReportMissing_throwsNotFound() {
+        CreateReportJobRequest request = request(ReportType.CUSTOMER_PHOTO_REPORT_PDF);
+        request.setReportId(UUID.randomUUID());
+        when(fingerprint.fingerprint(eq(tenantId), eq(ReportType.CUSTOMER_PHOTO_REPORT_PDF), any())).thenReturn(null);
+
+        assertThrows(ResourceNotFoundException.class, () -> service.requestReport(tenantId, userId, request));
+
+        verify(queue, never()).enqueue(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void requestReport_whenRoleDenied_doesNotQueue() {
+        when(tenantAccessService.requireAnyRole(eq(tenantId), eq(userId), any(), anyString()))
+                .thenThrow(new TenantAccessDeniedException("You do not have permission to generate reports."));
+
+        assertThrows(TenantAccessDeniedException.class,
+                () -> service.requestReport(tenantId, userId, request(ReportType.ACCOUNTING_JOBS_XLSX)));
+
+        verifyNoInteractions(fingerprint, queue);
+    }
+
+    @Test
+    void parametersFor_keepsOnlyTheTypesParameters_andCapsLimit() {
+        CreateReportJobRequest request = request(ReportType.JOBS_CSV);
+        request.setLimit(100_000);
+        request.setYear(2025);
+
+        assertEquals(new ReportJobParameters(null, null, 5000, null, null),
+                ReportJobServiceImpl.parametersFor(ReportType.JOBS_CSV, request));
+        assertEquals(new ReportJobParameters(null, null, 2000, null, null),
+                ReportJobServiceImpl.parametersFor(ReportType.LEADS_CSV, request(ReportType.LEADS_CSV)));
+    }
+
+    @Test
+    void dedupKey_changesWithDataVersion() {
+        ReportJobParameters parameters = new ReportJobParameters(null, null, null, 2025, null);
+
+        assertEquals(ReportJobServiceImpl.dedupKey(ReportType.PAID_INVOICES_PDF, parameters, "v1"),
+                ReportJobServiceImpl.dedupKey(ReportType.PAID_INVOICES_PDF, parameters, "v1"));
+        assertNotEquals(ReportJobServiceImpl.dedupKey(ReportType.PAID_INVOICES_PDF, parameters, "v1"),
+                ReportJobServiceImpl.dedupKey(ReportType.PAID_INVOICES_PDF, parameters, "v2"));
+    }
+
+    @Test
+    void getReportJob_whenMissing_throwsNotFound() {
+        when(queue.find(tenantId, jobId)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> service.getReportJob(tenantId, userId, jobId));
+    }
+
+    @Test
+    void getReportJob_whileQueued_hidesFileDetails() {
+        when(queue.find(tenantId, jobId)).thenReturn(Optional.of(job(ReportType.JOBS_CSV,
+                ReportJobStatus.QUEUED, null)));
+
+        ReportJobDto dto = service.getReportJob(tenantId, userId, jobId);
+
+        assertNull(dto.getFileName());
+        assertNull(dto.getSizeBytes());
+    }
+
+    @Test
+    void openReportJobFile_streamsStoredFile() {
+        when(queue.find(tenantId, jobId)).thenReturn(Optional.of(job(ReportType.PAID_INVOICES_PDF,
+                ReportJobStatus.SUCCEEDED, Instant.now().plusSeconds(600))));
+        ByteArrayInputStream content = new ByteArrayInputStream(new byte[] { 1, 2, 3 });
+        when(storage.loadAsStream("tenant/report-jobs/key")).thenReturn(content);
+
+        ReportJobService.ReportJobFile file = service.openReportJobFile(tenantId, userId, jobId);
+
+        assertEquals(content, file.content());
+        assertEquals(3, file.size());
+        assertEquals("report.pdf", file.fileName());
+        assertEquals("application/pdf", file.contentType());
+    }
+
+    @Test
+    void openReportJobFile_pastExpiry_throwsExpired() {
+        when(queue.find(tenantId, jobId)).thenReturn(Optional.of(job(ReportType.PAID_INVOICES_PDF,
+                ReportJobStatus.SUCCEEDED, Instant.now().minusSeconds(1))));
+
+        assertThrows(ReportJobExpiredException.class, () -> service.openReportJobFile(tenantId, userId, jobId));
+
+        verifyNoInteractions(storage);
+    }
+
+    @Test
+    void openReportJobFile_whileRunningOrFailed_throwsNotReady() {
+        when(queue.find(tenantId, jobId))
+                .thenReturn(Optional.of(job(ReportType.LEADS_CSV, ReportJobStatus.RUNNING, null)))
+                .thenReturn(Optional.of(job(ReportType.LEADS_CSV, ReportJobStatus.FAILED, null)));
+
+        assertThrows(ReportJobNotReadyException.class, () -> service.openReportJobFile(tenantId, userId, jobId));
+        ReportJobNotReadyException failed = assertThrows(ReportJobNotReadyException.class,
+                () -> service.openReportJobFile(tenantId, userId, jobId));
+
+        assertEquals("Report generation failed: No data.", failed.getMessage());
+        verifyNoInteractions(storage);
+    }
+
+    private static CreateReportJobRequest request(ReportType type) {
+        CreateReportJobRequest request = new CreateReportJobRequest();
+        request.setType(type);
+        return request;
+    }
+
+    private ReportJob job(ReportType type, ReportJobStatus status, Instant expiresAt) {
+        boolean done = status == ReportJobStatus.SUCCEEDED;
+        return new ReportJob(jobId, tenantId, type, status, done ? "tenant/report-jobs/key" : null,
+                done ? "report.pdf" : null, done ? "application/pdf" : null, done ? 3L : null,
+                status == ReportJobStatus.FAILED ? "No data." : null, Instant.now(), null, null, expiresAt);
+    }
+}
@@ -0,0 +1,191 @@
+package com.roofingcrm.service.report;
+
+import com.roofingcrm.domain.enums.ReportJobStatus;
+import com.roofingcrm.domain.enums.ReportType;
+import com.roofingcrm.realtime.ReportJobRealtimePublisher;
+import com.roofingcrm.service.exception.NoPaidInvoicesForYearException;
+import com.roofingcrm.service.report.ReportJobGenerator.ReportFile;
+import com.roofingcrm.service.report.ReportJobQueue.ClaimedReportJob;
+import com.roofingcrm.service.report.ReportJobQueue.EndedReportJob;
+import com.roofingcrm.service.report.ReportJobQueue.ExpiredFile;
+import com.roofingcrm.storage.AttachmentStorageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings("null")
+class ReportJobWorkerTest {
+
+    @Mock
+    private ReportJobQueue queue;
+
+    @Mock
+    private ReportJobGenerator generator;
+
+    @Mock
+    private AttachmentStorageService storage;
+
+    @Mock
+    private ReportJobRealtimePublisher publisher;
+
+    @Mock
+    private ThreadPoolTaskExecutor generators;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReportJobWorker worker;
+    private ClaimedReportJob job;
+
+    @BeforeEach
+    void setUp() {
+        ReportJobProperties properties = new ReportJobProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        worker = new ReportJobWorker(queue, generator, storage, publisher, properties, meterRegistry, generators);
+        job = new ClaimedReportJob(UUID.randomUUID(), UUID.randomUUID(), "acme", UUID.randomUUID(),
+                ReportType.PAID_INVOICES_PDF, new ReportJobParameters(null, null, null, 2025, null), 1);
+    }
+
+    @Test
+    void run_storesFile_marksSucceeded_andPublishes() {
+        ByteArrayInputStream content = new ByteArrayInputStream(new byte[] { 1, 2, 3 });
+        when(generator.generate(job)).thenReturn(new ReportFile("paid-invoices-2025.pdf", 3, content));
+        when(storage.store("acme", job.id(), "paid-invoices-2025.pdf", content)).thenReturn("acme/key");
+        when(queue.markSucceeded(job, "acme/key", "paid-invoices-2025.pdf", "application/pdf", 3, 60))
+                .thenReturn(true);
+
+        worker.run(job);
+
+        verify(publisher).publishCompleted(job.tenantId(), job.id(), job.type(), ReportJobStatus.SUCCEEDED);
+        verify(storage, never()).delete(anyString());
+        assertEquals(1.0, meterRegistry.counter("reports.jobs.succeeded").count());
+    }
+
+    @Test
+    void run_whenClaimWasLost_deletesStoredFile_withoutPublishing() {
+        ByteArrayInputStream content = new ByteArrayInputStream(new byte[] { 1 });
+        when(generator.generate(job)).thenReturn(new ReportFile("paid-invoices-2025.pdf", 1, content));
+        when(storage.store(any(), any(), any(), any())).thenReturn("acme/key");
+        when(queue.markSucceeded(eq(job), any(), any(), any(), eq(1L), eq(60))).thenReturn(false);
+
+        worker.run(job);
+
+        verify(storage).delete("acme/key");
+        verifyNoInteractions(publisher);
+    }
+
+    @Test
+    void run_whenGenerationFails_recordsUserFacingError() {
+        when(generator.generate(job)).thenThrow(new NoPaidInvoicesForYearException(2025));
+        when(queue.markFailed(eq(job), anyString())).thenReturn(true);
+
+        worker.run(job);
+
+        verify(queue).markFailed(job, new NoPaidInvoicesForYearException(2025).getMessage());
+        verify(publisher).publishCompleted(job.tenantId(), job.id(), job.type(), ReportJobStatus.FAILED);
+        verifyNoInteractions(storage);
+        assertEquals(1.0, meterRegistry.counter("reports.jobs.failed").count());
+    }
+
+    @Test
+    void run_whenStoringFails_deletesNothing_andHidesInternalError() {
+        when(generator.generate(job)).thenReturn(
+                new ReportFile("paid-invoices-2025.pdf", 1, new ByteArrayInputStream(new byte[] { 1 })));
+        when(storage.store(any(), any(), any(), any())).thenThrow(new IllegalStateException("disk full"));
+        when(queue.markFailed(eq(job), anyString())).thenReturn(true);
+
+        worker.run(job);
+
+        verify(queue).markFailed(job, "Report generation failed.");
+        verify(storage, never()).delete(anyString());
+    }
+
+    @Test
+    void maintain_failsAbandonedJobs_andClearsOnlyDeletedFiles() {
+        EndedReportJob abandoned = new EndedReportJob(UUID.randomUUID(), UUID.randomUUID(), ReportType.JOBS_CSV);
+        ExpiredFile deleted = new ExpiredFile(UUID.randomUUID(), "acme/a");
+        ExpiredFile stuck = new ExpiredFile(UUID.randomUUID(), "acme/b");
+        when(queue.failAbandoned(2)).thenReturn(List.of(abandoned));
+        when(queue.expire(anyInt())).thenReturn(List.of(deleted, stuck));
+        lenient().doThrow(new IllegalStateException("busy")).when(storage).delete("acme/b");
+
+        worker.maintain();
+
+        verify(publisher).publishCompleted(abandoned.tenantId(), abandoned.id(), abandoned.type(),
+                ReportJobStatus.FAILED);
+        verify(queue).clearStorageKey(deleted.id());
+        verify(queue, never()).clearStorageKey(stuck.id());
+        verify(queue).purge(7);
+    }
+
+    @Test
+    void pollOnce_claimsNoMoreThanIdleGenerators() {
+        when(queue.claim(2, 2 * 60 * 1000L, 2)).thenReturn(List.of(job));
+
+        assertEquals(1, worker.pollOnce());
+
+        verify(generators).execute(any());
+        verify(queue).claim(2, 2 * 60 * 1000L, 2);
+    }
+
+    @Test
+    void renewLeases_extendsJobsBeingGenerated() {
+        when(queue.claim(anyInt(), anyLong(), anyInt())).thenReturn(List.of(job));
+        worker.pollOnce();
+
+        worker.renewLeases();
+
+        verify(queue).renew(job, 2 * 60 * 1000L);
+    }
+
+    @Test
+    void close_releasesJobsBeingGenerated_andStopsPolling() {
+        when(queue.claim(anyInt(), anyLong(), anyInt())).thenReturn(List.of(job));
+        worker.pollOnce();
+
+        worker.close();
+        worker.poll();
+        worker.wakeUp();
+
+        verify(generators).shutdown();
+        verify(queue).release(job);
+        verify(queue).claim(anyInt(), anyLong(), anyInt());
+    }
+
+    @Test
+    void run_interruptedByShutdown_leavesJobToTheRelease() {
+        when(generator.generate(job)).thenThrow(new IllegalStateException("interrupted"));
+        worker.close();
+
+        worker.run(job);
+
+        verify(queue, never()).markFailed(any(), anyString());
+        verifyNoInteractions(publisher);
+    }
+
+    @Test
+    void describe_hidesUnexpectedErrors() {
+        assertEquals("year is required", ReportJobWorker.describe(new IllegalArgumentException("year is required")));
+        assertNull(ReportJobWorker.describe(new IllegalStateException("connection reset")));
+    }
+}
@@ -5,6 +5,7 @@ import com.roofingcrm.api.v1.settings.UpdateAppPreferencesRequest;
 import com.roofingcrm.domain.entity.Tenant;
 import com.roofingcrm.domain.entity.TenantAppPreferences;
 import com.roofingcrm.domain.repository.TenantAppPreferencesRepository;
+import com.roofingcrm.service.cache.ReferenceDataCacheInvalidator;
 import com.roofingcrm.service.tenant.TenantAccessService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -31,6 +32,8 @@ class AppPreferencesServiceImplTest {
     private TenantAccessService tenantAccessService;
     @Mock
     private TenantAppPreferencesRepository preferencesRepository;
+    @Mock
+    private ReferenceDataCacheInvalidator cacheInvalidator;
 
     private AppPreferencesServiceImpl service;
 
@@ -40,7 +43,7 @@ class AppPreferencesServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        service = new AppPreferencesServiceImpl(tenantAccessService, preferencesRepository);
+        service = new AppPreferencesServiceImpl(tenantAccessService, preferencesRepository, cacheInvalidator);
         tenantId = UUID.randomUUID();
         userId = UUID.randomUUID();
         tenant = new Tenant();
@@ -148,6 +151,7 @@ class AppPreferencesServiceImplTest {
         TenantAppPreferences saved = cap.getValue();
         assertEquals(tenant, saved.getTenant());
         assertNotNull(saved.getPreferences().get("dashboard"));
+        verify(cacheInvalidator).evictAppPreferencesAfterCommit();
 
         @SuppressWarnings("unchecked")
         List<String> widgets = (List<String>) dto.getDashboard().get("widgets");
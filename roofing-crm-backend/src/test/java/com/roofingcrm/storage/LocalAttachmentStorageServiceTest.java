@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import org.springframework.mock.web.MockMultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -97,4 +98,26 @@ class LocalAttachmentStorageServiceTest {
             assertArrayEquals("payload".getBytes(StandardCharsets.UTF_8), in.readAllBytes());
         }
     }
+
+    @Test
+    void storeStream_thenDelete_removesFileAndToleratesMissingFile() throws IOException {
+        LocalStorageProperties props = new LocalStorageProperties();
+        props.setBaseDir(tempDir.resolve("uploads").toString());
+        LocalAttachmentStorageService svc = new LocalAttachmentStorageService(props);
+
+        UUID id = UUID.randomUUID();
+        String key = svc.store("tenant-one", id, "jobs-2026-01-01.csv",
+                new ByteArrayInputStream("a,b".getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals("tenant-one/" + id + "_jobs-2026-01-01.csv", key);
+        try (var in = svc.loadAsStream(key)) {
+            assertArrayEquals("a,b".getBytes(StandardCharsets.UTF_8), in.readAllBytes());
+        }
+
+        svc.delete(key);
+        svc.delete(key);
+
+        assertFalse(Files.exists(tempDir.resolve("uploads").resolve(key)));
+        assertThrows(IllegalArgumentException.class, () -> svc.delete("../secrets"));
+    }
 }